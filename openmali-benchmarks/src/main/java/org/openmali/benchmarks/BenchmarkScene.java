@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2007-2009, OpenMaLi Project Group all rights reserved.
+ * 
+ * Portions based on the Sun's javax.vecmath interface, Copyright by Sun
+ * Microsystems or Kenji Hiranabe's alternative GC-cheap implementation.
+ * Many thanks to the developers.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the 'OpenMaLi Project Group' nor the names of its
+ * contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) A
+ * RISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE
+ */
+package org.openmali.benchmarks;
+
+import java.util.Random;
+
+import org.openmali.spatial.SpatialNode;
+import org.openmali.spatial.bodies.Frustum;
+import org.openmali.spatial.bounds.BoundingBox;
+import org.openmali.spatial.bounds.Bounds;
+import org.openmali.vecmath2.Matrix4f;
+
+/**
+ * Shared scene data for the spatial benchmarks.
+ */
+class BenchmarkScene {
+	/**
+	 * The extent of the scene in each direction from the origin.
+	 */
+	public static final float WORLD_SIZE = 1000f;
+
+	/**
+	 * A node with an axis aligned bounding box.
+	 */
+	public static class BoxNode implements SpatialNode {
+		public final BoundingBox box = new BoundingBox();
+		private Object treeCell = null;
+
+		public Bounds getWorldBounds() {
+			return (box);
+		}
+
+		public void setTreeCell(Object treeCell) {
+			this.treeCell = treeCell;
+		}
+
+		public Object getTreeCell() {
+			return (treeCell);
+		}
+	}
+
+	/**
+	 * Creates a frustum looking down the negative z axis from the origin
+	 * with a 60 degrees field of view.
+	 */
+	public static Frustum createFrustum() {
+		final float near = 1f;
+		final float far = WORLD_SIZE;
+		final float f = 1f / (float) Math.tan(Math.toRadians(30.0));
+
+		final Matrix4f proj = new Matrix4f();
+		proj.set(f, 0f, 0f, 0f, 0f, f, 0f, 0f, 0f, 0f, (far + near) / (near - far), 2f * far * near / (near - far), 0f, 0f, -1f, 0f);
+
+		final Matrix4f view = new Matrix4f();
+		view.setIdentity();
+
+		final Frustum frustum = new Frustum();
+		frustum.compute(proj, view);
+
+		return (frustum);
+	}
+
+	/**
+	 * Creates count random boxes inside of the world, each with an extent of
+	 * at most maxSize, packed as lowerX, lowerY, lowerZ, upperX, upperY, upperZ.
+	 */
+	public static float[] createBoxes(Random rnd, int count, float maxSize) {
+		final float[] boxes = new float[count * 6];
+
+		for (int i = 0; i < count; i++) {
+			final float size = rnd.nextFloat() * maxSize;
+			final float x = (rnd.nextFloat() * 2f - 1f) * (WORLD_SIZE - size);
+			final float y = (rnd.nextFloat() * 2f - 1f) * (WORLD_SIZE - size);
+			final float z = (rnd.nextFloat() * 2f - 1f) * (WORLD_SIZE - size);
+
+			boxes[i * 6 + 0] = x;
+			boxes[i * 6 + 1] = y;
+			boxes[i * 6 + 2] = z;
+			boxes[i * 6 + 3] = x + size;
+			boxes[i * 6 + 4] = y + size;
+			boxes[i * 6 + 5] = z + size;
+		}
+
+		return (boxes);
+	}
+
+	private BenchmarkScene() {
+	}
+}
@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2007-2009, OpenMaLi Project Group all rights reserved.
+ * 
+ * Portions based on the Sun's javax.vecmath interface, Copyright by Sun
+ * Microsystems or Kenji Hiranabe's alternative GC-cheap implementation.
+ * Many thanks to the developers.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the 'OpenMaLi Project Group' nor the names of its
+ * contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) A
+ * RISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE
+ */
+package org.openmali.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openmali.spatial.bodies.Classifier;
+import org.openmali.spatial.bodies.Frustum;
+
+/**
+ * Benchmarks for {@link Classifier#classifyFrustumBox(Frustum, float, float, float, float, float, float)}
+ * and {@link Classifier#classifyFrustumSphere(Frustum, float, float, float, float)}
+ * over a set of random boxes, of which about a tenth is visible.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ClassifierBenchmark {
+	@Param( { "1024", "65536" })
+	public int count;
+
+	private Frustum frustum;
+	private float[] boxes;
+
+	@Setup
+	public void setup() {
+		frustum = BenchmarkScene.createFrustum();
+		boxes = BenchmarkScene.createBoxes(new Random(4711L), count, 50f);
+	}
+
+	@Benchmark
+	public void classifyFrustumBox(Blackhole bh) {
+		final float[] b = boxes;
+
+		for (int i = 0; i < count; i++) {
+			final int j = i * 6;
+
+			bh.consume(Classifier.classifyFrustumBox(frustum, b[j + 0], b[j + 1], b[j + 2], b[j + 3], b[j + 4], b[j + 5]));
+		}
+	}
+
+	@Benchmark
+	public void classifyFrustumSphere(Blackhole bh) {
+		final float[] b = boxes;
+
+		for (int i = 0; i < count; i++) {
+			final int j = i * 6;
+			final float r = (b[j + 3] - b[j + 0]) * 0.5f;
+
+			bh.consume(Classifier.classifyFrustumSphere(frustum, b[j + 0] + r, b[j + 1] + r, b[j + 2] + r, r * 1.7320508f));
+		}
+	}
+}
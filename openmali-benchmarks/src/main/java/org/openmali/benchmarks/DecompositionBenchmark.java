@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) 2007-2009, OpenMaLi Project Group all rights reserved.
+ * 
+ * Portions based on the Sun's javax.vecmath interface, Copyright by Sun
+ * Microsystems or Kenji Hiranabe's alternative GC-cheap implementation.
+ * Many thanks to the developers.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the 'OpenMaLi Project Group' nor the names of its
+ * contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) A
+ * RISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE
+ */
+package org.openmali.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openmali.decomposition.CholeskyDecomposition;
+import org.openmali.decomposition.EigenvalueDecomposition;
+import org.openmali.decomposition.LUDecomposition;
+import org.openmali.decomposition.QRDecomposition;
+import org.openmali.decomposition.SingularValueDecomposition;
+import org.openmali.vecmath2.MatrixMxNf;
+
+/**
+ * Benchmarks for the decompositions. LU, QR and Cholesky reuse their
+ * instance, like a solver called every frame would. SVD and eigenvalue
+ * decomposition are created per call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class DecompositionBenchmark {
+	@Param( { "4", "16", "64", "256" })
+	public int n;
+
+	private MatrixMxNf a;
+	private MatrixMxNf spd;
+	private MatrixMxNf b;
+	private MatrixMxNf x;
+
+	private LUDecomposition lu;
+	private QRDecomposition qr;
+	private CholeskyDecomposition cholesky;
+
+	@Setup
+	public void setup() {
+		final Random rnd = new Random(4711L);
+
+		a = new MatrixMxNf(n, n);
+		b = new MatrixMxNf(n, 1);
+		x = new MatrixMxNf(n, 1);
+
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				a.set(i, j, rnd.nextFloat() * 2f - 1f);
+			}
+
+			// diagonally dominant, so that the matrix is well conditioned
+			a.set(i, i, a.get(i, i) + n);
+			b.set(i, 0, rnd.nextFloat());
+		}
+
+		// A * A^T is symmetric positive definite
+		spd = new MatrixMxNf(n, n);
+		spd.mulTransposeRight(a, a);
+
+		lu = new LUDecomposition(n, n);
+		qr = new QRDecomposition(n, n);
+		cholesky = new CholeskyDecomposition(n);
+	}
+
+	@Benchmark
+	public LUDecomposition luDecompose() {
+		lu.decompose(a);
+
+		return (lu);
+	}
+
+	@Benchmark
+	public MatrixMxNf luDecomposeAndSolve() {
+		lu.decompose(a);
+		lu.solve(b, x);
+
+		return (x);
+	}
+
+	@Benchmark
+	public QRDecomposition qrDecompose() {
+		qr.decompose(a);
+
+		return (qr);
+	}
+
+	@Benchmark
+	public CholeskyDecomposition choleskyDecompose() {
+		cholesky.decompose(spd);
+
+		return (cholesky);
+	}
+
+	@Benchmark
+	public SingularValueDecomposition svd() {
+		return (new SingularValueDecomposition(a));
+	}
+
+	@Benchmark
+	public EigenvalueDecomposition eigenSymmetric() {
+		return (new EigenvalueDecomposition(spd));
+	}
+}
@@ -0,0 +1,286 @@
+/**
+ * Copyright (c) 2007-2009, OpenMaLi Project Group all rights reserved.
+ * 
+ * Portions based on the Sun's javax.vecmath interface, Copyright by Sun
+ * Microsystems or Kenji Hiranabe's alternative GC-cheap implementation.
+ * Many thanks to the developers.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the 'OpenMaLi Project Group' nor the names of its
+ * contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) A
+ * RISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE
+ */
+package org.openmali.benchmarks;
+
+import java.util.Random;
+
+import org.openmali.FastMath;
+import org.openmali.FastMathd;
+import org.openmali.MathBackend;
+
+/**
+ * Prints the maximum error of every {@link FastMath} and {@link FastMathd}
+ * function per {@link MathBackend}. Run it with
+ * 
+ * <pre>
+ * java -cp target/benchmarks.jar org.openmali.benchmarks.FastMathAccuracy [samples]
+ * </pre>
+ * 
+ * The float functions are compared to the double results of {@link Math}
+ * and the error is given in ulps of the float result. The double functions
+ * are compared to {@link Math} itself, which is accurate to one ulp.
+ * Together with {@link FastMathBenchmark} this gives the numbers to choose
+ * a backend per deployment.
+ */
+public class FastMathAccuracy {
+	private static final int SIN = 0;
+	private static final int COS = 1;
+	private static final int TAN = 2;
+	private static final int ASIN = 3;
+	private static final int ACOS = 4;
+	private static final int ATAN = 5;
+	private static final int ATAN2 = 6;
+	private static final int EXP = 7;
+	private static final int LOG = 8;
+	private static final int LOG2 = 9;
+	private static final int LOG10 = 10;
+	private static final int POW = 11;
+	private static final int SQRT = 12;
+	private static final int INV_SQRT = 13;
+
+	private static final String[] NAMES = { "sin", "cos", "tan", "asin", "acos", "atan", "atan2", "exp", "log", "log2", "log10", "pow", "sqrt", "invSqrt" };
+
+	/**
+	 * Creates an argument for the function. The trigonometric functions are
+	 * sampled over [-2pi, 2pi], the others over their typical domain with
+	 * log-uniform magnitudes.
+	 */
+	private static double argument(int function, Random rnd, boolean doublePrecision) {
+		switch (function) {
+		case SIN:
+		case COS:
+		case TAN:
+			return ((rnd.nextDouble() * 4.0 - 2.0) * Math.PI);
+		case ASIN:
+		case ACOS:
+			return (rnd.nextDouble() * 2.0 - 1.0);
+		case ATAN:
+		case ATAN2:
+			return ((rnd.nextBoolean() ? 1.0 : -1.0) * Math.pow(10.0, rnd.nextDouble() * 8.0 - 4.0));
+		case EXP:
+			return ((rnd.nextDouble() * 2.0 - 1.0) * (doublePrecision ? 700.0 : 85.0));
+		case POW:
+			return (Math.pow(10.0, rnd.nextDouble() * 4.0 - 2.0));
+		default:
+			return (doublePrecision ? Math.pow(10.0, rnd.nextDouble() * 600.0 - 300.0) : Math.pow(10.0, rnd.nextDouble() * 72.0 - 36.0));
+		}
+	}
+
+	private static double exponent(Random rnd) {
+		return (rnd.nextDouble() * 20.0 - 10.0);
+	}
+
+	private static double reference(int function, double x, double y) {
+		switch (function) {
+		case SIN:
+			return (Math.sin(x));
+		case COS:
+			return (Math.cos(x));
+		case TAN:
+			return (Math.tan(x));
+		case ASIN:
+			return (Math.asin(x));
+		case ACOS:
+			return (Math.acos(x));
+		case ATAN:
+			return (Math.atan(x));
+		case ATAN2:
+			return (Math.atan2(y, x));
+		case EXP:
+			return (Math.exp(x));
+		case LOG:
+			return (Math.log(x));
+		case LOG2:
+			return (Math.log(x) / Math.log(2.0));
+		case LOG10:
+			return (Math.log10(x));
+		case POW:
+			return (Math.pow(x, y));
+		case SQRT:
+			return (Math.sqrt(x));
+		default:
+			return (1.0 / Math.sqrt(x));
+		}
+	}
+
+	private static float evaluate(int function, float x, float y) {
+		switch (function) {
+		case SIN:
+			return (FastMath.sin(x));
+		case COS:
+			return (FastMath.cos(x));
+		case TAN:
+			return (FastMath.tan(x));
+		case ASIN:
+			return (FastMath.asin(x));
+		case ACOS:
+			return (FastMath.acos(x));
+		case ATAN:
+			return (FastMath.atan(x));
+		case ATAN2:
+			return (FastMath.atan2(y, x));
+		case EXP:
+			return (FastMath.exp(x));
+		case LOG:
+			return (FastMath.log(x));
+		case LOG2:
+			return (FastMath.log2(x));
+		case LOG10:
+			return (FastMath.log10(x));
+		case POW:
+			return (FastMath.pow(x, y));
+		case SQRT:
+			return (FastMath.sqrt(x));
+		default:
+			return (FastMath.invSqrt(x));
+		}
+	}
+
+	private static double evaluate(int function, double x, double y) {
+		switch (function) {
+		case SIN:
+			return (FastMathd.sin(x));
+		case COS:
+			return (FastMathd.cos(x));
+		case TAN:
+			return (FastMathd.tan(x));
+		case ASIN:
+			return (FastMathd.asin(x));
+		case ACOS:
+			return (FastMathd.acos(x));
+		case ATAN:
+			return (FastMathd.atan(x));
+		case ATAN2:
+			return (FastMathd.atan2(y, x));
+		case EXP:
+			return (FastMathd.exp(x));
+		case LOG:
+			return (FastMathd.log(x));
+		case LOG2:
+			return (FastMathd.log2(x));
+		case LOG10:
+			return (FastMathd.log10(x));
+		case POW:
+			return (FastMathd.pow(x, y));
+		case SQRT:
+			return (FastMathd.sqrt(x));
+		default:
+			return (FastMathd.invSqrt(x));
+		}
+	}
+
+	/**
+	 * @return { max ulp error, max absolute error }
+	 */
+	private static double[] measure(int function, boolean doublePrecision, int samples) {
+		final Random rnd = new Random(4711L + function);
+
+		double maxUlps = 0.0;
+		double maxAbs = 0.0;
+
+		for (int i = 0; i < samples; i++) {
+			double x = argument(function, rnd, doublePrecision);
+			double y = (function == POW) ? exponent(rnd) : ((function == ATAN2) ? argument(function, rnd, doublePrecision) : 0.0);
+
+			final double result;
+			final double ulp;
+			if (doublePrecision) {
+				result = evaluate(function, x, y);
+				ulp = Math.ulp(reference(function, x, y));
+			} else {
+				x = (float) x;
+				y = (float) y;
+				result = evaluate(function, (float) x, (float) y);
+				ulp = Math.ulp((float) reference(function, x, y));
+			}
+
+			final double ref = reference(function, x, y);
+			if (Double.isInfinite(ref) || Double.isNaN(ref) || (ref == 0.0))
+				continue;
+
+			final double abs = Math.abs(result - ref);
+
+			maxUlps = Math.max(maxUlps, abs / ulp);
+			maxAbs = Math.max(maxAbs, abs);
+		}
+
+		return (new double[] { maxUlps, maxAbs });
+	}
+
+	private static void report(boolean doublePrecision, int samples) {
+		final MathBackend[] backends = MathBackend.values();
+
+		System.out.println(doublePrecision ? "FastMathd (max ulps / max absolute error vs. Math)" : "FastMath (max ulps / max absolute error vs. Math in double)");
+
+		final StringBuilder sb = new StringBuilder();
+		sb.append(String.format("%-8s", "function"));
+		for (int b = 0; b < backends.length; b++) {
+			sb.append(String.format("  %-24s", backends[b]));
+		}
+		System.out.println(sb);
+
+		for (int f = 0; f < NAMES.length; f++) {
+			sb.setLength(0);
+			sb.append(String.format("%-8s", NAMES[f]));
+
+			for (int b = 0; b < backends.length; b++) {
+				if (doublePrecision)
+					FastMathd.setBackend(backends[b]);
+				else
+					FastMath.setBackend(backends[b]);
+
+				final double[] error = measure(f, doublePrecision, samples);
+
+				sb.append(String.format("  %10.3g / %-11.3g", error[0], error[1]));
+			}
+
+			System.out.println(sb);
+		}
+
+		System.out.println();
+	}
+
+	public static void main(String[] args) {
+		final int samples = (args.length > 0) ? Integer.parseInt(args[0]) : 1000000;
+
+		final MathBackend backend = FastMath.getBackend();
+		final MathBackend backendd = FastMathd.getBackend();
+
+		report(false, samples);
+		report(true, samples);
+
+		FastMath.setBackend(backend);
+		FastMathd.setBackend(backendd);
+	}
+}
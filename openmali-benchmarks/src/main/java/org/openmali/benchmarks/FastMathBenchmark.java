@@ -0,0 +1,223 @@
+/**
+ * Copyright (c) 2007-2009, OpenMaLi Project Group all rights reserved.
+ * 
+ * Portions based on the Sun's javax.vecmath interface, Copyright by Sun
+ * Microsystems or Kenji Hiranabe's alternative GC-cheap implementation.
+ * Many thanks to the developers.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the 'OpenMaLi Project Group' nor the names of its
+ * contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) A
+ * RISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE
+ */
+package org.openmali.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openmali.FastMath;
+import org.openmali.FastMathd;
+import org.openmali.MathBackend;
+
+/**
+ * Benchmarks for the {@link FastMath} and {@link FastMathd} functions per
+ * {@link MathBackend} compared to {@link Math}. See {@link FastMathAccuracy}
+ * for the matching accuracy report.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class FastMathBenchmark {
+	@Param( { "1024" })
+	public int count;
+
+	@Param( { "TABLE", "POLYNOMIAL", "JAVA" })
+	public String backend;
+
+	private float[] angles;
+	private float[] units;
+	private float[] positives;
+	private double[] anglesd;
+	private double[] positivesd;
+
+	@Setup
+	public void setup() {
+		final Random rnd = new Random(4711L);
+
+		angles = new float[count];
+		units = new float[count];
+		positives = new float[count];
+		anglesd = new double[count];
+		positivesd = new double[count];
+
+		for (int i = 0; i < count; i++) {
+			angles[i] = rnd.nextFloat() * 4f * FastMath.PI - 2f * FastMath.PI;
+			units[i] = rnd.nextFloat() * 2f - 1f;
+			positives[i] = 0.01f + rnd.nextFloat() * 100f;
+			anglesd[i] = angles[i];
+			positivesd[i] = positives[i];
+		}
+
+		FastMath.setBackend(MathBackend.valueOf(backend));
+		FastMathd.setBackend(MathBackend.valueOf(backend));
+
+		// build the tables outside of the measurement
+		FastMath.sin(0f);
+		FastMathd.sin(0.0);
+	}
+
+	@Benchmark
+	public void fastSin(Blackhole bh) {
+		for (int i = 0; i < count; i++) {
+			bh.consume(FastMath.sin(angles[i]));
+		}
+	}
+
+	@Benchmark
+	public void fastCos(Blackhole bh) {
+		for (int i = 0; i < count; i++) {
+			bh.consume(FastMath.cos(angles[i]));
+		}
+	}
+
+	@Benchmark
+	public void fastTan(Blackhole bh) {
+		for (int i = 0; i < count; i++) {
+			bh.consume(FastMath.tan(angles[i]));
+		}
+	}
+
+	@Benchmark
+	public void fastAsin(Blackhole bh) {
+		for (int i = 0; i < count; i++) {
+			bh.consume(FastMath.asin(units[i]));
+		}
+	}
+
+	@Benchmark
+	public void fastAcos(Blackhole bh) {
+		for (int i = 0; i < count; i++) {
+			bh.consume(FastMath.acos(units[i]));
+		}
+	}
+
+	@Benchmark
+	public void fastAtan2(Blackhole bh) {
+		for (int i = 0; i < count; i++) {
+			bh.consume(FastMath.atan2(units[i], angles[i]));
+		}
+	}
+
+	@Benchmark
+	public void fastExp(Blackhole bh) {
+		for (int i = 0; i < count; i++) {
+			bh.consume(FastMath.exp(angles[i]));
+		}
+	}
+
+	@Benchmark
+	public void fastLog(Blackhole bh) {
+		for (int i = 0; i < count; i++) {
+			bh.consume(FastMath.log(positives[i]));
+		}
+	}
+
+	@Benchmark
+	public void fastPow(Blackhole bh) {
+		for (int i = 0; i < count; i++) {
+			bh.consume(FastMath.pow(positives[i], units[i]));
+		}
+	}
+
+	@Benchmark
+	public void fastInvSqrt(Blackhole bh) {
+		for (int i = 0; i < count; i++) {
+			bh.consume(FastMath.invSqrt(positives[i]));
+		}
+	}
+
+	@Benchmark
+	public void fastSind(Blackhole bh) {
+		for (int i = 0; i < count; i++) {
+			bh.consume(FastMathd.sin(anglesd[i]));
+		}
+	}
+
+	@Benchmark
+	public void fastAtan2d(Blackhole bh) {
+		for (int i = 0; i < count; i++) {
+			bh.consume(FastMathd.atan2(anglesd[i], positivesd[i]));
+		}
+	}
+
+	@Benchmark
+	public void fastExpd(Blackhole bh) {
+		for (int i = 0; i < count; i++) {
+			bh.consume(FastMathd.exp(anglesd[i]));
+		}
+	}
+
+	@Benchmark
+	public void fastLogd(Blackhole bh) {
+		for (int i = 0; i < count; i++) {
+			bh.consume(FastMathd.log(positivesd[i]));
+		}
+	}
+
+	@Benchmark
+	public void fastInvSqrtd(Blackhole bh) {
+		for (int i = 0; i < count; i++) {
+			bh.consume(FastMathd.invSqrt(positivesd[i]));
+		}
+	}
+
+	@Benchmark
+	public void mathSin(Blackhole bh) {
+		for (int i = 0; i < count; i++) {
+			bh.consume((float) Math.sin(angles[i]));
+		}
+	}
+
+	@Benchmark
+	public void mathCos(Blackhole bh) {
+		for (int i = 0; i < count; i++) {
+			bh.consume((float) Math.cos(angles[i]));
+		}
+	}
+}
@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2007-2009, OpenMaLi Project Group all rights reserved.
+ * 
+ * Portions based on the Sun's javax.vecmath interface, Copyright by Sun
+ * Microsystems or Kenji Hiranabe's alternative GC-cheap implementation.
+ * Many thanks to the developers.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the 'OpenMaLi Project Group' nor the names of its
+ * contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) A
+ * RISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE
+ */
+package org.openmali.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openmali.spatial.bodies.Box;
+import org.openmali.spatial.bodies.IntersectionFactory;
+import org.openmali.spatial.bodies.Sphere;
+import org.openmali.vecmath2.Point3f;
+import org.openmali.vecmath2.Ray3f;
+
+/**
+ * Benchmarks for the ray tests of {@link IntersectionFactory}. Each
+ * invocation tests one ray against all bodies.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class IntersectionBenchmark {
+	@Param( { "1024" })
+	public int count;
+
+	private Box[] boxes;
+	private Sphere[] spheres;
+	private float[] packedBoxes;
+	private final Ray3f ray = new Ray3f();
+	private final Point3f intersection = new Point3f();
+
+	@Setup
+	public void setup() {
+		final Random rnd = new Random(4711L);
+
+		packedBoxes = BenchmarkScene.createBoxes(rnd, count, 100f);
+		boxes = new Box[count];
+		spheres = new Sphere[count];
+
+		for (int i = 0; i < count; i++) {
+			final int j = i * 6;
+			final float r = (packedBoxes[j + 3] - packedBoxes[j + 0]) * 0.5f;
+
+			boxes[i] = new Box(packedBoxes[j + 0], packedBoxes[j + 1], packedBoxes[j + 2], packedBoxes[j + 3], packedBoxes[j + 4], packedBoxes[j + 5]);
+			spheres[i] = new Sphere(packedBoxes[j + 0] + r, packedBoxes[j + 1] + r, packedBoxes[j + 2] + r, r);
+		}
+
+		ray.set(0f, 0f, 0f, 0.3f, 0.1f, -0.95f);
+	}
+
+	@Benchmark
+	public void boxIntersectsRay(Blackhole bh) {
+		final float[] b = packedBoxes;
+
+		for (int i = 0; i < count; i++) {
+			final int j = i * 6;
+
+			bh.consume(IntersectionFactory.boxIntersectsRay(b[j + 0], b[j + 1], b[j + 2], b[j + 3], b[j + 4], b[j + 5], ray));
+		}
+	}
+
+	@Benchmark
+	public void boxIntersectsRayWithIntersection(Blackhole bh) {
+		final float[] b = packedBoxes;
+
+		for (int i = 0; i < count; i++) {
+			final int j = i * 6;
+
+			bh.consume(IntersectionFactory.boxIntersectsRay(b[j + 0], b[j + 1], b[j + 2], b[j + 3], b[j + 4], b[j + 5], ray, intersection));
+		}
+	}
+
+	@Benchmark
+	public void boxIntersectsRayParametric(Blackhole bh) {
+		for (int i = 0; i < count; i++) {
+			bh.consume(IntersectionFactory.boxIntersectsRayParametric(boxes[i], ray));
+		}
+	}
+
+	@Benchmark
+	public void sphereIntersectsRay(Blackhole bh) {
+		for (int i = 0; i < count; i++) {
+			bh.consume(IntersectionFactory.intersectsRay(spheres[i], ray));
+		}
+	}
+
+	@Benchmark
+	public void sphereIntersectsRayInFront(Blackhole bh) {
+		for (int i = 0; i < count; i++) {
+			bh.consume(IntersectionFactory.sphereIntersectsRayInFront(spheres[i], ray, intersection));
+		}
+	}
+}
@@ -0,0 +1,182 @@
+/**
+ * Copyright (c) 2007-2009, OpenMaLi Project Group all rights reserved.
+ * 
+ * Portions based on the Sun's javax.vecmath interface, Copyright by Sun
+ * Microsystems or Kenji Hiranabe's alternative GC-cheap implementation.
+ * Many thanks to the developers.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the 'OpenMaLi Project Group' nor the names of its
+ * contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) A
+ * RISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE
+ */
+package org.openmali.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openmali.vecmath2.Matrix4f;
+import org.openmali.vecmath2.Point3f;
+
+/**
+ * Benchmarks for {@link Matrix4f} multiplication, inversion and point
+ * transformation, both through the object API and the bulk methods.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class Matrix4fBenchmark {
+	/**
+	 * A matrix of a given structure, which selects the inversion path.
+	 */
+	@State(Scope.Thread)
+	public static class InvertState {
+		@Param( { "rigid", "affine", "general" })
+		public String kind;
+
+		public final Matrix4f matrix = new Matrix4f();
+
+		@Setup
+		public void setup() {
+			matrix.rotY(0.7f);
+			matrix.mul(new Matrix4f().rotX(0.3f));
+			matrix.m03(3f);
+			matrix.m13(-2f);
+			matrix.m23(5f);
+
+			if (!"rigid".equals(kind)) {
+				matrix.m00(matrix.m00() * 2.5f);
+				matrix.m11(matrix.m11() * 0.5f);
+			}
+
+			if ("general".equals(kind)) {
+				matrix.m30(0.01f);
+				matrix.m32(-0.2f);
+			}
+		}
+	}
+
+	/**
+	 * Random points for the bulk transforms.
+	 */
+	@State(Scope.Thread)
+	public static class PointsState {
+		@Param( { "16", "1024", "65536" })
+		public int count;
+
+		public float[] src;
+		public float[] dst;
+
+		@Setup
+		public void setup() {
+			final Random rnd = new Random(4711L);
+
+			src = new float[count * 3];
+			dst = new float[count * 3];
+
+			for (int i = 0; i < src.length; i++) {
+				src[i] = rnd.nextFloat() * 200f - 100f;
+			}
+		}
+	}
+
+	private final Matrix4f m1 = new Matrix4f();
+	private final Matrix4f m2 = new Matrix4f();
+	private final Matrix4f result = new Matrix4f();
+	private final Point3f point = new Point3f();
+	private final Point3f pointOut = new Point3f();
+
+	@Setup
+	public void setup() {
+		m1.rotY(0.7f);
+		m1.m03(3f);
+		m1.m13(-2f);
+		m1.m23(5f);
+
+		m2.rotZ(1.1f);
+		m2.m03(-1f);
+
+		point.set(1f, 2f, 3f);
+	}
+
+	@Benchmark
+	public Matrix4f mul() {
+		return (result.mul(m1, m2));
+	}
+
+	@Benchmark
+	public Matrix4f invert(InvertState state) {
+		result.set(state.matrix);
+
+		return (result.invert());
+	}
+
+	@Benchmark
+	public Matrix4f invertGeneral(InvertState state) {
+		result.set(state.matrix);
+
+		return (result.invertGeneral());
+	}
+
+	@Benchmark
+	public Point3f transformPoint() {
+		m1.transform(point, pointOut);
+
+		return (pointOut);
+	}
+
+	@Benchmark
+	public void transformPointsLoop(PointsState points, Blackhole bh) {
+		final float[] src = points.src;
+		final Point3f p = pointOut;
+
+		for (int i = 0; i < points.count; i++) {
+			p.set(src[i * 3 + 0], src[i * 3 + 1], src[i * 3 + 2]);
+			m1.transform(p);
+			bh.consume(p.getX());
+		}
+	}
+
+	@Benchmark
+	public float[] transformPointsBulk(PointsState points) {
+		m1.transformPoints(points.src, 0, points.dst, 0, points.count, 3);
+
+		return (points.dst);
+	}
+}
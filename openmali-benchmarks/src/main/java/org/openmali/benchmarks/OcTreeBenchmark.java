@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2007-2009, OpenMaLi Project Group all rights reserved.
+ * 
+ * Portions based on the Sun's javax.vecmath interface, Copyright by Sun
+ * Microsystems or Kenji Hiranabe's alternative GC-cheap implementation.
+ * Many thanks to the developers.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the 'OpenMaLi Project Group' nor the names of its
+ * contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) A
+ * RISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE
+ */
+package org.openmali.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openmali.benchmarks.BenchmarkScene.BoxNode;
+import org.openmali.spatial.SpatialNodeCallback;
+import org.openmali.spatial.bodies.Frustum;
+import org.openmali.spatial.octree.OcTree;
+
+/**
+ * Benchmarks for {@link OcTree} insertion, bulk loading, node updates and
+ * frustum culling. Each invocation processes all nodes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class OcTreeBenchmark {
+	@Param( { "1000", "10000", "100000" })
+	public int nodes;
+
+	/**
+	 * "extended" for a tree with extended cells, "loose" for a loose tree
+	 * (looseness 2).
+	 */
+	@Param( { "extended", "loose" })
+	public String type;
+
+	private BoxNode[] nodeArray;
+	private float[] boxes;
+	private OcTree<BoxNode> tree;
+	private Frustum frustum;
+	private float offset = 0f;
+
+	private OcTree<BoxNode> createTree() {
+		final float size = 2f * BenchmarkScene.WORLD_SIZE;
+
+		if ("loose".equals(type))
+			return (new OcTree<BoxNode>(0f, 0f, 0f, size, size, size, 2f));
+
+		return (new OcTree<BoxNode>(0f, 0f, 0f, size, true));
+	}
+
+	@Setup
+	public void setup() {
+		boxes = BenchmarkScene.createBoxes(new Random(4711L), nodes, 10f);
+		nodeArray = new BoxNode[nodes];
+
+		for (int i = 0; i < nodes; i++) {
+			nodeArray[i] = new BoxNode();
+			nodeArray[i].box.set(boxes[i * 6 + 0], boxes[i * 6 + 1], boxes[i * 6 + 2], boxes[i * 6 + 3], boxes[i * 6 + 4], boxes[i * 6 + 5]);
+		}
+
+		tree = createTree();
+		tree.bulkLoad(nodeArray);
+
+		frustum = BenchmarkScene.createFrustum();
+	}
+
+	@Benchmark
+	public OcTree<BoxNode> insert() {
+		final OcTree<BoxNode> tree = createTree();
+
+		for (int i = 0; i < nodes; i++) {
+			tree.insertNode(nodeArray[i]);
+		}
+
+		return (tree);
+	}
+
+	@Benchmark
+	public OcTree<BoxNode> bulkLoad() {
+		final OcTree<BoxNode> tree = createTree();
+
+		tree.bulkLoad(nodeArray);
+
+		return (tree);
+	}
+
+	/**
+	 * Moves every node back and forth by a small step, like animated objects
+	 * do, and updates its position in the tree.
+	 */
+	@Benchmark
+	public OcTree<BoxNode> updateNodePosition() {
+		offset = (offset == 0f) ? 0.5f : 0f;
+
+		for (int i = 0; i < nodes; i++) {
+			final int b = i * 6;
+
+			nodeArray[i].box.set(boxes[b + 0] + offset, boxes[b + 1], boxes[b + 2] + offset, boxes[b + 3] + offset, boxes[b + 4], boxes[b + 5] + offset);
+			tree.updateNodePosition(nodeArray[i]);
+		}
+
+		return (tree);
+	}
+
+	@Benchmark
+	public void cullFrustum(final Blackhole bh) {
+		tree.cullFrustum(frustum, new SpatialNodeCallback<BoxNode>() {
+			public void hit(BoxNode node) {
+				bh.consume(node);
+			}
+		});
+	}
+}
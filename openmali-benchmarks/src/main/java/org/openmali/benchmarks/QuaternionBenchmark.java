@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2007-2009, OpenMaLi Project Group all rights reserved.
+ * 
+ * Portions based on the Sun's javax.vecmath interface, Copyright by Sun
+ * Microsystems or Kenji Hiranabe's alternative GC-cheap implementation.
+ * Many thanks to the developers.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the 'OpenMaLi Project Group' nor the names of its
+ * contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) A
+ * RISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE
+ */
+package org.openmali.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openmali.vecmath2.Matrix4f;
+import org.openmali.vecmath2.Quaternion4f;
+import org.openmali.vecmath2.util.Interpolation;
+
+/**
+ * Benchmarks for quaternion interpolation: {@link Quaternion4f#interpolateSLERP(Quaternion4f, Quaternion4f, float, Quaternion4f)},
+ * {@link Interpolation#nlerp(Quaternion4f, Quaternion4f, float, Quaternion4f)} and the batch bone kernel.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class QuaternionBenchmark {
+	/**
+	 * Packed keyframes for the batch bone kernel.
+	 */
+	@State(Scope.Thread)
+	public static class BonesState {
+		@Param( { "64", "4096" })
+		public int bones;
+
+		public float[] quatsFrom;
+		public float[] quatsTo;
+		public float[] transFrom;
+		public float[] transTo;
+		public float[] alphas;
+		public float[] matrices;
+
+		@Setup
+		public void setup() {
+			final Quaternion4f q = new Quaternion4f();
+
+			quatsFrom = new float[bones * 4];
+			quatsTo = new float[bones * 4];
+			transFrom = new float[bones * 3];
+			transTo = new float[bones * 3];
+			alphas = new float[bones];
+			matrices = new float[bones * 16];
+
+			for (int i = 0; i < bones; i++) {
+				q.setFromAxisAngle(0f, 1f, 0f, i * 0.01f);
+				q.get(quatsFrom, i * 4);
+				q.setFromAxisAngle(0f, 1f, 0f, i * 0.01f + 0.3f);
+				q.get(quatsTo, i * 4);
+
+				transFrom[i * 3 + 0] = i;
+				transTo[i * 3 + 1] = i;
+				alphas[i] = (i % 100) / 100f;
+			}
+		}
+	}
+
+	private final Quaternion4f q1 = new Quaternion4f();
+	private final Quaternion4f q2 = new Quaternion4f();
+	private final Quaternion4f result = new Quaternion4f();
+	private final Matrix4f matrix = new Matrix4f();
+
+	@Setup
+	public void setup() {
+		// a positive dot product, since interpolateSLERP() negates q1 otherwise.
+		q1.setFromAxisAngle(0f, 1f, 0f, 0.2f);
+		q2.setFromAxisAngle(1f, 0f, 0f, 0.9f);
+	}
+
+	@Benchmark
+	public Quaternion4f interpolateSLERP() {
+		Quaternion4f.interpolateSLERP(q1, q2, 0.35f, result);
+
+		return (result);
+	}
+
+	@Benchmark
+	public Quaternion4f nlerp() {
+		Interpolation.nlerp(q1, q2, 0.35f, result);
+
+		return (result);
+	}
+
+	@Benchmark
+	public Matrix4f interpolateSLERPToMatrix() {
+		Quaternion4f.interpolateSLERP(q1, q2, 0.35f, result);
+
+		return (matrix.set(result));
+	}
+
+	@Benchmark
+	public float[] interpolateBones(BonesState state) {
+		Interpolation.interpolateBones(state.quatsFrom, state.quatsTo, state.transFrom, state.transTo, state.alphas, 0, state.bones, state.matrices, 0);
+
+		return (state.matrices);
+	}
+}
@@ -0,0 +1,177 @@
+/**
+ * Copyright (c) 2007-2009, OpenMaLi Project Group all rights reserved.
+ * 
+ * Portions based on the Sun's javax.vecmath interface, Copyright by Sun
+ * Microsystems or Kenji Hiranabe's alternative GC-cheap implementation.
+ * Many thanks to the developers.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the 'OpenMaLi Project Group' nor the names of its
+ * contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) A
+ * RISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE
+ */
+package org.openmali.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openmali.simd.BulkKernels;
+import org.openmali.vecmath2.Matrix4f;
+
+/**
+ * Benchmarks for the openmali-simd bulk kernels. The "scalar" kernels are
+ * the baseline, "selected" are the ones picked by
+ * {@link BulkKernels#getInstance()}, which are the Vector API kernels, if
+ * the forked JVM resolves jdk.incubator.vector. The setup fails, if the
+ * selected kernels deviate from the scalar ones.<br>
+ * <br>
+ * This class is only compiled with the "simd" profile (JDK 17+).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+@State(Scope.Thread)
+public class BulkKernelsBenchmark {
+	@Param( { "scalar", "selected" })
+	public String kernelSet;
+
+	@Param( { "1000", "100000" })
+	public int numPoints;
+
+	@Param( { "64", "256" })
+	public int matrixSize;
+
+	private BulkKernels kernels;
+
+	private float[] a;
+	private float[] b;
+	private float[] dst;
+	private float[] ma;
+	private float[] mb;
+	private float[] mc;
+	private Matrix4f mat;
+
+	private static final float[] createArray(Random rnd, int length) {
+		final float[] array = new float[length];
+
+		for (int i = 0; i < length; i++)
+			array[i] = rnd.nextFloat() * 200f - 100f;
+
+		return (array);
+	}
+
+	private static final void checkDeviation(String kernel, float[] expected, float[] result) {
+		// relative to the largest value, since sums of products may cancel out to almost 0
+		float maxAbs = 1f;
+		for (int i = 0; i < expected.length; i++)
+			maxAbs = Math.max(maxAbs, Math.abs(expected[i]));
+
+		for (int i = 0; i < expected.length; i++) {
+			if (Math.abs(expected[i] - result[i]) > 1e-4f * maxAbs)
+				throw new IllegalStateException(kernel + " deviates from the scalar kernel at index " + i + ".");
+		}
+	}
+
+	@Setup
+	public void setup() {
+		kernels = "scalar".equals(kernelSet) ? BulkKernels.getScalarInstance() : BulkKernels.getInstance();
+
+		final Random rnd = new Random(4711L);
+
+		a = createArray(rnd, numPoints * 3);
+		b = createArray(rnd, numPoints * 3);
+		dst = new float[numPoints * 3];
+		ma = createArray(rnd, matrixSize * matrixSize);
+		mb = createArray(rnd, matrixSize * matrixSize);
+		mc = new float[matrixSize * matrixSize];
+
+		mat = new Matrix4f();
+		mat.rotX(0.3f);
+		mat.m03(1f);
+		mat.m13(-2f);
+		mat.m23(3f);
+		mat.m01(0.2f);
+
+		final BulkKernels scalar = BulkKernels.getScalarInstance();
+		final float[] expected = new float[dst.length];
+
+		scalar.transformPoints(mat, a, 0, expected, 0, numPoints);
+		kernels.transformPoints(mat, a, 0, dst, 0, numPoints);
+		checkDeviation("transformPoints", expected, dst);
+
+		final float[] expectedMul = new float[mc.length];
+
+		scalar.mul(ma, 0, mb, 0, expectedMul, 0, matrixSize, matrixSize, matrixSize);
+		kernels.mul(ma, 0, mb, 0, mc, 0, matrixSize, matrixSize, matrixSize);
+		checkDeviation("mul", expectedMul, mc);
+	}
+
+	@Benchmark
+	public float[] add() {
+		kernels.add(a, 0, b, 0, dst, 0, dst.length);
+
+		return (dst);
+	}
+
+	@Benchmark
+	public float[] scaleAdd() {
+		kernels.scaleAdd(0.75f, a, 0, b, 0, dst, 0, dst.length);
+
+		return (dst);
+	}
+
+	@Benchmark
+	public float[] interpolate() {
+		kernels.interpolate(a, 0, b, 0, 0.3f, dst, 0, dst.length);
+
+		return (dst);
+	}
+
+	@Benchmark
+	public float[] transformPoints() {
+		kernels.transformPoints(mat, a, 0, dst, 0, numPoints);
+
+		return (dst);
+	}
+
+	@Benchmark
+	public float[] mul() {
+		kernels.mul(ma, 0, mb, 0, mc, 0, matrixSize, matrixSize, matrixSize);
+
+		return (mc);
+	}
+}
@@ -0,0 +1,382 @@
+/**
+ * Copyright (c) 2007-2009, OpenMaLi Project Group all rights reserved.
+ * 
+ * Portions based on the Sun's javax.vecmath interface, Copyright by Sun
+ * Microsystems or Kenji Hiranabe's alternative GC-cheap implementation.
+ * Many thanks to the developers.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the 'OpenMaLi Project Group' nor the names of its
+ * contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) A
+ * RISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE
+ */
+package org.openmali.simd;
+
+import org.openmali.vecmath2.Matrix4f;
+import org.openmali.vecmath2.MatrixMxNf;
+import org.openmali.vecmath2.arrays.PackedFloatArray;
+
+/**
+ * Bulk kernels for packed float arrays (tuple arrays, row major matrices).
+ * The instance returned by {@link #getInstance()} is selected once at runtime:
+ * If the jdk.incubator.vector module is available (the JVM was started with
+ * <code>--add-modules jdk.incubator.vector</code>), the Vector API kernels are used,
+ * otherwise the plain scalar ones. Setting the system property
+ * <code>org.openmali.simd.disable</code> to <code>true</code> forces the scalar kernels.
+ * 
+ * All array methods take an offset per array. Source and destination arrays
+ * may be the same, if the regions are identical or don't overlap.
+ */
+public abstract class BulkKernels {
+	/**
+	 * The name of the system property, that forces the scalar kernels.
+	 */
+	public static final String DISABLE_PROPERTY = "org.openmali.simd.disable";
+
+	private static final String VECTOR_KERNELS_CLASS = "org.openmali.simd.VectorKernels";
+
+	private static final BulkKernels SCALAR = new ScalarKernels();
+	private static final BulkKernels INSTANCE = selectKernels();
+
+	private static final ThreadLocal<float[][]> MATRIX_BUFFERS = new ThreadLocal<float[][]>() {
+		@Override
+		protected float[][] initialValue() {
+			return (new float[3][0]);
+		}
+	};
+
+	private static final BulkKernels selectKernels() {
+		try {
+			if (Boolean.getBoolean(DISABLE_PROPERTY))
+				return (SCALAR);
+		} catch (SecurityException e) {
+			// ignore and try the vector kernels
+		}
+
+		try {
+			BulkKernels kernels = (BulkKernels) Class.forName(VECTOR_KERNELS_CLASS).getDeclaredConstructor().newInstance();
+
+			if (kernels.isAccelerated())
+				return (kernels);
+		} catch (Throwable t) {
+			// The incubator module is not present or not added to the boot layer.
+		}
+
+		return (SCALAR);
+	}
+
+	/**
+	 * @return the kernels selected for this JVM
+	 */
+	public static final BulkKernels getInstance() {
+		return (INSTANCE);
+	}
+
+	/**
+	 * @return the scalar kernels (always available)
+	 */
+	public static final BulkKernels getScalarInstance() {
+		return (SCALAR);
+	}
+
+	/**
+	 * @return a short name of this implementation, like "scalar" or "vector-256"
+	 */
+	public abstract String getName();
+
+	/**
+	 * @return <code>true</code>, if this implementation uses SIMD instructions
+	 */
+	public abstract boolean isAccelerated();
+
+	/**
+	 * dst[i] = a[i] + b[i]
+	 * 
+	 * @param a
+	 * @param aOffset
+	 * @param b
+	 * @param bOffset
+	 * @param dst
+	 * @param dstOffset
+	 * @param length the number of floats
+	 */
+	public abstract void add(float[] a, int aOffset, float[] b, int bOffset, float[] dst, int dstOffset, int length);
+
+	/**
+	 * dst[i] = a[i] - b[i]
+	 * 
+	 * @param a
+	 * @param aOffset
+	 * @param b
+	 * @param bOffset
+	 * @param dst
+	 * @param dstOffset
+	 * @param length the number of floats
+	 */
+	public abstract void sub(float[] a, int aOffset, float[] b, int bOffset, float[] dst, int dstOffset, int length);
+
+	/**
+	 * dst[i] = factor * src[i]
+	 * 
+	 * @param factor
+	 * @param src
+	 * @param srcOffset
+	 * @param dst
+	 * @param dstOffset
+	 * @param length the number of floats
+	 */
+	public abstract void scale(float factor, float[] src, int srcOffset, float[] dst, int dstOffset, int length);
+
+	/**
+	 * dst[i] = factor * a[i] + b[i]
+	 * 
+	 * @param factor
+	 * @param a
+	 * @param aOffset
+	 * @param b
+	 * @param bOffset
+	 * @param dst
+	 * @param dstOffset
+	 * @param length the number of floats
+	 */
+	public abstract void scaleAdd(float factor, float[] a, int aOffset, float[] b, int bOffset, float[] dst, int dstOffset, int length);
+
+	/**
+	 * dst[i] = (1 - alpha) * a[i] + alpha * b[i]
+	 * 
+	 * @param a
+	 * @param aOffset
+	 * @param b
+	 * @param bOffset
+	 * @param alpha
+	 * @param dst
+	 * @param dstOffset
+	 * @param length the number of floats
+	 */
+	public abstract void interpolate(float[] a, int aOffset, float[] b, int bOffset, float alpha, float[] dst, int dstOffset, int length);
+
+	/**
+	 * Transforms count tightly packed points (x, y, z) by the affine 3x4 matrix
+	 * (the upper three rows of a 4x4 matrix).
+	 * 
+	 * @param m00
+	 * @param m01
+	 * @param m02
+	 * @param m03
+	 * @param m10
+	 * @param m11
+	 * @param m12
+	 * @param m13
+	 * @param m20
+	 * @param m21
+	 * @param m22
+	 * @param m23
+	 * @param src
+	 * @param srcOffset
+	 * @param dst
+	 * @param dstOffset
+	 * @param count the number of points
+	 */
+	public abstract void transformAffine(float m00, float m01, float m02, float m03, float m10, float m11, float m12, float m13, float m20, float m21, float m22, float m23, float[] src,
+			int srcOffset, float[] dst, int dstOffset, int count);
+
+	/**
+	 * Multiplies the row major matrices a (m x n) and b (n x p) into c (m x p).
+	 * c must not overlap a or b.
+	 * 
+	 * @param a
+	 * @param aOffset
+	 * @param b
+	 * @param bOffset
+	 * @param c
+	 * @param cOffset
+	 * @param m
+	 * @param n
+	 * @param p
+	 */
+	public abstract void mul(float[] a, int aOffset, float[] b, int bOffset, float[] c, int cOffset, int m, int n, int p);
+
+	/**
+	 * Transforms count tightly packed points (x, y, z) by the affine part of the matrix.
+	 * 
+	 * @param mat
+	 * @param src
+	 * @param srcOffset
+	 * @param dst
+	 * @param dstOffset
+	 * @param count the number of points
+	 */
+	public final void transformPoints(Matrix4f mat, float[] src, int srcOffset, float[] dst, int dstOffset, int count) {
+		transformAffine(mat.m00(), mat.m01(), mat.m02(), mat.m03(), mat.m10(), mat.m11(), mat.m12(), mat.m13(), mat.m20(), mat.m21(), mat.m22(), mat.m23(), src, srcOffset, dst, dstOffset,
+				count);
+	}
+
+	private static final void checkArrays(PackedFloatArray a, PackedFloatArray b, PackedFloatArray dst) {
+		if ((a.getElementSize() != dst.getElementSize()) || ((b != null) && (b.getElementSize() != dst.getElementSize())))
+			throw new IllegalArgumentException("The arrays must have the same element size.");
+
+		if ((a.getSize() != dst.getSize()) || ((b != null) && (b.getSize() != dst.getSize())))
+			throw new IllegalArgumentException("The arrays must have the same size.");
+
+		if (a.isBufferBacked() || ((b != null) && b.isBufferBacked()) || dst.isBufferBacked())
+			throw new IllegalArgumentException("Buffer backed arrays are not supported.");
+	}
+
+	/**
+	 * dst = a + b (elementwise)
+	 * 
+	 * @param a
+	 * @param b
+	 * @param dst
+	 */
+	public final void add(PackedFloatArray a, PackedFloatArray b, PackedFloatArray dst) {
+		checkArrays(a, b, dst);
+
+		add(a.getArray(), 0, b.getArray(), 0, dst.getArray(), 0, dst.getSize() * dst.getElementSize());
+	}
+
+	/**
+	 * dst = a - b (elementwise)
+	 * 
+	 * @param a
+	 * @param b
+	 * @param dst
+	 */
+	public final void sub(PackedFloatArray a, PackedFloatArray b, PackedFloatArray dst) {
+		checkArrays(a, b, dst);
+
+		sub(a.getArray(), 0, b.getArray(), 0, dst.getArray(), 0, dst.getSize() * dst.getElementSize());
+	}
+
+	/**
+	 * dst = factor * src (elementwise)
+	 * 
+	 * @param factor
+	 * @param src
+	 * @param dst
+	 */
+	public final void scale(float factor, PackedFloatArray src, PackedFloatArray dst) {
+		checkArrays(src, null, dst);
+
+		scale(factor, src.getArray(), 0, dst.getArray(), 0, dst.getSize() * dst.getElementSize());
+	}
+
+	/**
+	 * dst = factor * a + b (elementwise)
+	 * 
+	 * @param factor
+	 * @param a
+	 * @param b
+	 * @param dst
+	 */
+	public final void scaleAdd(float factor, PackedFloatArray a, PackedFloatArray b, PackedFloatArray dst) {
+		checkArrays(a, b, dst);
+
+		scaleAdd(factor, a.getArray(), 0, b.getArray(), 0, dst.getArray(), 0, dst.getSize() * dst.getElementSize());
+	}
+
+	/**
+	 * dst = (1 - alpha) * a + alpha * b (elementwise)
+	 * 
+	 * @param a
+	 * @param b
+	 * @param alpha
+	 * @param dst
+	 */
+	public final void interpolate(PackedFloatArray a, PackedFloatArray b, float alpha, PackedFloatArray dst) {
+		checkArrays(a, b, dst);
+
+		interpolate(a.getArray(), 0, b.getArray(), 0, alpha, dst.getArray(), 0, dst.getSize() * dst.getElementSize());
+	}
+
+	/**
+	 * Transforms all points of src by the affine part of the matrix into dst.
+	 * 
+	 * @param mat
+	 * @param src
+	 * @param dst
+	 */
+	public final void transformPoints(Matrix4f mat, PackedFloatArray src, PackedFloatArray dst) {
+		checkArrays(src, null, dst);
+
+		if (dst.getElementSize() != 3)
+			throw new IllegalArgumentException("The arrays must hold 3-tuples.");
+
+		transformPoints(mat, src.getArray(), 0, dst.getArray(), 0, dst.getSize());
+	}
+
+	private static final float[] getMatrixBuffer(int index, int size) {
+		float[][] buffers = MATRIX_BUFFERS.get();
+
+		if (buffers[index].length < size)
+			buffers[index] = new float[size];
+
+		return (buffers[index]);
+	}
+
+	/**
+	 * Sets out to m1 * m2. The matrices are copied to (thread local) row major
+	 * buffers, so out may be the same instance as m1 or m2.
+	 * 
+	 * @param m1
+	 * @param m2
+	 * @param out
+	 * 
+	 * @return out
+	 */
+	public final MatrixMxNf mul(MatrixMxNf m1, MatrixMxNf m2, MatrixMxNf out) {
+		final int m = m1.getNumRows();
+		final int n = m1.getNumCols();
+		final int p = m2.getNumCols();
+
+		if (n != m2.getNumRows())
+			throw new IllegalArgumentException("m1.cols:" + n + " != m2.rows:" + m2.getNumRows());
+		if ((out.getNumRows() != m) || (out.getNumCols() != p))
+			throw new IllegalArgumentException("out must be a " + m + "x" + p + " matrix.");
+
+		float[] a = getMatrixBuffer(0, m * n);
+		float[] b = getMatrixBuffer(1, n * p);
+		float[] c = getMatrixBuffer(2, m * p);
+
+		m1.getRowMajor(a, 0);
+		m2.getRowMajor(b, 0);
+
+		mul(a, 0, b, 0, c, 0, m, n, p);
+
+		out.setRowMajor(c, 0);
+
+		return (out);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return (this.getClass().getSimpleName() + " { " + getName() + " }");
+	}
+
+	protected BulkKernels() {
+	}
+}
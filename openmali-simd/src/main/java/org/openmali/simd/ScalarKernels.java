@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2007-2009, OpenMaLi Project Group all rights reserved.
+ * 
+ * Portions based on the Sun's javax.vecmath interface, Copyright by Sun
+ * Microsystems or Kenji Hiranabe's alternative GC-cheap implementation.
+ * Many thanks to the developers.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the 'OpenMaLi Project Group' nor the names of its
+ * contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) A
+ * RISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE
+ */
+package org.openmali.simd;
+
+import org.openmali.vecmath2.util.MatrixUtils;
+
+/**
+ * Plain Java implementation of the {@link BulkKernels}.
+ * This is the fallback, if the Vector API is not available.
+ */
+final class ScalarKernels extends BulkKernels {
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getName() {
+		return ("scalar");
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isAccelerated() {
+		return (false);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void add(float[] a, int aOffset, float[] b, int bOffset, float[] dst, int dstOffset, int length) {
+		for (int i = 0; i < length; i++)
+			dst[dstOffset + i] = a[aOffset + i] + b[bOffset + i];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void sub(float[] a, int aOffset, float[] b, int bOffset, float[] dst, int dstOffset, int length) {
+		for (int i = 0; i < length; i++)
+			dst[dstOffset + i] = a[aOffset + i] - b[bOffset + i];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void scale(float factor, float[] src, int srcOffset, float[] dst, int dstOffset, int length) {
+		for (int i = 0; i < length; i++)
+			dst[dstOffset + i] = factor * src[srcOffset + i];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void scaleAdd(float factor, float[] a, int aOffset, float[] b, int bOffset, float[] dst, int dstOffset, int length) {
+		for (int i = 0; i < length; i++)
+			dst[dstOffset + i] = factor * a[aOffset + i] + b[bOffset + i];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void interpolate(float[] a, int aOffset, float[] b, int bOffset, float alpha, float[] dst, int dstOffset, int length) {
+		final float beta = 1.0f - alpha;
+
+		for (int i = 0; i < length; i++)
+			dst[dstOffset + i] = beta * a[aOffset + i] + alpha * b[bOffset + i];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void transformAffine(float m00, float m01, float m02, float m03, float m10, float m11, float m12, float m13, float m20, float m21, float m22, float m23, float[] src,
+			int srcOffset, float[] dst, int dstOffset, int count) {
+		MatrixUtils.transformAffine(m00, m01, m02, m03, m10, m11, m12, m13, m20, m21, m22, m23, src, srcOffset, dst, dstOffset, count, 3);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void mul(float[] a, int aOffset, float[] b, int bOffset, float[] c, int cOffset, int m, int n, int p) {
+		// i-k-j order to walk b and c row by row
+		for (int i = 0; i < m; i++) {
+			final int cRow = cOffset + i * p;
+
+			for (int j = 0; j < p; j++)
+				c[cRow + j] = 0.0f;
+
+			for (int k = 0; k < n; k++) {
+				final float aik = a[aOffset + i * n + k];
+				final int bRow = bOffset + k * p;
+
+				for (int j = 0; j < p; j++)
+					c[cRow + j] += aik * b[bRow + j];
+			}
+		}
+	}
+
+	ScalarKernels() {
+	}
+}
@@ -0,0 +1,309 @@
+/**
+ * Copyright (c) 2007-2009, OpenMaLi Project Group all rights reserved.
+ * 
+ * Portions based on the Sun's javax.vecmath interface, Copyright by Sun
+ * Microsystems or Kenji Hiranabe's alternative GC-cheap implementation.
+ * Many thanks to the developers.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the 'OpenMaLi Project Group' nor the names of its
+ * contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) A
+ * RISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE
+ */
+package org.openmali.simd;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Implementation of the {@link BulkKernels} on top of the jdk.incubator.vector API.
+ * The preferred species of the hardware is used (8 lanes on AVX2, 16 on AVX-512).
+ * Remainders, that don't fill a whole vector, are processed by the scalar code.
+ * 
+ * This class is loaded by reflection only, so that the other classes of this
+ * package don't depend on the incubator module.
+ */
+final class VectorKernels extends BulkKernels {
+	private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+	private static final int LANES = SPECIES.length();
+
+	private final ScalarKernels scalar = new ScalarKernels();
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getName() {
+		return ("vector-" + SPECIES.vectorBitSize());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isAccelerated() {
+		return (LANES >= 4);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void add(float[] a, int aOffset, float[] b, int bOffset, float[] dst, int dstOffset, int length) {
+		final int bound = SPECIES.loopBound(length);
+
+		int i = 0;
+		for (; i < bound; i += LANES) {
+			FloatVector va = FloatVector.fromArray(SPECIES, a, aOffset + i);
+			FloatVector vb = FloatVector.fromArray(SPECIES, b, bOffset + i);
+
+			va.add(vb).intoArray(dst, dstOffset + i);
+		}
+
+		scalar.add(a, aOffset + i, b, bOffset + i, dst, dstOffset + i, length - i);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void sub(float[] a, int aOffset, float[] b, int bOffset, float[] dst, int dstOffset, int length) {
+		final int bound = SPECIES.loopBound(length);
+
+		int i = 0;
+		for (; i < bound; i += LANES) {
+			FloatVector va = FloatVector.fromArray(SPECIES, a, aOffset + i);
+			FloatVector vb = FloatVector.fromArray(SPECIES, b, bOffset + i);
+
+			va.sub(vb).intoArray(dst, dstOffset + i);
+		}
+
+		scalar.sub(a, aOffset + i, b, bOffset + i, dst, dstOffset + i, length - i);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void scale(float factor, float[] src, int srcOffset, float[] dst, int dstOffset, int length) {
+		final int bound = SPECIES.loopBound(length);
+
+		int i = 0;
+		for (; i < bound; i += LANES) {
+			FloatVector.fromArray(SPECIES, src, srcOffset + i).mul(factor).intoArray(dst, dstOffset + i);
+		}
+
+		scalar.scale(factor, src, srcOffset + i, dst, dstOffset + i, length - i);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void scaleAdd(float factor, float[] a, int aOffset, float[] b, int bOffset, float[] dst, int dstOffset, int length) {
+		final int bound = SPECIES.loopBound(length);
+
+		int i = 0;
+		for (; i < bound; i += LANES) {
+			FloatVector va = FloatVector.fromArray(SPECIES, a, aOffset + i);
+			FloatVector vb = FloatVector.fromArray(SPECIES, b, bOffset + i);
+
+			va.mul(factor).add(vb).intoArray(dst, dstOffset + i);
+		}
+
+		scalar.scaleAdd(factor, a, aOffset + i, b, bOffset + i, dst, dstOffset + i, length - i);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void interpolate(float[] a, int aOffset, float[] b, int bOffset, float alpha, float[] dst, int dstOffset, int length) {
+		final float beta = 1.0f - alpha;
+		final int bound = SPECIES.loopBound(length);
+
+		int i = 0;
+		for (; i < bound; i += LANES) {
+			FloatVector va = FloatVector.fromArray(SPECIES, a, aOffset + i);
+			FloatVector vb = FloatVector.fromArray(SPECIES, b, bOffset + i);
+
+			va.mul(beta).add(vb.mul(alpha)).intoArray(dst, dstOffset + i);
+		}
+
+		scalar.interpolate(a, aOffset + i, b, bOffset + i, alpha, dst, dstOffset + i, length - i);
+	}
+
+	/**
+	 * Creates the weights of one shifted load for the k-th vector of a block.
+	 * A block of three vectors holds LANES tightly packed points, lane i of a block
+	 * holds the component i % 3 of its point. The load shifted by shift floats
+	 * brings the column (i % 3 + shift) of the matrix into lane i, all other
+	 * lanes get a zero weight.
+	 */
+	private static final FloatVector createWeights(int k, int shift, float[] mat) {
+		float[] values = new float[LANES];
+
+		for (int j = 0; j < LANES; j++) {
+			final int row = (k * LANES + j) % 3;
+			final int col = row + shift;
+
+			if ((col >= 0) && (col <= 2))
+				values[j] = mat[row * 4 + col];
+		}
+
+		return (FloatVector.fromArray(SPECIES, values, 0));
+	}
+
+	private static final FloatVector createTranslation(int k, float[] mat) {
+		float[] values = new float[LANES];
+
+		for (int j = 0; j < LANES; j++)
+			values[j] = mat[((k * LANES + j) % 3) * 4 + 3];
+
+		return (FloatVector.fromArray(SPECIES, values, 0));
+	}
+
+	private static final FloatVector transformVector(float[] src, int q, FloatVector wm2, FloatVector wm1, FloatVector w0, FloatVector wp1, FloatVector wp2, FloatVector t) {
+		final FloatVector sm2 = FloatVector.fromArray(SPECIES, src, q - 2);
+		final FloatVector sm1 = FloatVector.fromArray(SPECIES, src, q - 1);
+		final FloatVector s0 = FloatVector.fromArray(SPECIES, src, q);
+		final FloatVector sp1 = FloatVector.fromArray(SPECIES, src, q + 1);
+		final FloatVector sp2 = FloatVector.fromArray(SPECIES, src, q + 2);
+
+		return (sm2.fma(wm2, sm1.fma(wm1, s0.fma(w0, sp1.fma(wp1, sp2.fma(wp2, t))))));
+	}
+
+	/**
+	 * Checks, if all lanes of the block are finite. A non-finite source value
+	 * leaks into the neighbouring lanes through the zero weights (0 * Inf = NaN).
+	 */
+	private static final boolean isFinite(FloatVector r0, FloatVector r1, FloatVector r2) {
+		final FloatVector sum = r0.add(r1).add(r2);
+
+		return (!sum.sub(sum).compare(VectorOperators.NE, 0.0f).anyTrue());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void transformAffine(float m00, float m01, float m02, float m03, float m10, float m11, float m12, float m13, float m20, float m21, float m22, float m23, float[] src,
+			int srcOffset, float[] dst, int dstOffset, int count) {
+		/*
+		 * The first point is left to the scalar code, so that the loads at q - 2 stay
+		 * inside the source region. The loads reaching into the neighbouring blocks
+		 * only meet zero weights, so in-place transformations are correct, as long as
+		 * the neighbours are finite. Blocks with non-finite results are recomputed
+		 * by the scalar code.
+		 */
+		final int blockSize = 3 * LANES;
+		final int end = srcOffset + 3 * count;
+
+		if (count < LANES + 2) {
+			scalar.transformAffine(m00, m01, m02, m03, m10, m11, m12, m13, m20, m21, m22, m23, src, srcOffset, dst, dstOffset, count);
+
+			return;
+		}
+
+		final float[] mat = { m00, m01, m02, m03, m10, m11, m12, m13, m20, m21, m22, m23 };
+
+		final FloatVector a0 = createWeights(0, -2, mat);
+		final FloatVector a1 = createWeights(0, -1, mat);
+		final FloatVector a2 = createWeights(0, 0, mat);
+		final FloatVector a3 = createWeights(0, 1, mat);
+		final FloatVector a4 = createWeights(0, 2, mat);
+		final FloatVector at = createTranslation(0, mat);
+		final FloatVector b0 = createWeights(1, -2, mat);
+		final FloatVector b1 = createWeights(1, -1, mat);
+		final FloatVector b2 = createWeights(1, 0, mat);
+		final FloatVector b3 = createWeights(1, 1, mat);
+		final FloatVector b4 = createWeights(1, 2, mat);
+		final FloatVector bt = createTranslation(1, mat);
+		final FloatVector c0 = createWeights(2, -2, mat);
+		final FloatVector c1 = createWeights(2, -1, mat);
+		final FloatVector c2 = createWeights(2, 0, mat);
+		final FloatVector c3 = createWeights(2, 1, mat);
+		final FloatVector c4 = createWeights(2, 2, mat);
+		final FloatVector ct = createTranslation(2, mat);
+
+		final int delta = dstOffset - srcOffset;
+
+		int q = srcOffset + 3;
+		for (; q + blockSize + 2 <= end; q += blockSize) {
+			final FloatVector r0 = transformVector(src, q, a0, a1, a2, a3, a4, at);
+			final FloatVector r1 = transformVector(src, q + LANES, b0, b1, b2, b3, b4, bt);
+			final FloatVector r2 = transformVector(src, q + 2 * LANES, c0, c1, c2, c3, c4, ct);
+
+			if (isFinite(r0, r1, r2)) {
+				r0.intoArray(dst, q + delta);
+				r1.intoArray(dst, q + delta + LANES);
+				r2.intoArray(dst, q + delta + 2 * LANES);
+			} else {
+				scalar.transformAffine(m00, m01, m02, m03, m10, m11, m12, m13, m20, m21, m22, m23, src, q, dst, q + delta, LANES);
+			}
+		}
+
+		scalar.transformAffine(m00, m01, m02, m03, m10, m11, m12, m13, m20, m21, m22, m23, src, srcOffset, dst, dstOffset, 1);
+		scalar.transformAffine(m00, m01, m02, m03, m10, m11, m12, m13, m20, m21, m22, m23, src, q, dst, q + delta, (end - q) / 3);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void mul(float[] a, int aOffset, float[] b, int bOffset, float[] c, int cOffset, int m, int n, int p) {
+		final int bound = SPECIES.loopBound(p);
+
+		for (int i = 0; i < m; i++) {
+			final int aRow = aOffset + i * n;
+			final int cRow = cOffset + i * p;
+
+			int j = 0;
+			for (; j < bound; j += LANES) {
+				FloatVector acc = FloatVector.zero(SPECIES);
+
+				for (int k = 0; k < n; k++) {
+					FloatVector vb = FloatVector.fromArray(SPECIES, b, bOffset + k * p + j);
+
+					acc = vb.fma(FloatVector.broadcast(SPECIES, a[aRow + k]), acc);
+				}
+
+				acc.intoArray(c, cRow + j);
+			}
+
+			for (; j < p; j++) {
+				float sum = 0.0f;
+
+				for (int k = 0; k < n; k++)
+					sum += a[aRow + k] * b[bOffset + k * p + j];
+
+				c[cRow + j] = sum;
+			}
+		}
+	}
+
+	VectorKernels() {
+	}
+}
@@ -36,7 +36,36 @@ package org.openmali;
 import java.util.Random;
 
 /**
- * The FastMath class provides fast and optimized mathematical functions.
+ * The FastMath class provides fast and optimized mathematical functions.<br>
+ * <br>
+ * The implementation of the transcendental functions is selected by
+ * {@link #setBackend(MathBackend)}. The maximum errors compared to
+ * the double results of {@link Math}, in ulps of the float result, as measured by the FastMathAccuracy report of the benchmarks
+ * module:
+ * 
+ * <table border="1">
+ * <tr><th>function</th><th>TABLE</th><th>POLYNOMIAL</th><th>JAVA</th></tr>
+ * <tr><td>sin</td><td>293 (3.5e-7 absolute)</td><td>1.5</td><td>0.5</td></tr>
+ * <tr><td>cos</td><td>889 (3.5e-7 absolute)</td><td>1.5</td><td>0.5</td></tr>
+ * <tr><td>tan</td><td>325</td><td>2.4</td><td>0.5</td></tr>
+ * <tr><td>asin</td><td>0.5</td><td>2.3</td><td>0.5</td></tr>
+ * <tr><td>acos</td><td>0.5</td><td>1.3</td><td>0.5</td></tr>
+ * <tr><td>atan</td><td>0.5</td><td>2.8</td><td>0.5</td></tr>
+ * <tr><td>atan2</td><td>0.5</td><td>3.0</td><td>0.5</td></tr>
+ * <tr><td>exp</td><td>0.5</td><td>1.0</td><td>0.5</td></tr>
+ * <tr><td>log</td><td>0.5</td><td>0.8</td><td>0.5</td></tr>
+ * <tr><td>log2</td><td>0.5</td><td>1.6</td><td>0.5</td></tr>
+ * <tr><td>log10</td><td>0.5</td><td>1.9</td><td>0.5</td></tr>
+ * <tr><td>pow</td><td>0.5</td><td>66</td><td>0.5</td></tr>
+ * <tr><td>sqrt</td><td>0.5</td><td>0.5</td><td>0.5</td></tr>
+ * <tr><td>invSqrt</td><td>1.5</td><td>73</td><td>1.5</td></tr>
+ * </table>
+ * 
+ * The TABLE errors depend on {@link #setPrecision(int)} (default shown).
+ * The POLYNOMIAL trigonometric functions fall back to {@link Math} for
+ * angles beyond about 3200 radians, pow is evaluated as exp( exp * log( base ) ),
+ * and sqrt always uses {@link Math}, since it is a single instruction.
+ * All functions not listed here use {@link Math} in every backend.
  * 
  * @author Marvin Froehlich (aka Qudus)
  */
@@ -56,59 +85,342 @@ public class FastMath {
 	public static final double LOG10_TO_LOG2d = 3.3219280948873626;
 	public static final float LOG10_TO_LOG2 = (float) LOG10_TO_LOG2d;
 
-	protected static int precision = 0x100000;
-	private static float[] sinTable = null,
-	// asinTable = null,
-	// sinhTable = null,
-			cosTable = null,
-			// acosTable = null,
-			// coshTable = null,
-			tanTable = null;
+	/**
+	 * The default number of samples per full circle of the lookup table.
+	 */
+	public static final int DEFAULT_PRECISION = 0x1000;
+
+	/**
+	 * An immutable lookup table for one precision. The table holds one
+	 * extra sample, so the interpolation never has to wrap around.
+	 */
+	private static final class Tables {
+		final int precision;
+		final int mask;
+		final int quarter;
+		final double scale;
+		final float[] sin;
+
+		Tables(int precision) {
+			this.precision = precision;
+			this.mask = precision - 1;
+			this.quarter = precision / 4;
+			this.scale = precision / (2.0 * Math.PI);
+			this.sin = new float[precision + 1];
+
+			final double slice = (2.0 * Math.PI) / precision;
+
+			for (int i = 0; i <= precision; i++) {
+				sin[i] = (float) Math.sin(i * slice);
+			}
+		}
+	}
 
-	// atanTable = null,
-	// atan2Table = null,
-	// tanhTable = null;
+	private static volatile int precision = DEFAULT_PRECISION;
+	private static volatile Tables tables = null;
 
+	/**
+	 * Sets the number of samples per full circle of the sin/cos lookup
+	 * table. The table is rebuilt on next use. Threads, that are currently
+	 * using the old table, safely continue to do so.
+	 * 
+	 * @param precision a power of two &gt;= 4
+	 */
 	public static final void setPrecision(int precision) {
-		if (FastMath.precision != precision) {
-			sinTable = null;
-			// asinTable = null;
-			// sinhTable = null;
-			cosTable = null;
-			// acosTable = null;
-			// coshTable = null;
-			tanTable = null;
-			// atanTable = null;
-			// atan2Table = null;
-			// tanhTable = null;
-		}
+		if ((precision < 4) || ((precision & (precision - 1)) != 0))
+			throw new IllegalArgumentException("precision must be a power of two >= 4.");
 
-		FastMath.precision = precision;
+		synchronized (Tables.class) {
+			if (FastMath.precision != precision) {
+				FastMath.precision = precision;
+				tables = null;
+			}
+		}
 	}
 
 	public static final int getPrecision() {
 		return (precision);
 	}
 
-	private static final int radToIndex(float radians) {
-		return ((int) ((radians / TWO_PI) * (float) precision) & (precision - 1));
+	private static final Tables getTables() {
+		Tables t = tables;
+
+		if (t == null) {
+			synchronized (Tables.class) {
+				t = tables;
+
+				if (t == null) {
+					t = new Tables(precision);
+					tables = t;
+				}
+			}
+		}
+
+		return (t);
 	}
 
-	public static final float sin(float x) {
-		if (sinTable == null) {
-			sinTable = new float[precision];
+	/**
+	 * Linearly interpolates the sine table.
+	 * 
+	 * @param t the tables
+	 * @param x the angle in radians
+	 * @param offset the index offset (a quarter circle for cosine)
+	 */
+	private static final float lookup(Tables t, float x, int offset) {
+		double f = x * t.scale;
 
-			final float rad_slice = TWO_PI / (float) precision;
+		// keep huge angles inside the int range
+		if ((f >= 1073741824.0) || (f <= -1073741824.0))
+			f %= t.precision;
 
-			for (int i = 0; i < precision; i++) {
-				sinTable[i] = (float) java.lang.Math.sin((float) i * rad_slice);
-			}
+		int i = (int) f;
+		float frac = (float) (f - i);
+
+		if (frac < 0f) {
+			frac += 1.0f;
+			i--;
+		}
+
+		i = (i + offset) & t.mask;
+
+		final float s0 = t.sin[i];
+
+		return (s0 + (t.sin[i + 1] - s0) * frac);
+	}
+
+	private static volatile MathBackend backend = MathBackend.fromProperty("org.openmali.FastMath.backend", MathBackend.TABLE);
+
+	/**
+	 * Selects the implementation of the transcendental functions. The
+	 * initial value is taken from the system property
+	 * "org.openmali.FastMath.backend" and defaults to {@link MathBackend#TABLE}.
+	 * 
+	 * @param backend
+	 */
+	public static final void setBackend(MathBackend backend) {
+		if (backend == null)
+			throw new IllegalArgumentException("backend must not be null.");
+
+		FastMath.backend = backend;
+	}
+
+	/**
+	 * @return the implementation of the transcendental functions
+	 */
+	public static final MathBackend getBackend() {
+		return (backend);
+	}
+
+	private static final float TWO_OVER_PI = 0.636619772367581343f;
+	// pi/2 split into three parts, so that q * PIO2_1 and q * PIO2_2 are exact for |q| < 2048
+	private static final float PIO2_1 = 1.5703125f;
+	private static final float PIO2_2 = 4.837512969970703125e-4f;
+	private static final float PIO2_3 = 7.54978995489188216e-8f;
+	private static final float PI_QUARTER = PI / 4.0f;
+	private static final float LOG2_E = 1.44269504088896341f;
+	private static final float LOG10_E = 0.434294481903251828f;
+
+	/**
+	 * Minimax polynomials for sine and cosine on [-pi/4, pi/4] after a
+	 * reduction by multiples of pi/2.
+	 * 
+	 * @param x the angle in radians
+	 * @param quadrantOffset 0 for sine, 1 for cosine
+	 */
+	private static final float polySinCos(float x, int quadrantOffset) {
+		final float fx = x * TWO_OVER_PI;
+
+		if (!((fx > -2047f) && (fx < 2047f)))
+			return ((float) ((quadrantOffset == 0) ? Math.sin(x) : Math.cos(x)));
+
+		final int q0 = (int) ((fx >= 0f) ? fx + 0.5f : fx - 0.5f);
+		final float r = ((x - q0 * PIO2_1) - q0 * PIO2_2) - q0 * PIO2_3;
+		final float z = r * r;
+		final int q = q0 + quadrantOffset;
+
+		final float y;
+		if ((q & 1) == 0)
+			y = ((-1.9515295891E-4f * z + 8.3321608736E-3f) * z - 1.6666654611E-1f) * z * r + r;
+		else
+			y = ((2.443315711809948E-5f * z - 1.388731625493765E-3f) * z + 4.166664568298827E-2f) * z * z - 0.5f * z + 1.0f;
+
+		return (((q & 2) == 0) ? y : -y);
+	}
+
+	private static final float polyTan(float x) {
+		final float fx = x * TWO_OVER_PI;
+
+		if (!((fx > -2047f) && (fx < 2047f)))
+			return ((float) Math.tan(x));
+
+		final int q = (int) ((fx >= 0f) ? fx + 0.5f : fx - 0.5f);
+		final float r = ((x - q * PIO2_1) - q * PIO2_2) - q * PIO2_3;
+		final float z = r * r;
+
+		final float y = (((((9.38540185543E-3f * z + 3.11992232697E-3f) * z + 2.44301354525E-2f) * z + 5.34112807005E-2f) * z + 1.33387994085E-1f) * z + 3.33331568548E-1f) * z * r + r;
+
+		return (((q & 1) == 0) ? y : -1.0f / y);
+	}
+
+	private static final float polyAtan(float x) {
+		final boolean negative = (x < 0f);
+		float a = negative ? -x : x;
+
+		float y;
+		if (a > 2.414213562373095f) {
+			y = PI_HALF;
+			a = -1.0f / a;
+		} else if (a > 0.4142135623730950f) {
+			y = PI_QUARTER;
+			a = (a - 1.0f) / (a + 1.0f);
+		} else {
+			y = 0f;
 		}
 
-		return (sinTable[radToIndex(x)]);
+		final float z = a * a;
+		y += (((8.05374449538e-2f * z - 1.38776856032E-1f) * z + 1.99777106478E-1f) * z - 3.33329491539E-1f) * z * a + a;
+
+		return (negative ? -y : y);
+	}
+
+	private static final float polyAtan2(float y, float x) {
+		// zeros, infinities and NaN
+		if ((x == 0f) || (y == 0f) || !(Math.abs(x) < Float.POSITIVE_INFINITY) || !(Math.abs(y) < Float.POSITIVE_INFINITY))
+			return ((float) Math.atan2(y, x));
+
+		final float a = polyAtan(y / x);
+
+		if (x > 0f)
+			return (a);
+
+		return ((y > 0f) ? a + PI : a - PI);
+	}
+
+	/**
+	 * asin( s ) for s in [0, 0.5], z = s * s
+	 */
+	private static final float asinKernel(float s, float z) {
+		return (((((4.2163199048E-2f * z + 2.4181311049E-2f) * z + 4.5470025998E-2f) * z + 7.4953002686E-2f) * z + 1.6666752422E-1f) * z * s + s);
+	}
+
+	private static final float polyAsin(float x) {
+		final boolean negative = (x < 0f);
+		final float a = negative ? -x : x;
+
+		if (!(a <= 1.0f))
+			return (Float.NaN);
+
+		final float y;
+		if (a > 0.5f) {
+			final float z = 0.5f * (1.0f - a);
+
+			y = PI_HALF - 2.0f * asinKernel((float) Math.sqrt(z), z);
+		} else {
+			y = asinKernel(a, a * a);
+		}
+
+		return (negative ? -y : y);
+	}
+
+	private static final float polyAcos(float x) {
+		if (!((x >= -1.0f) && (x <= 1.0f)))
+			return (Float.NaN);
+
+		if (x > 0.5f) {
+			final float z = 0.5f * (1.0f - x);
+
+			return (2.0f * asinKernel((float) Math.sqrt(z), z));
+		}
+
+		if (x < -0.5f) {
+			final float z = 0.5f * (1.0f + x);
+
+			return (PI - 2.0f * asinKernel((float) Math.sqrt(z), z));
+		}
+
+		return (PI_HALF - asinKernel(x, x * x));
+	}
+
+	private static final float polyExp(float x) {
+		// overflow, denormal results and NaN
+		if (!((x > -87.0f) && (x < 88.0f)))
+			return ((float) Math.exp(x));
+
+		final float fn = x * LOG2_E;
+		final int n = (int) ((fn >= 0f) ? fn + 0.5f : fn - 0.5f);
+		final float r = x - n * 0.693359375f + n * 2.12194440e-4f;
+		final float z = r * r;
+
+		final float p = (((((1.9875691500E-4f * r + 1.3981999507E-3f) * r + 8.3334519073E-3f) * r + 4.1665795894E-2f) * r + 1.6666665459E-1f) * r + 5.0000001201E-1f) * z + r + 1.0f;
+
+		return (p * Float.intBitsToFloat((n + 127) << 23));
+	}
+
+	private static final float polyLog(float x) {
+		final int bits = Float.floatToRawIntBits(x);
+
+		// negative, zero, denormal, infinite and NaN
+		if ((bits < 0x00800000) || (bits >= 0x7F800000))
+			return ((float) Math.log(x));
+
+		int e = (bits >>> 23) - 126;
+		float m = Float.intBitsToFloat((bits & 0x007FFFFF) | 0x3F000000);
+
+		if (m < 0.707106781186547524f) {
+			e--;
+			m = m + m - 1.0f;
+		} else {
+			m = m - 1.0f;
+		}
+
+		final float z = m * m;
+		float y = ((((((((7.0376836292E-2f * m - 1.1514610310E-1f) * m + 1.1676998740E-1f) * m - 1.2420140846E-1f) * m + 1.4249322787E-1f) * m - 1.6668057665E-1f) * m + 2.0000714765E-1f) * m
+				- 2.4999993993E-1f)
+				* m + 3.3333331174E-1f)
+				* m * z;
+		y += -2.12194440e-4f * e;
+		y += -0.5f * z;
+
+		return (m + y + 0.693359375f * e);
+	}
+
+	/**
+	 * The well known bit-trick estimate with two Newton steps. A single
+	 * step leaves a relative error of 1.7e-3 even for x = 1.
+	 */
+	private static final float bitInvSqrt(float x) {
+		final int bits = Float.floatToRawIntBits(x);
+
+		// negative, zero, denormal, infinite and NaN
+		if ((bits < 0x00800000) || (bits >= 0x7F800000))
+			return (1.0f / (float) Math.sqrt(x));
+
+		final float half = 0.5f * x;
+		float y = Float.intBitsToFloat(0x5F375A86 - (bits >> 1));
+		y = y * (1.5f - half * y * y);
+		y = y * (1.5f - half * y * y);
+
+		return (y);
+	}
+
+	public static final float sin(float x) {
+		final MathBackend b = backend;
+
+		if (b == MathBackend.TABLE)
+			return (lookup(getTables(), x, 0));
+
+		if (b == MathBackend.POLYNOMIAL)
+			return (polySinCos(x, 0));
+
+		return ((float) Math.sin(x));
 	}
 
 	public static final float asin(float x) {
+		final MathBackend b = backend;
+
+		if (b == MathBackend.POLYNOMIAL)
+			return (polyAsin(x));
+
 		return ((float) Math.asin(x));
 	}
 
@@ -117,20 +429,26 @@ public class FastMath {
 	}
 
 	public static final float cos(float x) {
-		if (cosTable == null) {
-			cosTable = new float[precision];
+		final MathBackend b = backend;
 
-			final float rad_slice = TWO_PI / (float) precision;
+		if (b == MathBackend.TABLE) {
+			final Tables t = getTables();
 
-			for (int i = 0; i < precision; i++) {
-				cosTable[i] = (float) java.lang.Math.cos((float) i * rad_slice);
-			}
+			return (lookup(t, x, t.quarter));
 		}
 
-		return (cosTable[radToIndex(x)]);
+		if (b == MathBackend.POLYNOMIAL)
+			return (polySinCos(x, 1));
+
+		return ((float) Math.cos(x));
 	}
 
 	public static final float acos(float x) {
+		final MathBackend b = backend;
+
+		if (b == MathBackend.POLYNOMIAL)
+			return (polyAcos(x));
+
 		return ((float) Math.acos(x));
 	}
 
@@ -139,24 +457,35 @@ public class FastMath {
 	}
 
 	public static final float tan(float x) {
-		if (tanTable == null) {
-			tanTable = new float[precision];
+		final MathBackend b = backend;
 
-			final float rad_slice = TWO_PI / (float) precision;
+		if (b == MathBackend.TABLE) {
+			final Tables t = getTables();
 
-			for (int i = 0; i < precision; i++) {
-				tanTable[i] = (float) java.lang.Math.tan((float) i * rad_slice);
-			}
+			return (lookup(t, x, 0) / lookup(t, x, t.quarter));
 		}
 
-		return (tanTable[radToIndex(x)]);
+		if (b == MathBackend.POLYNOMIAL)
+			return (polyTan(x));
+
+		return ((float) Math.tan(x));
 	}
 
 	public static final float atan(float x) {
+		final MathBackend b = backend;
+
+		if (b == MathBackend.POLYNOMIAL)
+			return (polyAtan(x));
+
 		return ((float) Math.atan(x));
 	}
 
 	public static final float atan2(float y, float x) {
+		final MathBackend b = backend;
+
+		if (b == MathBackend.POLYNOMIAL)
+			return (polyAtan2(y, x));
+
 		return ((float) Math.atan2(y, x));
 	}
 
@@ -173,6 +502,11 @@ public class FastMath {
 	}
 
 	public static final float invSqrt(float x) {
+		final MathBackend b = backend;
+
+		if (b == MathBackend.POLYNOMIAL)
+			return (bitInvSqrt(x));
+
 		return (1.0f / (float) Math.sqrt(x));
 	}
 
@@ -184,6 +518,22 @@ public class FastMath {
 		return ((float) Math.floor(x));
 	}
 
+	/**
+	 * @see Math#exp(double)
+	 * 
+	 * @param x
+	 * 
+	 * @return e raised to the power of x
+	 */
+	public static final float exp(float x) {
+		final MathBackend b = backend;
+
+		if (b == MathBackend.POLYNOMIAL)
+			return (polyExp(x));
+
+		return ((float) Math.exp(x));
+	}
+
 	/**
 	 * @see Math#log(double)
 	 * 
@@ -192,10 +542,20 @@ public class FastMath {
 	 * @return the natural logarithm (base e)
 	 */
 	public static final float log(float x) {
+		final MathBackend b = backend;
+
+		if (b == MathBackend.POLYNOMIAL)
+			return (polyLog(x));
+
 		return ((float) Math.log(x));
 	}
 
 	public static final float log10(float x) {
+		final MathBackend b = backend;
+
+		if (b == MathBackend.POLYNOMIAL)
+			return (polyLog(x) * LOG10_E);
+
 		return ((float) Math.log10(x));
 	}
 
@@ -209,7 +569,12 @@ public class FastMath {
 	 * @return the logarithm to base 2
 	 */
 	public static final float log2(float x) {
-		return ((float) (Math.log(x) * LOG10_TO_LOG2d));
+		final MathBackend b = backend;
+
+		if (b == MathBackend.POLYNOMIAL)
+			return (polyLog(x) * LOG2_E);
+
+		return ((float) (Math.log10(x) * LOG10_TO_LOG2d));
 	}
 
 	public static final float toDeg(float x) {
@@ -221,15 +586,20 @@ public class FastMath {
 	}
 
 	public static final float pow(float base, float exp) {
+		final MathBackend b = backend;
+
+		if ((b == MathBackend.POLYNOMIAL) && (base > 0f))
+			return (polyExp(exp * polyLog(base)));
+
 		return ((float) Math.pow(base, exp));
 	}
 
 	public static final float pow2(float base) {
-		return (pow(base, 2f));
+		return (base * base);
 	}
 
 	public static final float pow3(float base) {
-		return (pow(base, 3f));
+		return (base * base * base);
 	}
 
 	public static final int pow(int base, int exp) {
@@ -36,7 +36,36 @@ package org.openmali;
 import java.util.Random;
 
 /**
- * The FastMath class provides fast and optimized mathematical functions.
+ * The FastMathd class provides fast and optimized mathematical functions.<br>
+ * <br>
+ * The implementation of the transcendental functions is selected by
+ * {@link #setBackend(MathBackend)}. The maximum errors compared to
+ * {@link Math} (which is itself accurate to one ulp), in ulps, as measured by the FastMathAccuracy report of the benchmarks
+ * module:
+ * 
+ * <table border="1">
+ * <tr><th>function</th><th>TABLE</th><th>POLYNOMIAL</th><th>JAVA</th></tr>
+ * <tr><td>sin</td><td>2.2e8 (1.8e-8 absolute)</td><td>2</td><td>0</td></tr>
+ * <tr><td>cos</td><td>2.1e8 (1.8e-8 absolute)</td><td>1</td><td>0</td></tr>
+ * <tr><td>tan</td><td>2.2e8</td><td>3</td><td>0</td></tr>
+ * <tr><td>asin</td><td>0</td><td>2</td><td>0</td></tr>
+ * <tr><td>acos</td><td>0</td><td>2</td><td>0</td></tr>
+ * <tr><td>atan</td><td>0</td><td>0</td><td>0</td></tr>
+ * <tr><td>atan2</td><td>0</td><td>1</td><td>0</td></tr>
+ * <tr><td>exp</td><td>0</td><td>1</td><td>0</td></tr>
+ * <tr><td>log</td><td>0</td><td>1</td><td>0</td></tr>
+ * <tr><td>log2</td><td>2</td><td>2</td><td>2</td></tr>
+ * <tr><td>log10</td><td>0</td><td>2</td><td>0</td></tr>
+ * <tr><td>pow</td><td>0</td><td>70</td><td>0</td></tr>
+ * <tr><td>sqrt</td><td>0</td><td>0</td><td>0</td></tr>
+ * <tr><td>invSqrt</td><td>0</td><td>3</td><td>0</td></tr>
+ * </table>
+ * 
+ * The TABLE errors depend on {@link #setPrecision(int)} (default shown).
+ * The POLYNOMIAL trigonometric functions fall back to {@link Math} for
+ * angles beyond about 1.5e6 radians, pow is evaluated as exp( exp * log( base ) ),
+ * and sqrt always uses {@link Math}, since it is a single instruction.
+ * All functions not listed here use {@link Math} in every backend.
  * 
  * @author Marvin Froehlich (aka Qudus)
  */
@@ -56,59 +85,352 @@ public class FastMathd {
 	public static final double LOG10_TO_LOG2d = 3.3219280948873626;
 	public static final double LOG10_TO_LOG2 = LOG10_TO_LOG2d;
 
-	private static int precision = 0x100000;
-	private static double[] sinTable = null,
-	// asinTable = null,
-	// sinhTable = null,
-			cosTable = null,
-			// acosTable = null,
-			// coshTable = null,
-			tanTable = null;
+	/**
+	 * The default number of samples per full circle of the lookup table.
+	 */
+	public static final int DEFAULT_PRECISION = 0x4000;
+
+	/**
+	 * An immutable lookup table for one precision. The table holds one
+	 * extra sample, so the interpolation never has to wrap around.
+	 */
+	private static final class Tables {
+		final int precision;
+		final int mask;
+		final int quarter;
+		final double scale;
+		final double[] sin;
+
+		Tables(int precision) {
+			this.precision = precision;
+			this.mask = precision - 1;
+			this.quarter = precision / 4;
+			this.scale = precision / (2.0 * Math.PI);
+			this.sin = new double[precision + 1];
+
+			final double slice = (2.0 * Math.PI) / precision;
+
+			for (int i = 0; i <= precision; i++) {
+				sin[i] = Math.sin(i * slice);
+			}
+		}
+	}
 
-	// atanTable = null,
-	// atan2Table = null,
-	// tanhTable = null;
+	private static volatile int precision = DEFAULT_PRECISION;
+	private static volatile Tables tables = null;
 
+	/**
+	 * Sets the number of samples per full circle of the sin/cos lookup
+	 * table. The table is rebuilt on next use. Threads, that are currently
+	 * using the old table, safely continue to do so.
+	 * 
+	 * @param precision a power of two &gt;= 4
+	 */
 	public static final void setPrecision(int precision) {
-		if (FastMathd.precision != precision) {
-			sinTable = null;
-			// asinTable = null;
-			// sinhTable = null;
-			cosTable = null;
-			// acosTable = null;
-			// coshTable = null;
-			tanTable = null;
-			// atanTable = null;
-			// atan2Table = null;
-			// tanhTable = null;
-		}
+		if ((precision < 4) || ((precision & (precision - 1)) != 0))
+			throw new IllegalArgumentException("precision must be a power of two >= 4.");
 
-		FastMathd.precision = precision;
+		synchronized (Tables.class) {
+			if (FastMathd.precision != precision) {
+				FastMathd.precision = precision;
+				tables = null;
+			}
+		}
 	}
 
 	public static final int getPrecision() {
 		return (precision);
 	}
 
-	private static final int radToIndex(double radians) {
-		return ((int) ((radians / TWO_PI) * precision) & (precision - 1));
+	private static final Tables getTables() {
+		Tables t = tables;
+
+		if (t == null) {
+			synchronized (Tables.class) {
+				t = tables;
+
+				if (t == null) {
+					t = new Tables(precision);
+					tables = t;
+				}
+			}
+		}
+
+		return (t);
 	}
 
-	public static final double sin(double x) {
-		if (sinTable == null) {
-			sinTable = new double[precision];
+	/**
+	 * Linearly interpolates the sine table.
+	 * 
+	 * @param t the tables
+	 * @param x the angle in radians
+	 * @param offset the index offset (a quarter circle for cosine)
+	 */
+	private static final double lookup(Tables t, double x, int offset) {
+		double f = x * t.scale;
 
-			final double rad_slice = TWO_PI / precision;
+		// keep huge angles inside the int range
+		if ((f >= 1073741824) || (f <= -1073741824))
+			f %= t.precision;
 
-			for (int i = 0; i < precision; i++) {
-				sinTable[i] = java.lang.Math.sin(i * rad_slice);
-			}
+		int i = (int) f;
+		double frac = f - i;
+
+		if (frac < 0) {
+			frac += 1.0;
+			i--;
 		}
 
-		return (sinTable[radToIndex(x)]);
+		i = (i + offset) & t.mask;
+
+		final double s0 = t.sin[i];
+
+		return (s0 + (t.sin[i + 1] - s0) * frac);
+	}
+
+	private static volatile MathBackend backend = MathBackend.fromProperty("org.openmali.FastMathd.backend", MathBackend.TABLE);
+
+	/**
+	 * Selects the implementation of the transcendental functions. The
+	 * initial value is taken from the system property
+	 * "org.openmali.FastMathd.backend" and defaults to {@link MathBackend#TABLE}.
+	 * 
+	 * @param backend
+	 */
+	public static final void setBackend(MathBackend backend) {
+		if (backend == null)
+			throw new IllegalArgumentException("backend must not be null.");
+
+		FastMathd.backend = backend;
+	}
+
+	/**
+	 * @return the implementation of the transcendental functions
+	 */
+	public static final MathBackend getBackend() {
+		return (backend);
+	}
+
+	private static final double TWO_OVER_PI = 2.0 / Math.PI;
+	// pi/2 split into a 33 bit head and a tail
+	private static final double PIO2_HI = 1.57079632673412561417e+00;
+	private static final double PIO2_LO = 6.07710050650619224932e-11;
+	private static final double LN2_HI = 6.93147180369123816490e-01;
+	private static final double LN2_LO = 1.90821492927058770002e-10;
+	private static final double LOG2_E = 1.44269504088896338700e+00;
+	private static final double LOG10_E = 4.34294481903251816668e-01;
+	private static final double SQRT2 = 1.41421356237309514547e+00;
+
+	private static final double[] ATAN_HI = { 4.63647609000806093515e-01, 7.85398163397448278999e-01, 9.82793723247329054082e-01, 1.57079632679489655800e+00 };
+	private static final double[] ATAN_LO = { 2.26987774529616870924e-17, 3.06161699786838301793e-17, 1.39033110312309984516e-17, 6.12323399573676603587e-17 };
+
+	/**
+	 * sin( r ) for r in [-pi/4, pi/4]
+	 */
+	private static final double sinKernel(double r) {
+		final double z = r * r;
+
+		return (r + r * z * (-1.66666666666666324348e-01 + z * (8.33333333332248946124e-03 + z * (-1.98412698298579493134e-04 + z * (2.75573137070700676789e-06 + z * (-2.50507602534068634195e-08 + z * 1.58969099521155010221e-10))))));
+	}
+
+	/**
+	 * cos( r ) for r in [-pi/4, pi/4]
+	 */
+	private static final double cosKernel(double r) {
+		final double z = r * r;
+
+		return (1.0 - 0.5 * z + z * z * (4.16666666666666019037e-02 + z * (-1.38888888888741095749e-03 + z * (2.48015872894767294178e-05 + z * (-2.75573143513906633035e-07 + z * (2.08757232129817482790e-09 + z * -1.13596475577881948265e-11))))));
+	}
+
+	/**
+	 * Minimax polynomials for sine and cosine on [-pi/4, pi/4] after a
+	 * reduction by multiples of pi/2.
+	 * 
+	 * @param x the angle in radians
+	 * @param quadrantOffset 0 for sine, 1 for cosine
+	 */
+	private static final double polySinCos(double x, int quadrantOffset) {
+		final double fx = x * TWO_OVER_PI;
+
+		if (!((fx > -1.0e6) && (fx < 1.0e6)))
+			return ((quadrantOffset == 0) ? Math.sin(x) : Math.cos(x));
+
+		final int q0 = (int) ((fx >= 0.0) ? fx + 0.5 : fx - 0.5);
+		final double r = (x - q0 * PIO2_HI) - q0 * PIO2_LO;
+		final int q = q0 + quadrantOffset;
+
+		final double y = ((q & 1) == 0) ? sinKernel(r) : cosKernel(r);
+
+		return (((q & 2) == 0) ? y : -y);
+	}
+
+	private static final double polyTan(double x) {
+		final double fx = x * TWO_OVER_PI;
+
+		if (!((fx > -1.0e6) && (fx < 1.0e6)))
+			return (Math.tan(x));
+
+		final int q = (int) ((fx >= 0.0) ? fx + 0.5 : fx - 0.5);
+		final double r = (x - q * PIO2_HI) - q * PIO2_LO;
+
+		if ((q & 1) == 0)
+			return (sinKernel(r) / cosKernel(r));
+
+		return (-cosKernel(r) / sinKernel(r));
+	}
+
+	private static final double polyAtan(double x) {
+		final boolean negative = (x < 0.0);
+		double a = negative ? -x : x;
+
+		if (!(a < 1.0e17)) {
+			// huge, infinite or NaN
+			return (Math.atan(x));
+		}
+
+		final int id;
+		if (a < 0.4375) {
+			id = -1;
+		} else if (a < 0.6875) {
+			id = 0;
+			a = (2.0 * a - 1.0) / (2.0 + a);
+		} else if (a < 1.1875) {
+			id = 1;
+			a = (a - 1.0) / (a + 1.0);
+		} else if (a < 2.4375) {
+			id = 2;
+			a = (a - 1.5) / (1.0 + 1.5 * a);
+		} else {
+			id = 3;
+			a = -1.0 / a;
+		}
+
+		final double z = a * a;
+		final double w = z * z;
+		final double s1 = z * (3.33333333333329318027e-01 + w * (1.42857142725034663711e-01 + w * (9.09088713343650656196e-02 + w * (6.66107313738753120669e-02 + w * (4.97687799461593236017e-02 + w * 1.62858201153657823623e-02)))));
+		final double s2 = w * (-1.99999999998764832476e-01 + w * (-1.11111104054623557880e-01 + w * (-7.69187620504482999495e-02 + w * (-5.83357013379057348645e-02 + w * -3.65315727442169155270e-02))));
+
+		final double y;
+		if (id < 0)
+			y = a - a * (s1 + s2);
+		else
+			y = ATAN_HI[id] - ((a * (s1 + s2) - ATAN_LO[id]) - a);
+
+		return (negative ? -y : y);
+	}
+
+	private static final double polyAtan2(double y, double x) {
+		// zeros, infinities and NaN
+		if ((x == 0.0) || (y == 0.0) || !(Math.abs(x) < Double.POSITIVE_INFINITY) || !(Math.abs(y) < Double.POSITIVE_INFINITY))
+			return (Math.atan2(y, x));
+
+		final double a = polyAtan(y / x);
+
+		if (x > 0.0)
+			return (a);
+
+		return ((y > 0.0) ? a + PI : a - PI);
+	}
+
+	private static final double polyAsin(double x) {
+		if (!((x >= -1.0) && (x <= 1.0)))
+			return (Double.NaN);
+
+		return (polyAtan2(x, Math.sqrt((1.0 - x) * (1.0 + x))));
+	}
+
+	private static final double polyAcos(double x) {
+		if (!((x >= -1.0) && (x <= 1.0)))
+			return (Double.NaN);
+
+		if (x == 0.0)
+			return (PI_HALF);
+
+		return (polyAtan2(Math.sqrt((1.0 - x) * (1.0 + x)), x));
+	}
+
+	private static final double polyExp(double x) {
+		// overflow, denormal results and NaN
+		if (!((x > -708.0) && (x < 709.0)))
+			return (Math.exp(x));
+
+		final double fk = x * LOG2_E;
+		final int k = (int) ((fk >= 0.0) ? fk + 0.5 : fk - 0.5);
+		final double hi = x - k * LN2_HI;
+		final double lo = k * LN2_LO;
+		final double r = hi - lo;
+		final double t = r * r;
+		final double c = r - t * (1.66666666666666019037e-01 + t * (-2.77777777770155933842e-03 + t * (6.61375632143793436117e-05 + t * (-1.65339022054652515390e-06 + t * 4.13813679705723846039e-08))));
+		final double y = 1.0 - ((lo - (r * c) / (2.0 - c)) - hi);
+
+		return (y * Double.longBitsToDouble((long) (k + 1023) << 52));
+	}
+
+	private static final double polyLog(double x) {
+		final long bits = Double.doubleToRawLongBits(x);
+
+		// negative, zero, denormal, infinite and NaN
+		if ((bits < 0x0010000000000000L) || (bits >= 0x7FF0000000000000L))
+			return (Math.log(x));
+
+		int k = (int) (bits >>> 52) - 1023;
+		double m = Double.longBitsToDouble((bits & 0x000FFFFFFFFFFFFFL) | 0x3FF0000000000000L);
+
+		if (m > SQRT2) {
+			m *= 0.5;
+			k++;
+		}
+
+		final double f = m - 1.0;
+		final double s = f / (2.0 + f);
+		final double z = s * s;
+		final double w = z * z;
+		final double t1 = w * (3.999999999940941908e-01 + w * (2.222219843214978396e-01 + w * 1.531383769920937332e-01));
+		final double t2 = z * (6.666666666666735130e-01 + w * (2.857142874366239149e-01 + w * (1.818357216161805012e-01 + w * 1.479819860511658591e-01)));
+		final double hfsq = 0.5 * f * f;
+
+		return (k * LN2_HI - ((hfsq - (s * (hfsq + t1 + t2) + k * LN2_LO)) - f));
+	}
+
+	/**
+	 * The well known bit-trick estimate with four Newton steps, which are
+	 * needed to reach full double precision.
+	 */
+	private static final double bitInvSqrt(double x) {
+		final long bits = Double.doubleToRawLongBits(x);
+
+		// negative, zero, denormal, infinite and NaN
+		if ((bits < 0x0010000000000000L) || (bits >= 0x7FF0000000000000L))
+			return (1.0 / Math.sqrt(x));
+
+		final double half = 0.5 * x;
+		double y = Double.longBitsToDouble(0x5FE6EB50C7B537A9L - (bits >> 1));
+		y = y * (1.5 - half * y * y);
+		y = y * (1.5 - half * y * y);
+		y = y * (1.5 - half * y * y);
+		y = y * (1.5 - half * y * y);
+
+		return (y);
+	}
+
+	public static final double sin(double x) {
+		final MathBackend b = backend;
+
+		if (b == MathBackend.TABLE)
+			return (lookup(getTables(), x, 0));
+
+		if (b == MathBackend.POLYNOMIAL)
+			return (polySinCos(x, 0));
+
+		return (Math.sin(x));
 	}
 
 	public static final double asin(double x) {
+		final MathBackend b = backend;
+
+		if (b == MathBackend.POLYNOMIAL)
+			return (polyAsin(x));
+
 		return (Math.asin(x));
 	}
 
@@ -117,20 +439,26 @@ public class FastMathd {
 	}
 
 	public static final double cos(double x) {
-		if (cosTable == null) {
-			cosTable = new double[precision];
+		final MathBackend b = backend;
 
-			final double rad_slice = TWO_PI / precision;
+		if (b == MathBackend.TABLE) {
+			final Tables t = getTables();
 
-			for (int i = 0; i < precision; i++) {
-				cosTable[i] = java.lang.Math.cos(i * rad_slice);
-			}
+			return (lookup(t, x, t.quarter));
 		}
 
-		return (cosTable[radToIndex(x)]);
+		if (b == MathBackend.POLYNOMIAL)
+			return (polySinCos(x, 1));
+
+		return (Math.cos(x));
 	}
 
 	public static final double acos(double x) {
+		final MathBackend b = backend;
+
+		if (b == MathBackend.POLYNOMIAL)
+			return (polyAcos(x));
+
 		return (Math.acos(x));
 	}
 
@@ -139,24 +467,35 @@ public class FastMathd {
 	}
 
 	public static final double tan(double x) {
-		if (tanTable == null) {
-			tanTable = new double[precision];
+		final MathBackend b = backend;
 
-			final double rad_slice = TWO_PI / precision;
+		if (b == MathBackend.TABLE) {
+			final Tables t = getTables();
 
-			for (int i = 0; i < precision; i++) {
-				tanTable[i] = java.lang.Math.tan(i * rad_slice);
-			}
+			return (lookup(t, x, 0) / lookup(t, x, t.quarter));
 		}
 
-		return (tanTable[radToIndex(x)]);
+		if (b == MathBackend.POLYNOMIAL)
+			return (polyTan(x));
+
+		return (Math.tan(x));
 	}
 
 	public static final double atan(double x) {
+		final MathBackend b = backend;
+
+		if (b == MathBackend.POLYNOMIAL)
+			return (polyAtan(x));
+
 		return (Math.atan(x));
 	}
 
 	public static final double atan2(double y, double x) {
+		final MathBackend b = backend;
+
+		if (b == MathBackend.POLYNOMIAL)
+			return (polyAtan2(y, x));
+
 		return (Math.atan2(y, x));
 	}
 
@@ -173,6 +512,11 @@ public class FastMathd {
 	}
 
 	public static final double invSqrt(double x) {
+		final MathBackend b = backend;
+
+		if (b == MathBackend.POLYNOMIAL)
+			return (bitInvSqrt(x));
+
 		return (1.0 / Math.sqrt(x));
 	}
 
@@ -184,6 +528,22 @@ public class FastMathd {
 		return (Math.floor(x));
 	}
 
+	/**
+	 * @see Math#exp(double)
+	 * 
+	 * @param x
+	 * 
+	 * @return e raised to the power of x
+	 */
+	public static final double exp(double x) {
+		final MathBackend b = backend;
+
+		if (b == MathBackend.POLYNOMIAL)
+			return (polyExp(x));
+
+		return (Math.exp(x));
+	}
+
 	/**
 	 * @see Math#log
 	 * 
@@ -192,10 +552,20 @@ public class FastMathd {
 	 * @return the natural logarithm (base e)
 	 */
 	public static final double log(double x) {
+		final MathBackend b = backend;
+
+		if (b == MathBackend.POLYNOMIAL)
+			return (polyLog(x));
+
 		return (Math.log(x));
 	}
 
 	public static final double log10(double x) {
+		final MathBackend b = backend;
+
+		if (b == MathBackend.POLYNOMIAL)
+			return (polyLog(x) * LOG10_E);
+
 		return (Math.log10(x));
 	}
 
@@ -209,7 +579,12 @@ public class FastMathd {
 	 * @return the logarithm to base 2
 	 */
 	public static final double log2(double x) {
-		return ((Math.log(x) * LOG10_TO_LOG2d));
+		final MathBackend b = backend;
+
+		if (b == MathBackend.POLYNOMIAL)
+			return (polyLog(x) * LOG2_E);
+
+		return (Math.log10(x) * LOG10_TO_LOG2d);
 	}
 
 	public static final double toDeg(double x) {
@@ -221,15 +596,20 @@ public class FastMathd {
 	}
 
 	public static final double pow(double base, double exp) {
+		final MathBackend b = backend;
+
+		if ((b == MathBackend.POLYNOMIAL) && (base > 0.0))
+			return (polyExp(exp * polyLog(base)));
+
 		return (Math.pow(base, exp));
 	}
 
 	public static final double pow2(double base) {
-		return (pow(base, 2d));
+		return (base * base);
 	}
 
 	public static final double pow3(double base) {
-		return (pow(base, 3d));
+		return (base * base * base);
 	}
 
 	public static final boolean epsilonEquals(double v1, double v2, double epsilon) {
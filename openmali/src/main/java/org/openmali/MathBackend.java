@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) 2007-2009, OpenMaLi Project Group all rights reserved.
+ * 
+ * Portions based on the Sun's javax.vecmath interface, Copyright by Sun
+ * Microsystems or Kenji Hiranabe's alternative GC-cheap implementation.
+ * Many thanks to the developers.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the 'OpenMaLi Project Group' nor the names of its
+ * contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) A
+ * RISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE
+ */
+package org.openmali;
+
+import java.util.Locale;
+
+/**
+ * The implementations {@link FastMath} and {@link FastMathd} can use for
+ * their transcendental functions. See the class documentation of
+ * {@link FastMath} for the accuracy of each function per backend.
+ */
+public enum MathBackend {
+	/**
+	 * Interpolated lookup tables for sin, cos and tan, {@link Math} for
+	 * everything else. This is the default.
+	 */
+	TABLE,
+
+	/**
+	 * Minimax polynomial approximations for the trigonometric functions,
+	 * their inverses, exp, log and pow, and a bit-trick invSqrt refined by
+	 * Newton steps. Functions without an approximation use {@link Math}.
+	 */
+	POLYNOMIAL,
+
+	/**
+	 * Plain {@link Math} for all functions.
+	 */
+	JAVA;
+
+	/**
+	 * Parses the backend from a system property. This runs during the static
+	 * initialization of {@link FastMath} and {@link FastMathd}, so it never
+	 * throws.
+	 * 
+	 * @param property the name of the system property
+	 * @param defaultBackend the backend to use, if the property is not set or
+	 *            doesn't name a backend
+	 * 
+	 * @return the backend
+	 */
+	static MathBackend fromProperty(String property, MathBackend defaultBackend) {
+		final String value = System.getProperty(property);
+
+		if ((value == null) || (value.length() == 0))
+			return (defaultBackend);
+
+		try {
+			return (valueOf(value.trim().toUpperCase(Locale.ENGLISH)));
+		} catch (IllegalArgumentException e) {
+			return (defaultBackend);
+		}
+	}
+}
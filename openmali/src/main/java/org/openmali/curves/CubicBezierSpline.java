@@ -45,6 +45,7 @@ import org.openmali.vecmath2.Point3f;
 import org.openmali.vecmath2.Tuple2f;
 import org.openmali.vecmath2.Tuple3f;
 import org.openmali.vecmath2.Vector3f;
+import org.openmali.vecmath2.util.VecStack;
 
 /**
  * A cubic Bezier Curve (degree 3)
@@ -378,88 +379,87 @@ public class CubicBezierSpline {
 		float closestParameter = 0;
 		int closestSubcurve = 0;
 		float u, proj, v2, d;
-		Vector3f p0 = Vector3f.fromPool();
-		Vector3f p1 = Vector3f.fromPool();
-		Vector3f p = Vector3f.fromPool();
-		Vector3f v = Vector3f.fromPool();
-		Vector3f w = Vector3f.fromPool();
-		Vector3f tmp = Vector3f.fromPool();
-
-		// cycle through the segments found by subdividing the spline
-		for (int i = 0; i < suMapping.size() - 1; i++) {
-			// set up a line segment
-			SUMapEntry entry0 = suMapping.get(i);
-			SUMapEntry entry1 = suMapping.get(i + 1);
-			evalPoint(basePoints[entry0.subcurve], controlPoints[entry0.subcurve * 2], controlPoints[entry0.subcurve * 2 + 1], basePoints[entry0.subcurve + 1], entry0.u, p0);
-			evalPoint(basePoints[entry1.subcurve], controlPoints[entry1.subcurve * 2], controlPoints[entry1.subcurve * 2 + 1], basePoints[entry1.subcurve + 1], entry1.u, p1);
-
-			// we can use the line segment parameter "t" to determine if the
-			// point is outside of the line segment or not
-			// t= (w dot v)/(v dot v)
-			v.set(p1).sub(p0);
-			w.set(x, y, z).sub(p0);
-
-			// if the numerator of this fraction is <= 0, then the point lies
-			// "before" p0:
-			proj = w.dot(v);
-			if (proj <= 0) {
-				// check, if we have a new closest distance
-				d = w.lengthSquared();
-				if (d < closestDistance) {
-					if (resultPoint != null)
-						resultPoint.set(p0);
-					closestDistance = d;
-					closestParameter = entry0.s;
-					closestSubcurve = entry0.subcurve;
-				}
-			}
-			// otherwise check the other end of the line segment
-			else {
-				// if the numerator is greater than the denominator, the point
-				// lies "behind" p1
-				v2 = v.dot(v);
-				if (proj >= v2) {
+		final VecStack stack = VecStack.push();
+		try {
+			Vector3f p0 = stack.vec3();
+			Vector3f p1 = stack.vec3();
+			Vector3f p = stack.vec3();
+			Vector3f v = stack.vec3();
+			Vector3f w = stack.vec3();
+			Vector3f tmp = stack.vec3();
+
+			// cycle through the segments found by subdividing the spline
+			for (int i = 0; i < suMapping.size() - 1; i++) {
+				// set up a line segment
+				SUMapEntry entry0 = suMapping.get(i);
+				SUMapEntry entry1 = suMapping.get(i + 1);
+				evalPoint(basePoints[entry0.subcurve], controlPoints[entry0.subcurve * 2], controlPoints[entry0.subcurve * 2 + 1], basePoints[entry0.subcurve + 1], entry0.u, p0);
+				evalPoint(basePoints[entry1.subcurve], controlPoints[entry1.subcurve * 2], controlPoints[entry1.subcurve * 2 + 1], basePoints[entry1.subcurve + 1], entry1.u, p1);
+
+				// we can use the line segment parameter "t" to determine if the
+				// point is outside of the line segment or not
+				// t= (w dot v)/(v dot v)
+				v.set(p1).sub(p0);
+				w.set(x, y, z).sub(p0);
+
+				// if the numerator of this fraction is <= 0, then the point lies
+				// "before" p0:
+				proj = w.dot(v);
+				if (proj <= 0) {
 					// check, if we have a new closest distance
-					tmp.set(x, y, z).sub(p1);
-					d = tmp.lengthSquared();
+					d = w.lengthSquared();
 					if (d < closestDistance) {
 						if (resultPoint != null)
-							resultPoint.set(p1);
+							resultPoint.set(p0);
 						closestDistance = d;
-						closestParameter = entry1.s;
+						closestParameter = entry0.s;
 						closestSubcurve = entry0.subcurve;
 					}
 				}
-				// if the numerator is less than the denominator but greater
-				// than 0, the closest point lies on the line segment
+				// otherwise check the other end of the line segment
 				else {
-					// compute the point on the spline and check, if we have a
-					// new closest distance
-					u = entry0.u + (proj / v2) * (entry1.u - entry0.u);
-					evalPoint(basePoints[entry0.subcurve], controlPoints[entry0.subcurve * 2], controlPoints[entry0.subcurve * 2 + 1], basePoints[entry0.subcurve + 1], u, p);
-					tmp.set(x, y, z).sub(p);
-					d = tmp.lengthSquared();
-					if (d < closestDistance) {
-						if (resultPoint != null)
-							resultPoint.set(p);
-						closestDistance = d;
-						closestParameter = entry0.s + (proj / v2) * (entry1.s - entry0.s);
-						closestSubcurve = entry0.subcurve;
+					// if the numerator is greater than the denominator, the point
+					// lies "behind" p1
+					v2 = v.dot(v);
+					if (proj >= v2) {
+						// check, if we have a new closest distance
+						tmp.set(x, y, z).sub(p1);
+						d = tmp.lengthSquared();
+						if (d < closestDistance) {
+							if (resultPoint != null)
+								resultPoint.set(p1);
+							closestDistance = d;
+							closestParameter = entry1.s;
+							closestSubcurve = entry0.subcurve;
+						}
+					}
+					// if the numerator is less than the denominator but greater
+					// than 0, the closest point lies on the line segment
+					else {
+						// compute the point on the spline and check, if we have a
+						// new closest distance
+						u = entry0.u + (proj / v2) * (entry1.u - entry0.u);
+						evalPoint(basePoints[entry0.subcurve], controlPoints[entry0.subcurve * 2], controlPoints[entry0.subcurve * 2 + 1], basePoints[entry0.subcurve + 1], u, p);
+						tmp.set(x, y, z).sub(p);
+						d = tmp.lengthSquared();
+						if (d < closestDistance) {
+							if (resultPoint != null)
+								resultPoint.set(p);
+							closestDistance = d;
+							closestParameter = entry0.s + (proj / v2) * (entry1.s - entry0.s);
+							closestSubcurve = entry0.subcurve;
+						}
 					}
 				}
 			}
+			if (resultParams != null) {
+				resultParams.setX(closestParameter);
+				resultParams.setY(closestDistance);
+			}
+			return closestSubcurve;
+		} finally {
+			stack.pop();
 		}
-		Vector3f.toPool(tmp);
-		Vector3f.toPool(w);
-		Vector3f.toPool(v);
-		Vector3f.toPool(p);
-		Vector3f.toPool(p0);
-		Vector3f.toPool(p1);
-		if (resultParams != null) {
-			resultParams.setX(closestParameter);
-			resultParams.setY(closestDistance);
-		}
-		return closestSubcurve;
 	}
 
 	/**
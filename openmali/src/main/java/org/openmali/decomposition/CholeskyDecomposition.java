@@ -33,6 +33,8 @@
  */
 package org.openmali.decomposition;
 
+import java.util.concurrent.ExecutorService;
+
 import org.openmali.FastMath;
 import org.openmali.vecmath2.MatrixMxNf;
 
@@ -48,20 +50,33 @@ import org.openmali.vecmath2.MatrixMxNf;
  * be queried by the isSPD() method.
  * </p>
  * 
+ * <p>
+ * An instance can be reused for any number of matrices by calling
+ * {@link #decompose(MatrixMxNf)}. The internal storage is only reallocated,
+ * if a matrix is bigger than any matrix decomposed before. So repeated
+ * decompose() and {@link #solve(MatrixMxNf, MatrixMxNf)} calls don't
+ * create any garbage.
+ * </p>
+ * 
  * @author <a href="http://math.nist.gov/javanumerics/jama/">JAMA</a>
  */
 public class CholeskyDecomposition {
 	/**
-	 * Array for internal storage of decomposition.
+	 * Array for internal storage of decomposition (row major).
 	 * @serial internal array storage.
 	 */
-	private final MatrixMxNf L;
+	private float[] a;
+
+	/**
+	 * The triangular factor as returned by {@link #getL()} (lazily filled).
+	 */
+	private MatrixMxNf L = null;
 
 	/**
 	 * Row and column dimension (square matrix).
 	 * @serial matrix dimension.
 	 */
-	private final int n;
+	private int n;
 
 	/**
 	 * Symmetric and positive definite flag.
@@ -69,38 +84,222 @@ public class CholeskyDecomposition {
 	 */
 	private boolean isSPD;
 
+	/**
+	 * Scratch space for the right hand side in solve().
+	 */
+	private float[] work = null;
+
+	/**
+	 * Creates an empty Cholesky Decomposition for matrices of up to n x n elements.
+	 * Use {@link #decompose(MatrixMxNf)} to decompose a matrix.
+	 * @param n the (initial) matrix dimension
+	 */
+	public CholeskyDecomposition(int n) {
+		if (n < 0) {
+			throw new IllegalArgumentException("Matrix dimension must not be negative.");
+		}
+
+		this.n = n;
+		this.a = new float[n * n];
+		this.isSPD = false;
+	}
+
 	/**
 	 * Cholesky algorithm for symmetric and positive definite matrix.
 	 * @param M Square, symmetric matrix.
 	 * return Structure to access L and isspd flag.
 	 */
 	public CholeskyDecomposition(MatrixMxNf M) {
+		this(M, null, DecompositionKernels.DEFAULT_PARALLEL_THRESHOLD);
+	}
+
+	/**
+	 * Cholesky algorithm for symmetric and positive definite matrix.
+	 * The trailing updates are split into parallel bands of rows,
+	 * while the remaining submatrix is at least 128 x 128.
+	 * @param M Square, symmetric matrix.
+	 * @param executor the executor to run the bands in (may be <code>null</code>)
+	 */
+	public CholeskyDecomposition(MatrixMxNf M, ExecutorService executor) {
+		this(M, executor, DecompositionKernels.DEFAULT_PARALLEL_THRESHOLD);
+	}
+
+	/**
+	 * Cholesky algorithm for symmetric and positive definite matrix.
+	 * The trailing updates are split into parallel bands of rows,
+	 * while the remaining submatrix is at least parallelThreshold x parallelThreshold.
+	 * @param M Square, symmetric matrix.
+	 * @param executor the executor to run the bands in (may be <code>null</code>)
+	 * @param parallelThreshold the minimum dimension for parallel updates
+	 */
+	public CholeskyDecomposition(MatrixMxNf M, ExecutorService executor, int parallelThreshold) {
+		this(M.getNumRows());
+
+		decompose(M, executor, parallelThreshold);
+	}
+
+	/**
+	 * Decomposes the given matrix, replacing the previous decomposition.
+	 * The internal storage is reused.
+	 * @param M Square, symmetric matrix.
+	 */
+	public final void decompose(MatrixMxNf M) {
+		decompose(M, null, DecompositionKernels.DEFAULT_PARALLEL_THRESHOLD);
+	}
+
+	/**
+	 * Decomposes the given matrix, replacing the previous decomposition.
+	 * The internal storage is reused.
+	 * @param M Square, symmetric matrix.
+	 * @param executor the executor to run the bands in (may be <code>null</code>)
+	 * @param parallelThreshold the minimum dimension for parallel updates
+	 */
+	public final void decompose(MatrixMxNf M, ExecutorService executor, int parallelThreshold) {
 		// Initialize.
 		this.n = M.getNumRows();
-		this.L = new MatrixMxNf(n, n);
 		this.isSPD = (M.getNumCols() == n);
 
-		// Main loop.
-		for (int j = 0; j < n; j++) {
-			float d = 0.0f;
+		if (a.length < n * n) {
+			this.a = new float[n * n];
+		}
+
+		final float[] a = this.a;
+		if (M.getNumCols() == n) {
+			M.getRowMajor(a, 0);
+		} else {
+			for (int j = 0; j < n; j++) {
+				for (int k = 0; k <= j; k++) {
+					a[j * n + k] = M.get(j, k);
+				}
+			}
+		}
+
+		for (int j = 0; (j < n) && isSPD; j++) {
 			for (int k = 0; k < j; k++) {
+				isSPD = isSPD & (a[k * n + j] == a[j * n + k]);
+			}
+		}
+
+		factor(a, executor, parallelThreshold);
+
+		// Clear the upper triangle.
+		for (int j = 0; j < n; j++) {
+			for (int k = j + 1; k < n; k++) {
+				a[j * n + k] = 0f;
+			}
+		}
+
+		if (L != null) {
+			if (L.getNumRows() == n)
+				L.setRowMajor(a, 0);
+			else
+				L = null;
+		}
+	}
+
+	/**
+	 * Blocked, right-looking Cholesky factorization on the lower triangle of the
+	 * row major array. Each diagonal block of {@link DecompositionKernels#BLOCK_SIZE}
+	 * columns is factored, then the panel below it is solved and the lower triangle
+	 * of the trailing submatrix is updated row by row.
+	 */
+	private void factor(final float[] a, ExecutorService executor, int parallelThreshold) {
+		final int n = this.n;
+
+		for (int k0 = 0; k0 < n; k0 += DecompositionKernels.BLOCK_SIZE) {
+			final int k1 = Math.min(k0 + DecompositionKernels.BLOCK_SIZE, n);
+
+			// Factor the diagonal block.
+			for (int j = k0; j < k1; j++) {
+				final int rowJ = j * n;
+
+				for (int k = k0; k < j; k++) {
+					final int rowK = k * n;
+
+					float s = 0.0f;
+					for (int i = k0; i < k; i++) {
+						s += a[rowK + i] * a[rowJ + i];
+					}
+
+					a[rowJ + k] = (a[rowJ + k] - s) / a[rowK + k];
+				}
+
+				float d = 0.0f;
+				for (int i = k0; i < j; i++) {
+					d += a[rowJ + i] * a[rowJ + i];
+				}
+
+				d = a[rowJ + j] - d;
+				isSPD = isSPD & (d > 0.0f);
+				a[rowJ + j] = FastMath.sqrt(Math.max(d, 0.0f));
+			}
+
+			if (k1 >= n)
+				continue;
+
+			final int panelBegin = k0;
+			final int panelEnd = k1;
+			final boolean parallel = DecompositionKernels.isParallel(executor, parallelThreshold, n - k1, n - k1);
+
+			if (!parallel) {
+				solvePanel(a, n, panelBegin, panelEnd, k1, n);
+				updateTrailing(a, n, panelBegin, panelEnd, k1, n);
+
+				continue;
+			}
+
+			DecompositionKernels.runBands(k1, n, parallel, executor, new DecompositionKernels.BandTask() {
+				@Override
+				public void run(int begin, int end) {
+					solvePanel(a, n, panelBegin, panelEnd, begin, end);
+				}
+			});
+
+			DecompositionKernels.runBands(k1, n, parallel, executor, new DecompositionKernels.BandTask() {
+				@Override
+				public void run(int begin, int end) {
+					updateTrailing(a, n, panelBegin, panelEnd, begin, end);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Solves the rows begin to end - 1 of the panel below the diagonal block.
+	 */
+	private static void solvePanel(float[] a, int n, int panelBegin, int panelEnd, int begin, int end) {
+		for (int i = begin; i < end; i++) {
+			final int rowI = i * n;
+
+			for (int j = panelBegin; j < panelEnd; j++) {
+				final int rowJ = j * n;
+
 				float s = 0.0f;
-				for (int i = 0; i < k; i++) {
-					s += L.get(k, i) * L.get(j, i);
+				for (int k = panelBegin; k < j; k++) {
+					s += a[rowI + k] * a[rowJ + k];
 				}
 
-				s = (M.get(j, k) - s) / L.get(k, k);
-				L.set(j, k, s);
-				d = d + s * s;
-				isSPD = isSPD & (M.get(k, j) == M.get(j, k));
+				a[rowI + j] = (a[rowI + j] - s) / a[rowJ + j];
 			}
+		}
+	}
 
-			d = M.get(j, j) - d;
-			isSPD = isSPD & (d > 0.0f);
-			L.set(j, j, FastMath.sqrt(Math.max(d, 0.0f)));
+	/**
+	 * Updates the rows begin to end - 1 of the lower triangle of the trailing submatrix.
+	 */
+	private static void updateTrailing(float[] a, int n, int panelBegin, int panelEnd, int begin, int end) {
+		for (int i = begin; i < end; i++) {
+			final int rowI = i * n;
 
-			for (int k = j + 1; k < n; k++) {
-				L.set(j, k, 0f);
+			for (int c = panelEnd; c <= i; c++) {
+				final int rowC = c * n;
+
+				float s = 0.0f;
+				for (int k = panelBegin; k < panelEnd; k++) {
+					s += a[rowI + k] * a[rowC + k];
+				}
+
+				a[rowI + c] -= s;
 			}
 		}
 	}
@@ -162,14 +361,21 @@ public class CholeskyDecomposition {
 
 	/**
 	 * Return triangular factor.
+	 * The returned matrix is owned by this decomposition and overwritten by the next {@link #decompose(MatrixMxNf)} call.
 	 * @return L
 	 */
 	public MatrixMxNf getL() {
+		if (L == null) {
+			L = new MatrixMxNf(n, n);
+			L.setRowMajor(a, 0);
+		}
+
 		return (L);
 	}
 
 	/**
-	 * Solves A * X = B.
+	 * Solves A * X = B without allocating any memory (once the internal scratch space
+	 * is big enough for B). B and result may be the same instance.
 	 * 
 	 * @param B A Matrix with as many rows as A and any number of columns.
 	 * @param result so that L*L'*X = B
@@ -191,29 +397,42 @@ public class CholeskyDecomposition {
 			throw new IllegalArgumentException("Result Matrix does not match required dimensions (" + n + " x " + nx + ").");
 		}
 
+		if ((work == null) || (work.length < n * nx)) {
+			this.work = new float[n * nx];
+		}
+
 		// Copy right hand side.
-		result.set(B);
+		final float[] X = work;
+		B.getRowMajor(X, 0);
 
 		// Solve L * Y = B;
 		for (int k = 0; k < n; k++) {
+			final int rowK = k * n;
+
 			for (int j = 0; j < nx; j++) {
+				float s = X[k * nx + j];
 				for (int i = 0; i < k; i++) {
-					result.sub(k, j, result.get(i, j) * L.get(k, i));
+					s -= X[i * nx + j] * a[rowK + i];
 				}
 
-				result.div(k, j, L.get(k, k));
+				X[k * nx + j] = s / a[rowK + k];
 			}
 		}
 
 		// Solve L' * X = Y;
 		for (int k = n - 1; k >= 0; k--) {
+			final float d = a[k * n + k];
+
 			for (int j = 0; j < nx; j++) {
+				float s = X[k * nx + j];
 				for (int i = k + 1; i < n; i++) {
-					result.sub(k, j, result.get(i, j) * L.get(i, k));
+					s -= X[i * nx + j] * a[i * n + k];
 				}
 
-				result.div(k, j, L.get(k, k));
+				X[k * nx + j] = s / d;
 			}
 		}
+
+		result.setRowMajor(X, 0);
 	}
 }
@@ -0,0 +1,438 @@
+/**
+ * Copyright (c) 2007-2009, OpenMaLi Project Group all rights reserved.
+ * 
+ * Portions based on the Sun's javax.vecmath interface, Copyright by Sun
+ * Microsystems or Kenji Hiranabe's alternative GC-cheap implementation.
+ * Many thanks to the developers.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the 'OpenMaLi Project Group' nor the names of its
+ * contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) A
+ * RISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE
+ */
+package org.openmali.decomposition;
+
+import java.util.concurrent.ExecutorService;
+
+import org.openmali.FastMathd;
+import org.openmali.vecmath2.MatrixMxNd;
+
+/**
+ * Cholesky Decomposition.
+ * <p>
+ * For a symmetric, positive definite matrix A, the Cholesky decomposition
+ * is an lower triangular matrix L so that A = L * L'.
+ * </p>
+ * <p>
+ * If the matrix is not symmetric or positive definite, the constructor
+ * returns a partial decomposition and sets an internal flag that may
+ * be queried by the isSPD() method.
+ * </p>
+ * 
+ * <p>
+ * An instance can be reused for any number of matrices by calling
+ * {@link #decompose(MatrixMxNd)}. The internal storage is only reallocated,
+ * if a matrix is bigger than any matrix decomposed before. So repeated
+ * decompose() and {@link #solve(MatrixMxNd, MatrixMxNd)} calls don't
+ * create any garbage.
+ * </p>
+ * 
+ * @author <a href="http://math.nist.gov/javanumerics/jama/">JAMA</a>
+ */
+public class CholeskyDecompositiond {
+	/**
+	 * Array for internal storage of decomposition (row major).
+	 * @serial internal array storage.
+	 */
+	private double[] a;
+
+	/**
+	 * The triangular factor as returned by {@link #getL()} (lazily filled).
+	 */
+	private MatrixMxNd L = null;
+
+	/**
+	 * Row and column dimension (square matrix).
+	 * @serial matrix dimension.
+	 */
+	private int n;
+
+	/**
+	 * Symmetric and positive definite flag.
+	 * @serial is symmetric and positive definite flag.
+	 */
+	private boolean isSPD;
+
+	/**
+	 * Scratch space for the right hand side in solve().
+	 */
+	private double[] work = null;
+
+	/**
+	 * Creates an empty Cholesky Decomposition for matrices of up to n x n elements.
+	 * Use {@link #decompose(MatrixMxNd)} to decompose a matrix.
+	 * @param n the (initial) matrix dimension
+	 */
+	public CholeskyDecompositiond(int n) {
+		if (n < 0) {
+			throw new IllegalArgumentException("Matrix dimension must not be negative.");
+		}
+
+		this.n = n;
+		this.a = new double[n * n];
+		this.isSPD = false;
+	}
+
+	/**
+	 * Cholesky algorithm for symmetric and positive definite matrix.
+	 * @param M Square, symmetric matrix.
+	 * return Structure to access L and isspd flag.
+	 */
+	public CholeskyDecompositiond(MatrixMxNd M) {
+		this(M, null, DecompositionKernels.DEFAULT_PARALLEL_THRESHOLD);
+	}
+
+	/**
+	 * Cholesky algorithm for symmetric and positive definite matrix.
+	 * The trailing updates are split into parallel bands of rows,
+	 * while the remaining submatrix is at least 128 x 128.
+	 * @param M Square, symmetric matrix.
+	 * @param executor the executor to run the bands in (may be <code>null</code>)
+	 */
+	public CholeskyDecompositiond(MatrixMxNd M, ExecutorService executor) {
+		this(M, executor, DecompositionKernels.DEFAULT_PARALLEL_THRESHOLD);
+	}
+
+	/**
+	 * Cholesky algorithm for symmetric and positive definite matrix.
+	 * The trailing updates are split into parallel bands of rows,
+	 * while the remaining submatrix is at least parallelThreshold x parallelThreshold.
+	 * @param M Square, symmetric matrix.
+	 * @param executor the executor to run the bands in (may be <code>null</code>)
+	 * @param parallelThreshold the minimum dimension for parallel updates
+	 */
+	public CholeskyDecompositiond(MatrixMxNd M, ExecutorService executor, int parallelThreshold) {
+		this(M.getNumRows());
+
+		decompose(M, executor, parallelThreshold);
+	}
+
+	/**
+	 * Decomposes the given matrix, replacing the previous decomposition.
+	 * The internal storage is reused.
+	 * @param M Square, symmetric matrix.
+	 */
+	public final void decompose(MatrixMxNd M) {
+		decompose(M, null, DecompositionKernels.DEFAULT_PARALLEL_THRESHOLD);
+	}
+
+	/**
+	 * Decomposes the given matrix, replacing the previous decomposition.
+	 * The internal storage is reused.
+	 * @param M Square, symmetric matrix.
+	 * @param executor the executor to run the bands in (may be <code>null</code>)
+	 * @param parallelThreshold the minimum dimension for parallel updates
+	 */
+	public final void decompose(MatrixMxNd M, ExecutorService executor, int parallelThreshold) {
+		// Initialize.
+		this.n = M.getNumRows();
+		this.isSPD = (M.getNumCols() == n);
+
+		if (a.length < n * n) {
+			this.a = new double[n * n];
+		}
+
+		final double[] a = this.a;
+		if (M.getNumCols() == n) {
+			M.getRowMajor(a, 0);
+		} else {
+			for (int j = 0; j < n; j++) {
+				for (int k = 0; k <= j; k++) {
+					a[j * n + k] = M.get(j, k);
+				}
+			}
+		}
+
+		for (int j = 0; (j < n) && isSPD; j++) {
+			for (int k = 0; k < j; k++) {
+				isSPD = isSPD & (a[k * n + j] == a[j * n + k]);
+			}
+		}
+
+		factor(a, executor, parallelThreshold);
+
+		// Clear the upper triangle.
+		for (int j = 0; j < n; j++) {
+			for (int k = j + 1; k < n; k++) {
+				a[j * n + k] = 0d;
+			}
+		}
+
+		if (L != null) {
+			if (L.getNumRows() == n)
+				L.setRowMajor(a, 0);
+			else
+				L = null;
+		}
+	}
+
+	/**
+	 * Blocked, right-looking Cholesky factorization on the lower triangle of the
+	 * row major array. Each diagonal block of {@link DecompositionKernels#BLOCK_SIZE}
+	 * columns is factored, then the panel below it is solved and the lower triangle
+	 * of the trailing submatrix is updated row by row.
+	 */
+	private void factor(final double[] a, ExecutorService executor, int parallelThreshold) {
+		final int n = this.n;
+
+		for (int k0 = 0; k0 < n; k0 += DecompositionKernels.BLOCK_SIZE) {
+			final int k1 = Math.min(k0 + DecompositionKernels.BLOCK_SIZE, n);
+
+			// Factor the diagonal block.
+			for (int j = k0; j < k1; j++) {
+				final int rowJ = j * n;
+
+				for (int k = k0; k < j; k++) {
+					final int rowK = k * n;
+
+					double s = 0.0d;
+					for (int i = k0; i < k; i++) {
+						s += a[rowK + i] * a[rowJ + i];
+					}
+
+					a[rowJ + k] = (a[rowJ + k] - s) / a[rowK + k];
+				}
+
+				double d = 0.0d;
+				for (int i = k0; i < j; i++) {
+					d += a[rowJ + i] * a[rowJ + i];
+				}
+
+				d = a[rowJ + j] - d;
+				isSPD = isSPD & (d > 0.0d);
+				a[rowJ + j] = FastMathd.sqrt(Math.max(d, 0.0d));
+			}
+
+			if (k1 >= n)
+				continue;
+
+			final int panelBegin = k0;
+			final int panelEnd = k1;
+			final boolean parallel = DecompositionKernels.isParallel(executor, parallelThreshold, n - k1, n - k1);
+
+			if (!parallel) {
+				solvePanel(a, n, panelBegin, panelEnd, k1, n);
+				updateTrailing(a, n, panelBegin, panelEnd, k1, n);
+
+				continue;
+			}
+
+			DecompositionKernels.runBands(k1, n, parallel, executor, new DecompositionKernels.BandTask() {
+				@Override
+				public void run(int begin, int end) {
+					solvePanel(a, n, panelBegin, panelEnd, begin, end);
+				}
+			});
+
+			DecompositionKernels.runBands(k1, n, parallel, executor, new DecompositionKernels.BandTask() {
+				@Override
+				public void run(int begin, int end) {
+					updateTrailing(a, n, panelBegin, panelEnd, begin, end);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Solves the rows begin to end - 1 of the panel below the diagonal block.
+	 */
+	private static void solvePanel(double[] a, int n, int panelBegin, int panelEnd, int begin, int end) {
+		for (int i = begin; i < end; i++) {
+			final int rowI = i * n;
+
+			for (int j = panelBegin; j < panelEnd; j++) {
+				final int rowJ = j * n;
+
+				double s = 0.0d;
+				for (int k = panelBegin; k < j; k++) {
+					s += a[rowI + k] * a[rowJ + k];
+				}
+
+				a[rowI + j] = (a[rowI + j] - s) / a[rowJ + j];
+			}
+		}
+	}
+
+	/**
+	 * Updates the rows begin to end - 1 of the lower triangle of the trailing submatrix.
+	 */
+	private static void updateTrailing(double[] a, int n, int panelBegin, int panelEnd, int begin, int end) {
+		for (int i = begin; i < end; i++) {
+			final int rowI = i * n;
+
+			for (int c = panelEnd; c <= i; c++) {
+				final int rowC = c * n;
+
+				double s = 0.0d;
+				for (int k = panelBegin; k < panelEnd; k++) {
+					s += a[rowI + k] * a[rowC + k];
+				}
+
+				a[rowI + c] -= s;
+			}
+		}
+	}
+
+	/*
+	 * ------------------------ Temporary, experimental code.
+	 * ------------------------ *\
+	 * 
+	 * \** Right Triangular Cholesky Decomposition. <P> For a symmetric,
+	 * positive definite matrix A, the Right Cholesky decomposition is an upper
+	 * triangular matrix R so that A = R'*R. This constructor computes R with
+	 * the Fortran inspired column oriented algorithm used in LINPACK and
+	 * MATLAB. In Java, we suspect a row oriented, lower triangular
+	 * decomposition is faster. We have temporarily included this constructor
+	 * here until timing experiments confirm this suspicion.\
+	 * 
+	 * \** Array for internal storage of right triangular decomposition. **\
+	 * private transient double[][] R;
+	 * 
+	 * \** Cholesky algorithm for symmetric and positive definite matrix.
+	 * 
+	 * @param A Square, symmetric matrix.
+	 * 
+	 * @param rightflag Actual value ignored.
+	 * 
+	 * @return Structure to access R and isspd flag.\
+	 * 
+	 * public CholeskyDecompositiond (Matrix Arg, int rightflag) { // Initialize.
+	 * double[][] A = Arg.getArray(); n = Arg.getColumnDimension(); R = new
+	 * double[n][n]; isspd = (Arg.getColumnDimension() == n); // Main loop. for
+	 * (int j = 0; j < n; j++) { double d = 0.0; for (int k = 0; k < j; k++) {
+	 * double s = A[k][j]; for (int i = 0; i < k; i++) { s = s -
+	 * R[i][k]*R[i][j]; } R[k][j] = s = s/R[k][k]; d = d + s*s; isspd = isspd &
+	 * (A[k][j] == A[j][k]); } d = A[j][j] - d; isspd = isspd & (d > 0.0);
+	 * R[j][j] = Math.sqrt(Math.max(d,0.0)); for (int k = j+1; k < n; k++) {
+	 * R[k][j] = 0.0; } } }
+	 * 
+	 * \** Return upper triangular factor.
+	 * 
+	 * @return R\
+	 * 
+	 * public Matrix getR () { return new Matrix(R,n,n); }
+	 * 
+	 * \* ------------------------ End of temporary code.
+	 * ------------------------
+	 */
+
+	/*
+	 * ------------------------ Public Methods ------------------------
+	 */
+
+	/**
+	 * Is the matrix symmetric and positive definite?
+	 * @return true if A is symmetric and positive definite.
+	 */
+	public final boolean isSPD() {
+		return (isSPD);
+	}
+
+	/**
+	 * Return triangular factor.
+	 * The returned matrix is owned by this decomposition and overwritten by the next {@link #decompose(MatrixMxNd)} call.
+	 * @return L
+	 */
+	public MatrixMxNd getL() {
+		if (L == null) {
+			L = new MatrixMxNd(n, n);
+			L.setRowMajor(a, 0);
+		}
+
+		return (L);
+	}
+
+	/**
+	 * Solves A * X = B without allocating any memory (once the internal scratch space
+	 * is big enough for B). B and result may be the same instance.
+	 * 
+	 * @param B A Matrix with as many rows as A and any number of columns.
+	 * @param result so that L*L'*X = B
+	 * 
+	 * @exception IllegalArgumentException Matrix row dimensions must agree.
+	 * @exception RuntimeException Matrix is not symmetric positive definite.
+	 */
+	public final void solve(MatrixMxNd B, MatrixMxNd result) {
+		if (B.getNumRows() != n) {
+			throw new IllegalArgumentException("Matrix row dimensions must agree.");
+		}
+		if (!isSPD) {
+			throw new RuntimeException("Matrix is not symmetric positive definite.");
+		}
+
+		final int nx = B.getNumCols();
+
+		if ((result.getNumRows() != n) || (result.getNumCols() != nx)) {
+			throw new IllegalArgumentException("Result Matrix does not match required dimensions (" + n + " x " + nx + ").");
+		}
+
+		if ((work == null) || (work.length < n * nx)) {
+			this.work = new double[n * nx];
+		}
+
+		// Copy right hand side.
+		final double[] X = work;
+		B.getRowMajor(X, 0);
+
+		// Solve L * Y = B;
+		for (int k = 0; k < n; k++) {
+			final int rowK = k * n;
+
+			for (int j = 0; j < nx; j++) {
+				double s = X[k * nx + j];
+				for (int i = 0; i < k; i++) {
+					s -= X[i * nx + j] * a[rowK + i];
+				}
+
+				X[k * nx + j] = s / a[rowK + k];
+			}
+		}
+
+		// Solve L' * X = Y;
+		for (int k = n - 1; k >= 0; k--) {
+			final double d = a[k * n + k];
+
+			for (int j = 0; j < nx; j++) {
+				double s = X[k * nx + j];
+				for (int i = k + 1; i < n; i++) {
+					s -= X[i * nx + j] * a[i * n + k];
+				}
+
+				X[k * nx + j] = s / d;
+			}
+		}
+
+		result.setRowMajor(X, 0);
+	}
+}
@@ -0,0 +1,286 @@
+/**
+ * Copyright (c) 2007-2009, OpenMaLi Project Group all rights reserved.
+ * 
+ * Portions based on the Sun's javax.vecmath interface, Copyright by Sun
+ * Microsystems or Kenji Hiranabe's alternative GC-cheap implementation.
+ * Many thanks to the developers.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the 'OpenMaLi Project Group' nor the names of its
+ * contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) A
+ * RISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE
+ */
+package org.openmali.decomposition;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Row major kernels shared by the decompositions.
+ * The decompositions copy their input into a plain float array once and work
+ * on it in place, so no accessor or row/column copy is needed in the inner loops.
+ */
+final class DecompositionKernels {
+	/**
+	 * The default matrix dimension, from which on the updates are split into
+	 * parallel bands, if an executor is given.
+	 */
+	static final int DEFAULT_PARALLEL_THRESHOLD = 128;
+
+	/**
+	 * The width of the panels of the blocked factorizations.
+	 */
+	static final int BLOCK_SIZE = 32;
+
+	/**
+	 * A piece of work over a range of rows or columns.
+	 */
+	static abstract class BandTask {
+		public abstract void run(int begin, int end);
+	}
+
+	private static final void waitFor(Future<?>[] futures) {
+		// All tasks must have finished, before the data is used.
+		RuntimeException failure = null;
+		Error error = null;
+		for (int i = 0; i < futures.length; i++) {
+			if (futures[i] == null)
+				continue;
+
+			try {
+				futures[i].get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+
+				if (failure == null)
+					failure = new RuntimeException(e);
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof Error) {
+					if (error == null)
+						error = (Error) e.getCause();
+				} else if (failure == null) {
+					if (e.getCause() instanceof RuntimeException)
+						failure = (RuntimeException) e.getCause();
+					else
+						failure = new RuntimeException(e.getCause());
+				}
+			}
+		}
+
+		if (error != null)
+			throw error;
+		if (failure != null)
+			throw failure;
+	}
+
+	/**
+	 * @param executor
+	 * @param parallelThreshold
+	 * @param rows the number of rows touched by an update
+	 * @param cols the number of columns touched by an update
+	 * 
+	 * @return <code>true</code>, if an update of this size is worth being split into parallel bands
+	 */
+	static final boolean isParallel(ExecutorService executor, int parallelThreshold, int rows, int cols) {
+		return ((executor != null) && ((long) rows * cols >= (long) parallelThreshold * parallelThreshold));
+	}
+
+	/**
+	 * Runs the task over [begin, end). If parallel is <code>true</code>, the range is split
+	 * into bands, which are run by the executor's threads (the first one by the calling thread).
+	 * This method returns, when all bands are done. It must not be called from one of the
+	 * executor's threads.
+	 * 
+	 * @param begin
+	 * @param end
+	 * @param parallel
+	 * @param executor
+	 * @param task
+	 */
+	static final void runBands(int begin, int end, boolean parallel, ExecutorService executor, final BandTask task) {
+		final int count = end - begin;
+
+		if (!parallel || (executor == null) || (count < 2)) {
+			task.run(begin, end);
+
+			return;
+		}
+
+		final int numBands = Math.min(count, 4 * Runtime.getRuntime().availableProcessors());
+		final Future<?>[] futures = new Future<?>[numBands];
+
+		for (int b = 1; b < numBands; b++) {
+			final int bandBegin = begin + (int) ((long) count * b / numBands);
+			final int bandEnd = begin + (int) ((long) count * (b + 1) / numBands);
+
+			futures[b] = executor.submit(new Runnable() {
+				public void run() {
+					task.run(bandBegin, bandEnd);
+				}
+			});
+		}
+
+		try {
+			task.run(begin, begin + count / numBands);
+		} finally {
+			waitFor(futures);
+		}
+	}
+
+	/**
+	 * Applies the Householder reflection stored in column vCol of v (rows rowBegin to rowEnd - 1)
+	 * to the columns colBegin to colEnd - 1 of a:<br>
+	 * t = -(v' * a[:, j]) / divisor; a[:, j] += t * v<br>
+	 * Both matrices are walked row by row. The column range is split into parallel bands,
+	 * if parallel is <code>true</code>.
+	 * 
+	 * @param v the matrix holding the Householder vector
+	 * @param vStride the row stride of v
+	 * @param vCol the column of the Householder vector
+	 * @param a the matrix to transform (may be v)
+	 * @param aStride the row stride of a
+	 * @param rowBegin
+	 * @param rowEnd
+	 * @param colBegin
+	 * @param colEnd
+	 * @param divisor
+	 * @param sums scratch space of at least colEnd elements
+	 * @param parallel
+	 * @param executor
+	 */
+	static final void applyReflector(final float[] v, final int vStride, final int vCol, final float[] a, final int aStride, final int rowBegin, final int rowEnd, int colBegin, int colEnd,
+			final float divisor, final float[] sums, boolean parallel, ExecutorService executor) {
+		if (!parallel || (executor == null)) {
+			applyReflector(v, vStride, vCol, a, aStride, rowBegin, rowEnd, colBegin, colEnd, divisor, sums);
+
+			return;
+		}
+
+		runBands(colBegin, colEnd, parallel, executor, new BandTask() {
+			@Override
+			public void run(int begin, int end) {
+				applyReflector(v, vStride, vCol, a, aStride, rowBegin, rowEnd, begin, end, divisor, sums);
+			}
+		});
+	}
+
+	/**
+	 * Applies the Householder reflection to the columns colBegin to colEnd - 1 in the calling thread.
+	 * 
+	 * @see #applyReflector(float[], int, int, float[], int, int, int, int, int, float, float[], boolean, ExecutorService)
+	 */
+	private static void applyReflector(float[] v, int vStride, int vCol, float[] a, int aStride, int rowBegin, int rowEnd, int colBegin, int colEnd, float divisor, float[] sums) {
+		for (int j = colBegin; j < colEnd; j++)
+			sums[j] = 0f;
+
+		for (int i = rowBegin; i < rowEnd; i++) {
+			final float vi = v[i * vStride + vCol];
+			final int row = i * aStride;
+
+			for (int j = colBegin; j < colEnd; j++)
+				sums[j] += vi * a[row + j];
+		}
+
+		for (int j = colBegin; j < colEnd; j++)
+			sums[j] = -sums[j] / divisor;
+
+		for (int i = rowBegin; i < rowEnd; i++) {
+			final float vi = v[i * vStride + vCol];
+			final int row = i * aStride;
+
+			for (int j = colBegin; j < colEnd; j++)
+				a[row + j] += sums[j] * vi;
+		}
+	}
+
+	/**
+	 * Applies the Householder reflection stored in column vCol of v (rows rowBegin to rowEnd - 1)
+	 * to the columns colBegin to colEnd - 1 of a:<br>
+	 * t = -(v' * a[:, j]) / divisor; a[:, j] += t * v<br>
+	 * Both matrices are walked row by row. The column range is split into parallel bands,
+	 * if parallel is <code>true</code>.
+	 * 
+	 * @param v the matrix holding the Householder vector
+	 * @param vStride the row stride of v
+	 * @param vCol the column of the Householder vector
+	 * @param a the matrix to transform (may be v)
+	 * @param aStride the row stride of a
+	 * @param rowBegin
+	 * @param rowEnd
+	 * @param colBegin
+	 * @param colEnd
+	 * @param divisor
+	 * @param sums scratch space of at least colEnd elements
+	 * @param parallel
+	 * @param executor
+	 */
+	static final void applyReflector(final double[] v, final int vStride, final int vCol, final double[] a, final int aStride, final int rowBegin, final int rowEnd, int colBegin, int colEnd,
+			final double divisor, final double[] sums, boolean parallel, ExecutorService executor) {
+		if (!parallel || (executor == null)) {
+			applyReflector(v, vStride, vCol, a, aStride, rowBegin, rowEnd, colBegin, colEnd, divisor, sums);
+
+			return;
+		}
+
+		runBands(colBegin, colEnd, parallel, executor, new BandTask() {
+			@Override
+			public void run(int begin, int end) {
+				applyReflector(v, vStride, vCol, a, aStride, rowBegin, rowEnd, begin, end, divisor, sums);
+			}
+		});
+	}
+
+	/**
+	 * Applies the Householder reflection to the columns colBegin to colEnd - 1 in the calling thread.
+	 * 
+	 * @see #applyReflector(double[], int, int, double[], int, int, int, int, int, double, double[], boolean, ExecutorService)
+	 */
+	private static void applyReflector(double[] v, int vStride, int vCol, double[] a, int aStride, int rowBegin, int rowEnd, int colBegin, int colEnd, double divisor, double[] sums) {
+		for (int j = colBegin; j < colEnd; j++)
+			sums[j] = 0d;
+
+		for (int i = rowBegin; i < rowEnd; i++) {
+			final double vi = v[i * vStride + vCol];
+			final int row = i * aStride;
+
+			for (int j = colBegin; j < colEnd; j++)
+				sums[j] += vi * a[row + j];
+		}
+
+		for (int j = colBegin; j < colEnd; j++)
+			sums[j] = -sums[j] / divisor;
+
+		for (int i = rowBegin; i < rowEnd; i++) {
+			final double vi = v[i * vStride + vCol];
+			final int row = i * aStride;
+
+			for (int j = colBegin; j < colEnd; j++)
+				a[row + j] += sums[j] * vi;
+		}
+	}
+
+	private DecompositionKernels() {
+	}
+}
@@ -33,6 +33,8 @@
  */
 package org.openmali.decomposition;
 
+import java.util.concurrent.ExecutorService;
+
 import org.openmali.FastMath;
 import org.openmali.vecmath2.MatrixMxNf;
 
@@ -79,38 +81,31 @@ public class EigenvalueDecomposition {
 	private final float[] d, e;
 
 	/**
-	 * Array for internal storage of eigenvectors.
+	 * Array for internal storage of eigenvectors (row major).
 	 * 
 	 * @serial internal storage of eigenvectors.
 	 */
-	private final MatrixMxNf V;
-
-	/**
-	 * Array for internal storage of nonsymmetric Hessenberg form.
-	 * 
-	 * @serial internal storage of nonsymmetric Hessenberg form.
-	 */
-	private final MatrixMxNf H;
-
-	/**
-	 * Working storage for nonsymmetric algorithm.
-	 * 
-	 * @serial working storage for nonsymmetric algorithm.
-	 */
-	private final float[] ort;
+	private final float[] v;
 
 	/**
 	 * Symmetric Householder reduction to tridiagonal form.
 	 */
-	private void tred2() {
+	private void tred2(ExecutorService executor, int parallelThreshold) {
 		/*
 		 * This is derived from the Algol procedures tred2 by Bowdler, Martin,
 		 * Reinsch, and Wilkinson, Handbook for Auto. Comp., Vol.ii-Linear
 		 * Algebra, and the corresponding Fortran subroutine in EISPACK.
+		 * 
+		 * Only the lower triangle of v is used, and it is walked row by row.
 		 */
 
+		final float[] v = this.v;
+		final float[] d = this.d;
+		final float[] e = this.e;
+		final float[] sums = new float[n];
+
 		for (int j = 0; j < n; j++) {
-			d[j] = V.get(n - 1, j);
+			d[j] = v[(n - 1) * n + j];
 		}
 
 		// Householder reduction to tridiagonal form.
@@ -126,9 +121,9 @@ public class EigenvalueDecomposition {
 			if (scale == 0.0f) {
 				e[i] = d[i - 1];
 				for (int j = 0; j < i; j++) {
-					d[j] = V.get(i - 1, j);
-					V.set(i, j, 0.0f);
-					V.set(j, i, 0.0f);
+					d[j] = v[(i - 1) * n + j];
+					v[i * n + j] = 0.0f;
+					v[j * n + i] = 0.0f;
 				}
 			} else {
 				// Generate Householder vector.
@@ -145,21 +140,24 @@ public class EigenvalueDecomposition {
 				e[i] = scale * g;
 				h = h - f * g;
 				d[i - 1] = f - g;
-				for (int j = 0; j < i; j++) {
-					e[j] = 0.0f;
-				}
 
 				// Apply similarity transformation to remaining columns.
+				// e = A * d with A being the symmetric matrix in the lower triangle of v.
 
 				for (int j = 0; j < i; j++) {
-					f = d[j];
-					V.set(j, i, f);
-					g = e[j] + V.get(j, j) * f;
-					for (int k = j + 1; k <= i - 1; k++) {
-						g += V.get(k, j) * d[k];
-						e[k] += V.get(k, j) * f;
+					v[j * n + i] = d[j];
+					e[j] = v[j * n + j] * d[j];
+				}
+
+				for (int k = 1; k < i; k++) {
+					final int row = k * n;
+					final float dk = d[k];
+					float ek = e[k];
+					for (int j = 0; j < k; j++) {
+						e[j] += v[row + j] * dk;
+						ek += v[row + j] * d[j];
 					}
-					e[j] = g;
+					e[k] = ek;
 				}
 
 				f = 0.0f;
@@ -168,22 +166,33 @@ public class EigenvalueDecomposition {
 					f += e[j] * d[j];
 				}
 
-				float hh = f / (h + h);
+				final float hh = f / (h + h);
 
 				for (int j = 0; j < i; j++) {
 					e[j] -= hh * d[j];
 				}
 
-				for (int j = 0; j < i; j++) {
-					f = d[j];
-					g = e[j];
+				// A -= d * e' + e * d' (lower triangle)
 
-					for (int k = j; k <= i - 1; k++) {
-						V.sub(k, j, f * e[k] + g * d[k]);
+				final boolean parallel = DecompositionKernels.isParallel(executor, parallelThreshold, i, i);
+				DecompositionKernels.runBands(0, i, parallel, executor, new DecompositionKernels.BandTask() {
+					@Override
+					public void run(int begin, int end) {
+						for (int k = begin; k < end; k++) {
+							final int row = k * n;
+							final float dk = d[k];
+							final float ek = e[k];
+
+							for (int j = 0; j <= k; j++) {
+								v[row + j] -= d[j] * ek + e[j] * dk;
+							}
+						}
 					}
+				});
 
-					d[j] = V.get(i - 1, j);
-					V.set(i, j, 0.0f);
+				for (int j = 0; j < i; j++) {
+					d[j] = v[(i - 1) * n + j];
+					v[i * n + j] = 0.0f;
 				}
 			}
 
@@ -193,45 +202,35 @@ public class EigenvalueDecomposition {
 		// Accumulate transformations.
 
 		for (int i = 0; i < n - 1; i++) {
-			V.set(n - 1, i, V.get(i, i));
-			V.set(i, i, 1.0f);
-			float h = d[i + 1];
+			v[(n - 1) * n + i] = v[i * n + i];
+			v[i * n + i] = 1.0f;
+			final float h = d[i + 1];
 
 			if (h != 0.0f) {
-				for (int k = 0; k <= i; k++) {
-					d[k] = V.get(k, i + 1) / h;
-				}
-
-				for (int j = 0; j <= i; j++) {
-					float g = 0.0f;
-					for (int k = 0; k <= i; k++) {
-						g += V.get(k, i + 1) * V.get(k, j);
-					}
-
-					for (int k = 0; k <= i; k++) {
-						V.sub(k, j, g * d[k]);
-					}
-				}
+				// The Householder vector is column i + 1, rows 0 to i.
+				final boolean parallel = DecompositionKernels.isParallel(executor, parallelThreshold, i + 1, i + 1);
+				DecompositionKernels.applyReflector(v, n, i + 1, v, n, 0, i + 1, 0, i + 1, h, sums, parallel, executor);
 			}
 
 			for (int k = 0; k <= i; k++) {
-				V.set(k, i + 1, 0.0f);
+				v[k * n + i + 1] = 0.0f;
 			}
 		}
 
 		for (int j = 0; j < n; j++) {
-			d[j] = V.get(n - 1, j);
-			V.set(n - 1, j, 0.0f);
+			d[j] = v[(n - 1) * n + j];
+			v[(n - 1) * n + j] = 0.0f;
 		}
 
-		V.set(n - 1, n - 1, 1.0f);
+		v[(n - 1) * n + n - 1] = 1.0f;
 		e[0] = 0.0f;
 	}
 
 	/**
 	 * Symmetric tridiagonal QL algorithm.
+	 * The eigenvectors are passed transposed, so that every rotation walks two contiguous rows.
 	 */
-	private void tql2() {
+	private void tql2(float[] vt) {
 		/*
 		 * This is derived from the Algol procedures tql2, by Bowdler, Martin,
 		 * Reinsch, and Wilkinson, Handbook for Auto. Comp., Vol.ii-Linear
@@ -310,10 +309,12 @@ public class EigenvalueDecomposition {
 
 						// Accumulate transformation.
 
+						final int row0 = i * n;
+						final int row1 = row0 + n;
 						for (int k = 0; k < n; k++) {
-							h = V.get(k, i + 1);
-							V.set(k, i + 1, s * V.get(k, i) + c * h);
-							V.set(k, i, c * V.get(k, i) - s * h);
+							h = vt[row1 + k];
+							vt[row1 + k] = s * vt[row0 + k] + c * h;
+							vt[row0 + k] = c * vt[row0 + k] - s * h;
 						}
 					}
 					p = -s * s2 * c3 * el1 * e[l] / dl1;
@@ -343,9 +344,9 @@ public class EigenvalueDecomposition {
 				d[k] = d[i];
 				d[i] = p;
 				for (int j = 0; j < n; j++) {
-					p = V.get(j, i);
-					V.set(j, i, V.get(j, k));
-					V.set(j, k, p);
+					p = vt[i * n + j];
+					vt[i * n + j] = vt[k * n + j];
+					vt[k * n + j] = p;
 				}
 			}
 		}
@@ -354,70 +355,73 @@ public class EigenvalueDecomposition {
 	/**
 	 * Nonsymmetric reduction to Hessenberg form.
 	 */
-	private void orthes() {
+	private void orthes(final float[] h, final float[] ort, ExecutorService executor, int parallelThreshold) {
 		/*
 		 * This is derived from the Algol procedures orthes and ortran, by
 		 * Martin and Wilkinson, Handbook for Auto. Comp., Vol.ii-Linear
 		 * Algebra, and the corresponding Fortran subroutines in EISPACK.
 		 */
 
+		final float[] v = this.v;
 		final int low = 0;
 		final int high = n - 1;
+		final float[] sums = new float[n];
 
 		for (int m = low + 1; m <= high - 1; m++) {
 			// Scale column.
 
 			float scale = 0.0f;
 			for (int i = m; i <= high; i++) {
-				scale = scale + Math.abs(H.get(i, m - 1));
+				scale = scale + Math.abs(h[i * n + m - 1]);
 			}
 
 			if (scale != 0.0f) {
 				// Compute Householder transformation.
 
-				float h = 0.0f;
+				float hs = 0.0f;
 				for (int i = high; i >= m; i--) {
-					ort[i] = H.get(i, m - 1) / scale;
-					h += ort[i] * ort[i];
+					ort[i] = h[i * n + m - 1] / scale;
+					hs += ort[i] * ort[i];
 				}
 
-				float g = FastMath.sqrt(h);
+				float g = FastMath.sqrt(hs);
 				if (ort[m] > 0f) {
 					g = -g;
 				}
 
-				h = h - ort[m] * g;
+				hs = hs - ort[m] * g;
 				ort[m] = ort[m] - g;
 
 				// Apply Householder similarity transformation
 				// H = (I-u*u'/h)*H*(I-u*u')/h)
 
-				for (int j = m; j < n; j++) {
-					float f = 0.0f;
-					for (int i = high; i >= m; i--) {
-						f += ort[i] * H.get(i, j);
-					}
-					f = f / h;
-					for (int i = m; i <= high; i++) {
-						H.sub(i, j, f * ort[i]);
-					}
-				}
+				final boolean parallel = DecompositionKernels.isParallel(executor, parallelThreshold, high - m + 1, n - m);
+				DecompositionKernels.applyReflector(ort, 1, 0, h, n, m, high + 1, m, n, hs, sums, parallel, executor);
 
-				for (int i = 0; i <= high; i++) {
-					float f = 0.0f;
-					for (int j = high; j >= m; j--) {
-						f += ort[j] * H.get(i, j);
-					}
+				final int mm = m;
+				final float divisor = hs;
+				DecompositionKernels.runBands(0, high + 1, parallel, executor, new DecompositionKernels.BandTask() {
+					@Override
+					public void run(int begin, int end) {
+						for (int i = begin; i < end; i++) {
+							final int row = i * n;
+
+							float f = 0.0f;
+							for (int j = high; j >= mm; j--) {
+								f += ort[j] * h[row + j];
+							}
 
-					f = f / h;
+							f = f / divisor;
 
-					for (int j = m; j <= high; j++) {
-						H.sub(i, j, f * ort[j]);
+							for (int j = mm; j <= high; j++) {
+								h[row + j] -= f * ort[j];
+							}
+						}
 					}
-				}
+				});
 
 				ort[m] = scale * ort[m];
-				H.set(m, m - 1, scale * g);
+				h[m * n + m - 1] = scale * g;
 			}
 		}
 
@@ -425,28 +429,51 @@ public class EigenvalueDecomposition {
 
 		for (int i = 0; i < n; i++) {
 			for (int j = 0; j < n; j++) {
-				V.set(i, j, (i == j ? 1.0f : 0.0f));
+				v[i * n + j] = (i == j ? 1.0f : 0.0f);
 			}
 		}
 
 		for (int m = high - 1; m >= low + 1; m--) {
-			if (H.get(m, m - 1) != 0.0f) {
+			final float hm = h[m * n + m - 1];
+
+			if (hm != 0.0f) {
 				for (int i = m + 1; i <= high; i++) {
-					ort[i] = H.get(i, m - 1);
+					ort[i] = h[i * n + m - 1];
 				}
-				for (int j = m; j <= high; j++) {
-					float g = 0.0f;
-					for (int i = m; i <= high; i++) {
-						g += ort[i] * V.get(i, j);
-					}
 
-					// Double division avoids possible underflow
-					g = (g / ort[m]) / H.get(m, m - 1);
+				final int mm = m;
+				final boolean parallel = DecompositionKernels.isParallel(executor, parallelThreshold, high - m + 1, high - m + 1);
+				DecompositionKernels.runBands(m, high + 1, parallel, executor, new DecompositionKernels.BandTask() {
+					@Override
+					public void run(int begin, int end) {
+						for (int j = begin; j < end; j++) {
+							sums[j] = 0.0f;
+						}
+
+						for (int i = mm; i <= high; i++) {
+							final float oi = ort[i];
+							final int row = i * n;
+
+							for (int j = begin; j < end; j++) {
+								sums[j] += oi * v[row + j];
+							}
+						}
+
+						// Double division avoids possible underflow
+						for (int j = begin; j < end; j++) {
+							sums[j] = (sums[j] / ort[mm]) / hm;
+						}
+
+						for (int i = mm; i <= high; i++) {
+							final float oi = ort[i];
+							final int row = i * n;
 
-					for (int i = m; i <= high; i++) {
-						V.add(i, j, g * ort[i]);
+							for (int j = begin; j < end; j++) {
+								v[row + j] += sums[j] * oi;
+							}
+						}
 					}
-				}
+				});
 			}
 		}
 	}
@@ -473,7 +500,7 @@ public class EigenvalueDecomposition {
 	/**
 	 * Nonsymmetric reduction from Hessenberg to real Schur form.
 	 */
-	private void hqr2() {
+	private void hqr2(float[] h, ExecutorService executor, int parallelThreshold) {
 		/*
 		 * This is derived from the Algol procedure hqr2, by Martin and
 		 * Wilkinson, Handbook for Auto. Comp., Vol.ii-Linear Algebra, and the
@@ -482,6 +509,7 @@ public class EigenvalueDecomposition {
 
 		// Initialize
 
+		final float[] v = this.v;
 		final int nn = this.n;
 		int n = nn - 1;
 		final int low = 0;
@@ -495,12 +523,12 @@ public class EigenvalueDecomposition {
 		float norm = 0.0f;
 		for (int i = 0; i < nn; i++) {
 			if (i < low | i > high) {
-				d[i] = H.get(i, i);
+				d[i] = h[i * nn + i];
 				e[i] = 0.0f;
 			}
 
 			for (int j = Math.max(i - 1, 0); j < nn; j++) {
-				norm = norm + Math.abs(H.get(i, j));
+				norm = norm + Math.abs(h[i * nn + j]);
 			}
 		}
 
@@ -512,12 +540,12 @@ public class EigenvalueDecomposition {
 
 			int l = n;
 			while (l > low) {
-				s = Math.abs(H.get(l - 1, l - 1)) + Math.abs(H.get(l, l));
+				s = Math.abs(h[(l - 1) * nn + l - 1]) + Math.abs(h[l * nn + l]);
 				if (s == 0.0f) {
 					s = norm;
 				}
 
-				if (Math.abs(H.get(l, l - 1)) < eps * s) {
+				if (Math.abs(h[l * nn + l - 1]) < eps * s) {
 					break;
 				}
 
@@ -527,21 +555,21 @@ public class EigenvalueDecomposition {
 			// Check for convergence One root found
 
 			if (l == n) {
-				H.set(n, n, H.get(n, n) + exshift);
-				d[n] = H.get(n, n);
+				h[n * nn + n] = h[n * nn + n] + exshift;
+				d[n] = h[n * nn + n];
 				e[n] = 0.0f;
 				n--;
 				iter = 0;
 
 				// Two roots found
 			} else if (l == n - 1) {
-				w = H.get(n, n - 1) * H.get(n - 1, n);
-				p = (H.get(n - 1, n - 1) - H.get(n, n)) / 2.0f;
+				w = h[n * nn + n - 1] * h[(n - 1) * nn + n];
+				p = (h[(n - 1) * nn + n - 1] - h[n * nn + n]) / 2.0f;
 				q = p * p + w;
 				z = FastMath.sqrt(Math.abs(q));
-				H.set(n, n, H.get(n, n) + exshift);
-				H.set(n - 1, n - 1, H.get(n - 1, n - 1) + exshift);
-				x = H.get(n, n);
+				h[n * nn + n] = h[n * nn + n] + exshift;
+				h[(n - 1) * nn + n - 1] = h[(n - 1) * nn + n - 1] + exshift;
+				x = h[n * nn + n];
 
 				// Real pair
 
@@ -558,7 +586,7 @@ public class EigenvalueDecomposition {
 					}
 					e[n - 1] = 0.0f;
 					e[n] = 0.0f;
-					x = H.get(n, n - 1);
+					x = h[n * nn + n - 1];
 					s = Math.abs(x) + Math.abs(z);
 					p = x / s;
 					q = z / s;
@@ -569,25 +597,25 @@ public class EigenvalueDecomposition {
 					// Row modification
 
 					for (int j = n - 1; j < nn; j++) {
-						z = H.get(n - 1, j);
-						H.set(n - 1, j, q * z + p * H.get(n, j));
-						H.set(n, j, q * H.get(n, j) - p * z);
+						z = h[(n - 1) * nn + j];
+						h[(n - 1) * nn + j] = q * z + p * h[n * nn + j];
+						h[n * nn + j] = q * h[n * nn + j] - p * z;
 					}
 
 					// Column modification
 
 					for (int i = 0; i <= n; i++) {
-						z = H.get(i, n - 1);
-						H.set(i, n - 1, q * z + p * H.get(i, n));
-						H.set(i, n, q * H.get(i, n) - p * z);
+						z = h[i * nn + n - 1];
+						h[i * nn + n - 1] = q * z + p * h[i * nn + n];
+						h[i * nn + n] = q * h[i * nn + n] - p * z;
 					}
 
 					// Accumulate transformations
 
 					for (int i = low; i <= high; i++) {
-						z = V.get(i, n - 1);
-						V.set(i, n - 1, q * z + p * V.get(i, n));
-						V.set(i, n, q * V.get(i, n) - p * z);
+						z = v[i * nn + n - 1];
+						v[i * nn + n - 1] = q * z + p * v[i * nn + n];
+						v[i * nn + n] = q * v[i * nn + n] - p * z;
 					}
 
 					// Complex pair
@@ -604,12 +632,12 @@ public class EigenvalueDecomposition {
 			} else {
 				// Form shift
 
-				x = H.get(n, n);
+				x = h[n * nn + n];
 				y = 0.0f;
 				w = 0.0f;
 				if (l < n) {
-					y = H.get(n - 1, n - 1);
-					w = H.get(n, n - 1) * H.get(n - 1, n);
+					y = h[(n - 1) * nn + n - 1];
+					w = h[n * nn + n - 1] * h[(n - 1) * nn + n];
 				}
 
 				// Wilkinson's original ad hoc shift
@@ -617,9 +645,9 @@ public class EigenvalueDecomposition {
 				if (iter == 10) {
 					exshift += x;
 					for (int i = low; i <= n; i++) {
-						H.sub(i, i, x);
+						h[i * nn + i] -= x;
 					}
-					s = Math.abs(H.get(n, n - 1)) + Math.abs(H.get(n - 1, n - 2));
+					s = Math.abs(h[n * nn + n - 1]) + Math.abs(h[(n - 1) * nn + n - 2]);
 					x = y = 0.75f * s;
 					w = -0.4375f * s * s;
 				}
@@ -636,7 +664,7 @@ public class EigenvalueDecomposition {
 						}
 						s = x - w / ((y - x) / 2.0f + s);
 						for (int i = low; i <= n; i++) {
-							H.sub(i, i, s);
+							h[i * nn + i] -= s;
 						}
 						exshift += s;
 						x = y = w = 0.964f;
@@ -649,12 +677,12 @@ public class EigenvalueDecomposition {
 
 				int m = n - 2;
 				while (m >= l) {
-					z = H.get(m, m);
+					z = h[m * nn + m];
 					r = x - z;
 					s = y - z;
-					p = (r * s - w) / H.get(m + 1, m) + H.get(m, m + 1);
-					q = H.get(m + 1, m + 1) - z - r - s;
-					r = H.get(m + 2, m + 1);
+					p = (r * s - w) / h[(m + 1) * nn + m] + h[m * nn + m + 1];
+					q = h[(m + 1) * nn + m + 1] - z - r - s;
+					r = h[(m + 2) * nn + m + 1];
 					s = Math.abs(p) + Math.abs(q) + Math.abs(r);
 					p = p / s;
 					q = q / s;
@@ -662,7 +690,7 @@ public class EigenvalueDecomposition {
 					if (m == l) {
 						break;
 					}
-					if (Math.abs(H.get(m, m - 1)) * (Math.abs(q) + Math.abs(r)) < eps * (Math.abs(p) * (Math.abs(H.get(m - 1, m - 1)) + Math.abs(z) + Math.abs(H.get(m + 1, m + 1))))) {
+					if (Math.abs(h[m * nn + m - 1]) * (Math.abs(q) + Math.abs(r)) < eps * (Math.abs(p) * (Math.abs(h[(m - 1) * nn + m - 1]) + Math.abs(z) + Math.abs(h[(m + 1) * nn + m + 1])))) {
 						break;
 					}
 
@@ -670,9 +698,9 @@ public class EigenvalueDecomposition {
 				}
 
 				for (int i = m + 2; i <= n; i++) {
-					H.set(i, i - 2, 0.0f);
+					h[i * nn + i - 2] = 0.0f;
 					if (i > m + 2) {
-						H.set(i, i - 3, 0.0f);
+						h[i * nn + i - 3] = 0.0f;
 					}
 				}
 
@@ -681,9 +709,9 @@ public class EigenvalueDecomposition {
 				for (int k = m; k <= n - 1; k++) {
 					final boolean notlast = (k != n - 1);
 					if (k != m) {
-						p = H.get(k, k - 1);
-						q = H.get(k + 1, k - 1);
-						r = (notlast ? H.get(k + 2, k - 1) : 0.0f);
+						p = h[k * nn + k - 1];
+						q = h[(k + 1) * nn + k - 1];
+						r = (notlast ? h[(k + 2) * nn + k - 1] : 0.0f);
 						x = Math.abs(p) + Math.abs(q) + Math.abs(r);
 						if (x != 0.0f) {
 							p = p / x;
@@ -700,9 +728,9 @@ public class EigenvalueDecomposition {
 					}
 					if (s != 0f) {
 						if (k != m) {
-							H.set(k, k - 1, -s * x);
+							h[k * nn + k - 1] = -s * x;
 						} else if (l != m) {
-							H.set(k, k - 1, -H.get(k, k - 1));
+							h[k * nn + k - 1] = -h[k * nn + k - 1];
 						}
 						p = p + s;
 						x = p / s;
@@ -714,37 +742,37 @@ public class EigenvalueDecomposition {
 						// Row modification
 
 						for (int j = k; j < nn; j++) {
-							p = H.get(k, j) + q * H.get(k + 1, j);
+							p = h[k * nn + j] + q * h[(k + 1) * nn + j];
 							if (notlast) {
-								p = p + r * H.get(k + 2, j);
-								H.set(k + 2, j, H.get(k + 2, j) - p * z);
+								p = p + r * h[(k + 2) * nn + j];
+								h[(k + 2) * nn + j] = h[(k + 2) * nn + j] - p * z;
 							}
-							H.set(k, j, H.get(k, j) - p * x);
-							H.set(k + 1, j, H.get(k + 1, j) - p * y);
+							h[k * nn + j] = h[k * nn + j] - p * x;
+							h[(k + 1) * nn + j] = h[(k + 1) * nn + j] - p * y;
 						}
 
 						// Column modification
 
 						for (int i = 0; i <= Math.min(n, k + 3); i++) {
-							p = x * H.get(i, k) + y * H.get(i, k + 1);
+							p = x * h[i * nn + k] + y * h[i * nn + k + 1];
 							if (notlast) {
-								p = p + z * H.get(i, k + 2);
-								H.set(i, k + 2, H.get(i, k + 2) - p * r);
+								p = p + z * h[i * nn + k + 2];
+								h[i * nn + k + 2] = h[i * nn + k + 2] - p * r;
 							}
-							H.set(i, k, H.get(i, k) - p);
-							H.set(i, k + 1, H.get(i, k + 1) - p * q);
+							h[i * nn + k] = h[i * nn + k] - p;
+							h[i * nn + k + 1] = h[i * nn + k + 1] - p * q;
 						}
 
 						// Accumulate transformations
 
 						for (int i = low; i <= high; i++) {
-							p = x * V.get(i, k) + y * V.get(i, k + 1);
+							p = x * v[i * nn + k] + y * v[i * nn + k + 1];
 							if (notlast) {
-								p = p + z * V.get(i, k + 2);
-								V.set(i, k + 2, V.get(i, k + 2) - p * r);
+								p = p + z * v[i * nn + k + 2];
+								v[i * nn + k + 2] = v[i * nn + k + 2] - p * r;
 							}
-							V.set(i, k, V.get(i, k) - p);
-							V.set(i, k + 1, V.get(i, k + 1) - p * q);
+							v[i * nn + k] = v[i * nn + k] - p;
+							v[i * nn + k + 1] = v[i * nn + k + 1] - p * q;
 						}
 					} // (s != 0)
 				} // k loop
@@ -765,13 +793,13 @@ public class EigenvalueDecomposition {
 
 			if (q == 0f) {
 				int l = n;
-				H.set(n, n, 1.0f);
+				h[n * nn + n] = 1.0f;
 
 				for (int i = n - 1; i >= 0; i--) {
-					w = H.get(i, i) - p;
+					w = h[i * nn + i] - p;
 					r = 0.0f;
 					for (int j = l; j <= n; j++) {
-						r = r + H.get(i, j) * H.get(j, n);
+						r = r + h[i * nn + j] * h[j * nn + n];
 					}
 
 					if (e[i] < 0.0f) {
@@ -781,32 +809,32 @@ public class EigenvalueDecomposition {
 						l = i;
 						if (e[i] == 0.0f) {
 							if (w != 0.0f) {
-								H.set(i, n, -r / w);
+								h[i * nn + n] = -r / w;
 							} else {
-								H.set(i, n, -r / (eps * norm));
+								h[i * nn + n] = -r / (eps * norm);
 							}
 						} else {
 							// Solve real equations
 
-							x = H.get(i, i + 1);
-							y = H.get(i + 1, i);
+							x = h[i * nn + i + 1];
+							y = h[(i + 1) * nn + i];
 							q = (d[i] - p) * (d[i] - p) + e[i] * e[i];
 							t = (x * s - z * r) / q;
-							H.set(i, n, t);
+							h[i * nn + n] = t;
 
 							if (Math.abs(x) > Math.abs(z)) {
-								H.set(i + 1, n, (-r - w * t) / x);
+								h[(i + 1) * nn + n] = (-r - w * t) / x;
 							} else {
-								H.set(i + 1, n, (-s - y * t) / z);
+								h[(i + 1) * nn + n] = (-s - y * t) / z;
 							}
 						}
 
 						// Overflow control
 
-						t = Math.abs(H.get(i, n));
+						t = Math.abs(h[i * nn + n]);
 						if ((eps * t) * t > 1) {
 							for (int j = i; j <= n; j++) {
-								H.set(j, n, H.get(j, n) / t);
+								h[j * nn + n] = h[j * nn + n] / t;
 							}
 						}
 					}
@@ -819,25 +847,25 @@ public class EigenvalueDecomposition {
 
 				// Last vector component imaginary so matrix is triangular
 
-				if (Math.abs(H.get(n, n - 1)) > Math.abs(H.get(n - 1, n))) {
-					H.set(n - 1, n - 1, q / H.get(n, n - 1));
-					H.set(n - 1, n, -(H.get(n, n) - p) / H.get(n, n - 1));
+				if (Math.abs(h[n * nn + n - 1]) > Math.abs(h[(n - 1) * nn + n])) {
+					h[(n - 1) * nn + n - 1] = q / h[n * nn + n - 1];
+					h[(n - 1) * nn + n] = -(h[n * nn + n] - p) / h[n * nn + n - 1];
 				} else {
-					cdiv(0.0f, -H.get(n - 1, n), H.get(n - 1, n - 1) - p, q);
-					H.set(n - 1, n - 1, cdivr);
-					H.set(n - 1, n, cdivi);
+					cdiv(0.0f, -h[(n - 1) * nn + n], h[(n - 1) * nn + n - 1] - p, q);
+					h[(n - 1) * nn + n - 1] = cdivr;
+					h[(n - 1) * nn + n] = cdivi;
 				}
-				H.set(n, n - 1, 0.0f);
-				H.set(n, n, 1.0f);
+				h[n * nn + n - 1] = 0.0f;
+				h[n * nn + n] = 1.0f;
 				for (int i = n - 2; i >= 0; i--) {
 					float ra, sa, vr, vi;
 					ra = 0.0f;
 					sa = 0.0f;
 					for (int j = l; j <= n; j++) {
-						ra = ra + H.get(i, j) * H.get(j, n - 1);
-						sa = sa + H.get(i, j) * H.get(j, n);
+						ra = ra + h[i * nn + j] * h[j * nn + n - 1];
+						sa = sa + h[i * nn + j] * h[j * nn + n];
 					}
-					w = H.get(i, i) - p;
+					w = h[i * nn + i] - p;
 
 					if (e[i] < 0.0f) {
 						z = w;
@@ -847,38 +875,38 @@ public class EigenvalueDecomposition {
 						l = i;
 						if (e[i] == 0f) {
 							cdiv(-ra, -sa, w, q);
-							H.set(i, n - 1, cdivr);
-							H.set(i, n, cdivi);
+							h[i * nn + n - 1] = cdivr;
+							h[i * nn + n] = cdivi;
 						} else {
 							// Solve complex equations
 
-							x = H.get(i, i + 1);
-							y = H.get(i + 1, i);
+							x = h[i * nn + i + 1];
+							y = h[(i + 1) * nn + i];
 							vr = (d[i] - p) * (d[i] - p) + e[i] * e[i] - q * q;
 							vi = (d[i] - p) * 2.0f * q;
 							if (vr == 0.0f & vi == 0.0f) {
 								vr = eps * norm * (Math.abs(w) + Math.abs(q) + Math.abs(x) + Math.abs(y) + Math.abs(z));
 							}
 							cdiv(x * r - z * ra + q * sa, x * s - z * sa - q * ra, vr, vi);
-							H.set(i, n - 1, cdivr);
-							H.set(i, n, cdivi);
+							h[i * nn + n - 1] = cdivr;
+							h[i * nn + n] = cdivi;
 							if (Math.abs(x) > (Math.abs(z) + Math.abs(q))) {
-								H.set(i + 1, n - 1, (-ra - w * H.get(i, n - 1) + q * H.get(i, n)) / x);
-								H.set(i + 1, n, (-sa - w * H.get(i, n) - q * H.get(i, n - 1)) / x);
+								h[(i + 1) * nn + n - 1] = (-ra - w * h[i * nn + n - 1] + q * h[i * nn + n]) / x;
+								h[(i + 1) * nn + n] = (-sa - w * h[i * nn + n] - q * h[i * nn + n - 1]) / x;
 							} else {
-								cdiv(-r - y * H.get(i, n - 1), -s - y * H.get(i, n), z, q);
-								H.set(i + 1, n - 1, cdivr);
-								H.set(i + 1, n, cdivi);
+								cdiv(-r - y * h[i * nn + n - 1], -s - y * h[i * nn + n], z, q);
+								h[(i + 1) * nn + n - 1] = cdivr;
+								h[(i + 1) * nn + n] = cdivi;
 							}
 						}
 
 						// Overflow control
 
-						t = Math.max(Math.abs(H.get(i, n - 1)), Math.abs(H.get(i, n)));
+						t = Math.max(Math.abs(h[i * nn + n - 1]), Math.abs(h[i * nn + n]));
 						if ((eps * t) * t > 1) {
 							for (int j = i; j <= n; j++) {
-								H.set(j, n - 1, H.get(j, n - 1) / t);
-								H.set(j, n, H.get(j, n) / t);
+								h[j * nn + n - 1] = h[j * nn + n - 1] / t;
+								h[j * nn + n] = h[j * nn + n] / t;
 							}
 						}
 					}
@@ -891,22 +919,47 @@ public class EigenvalueDecomposition {
 		for (int i = 0; i < nn; i++) {
 			if (i < low | i > high) {
 				for (int j = i; j < nn; j++) {
-					V.set(i, j, H.get(i, j));
+					v[i * nn + j] = h[i * nn + j];
 				}
 			}
 		}
 
 		// Back transformation to get eigenvectors of original matrix
+		// V = V * H (upper triangle of H), row by row
+
+		backTransform(h, low, high, executor, parallelThreshold);
+	}
+
+	private void backTransform(final float[] h, final int low, final int high, ExecutorService executor, int parallelThreshold) {
+		final float[] v = this.v;
+		final int nn = this.n;
+
+		final boolean parallel = DecompositionKernels.isParallel(executor, parallelThreshold, high - low + 1, nn);
+		DecompositionKernels.runBands(low, high + 1, parallel, executor, new DecompositionKernels.BandTask() {
+			@Override
+			public void run(int begin, int end) {
+				final float[] row = new float[nn];
+
+				for (int i = begin; i < end; i++) {
+					final int vRow = i * nn;
+
+					for (int j = low; j < nn; j++) {
+						row[j] = 0.0f;
+					}
 
-		for (int j = nn - 1; j >= low; j--) {
-			for (int i = low; i <= high; i++) {
-				z = 0.0f;
-				for (int k = low; k <= Math.min(j, high); k++) {
-					z = z + V.get(i, k) * H.get(k, j);
+					for (int k = low; k <= high; k++) {
+						final float vik = v[vRow + k];
+						final int hRow = k * nn;
+
+						for (int j = k; j < nn; j++) {
+							row[j] += vik * h[hRow + j];
+						}
+					}
+
+					System.arraycopy(row, low, v, vRow + low, nn - low);
 				}
-				V.set(i, j, z);
 			}
-		}
+		});
 	}
 
 	/*
@@ -919,51 +972,78 @@ public class EigenvalueDecomposition {
 	 * @param A    Square matrix
 	 */
 	public EigenvalueDecomposition(MatrixMxNf A) {
+		this(A, null, DecompositionKernels.DEFAULT_PARALLEL_THRESHOLD);
+	}
+
+	/**
+	 * Check for symmetry, then construct the eigenvalue decomposition.
+	 * The Householder updates of the reduction and the back transformation
+	 * run in parallel bands, while the updated submatrix is at least
+	 * 128 x 128.
+	 * 
+	 * @param A    Square matrix
+	 * @param executor the executor to run the bands in (may be <code>null</code>)
+	 */
+	public EigenvalueDecomposition(MatrixMxNf A, ExecutorService executor) {
+		this(A, executor, DecompositionKernels.DEFAULT_PARALLEL_THRESHOLD);
+	}
+
+	/**
+	 * Check for symmetry, then construct the eigenvalue decomposition.
+	 * The Householder updates of the reduction and the back transformation
+	 * run in parallel bands, while the updated submatrix is at least
+	 * parallelThreshold x parallelThreshold.
+	 * 
+	 * @param A    Square matrix
+	 * @param executor the executor to run the bands in (may be <code>null</code>)
+	 * @param parallelThreshold the minimum dimension for parallel updates
+	 */
+	public EigenvalueDecomposition(MatrixMxNf A, ExecutorService executor, int parallelThreshold) {
 		n = A.getNumCols();
-		this.V = new MatrixMxNf(n, n);
+		this.v = new float[n * n];
 		this.d = new float[n];
 		this.e = new float[n];
 
+		// A is copied once into a row major array, that is worked on in place.
+		final float[] a = new float[n * n];
+		A.getRowMajor(a, 0);
+
 		boolean isSym = true;
-		for (int j = 0; (j < n) & isSym; j++) {
-			for (int i = 0; (i < n) & isSym; i++) {
-				isSym = (A.get(i, j) == A.get(j, i));
+		for (int i = 0; (i < n) & isSym; i++) {
+			for (int j = 0; (j < i) & isSym; j++) {
+				isSym = (a[i * n + j] == a[j * n + i]);
 			}
 		}
 
 		this.isSymmetric = isSym;
 
 		if (isSymmetric) {
-			for (int i = 0; i < n; i++) {
-				for (int j = 0; j < n; j++) {
-					V.set(i, j, A.get(i, j));
-				}
-			}
+			System.arraycopy(a, 0, v, 0, n * n);
 
 			// Tridiagonalize.
-			tred2();
+			tred2(executor, parallelThreshold);
 
-			// Diagonalize.
-			tql2();
-
-			// TODO: Check, if this is allowed!
-			this.H = null;
-			this.ort = null;
+			// Diagonalize (on the transposed eigenvectors).
+			final float[] vt = a;
+			transpose(v, n, vt);
+			tql2(vt);
+			transpose(vt, n, v);
 		} else {
-			this.H = new MatrixMxNf(n, n);
-			this.ort = new float[n];
-
-			for (int j = 0; j < n; j++) {
-				for (int i = 0; i < n; i++) {
-					H.set(i, j, A.get(i, j));
-				}
-			}
+			final float[] ort = new float[n];
 
 			// Reduce to Hessenberg form.
-			orthes();
+			orthes(a, ort, executor, parallelThreshold);
 
 			// Reduce Hessenberg to real Schur form.
-			hqr2();
+			hqr2(a, executor, parallelThreshold);
+		}
+	}
+
+	private static final void transpose(float[] src, int n, float[] dst) {
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				dst[j * n + i] = src[i * n + j];
+			}
 		}
 	}
 
@@ -976,7 +1056,7 @@ public class EigenvalueDecomposition {
 	 */
 	public MatrixMxNf getV() {
 		MatrixMxNf result = new MatrixMxNf(n, n);
-		result.set(V);
+		result.setRowMajor(v, 0);
 
 		return (result);
 	}
@@ -0,0 +1,1102 @@
+/**
+ * Copyright (c) 2007-2009, OpenMaLi Project Group all rights reserved.
+ * 
+ * Portions based on the Sun's javax.vecmath interface, Copyright by Sun
+ * Microsystems or Kenji Hiranabe's alternative GC-cheap implementation.
+ * Many thanks to the developers.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the 'OpenMaLi Project Group' nor the names of its
+ * contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) A
+ * RISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE
+ */
+package org.openmali.decomposition;
+
+import java.util.concurrent.ExecutorService;
+
+import org.openmali.FastMathd;
+import org.openmali.vecmath2.MatrixMxNd;
+
+/**
+ * Eigenvalues and eigenvectors of a real matrix. 
+ * <p>
+ * If A is symmetric, then A = V*D*V' where the eigenvalue matrix D is
+ * diagonal and the eigenvector matrix V is orthogonal.
+ * I.e. A = V.times(D.times(V.transpose())) and 
+ * V.times(V.transpose()) equals the identity matrix.
+ * </p>
+ * <p>
+ * If A is not symmetric, then the eigenvalue matrix D is block diagonal
+ * with the real eigenvalues in 1-by-1 blocks and any complex eigenvalues,
+ * lambda + i*mu, in 2-by-2 blocks, [lambda, mu; -mu, lambda].  The
+ * columns of V represent the eigenvectors in the sense that A*V = V*D,
+ * i.e. A.times(V) equals V.times(D).  The matrix V may be badly
+ * conditioned, or even singular, so the validity of the equation
+ * A = V*D*inverse(V) depends upon V.cond().
+ * </p>
+ * 
+ * @author <a href="http://math.nist.gov/javanumerics/jama/">JAMA</a>
+ */
+public class EigenvalueDecompositiond {
+	/**
+	 * Row and column dimension (square matrix).
+	 * 
+	 * @serial matrix dimension.
+	 */
+	private final int n;
+
+	/**
+	 * Symmetry flag.
+	 * 
+	 * @serial internal symmetry flag.
+	 */
+	private final boolean isSymmetric;
+
+	/**
+	 * Arrays for internal storage of eigenvalues.
+	 * 
+	 * @serial internal storage of eigenvalues.
+	 */
+	private final double[] d, e;
+
+	/**
+	 * Array for internal storage of eigenvectors (row major).
+	 * 
+	 * @serial internal storage of eigenvectors.
+	 */
+	private final double[] v;
+
+	/**
+	 * Symmetric Householder reduction to tridiagonal form.
+	 */
+	private void tred2(ExecutorService executor, int parallelThreshold) {
+		/*
+		 * This is derived from the Algol procedures tred2 by Bowdler, Martin,
+		 * Reinsch, and Wilkinson, Handbook for Auto. Comp., Vol.ii-Linear
+		 * Algebra, and the corresponding Fortran subroutine in EISPACK.
+		 * 
+		 * Only the lower triangle of v is used, and it is walked row by row.
+		 */
+
+		final double[] v = this.v;
+		final double[] d = this.d;
+		final double[] e = this.e;
+		final double[] sums = new double[n];
+
+		for (int j = 0; j < n; j++) {
+			d[j] = v[(n - 1) * n + j];
+		}
+
+		// Householder reduction to tridiagonal form.
+
+		for (int i = n - 1; i > 0; i--) {
+			// Scale to avoid under/overflow.
+
+			double scale = 0.0d;
+			double h = 0.0d;
+			for (int k = 0; k < i; k++) {
+				scale = scale + Math.abs(d[k]);
+			}
+			if (scale == 0.0d) {
+				e[i] = d[i - 1];
+				for (int j = 0; j < i; j++) {
+					d[j] = v[(i - 1) * n + j];
+					v[i * n + j] = 0.0d;
+					v[j * n + i] = 0.0d;
+				}
+			} else {
+				// Generate Householder vector.
+
+				for (int k = 0; k < i; k++) {
+					d[k] /= scale;
+					h += d[k] * d[k];
+				}
+				double f = d[i - 1];
+				double g = FastMathd.sqrt(h);
+				if (f > 0) {
+					g = -g;
+				}
+				e[i] = scale * g;
+				h = h - f * g;
+				d[i - 1] = f - g;
+
+				// Apply similarity transformation to remaining columns.
+				// e = A * d with A being the symmetric matrix in the lower triangle of v.
+
+				for (int j = 0; j < i; j++) {
+					v[j * n + i] = d[j];
+					e[j] = v[j * n + j] * d[j];
+				}
+
+				for (int k = 1; k < i; k++) {
+					final int row = k * n;
+					final double dk = d[k];
+					double ek = e[k];
+					for (int j = 0; j < k; j++) {
+						e[j] += v[row + j] * dk;
+						ek += v[row + j] * d[j];
+					}
+					e[k] = ek;
+				}
+
+				f = 0.0d;
+				for (int j = 0; j < i; j++) {
+					e[j] /= h;
+					f += e[j] * d[j];
+				}
+
+				final double hh = f / (h + h);
+
+				for (int j = 0; j < i; j++) {
+					e[j] -= hh * d[j];
+				}
+
+				// A -= d * e' + e * d' (lower triangle)
+
+				final boolean parallel = DecompositionKernels.isParallel(executor, parallelThreshold, i, i);
+				DecompositionKernels.runBands(0, i, parallel, executor, new DecompositionKernels.BandTask() {
+					@Override
+					public void run(int begin, int end) {
+						for (int k = begin; k < end; k++) {
+							final int row = k * n;
+							final double dk = d[k];
+							final double ek = e[k];
+
+							for (int j = 0; j <= k; j++) {
+								v[row + j] -= d[j] * ek + e[j] * dk;
+							}
+						}
+					}
+				});
+
+				for (int j = 0; j < i; j++) {
+					d[j] = v[(i - 1) * n + j];
+					v[i * n + j] = 0.0d;
+				}
+			}
+
+			d[i] = h;
+		}
+
+		// Accumulate transformations.
+
+		for (int i = 0; i < n - 1; i++) {
+			v[(n - 1) * n + i] = v[i * n + i];
+			v[i * n + i] = 1.0d;
+			final double h = d[i + 1];
+
+			if (h != 0.0d) {
+				// The Householder vector is column i + 1, rows 0 to i.
+				final boolean parallel = DecompositionKernels.isParallel(executor, parallelThreshold, i + 1, i + 1);
+				DecompositionKernels.applyReflector(v, n, i + 1, v, n, 0, i + 1, 0, i + 1, h, sums, parallel, executor);
+			}
+
+			for (int k = 0; k <= i; k++) {
+				v[k * n + i + 1] = 0.0d;
+			}
+		}
+
+		for (int j = 0; j < n; j++) {
+			d[j] = v[(n - 1) * n + j];
+			v[(n - 1) * n + j] = 0.0d;
+		}
+
+		v[(n - 1) * n + n - 1] = 1.0d;
+		e[0] = 0.0d;
+	}
+
+	/**
+	 * Symmetric tridiagonal QL algorithm.
+	 * The eigenvectors are passed transposed, so that every rotation walks two contiguous rows.
+	 */
+	private void tql2(double[] vt) {
+		/*
+		 * This is derived from the Algol procedures tql2, by Bowdler, Martin,
+		 * Reinsch, and Wilkinson, Handbook for Auto. Comp., Vol.ii-Linear
+		 * Algebra, and the corresponding Fortran subroutine in EISPACK.
+		 */
+
+		for (int i = 1; i < n; i++) {
+			e[i - 1] = e[i];
+		}
+		e[n - 1] = 0.0d;
+
+		double f = 0.0d;
+		double tst1 = 0.0d;
+		double eps = FastMathd.pow(2.0d, -52.0d);
+
+		for (int l = 0; l < n; l++) {
+			// Find small subdiagonal element
+
+			tst1 = Math.max(tst1, Math.abs(d[l]) + Math.abs(e[l]));
+			int m = l;
+			while (m < n) {
+				if (Math.abs(e[m]) <= eps * tst1) {
+					break;
+				}
+				m++;
+			}
+
+			// If m == l, d[l] is an eigenvalue, otherwise, iterate.
+
+			if (m > l) {
+				int iter = 0;
+				do {
+					iter = iter + 1; // (Could check iteration count here.)
+
+					// Compute implicit shift
+
+					double g = d[l];
+					double p = (d[l + 1] - g) / (2.0d * e[l]);
+					double r = FastMathd.hypot(p, 1.0d);
+
+					if (p < 0) {
+						r = -r;
+					}
+
+					d[l] = e[l] / (p + r);
+					d[l + 1] = e[l] * (p + r);
+					double dl1 = d[l + 1];
+					double h = g - d[l];
+					for (int i = l + 2; i < n; i++) {
+						d[i] -= h;
+					}
+					f = f + h;
+
+					// Implicit QL transformation.
+
+					p = d[m];
+					double c = 1.0d;
+					double c2 = c;
+					double c3 = c;
+					double el1 = e[l + 1];
+					double s = 0.0d;
+					double s2 = 0.0d;
+
+					for (int i = m - 1; i >= l; i--) {
+						c3 = c2;
+						c2 = c;
+						s2 = s;
+						g = c * e[i];
+						h = c * p;
+						r = FastMathd.hypot(p, e[i]);
+						e[i + 1] = s * r;
+						s = e[i] / r;
+						c = p / r;
+						p = c * d[i] - s * g;
+						d[i + 1] = h + s * (c * g + s * d[i]);
+
+						// Accumulate transformation.
+
+						final int row0 = i * n;
+						final int row1 = row0 + n;
+						for (int k = 0; k < n; k++) {
+							h = vt[row1 + k];
+							vt[row1 + k] = s * vt[row0 + k] + c * h;
+							vt[row0 + k] = c * vt[row0 + k] - s * h;
+						}
+					}
+					p = -s * s2 * c3 * el1 * e[l] / dl1;
+					e[l] = s * p;
+					d[l] = c * p;
+
+					// Check for convergence.
+
+				} while (Math.abs(e[l]) > eps * tst1);
+			}
+			d[l] = d[l] + f;
+			e[l] = 0.0d;
+		}
+
+		// Sort eigenvalues and corresponding vectors.
+
+		for (int i = 0; i < n - 1; i++) {
+			int k = i;
+			double p = d[i];
+			for (int j = i + 1; j < n; j++) {
+				if (d[j] < p) {
+					k = j;
+					p = d[j];
+				}
+			}
+			if (k != i) {
+				d[k] = d[i];
+				d[i] = p;
+				for (int j = 0; j < n; j++) {
+					p = vt[i * n + j];
+					vt[i * n + j] = vt[k * n + j];
+					vt[k * n + j] = p;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Nonsymmetric reduction to Hessenberg form.
+	 */
+	private void orthes(final double[] h, final double[] ort, ExecutorService executor, int parallelThreshold) {
+		/*
+		 * This is derived from the Algol procedures orthes and ortran, by
+		 * Martin and Wilkinson, Handbook for Auto. Comp., Vol.ii-Linear
+		 * Algebra, and the corresponding Fortran subroutines in EISPACK.
+		 */
+
+		final double[] v = this.v;
+		final int low = 0;
+		final int high = n - 1;
+		final double[] sums = new double[n];
+
+		for (int m = low + 1; m <= high - 1; m++) {
+			// Scale column.
+
+			double scale = 0.0d;
+			for (int i = m; i <= high; i++) {
+				scale = scale + Math.abs(h[i * n + m - 1]);
+			}
+
+			if (scale != 0.0d) {
+				// Compute Householder transformation.
+
+				double hs = 0.0d;
+				for (int i = high; i >= m; i--) {
+					ort[i] = h[i * n + m - 1] / scale;
+					hs += ort[i] * ort[i];
+				}
+
+				double g = FastMathd.sqrt(hs);
+				if (ort[m] > 0d) {
+					g = -g;
+				}
+
+				hs = hs - ort[m] * g;
+				ort[m] = ort[m] - g;
+
+				// Apply Householder similarity transformation
+				// H = (I-u*u'/h)*H*(I-u*u')/h)
+
+				final boolean parallel = DecompositionKernels.isParallel(executor, parallelThreshold, high - m + 1, n - m);
+				DecompositionKernels.applyReflector(ort, 1, 0, h, n, m, high + 1, m, n, hs, sums, parallel, executor);
+
+				final int mm = m;
+				final double divisor = hs;
+				DecompositionKernels.runBands(0, high + 1, parallel, executor, new DecompositionKernels.BandTask() {
+					@Override
+					public void run(int begin, int end) {
+						for (int i = begin; i < end; i++) {
+							final int row = i * n;
+
+							double f = 0.0d;
+							for (int j = high; j >= mm; j--) {
+								f += ort[j] * h[row + j];
+							}
+
+							f = f / divisor;
+
+							for (int j = mm; j <= high; j++) {
+								h[row + j] -= f * ort[j];
+							}
+						}
+					}
+				});
+
+				ort[m] = scale * ort[m];
+				h[m * n + m - 1] = scale * g;
+			}
+		}
+
+		// Accumulate transformations (Algol's ortran).
+
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				v[i * n + j] = (i == j ? 1.0d : 0.0d);
+			}
+		}
+
+		for (int m = high - 1; m >= low + 1; m--) {
+			final double hm = h[m * n + m - 1];
+
+			if (hm != 0.0d) {
+				for (int i = m + 1; i <= high; i++) {
+					ort[i] = h[i * n + m - 1];
+				}
+
+				final int mm = m;
+				final boolean parallel = DecompositionKernels.isParallel(executor, parallelThreshold, high - m + 1, high - m + 1);
+				DecompositionKernels.runBands(m, high + 1, parallel, executor, new DecompositionKernels.BandTask() {
+					@Override
+					public void run(int begin, int end) {
+						for (int j = begin; j < end; j++) {
+							sums[j] = 0.0d;
+						}
+
+						for (int i = mm; i <= high; i++) {
+							final double oi = ort[i];
+							final int row = i * n;
+
+							for (int j = begin; j < end; j++) {
+								sums[j] += oi * v[row + j];
+							}
+						}
+
+						// Double division avoids possible underflow
+						for (int j = begin; j < end; j++) {
+							sums[j] = (sums[j] / ort[mm]) / hm;
+						}
+
+						for (int i = mm; i <= high; i++) {
+							final double oi = ort[i];
+							final int row = i * n;
+
+							for (int j = begin; j < end; j++) {
+								v[row + j] += sums[j] * oi;
+							}
+						}
+					}
+				});
+			}
+		}
+	}
+
+	// Complex scalar division.
+
+	private transient double cdivr, cdivi;
+
+	private void cdiv(double xr, double xi, double yr, double yi) {
+		double r, d;
+		if (Math.abs(yr) > Math.abs(yi)) {
+			r = yi / yr;
+			d = yr + r * yi;
+			cdivr = (xr + r * xi) / d;
+			cdivi = (xi - r * xr) / d;
+		} else {
+			r = yr / yi;
+			d = yi + r * yr;
+			cdivr = (r * xr + xi) / d;
+			cdivi = (r * xi - xr) / d;
+		}
+	}
+
+	/**
+	 * Nonsymmetric reduction from Hessenberg to real Schur form.
+	 */
+	private void hqr2(double[] h, ExecutorService executor, int parallelThreshold) {
+		/*
+		 * This is derived from the Algol procedure hqr2, by Martin and
+		 * Wilkinson, Handbook for Auto. Comp., Vol.ii-Linear Algebra, and the
+		 * corresponding Fortran subroutine in EISPACK.
+		 */
+
+		// Initialize
+
+		final double[] v = this.v;
+		final int nn = this.n;
+		int n = nn - 1;
+		final int low = 0;
+		final int high = nn - 1;
+		double eps = FastMathd.pow(2.0d, -52.0d);
+		double exshift = 0.0d;
+		double p = 0, q = 0, r = 0, s = 0, z = 0, t, w, x, y;
+
+		// Store roots isolated by balanc and compute matrix norm
+
+		double norm = 0.0d;
+		for (int i = 0; i < nn; i++) {
+			if (i < low | i > high) {
+				d[i] = h[i * nn + i];
+				e[i] = 0.0d;
+			}
+
+			for (int j = Math.max(i - 1, 0); j < nn; j++) {
+				norm = norm + Math.abs(h[i * nn + j]);
+			}
+		}
+
+		// Outer loop over eigenvalue index
+
+		int iter = 0;
+		while (n >= low) {
+			// Look for single small sub-diagonal element
+
+			int l = n;
+			while (l > low) {
+				s = Math.abs(h[(l - 1) * nn + l - 1]) + Math.abs(h[l * nn + l]);
+				if (s == 0.0d) {
+					s = norm;
+				}
+
+				if (Math.abs(h[l * nn + l - 1]) < eps * s) {
+					break;
+				}
+
+				l--;
+			}
+
+			// Check for convergence One root found
+
+			if (l == n) {
+				h[n * nn + n] = h[n * nn + n] + exshift;
+				d[n] = h[n * nn + n];
+				e[n] = 0.0d;
+				n--;
+				iter = 0;
+
+				// Two roots found
+			} else if (l == n - 1) {
+				w = h[n * nn + n - 1] * h[(n - 1) * nn + n];
+				p = (h[(n - 1) * nn + n - 1] - h[n * nn + n]) / 2.0d;
+				q = p * p + w;
+				z = FastMathd.sqrt(Math.abs(q));
+				h[n * nn + n] = h[n * nn + n] + exshift;
+				h[(n - 1) * nn + n - 1] = h[(n - 1) * nn + n - 1] + exshift;
+				x = h[n * nn + n];
+
+				// Real pair
+
+				if (q >= 0d) {
+					if (p >= 0d) {
+						z = p + z;
+					} else {
+						z = p - z;
+					}
+					d[n - 1] = x + z;
+					d[n] = d[n - 1];
+					if (z != 0.0d) {
+						d[n] = x - w / z;
+					}
+					e[n - 1] = 0.0d;
+					e[n] = 0.0d;
+					x = h[n * nn + n - 1];
+					s = Math.abs(x) + Math.abs(z);
+					p = x / s;
+					q = z / s;
+					r = FastMathd.sqrt(p * p + q * q);
+					p = p / r;
+					q = q / r;
+
+					// Row modification
+
+					for (int j = n - 1; j < nn; j++) {
+						z = h[(n - 1) * nn + j];
+						h[(n - 1) * nn + j] = q * z + p * h[n * nn + j];
+						h[n * nn + j] = q * h[n * nn + j] - p * z;
+					}
+
+					// Column modification
+
+					for (int i = 0; i <= n; i++) {
+						z = h[i * nn + n - 1];
+						h[i * nn + n - 1] = q * z + p * h[i * nn + n];
+						h[i * nn + n] = q * h[i * nn + n] - p * z;
+					}
+
+					// Accumulate transformations
+
+					for (int i = low; i <= high; i++) {
+						z = v[i * nn + n - 1];
+						v[i * nn + n - 1] = q * z + p * v[i * nn + n];
+						v[i * nn + n] = q * v[i * nn + n] - p * z;
+					}
+
+					// Complex pair
+				} else {
+					d[n - 1] = x + p;
+					d[n] = x + p;
+					e[n - 1] = z;
+					e[n] = -z;
+				}
+				n = n - 2;
+				iter = 0;
+
+				// No convergence yet
+			} else {
+				// Form shift
+
+				x = h[n * nn + n];
+				y = 0.0d;
+				w = 0.0d;
+				if (l < n) {
+					y = h[(n - 1) * nn + n - 1];
+					w = h[n * nn + n - 1] * h[(n - 1) * nn + n];
+				}
+
+				// Wilkinson's original ad hoc shift
+
+				if (iter == 10) {
+					exshift += x;
+					for (int i = low; i <= n; i++) {
+						h[i * nn + i] -= x;
+					}
+					s = Math.abs(h[n * nn + n - 1]) + Math.abs(h[(n - 1) * nn + n - 2]);
+					x = y = 0.75d * s;
+					w = -0.4375d * s * s;
+				}
+
+				// MATLAB's new ad hoc shift
+
+				if (iter == 30) {
+					s = (y - x) / 2.0d;
+					s = s * s + w;
+					if (s > 0d) {
+						s = FastMathd.sqrt(s);
+						if (y < x) {
+							s = -s;
+						}
+						s = x - w / ((y - x) / 2.0d + s);
+						for (int i = low; i <= n; i++) {
+							h[i * nn + i] -= s;
+						}
+						exshift += s;
+						x = y = w = 0.964d;
+					}
+				}
+
+				iter = iter + 1; // (Could check iteration count here.)
+
+				// Look for two consecutive small sub-diagonal elements
+
+				int m = n - 2;
+				while (m >= l) {
+					z = h[m * nn + m];
+					r = x - z;
+					s = y - z;
+					p = (r * s - w) / h[(m + 1) * nn + m] + h[m * nn + m + 1];
+					q = h[(m + 1) * nn + m + 1] - z - r - s;
+					r = h[(m + 2) * nn + m + 1];
+					s = Math.abs(p) + Math.abs(q) + Math.abs(r);
+					p = p / s;
+					q = q / s;
+					r = r / s;
+					if (m == l) {
+						break;
+					}
+					if (Math.abs(h[m * nn + m - 1]) * (Math.abs(q) + Math.abs(r)) < eps * (Math.abs(p) * (Math.abs(h[(m - 1) * nn + m - 1]) + Math.abs(z) + Math.abs(h[(m + 1) * nn + m + 1])))) {
+						break;
+					}
+
+					m--;
+				}
+
+				for (int i = m + 2; i <= n; i++) {
+					h[i * nn + i - 2] = 0.0d;
+					if (i > m + 2) {
+						h[i * nn + i - 3] = 0.0d;
+					}
+				}
+
+				// Double QR step involving rows l:n and columns m:n
+
+				for (int k = m; k <= n - 1; k++) {
+					final boolean notlast = (k != n - 1);
+					if (k != m) {
+						p = h[k * nn + k - 1];
+						q = h[(k + 1) * nn + k - 1];
+						r = (notlast ? h[(k + 2) * nn + k - 1] : 0.0d);
+						x = Math.abs(p) + Math.abs(q) + Math.abs(r);
+						if (x != 0.0d) {
+							p = p / x;
+							q = q / x;
+							r = r / x;
+						}
+					}
+					if (x == 0.0d) {
+						break;
+					}
+					s = FastMathd.sqrt(p * p + q * q + r * r);
+					if (p < 0d) {
+						s = -s;
+					}
+					if (s != 0d) {
+						if (k != m) {
+							h[k * nn + k - 1] = -s * x;
+						} else if (l != m) {
+							h[k * nn + k - 1] = -h[k * nn + k - 1];
+						}
+						p = p + s;
+						x = p / s;
+						y = q / s;
+						z = r / s;
+						q = q / p;
+						r = r / p;
+
+						// Row modification
+
+						for (int j = k; j < nn; j++) {
+							p = h[k * nn + j] + q * h[(k + 1) * nn + j];
+							if (notlast) {
+								p = p + r * h[(k + 2) * nn + j];
+								h[(k + 2) * nn + j] = h[(k + 2) * nn + j] - p * z;
+							}
+							h[k * nn + j] = h[k * nn + j] - p * x;
+							h[(k + 1) * nn + j] = h[(k + 1) * nn + j] - p * y;
+						}
+
+						// Column modification
+
+						for (int i = 0; i <= Math.min(n, k + 3); i++) {
+							p = x * h[i * nn + k] + y * h[i * nn + k + 1];
+							if (notlast) {
+								p = p + z * h[i * nn + k + 2];
+								h[i * nn + k + 2] = h[i * nn + k + 2] - p * r;
+							}
+							h[i * nn + k] = h[i * nn + k] - p;
+							h[i * nn + k + 1] = h[i * nn + k + 1] - p * q;
+						}
+
+						// Accumulate transformations
+
+						for (int i = low; i <= high; i++) {
+							p = x * v[i * nn + k] + y * v[i * nn + k + 1];
+							if (notlast) {
+								p = p + z * v[i * nn + k + 2];
+								v[i * nn + k + 2] = v[i * nn + k + 2] - p * r;
+							}
+							v[i * nn + k] = v[i * nn + k] - p;
+							v[i * nn + k + 1] = v[i * nn + k + 1] - p * q;
+						}
+					} // (s != 0)
+				} // k loop
+			} // check convergence
+		} // while (n >= low)
+
+		// Backsubstitute to find vectors of upper triangular form
+
+		if (norm == 0.0d) {
+			return;
+		}
+
+		for (n = nn - 1; n >= 0; n--) {
+			p = d[n];
+			q = e[n];
+
+			// Real vector
+
+			if (q == 0d) {
+				int l = n;
+				h[n * nn + n] = 1.0d;
+
+				for (int i = n - 1; i >= 0; i--) {
+					w = h[i * nn + i] - p;
+					r = 0.0d;
+					for (int j = l; j <= n; j++) {
+						r = r + h[i * nn + j] * h[j * nn + n];
+					}
+
+					if (e[i] < 0.0d) {
+						z = w;
+						s = r;
+					} else {
+						l = i;
+						if (e[i] == 0.0d) {
+							if (w != 0.0d) {
+								h[i * nn + n] = -r / w;
+							} else {
+								h[i * nn + n] = -r / (eps * norm);
+							}
+						} else {
+							// Solve real equations
+
+							x = h[i * nn + i + 1];
+							y = h[(i + 1) * nn + i];
+							q = (d[i] - p) * (d[i] - p) + e[i] * e[i];
+							t = (x * s - z * r) / q;
+							h[i * nn + n] = t;
+
+							if (Math.abs(x) > Math.abs(z)) {
+								h[(i + 1) * nn + n] = (-r - w * t) / x;
+							} else {
+								h[(i + 1) * nn + n] = (-s - y * t) / z;
+							}
+						}
+
+						// Overflow control
+
+						t = Math.abs(h[i * nn + n]);
+						if ((eps * t) * t > 1) {
+							for (int j = i; j <= n; j++) {
+								h[j * nn + n] = h[j * nn + n] / t;
+							}
+						}
+					}
+				}
+
+				// Complex vector
+
+			} else if (q < 0d) {
+				int l = n - 1;
+
+				// Last vector component imaginary so matrix is triangular
+
+				if (Math.abs(h[n * nn + n - 1]) > Math.abs(h[(n - 1) * nn + n])) {
+					h[(n - 1) * nn + n - 1] = q / h[n * nn + n - 1];
+					h[(n - 1) * nn + n] = -(h[n * nn + n] - p) / h[n * nn + n - 1];
+				} else {
+					cdiv(0.0d, -h[(n - 1) * nn + n], h[(n - 1) * nn + n - 1] - p, q);
+					h[(n - 1) * nn + n - 1] = cdivr;
+					h[(n - 1) * nn + n] = cdivi;
+				}
+				h[n * nn + n - 1] = 0.0d;
+				h[n * nn + n] = 1.0d;
+				for (int i = n - 2; i >= 0; i--) {
+					double ra, sa, vr, vi;
+					ra = 0.0d;
+					sa = 0.0d;
+					for (int j = l; j <= n; j++) {
+						ra = ra + h[i * nn + j] * h[j * nn + n - 1];
+						sa = sa + h[i * nn + j] * h[j * nn + n];
+					}
+					w = h[i * nn + i] - p;
+
+					if (e[i] < 0.0d) {
+						z = w;
+						r = ra;
+						s = sa;
+					} else {
+						l = i;
+						if (e[i] == 0d) {
+							cdiv(-ra, -sa, w, q);
+							h[i * nn + n - 1] = cdivr;
+							h[i * nn + n] = cdivi;
+						} else {
+							// Solve complex equations
+
+							x = h[i * nn + i + 1];
+							y = h[(i + 1) * nn + i];
+							vr = (d[i] - p) * (d[i] - p) + e[i] * e[i] - q * q;
+							vi = (d[i] - p) * 2.0d * q;
+							if (vr == 0.0d & vi == 0.0d) {
+								vr = eps * norm * (Math.abs(w) + Math.abs(q) + Math.abs(x) + Math.abs(y) + Math.abs(z));
+							}
+							cdiv(x * r - z * ra + q * sa, x * s - z * sa - q * ra, vr, vi);
+							h[i * nn + n - 1] = cdivr;
+							h[i * nn + n] = cdivi;
+							if (Math.abs(x) > (Math.abs(z) + Math.abs(q))) {
+								h[(i + 1) * nn + n - 1] = (-ra - w * h[i * nn + n - 1] + q * h[i * nn + n]) / x;
+								h[(i + 1) * nn + n] = (-sa - w * h[i * nn + n] - q * h[i * nn + n - 1]) / x;
+							} else {
+								cdiv(-r - y * h[i * nn + n - 1], -s - y * h[i * nn + n], z, q);
+								h[(i + 1) * nn + n - 1] = cdivr;
+								h[(i + 1) * nn + n] = cdivi;
+							}
+						}
+
+						// Overflow control
+
+						t = Math.max(Math.abs(h[i * nn + n - 1]), Math.abs(h[i * nn + n]));
+						if ((eps * t) * t > 1) {
+							for (int j = i; j <= n; j++) {
+								h[j * nn + n - 1] = h[j * nn + n - 1] / t;
+								h[j * nn + n] = h[j * nn + n] / t;
+							}
+						}
+					}
+				}
+			}
+		}
+
+		// Vectors of isolated roots
+
+		for (int i = 0; i < nn; i++) {
+			if (i < low | i > high) {
+				for (int j = i; j < nn; j++) {
+					v[i * nn + j] = h[i * nn + j];
+				}
+			}
+		}
+
+		// Back transformation to get eigenvectors of original matrix
+		// V = V * H (upper triangle of H), row by row
+
+		backTransform(h, low, high, executor, parallelThreshold);
+	}
+
+	private void backTransform(final double[] h, final int low, final int high, ExecutorService executor, int parallelThreshold) {
+		final double[] v = this.v;
+		final int nn = this.n;
+
+		final boolean parallel = DecompositionKernels.isParallel(executor, parallelThreshold, high - low + 1, nn);
+		DecompositionKernels.runBands(low, high + 1, parallel, executor, new DecompositionKernels.BandTask() {
+			@Override
+			public void run(int begin, int end) {
+				final double[] row = new double[nn];
+
+				for (int i = begin; i < end; i++) {
+					final int vRow = i * nn;
+
+					for (int j = low; j < nn; j++) {
+						row[j] = 0.0d;
+					}
+
+					for (int k = low; k <= high; k++) {
+						final double vik = v[vRow + k];
+						final int hRow = k * nn;
+
+						for (int j = k; j < nn; j++) {
+							row[j] += vik * h[hRow + j];
+						}
+					}
+
+					System.arraycopy(row, low, v, vRow + low, nn - low);
+				}
+			}
+		});
+	}
+
+	/*
+	 * ------------------------ Constructor ------------------------
+	 */
+
+	/**
+	 * Check for symmetry, then construct the eigenvalue decomposition
+	 * 
+	 * @param A    Square matrix
+	 */
+	public EigenvalueDecompositiond(MatrixMxNd A) {
+		this(A, null, DecompositionKernels.DEFAULT_PARALLEL_THRESHOLD);
+	}
+
+	/**
+	 * Check for symmetry, then construct the eigenvalue decomposition.
+	 * The Householder updates of the reduction and the back transformation
+	 * run in parallel bands, while the updated submatrix is at least
+	 * 128 x 128.
+	 * 
+	 * @param A    Square matrix
+	 * @param executor the executor to run the bands in (may be <code>null</code>)
+	 */
+	public EigenvalueDecompositiond(MatrixMxNd A, ExecutorService executor) {
+		this(A, executor, DecompositionKernels.DEFAULT_PARALLEL_THRESHOLD);
+	}
+
+	/**
+	 * Check for symmetry, then construct the eigenvalue decomposition.
+	 * The Householder updates of the reduction and the back transformation
+	 * run in parallel bands, while the updated submatrix is at least
+	 * parallelThreshold x parallelThreshold.
+	 * 
+	 * @param A    Square matrix
+	 * @param executor the executor to run the bands in (may be <code>null</code>)
+	 * @param parallelThreshold the minimum dimension for parallel updates
+	 */
+	public EigenvalueDecompositiond(MatrixMxNd A, ExecutorService executor, int parallelThreshold) {
+		n = A.getNumCols();
+		this.v = new double[n * n];
+		this.d = new double[n];
+		this.e = new double[n];
+
+		// A is copied once into a row major array, that is worked on in place.
+		final double[] a = new double[n * n];
+		A.getRowMajor(a, 0);
+
+		boolean isSym = true;
+		for (int i = 0; (i < n) & isSym; i++) {
+			for (int j = 0; (j < i) & isSym; j++) {
+				isSym = (a[i * n + j] == a[j * n + i]);
+			}
+		}
+
+		this.isSymmetric = isSym;
+
+		if (isSymmetric) {
+			System.arraycopy(a, 0, v, 0, n * n);
+
+			// Tridiagonalize.
+			tred2(executor, parallelThreshold);
+
+			// Diagonalize (on the transposed eigenvectors).
+			final double[] vt = a;
+			transpose(v, n, vt);
+			tql2(vt);
+			transpose(vt, n, v);
+		} else {
+			final double[] ort = new double[n];
+
+			// Reduce to Hessenberg form.
+			orthes(a, ort, executor, parallelThreshold);
+
+			// Reduce Hessenberg to real Schur form.
+			hqr2(a, executor, parallelThreshold);
+		}
+	}
+
+	private static final void transpose(double[] src, int n, double[] dst) {
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				dst[j * n + i] = src[i * n + j];
+			}
+		}
+	}
+
+	/*
+	 * ------------------------ Public Methods ------------------------
+	 */
+
+	/** 
+	 * @return the eigenvector matrix
+	 */
+	public MatrixMxNd getV() {
+		MatrixMxNd result = new MatrixMxNd(n, n);
+		result.setRowMajor(v, 0);
+
+		return (result);
+	}
+
+	/**
+	 * Returns the real parts of the eigenvalues
+	 * @return     real(diag(D))
+	 */
+	public double[] getRealEigenvalues() {
+		return (d);
+	}
+
+	/**
+	 * Return the imaginary parts of the eigenvalues
+	 * @return     imag(diag(D))
+	 */
+	public double[] getImagEigenvalues() {
+		return (e);
+	}
+
+	/**
+	 * @return the block diagonal eigenvalue matrix
+	 */
+	public MatrixMxNd getD() {
+		MatrixMxNd D = new MatrixMxNd(n, n);
+
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				D.set(i, j, 0.0d);
+			}
+
+			D.set(i, i, d[i]);
+
+			if (e[i] > 0d) {
+				D.set(i, i + 1, e[i]);
+			} else if (e[i] < 0d) {
+				D.set(i, i - 1, e[i]);
+			}
+		}
+
+		return D;
+	}
+}
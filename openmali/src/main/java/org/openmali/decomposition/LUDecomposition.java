@@ -33,6 +33,8 @@
  */
 package org.openmali.decomposition;
 
+import java.util.concurrent.ExecutorService;
+
 import org.openmali.vecmath2.MatrixMxNf;
 
 /**
@@ -44,21 +46,28 @@ import org.openmali.vecmath2.MatrixMxNf;
  * If m < n, then L is m-by-m and U is m-by-n.
  * </p>
  * <p>
- * The LU decompostion with pivoting always exists, even if the matrix is
+' * The LU decompostion with pivoting always exists, even if the matrix is
  * singular, so the constructor will never fail.  The primary use of the
  * LU decomposition is in the solution of square systems of simultaneous
  * linear equations.  This will fail if isNonsingular() returns false.
  * </p>
+ * <p>
+ * An instance can be reused for any number of matrices by calling
+ * {@link #decompose(MatrixMxNf)}. The internal storage is only reallocated,
+ * if a matrix is bigger than any matrix decomposed before. So repeated
+ * decompose() and {@link #solve(MatrixMxNf, MatrixMxNf)} calls don't
+ * create any garbage.
+ * </p>
  * 
  * @author <a href="http://math.nist.gov/javanumerics/jama/">JAMA</a>
  */
 public class LUDecomposition {
 	/**
-	 * Array for internal storage of decomposition.
+	 * Array for internal storage of decomposition (row major).
 	 * 
 	 * @serial internal array storage.
 	 */
-	private final MatrixMxNf LU;
+	private float[] LU;
 
 	/**
 	 * Row and column dimensions, and pivot sign.
@@ -73,7 +82,35 @@ public class LUDecomposition {
 	 * Internal storage of pivot vector.
 	 * @serial pivot vector.
 	 */
-	private final int[] piv;
+	private int[] piv;
+
+	/**
+	 * Scratch space for the right hand side in solve().
+	 */
+	private float[] work = null;
+
+	/**
+	 * Creates an empty LU Decomposition for matrices of up to m x n elements.
+	 * Use {@link #decompose(MatrixMxNf)} to decompose a matrix.
+	 * 
+	 * @param  m   the (initial) row dimension
+	 * @param  n   the (initial) column dimension
+	 */
+	public LUDecomposition(int m, int n) {
+		if ((m < 0) || (n < 0)) {
+			throw new IllegalArgumentException("Matrix dimensions must not be negative.");
+		}
+
+		this.m = m;
+		this.n = n;
+		this.pivsign = 1;
+		this.LU = new float[m * n];
+		this.piv = new int[m];
+
+		for (int i = 0; i < m; i++) {
+			piv[i] = i;
+		}
+	}
 
 	/**
 	 * LU Decomposition.
@@ -81,70 +118,186 @@ public class LUDecomposition {
 	 * @param  A   Rectangular matrix
 	 */
 	public LUDecomposition(MatrixMxNf A) {
+		this(A, null, DecompositionKernels.DEFAULT_PARALLEL_THRESHOLD);
+	}
 
-		// Use a "left-looking", dot-product, Crout/Doolittle algorithm.
+	/**
+	 * LU Decomposition. The trailing updates are split into parallel bands
+	 * of rows, while the remaining submatrix is at least 128 x 128.
+	 * 
+	 * @param  A   Rectangular matrix
+	 * @param  executor   the executor to run the bands in (may be <code>null</code>)
+	 */
+	public LUDecomposition(MatrixMxNf A, ExecutorService executor) {
+		this(A, executor, DecompositionKernels.DEFAULT_PARALLEL_THRESHOLD);
+	}
 
-		this.LU = new MatrixMxNf(A);
+	/**
+	 * LU Decomposition. The trailing updates are split into parallel bands
+	 * of rows, while the remaining submatrix is at least parallelThreshold x parallelThreshold.
+	 * 
+	 * @param  A   Rectangular matrix
+	 * @param  executor   the executor to run the bands in (may be <code>null</code>)
+	 * @param  parallelThreshold   the minimum dimension for parallel updates
+	 */
+	public LUDecomposition(MatrixMxNf A, ExecutorService executor, int parallelThreshold) {
+		this(A.getNumRows(), A.getNumCols());
+
+		decompose(A, executor, parallelThreshold);
+	}
+
+	/**
+	 * Decomposes the given matrix, replacing the previous decomposition.
+	 * The internal storage is reused.
+	 * 
+	 * @param  A   Rectangular matrix
+	 */
+	public final void decompose(MatrixMxNf A) {
+		decompose(A, null, DecompositionKernels.DEFAULT_PARALLEL_THRESHOLD);
+	}
+
+	/**
+	 * Decomposes the given matrix, replacing the previous decomposition.
+	 * The internal storage is reused.
+	 * 
+	 * @param  A   Rectangular matrix
+	 * @param  executor   the executor to run the bands in (may be <code>null</code>)
+	 * @param  parallelThreshold   the minimum dimension for parallel updates
+	 */
+	public final void decompose(MatrixMxNf A, ExecutorService executor, int parallelThreshold) {
 		this.m = A.getNumRows();
 		this.n = A.getNumCols();
-		this.piv = new int[m];
+
+		if (LU.length < m * n) {
+			this.LU = new float[m * n];
+		}
+		if (piv.length < m) {
+			this.piv = new int[m];
+		}
 
 		for (int i = 0; i < m; i++) {
 			piv[i] = i;
 		}
 
 		this.pivsign = 1;
-		float[] LUrowi = new float[n];
-		;
-		float[] LUcolj = new float[m];
 
-		// Outer loop.
-		for (int j = 0; j < n; j++) {
-			// Make a copy of the j-th column to localize references.
-			LU.getColumn(j, LUcolj);
+		A.getRowMajor(LU, 0);
 
-			// Apply previous transformations.
-			for (int i = 0; i < m; i++) {
-				LU.getRow(i, LUrowi);
+		factor(LU, executor, parallelThreshold);
+	}
 
-				// Most of the time is spent in the following dot product.
+	/**
+	 * Blocked, right-looking Gaussian elimination with partial pivoting on the
+	 * row major array. Each panel of {@link DecompositionKernels#BLOCK_SIZE} columns
+	 * is factored column by column, then the block row of U right of it is solved
+	 * and the trailing submatrix is updated row by row.
+	 */
+	private void factor(final float[] lu, ExecutorService executor, int parallelThreshold) {
+		final int m = this.m;
+		final int n = this.n;
+		final int kmax = Math.min(m, n);
+
+		for (int k0 = 0; k0 < kmax; k0 += DecompositionKernels.BLOCK_SIZE) {
+			final int k1 = Math.min(k0 + DecompositionKernels.BLOCK_SIZE, kmax);
+
+			// Factor the panel.
+			for (int j = k0; j < k1; j++) {
+				// Find pivot and exchange if necessary.
+				int p = j;
+				float max = Math.abs(lu[j * n + j]);
+				for (int i = j + 1; i < m; i++) {
+					final float v = Math.abs(lu[i * n + j]);
+					if (v > max) {
+						max = v;
+						p = i;
+					}
+				}
 
-				final int kmax = Math.min(i, j);
-				float s = 0.0f;
-				for (int k = 0; k < kmax; k++) {
-					s += LUrowi[k] * LUcolj[k];
+				if (p != j) {
+					final int rowP = p * n;
+					final int rowJ = j * n;
+					for (int k = 0; k < n; k++) {
+						final float t = lu[rowP + k];
+						lu[rowP + k] = lu[rowJ + k];
+						lu[rowJ + k] = t;
+					}
+
+					final int k = piv[p];
+					piv[p] = piv[j];
+					piv[j] = k;
+					pivsign = -pivsign;
 				}
 
-				LUrowi[j] = LUcolj[i] -= s;
-			}
+				// Compute multipliers and eliminate the j-th column inside the panel.
+				final float pivot = lu[j * n + j];
+				if (pivot != 0f) {
+					for (int i = j + 1; i < m; i++) {
+						lu[i * n + j] /= pivot;
+					}
+				}
 
-			// Find pivot and exchange if necessary.
+				for (int i = j + 1; i < m; i++) {
+					final float l = lu[i * n + j];
+					final int rowI = i * n;
+					final int rowJ = j * n;
 
-			int p = j;
-			for (int i = j + 1; i < m; i++) {
-				if (Math.abs(LUcolj[i]) > Math.abs(LUcolj[p])) {
-					p = i;
+					for (int c = j + 1; c < k1; c++) {
+						lu[rowI + c] -= l * lu[rowJ + c];
+					}
 				}
 			}
 
-			if (p != j) {
-				for (int k = 0; k < n; k++) {
-					float t = LU.get(p, k);
-					LU.set(p, k, LU.get(j, k));
-					LU.set(j, k, t);
+			if (k1 >= n)
+				continue;
+
+			// Solve the block row of U (unit lower triangular panel).
+			for (int i = k0 + 1; i < k1; i++) {
+				final int rowI = i * n;
+
+				for (int k = k0; k < i; k++) {
+					final float l = lu[rowI + k];
+					final int rowK = k * n;
+
+					for (int c = k1; c < n; c++) {
+						lu[rowI + c] -= l * lu[rowK + c];
+					}
 				}
+			}
+
+			// Update the trailing submatrix.
+			if (k1 < m) {
+				final int panelBegin = k0;
+				final int panelEnd = k1;
+				final boolean parallel = DecompositionKernels.isParallel(executor, parallelThreshold, m - k1, n - k1);
 
-				final int k = piv[p];
-				piv[p] = piv[j];
-				piv[j] = k;
-				pivsign = -pivsign;
+				if (!parallel) {
+					updateTrailing(lu, n, panelBegin, panelEnd, k1, m);
+				} else {
+					DecompositionKernels.runBands(k1, m, parallel, executor, new DecompositionKernels.BandTask() {
+						@Override
+						public void run(int begin, int end) {
+							updateTrailing(lu, n, panelBegin, panelEnd, begin, end);
+						}
+					});
+				}
 			}
+		}
+	}
+
+	/**
+	 * Subtracts the product of the panel columns and the block row of U
+	 * from the rows begin to end - 1 of the trailing submatrix.
+	 */
+	private static void updateTrailing(float[] lu, int n, int panelBegin, int panelEnd, int begin, int end) {
+		for (int i = begin; i < end; i++) {
+			final int rowI = i * n;
 
-			// Compute multipliers.
+			for (int k = panelBegin; k < panelEnd; k++) {
+				final float l = lu[rowI + k];
+				final int rowK = k * n;
 
-			if (j < m & LU.get(j, j) != 0f) {
-				for (int i = j + 1; i < m; i++) {
-					LU.div(i, j, LU.get(j, j));
+				for (int c = panelEnd; c < n; c++) {
+					lu[rowI + c] -= l * lu[rowK + c];
 				}
 			}
 		}
@@ -193,7 +346,7 @@ public class LUDecomposition {
 	 */
 	public final boolean isNonsingular() {
 		for (int j = 0; j < n; j++) {
-			if (LU.get(j, j) == 0f)
+			if (LU[j * n + j] == 0f)
 				return (false);
 		}
 
@@ -209,7 +362,7 @@ public class LUDecomposition {
 		for (int i = 0; i < m; i++) {
 			for (int j = 0; j < n; j++) {
 				if (i > j) {
-					L.set(i, j, LU.get(i, j));
+					L.set(i, j, LU[i * n + j]);
 				} else if (i == j) {
 					L.set(i, j, 1.0f);
 				} else {
@@ -230,7 +383,7 @@ public class LUDecomposition {
 		for (int i = 0; i < n; i++) {
 			for (int j = 0; j < n; j++) {
 				if (i <= j) {
-					U.set(i, j, LU.get(i, j));
+					U.set(i, j, LU[i * n + j]);
 				} else {
 					U.set(i, j, 0.0f);
 				}
@@ -262,29 +415,12 @@ public class LUDecomposition {
 
 		float d = (float) pivsign;
 		for (int j = 0; j < n; j++) {
-			d *= LU.get(j, j);
+			d *= LU[j * n + j];
 		}
 
 		return (d);
 	}
 
-	// public Matrix getMatrix (int[] r, int j0, int j1) {
-	private static MatrixMxNf copySubMatrix(MatrixMxNf A, int[] rows, int c0, int c1) {
-		MatrixMxNf B = new MatrixMxNf(rows.length, c1 - c0 + 1);
-
-		try {
-			for (int i = 0; i < rows.length; i++) {
-				for (int j = c0; j <= c1; j++) {
-					B.set(i, j - c0, A.get(rows[i], j));
-				}
-			}
-		} catch (ArrayIndexOutOfBoundsException e) {
-			throw new ArrayIndexOutOfBoundsException("Submatrix indices");
-		}
-
-		return (B);
-	}
-
 	/**
 	 * Solves A * X = B.
 	 * 
@@ -296,6 +432,24 @@ public class LUDecomposition {
 	 * @exception  RuntimeException  Matrix is singular.
 	 */
 	public final MatrixMxNf solve(MatrixMxNf B) {
+		final MatrixMxNf X = new MatrixMxNf(m, B.getNumCols());
+
+		solve(B, X);
+
+		return (X);
+	}
+
+	/**
+	 * Solves A * X = B without allocating any memory (once the internal scratch space
+	 * is big enough for B). B and result may be the same instance.
+	 * 
+	 * @param  B   A Matrix with as many rows as A and any number of columns.
+	 * @param  result   the matrix to write X to, so that L*U*X = B(piv,:) (same size as B)
+	 * 
+	 * @exception  IllegalArgumentException Matrix row dimensions must agree.
+	 * @exception  RuntimeException  Matrix is singular.
+	 */
+	public final void solve(MatrixMxNf B, MatrixMxNf result) {
 		if (B.getNumRows() != m) {
 			throw new IllegalArgumentException("Matrix row dimensions must agree.");
 		}
@@ -303,30 +457,58 @@ public class LUDecomposition {
 			throw new RuntimeException("Matrix is singular.");
 		}
 
-		// Copy right hand side with pivoting
 		final int nx = B.getNumCols();
-		final MatrixMxNf X = copySubMatrix(B, piv, 0, nx - 1);
+
+		if ((result.getNumRows() != m) || (result.getNumCols() != nx)) {
+			throw new IllegalArgumentException("Result Matrix does not match required dimensions (" + m + " x " + nx + ").");
+		}
+
+		if ((work == null) || (work.length < m * nx)) {
+			this.work = new float[m * nx];
+		}
+
+		final float[] X = work;
+
+		// Copy right hand side with pivoting
+		for (int i = 0; i < m; i++) {
+			final int p = piv[i];
+
+			for (int j = 0; j < nx; j++) {
+				X[i * nx + j] = B.get(p, j);
+			}
+		}
 
 		// Solve L * Y = B(piv, :)
 		for (int k = 0; k < n; k++) {
+			final int rowK = k * nx;
+
 			for (int i = k + 1; i < n; i++) {
+				final float l = LU[i * n + k];
+				final int rowI = i * nx;
+
 				for (int j = 0; j < nx; j++) {
-					X.sub(i, j, X.get(k, j) * LU.get(i, k));
+					X[rowI + j] -= X[rowK + j] * l;
 				}
 			}
 		}
 		// Solve U * X = Y;
 		for (int k = n - 1; k >= 0; k--) {
+			final float d = LU[k * n + k];
+			final int rowK = k * nx;
+
 			for (int j = 0; j < nx; j++) {
-				X.div(k, j, LU.get(k, k));
+				X[rowK + j] /= d;
 			}
 			for (int i = 0; i < k; i++) {
+				final float u = LU[i * n + k];
+				final int rowI = i * nx;
+
 				for (int j = 0; j < nx; j++) {
-					X.sub(i, j, X.get(k, j) * LU.get(i, k));
+					X[rowI + j] -= X[rowK + j] * u;
 				}
 			}
 		}
 
-		return (X);
+		result.setRowMajor(X, 0);
 	}
 }
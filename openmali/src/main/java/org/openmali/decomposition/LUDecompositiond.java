@@ -0,0 +1,514 @@
+/**
+ * Copyright (c) 2007-2009, OpenMaLi Project Group all rights reserved.
+ * 
+ * Portions based on the Sun's javax.vecmath interface, Copyright by Sun
+ * Microsystems or Kenji Hiranabe's alternative GC-cheap implementation.
+ * Many thanks to the developers.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the 'OpenMaLi Project Group' nor the names of its
+ * contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) A
+ * RISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE
+ */
+package org.openmali.decomposition;
+
+import java.util.concurrent.ExecutorService;
+
+import org.openmali.vecmath2.MatrixMxNd;
+
+/**
+ * LU Decomposition.
+ * <p>
+ * For an m-by-n matrix A with m >= n, the LU decomposition is an m-by-n
+ * unit lower triangular matrix L, an n-by-n upper triangular matrix U,
+ * and a permutation vector piv of length m so that A(piv,:) = L*U.
+ * If m < n, then L is m-by-m and U is m-by-n.
+ * </p>
+ * <p>
+' * The LU decompostion with pivoting always exists, even if the matrix is
+ * singular, so the constructor will never fail.  The primary use of the
+ * LU decomposition is in the solution of square systems of simultaneous
+ * linear equations.  This will fail if isNonsingular() returns false.
+ * </p>
+ * <p>
+ * An instance can be reused for any number of matrices by calling
+ * {@link #decompose(MatrixMxNd)}. The internal storage is only reallocated,
+ * if a matrix is bigger than any matrix decomposed before. So repeated
+ * decompose() and {@link #solve(MatrixMxNd, MatrixMxNd)} calls don't
+ * create any garbage.
+ * </p>
+ * 
+ * @author <a href="http://math.nist.gov/javanumerics/jama/">JAMA</a>
+ */
+public class LUDecompositiond {
+	/**
+	 * Array for internal storage of decomposition (row major).
+	 * 
+	 * @serial internal array storage.
+	 */
+	private double[] LU;
+
+	/**
+	 * Row and column dimensions, and pivot sign.
+	 * 
+	 * @serial column dimension.
+	 * @serial row dimension.
+	 * @serial pivot sign.
+	 */
+	private int m, n, pivsign;
+
+	/**
+	 * Internal storage of pivot vector.
+	 * @serial pivot vector.
+	 */
+	private int[] piv;
+
+	/**
+	 * Scratch space for the right hand side in solve().
+	 */
+	private double[] work = null;
+
+	/**
+	 * Creates an empty LU Decomposition for matrices of up to m x n elements.
+	 * Use {@link #decompose(MatrixMxNd)} to decompose a matrix.
+	 * 
+	 * @param  m   the (initial) row dimension
+	 * @param  n   the (initial) column dimension
+	 */
+	public LUDecompositiond(int m, int n) {
+		if ((m < 0) || (n < 0)) {
+			throw new IllegalArgumentException("Matrix dimensions must not be negative.");
+		}
+
+		this.m = m;
+		this.n = n;
+		this.pivsign = 1;
+		this.LU = new double[m * n];
+		this.piv = new int[m];
+
+		for (int i = 0; i < m; i++) {
+			piv[i] = i;
+		}
+	}
+
+	/**
+	 * LU Decomposition.
+	 * 
+	 * @param  A   Rectangular matrix
+	 */
+	public LUDecompositiond(MatrixMxNd A) {
+		this(A, null, DecompositionKernels.DEFAULT_PARALLEL_THRESHOLD);
+	}
+
+	/**
+	 * LU Decomposition. The trailing updates are split into parallel bands
+	 * of rows, while the remaining submatrix is at least 128 x 128.
+	 * 
+	 * @param  A   Rectangular matrix
+	 * @param  executor   the executor to run the bands in (may be <code>null</code>)
+	 */
+	public LUDecompositiond(MatrixMxNd A, ExecutorService executor) {
+		this(A, executor, DecompositionKernels.DEFAULT_PARALLEL_THRESHOLD);
+	}
+
+	/**
+	 * LU Decomposition. The trailing updates are split into parallel bands
+	 * of rows, while the remaining submatrix is at least parallelThreshold x parallelThreshold.
+	 * 
+	 * @param  A   Rectangular matrix
+	 * @param  executor   the executor to run the bands in (may be <code>null</code>)
+	 * @param  parallelThreshold   the minimum dimension for parallel updates
+	 */
+	public LUDecompositiond(MatrixMxNd A, ExecutorService executor, int parallelThreshold) {
+		this(A.getNumRows(), A.getNumCols());
+
+		decompose(A, executor, parallelThreshold);
+	}
+
+	/**
+	 * Decomposes the given matrix, replacing the previous decomposition.
+	 * The internal storage is reused.
+	 * 
+	 * @param  A   Rectangular matrix
+	 */
+	public final void decompose(MatrixMxNd A) {
+		decompose(A, null, DecompositionKernels.DEFAULT_PARALLEL_THRESHOLD);
+	}
+
+	/**
+	 * Decomposes the given matrix, replacing the previous decomposition.
+	 * The internal storage is reused.
+	 * 
+	 * @param  A   Rectangular matrix
+	 * @param  executor   the executor to run the bands in (may be <code>null</code>)
+	 * @param  parallelThreshold   the minimum dimension for parallel updates
+	 */
+	public final void decompose(MatrixMxNd A, ExecutorService executor, int parallelThreshold) {
+		this.m = A.getNumRows();
+		this.n = A.getNumCols();
+
+		if (LU.length < m * n) {
+			this.LU = new double[m * n];
+		}
+		if (piv.length < m) {
+			this.piv = new int[m];
+		}
+
+		for (int i = 0; i < m; i++) {
+			piv[i] = i;
+		}
+
+		this.pivsign = 1;
+
+		A.getRowMajor(LU, 0);
+
+		factor(LU, executor, parallelThreshold);
+	}
+
+	/**
+	 * Blocked, right-looking Gaussian elimination with partial pivoting on the
+	 * row major array. Each panel of {@link DecompositionKernels#BLOCK_SIZE} columns
+	 * is factored column by column, then the block row of U right of it is solved
+	 * and the trailing submatrix is updated row by row.
+	 */
+	private void factor(final double[] lu, ExecutorService executor, int parallelThreshold) {
+		final int m = this.m;
+		final int n = this.n;
+		final int kmax = Math.min(m, n);
+
+		for (int k0 = 0; k0 < kmax; k0 += DecompositionKernels.BLOCK_SIZE) {
+			final int k1 = Math.min(k0 + DecompositionKernels.BLOCK_SIZE, kmax);
+
+			// Factor the panel.
+			for (int j = k0; j < k1; j++) {
+				// Find pivot and exchange if necessary.
+				int p = j;
+				double max = Math.abs(lu[j * n + j]);
+				for (int i = j + 1; i < m; i++) {
+					final double v = Math.abs(lu[i * n + j]);
+					if (v > max) {
+						max = v;
+						p = i;
+					}
+				}
+
+				if (p != j) {
+					final int rowP = p * n;
+					final int rowJ = j * n;
+					for (int k = 0; k < n; k++) {
+						final double t = lu[rowP + k];
+						lu[rowP + k] = lu[rowJ + k];
+						lu[rowJ + k] = t;
+					}
+
+					final int k = piv[p];
+					piv[p] = piv[j];
+					piv[j] = k;
+					pivsign = -pivsign;
+				}
+
+				// Compute multipliers and eliminate the j-th column inside the panel.
+				final double pivot = lu[j * n + j];
+				if (pivot != 0d) {
+					for (int i = j + 1; i < m; i++) {
+						lu[i * n + j] /= pivot;
+					}
+				}
+
+				for (int i = j + 1; i < m; i++) {
+					final double l = lu[i * n + j];
+					final int rowI = i * n;
+					final int rowJ = j * n;
+
+					for (int c = j + 1; c < k1; c++) {
+						lu[rowI + c] -= l * lu[rowJ + c];
+					}
+				}
+			}
+
+			if (k1 >= n)
+				continue;
+
+			// Solve the block row of U (unit lower triangular panel).
+			for (int i = k0 + 1; i < k1; i++) {
+				final int rowI = i * n;
+
+				for (int k = k0; k < i; k++) {
+					final double l = lu[rowI + k];
+					final int rowK = k * n;
+
+					for (int c = k1; c < n; c++) {
+						lu[rowI + c] -= l * lu[rowK + c];
+					}
+				}
+			}
+
+			// Update the trailing submatrix.
+			if (k1 < m) {
+				final int panelBegin = k0;
+				final int panelEnd = k1;
+				final boolean parallel = DecompositionKernels.isParallel(executor, parallelThreshold, m - k1, n - k1);
+
+				if (!parallel) {
+					updateTrailing(lu, n, panelBegin, panelEnd, k1, m);
+				} else {
+					DecompositionKernels.runBands(k1, m, parallel, executor, new DecompositionKernels.BandTask() {
+						@Override
+						public void run(int begin, int end) {
+							updateTrailing(lu, n, panelBegin, panelEnd, begin, end);
+						}
+					});
+				}
+			}
+		}
+	}
+
+	/**
+	 * Subtracts the product of the panel columns and the block row of U
+	 * from the rows begin to end - 1 of the trailing submatrix.
+	 */
+	private static void updateTrailing(double[] lu, int n, int panelBegin, int panelEnd, int begin, int end) {
+		for (int i = begin; i < end; i++) {
+			final int rowI = i * n;
+
+			for (int k = panelBegin; k < panelEnd; k++) {
+				final double l = lu[rowI + k];
+				final int rowK = k * n;
+
+				for (int c = panelEnd; c < n; c++) {
+					lu[rowI + c] -= l * lu[rowK + c];
+				}
+			}
+		}
+	}
+
+	/*
+	 * ------------------------ Temporary, experimental code.
+	 * ------------------------ *\
+	 * 
+	 * \** LU Decomposition, computed by Gaussian elimination. <P> This
+	 * constructor computes L and U with the "daxpy"-based elimination algorithm
+	 * used in LINPACK and MATLAB. In Java, we suspect the dot-product, Crout
+	 * algorithm will be faster. We have temporarily included this constructor
+	 * until timing experiments confirm this suspicion. <P>
+	 * 
+	 * @param A Rectangular matrix
+	 * 
+	 * @param linpackflag Use Gaussian elimination. Actual value ignored.
+	 * 
+	 * @return Structure to access L, U and piv.\
+	 * 
+	 * public LUDecompositiond (Matrix A, int linpackflag) { // Initialize. LU =
+	 * A.getArrayCopy(); m = A.getRowDimension(); n = A.getColumnDimension();
+	 * piv = new int[m]; for (int i = 0; i < m; i++) { piv[i] = i; } pivsign =
+	 * 1; // Main loop. for (int k = 0; k < n; k++) { // Find pivot. int p = k;
+	 * for (int i = k+1; i < m; i++) { if (Math.abs(LU[i][k]) >
+	 * Math.abs(LU[p][k])) { p = i; } } // Exchange if necessary. if (p != k) {
+	 * for (int j = 0; j < n; j++) { double t = LU[p][j]; LU[p][j] = LU[k][j];
+	 * LU[k][j] = t; } int t = piv[p]; piv[p] = piv[k]; piv[k] = t; pivsign =
+	 * -pivsign; } // Compute multipliers and eliminate k-th column. if
+	 * (LU[k][k] != 0.0) { for (int i = k+1; i < m; i++) { LU[i][k] /= LU[k][k];
+	 * for (int j = k+1; j < n; j++) { LU[i][j] -= LU[i][k]*LU[k][j]; } } } } }
+	 * 
+	 * \* ------------------------ End of temporary code.
+	 * ------------------------
+	 */
+
+	/*
+	 * ------------------------ Public Methods ------------------------
+	 */
+
+	/**
+	 * Is the matrix nonsingular?
+	 * 
+	 * @return true if U, and hence A, is nonsingular.
+	 */
+	public final boolean isNonsingular() {
+		for (int j = 0; j < n; j++) {
+			if (LU[j * n + j] == 0d)
+				return (false);
+		}
+
+		return (true);
+	}
+
+	/**
+	 * @return lower triangular factor.
+	 */
+	public MatrixMxNd getL() {
+		MatrixMxNd L = new MatrixMxNd(m, n);
+
+		for (int i = 0; i < m; i++) {
+			for (int j = 0; j < n; j++) {
+				if (i > j) {
+					L.set(i, j, LU[i * n + j]);
+				} else if (i == j) {
+					L.set(i, j, 1.0d);
+				} else {
+					L.set(i, j, 0.0d);
+				}
+			}
+		}
+
+		return (L);
+	}
+
+	/**
+	 * @return upper triangular factor.
+	 */
+	public MatrixMxNd getU() {
+		MatrixMxNd U = new MatrixMxNd(n, n);
+
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				if (i <= j) {
+					U.set(i, j, LU[i * n + j]);
+				} else {
+					U.set(i, j, 0.0d);
+				}
+			}
+		}
+
+		return (U);
+	}
+
+	/**
+	 * @return pivot permutation vector
+	 */
+	public final int[] getPivot() {
+		final int[] p = new int[m];
+
+		System.arraycopy(this.piv, 0, p, 0, m);
+
+		return (p);
+	}
+
+	/**
+	 * @return     determinant(A)
+	 * @exception  IllegalArgumentException  Matrix must be square
+	 */
+	public final double det() {
+		if (m != n) {
+			throw new IllegalArgumentException("Matrix must be square.");
+		}
+
+		double d = (double) pivsign;
+		for (int j = 0; j < n; j++) {
+			d *= LU[j * n + j];
+		}
+
+		return (d);
+	}
+
+	/**
+	 * Solves A * X = B.
+	 * 
+	 * @param  B   A Matrix with as many rows as A and any number of columns.
+	 * 
+	 * @return     X so that L*U*X = B(piv,:)
+	 * 
+	 * @exception  IllegalArgumentException Matrix row dimensions must agree.
+	 * @exception  RuntimeException  Matrix is singular.
+	 */
+	public final MatrixMxNd solve(MatrixMxNd B) {
+		final MatrixMxNd X = new MatrixMxNd(m, B.getNumCols());
+
+		solve(B, X);
+
+		return (X);
+	}
+
+	/**
+	 * Solves A * X = B without allocating any memory (once the internal scratch space
+	 * is big enough for B). B and result may be the same instance.
+	 * 
+	 * @param  B   A Matrix with as many rows as A and any number of columns.
+	 * @param  result   the matrix to write X to, so that L*U*X = B(piv,:) (same size as B)
+	 * 
+	 * @exception  IllegalArgumentException Matrix row dimensions must agree.
+	 * @exception  RuntimeException  Matrix is singular.
+	 */
+	public final void solve(MatrixMxNd B, MatrixMxNd result) {
+		if (B.getNumRows() != m) {
+			throw new IllegalArgumentException("Matrix row dimensions must agree.");
+		}
+		if (!this.isNonsingular()) {
+			throw new RuntimeException("Matrix is singular.");
+		}
+
+		final int nx = B.getNumCols();
+
+		if ((result.getNumRows() != m) || (result.getNumCols() != nx)) {
+			throw new IllegalArgumentException("Result Matrix does not match required dimensions (" + m + " x " + nx + ").");
+		}
+
+		if ((work == null) || (work.length < m * nx)) {
+			this.work = new double[m * nx];
+		}
+
+		final double[] X = work;
+
+		// Copy right hand side with pivoting
+		for (int i = 0; i < m; i++) {
+			final int p = piv[i];
+
+			for (int j = 0; j < nx; j++) {
+				X[i * nx + j] = B.get(p, j);
+			}
+		}
+
+		// Solve L * Y = B(piv, :)
+		for (int k = 0; k < n; k++) {
+			final int rowK = k * nx;
+
+			for (int i = k + 1; i < n; i++) {
+				final double l = LU[i * n + k];
+				final int rowI = i * nx;
+
+				for (int j = 0; j < nx; j++) {
+					X[rowI + j] -= X[rowK + j] * l;
+				}
+			}
+		}
+		// Solve U * X = Y;
+		for (int k = n - 1; k >= 0; k--) {
+			final double d = LU[k * n + k];
+			final int rowK = k * nx;
+
+			for (int j = 0; j < nx; j++) {
+				X[rowK + j] /= d;
+			}
+			for (int i = 0; i < k; i++) {
+				final double u = LU[i * n + k];
+				final int rowI = i * nx;
+
+				for (int j = 0; j < nx; j++) {
+					X[rowI + j] -= X[rowK + j] * u;
+				}
+			}
+		}
+
+		result.setRowMajor(X, 0);
+	}
+}
@@ -33,6 +33,8 @@
  */
 package org.openmali.decomposition;
 
+import java.util.concurrent.ExecutorService;
+
 import org.openmali.FastMath;
 import org.openmali.vecmath2.MatrixMxNf;
 
@@ -51,15 +53,23 @@ import org.openmali.vecmath2.MatrixMxNf;
  * returns false.
  * </p>
  * 
+ * <p>
+ * An instance can be reused for any number of matrices by calling
+ * {@link #decompose(MatrixMxNf)}. The internal storage is only reallocated,
+ * if a matrix is bigger than any matrix decomposed before. So repeated
+ * decompose() and {@link #solve(MatrixMxNf, MatrixMxNf)} calls with a
+ * result matrix don't create any garbage.
+ * </p>
+ * 
  * @author <a href="http://math.nist.gov/javanumerics/jama/">JAMA</a>
  */
 public class QRDecomposition {
 	/**
-	 * Array for internal storage of decomposition.
+	 * Array for internal storage of decomposition (row major).
 	 * 
 	 * @serial internal array storage.
 	 */
-	private final MatrixMxNf QR;
+	private float[] QR;
 
 	/**
 	 * Row and column dimensions.
@@ -67,12 +77,41 @@ public class QRDecomposition {
 	 * @serial column dimension.
 	 * @serial row dimension.
 	*/
-	private final int m, n;
+	private int m, n;
 
 	/** Array for internal storage of diagonal of R.
 	 *@serial diagonal of R.
 	 */
-	private final float[] Rdiag;
+	private float[] Rdiag;
+
+	/**
+	 * Scratch space for the column sums of the reflections.
+	 */
+	private float[] sums;
+
+	/**
+	 * Scratch space for the right hand side in solve().
+	 */
+	private float[] work = null;
+
+	/**
+	 * Creates an empty QR Decomposition for matrices of up to m x n elements.
+	 * Use {@link #decompose(MatrixMxNf)} to decompose a matrix.
+	 * 
+	 * @param m the (initial) row dimension
+	 * @param n the (initial) column dimension
+	 */
+	public QRDecomposition(int m, int n) {
+		if ((m < 0) || (n < 0)) {
+			throw new IllegalArgumentException("Matrix dimensions must not be negative.");
+		}
+
+		this.m = m;
+		this.n = n;
+		this.QR = new float[m * n];
+		this.Rdiag = new float[n];
+		this.sums = new float[n];
+	}
 
 	/**
 	 * QR Decomposition, computed by Householder reflections.
@@ -80,41 +119,93 @@ public class QRDecomposition {
 	 * @param A Rectangular matrix
 	 */
 	public QRDecomposition(MatrixMxNf A) {
+		this(A, null, DecompositionKernels.DEFAULT_PARALLEL_THRESHOLD);
+	}
+
+	/**
+	 * QR Decomposition, computed by Householder reflections.
+	 * The reflections are applied to parallel bands of columns,
+	 * while the remaining submatrix is at least 128 x 128.
+	 * 
+	 * @param A Rectangular matrix
+	 * @param executor the executor to run the bands in (may be <code>null</code>)
+	 */
+	public QRDecomposition(MatrixMxNf A, ExecutorService executor) {
+		this(A, executor, DecompositionKernels.DEFAULT_PARALLEL_THRESHOLD);
+	}
+
+	/**
+	 * QR Decomposition, computed by Householder reflections.
+	 * The reflections are applied to parallel bands of columns,
+	 * while the remaining submatrix is at least parallelThreshold x parallelThreshold.
+	 * 
+	 * @param A Rectangular matrix
+	 * @param executor the executor to run the bands in (may be <code>null</code>)
+	 * @param parallelThreshold the minimum dimension for parallel updates
+	 */
+	public QRDecomposition(MatrixMxNf A, ExecutorService executor, int parallelThreshold) {
+		this(A.getNumRows(), A.getNumCols());
+
+		decompose(A, executor, parallelThreshold);
+	}
+
+	/**
+	 * Decomposes the given matrix, replacing the previous decomposition.
+	 * The internal storage is reused.
+	 * 
+	 * @param A Rectangular matrix
+	 */
+	public final void decompose(MatrixMxNf A) {
+		decompose(A, null, DecompositionKernels.DEFAULT_PARALLEL_THRESHOLD);
+	}
+
+	/**
+	 * Decomposes the given matrix, replacing the previous decomposition.
+	 * The internal storage is reused.
+	 * 
+	 * @param A Rectangular matrix
+	 * @param executor the executor to run the bands in (may be <code>null</code>)
+	 * @param parallelThreshold the minimum dimension for parallel updates
+	 */
+	public final void decompose(MatrixMxNf A, ExecutorService executor, int parallelThreshold) {
 		// Initialize.
-		this.QR = new MatrixMxNf(A);
 		this.m = A.getNumRows();
 		this.n = A.getNumCols();
-		this.Rdiag = new float[n];
+
+		if (QR.length < m * n) {
+			this.QR = new float[m * n];
+		}
+		if (Rdiag.length < n) {
+			this.Rdiag = new float[n];
+		}
+		if (sums.length < n) {
+			this.sums = new float[n];
+		}
+
+		final float[] qr = QR;
+		A.getRowMajor(qr, 0);
 
 		// Main loop.
 		for (int k = 0; k < n; k++) {
 			// Compute 2-norm of k-th column without under/overflow.
 			float nrm = 0f;
 			for (int i = k; i < m; i++) {
-				nrm = FastMath.hypot(nrm, QR.get(i, k));
+				nrm = FastMath.hypot(nrm, qr[i * n + k]);
 			}
 
 			if (nrm != 0f) {
 				// Form k-th Householder vector.
-				if (QR.get(k, k) < 0f) {
+				if (qr[k * n + k] < 0f) {
 					nrm = -nrm;
 				}
 				for (int i = k; i < m; i++) {
-					QR.div(i, k, nrm);
+					qr[i * n + k] /= nrm;
 				}
-				QR.add(k, k, 1.0f);
+				qr[k * n + k] += 1.0f;
 
 				// Apply transformation to remaining columns.
-				for (int j = k + 1; j < n; j++) {
-					float s = 0.0f;
-					for (int i = k; i < m; i++) {
-						s += QR.get(i, k) * QR.get(i, j);
-					}
-					s = -s / QR.get(k, k);
-					for (int i = k; i < m; i++) {
-						QR.add(i, j, s * QR.get(i, k));
-					}
-				}
+				final boolean parallel = DecompositionKernels.isParallel(executor, parallelThreshold, m - k, n - k - 1);
+				DecompositionKernels.applyReflector(qr, n, k, qr, n, k, m, k + 1, n, qr[k * n + k], sums, parallel, executor);
 			}
 
 			Rdiag[k] = -nrm;
@@ -146,7 +237,7 @@ public class QRDecomposition {
 		for (int i = 0; i < m; i++) {
 			for (int j = 0; j < n; j++) {
 				if (i >= j) {
-					H.set(i, j, QR.get(i, j));
+					H.set(i, j, QR[i * n + j]);
 				} else {
 					H.set(i, j, 0f);
 				}
@@ -165,7 +256,7 @@ public class QRDecomposition {
 		for (int i = 0; i < n; i++) {
 			for (int j = 0; j < n; j++) {
 				if (i < j) {
-					R.set(i, j, QR.get(i, j));
+					R.set(i, j, QR[i * n + j]);
 				} else if (i == j) {
 					R.set(i, j, Rdiag[i]);
 				} else {
@@ -192,16 +283,16 @@ public class QRDecomposition {
 			Q.set(k, k, 1.0f);
 
 			for (int j = k; j < n; j++) {
-				if (QR.get(k, k) != 0f) {
+				if (QR[k * n + k] != 0f) {
 					float s = 0.0f;
 					for (int i = k; i < m; i++) {
-						s += QR.get(i, k) * Q.get(i, j);
+						s += QR[i * n + k] * Q.get(i, j);
 					}
 
-					s = -s / QR.get(k, k);
+					s = -s / QR[k * n + k];
 
 					for (int i = k; i < m; i++) {
-						Q.add(i, j, s * QR.get(i, k));
+						Q.add(i, j, s * QR[i * n + k]);
 					}
 				}
 			}
@@ -220,6 +311,23 @@ public class QRDecomposition {
 	 * @exception  IllegalArgumentException  Matrix row dimensions must agree.
 	 * @exception  RuntimeException  Matrix is rank deficient.
 	 */
+	public final MatrixMxNf solve(MatrixMxNf B) {
+		return (solve(B, null));
+	}
+
+	/**
+	 * Least squares solution of A * X = B. No memory is allocated, if result is not <code>null</code>
+	 * (once the internal scratch space is big enough for B). B and result may be the same instance,
+	 * if A is square.
+	 * 
+	 * @param B    A Matrix with as many rows as A and any number of columns.
+	 * @param result the n x B.getNumCols() matrix to write X to (may be <code>null</code>)
+	 * 
+	 * @return     X that minimizes the two norm of Q*R*X-B (result, or a new matrix if result is <code>null</code>).
+	 * 
+	 * @exception  IllegalArgumentException  Matrix row dimensions must agree.
+	 * @exception  RuntimeException  Matrix is rank deficient.
+	 */
 	public final MatrixMxNf solve(MatrixMxNf B, MatrixMxNf result) {
 		if (B.getNumRows() != m) {
 			throw new IllegalArgumentException("Matrix row dimensions must agree.");
@@ -228,46 +336,52 @@ public class QRDecomposition {
 			throw new RuntimeException("Matrix is rank deficient.");
 		}
 
-		// Copy right hand side
 		final int nx = B.getNumCols();
-		final MatrixMxNf X = new MatrixMxNf(B);
 
-		// Compute Y = transpose(Q) * B
-		for (int k = 0; k < n; k++) {
-			for (int j = 0; j < nx; j++) {
-				float s = 0.0f;
-				for (int i = k; i < m; i++) {
-					s += QR.get(i, k) * X.get(i, j);
-				}
+		if (result == null) {
+			result = new MatrixMxNf(n, nx);
+		} else if ((result.getNumRows() != n) || (result.getNumCols() != nx)) {
+			throw new IllegalArgumentException("Result Matrix does not match required dimensions (" + n + " x " + nx + ").");
+		}
 
-				s = -s / QR.get(k, k);
+		if ((work == null) || (work.length < m * nx)) {
+			this.work = new float[m * nx];
+		}
+		if (sums.length < nx) {
+			this.sums = new float[nx];
+		}
 
-				for (int i = k; i < m; i++) {
-					X.add(i, j, s * QR.get(i, k));
-				}
-			}
+		// Copy right hand side
+		final float[] X = work;
+		B.getRowMajor(X, 0);
+
+		// Compute Y = transpose(Q) * B
+		for (int k = 0; k < n; k++) {
+			DecompositionKernels.applyReflector(QR, n, k, X, nx, k, m, 0, nx, QR[k * n + k], sums, false, null);
 		}
 
 		// Solve R * X = Y;
 		for (int k = n - 1; k >= 0; k--) {
+			final float d = Rdiag[k];
+			final int rowK = k * nx;
+
 			for (int j = 0; j < nx; j++) {
-				X.div(k, j, Rdiag[k]);
+				X[rowK + j] /= d;
 			}
 
 			for (int i = 0; i < k; i++) {
+				final float r = QR[i * n + k];
+				final int rowI = i * nx;
+
 				for (int j = 0; j < nx; j++) {
-					X.sub(i, j, X.get(k, j) * QR.get(i, k));
+					X[rowI + j] -= X[rowK + j] * r;
 				}
 			}
 		}
 
-		// return ( new MatrixMxNf( X, n, nx ).getMatrix( 0, n - 1, 0, nx - 1 )
-		// );
-
-		MatrixMxNf result2 = X.getSharedSubMatrix(0, 0, n - 1, nx - 1);
-		if (result != null)
-			result.set(result2);
+		// The first n rows hold X.
+		result.setRowMajor(X, 0);
 
-		return (result2);
+		return (result);
 	}
 }
@@ -0,0 +1,387 @@
+/**
+ * Copyright (c) 2007-2009, OpenMaLi Project Group all rights reserved.
+ * 
+ * Portions based on the Sun's javax.vecmath interface, Copyright by Sun
+ * Microsystems or Kenji Hiranabe's alternative GC-cheap implementation.
+ * Many thanks to the developers.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the 'OpenMaLi Project Group' nor the names of its
+ * contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) A
+ * RISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE
+ */
+package org.openmali.decomposition;
+
+import java.util.concurrent.ExecutorService;
+
+import org.openmali.FastMathd;
+import org.openmali.vecmath2.MatrixMxNd;
+
+/**
+ * QR Decomposition.
+ * <p>
+ * For an m-by-n matrix A with m >= n, the QR decomposition is an m-by-n
+ * orthogonal matrix Q and an n-by-n upper triangular matrix R so that
+ * A = Q*R.
+ * </p>
+ * <p>
+ * The QR decompostion always exists, even if the matrix does not have
+ * full rank, so the constructor will never fail.  The primary use of the
+ * QR decomposition is in the least squares solution of nonsquare systems
+ * of simultaneous linear equations.  This will fail if isFullRank()
+ * returns false.
+ * </p>
+ * 
+ * <p>
+ * An instance can be reused for any number of matrices by calling
+ * {@link #decompose(MatrixMxNd)}. The internal storage is only reallocated,
+ * if a matrix is bigger than any matrix decomposed before. So repeated
+ * decompose() and {@link #solve(MatrixMxNd, MatrixMxNd)} calls with a
+ * result matrix don't create any garbage.
+ * </p>
+ * 
+ * @author <a href="http://math.nist.gov/javanumerics/jama/">JAMA</a>
+ */
+public class QRDecompositiond {
+	/**
+	 * Array for internal storage of decomposition (row major).
+	 * 
+	 * @serial internal array storage.
+	 */
+	private double[] QR;
+
+	/**
+	 * Row and column dimensions.
+	 * 
+	 * @serial column dimension.
+	 * @serial row dimension.
+	*/
+	private int m, n;
+
+	/** Array for internal storage of diagonal of R.
+	 *@serial diagonal of R.
+	 */
+	private double[] Rdiag;
+
+	/**
+	 * Scratch space for the column sums of the reflections.
+	 */
+	private double[] sums;
+
+	/**
+	 * Scratch space for the right hand side in solve().
+	 */
+	private double[] work = null;
+
+	/**
+	 * Creates an empty QR Decomposition for matrices of up to m x n elements.
+	 * Use {@link #decompose(MatrixMxNd)} to decompose a matrix.
+	 * 
+	 * @param m the (initial) row dimension
+	 * @param n the (initial) column dimension
+	 */
+	public QRDecompositiond(int m, int n) {
+		if ((m < 0) || (n < 0)) {
+			throw new IllegalArgumentException("Matrix dimensions must not be negative.");
+		}
+
+		this.m = m;
+		this.n = n;
+		this.QR = new double[m * n];
+		this.Rdiag = new double[n];
+		this.sums = new double[n];
+	}
+
+	/**
+	 * QR Decomposition, computed by Householder reflections.
+	 * 
+	 * @param A Rectangular matrix
+	 */
+	public QRDecompositiond(MatrixMxNd A) {
+		this(A, null, DecompositionKernels.DEFAULT_PARALLEL_THRESHOLD);
+	}
+
+	/**
+	 * QR Decomposition, computed by Householder reflections.
+	 * The reflections are applied to parallel bands of columns,
+	 * while the remaining submatrix is at least 128 x 128.
+	 * 
+	 * @param A Rectangular matrix
+	 * @param executor the executor to run the bands in (may be <code>null</code>)
+	 */
+	public QRDecompositiond(MatrixMxNd A, ExecutorService executor) {
+		this(A, executor, DecompositionKernels.DEFAULT_PARALLEL_THRESHOLD);
+	}
+
+	/**
+	 * QR Decomposition, computed by Householder reflections.
+	 * The reflections are applied to parallel bands of columns,
+	 * while the remaining submatrix is at least parallelThreshold x parallelThreshold.
+	 * 
+	 * @param A Rectangular matrix
+	 * @param executor the executor to run the bands in (may be <code>null</code>)
+	 * @param parallelThreshold the minimum dimension for parallel updates
+	 */
+	public QRDecompositiond(MatrixMxNd A, ExecutorService executor, int parallelThreshold) {
+		this(A.getNumRows(), A.getNumCols());
+
+		decompose(A, executor, parallelThreshold);
+	}
+
+	/**
+	 * Decomposes the given matrix, replacing the previous decomposition.
+	 * The internal storage is reused.
+	 * 
+	 * @param A Rectangular matrix
+	 */
+	public final void decompose(MatrixMxNd A) {
+		decompose(A, null, DecompositionKernels.DEFAULT_PARALLEL_THRESHOLD);
+	}
+
+	/**
+	 * Decomposes the given matrix, replacing the previous decomposition.
+	 * The internal storage is reused.
+	 * 
+	 * @param A Rectangular matrix
+	 * @param executor the executor to run the bands in (may be <code>null</code>)
+	 * @param parallelThreshold the minimum dimension for parallel updates
+	 */
+	public final void decompose(MatrixMxNd A, ExecutorService executor, int parallelThreshold) {
+		// Initialize.
+		this.m = A.getNumRows();
+		this.n = A.getNumCols();
+
+		if (QR.length < m * n) {
+			this.QR = new double[m * n];
+		}
+		if (Rdiag.length < n) {
+			this.Rdiag = new double[n];
+		}
+		if (sums.length < n) {
+			this.sums = new double[n];
+		}
+
+		final double[] qr = QR;
+		A.getRowMajor(qr, 0);
+
+		// Main loop.
+		for (int k = 0; k < n; k++) {
+			// Compute 2-norm of k-th column without under/overflow.
+			double nrm = 0d;
+			for (int i = k; i < m; i++) {
+				nrm = FastMathd.hypot(nrm, qr[i * n + k]);
+			}
+
+			if (nrm != 0d) {
+				// Form k-th Householder vector.
+				if (qr[k * n + k] < 0d) {
+					nrm = -nrm;
+				}
+				for (int i = k; i < m; i++) {
+					qr[i * n + k] /= nrm;
+				}
+				qr[k * n + k] += 1.0d;
+
+				// Apply transformation to remaining columns.
+				final boolean parallel = DecompositionKernels.isParallel(executor, parallelThreshold, m - k, n - k - 1);
+				DecompositionKernels.applyReflector(qr, n, k, qr, n, k, m, k + 1, n, qr[k * n + k], sums, parallel, executor);
+			}
+
+			Rdiag[k] = -nrm;
+		}
+	}
+
+	/**
+	 * Is the matrix full rank?
+	 * 
+	 * @return true if R, and hence A, has full rank.
+	 */
+	public final boolean isFullRank() {
+		for (int j = 0; j < n; j++) {
+			if (Rdiag[j] == 0d)
+				return (false);
+		}
+
+		return (true);
+	}
+
+	/**
+	 * Returns the Householder vectors.
+	 * 
+	 * @return Lower trapezoidal matrix whose columns define the reflections
+	 */
+	public MatrixMxNd getH() {
+		MatrixMxNd H = new MatrixMxNd(m, n);
+
+		for (int i = 0; i < m; i++) {
+			for (int j = 0; j < n; j++) {
+				if (i >= j) {
+					H.set(i, j, QR[i * n + j]);
+				} else {
+					H.set(i, j, 0d);
+				}
+			}
+		}
+
+		return (H);
+	}
+
+	/**
+	 * @return the upper triangular factor.
+	 */
+	public MatrixMxNd getR() {
+		MatrixMxNd R = new MatrixMxNd(n, n);
+
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				if (i < j) {
+					R.set(i, j, QR[i * n + j]);
+				} else if (i == j) {
+					R.set(i, j, Rdiag[i]);
+				} else {
+					R.set(i, j, 0d);
+				}
+			}
+		}
+
+		return (R);
+	}
+
+	/**
+	 * 
+	 * @return Generates and returns the (economy-sized) orthogonal factor.
+	 */
+	public MatrixMxNd getQ() {
+		MatrixMxNd Q = new MatrixMxNd(m, n);
+
+		for (int k = n - 1; k >= 0; k--) {
+			for (int i = 0; i < m; i++) {
+				Q.set(i, k, 0d);
+			}
+
+			Q.set(k, k, 1.0d);
+
+			for (int j = k; j < n; j++) {
+				if (QR[k * n + k] != 0d) {
+					double s = 0.0d;
+					for (int i = k; i < m; i++) {
+						s += QR[i * n + k] * Q.get(i, j);
+					}
+
+					s = -s / QR[k * n + k];
+
+					for (int i = k; i < m; i++) {
+						Q.add(i, j, s * QR[i * n + k]);
+					}
+				}
+			}
+		}
+
+		return (Q);
+	}
+
+	/**
+	 * Least squares solution of A * X = B.
+	 * 
+	 * @param B    A Matrix with as many rows as A and any number of columns.
+	 * 
+	 * @return     X that minimizes the two norm of Q*R*X-B.
+	 * 
+	 * @exception  IllegalArgumentException  Matrix row dimensions must agree.
+	 * @exception  RuntimeException  Matrix is rank deficient.
+	 */
+	public final MatrixMxNd solve(MatrixMxNd B) {
+		return (solve(B, null));
+	}
+
+	/**
+	 * Least squares solution of A * X = B. No memory is allocated, if result is not <code>null</code>
+	 * (once the internal scratch space is big enough for B). B and result may be the same instance,
+	 * if A is square.
+	 * 
+	 * @param B    A Matrix with as many rows as A and any number of columns.
+	 * @param result the n x B.getNumCols() matrix to write X to (may be <code>null</code>)
+	 * 
+	 * @return     X that minimizes the two norm of Q*R*X-B (result, or a new matrix if result is <code>null</code>).
+	 * 
+	 * @exception  IllegalArgumentException  Matrix row dimensions must agree.
+	 * @exception  RuntimeException  Matrix is rank deficient.
+	 */
+	public final MatrixMxNd solve(MatrixMxNd B, MatrixMxNd result) {
+		if (B.getNumRows() != m) {
+			throw new IllegalArgumentException("Matrix row dimensions must agree.");
+		}
+		if (!this.isFullRank()) {
+			throw new RuntimeException("Matrix is rank deficient.");
+		}
+
+		final int nx = B.getNumCols();
+
+		if (result == null) {
+			result = new MatrixMxNd(n, nx);
+		} else if ((result.getNumRows() != n) || (result.getNumCols() != nx)) {
+			throw new IllegalArgumentException("Result Matrix does not match required dimensions (" + n + " x " + nx + ").");
+		}
+
+		if ((work == null) || (work.length < m * nx)) {
+			this.work = new double[m * nx];
+		}
+		if (sums.length < nx) {
+			this.sums = new double[nx];
+		}
+
+		// Copy right hand side
+		final double[] X = work;
+		B.getRowMajor(X, 0);
+
+		// Compute Y = transpose(Q) * B
+		for (int k = 0; k < n; k++) {
+			DecompositionKernels.applyReflector(QR, n, k, X, nx, k, m, 0, nx, QR[k * n + k], sums, false, null);
+		}
+
+		// Solve R * X = Y;
+		for (int k = n - 1; k >= 0; k--) {
+			final double d = Rdiag[k];
+			final int rowK = k * nx;
+
+			for (int j = 0; j < nx; j++) {
+				X[rowK + j] /= d;
+			}
+
+			for (int i = 0; i < k; i++) {
+				final double r = QR[i * n + k];
+				final int rowI = i * nx;
+
+				for (int j = 0; j < nx; j++) {
+					X[rowI + j] -= X[rowK + j] * r;
+				}
+			}
+		}
+
+		// The first n rows hold X.
+		result.setRowMajor(X, 0);
+
+		return (result);
+	}
+}
@@ -33,6 +33,8 @@
  */
 package org.openmali.decomposition;
 
+import java.util.concurrent.ExecutorService;
+
 import org.openmali.FastMath;
 import org.openmali.vecmath2.MatrixMxNf;
 
@@ -56,6 +58,17 @@ import org.openmali.vecmath2.MatrixMxNf;
  * @author <a href="http://math.nist.gov/javanumerics/jama/">JAMA</a>
  */
 public class SingularValueDecomposition {
+	/**
+	 * The machine epsilon of float (JAMA uses the one of double, 2^-52,
+	 * which a float iteration practically never reaches).
+	 */
+	private static final float EPSILON = Math.ulp(1.0f);
+
+	/**
+	 * Negligible magnitude near the smallest normal float (JAMA: 2^-966 for double).
+	 */
+	private static final float TINY = Math.scalb(1.0f, -120);
+
 	/**
 	 * Arrays for internal storage of U and V.
 	 * 
@@ -85,10 +98,34 @@ public class SingularValueDecomposition {
 	 * @param M    Rectangular matrix
 	 */
 	public SingularValueDecomposition(MatrixMxNf M) {
+		this(M, null, DecompositionKernels.DEFAULT_PARALLEL_THRESHOLD);
+	}
+
+	/**
+	 * Constructs the singular value decomposition.
+	 * The Householder reflections of the bidiagonalization are applied to
+	 * parallel bands, while the remaining submatrix is at least 128 x 128.
+	 * 
+	 * @param M    Rectangular matrix
+	 * @param executor the executor to run the bands in (may be <code>null</code>)
+	 */
+	public SingularValueDecomposition(MatrixMxNf M, ExecutorService executor) {
+		this(M, executor, DecompositionKernels.DEFAULT_PARALLEL_THRESHOLD);
+	}
+
+	/**
+	 * Constructs the singular value decomposition.
+	 * The Householder reflections of the bidiagonalization are applied to
+	 * parallel bands, while the remaining submatrix is at least
+	 * parallelThreshold x parallelThreshold.
+	 * 
+	 * @param M    Rectangular matrix
+	 * @param executor the executor to run the bands in (may be <code>null</code>)
+	 * @param parallelThreshold the minimum dimension for parallel updates
+	 */
+	public SingularValueDecomposition(MatrixMxNf M, ExecutorService executor, int parallelThreshold) {
 		// Derived from LINPACK code.
 		// Initialize.
-		MatrixMxNf A = new MatrixMxNf(M);
-
 		this.m = M.getNumRows();
 		this.n = M.getNumCols();
 
@@ -100,10 +137,15 @@ public class SingularValueDecomposition {
 		 */
 		final int nu = Math.min(m, n);
 		this.s = new float[Math.min(m + 1, n)];
-		this.U = new MatrixMxNf(m, nu);
-		this.V = new MatrixMxNf(n, n);
-		float[] e = new float[n];
-		float[] work = new float[m];
+
+		// A, U and V are held in row major arrays, that are worked on in place.
+		final float[] a = new float[m * n];
+		M.getRowMajor(a, 0);
+		final float[] u = new float[m * nu];
+		final float[] v = new float[n * n];
+		final float[] sums = new float[Math.max(n, nu)];
+
+		final float[] e = new float[n];
 		boolean wantU = true;
 		boolean wantV = true;
 
@@ -121,42 +163,36 @@ public class SingularValueDecomposition {
 				 */
 				s[k] = 0f;
 				for (int i = k; i < m; i++) {
-					s[k] = FastMath.hypot(s[k], A.get(i, k));
+					s[k] = FastMath.hypot(s[k], a[i * n + k]);
 				}
 
 				if (s[k] != 0.0) {
-					if (A.get(k, k) < 0.0f) {
+					if (a[k * n + k] < 0.0f) {
 						s[k] = -s[k];
 					}
 
 					for (int i = k; i < m; i++) {
-						A.div(i, k, s[k]);
+						a[i * n + k] /= s[k];
 					}
 
-					A.add(k, k, 1.0f);
+					a[k * n + k] += 1.0f;
 				}
 
 				s[k] = -s[k];
 			}
 
-			for (int j = k + 1; j < n; j++) {
-				if ((k < nct) & (s[k] != 0.0f)) {
-					// Apply the transformation.
+			if ((k < nct) & (s[k] != 0.0f)) {
+				// Apply the transformation.
 
-					float t = 0f;
-					for (int i = k; i < m; i++) {
-						t += A.get(i, k) * A.get(i, j);
-					}
-					t = -t / A.get(k, k);
-					for (int i = k; i < m; i++) {
-						A.add(i, j, t * A.get(i, k));
-					}
-				}
+				final boolean parallel = DecompositionKernels.isParallel(executor, parallelThreshold, m - k, n - k - 1);
+				DecompositionKernels.applyReflector(a, n, k, a, n, k, m, k + 1, n, a[k * n + k], sums, parallel, executor);
+			}
 
+			for (int j = k + 1; j < n; j++) {
 				// Place the k-th row of A into e for the
 				// subsequent calculation of the row transformation.
 
-				e[j] = A.get(k, j);
+				e[j] = a[k * n + j];
 			}
 
 			if (wantU & (k < nct)) {
@@ -164,7 +200,7 @@ public class SingularValueDecomposition {
 				// multiplication.
 
 				for (int i = k; i < m; i++) {
-					U.set(i, k, A.get(i, k));
+					u[i * nu + k] = a[i * n + k];
 				}
 			}
 
@@ -192,24 +228,29 @@ public class SingularValueDecomposition {
 				e[k] = -e[k];
 
 				if ((k + 1 < m) & (e[k] != 0.0f)) {
-					// Apply the transformation.
-
-					for (int i = k + 1; i < m; i++) {
-						work[i] = 0.0f;
-					}
-
-					for (int j = k + 1; j < n; j++) {
-						for (int i = k + 1; i < m; i++) {
-							work[i] += e[j] * A.get(i, j);
+					// Apply the transformation row by row.
+
+					final int colBegin = k + 1;
+					final boolean parallel = DecompositionKernels.isParallel(executor, parallelThreshold, m - k - 1, n - k - 1);
+
+					DecompositionKernels.runBands(k + 1, m, parallel, executor, new DecompositionKernels.BandTask() {
+						@Override
+						public void run(int begin, int end) {
+							for (int i = begin; i < end; i++) {
+								final int row = i * n;
+
+								float w = 0.0f;
+								for (int j = colBegin; j < n; j++) {
+									w += e[j] * a[row + j];
+								}
+
+								for (int j = colBegin; j < n; j++) {
+									float t = -e[j] / e[colBegin];
+									a[row + j] += t * w;
+								}
+							}
 						}
-					}
-
-					for (int j = k + 1; j < n; j++) {
-						float t = -e[j] / e[k + 1];
-						for (int i = k + 1; i < m; i++) {
-							A.add(i, j, t * work[i]);
-						}
-					}
+					});
 				}
 
 				if (wantV) {
@@ -217,7 +258,7 @@ public class SingularValueDecomposition {
 					// back multiplication.
 
 					for (int i = k + 1; i < n; i++) {
-						V.set(i, k, e[i]);
+						v[i * n + k] = e[i];
 					}
 				}
 			}
@@ -227,7 +268,7 @@ public class SingularValueDecomposition {
 
 		int p = Math.min(n, m + 1);
 		if (nct < n) {
-			s[nct] = A.get(nct, nct);
+			s[nct] = a[nct * n + nct];
 		}
 
 		if (m < p) {
@@ -235,7 +276,7 @@ public class SingularValueDecomposition {
 		}
 
 		if (nrt + 1 < p) {
-			e[nrt] = A.get(nrt, p - 1);
+			e[nrt] = a[nrt * n + p - 1];
 		}
 		e[p - 1] = 0.0f;
 
@@ -244,40 +285,32 @@ public class SingularValueDecomposition {
 		if (wantU) {
 			for (int j = nct; j < nu; j++) {
 				for (int i = 0; i < m; i++) {
-					U.set(i, j, 0.0f);
+					u[i * nu + j] = 0.0f;
 				}
 
-				U.set(j, j, 1.0f);
+				u[j * nu + j] = 1.0f;
 			}
 
 			for (int k = nct - 1; k >= 0; k--) {
 				if (s[k] != 0.0f) {
-					for (int j = k + 1; j < nu; j++) {
-						float t = 0f;
-						for (int i = k; i < m; i++) {
-							t += U.get(i, k) * U.get(i, j);
-						}
-						t = -t / U.get(k, k);
-						for (int i = k; i < m; i++) {
-							U.add(i, j, t * U.get(i, k));
-						}
-					}
+					final boolean parallel = DecompositionKernels.isParallel(executor, parallelThreshold, m - k, nu - k - 1);
+					DecompositionKernels.applyReflector(u, nu, k, u, nu, k, m, k + 1, nu, u[k * nu + k], sums, parallel, executor);
 
 					for (int i = k; i < m; i++) {
-						U.sub(i, k, -U.get(i, k));
+						u[i * nu + k] = -u[i * nu + k];
 					}
 
-					U.set(k, k, 1.0f + U.get(k, k));
+					u[k * nu + k] = 1.0f + u[k * nu + k];
 
 					for (int i = 0; i < k - 1; i++) {
-						U.set(i, k, 0.0f);
+						u[i * nu + k] = 0.0f;
 					}
 				} else {
 					for (int i = 0; i < m; i++) {
-						U.set(i, k, 0.0f);
+						u[i * nu + k] = 0.0f;
 					}
 
-					U.set(k, k, 1.0f);
+					u[k * nu + k] = 1.0f;
 				}
 			}
 		}
@@ -287,34 +320,33 @@ public class SingularValueDecomposition {
 		if (wantV) {
 			for (int k = n - 1; k >= 0; k--) {
 				if ((k < nrt) & (e[k] != 0.0f)) {
-					for (int j = k + 1; j < nu; j++) {
-						float t = 0f;
-						for (int i = k + 1; i < n; i++) {
-							t += V.get(i, k) * V.get(i, j);
-						}
-
-						t = -t / V.get(k + 1, k);
-
-						for (int i = k + 1; i < n; i++) {
-							V.add(i, j, t * V.get(i, k));
-						}
-					}
+					final boolean parallel = DecompositionKernels.isParallel(executor, parallelThreshold, n - k - 1, nu - k - 1);
+					DecompositionKernels.applyReflector(v, n, k, v, n, k + 1, n, k + 1, nu, v[(k + 1) * n + k], sums, parallel, executor);
 				}
 
 				for (int i = 0; i < n; i++) {
-					V.set(i, k, 0.0f);
+					v[i * n + k] = 0.0f;
 				}
 
-				V.set(k, k, 1.0f);
+				v[k * n + k] = 1.0f;
 			}
 		}
 
+		/*
+		 * The iteration rotates pairs of columns of U and V. They are transposed
+		 * for it, so that each rotation walks two contiguous rows.
+		 */
+		final float[] ut = new float[nu * m];
+		final float[] vt = new float[n * n];
+		transpose(u, m, nu, ut);
+		transpose(v, n, n, vt);
+
 		// Main iteration loop for the singular values.
 
 		final int pp = p - 1;
 		int iter = 0;
-		float eps = FastMath.pow(2.0f, -52.0f);
-		float tiny = FastMath.pow(2.0f, -966.0f);
+		float eps = EPSILON;
+		float tiny = TINY;
 		while (p > 0) {
 			int k, kase;
 
@@ -383,9 +415,9 @@ public class SingularValueDecomposition {
 					}
 					if (wantV) {
 						for (int i = 0; i < n; i++) {
-							t = cs * V.get(i, j) + sn * V.get(i, p - 1);
-							V.set(i, p - 1, -sn * V.get(i, j) + cs * V.get(i, p - 1));
-							V.set(i, j, t);
+							t = cs * vt[j * n + i] + sn * vt[(p - 1) * n + i];
+							vt[(p - 1) * n + i] = -sn * vt[j * n + i] + cs * vt[(p - 1) * n + i];
+							vt[j * n + i] = t;
 						}
 					}
 				}
@@ -406,9 +438,9 @@ public class SingularValueDecomposition {
 					e[j] = cs * e[j];
 					if (wantU) {
 						for (int i = 0; i < m; i++) {
-							t = cs * U.get(i, j) + sn * U.get(i, k - 1);
-							U.set(i, k - 1, -sn * U.get(i, j) + cs * U.get(i, k - 1));
-							U.set(i, j, t);
+							t = cs * ut[j * m + i] + sn * ut[(k - 1) * m + i];
+							ut[(k - 1) * m + i] = -sn * ut[j * m + i] + cs * ut[(k - 1) * m + i];
+							ut[j * m + i] = t;
 						}
 					}
 				}
@@ -455,9 +487,9 @@ public class SingularValueDecomposition {
 					s[j + 1] = cs * s[j + 1];
 					if (wantV) {
 						for (int i = 0; i < n; i++) {
-							t = cs * V.get(i, j) + sn * V.get(i, j + 1);
-							V.set(i, j + 1, -sn * V.get(i, j) + cs * V.get(i, j + 1));
-							V.set(i, j, t);
+							t = cs * vt[j * n + i] + sn * vt[(j + 1) * n + i];
+							vt[(j + 1) * n + i] = -sn * vt[j * n + i] + cs * vt[(j + 1) * n + i];
+							vt[j * n + i] = t;
 						}
 					}
 					t = FastMath.hypot(f, g);
@@ -470,9 +502,9 @@ public class SingularValueDecomposition {
 					e[j + 1] = cs * e[j + 1];
 					if (wantU && (j < m - 1)) {
 						for (int i = 0; i < m; i++) {
-							t = cs * U.get(i, j) + sn * U.get(i, j + 1);
-							U.set(i, j + 1, -sn * U.get(i, j) + cs * U.get(i, j + 1));
-							U.set(i, j, t);
+							t = cs * ut[j * m + i] + sn * ut[(j + 1) * m + i];
+							ut[(j + 1) * m + i] = -sn * ut[j * m + i] + cs * ut[(j + 1) * m + i];
+							ut[j * m + i] = t;
 						}
 					}
 				}
@@ -491,7 +523,7 @@ public class SingularValueDecomposition {
 					s[k] = (s[k] < 0.0f ? -s[k] : 0.0f);
 					if (wantV) {
 						for (int i = 0; i <= pp; i++) {
-							V.set(i, k, -V.get(i, k));
+							vt[k * n + i] = -vt[k * n + i];
 						}
 					}
 				}
@@ -507,16 +539,16 @@ public class SingularValueDecomposition {
 					s[k + 1] = t;
 					if (wantV && (k < n - 1)) {
 						for (int i = 0; i < n; i++) {
-							t = V.get(i, k + 1);
-							V.set(i, k + 1, V.get(i, k));
-							V.set(i, k, t);
+							t = vt[(k + 1) * n + i];
+							vt[(k + 1) * n + i] = vt[k * n + i];
+							vt[k * n + i] = t;
 						}
 					}
 					if (wantU && (k < m - 1)) {
 						for (int i = 0; i < m; i++) {
-							t = U.get(i, k + 1);
-							U.set(i, k + 1, U.get(i, k));
-							U.set(i, k, t);
+							t = ut[(k + 1) * m + i];
+							ut[(k + 1) * m + i] = ut[k * m + i];
+							ut[k * m + i] = t;
 						}
 					}
 					k++;
@@ -527,6 +559,22 @@ public class SingularValueDecomposition {
 				break;
 			}
 		}
+	
+		transpose(ut, nu, m, u);
+		transpose(vt, n, n, v);
+
+		this.U = new MatrixMxNf(m, nu);
+		U.setRowMajor(u, 0);
+		this.V = new MatrixMxNf(n, n);
+		V.setRowMajor(v, 0);
+	}
+
+	private static final void transpose(float[] src, int rows, int cols, float[] dst) {
+		for (int i = 0; i < rows; i++) {
+			for (int j = 0; j < cols; j++) {
+				dst[j * rows + i] = src[i * cols + j];
+			}
+		}
 	}
 
 	/*
@@ -599,7 +647,7 @@ public class SingularValueDecomposition {
 	 * @return     Number of nonnegligible singular values.
 	 */
 	public int rank() {
-		final float eps = FastMath.pow(2.0f, -52.0f);
+		final float eps = EPSILON;
 		final float tol = Math.max(m, n) * s[0] * eps;
 
 		int r = 0;
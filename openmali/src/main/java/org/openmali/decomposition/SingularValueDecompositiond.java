@@ -0,0 +1,662 @@
+/**
+ * Copyright (c) 2007-2009, OpenMaLi Project Group all rights reserved.
+ * 
+ * Portions based on the Sun's javax.vecmath interface, Copyright by Sun
+ * Microsystems or Kenji Hiranabe's alternative GC-cheap implementation.
+ * Many thanks to the developers.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the 'OpenMaLi Project Group' nor the names of its
+ * contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) A
+ * RISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE
+ */
+package org.openmali.decomposition;
+
+import java.util.concurrent.ExecutorService;
+
+import org.openmali.FastMathd;
+import org.openmali.vecmath2.MatrixMxNd;
+
+/**
+ * Singular Value Decomposition.
+ * <p>
+ * For an m-by-n matrix A with m >= n, the singular value decomposition is
+ * an m-by-n orthogonal matrix U, an n-by-n diagonal matrix S, and
+ * an n-by-n orthogonal matrix V so that A = U*S*V'.
+ * </p>
+ * <p>
+ * The singular values, sigma[k] = S[k][k], are ordered so that
+ * sigma[0] >= sigma[1] >= ... >= sigma[n-1].
+ * </p>
+ * <p>
+ * The singular value decompostion always exists, so the constructor will
+ * never fail.  The matrix condition number and the effective numerical
+ * rank can be computed from this decomposition.
+ * </p>
+ * 
+ * @author <a href="http://math.nist.gov/javanumerics/jama/">JAMA</a>
+ */
+public class SingularValueDecompositiond {
+	/**
+	 * The machine epsilon of double (2^-52, as in JAMA).
+	 */
+	private static final double EPSILON = Math.ulp(1.0d);
+
+	/**
+	 * Negligible magnitude near the smallest normal double (2^-966, as in JAMA).
+	 */
+	private static final double TINY = Math.scalb(1.0d, -966);
+
+	/**
+	 * Arrays for internal storage of U and V.
+	 * 
+	 * @serial internal storage of U.
+	 * @serial internal storage of V.
+	 */
+	private MatrixMxNd U, V;
+
+	/**
+	 * Array for internal storage of singular values.
+	 * 
+	 * @serial internal storage of singular values.
+	 */
+	private final double[] s;
+
+	/**
+	 * Row and column dimensions.
+	 * 
+	 * @serial row dimension.
+	 * @serial column dimension.
+	 */
+	private final int m, n;
+
+	/**
+	 * Constructs the singular value decomposition.
+	 * 
+	 * @param M    Rectangular matrix
+	 */
+	public SingularValueDecompositiond(MatrixMxNd M) {
+		this(M, null, DecompositionKernels.DEFAULT_PARALLEL_THRESHOLD);
+	}
+
+	/**
+	 * Constructs the singular value decomposition.
+	 * The Householder reflections of the bidiagonalization are applied to
+	 * parallel bands, while the remaining submatrix is at least 128 x 128.
+	 * 
+	 * @param M    Rectangular matrix
+	 * @param executor the executor to run the bands in (may be <code>null</code>)
+	 */
+	public SingularValueDecompositiond(MatrixMxNd M, ExecutorService executor) {
+		this(M, executor, DecompositionKernels.DEFAULT_PARALLEL_THRESHOLD);
+	}
+
+	/**
+	 * Constructs the singular value decomposition.
+	 * The Householder reflections of the bidiagonalization are applied to
+	 * parallel bands, while the remaining submatrix is at least
+	 * parallelThreshold x parallelThreshold.
+	 * 
+	 * @param M    Rectangular matrix
+	 * @param executor the executor to run the bands in (may be <code>null</code>)
+	 * @param parallelThreshold the minimum dimension for parallel updates
+	 */
+	public SingularValueDecompositiond(MatrixMxNd M, ExecutorService executor, int parallelThreshold) {
+		// Derived from LINPACK code.
+		// Initialize.
+		this.m = M.getNumRows();
+		this.n = M.getNumCols();
+
+		/*
+		 * Apparently the failing cases are only a proper subset of (m < n), so
+		 * let's not throw error. Correct fix to come later? if ( m < n ) {
+		 * throw new IllegalArgumentException( "Jama SVD only works for m >= n"
+		 * ) ); }
+		 */
+		final int nu = Math.min(m, n);
+		this.s = new double[Math.min(m + 1, n)];
+
+		// A, U and V are held in row major arrays, that are worked on in place.
+		final double[] a = new double[m * n];
+		M.getRowMajor(a, 0);
+		final double[] u = new double[m * nu];
+		final double[] v = new double[n * n];
+		final double[] sums = new double[Math.max(n, nu)];
+
+		final double[] e = new double[n];
+		boolean wantU = true;
+		boolean wantV = true;
+
+		// Reduce A to bidiagonal form, storing the diagonal elements
+		// in s and the super-diagonal elements in e.
+
+		int nct = Math.min(m - 1, n);
+		int nrt = Math.max(0, Math.min(n - 2, m));
+		for (int k = 0; k < Math.max(nct, nrt); k++) {
+			if (k < nct) {
+				/*
+				 * Compute the transformation for the k-th column and place the
+				 * k-th diagonal in s[ k ]. Compute 2-norm of k-th column
+				 * without under/overflow.
+				 */
+				s[k] = 0d;
+				for (int i = k; i < m; i++) {
+					s[k] = FastMathd.hypot(s[k], a[i * n + k]);
+				}
+
+				if (s[k] != 0.0) {
+					if (a[k * n + k] < 0.0d) {
+						s[k] = -s[k];
+					}
+
+					for (int i = k; i < m; i++) {
+						a[i * n + k] /= s[k];
+					}
+
+					a[k * n + k] += 1.0d;
+				}
+
+				s[k] = -s[k];
+			}
+
+			if ((k < nct) & (s[k] != 0.0d)) {
+				// Apply the transformation.
+
+				final boolean parallel = DecompositionKernels.isParallel(executor, parallelThreshold, m - k, n - k - 1);
+				DecompositionKernels.applyReflector(a, n, k, a, n, k, m, k + 1, n, a[k * n + k], sums, parallel, executor);
+			}
+
+			for (int j = k + 1; j < n; j++) {
+				// Place the k-th row of A into e for the
+				// subsequent calculation of the row transformation.
+
+				e[j] = a[k * n + j];
+			}
+
+			if (wantU & (k < nct)) {
+				// Place the transformation in U for subsequent back
+				// multiplication.
+
+				for (int i = k; i < m; i++) {
+					u[i * nu + k] = a[i * n + k];
+				}
+			}
+
+			if (k < nrt) {
+				// Compute the k-th row transformation and place the
+				// k-th super-diagonal in e[k].
+				// Compute 2-norm without under/overflow.
+				e[k] = 0d;
+				for (int i = k + 1; i < n; i++) {
+					e[k] = FastMathd.hypot(e[k], e[i]);
+				}
+
+				if (e[k] != 0.0d) {
+					if (e[k + 1] < 0.0d) {
+						e[k] = -e[k];
+					}
+
+					for (int i = k + 1; i < n; i++) {
+						e[i] /= e[k];
+					}
+
+					e[k + 1] += 1.0d;
+				}
+
+				e[k] = -e[k];
+
+				if ((k + 1 < m) & (e[k] != 0.0d)) {
+					// Apply the transformation row by row.
+
+					final int colBegin = k + 1;
+					final boolean parallel = DecompositionKernels.isParallel(executor, parallelThreshold, m - k - 1, n - k - 1);
+
+					DecompositionKernels.runBands(k + 1, m, parallel, executor, new DecompositionKernels.BandTask() {
+						@Override
+						public void run(int begin, int end) {
+							for (int i = begin; i < end; i++) {
+								final int row = i * n;
+
+								double w = 0.0d;
+								for (int j = colBegin; j < n; j++) {
+									w += e[j] * a[row + j];
+								}
+
+								for (int j = colBegin; j < n; j++) {
+									double t = -e[j] / e[colBegin];
+									a[row + j] += t * w;
+								}
+							}
+						}
+					});
+				}
+
+				if (wantV) {
+					// Place the transformation in V for subsequent
+					// back multiplication.
+
+					for (int i = k + 1; i < n; i++) {
+						v[i * n + k] = e[i];
+					}
+				}
+			}
+		}
+
+		// Set up the final bidiagonal matrix or order p.
+
+		int p = Math.min(n, m + 1);
+		if (nct < n) {
+			s[nct] = a[nct * n + nct];
+		}
+
+		if (m < p) {
+			s[p - 1] = 0.0d;
+		}
+
+		if (nrt + 1 < p) {
+			e[nrt] = a[nrt * n + p - 1];
+		}
+		e[p - 1] = 0.0d;
+
+		// If required, generate U.
+
+		if (wantU) {
+			for (int j = nct; j < nu; j++) {
+				for (int i = 0; i < m; i++) {
+					u[i * nu + j] = 0.0d;
+				}
+
+				u[j * nu + j] = 1.0d;
+			}
+
+			for (int k = nct - 1; k >= 0; k--) {
+				if (s[k] != 0.0d) {
+					final boolean parallel = DecompositionKernels.isParallel(executor, parallelThreshold, m - k, nu - k - 1);
+					DecompositionKernels.applyReflector(u, nu, k, u, nu, k, m, k + 1, nu, u[k * nu + k], sums, parallel, executor);
+
+					for (int i = k; i < m; i++) {
+						u[i * nu + k] = -u[i * nu + k];
+					}
+
+					u[k * nu + k] = 1.0d + u[k * nu + k];
+
+					for (int i = 0; i < k - 1; i++) {
+						u[i * nu + k] = 0.0d;
+					}
+				} else {
+					for (int i = 0; i < m; i++) {
+						u[i * nu + k] = 0.0d;
+					}
+
+					u[k * nu + k] = 1.0d;
+				}
+			}
+		}
+
+		// If required, generate V.
+
+		if (wantV) {
+			for (int k = n - 1; k >= 0; k--) {
+				if ((k < nrt) & (e[k] != 0.0d)) {
+					final boolean parallel = DecompositionKernels.isParallel(executor, parallelThreshold, n - k - 1, nu - k - 1);
+					DecompositionKernels.applyReflector(v, n, k, v, n, k + 1, n, k + 1, nu, v[(k + 1) * n + k], sums, parallel, executor);
+				}
+
+				for (int i = 0; i < n; i++) {
+					v[i * n + k] = 0.0d;
+				}
+
+				v[k * n + k] = 1.0d;
+			}
+		}
+
+		/*
+		 * The iteration rotates pairs of columns of U and V. They are transposed
+		 * for it, so that each rotation walks two contiguous rows.
+		 */
+		final double[] ut = new double[nu * m];
+		final double[] vt = new double[n * n];
+		transpose(u, m, nu, ut);
+		transpose(v, n, n, vt);
+
+		// Main iteration loop for the singular values.
+
+		final int pp = p - 1;
+		int iter = 0;
+		double eps = EPSILON;
+		double tiny = TINY;
+		while (p > 0) {
+			int k, kase;
+
+			// Here is where a test for too many iterations would go.
+
+			// This section of the program inspects for
+			// negligible elements in the s and e arrays. On
+			// completion the variables kase and k are set as follows.
+
+			// kase = 1 if s(p) and e[k-1] are negligible and k<p
+			// kase = 2 if s(k) is negligible and k<p
+			// kase = 3 if e[k-1] is negligible, k<p, and
+			// s(k), ..., s(p) are not negligible (qr step).
+			// kase = 4 if e(p-1) is negligible (convergence).
+
+			for (k = p - 2; k >= -1; k--) {
+				if (k == -1) {
+					break;
+				}
+				if (Math.abs(e[k]) <= tiny + eps * (Math.abs(s[k]) + Math.abs(s[k + 1]))) {
+					e[k] = 0.0d;
+					break;
+				}
+			}
+			if (k == p - 2) {
+				kase = 4;
+			} else {
+				int ks;
+				for (ks = p - 1; ks >= k; ks--) {
+					if (ks == k) {
+						break;
+					}
+					double t = (ks != p ? Math.abs(e[ks]) : 0d) + (ks != k + 1 ? Math.abs(e[ks - 1]) : 0d);
+					if (Math.abs(s[ks]) <= tiny + eps * t) {
+						s[ks] = 0.0d;
+						break;
+					}
+				}
+				if (ks == k) {
+					kase = 3;
+				} else if (ks == p - 1) {
+					kase = 1;
+				} else {
+					kase = 2;
+					k = ks;
+				}
+			}
+			k++;
+
+			// Perform the task indicated by kase.
+
+			switch (kase) {
+			// Deflate negligible s(p).
+
+			case 1: {
+				double f = e[p - 2];
+				e[p - 2] = 0.0d;
+				for (int j = p - 2; j >= k; j--) {
+					double t = FastMathd.hypot(s[j], f);
+					double cs = s[j] / t;
+					double sn = f / t;
+					s[j] = t;
+					if (j != k) {
+						f = -sn * e[j - 1];
+						e[j - 1] = cs * e[j - 1];
+					}
+					if (wantV) {
+						for (int i = 0; i < n; i++) {
+							t = cs * vt[j * n + i] + sn * vt[(p - 1) * n + i];
+							vt[(p - 1) * n + i] = -sn * vt[j * n + i] + cs * vt[(p - 1) * n + i];
+							vt[j * n + i] = t;
+						}
+					}
+				}
+			}
+				break;
+
+			// Split at negligible s(k).
+
+			case 2: {
+				double f = e[k - 1];
+				e[k - 1] = 0.0d;
+				for (int j = k; j < p; j++) {
+					double t = FastMathd.hypot(s[j], f);
+					double cs = s[j] / t;
+					double sn = f / t;
+					s[j] = t;
+					f = -sn * e[j];
+					e[j] = cs * e[j];
+					if (wantU) {
+						for (int i = 0; i < m; i++) {
+							t = cs * ut[j * m + i] + sn * ut[(k - 1) * m + i];
+							ut[(k - 1) * m + i] = -sn * ut[j * m + i] + cs * ut[(k - 1) * m + i];
+							ut[j * m + i] = t;
+						}
+					}
+				}
+			}
+				break;
+
+			// Perform one qr step.
+
+			case 3: {
+
+				// Calculate the shift.
+
+				double scale = Math.max(Math.max(Math.max(Math.max(Math.abs(s[p - 1]), Math.abs(s[p - 2])), Math.abs(e[p - 2])), Math.abs(s[k])), Math.abs(e[k]));
+				double sp = s[p - 1] / scale;
+				double spm1 = s[p - 2] / scale;
+				double epm1 = e[p - 2] / scale;
+				double sk = s[k] / scale;
+				double ek = e[k] / scale;
+				double b = ((spm1 + sp) * (spm1 - sp) + epm1 * epm1) / 2.0d;
+				double c = (sp * epm1) * (sp * epm1);
+				double shift = 0.0d;
+				if ((b != 0.0) | (c != 0.0)) {
+					shift = FastMathd.sqrt(b * b + c);
+					if (b < 0.0) {
+						shift = -shift;
+					}
+					shift = c / (b + shift);
+				}
+				double f = (sk + sp) * (sk - sp) + shift;
+				double g = sk * ek;
+
+				// Chase zeros.
+
+				for (int j = k; j < p - 1; j++) {
+					double t = FastMathd.hypot(f, g);
+					double cs = f / t;
+					double sn = g / t;
+					if (j != k) {
+						e[j - 1] = t;
+					}
+					f = cs * s[j] + sn * e[j];
+					e[j] = cs * e[j] - sn * s[j];
+					g = sn * s[j + 1];
+					s[j + 1] = cs * s[j + 1];
+					if (wantV) {
+						for (int i = 0; i < n; i++) {
+							t = cs * vt[j * n + i] + sn * vt[(j + 1) * n + i];
+							vt[(j + 1) * n + i] = -sn * vt[j * n + i] + cs * vt[(j + 1) * n + i];
+							vt[j * n + i] = t;
+						}
+					}
+					t = FastMathd.hypot(f, g);
+					cs = f / t;
+					sn = g / t;
+					s[j] = t;
+					f = cs * e[j] + sn * s[j + 1];
+					s[j + 1] = -sn * e[j] + cs * s[j + 1];
+					g = sn * e[j + 1];
+					e[j + 1] = cs * e[j + 1];
+					if (wantU && (j < m - 1)) {
+						for (int i = 0; i < m; i++) {
+							t = cs * ut[j * m + i] + sn * ut[(j + 1) * m + i];
+							ut[(j + 1) * m + i] = -sn * ut[j * m + i] + cs * ut[(j + 1) * m + i];
+							ut[j * m + i] = t;
+						}
+					}
+				}
+				e[p - 2] = f;
+				iter = iter + 1;
+			}
+				break;
+
+			// Convergence.
+
+			case 4: {
+
+				// Make the singular values positive.
+
+				if (s[k] <= 0.0d) {
+					s[k] = (s[k] < 0.0d ? -s[k] : 0.0d);
+					if (wantV) {
+						for (int i = 0; i <= pp; i++) {
+							vt[k * n + i] = -vt[k * n + i];
+						}
+					}
+				}
+
+				// Order the singular values.
+
+				while (k < pp) {
+					if (s[k] >= s[k + 1]) {
+						break;
+					}
+					double t = s[k];
+					s[k] = s[k + 1];
+					s[k + 1] = t;
+					if (wantV && (k < n - 1)) {
+						for (int i = 0; i < n; i++) {
+							t = vt[(k + 1) * n + i];
+							vt[(k + 1) * n + i] = vt[k * n + i];
+							vt[k * n + i] = t;
+						}
+					}
+					if (wantU && (k < m - 1)) {
+						for (int i = 0; i < m; i++) {
+							t = ut[(k + 1) * m + i];
+							ut[(k + 1) * m + i] = ut[k * m + i];
+							ut[k * m + i] = t;
+						}
+					}
+					k++;
+				}
+				iter = 0;
+				p--;
+			}
+				break;
+			}
+		}
+	
+		transpose(ut, nu, m, u);
+		transpose(vt, n, n, v);
+
+		this.U = new MatrixMxNd(m, nu);
+		U.setRowMajor(u, 0);
+		this.V = new MatrixMxNd(n, n);
+		V.setRowMajor(v, 0);
+	}
+
+	private static final void transpose(double[] src, int rows, int cols, double[] dst) {
+		for (int i = 0; i < rows; i++) {
+			for (int j = 0; j < cols; j++) {
+				dst[j * rows + i] = src[i * cols + j];
+			}
+		}
+	}
+
+	/*
+	 * ------------------------ Public Methods ------------------------
+	 */
+
+	/**
+	 * @return the left singular vectors.
+	 */
+	public final MatrixMxNd getU() {
+		MatrixMxNd result = new MatrixMxNd(m, Math.min(m + 1, n));
+		result.set(U);
+
+		return (result);
+	}
+
+	/**
+	 * @return the right singular vectors.
+	 */
+	public MatrixMxNd getV() {
+		MatrixMxNd result = new MatrixMxNd(n, n);
+		result.set(V);
+
+		return (result);
+	}
+
+	/**
+	 * Return the one-dimensional array of singular values
+	 * @return diagonal of S.
+	 */
+	public double[] getSingularValues() {
+		return (s);
+	}
+
+	/**
+	 * @return the diagonal matrix of singular values.
+	 */
+	public MatrixMxNd getS() {
+		MatrixMxNd S = new MatrixMxNd(n, n);
+
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				S.set(i, j, 0d);
+			}
+
+			S.set(i, i, this.s[i]);
+		}
+
+		return (S);
+	}
+
+	/**
+	 * Two norm
+	 * @return     max(S)
+	 */
+	public final double norm2() {
+		return (s[0]);
+	}
+
+	/**
+	 * Two norm condition number
+	 * @return     max(S)/min(S)
+	 */
+	public final double cond() {
+		return (s[0] / s[Math.min(m, n) - 1]);
+	}
+
+	/**
+	 * Effective numerical matrix rank
+	 * @return     Number of nonnegligible singular values.
+	 */
+	public int rank() {
+		final double eps = EPSILON;
+		final double tol = Math.max(m, n) * s[0] * eps;
+
+		int r = 0;
+
+		for (int i = 0; i < s.length; i++) {
+			if (s[i] > tol) {
+				r++;
+			}
+		}
+
+		return (r);
+	}
+}
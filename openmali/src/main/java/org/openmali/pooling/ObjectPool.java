@@ -33,24 +33,84 @@
  */
 package org.openmali.pooling;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  * Simple collection used to store free objects which we need to work with
  * frequently. This is to solve some of the issues with garbage collection of
- * frequently used objects
+ * frequently used objects.<br>
+ * <br>
+ * A pool holds at most {@link #getMaxSize()} free objects. Objects freed
+ * beyond that are handed to the other pools of the same class (see below)
+ * or left to the garbage collector. Every {@link #TRIM_INTERVAL}
+ * allocations the pool drops the free objects, that haven't been used since
+ * the last trim, so it shrinks back to its high-water mark.<br>
+ * <br>
+ * The per-class pools are usually thread-local. An object freed on another
+ * thread than the one it was allocated on lands in that thread's pool. When
+ * that pool is full, the object goes to an exchange shared by all pools of
+ * the same class, where a pool that runs empty picks it up before creating
+ * a new instance.<br>
+ * <br>
+ * A pool itself is not thread-safe. Its counters are collected by the
+ * {@link PoolManager}.
  * 
  * @author David Yazel
  * @author Marvin Froehlich (aka Qudus)
  */
 public abstract class ObjectPool<T> {
-	private final ArrayList<T> objects;
+	/**
+	 * The number of allocations between two automatic trims.
+	 */
+	public static final int TRIM_INTERVAL = 4096;
+
+	private final int initialSize;
+	private Object[] objects;
 	private int n;
+	private int maxSize;
+
+	/*
+	 * The smallest number of free objects since the last trim. This many
+	 * objects at the bottom of the stack haven't been touched since then.
+	 */
+	private int lowWater;
+	private int allocsUntilTrim = TRIM_INTERVAL;
+
+	private final PoolManager.Registration registration;
 
+	/**
+	 * @return the number of free objects currently held by this pool
+	 */
 	public int getSize() {
 		return (n);
 	}
 
+	/**
+	 * Sets the maximum number of free objects held by this pool. Surplus
+	 * objects are dropped immediately.
+	 * 
+	 * @param maxSize
+	 */
+	public void setMaxSize(int maxSize) {
+		if (maxSize < 0)
+			throw new IllegalArgumentException("maxSize must be >= 0.");
+
+		this.maxSize = maxSize;
+
+		if (n > maxSize) {
+			Arrays.fill(objects, maxSize, n, null);
+			n = maxSize;
+			lowWater = Math.min(lowWater, n);
+		}
+	}
+
+	/**
+	 * @return the maximum number of free objects held by this pool
+	 */
+	public final int getMaxSize() {
+		return (maxSize);
+	}
+
 	/**
 	 * Creates a new instance of a pooled object.
 	 * 
@@ -58,26 +118,106 @@ public abstract class ObjectPool<T> {
 	 */
 	protected abstract T newInstance();
 
+	/**
+	 * Drops the free objects, that haven't been allocated since the last
+	 * trim. This is done automatically every {@link #TRIM_INTERVAL}
+	 * allocations.
+	 */
+	public void trim() {
+		final int unused = lowWater;
+
+		if (unused > 0) {
+			System.arraycopy(objects, unused, objects, 0, n - unused);
+			Arrays.fill(objects, n - unused, n, null);
+			n -= unused;
+
+			if (objects.length > Math.max(initialSize, 4 * n))
+				objects = Arrays.copyOf(objects, Math.max(initialSize, 2 * n));
+		}
+
+		lowWater = n;
+		allocsUntilTrim = TRIM_INTERVAL;
+	}
+
+	@SuppressWarnings("unchecked")
 	public T alloc() {
+		if (--allocsUntilTrim <= 0)
+			trim();
+
+		final PoolManager.Counters counters = registration.counters;
+		T o;
+
 		if (n > 0) {
-			T o = objects.remove(--n);
+			o = (T) objects[--n];
+			objects[n] = null;
 
-			return (o);
+			if (n < lowWater)
+				lowWater = n;
+
+			counters.hits++;
+		} else {
+			o = (T) registration.takeExchanged();
+
+			if (o == null) {
+				o = newInstance();
+				counters.misses++;
+			} else {
+				counters.hits++;
+			}
 		}
 
-		return (newInstance());
+		registration.allocated();
+
+		return (o);
 	}
 
 	public void free(T o) {
 		if (o == null)
 			return;
 
-		objects.add(o);
-		n++;
+		final PoolManager.Counters counters = registration.counters;
+
+		counters.frees++;
+		registration.freed();
+
+		if (n < maxSize) {
+			if (n == objects.length)
+				objects = Arrays.copyOf(objects, Math.min(maxSize, Math.max(8, 2 * n)));
+
+			objects[n++] = o;
+		} else if (!registration.offerExchanged(o, maxSize)) {
+			counters.discards++;
+		}
 	}
 
-	public ObjectPool(int initialSize) {
-		this.objects = new ArrayList<T>(initialSize);
+	/**
+	 * Creates a new pool, that holds at most maxSize free objects.
+	 * 
+	 * @param initialSize the initial capacity
+	 * @param maxSize the maximum number of free objects
+	 */
+	public ObjectPool(int initialSize, int maxSize) {
+		if (initialSize < 0)
+			throw new IllegalArgumentException("initialSize must be >= 0.");
+		if (maxSize < 0)
+			throw new IllegalArgumentException("maxSize must be >= 0.");
+
+		this.initialSize = Math.min(initialSize, maxSize);
+		this.objects = new Object[this.initialSize];
 		this.n = 0;
+		this.lowWater = 0;
+		this.maxSize = maxSize;
+		this.registration = PoolManager.register(this);
+	}
+
+	/**
+	 * Creates a new pool, that holds at most
+	 * {@link PoolManager#getDefaultMaxSize()} free objects (or initialSize,
+	 * if that is bigger).
+	 * 
+	 * @param initialSize the initial capacity
+	 */
+	public ObjectPool(int initialSize) {
+		this(initialSize, Math.max(initialSize, PoolManager.getDefaultMaxSize()));
 	}
 }
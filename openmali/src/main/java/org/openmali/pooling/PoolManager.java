@@ -0,0 +1,301 @@
+/**
+ * Copyright (c) 2007-2009, OpenMaLi Project Group all rights reserved.
+ * 
+ * Portions based on the Sun's javax.vecmath interface, Copyright by Sun
+ * Microsystems or Kenji Hiranabe's alternative GC-cheap implementation.
+ * Many thanks to the developers.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the 'OpenMaLi Project Group' nor the names of its
+ * contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) A
+ * RISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE
+ */
+package org.openmali.pooling;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Keeps track of all {@link ObjectPool}s. The pools are grouped by their
+ * class, so all thread-local instances of e.g. the Vector3f pool are
+ * reported together. The statistics can be read through
+ * {@link #getStatistics()} or through JMX after {@link #registerMBean()}.
+ */
+public class PoolManager {
+	/**
+	 * The name, under which {@link #registerMBean()} registers the
+	 * {@link PoolManagerMXBean}.
+	 */
+	public static final String MBEAN_NAME = "org.openmali.pooling:type=PoolManager";
+
+	private static final HashMap<String, PoolClass> POOL_CLASSES = new HashMap<String, PoolClass>();
+
+	private static volatile int defaultMaxSize = Integer.getInteger("org.openmali.pooling.maxSize", 1024).intValue();
+
+	/**
+	 * The counters of a single pool. They are only written by the thread,
+	 * that uses the pool, and read without synchronization, so a snapshot
+	 * taken while the pool is in use is approximate.
+	 */
+	static final class Counters {
+		long hits;
+		long misses;
+		long frees;
+		long discards;
+
+		final void add(Counters c) {
+			this.hits += c.hits;
+			this.misses += c.misses;
+			this.frees += c.frees;
+			this.discards += c.discards;
+		}
+	}
+
+	/**
+	 * All pools of one class and the exchange for the objects, that didn't
+	 * fit into the pool of the thread, which freed them.
+	 */
+	private static final class PoolClass {
+		final String name;
+		final ArrayList<Registration> registrations = new ArrayList<Registration>();
+		final Counters retired = new Counters();
+		final ConcurrentLinkedQueue<Object> exchange = new ConcurrentLinkedQueue<Object>();
+		final AtomicInteger exchangeSize = new AtomicInteger(0);
+
+		/*
+		 * Kept per class rather than per pool, since an object is often
+		 * freed to another pool than the one, that allocated it.
+		 */
+		final AtomicLong outstanding = new AtomicLong(0L);
+		final AtomicLong peakOutstanding = new AtomicLong(0L);
+
+		/**
+		 * Moves the counters of garbage collected pools to retired.
+		 */
+		final void purge() {
+			for (Iterator<Registration> it = registrations.iterator(); it.hasNext();) {
+				final Registration r = it.next();
+
+				if (r.pool.get() == null) {
+					retired.add(r.counters);
+					it.remove();
+				}
+			}
+		}
+
+		PoolClass(String name) {
+			this.name = name;
+		}
+	}
+
+	/**
+	 * The link between a pool, its counters and its class.
+	 */
+	static final class Registration {
+		final WeakReference<ObjectPool<?>> pool;
+		final Counters counters = new Counters();
+		private final PoolClass poolClass;
+
+		final void allocated() {
+			final long outstanding = poolClass.outstanding.incrementAndGet();
+
+			while (true) {
+				final long peak = poolClass.peakOutstanding.get();
+
+				if ((outstanding <= peak) || poolClass.peakOutstanding.compareAndSet(peak, outstanding))
+					return;
+			}
+		}
+
+		final void freed() {
+			poolClass.outstanding.decrementAndGet();
+		}
+
+		final Object takeExchanged() {
+			if (poolClass.exchangeSize.get() == 0)
+				return (null);
+
+			final Object o = poolClass.exchange.poll();
+			if (o != null)
+				poolClass.exchangeSize.decrementAndGet();
+
+			return (o);
+		}
+
+		final boolean offerExchanged(Object o, int maxSize) {
+			if (poolClass.exchangeSize.incrementAndGet() > maxSize) {
+				poolClass.exchangeSize.decrementAndGet();
+
+				return (false);
+			}
+
+			poolClass.exchange.offer(o);
+
+			return (true);
+		}
+
+		Registration(ObjectPool<?> pool, PoolClass poolClass) {
+			this.pool = new WeakReference<ObjectPool<?>>(pool);
+			this.poolClass = poolClass;
+		}
+	}
+
+	private static final class ManagerBean implements PoolManagerMXBean {
+		public PoolStatistics[] getStatistics() {
+			return (PoolManager.getStatistics());
+		}
+
+		public int getDefaultMaxSize() {
+			return (PoolManager.getDefaultMaxSize());
+		}
+
+		public void setDefaultMaxSize(int maxSize) {
+			PoolManager.setDefaultMaxSize(maxSize);
+		}
+	}
+
+	/**
+	 * Sets the maximum number of free objects for pools created from now on.
+	 * The initial value is taken from the system property
+	 * "org.openmali.pooling.maxSize" and defaults to 1024.
+	 * 
+	 * @param maxSize
+	 */
+	public static void setDefaultMaxSize(int maxSize) {
+		if (maxSize < 0)
+			throw new IllegalArgumentException("maxSize must be >= 0.");
+
+		defaultMaxSize = maxSize;
+	}
+
+	/**
+	 * @return the maximum number of free objects for newly created pools
+	 */
+	public static int getDefaultMaxSize() {
+		return (defaultMaxSize);
+	}
+
+	static Registration register(ObjectPool<?> pool) {
+		final String name = pool.getClass().getName();
+
+		synchronized (POOL_CLASSES) {
+			PoolClass poolClass = POOL_CLASSES.get(name);
+			if (poolClass == null) {
+				poolClass = new PoolClass(name);
+				POOL_CLASSES.put(name, poolClass);
+			} else {
+				poolClass.purge();
+			}
+
+			final Registration registration = new Registration(pool, poolClass);
+			poolClass.registrations.add(registration);
+
+			return (registration);
+		}
+	}
+
+	/**
+	 * Takes a snapshot of the counters of all pools, one entry per pool
+	 * class. The counters of pools, that have been garbage collected (e.g.
+	 * with their thread), are still included.
+	 * 
+	 * @return the statistics sorted by pool class name
+	 */
+	public static PoolStatistics[] getStatistics() {
+		synchronized (POOL_CLASSES) {
+			final String[] names = POOL_CLASSES.keySet().toArray(new String[POOL_CLASSES.size()]);
+			java.util.Arrays.sort(names);
+
+			final PoolStatistics[] result = new PoolStatistics[names.length];
+
+			for (int i = 0; i < names.length; i++) {
+				final PoolClass poolClass = POOL_CLASSES.get(names[i]);
+				poolClass.purge();
+
+				final Counters sum = new Counters();
+				sum.add(poolClass.retired);
+
+				int pooled = 0;
+				for (int j = 0; j < poolClass.registrations.size(); j++) {
+					final Registration r = poolClass.registrations.get(j);
+					final ObjectPool<?> pool = r.pool.get();
+
+					sum.add(r.counters);
+
+					if (pool != null)
+						pooled += pool.getSize();
+				}
+
+				result[i] = new PoolStatistics(poolClass.name, poolClass.registrations.size(), sum.hits, sum.misses, sum.frees, sum.discards, poolClass.outstanding.get(), poolClass.peakOutstanding.get(), pooled,
+						poolClass.exchangeSize.get());
+			}
+
+			return (result);
+		}
+	}
+
+	/**
+	 * Registers a {@link PoolManagerMXBean} under {@link #MBEAN_NAME} at the
+	 * platform MBean server, if not already done.
+	 * 
+	 * @throws JMException
+	 */
+	public static void registerMBean() throws JMException {
+		final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		final ObjectName name = new ObjectName(MBEAN_NAME);
+
+		synchronized (POOL_CLASSES) {
+			if (!server.isRegistered(name))
+				server.registerMBean(new ManagerBean(), name);
+		}
+	}
+
+	/**
+	 * Removes the {@link PoolManagerMXBean} from the platform MBean server.
+	 * 
+	 * @throws JMException
+	 */
+	public static void unregisterMBean() throws JMException {
+		final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		final ObjectName name = new ObjectName(MBEAN_NAME);
+
+		synchronized (POOL_CLASSES) {
+			if (server.isRegistered(name))
+				server.unregisterMBean(name);
+		}
+	}
+
+	private PoolManager() {
+	}
+}
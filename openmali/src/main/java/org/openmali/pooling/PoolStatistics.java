@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2007-2009, OpenMaLi Project Group all rights reserved.
+ * 
+ * Portions based on the Sun's javax.vecmath interface, Copyright by Sun
+ * Microsystems or Kenji Hiranabe's alternative GC-cheap implementation.
+ * Many thanks to the developers.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the 'OpenMaLi Project Group' nor the names of its
+ * contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) A
+ * RISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE
+ */
+package org.openmali.pooling;
+
+/**
+ * An immutable snapshot of the counters of all pools of one class.
+ */
+public class PoolStatistics {
+	private final String name;
+	private final int instances;
+	private final long hits;
+	private final long misses;
+	private final long frees;
+	private final long discards;
+	private final long outstanding;
+	private final long peakOutstanding;
+	private final int pooled;
+	private final int exchanged;
+
+	/**
+	 * @return the class name of the pools
+	 */
+	public final String getName() {
+		return (name);
+	}
+
+	/**
+	 * @return the number of live pools of this class (e.g. one per thread)
+	 */
+	public final int getInstances() {
+		return (instances);
+	}
+
+	/**
+	 * @return the number of allocations served by a pooled object
+	 */
+	public final long getHits() {
+		return (hits);
+	}
+
+	/**
+	 * @return the number of allocations, that created a new instance
+	 */
+	public final long getMisses() {
+		return (misses);
+	}
+
+	/**
+	 * @return hits / (hits + misses), or 0 without any allocation
+	 */
+	public final float getHitRatio() {
+		final long allocs = hits + misses;
+
+		return ((allocs == 0L) ? 0f : (float) hits / (float) allocs);
+	}
+
+	/**
+	 * @return the number of objects returned to the pools
+	 */
+	public final long getFrees() {
+		return (frees);
+	}
+
+	/**
+	 * @return the number of freed objects, that were left to the garbage
+	 * collector, because the pools were full
+	 */
+	public final long getDiscards() {
+		return (discards);
+	}
+
+	/**
+	 * @return the number of allocated and not yet freed objects, no matter
+	 * which thread's pool they were taken from or returned to
+	 */
+	public final long getOutstanding() {
+		return (outstanding);
+	}
+
+	/**
+	 * @return the highest number of outstanding objects so far
+	 */
+	public final long getPeakOutstanding() {
+		return (peakOutstanding);
+	}
+
+	/**
+	 * @return the number of free objects held by the pools
+	 */
+	public final int getPooled() {
+		return (pooled);
+	}
+
+	/**
+	 * @return the number of free objects waiting in the exchange between
+	 * the pools
+	 */
+	public final int getExchanged() {
+		return (exchanged);
+	}
+
+	@Override
+	public String toString() {
+		return (name + " { instances: " + instances + ", hits: " + hits + ", misses: " + misses + ", frees: " + frees + ", discards: " + discards + ", outstanding: " + outstanding
+				+ ", peak: " + peakOutstanding + ", pooled: " + pooled + ", exchanged: " + exchanged + " }");
+	}
+
+	public PoolStatistics(String name, int instances, long hits, long misses, long frees, long discards, long outstanding, long peakOutstanding, int pooled, int exchanged) {
+		this.name = name;
+		this.instances = instances;
+		this.hits = hits;
+		this.misses = misses;
+		this.frees = frees;
+		this.discards = discards;
+		this.outstanding = outstanding;
+		this.peakOutstanding = peakOutstanding;
+		this.pooled = pooled;
+		this.exchanged = exchanged;
+	}
+}
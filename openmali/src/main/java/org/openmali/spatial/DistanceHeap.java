@@ -0,0 +1,167 @@
+/**
+ * Copyright (c) 2007-2009, OpenMaLi Project Group all rights reserved.
+ * 
+ * Portions based on the Sun's javax.vecmath interface, Copyright by Sun
+ * Microsystems or Kenji Hiranabe's alternative GC-cheap implementation.
+ * Many thanks to the developers.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the 'OpenMaLi Project Group' nor the names of its
+ * contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) A
+ * RISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE
+ */
+package org.openmali.spatial;
+
+/**
+ * A simple binary min-heap of elements keyed by a float distance.
+ * It is used for the best-first (front-to-back) traversals of the spatial trees.
+ * The backing arrays grow on demand and are kept by {@link #clear()},
+ * so an instance can be reused for many queries.
+ */
+public class DistanceHeap<E> {
+	private Object[] elements;
+	private float[] distances;
+	private int size = 0;
+
+	/**
+	 * @return the number of elements in the heap.
+	 */
+	public final int size() {
+		return (size);
+	}
+
+	/**
+	 * @return true, if the heap doesn't contain any element.
+	 */
+	public final boolean isEmpty() {
+		return (size == 0);
+	}
+
+	/**
+	 * Removes all elements.
+	 */
+	public void clear() {
+		for (int i = 0; i < size; i++)
+			elements[i] = null;
+
+		size = 0;
+	}
+
+	/**
+	 * Adds an element.
+	 * 
+	 * @param element
+	 * @param distance
+	 */
+	public void add(E element, float distance) {
+		if (size == elements.length) {
+			final int newLength = (elements.length * 3) / 2 + 1;
+
+			Object[] elements2 = new Object[newLength];
+			System.arraycopy(elements, 0, elements2, 0, size);
+			elements = elements2;
+
+			float[] distances2 = new float[newLength];
+			System.arraycopy(distances, 0, distances2, 0, size);
+			distances = distances2;
+		}
+
+		int i = size++;
+		while (i > 0) {
+			final int parent = (i - 1) >>> 1;
+			if (distances[parent] <= distance)
+				break;
+
+			elements[i] = elements[parent];
+			distances[i] = distances[parent];
+			i = parent;
+		}
+
+		elements[i] = element;
+		distances[i] = distance;
+	}
+
+	/**
+	 * @return the smallest distance in the heap (undefined, if it is empty).
+	 */
+	public final float peekDistance() {
+		return (distances[0]);
+	}
+
+	/**
+	 * @return the element with the smallest distance (undefined, if it is empty).
+	 */
+	@SuppressWarnings("unchecked")
+	public final E peek() {
+		return ((E) elements[0]);
+	}
+
+	/**
+	 * Removes the element with the smallest distance.
+	 * 
+	 * @return the removed element.
+	 */
+	@SuppressWarnings("unchecked")
+	public E poll() {
+		final E result = (E) elements[0];
+
+		final int last = --size;
+		final Object element = elements[last];
+		final float distance = distances[last];
+		elements[last] = null;
+
+		int i = 0;
+		while (true) {
+			int child = (i << 1) + 1;
+			if (child >= size)
+				break;
+
+			if ((child + 1 < size) && (distances[child + 1] < distances[child]))
+				child++;
+
+			if (distance <= distances[child])
+				break;
+
+			elements[i] = elements[child];
+			distances[i] = distances[child];
+			i = child;
+		}
+
+		if (size > 0) {
+			elements[i] = element;
+			distances[i] = distance;
+		}
+
+		return (result);
+	}
+
+	public DistanceHeap(int initialCapacity) {
+		this.elements = new Object[Math.max(initialCapacity, 1)];
+		this.distances = new float[Math.max(initialCapacity, 1)];
+	}
+
+	public DistanceHeap() {
+		this(32);
+	}
+}
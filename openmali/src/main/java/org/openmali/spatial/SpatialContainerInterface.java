@@ -33,6 +33,8 @@
  */
 package org.openmali.spatial;
 
+import org.openmali.spatial.bodies.Box;
+import org.openmali.spatial.bodies.Frustum;
 import org.openmali.vecmath2.Tuple3f;
 
 /**
@@ -81,4 +83,32 @@ public interface SpatialContainerInterface<T> {
 	 * Empties all the entries from the container
 	 */
 	void empty();
+
+	/**
+	 * Passes all objects to the callback, that are (at least partially) inside of the frustum
+	 * and not culled by the culler.
+	 * @param frustum
+	 * @param culler additional user controlled culling (can be null)
+	 * @param callback
+	 */
+	void cull(Frustum frustum, SpatialCuller<T> culler, SpatialCallback<T> callback);
+
+	/**
+	 * Passes all objects to the callback, that intersect the box
+	 * and are not culled by the culler.
+	 * @param box
+	 * @param culler additional user controlled culling (can be null)
+	 * @param callback
+	 */
+	void queryBox(Box box, SpatialCuller<T> culler, SpatialCallback<T> callback);
+
+	/**
+	 * Passes all objects to the callback, that intersect the sphere
+	 * and are not culled by the culler.
+	 * @param center
+	 * @param radius
+	 * @param culler additional user controlled culling (can be null)
+	 * @param callback
+	 */
+	void querySphere(Tuple3f center, float radius, SpatialCuller<T> culler, SpatialCallback<T> callback);
 }
@@ -0,0 +1,193 @@
+/**
+ * Copyright (c) 2007-2009, OpenMaLi Project Group all rights reserved.
+ * 
+ * Portions based on the Sun's javax.vecmath interface, Copyright by Sun
+ * Microsystems or Kenji Hiranabe's alternative GC-cheap implementation.
+ * Many thanks to the developers.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the 'OpenMaLi Project Group' nor the names of its
+ * contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) A
+ * RISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE
+ */
+package org.openmali.spatial;
+
+import org.openmali.spatial.bounds.BoundingBox;
+import org.openmali.spatial.bounds.BoundingSphere;
+import org.openmali.spatial.bounds.Bounds;
+import org.openmali.vecmath2.Tuple3f;
+
+/**
+ * A {@link SpatialHandle}, that is also the node stored in the spatial container.
+ * It holds the object's world bounds and caches the container's cell, the object is stored in,
+ * so that updates and removal don't need to search the container.
+ */
+public class SpatialNodeHandle<T> implements SpatialHandle<T>, IndexedSpatialNode {
+	private final SpatialContainerInterface<T> container;
+	private final T object;
+
+	private final VertexContainer vertexContainer;
+	private final Tuple3f center;
+	private float radius;
+
+	private final Bounds bounds;
+
+	private Object treeCell = null;
+	private int treeCellIndex = -1;
+
+	/**
+	 * @return the container, this handle belongs to.
+	 */
+	public final SpatialContainerInterface<T> getContainer() {
+		return (container);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public final T getObject() {
+		return (object);
+	}
+
+	/**
+	 * Sets the radius of an object, that has been injected as a sphere.
+	 * The container is updated with the next call to {@link #recompute()}.
+	 * 
+	 * @param radius
+	 */
+	public void setRadius(float radius) {
+		if (vertexContainer != null)
+			throw new IllegalStateException("The object has not been injected as a sphere.");
+
+		this.radius = radius;
+	}
+
+	/**
+	 * Recomputes the world bounds from the object's vertices
+	 * or from the center and radius, the object has been injected with.
+	 */
+	public void updateBounds() {
+		if (vertexContainer != null) {
+			bounds.compute(vertexContainer);
+		} else {
+			((BoundingSphere) bounds).setCenter(center);
+			((BoundingSphere) bounds).setRadius(radius);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public final Bounds getWorldBounds() {
+		return (bounds);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public final void setTreeCell(Object treeCell) {
+		this.treeCell = treeCell;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public final Object getTreeCell() {
+		return (treeCell);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public final void setTreeCellIndex(int index) {
+		this.treeCellIndex = index;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public final int getTreeCellIndex() {
+		return (treeCellIndex);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void remove() {
+		container.remove(this);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void recompute() {
+		container.changed(this);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return (this.getClass().getSimpleName() + " { object: " + object + ", bounds: " + bounds + " }");
+	}
+
+	/**
+	 * Creates a handle for an object, that is bounded by a sphere.
+	 * The center is referenced (not copied), so that moving the object
+	 * only needs a call to {@link #recompute()}.
+	 * 
+	 * @param container
+	 * @param object
+	 * @param center
+	 * @param radius
+	 */
+	public SpatialNodeHandle(SpatialContainerInterface<T> container, T object, Tuple3f center, float radius) {
+		this.container = container;
+		this.object = object;
+		this.vertexContainer = null;
+		this.center = center;
+		this.radius = radius;
+		this.bounds = new BoundingSphere(center, radius);
+	}
+
+	/**
+	 * Creates a handle for an object, that provides its vertices.
+	 * The bounds are the axis aligned box around the vertices.
+	 * 
+	 * @param container
+	 * @param object
+	 * @param vertexContainer
+	 */
+	public SpatialNodeHandle(SpatialContainerInterface<T> container, T object, VertexContainer vertexContainer) {
+		this.container = container;
+		this.object = object;
+		this.vertexContainer = vertexContainer;
+		this.center = null;
+		this.radius = 0f;
+		this.bounds = new BoundingBox();
+
+		bounds.compute(vertexContainer);
+	}
+}
@@ -1038,6 +1038,140 @@ public final class Classifier {
 		return (classifyFrustumBox(frustum, box.getLowerX(), box.getLowerY(), box.getLowerZ(), box.getUpperX(), box.getUpperY(), box.getUpperZ()));
 	}
 
+	/**
+	 * The plane-mask for the masked frustum classifications,
+	 * that has all six planes set.
+	 */
+	public static final int ALL_FRUSTUM_PLANES = 0x3F;
+
+	/**
+	 * The result of the masked frustum classifications for an object,
+	 * that is outside of the frustum.
+	 */
+	public static final int FRUSTUM_OUTSIDE = -1;
+
+	/**
+	 * Classifies a Box against the Frustum planes, that are set in the given mask
+	 * (bit i stands for {@link Frustum#getPlane(int)} i).
+	 * Planes, that the box is completely in front of, are removed from the mask.
+	 * So the result can be passed on to classify the boxes enclosed by this one
+	 * and only the planes spanned by this box are tested again.
+	 * 
+	 * @param frustum
+	 * @param boxLowerX
+	 * @param boxLowerY
+	 * @param boxLowerZ
+	 * @param boxUpperX
+	 * @param boxUpperY
+	 * @param boxUpperZ
+	 * @param planeMask
+	 * 
+	 * @return {@link #FRUSTUM_OUTSIDE} or the mask of spanned planes (0 means inside).
+	 */
+	public static int classifyFrustumBox(Frustum frustum, float boxLowerX, float boxLowerY, float boxLowerZ, float boxUpperX, float boxUpperY, float boxUpperZ, int planeMask) {
+		int result = planeMask;
+
+		for (int i = 0; i < 6; i++) {
+			final int bit = 1 << i;
+
+			if ((planeMask & bit) == 0)
+				continue;
+
+			final Plane plane = frustum.getPlane(i);
+			final float a = plane.getA();
+			final float b = plane.getB();
+			final float c = plane.getC();
+
+			final float dMin = (a * ((a >= 0f) ? boxLowerX : boxUpperX)) + (b * ((b >= 0f) ? boxLowerY : boxUpperY)) + (c * ((c >= 0f) ? boxLowerZ : boxUpperZ)) + plane.getD();
+
+			if (dMin > 0f) {
+				result &= ~bit;
+				continue;
+			}
+
+			final float dMax = (a * ((a >= 0f) ? boxUpperX : boxLowerX)) + (b * ((b >= 0f) ? boxUpperY : boxLowerY)) + (c * ((c >= 0f) ? boxUpperZ : boxLowerZ)) + plane.getD();
+
+			if (dMax < 0f)
+				return (FRUSTUM_OUTSIDE);
+		}
+
+		return (result);
+	}
+
+	/**
+	 * Classifies a Box against the Frustum planes, that are set in the given mask.
+	 * 
+	 * @see #classifyFrustumBox(Frustum, float, float, float, float, float, float, int)
+	 * 
+	 * @param frustum
+	 * @param box
+	 * @param planeMask
+	 * 
+	 * @return {@link #FRUSTUM_OUTSIDE} or the mask of spanned planes (0 means inside).
+	 */
+	public static int classifyFrustumBox(Frustum frustum, Box box, int planeMask) {
+		return (classifyFrustumBox(frustum, box.getLowerX(), box.getLowerY(), box.getLowerZ(), box.getUpperX(), box.getUpperY(), box.getUpperZ(), planeMask));
+	}
+
+	/**
+	 * Classifies a Sphere against the Frustum planes, that are set in the given mask.
+	 * 
+	 * @see #classifyFrustumBox(Frustum, float, float, float, float, float, float, int)
+	 * 
+	 * @param frustum
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @param radius
+	 * @param planeMask
+	 * 
+	 * @return {@link #FRUSTUM_OUTSIDE} or the mask of spanned planes (0 means inside).
+	 */
+	public static int classifyFrustumSphere(Frustum frustum, float x, float y, float z, float radius, int planeMask) {
+		int result = planeMask;
+
+		for (int i = 0; i < 6; i++) {
+			final int bit = 1 << i;
+
+			if ((planeMask & bit) == 0)
+				continue;
+
+			final float d = frustum.getPlane(i).distanceTo(x, y, z);
+
+			if (d <= -radius)
+				return (FRUSTUM_OUTSIDE);
+
+			if (d >= radius)
+				result &= ~bit;
+		}
+
+		return (result);
+	}
+
+	/**
+	 * Classifies a Bounds object against the Frustum planes, that are set in the given mask.
+	 * Bounds types, that are not (yet) supported, are classified as spanning all the given planes.
+	 * 
+	 * @see #classifyFrustumBox(Frustum, float, float, float, float, float, float, int)
+	 * 
+	 * @param frustum
+	 * @param bounds
+	 * @param planeMask
+	 * 
+	 * @return {@link #FRUSTUM_OUTSIDE} or the mask of spanned planes (0 means inside).
+	 */
+	public static int classifyFrustumBounds(Frustum frustum, Bounds bounds, int planeMask) {
+		if (bounds.getType() == BoundsType.SPHERE) {
+			final Sphere sphere = (Sphere) bounds;
+
+			return (classifyFrustumSphere(frustum, sphere.getCenterX(), sphere.getCenterY(), sphere.getCenterZ(), sphere.getRadius(), planeMask));
+		} else if (bounds.getType() == BoundsType.AABB) {
+			return (classifyFrustumBox(frustum, (Box) bounds, planeMask));
+		}
+
+		return (planeMask);
+	}
+
 	/**
 	 * Classifies a Frustum against a Bounds object.
 	 * 
@@ -140,6 +140,33 @@ public class Frustum {
 		return (plane);
 	}
 
+	/**
+	 * Gets one of the six planes by index. The order is the one used by the
+	 * {@link Classifier}: near, left, right, bottom, top, far.
+	 * 
+	 * @param index
+	 * 
+	 * @return the plane
+	 */
+	public final Plane getPlane(int index) {
+		switch (index) {
+		case 0:
+			return (planeNear);
+		case 1:
+			return (planeLeft);
+		case 2:
+			return (planeRight);
+		case 3:
+			return (planeBottom);
+		case 4:
+			return (planeTop);
+		case 5:
+			return (planeFar);
+		}
+
+		throw new IllegalArgumentException("index must be in [0, 5].");
+	}
+
 	/**
 	 * Quick check to see if an orthogonal bounding box is inside the frustum
 	 */
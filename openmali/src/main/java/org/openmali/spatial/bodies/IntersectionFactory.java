@@ -34,11 +34,14 @@
 package org.openmali.spatial.bodies;
 
 import org.openmali.FastMath;
+import org.openmali.spatial.bounds.Bounds;
+import org.openmali.spatial.bounds.BoundsType;
 import org.openmali.vecmath2.Point3f;
 import org.openmali.vecmath2.Ray3f;
 import org.openmali.vecmath2.Tuple2f;
 import org.openmali.vecmath2.Tuple3f;
 import org.openmali.vecmath2.Vector3f;
+import org.openmali.vecmath2.util.VecStack;
 
 /**
  * This class provides static methods to test different bodies for intersection.
@@ -288,50 +291,52 @@ public final class IntersectionFactory {
 		// notation:
 		// point E = rayOrigin
 		// point O = sphere center
-		Vector3f EO = Vector3f.fromPool();
-		EO.set(sphereCenter);
-		EO.sub(rayOrigin);
+		final VecStack stack = VecStack.push();
+		try {
+			Vector3f EO = stack.vec3();
+			EO.set(sphereCenter);
+			EO.sub(rayOrigin);
 
-		Vector3f V = Vector3f.fromPool();
-		V.set(rayDirection);
+			Vector3f V = stack.vec3();
+			V.set(rayDirection);
 
-		float dist2 = EO.lengthSquared();
+			float dist2 = EO.lengthSquared();
 
-		// final float radius_sq = sphereRadius * sphereRadius;
+			// final float radius_sq = sphereRadius * sphereRadius;
 
-		// Bug Fix For Gem, if origin is *inside* the sphere, invert the
-		// direction vector so that we get a valid intersection location.
-		if (dist2 < sphereRadiusSquared) {
-			V.negate();
-		}
+			// Bug Fix For Gem, if origin is *inside* the sphere, invert the
+			// direction vector so that we get a valid intersection location.
+			if (dist2 < sphereRadiusSquared) {
+				V.negate();
+			}
+
+			float v = EO.dot(V);
+			// need to multiply the dot product result by |EO| (magnitude of EO
+			// vector)
+			// in order to find correct distance of side of triangle.
+			// formula: EO.dot( V ) = v / ( EO.length() )
+			// NOTE: the distance "v" is different than direction Vector V in
+			// diagram.
+			v *= FastMath.sqrt(dist2);
 
-		float v = EO.dot(V);
-		// need to multiply the dot product result by |EO| (magnitude of EO
-		// vector)
-		// in order to find correct distance of side of triangle.
-		// formula: EO.dot( V ) = v / ( EO.length() )
-		// NOTE: the distance "v" is different than direction Vector V in
-		// diagram.
-		v *= FastMath.sqrt(dist2);
+			final float dist = sphereRadiusSquared - (dist2 - (v * v));
 
-		final float dist = sphereRadiusSquared - (dist2 - (v * v));
+			boolean result = false;
 
-		boolean result = false;
+			if (dist > 0.0f) {
+				if (intersection != null) {
+					float d = FastMath.sqrt(dist);
+					V.scale(v - d);
+					intersection.add(rayOrigin, V);
+				}
 
-		if (dist > 0.0f) {
-			if (intersection != null) {
-				float d = FastMath.sqrt(dist);
-				V.scale(v - d);
-				intersection.add(rayOrigin, V);
+				result = true;
 			}
 
-			result = true;
+			return (result);
+		} finally {
+			stack.pop();
 		}
-
-		Vector3f.toPool(V);
-		Vector3f.toPool(EO);
-
-		return (result);
 	}
 
 	/**
@@ -427,31 +432,32 @@ public final class IntersectionFactory {
 	 * @return true for an intersection
 	 */
 	public static boolean sphereIntersectsRayInFront(Tuple3f sphereCenter, float sphereRadiusSquared, Point3f rayOrigin, Vector3f rayDirection, Tuple3f intersection) {
-		Vector3f sect = Vector3f.fromPool();
-		boolean hit = sphereIntersectsRay(sphereCenter, sphereRadiusSquared, rayOrigin, rayDirection, sect);
+		final VecStack stack = VecStack.push();
+		try {
+			Vector3f sect = stack.vec3();
+			boolean hit = sphereIntersectsRay(sphereCenter, sphereRadiusSquared, rayOrigin, rayDirection, sect);
 
-		boolean result = false;
+			boolean result = false;
 
-		if (hit) {
-			Vector3f dir = Vector3f.fromPool();
-			dir.sub(sect, rayOrigin);
+			if (hit) {
+				Vector3f dir = stack.vec3();
+				dir.sub(sect, rayOrigin);
 
-			float dot = dir.dot(rayDirection);
+				float dot = dir.dot(rayDirection);
 
-			if (dot >= 0) { // then it's in front!
-				if (intersection != null) {
-					intersection.set(sect);
-				}
+				if (dot >= 0) { // then it's in front!
+					if (intersection != null) {
+						intersection.set(sect);
+					}
 
-				result = true;
+					result = true;
+				}
 			}
 
-			Vector3f.toPool(dir);
+			return (result);
+		} finally {
+			stack.pop();
 		}
-
-		Vector3f.toPool(sect);
-
-		return (result);
 	}
 
 	/**
@@ -760,6 +766,425 @@ public final class IntersectionFactory {
 		return (boxIntersectsRay(boxLower, boxUpper, ray.getOrigin(), ray.getDirection()));
 	}
 
+	/**
+	 * Tests a Box for intersection with a Ray (slab test) and computes the ray parameter of the entry point.
+	 * 
+	 * @param boxLowerX
+	 * @param boxLowerY
+	 * @param boxLowerZ
+	 * @param boxUpperX
+	 * @param boxUpperY
+	 * @param boxUpperZ
+	 * @param rayOriX
+	 * @param rayOriY
+	 * @param rayOriZ
+	 * @param rayDirX
+	 * @param rayDirY
+	 * @param rayDirZ
+	 * 
+	 * @return NaN, if the ray misses the box, t which has to be multipled by dir to get the entry point
+	 * (0, if the ray's origin is inside of the box)
+	 */
+	public static float boxIntersectsRayParametric(float boxLowerX, float boxLowerY, float boxLowerZ, float boxUpperX, float boxUpperY, float boxUpperZ, float rayOriX, float rayOriY,
+			float rayOriZ, float rayDirX, float rayDirY, float rayDirZ) {
+		float tNear = 0f;
+		float tFar = Float.MAX_VALUE;
+
+		if (Math.abs(rayDirX) < EPSILON_ANGLE) {
+			if ((rayOriX < boxLowerX) || (rayOriX > boxUpperX))
+				return (Float.NaN);
+		} else {
+			final float invDir = 1f / rayDirX;
+			float t0 = (boxLowerX - rayOriX) * invDir;
+			float t1 = (boxUpperX - rayOriX) * invDir;
+			if (t0 > t1) {
+				final float tmp = t0;
+				t0 = t1;
+				t1 = tmp;
+			}
+
+			if (t0 > tNear)
+				tNear = t0;
+			if (t1 < tFar)
+				tFar = t1;
+			if (tNear > tFar)
+				return (Float.NaN);
+		}
+
+		if (Math.abs(rayDirY) < EPSILON_ANGLE) {
+			if ((rayOriY < boxLowerY) || (rayOriY > boxUpperY))
+				return (Float.NaN);
+		} else {
+			final float invDir = 1f / rayDirY;
+			float t0 = (boxLowerY - rayOriY) * invDir;
+			float t1 = (boxUpperY - rayOriY) * invDir;
+			if (t0 > t1) {
+				final float tmp = t0;
+				t0 = t1;
+				t1 = tmp;
+			}
+
+			if (t0 > tNear)
+				tNear = t0;
+			if (t1 < tFar)
+				tFar = t1;
+			if (tNear > tFar)
+				return (Float.NaN);
+		}
+
+		if (Math.abs(rayDirZ) < EPSILON_ANGLE) {
+			if ((rayOriZ < boxLowerZ) || (rayOriZ > boxUpperZ))
+				return (Float.NaN);
+		} else {
+			final float invDir = 1f / rayDirZ;
+			float t0 = (boxLowerZ - rayOriZ) * invDir;
+			float t1 = (boxUpperZ - rayOriZ) * invDir;
+			if (t0 > t1) {
+				final float tmp = t0;
+				t0 = t1;
+				t1 = tmp;
+			}
+
+			if (t0 > tNear)
+				tNear = t0;
+			if (t1 < tFar)
+				tFar = t1;
+			if (tNear > tFar)
+				return (Float.NaN);
+		}
+
+		return (tNear);
+	}
+
+	/**
+	 * Tests a Box for intersection with a Ray (slab test) and computes the ray parameter of the entry point.
+	 * 
+	 * @param boxLowerX
+	 * @param boxLowerY
+	 * @param boxLowerZ
+	 * @param boxUpperX
+	 * @param boxUpperY
+	 * @param boxUpperZ
+	 * @param origin
+	 * @param dir
+	 * 
+	 * @return NaN, if the ray misses the box, t which has to be multipled by dir to get the entry point
+	 * (0, if the ray's origin is inside of the box)
+	 */
+	public static float boxIntersectsRayParametric(float boxLowerX, float boxLowerY, float boxLowerZ, float boxUpperX, float boxUpperY, float boxUpperZ, Point3f origin, Vector3f dir) {
+		return (boxIntersectsRayParametric(boxLowerX, boxLowerY, boxLowerZ, boxUpperX, boxUpperY, boxUpperZ, origin.getX(), origin.getY(), origin.getZ(), dir.getX(), dir.getY(), dir.getZ()));
+	}
+
+	/**
+	 * Tests a Box for intersection with a Ray (slab test) and computes the ray parameter of the entry point.
+	 * 
+	 * @param box
+	 * @param ray
+	 * 
+	 * @return NaN, if the ray misses the box, t which has to be multipled by dir to get the entry point
+	 * (0, if the ray's origin is inside of the box)
+	 */
+	public static float boxIntersectsRayParametric(Box box, Ray3f ray) {
+		return (boxIntersectsRayParametric(box.getLowerX(), box.getLowerY(), box.getLowerZ(), box.getUpperX(), box.getUpperY(), box.getUpperZ(), ray.getOrigin(), ray.getDirection()));
+	}
+
+	/**
+	 * Tests a Sphere for intersection with a Ray and computes the ray parameter of the entry point.
+	 * 
+	 * @param sphereX
+	 * @param sphereY
+	 * @param sphereZ
+	 * @param sphereR
+	 * @param origin
+	 * @param dir
+	 * 
+	 * @return NaN, if the ray misses the sphere, t which has to be multipled by dir to get the entry point
+	 * (0, if the ray's origin is inside of the sphere)
+	 */
+	public static float sphereIntersectsRayParametric(float sphereX, float sphereY, float sphereZ, float sphereR, Point3f origin, Vector3f dir) {
+		final float ox = origin.getX() - sphereX;
+		final float oy = origin.getY() - sphereY;
+		final float oz = origin.getZ() - sphereZ;
+
+		final float c = (ox * ox) + (oy * oy) + (oz * oz) - (sphereR * sphereR);
+		if (c <= 0f)
+			return (0f);
+
+		final float a = dir.lengthSquared();
+		final float b = (ox * dir.getX()) + (oy * dir.getY()) + (oz * dir.getZ());
+
+		// The origin is outside and the ray points away from the center.
+		if (b >= 0f)
+			return (Float.NaN);
+
+		final float disc = (b * b) - (a * c);
+		if (disc < 0f)
+			return (Float.NaN);
+
+		return ((-b - FastMath.sqrt(disc)) / a);
+	}
+
+	/**
+	 * Tests a Bounds object for intersection with a Ray and computes the ray parameter of the entry point.
+	 * 
+	 * @param bounds
+	 * @param ray
+	 * 
+	 * @return NaN, if the ray misses the bounds, t which has to be multipled by dir to get the entry point
+	 * (0, if the ray's origin is inside of the bounds)
+	 */
+	public static float boundsIntersectsRayParametric(Bounds bounds, Ray3f ray) {
+		final Point3f origin = ray.getOrigin();
+		final Vector3f dir = ray.getDirection();
+
+		switch (bounds.getType()) {
+		case AABB:
+			return (boxIntersectsRayParametric((Box) bounds, ray));
+		case SPHERE:
+			final Sphere sphere = (Sphere) bounds;
+
+			return (sphereIntersectsRayParametric(sphere.getCenterX(), sphere.getCenterY(), sphere.getCenterZ(), sphere.getRadius(), origin, dir));
+		}
+
+		if (bounds.contains(origin))
+			return (0f);
+
+		final VecStack stack = VecStack.push();
+		final Point3f intersection = stack.point3();
+
+		try {
+			if (!bounds.intersects(origin, dir, intersection))
+				return (Float.NaN);
+
+			return (intersection.distance(origin) / dir.length());
+		} finally {
+			stack.pop();
+		}
+	}
+
+	/**
+	 * Computes the squared distance of a point to a Box.
+	 * 
+	 * @param px
+	 * @param py
+	 * @param pz
+	 * @param boxLowerX
+	 * @param boxLowerY
+	 * @param boxLowerZ
+	 * @param boxUpperX
+	 * @param boxUpperY
+	 * @param boxUpperZ
+	 * 
+	 * @return the squared distance (0, if the point is inside of the box)
+	 */
+	public static final float boxDistanceSquared(float px, float py, float pz, float boxLowerX, float boxLowerY, float boxLowerZ, float boxUpperX, float boxUpperY, float boxUpperZ) {
+		float d = 0.0f;
+		float s;
+
+		s = distance(px, boxLowerX, boxUpperX);
+		d += s * s;
+
+		s = distance(py, boxLowerY, boxUpperY);
+		d += s * s;
+
+		s = distance(pz, boxLowerZ, boxUpperZ);
+		d += s * s;
+
+		return (d);
+	}
+
+	/**
+	 * Computes the squared distance of a point to a Box.
+	 * 
+	 * @param px
+	 * @param py
+	 * @param pz
+	 * @param box
+	 * 
+	 * @return the squared distance (0, if the point is inside of the box)
+	 */
+	public static final float boxDistanceSquared(float px, float py, float pz, Box box) {
+		return (boxDistanceSquared(px, py, pz, box.getLowerX(), box.getLowerY(), box.getLowerZ(), box.getUpperX(), box.getUpperY(), box.getUpperZ()));
+	}
+
+	/**
+	 * Computes the squared distance of a point to a Bounds object.
+	 * Bounds other than boxes and spheres are approximated by their enclosing sphere.
+	 * 
+	 * @param px
+	 * @param py
+	 * @param pz
+	 * @param bounds
+	 * 
+	 * @return the squared distance (0, if the point is inside of the bounds)
+	 */
+	public static final float boundsDistanceSquared(float px, float py, float pz, Bounds bounds) {
+		if (bounds.getType() == BoundsType.AABB)
+			return (boxDistanceSquared(px, py, pz, (Box) bounds));
+
+		final float radius;
+		if (bounds.getType() == BoundsType.SPHERE)
+			radius = ((Sphere) bounds).getRadius();
+		else
+			radius = bounds.getMaxCenterDistance();
+
+		final float dx = px - bounds.getCenterX();
+		final float dy = py - bounds.getCenterY();
+		final float dz = pz - bounds.getCenterZ();
+		final float d = FastMath.sqrt(dx * dx + dy * dy + dz * dz) - radius;
+
+		if (d <= 0.0f)
+			return (0.0f);
+
+		return (d * d);
+	}
+
+	/**
+	 * Tests a Bounds object and a Box for intersection.
+	 * Bounds other than boxes and spheres are approximated by their enclosing sphere.
+	 * 
+	 * @param bounds
+	 * @param boxLowerX
+	 * @param boxLowerY
+	 * @param boxLowerZ
+	 * @param boxUpperX
+	 * @param boxUpperY
+	 * @param boxUpperZ
+	 * 
+	 * @return true, if the bounds and the box intersect
+	 */
+	public static final boolean boundsIntersectsBox(Bounds bounds, float boxLowerX, float boxLowerY, float boxLowerZ, float boxUpperX, float boxUpperY, float boxUpperZ) {
+		switch (bounds.getType()) {
+		case AABB:
+			final Box box = (Box) bounds;
+
+			return (boxIntersectsBox(box.getLowerX(), box.getLowerY(), box.getLowerZ(), box.getUpperX(), box.getUpperY(), box.getUpperZ(), boxLowerX, boxLowerY, boxLowerZ, boxUpperX, boxUpperY,
+					boxUpperZ));
+		case SPHERE:
+			final Sphere sphere = (Sphere) bounds;
+
+			return (sphereIntersectsBox(sphere.getCenterX(), sphere.getCenterY(), sphere.getCenterZ(), sphere.getRadius(), boxLowerX, boxLowerY, boxLowerZ, boxUpperX, boxUpperY, boxUpperZ));
+		}
+
+		return (sphereIntersectsBox(bounds.getCenterX(), bounds.getCenterY(), bounds.getCenterZ(), bounds.getMaxCenterDistance(), boxLowerX, boxLowerY, boxLowerZ, boxUpperX, boxUpperY, boxUpperZ));
+	}
+
+	/**
+	 * Tests a Bounds object and a Sphere for intersection.
+	 * Bounds other than boxes and spheres are approximated by their enclosing sphere.
+	 * 
+	 * @param bounds
+	 * @param sphereX
+	 * @param sphereY
+	 * @param sphereZ
+	 * @param sphereR
+	 * 
+	 * @return true, if the bounds and the sphere intersect
+	 */
+	public static final boolean boundsIntersectsSphere(Bounds bounds, float sphereX, float sphereY, float sphereZ, float sphereR) {
+		return (boundsDistanceSquared(sphereX, sphereY, sphereZ, bounds) <= sphereR * sphereR);
+	}
+
+	private static final boolean axisSeparatesTriangleAndBox(float axisX, float axisY, float axisZ, float v0x, float v0y, float v0z, float v1x, float v1y, float v1z, float v2x, float v2y, float v2z, float halfX,
+			float halfY, float halfZ) {
+		final float p0 = axisX * v0x + axisY * v0y + axisZ * v0z;
+		final float p1 = axisX * v1x + axisY * v1y + axisZ * v1z;
+		final float p2 = axisX * v2x + axisY * v2y + axisZ * v2z;
+		final float r = halfX * Math.abs(axisX) + halfY * Math.abs(axisY) + halfZ * Math.abs(axisZ);
+
+		return ((Math.min(p0, Math.min(p1, p2)) > r) || (Math.max(p0, Math.max(p1, p2)) < -r));
+	}
+
+	/**
+	 * Tests a triangle and a Box for intersection (separating axis test).
+	 * 
+	 * @param ax
+	 * @param ay
+	 * @param az
+	 * @param bx
+	 * @param by
+	 * @param bz
+	 * @param cx
+	 * @param cy
+	 * @param cz
+	 * @param boxLowerX
+	 * @param boxLowerY
+	 * @param boxLowerZ
+	 * @param boxUpperX
+	 * @param boxUpperY
+	 * @param boxUpperZ
+	 * 
+	 * @return true, if the triangle and the box intersect
+	 */
+	public static final boolean triangleIntersectsBox(float ax, float ay, float az, float bx, float by, float bz, float cx, float cy, float cz, float boxLowerX, float boxLowerY, float boxLowerZ,
+			float boxUpperX, float boxUpperY, float boxUpperZ) {
+		// The box's axes.
+		if ((Math.min(ax, Math.min(bx, cx)) > boxUpperX) || (Math.max(ax, Math.max(bx, cx)) < boxLowerX))
+			return (false);
+		if ((Math.min(ay, Math.min(by, cy)) > boxUpperY) || (Math.max(ay, Math.max(by, cy)) < boxLowerY))
+			return (false);
+		if ((Math.min(az, Math.min(bz, cz)) > boxUpperZ) || (Math.max(az, Math.max(bz, cz)) < boxLowerZ))
+			return (false);
+
+		// Move the box to the origin.
+		final float halfX = (boxUpperX - boxLowerX) * 0.5f;
+		final float halfY = (boxUpperY - boxLowerY) * 0.5f;
+		final float halfZ = (boxUpperZ - boxLowerZ) * 0.5f;
+		final float centerX = boxLowerX + halfX;
+		final float centerY = boxLowerY + halfY;
+		final float centerZ = boxLowerZ + halfZ;
+
+		final float v0x = ax - centerX;
+		final float v0y = ay - centerY;
+		final float v0z = az - centerZ;
+		final float v1x = bx - centerX;
+		final float v1y = by - centerY;
+		final float v1z = bz - centerZ;
+		final float v2x = cx - centerX;
+		final float v2y = cy - centerY;
+		final float v2z = cz - centerZ;
+
+		// The triangle's plane.
+		final float e0x = v1x - v0x;
+		final float e0y = v1y - v0y;
+		final float e0z = v1z - v0z;
+		final float e1x = v2x - v1x;
+		final float e1y = v2y - v1y;
+		final float e1z = v2z - v1z;
+		final float e2x = v0x - v2x;
+		final float e2y = v0y - v2y;
+		final float e2z = v0z - v2z;
+
+		final float nx = e0y * e1z - e0z * e1y;
+		final float ny = e0z * e1x - e0x * e1z;
+		final float nz = e0x * e1y - e0y * e1x;
+
+		if (Math.abs(nx * v0x + ny * v0y + nz * v0z) > halfX * Math.abs(nx) + halfY * Math.abs(ny) + halfZ * Math.abs(nz))
+			return (false);
+
+		// The cross products of the box's axes and the triangle's edges.
+		if (axisSeparatesTriangleAndBox(0f, -e0z, e0y, v0x, v0y, v0z, v1x, v1y, v1z, v2x, v2y, v2z, halfX, halfY, halfZ))
+			return (false);
+		if (axisSeparatesTriangleAndBox(0f, -e1z, e1y, v0x, v0y, v0z, v1x, v1y, v1z, v2x, v2y, v2z, halfX, halfY, halfZ))
+			return (false);
+		if (axisSeparatesTriangleAndBox(0f, -e2z, e2y, v0x, v0y, v0z, v1x, v1y, v1z, v2x, v2y, v2z, halfX, halfY, halfZ))
+			return (false);
+		if (axisSeparatesTriangleAndBox(e0z, 0f, -e0x, v0x, v0y, v0z, v1x, v1y, v1z, v2x, v2y, v2z, halfX, halfY, halfZ))
+			return (false);
+		if (axisSeparatesTriangleAndBox(e1z, 0f, -e1x, v0x, v0y, v0z, v1x, v1y, v1z, v2x, v2y, v2z, halfX, halfY, halfZ))
+			return (false);
+		if (axisSeparatesTriangleAndBox(e2z, 0f, -e2x, v0x, v0y, v0z, v1x, v1y, v1z, v2x, v2y, v2z, halfX, halfY, halfZ))
+			return (false);
+		if (axisSeparatesTriangleAndBox(-e0y, e0x, 0f, v0x, v0y, v0z, v1x, v1y, v1z, v2x, v2y, v2z, halfX, halfY, halfZ))
+			return (false);
+		if (axisSeparatesTriangleAndBox(-e1y, e1x, 0f, v0x, v0y, v0z, v1x, v1y, v1z, v2x, v2y, v2z, halfX, halfY, halfZ))
+			return (false);
+		if (axisSeparatesTriangleAndBox(-e2y, e2x, 0f, v0x, v0y, v0z, v1x, v1y, v1z, v2x, v2y, v2z, halfX, halfY, halfZ))
+			return (false);
+
+		return (true);
+	}
+
 	public static boolean convexHullIntersectsRay(ConvexHull hull, Point3f origin, Vector3f dir, Tuple3f intersection) {
 		float tfar = Float.POSITIVE_INFINITY;
 		float tnear = Float.NEGATIVE_INFINITY;
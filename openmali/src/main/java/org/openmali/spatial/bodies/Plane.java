@@ -44,6 +44,7 @@ import org.openmali.vecmath2.Ray3f;
 import org.openmali.vecmath2.Tuple3f;
 import org.openmali.vecmath2.Vector3f;
 import org.openmali.vecmath2.util.FloatUtils;
+import org.openmali.vecmath2.util.VecStack;
 
 /**
  * A Plane.
@@ -301,14 +302,18 @@ public final class Plane implements Externalizable {
 	}
 
 	public boolean segmentIntersection(Point3f from, Point3f to, Tuple3f intersect) {
-		Vector3f dir = Vector3f.fromPool();
-		dir.sub(to, from);
-		float t = rayIntersectionParametric(from, dir, intersect);
-		Vector3f.toPool(dir);
-		if (Math.abs(t) <= 1f)
-			return (true);
+		final VecStack stack = VecStack.push();
+		try {
+			Vector3f dir = stack.vec3();
+			dir.sub(to, from);
+			float t = rayIntersectionParametric(from, dir, intersect);
+			if (Math.abs(t) <= 1f)
+				return (true);
 
-		return (false);
+			return (false);
+		} finally {
+			stack.pop();
+		}
 	}
 
 	public float intersectsSegment(Tuple3f va, Tuple3f vb, Tuple3f intersection) {
@@ -48,6 +48,7 @@ import org.openmali.vecmath2.Point3f;
 import org.openmali.vecmath2.Ray3f;
 import org.openmali.vecmath2.Tuple3f;
 import org.openmali.vecmath2.Vector3f;
+import org.openmali.vecmath2.util.VecStack;
 
 /**
  * Axis aligned bounding box volumes
@@ -145,38 +146,41 @@ public class BoundingBox extends Box implements Bounds {
 		final float uy = u.getY();
 		final float uz = u.getZ();
 
-		Point3f p = Point3f.fromPool();
-
-		p.set(lx, ly, lz);
-		trans.transform(p);
-		setLower(p);
-		setUpper(p);
-		p.set(lx, ly, uz);
-		trans.transform(p);
-		combine_(p);
-		p.set(lx, uy, lz);
-		trans.transform(p);
-		combine_(p);
-		p.set(lx, uy, uz);
-		trans.transform(p);
-		combine_(p);
-
-		p.set(ux, ly, lz);
-		trans.transform(p);
-		combine_(p);
-		p.set(ux, ly, uz);
-		trans.transform(p);
-		combine_(p);
-		p.set(ux, uy, lz);
-		trans.transform(p);
-		combine_(p);
-		p.set(ux, uy, uz);
-		trans.transform(p);
-		combine_(p);
-
-		Point3f.toPool(p);
-
-		calcCenter();
+		final VecStack stack = VecStack.push();
+		try {
+			Point3f p = stack.point3();
+
+			p.set(lx, ly, lz);
+			trans.transform(p);
+			setLower(p);
+			setUpper(p);
+			p.set(lx, ly, uz);
+			trans.transform(p);
+			combine_(p);
+			p.set(lx, uy, lz);
+			trans.transform(p);
+			combine_(p);
+			p.set(lx, uy, uz);
+			trans.transform(p);
+			combine_(p);
+
+			p.set(ux, ly, lz);
+			trans.transform(p);
+			combine_(p);
+			p.set(ux, ly, uz);
+			trans.transform(p);
+			combine_(p);
+			p.set(ux, uy, lz);
+			trans.transform(p);
+			combine_(p);
+			p.set(ux, uy, uz);
+			trans.transform(p);
+			combine_(p);
+
+			calcCenter();
+		} finally {
+			stack.pop();
+		}
 	}
 
 	/**
@@ -247,36 +251,39 @@ public class BoundingBox extends Box implements Bounds {
 		setLower(Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE);
 		setUpper(-Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE);
 
-		Point3f coord = Point3f.fromPool();
-
-		for (int i = 0; i < n; i++) {
-			/*
-			 * if ( source.getVertexCount() != n ) { throw new Error(
-			 * "We started with size " + n + " and now it is " +
-			 * source.getVertexCount() ) ); }
-			 */
-
-			source.getVertex(i, coord);
-
-			if (coord.getX() < lower.getX())
-				lower.setX(coord.getX());
-			/* else */if (coord.getX() > upper.getX())
-				upper.setX(coord.getX());
-
-			if (coord.getY() < lower.getY())
-				lower.setY(coord.getY());
-			/* else */if (coord.getY() > upper.getY())
-				upper.setY(coord.getY());
-
-			if (coord.getZ() < lower.getZ())
-				lower.setZ(coord.getZ());
-			/* else */if (coord.getZ() > upper.getZ())
-				upper.setZ(coord.getZ());
+		final VecStack stack = VecStack.push();
+		try {
+			Point3f coord = stack.point3();
+
+			for (int i = 0; i < n; i++) {
+				/*
+				 * if ( source.getVertexCount() != n ) { throw new Error(
+				 * "We started with size " + n + " and now it is " +
+				 * source.getVertexCount() ) ); }
+				 */
+
+				source.getVertex(i, coord);
+
+				if (coord.getX() < lower.getX())
+					lower.setX(coord.getX());
+				/* else */if (coord.getX() > upper.getX())
+					upper.setX(coord.getX());
+
+				if (coord.getY() < lower.getY())
+					lower.setY(coord.getY());
+				/* else */if (coord.getY() > upper.getY())
+					upper.setY(coord.getY());
+
+				if (coord.getZ() < lower.getZ())
+					lower.setZ(coord.getZ());
+				/* else */if (coord.getZ() > upper.getZ())
+					upper.setZ(coord.getZ());
+			}
+
+			calcCenter();
+		} finally {
+			stack.pop();
 		}
-
-		Point3f.toPool(coord);
-
-		calcCenter();
 	}
 
 	/**
@@ -49,6 +49,7 @@ import org.openmali.vecmath2.Point3f;
 import org.openmali.vecmath2.Ray3f;
 import org.openmali.vecmath2.Tuple3f;
 import org.openmali.vecmath2.Vector3f;
+import org.openmali.vecmath2.util.VecStack;
 
 /**
  * A spherical bounding volume. It has two associated values:
@@ -212,75 +213,65 @@ public class BoundingSphere extends Sphere implements Bounds {
 	private static final void computeByAABB(final VertexContainer source, final Sphere sphere) {
 		final int numVerts = source.getVertexCount();
 
-		Point3f xmin = Point3f.fromPool(+Float.MAX_VALUE, +Float.MAX_VALUE, +Float.MAX_VALUE);
-		Point3f xmax = Point3f.fromPool(-Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE);
-		Point3f ymin = Point3f.fromPool(+Float.MAX_VALUE, +Float.MAX_VALUE, +Float.MAX_VALUE);
-		Point3f ymax = Point3f.fromPool(-Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE);
-		Point3f zmin = Point3f.fromPool(+Float.MAX_VALUE, +Float.MAX_VALUE, +Float.MAX_VALUE);
-		Point3f zmax = Point3f.fromPool(-Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE);
+		final VecStack stack = VecStack.push();
+		try {
+			Point3f xmin = stack.point3(+Float.MAX_VALUE, +Float.MAX_VALUE, +Float.MAX_VALUE);
+			Point3f xmax = stack.point3(-Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE);
+			Point3f ymin = stack.point3(+Float.MAX_VALUE, +Float.MAX_VALUE, +Float.MAX_VALUE);
+			Point3f ymax = stack.point3(-Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE);
+			Point3f zmin = stack.point3(+Float.MAX_VALUE, +Float.MAX_VALUE, +Float.MAX_VALUE);
+			Point3f zmax = stack.point3(-Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE);
 
-		Point3f vertex = Point3f.fromPool();
+			Point3f vertex = stack.point3();
 
-		for (int i = 0; i < numVerts; i++) {
-			source.getVertex(i, vertex);
+			for (int i = 0; i < numVerts; i++) {
+				source.getVertex(i, vertex);
 
-			// System.out.println( vertex );
+				// System.out.println( vertex );
 
-			if (vertex.getX() < xmin.getX()) {
-				xmin.set(vertex);
-			}
+				if (vertex.getX() < xmin.getX()) {
+					xmin.set(vertex);
+				}
 
-			if (vertex.getX() > xmax.getX()) {
-				xmax.set(vertex);
-			}
+				if (vertex.getX() > xmax.getX()) {
+					xmax.set(vertex);
+				}
 
-			if (vertex.getY() < ymin.getY()) {
-				ymin.set(vertex);
-			}
+				if (vertex.getY() < ymin.getY()) {
+					ymin.set(vertex);
+				}
 
-			if (vertex.getY() > ymax.getY()) {
-				ymax.set(vertex);
-			}
+				if (vertex.getY() > ymax.getY()) {
+					ymax.set(vertex);
+				}
 
-			if (vertex.getZ() < zmin.getZ()) {
-				zmin.set(vertex);
-			}
+				if (vertex.getZ() < zmin.getZ()) {
+					zmin.set(vertex);
+				}
 
-			if (vertex.getZ() > zmax.getZ()) {
-				zmax.set(vertex);
+				if (vertex.getZ() > zmax.getZ()) {
+					zmax.set(vertex);
+				}
 			}
-		}
-
-		// System.out.println( xmin + ", " + xmax );
-		// System.out.println( ymin + ", " + ymax );
-
-		sphere.setCenter(xmin.getX() + (xmax.getX() - xmin.getX()) * 0.5f, ymin.getY() + (ymax.getY() - ymin.getY()) * 0.5f, zmin.getZ() + (zmax.getZ() - zmin.getZ()) * 0.5f);
 
-		Vector3f radiusVec = Vector3f.fromPool();
-		Point3f min = Point3f.fromPool();
-		Point3f max = Point3f.fromPool();
+			// System.out.println( xmin + ", " + xmax );
+			// System.out.println( ymin + ", " + ymax );
 
-		min.set(xmin.getX(), ymin.getY(), zmin.getZ());
-		max.set(xmax.getX(), ymax.getY(), zmax.getZ());
+			sphere.setCenter(xmin.getX() + (xmax.getX() - xmin.getX()) * 0.5f, ymin.getY() + (ymax.getY() - ymin.getY()) * 0.5f, zmin.getZ() + (zmax.getZ() - zmin.getZ()) * 0.5f);
 
-		radiusVec.sub(max, min);
+			Vector3f radiusVec = stack.vec3();
+			Point3f min = stack.point3();
+			Point3f max = stack.point3();
 
-		sphere.setRadius(radiusVec.length() * 0.5f);
+			min.set(xmin.getX(), ymin.getY(), zmin.getZ());
+			max.set(xmax.getX(), ymax.getY(), zmax.getZ());
 
-		Point3f.toPool(max);
-		Point3f.toPool(min);
-		Vector3f.toPool(radiusVec);
+			radiusVec.sub(max, min);
 
-		Point3f.toPool(vertex);
-
-		Point3f.toPool(xmin);
-		Point3f.toPool(xmax);
-
-		Point3f.toPool(ymin);
-		Point3f.toPool(ymax);
-
-		Point3f.toPool(zmin);
-		Point3f.toPool(zmax);
+			sphere.setRadius(radiusVec.length() * 0.5f);
+		} finally {
+			stack.pop();
+		}
 	}
 
 	/**
@@ -295,62 +286,62 @@ public class BoundingSphere extends Sphere implements Bounds {
 	private static final void computeExactly(final VertexContainer source, final Sphere sphere) {
 		final int numVerts = source.getVertexCount();
 
-		Point3f vertex = Point3f.fromPool();
+		final VecStack stack = VecStack.push();
+		try {
+			Point3f vertex = stack.point3();
 
-		/*
-		 * FIRST PASS:
-		 * 
-		 * find the "average vertex", which is the sphere's center...
-		 */
-		Point3f avgVertex = Point3f.fromPool();
-		Point3f sum = Point3f.fromPool();
+			/*
+			 * FIRST PASS:
+			 * 
+			 * find the "average vertex", which is the sphere's center...
+			 */
+			Point3f avgVertex = stack.point3();
+			Point3f sum = stack.point3();
 
-		avgVertex.set(0.0f, 0.0f, 0.0f);
-		sum.set(0.0f, 0.0f, 0.0f);
+			avgVertex.set(0.0f, 0.0f, 0.0f);
+			sum.set(0.0f, 0.0f, 0.0f);
 
-		for (int i = 0; i < numVerts; i++) {
-			source.getVertex(i, vertex);
+			for (int i = 0; i < numVerts; i++) {
+				source.getVertex(i, vertex);
 
-			sum.add(vertex);
+				sum.add(vertex);
 
-			// apply a part-result to avoid float-overflows
-			if (i % 100 == 0) {
-				sum.div(numVerts);
+				// apply a part-result to avoid float-overflows
+				if (i % 100 == 0) {
+					sum.div(numVerts);
 
-				avgVertex.add(sum);
-				sum.set(0.0f, 0.0f, 0.0f);
+					avgVertex.add(sum);
+					sum.set(0.0f, 0.0f, 0.0f);
+				}
 			}
-		}
 
-		sum.div(numVerts);
+			sum.div(numVerts);
 
-		avgVertex.add(sum);
-		sum.set(0.0f, 0.0f, 0.0f);
+			avgVertex.add(sum);
+			sum.set(0.0f, 0.0f, 0.0f);
 
-		sphere.setCenter(avgVertex);
+			sphere.setCenter(avgVertex);
 
-		Point3f.toPool(sum);
-		Point3f.toPool(avgVertex);
+			/*
+			 * SECOND PASS:
+			 * 
+			 * Find the maximum (squared) distance of all vertices to the center...
+			 */
+			final Point3f center = sphere.getCenter();
+			float maxDist_sq = 0.0f;
 
-		/*
-		 * SECOND PASS:
-		 * 
-		 * Find the maximum (squared) distance of all vertices to the center...
-		 */
-		final Point3f center = sphere.getCenter();
-		float maxDist_sq = 0.0f;
+			for (int i = 0; i < numVerts; i++) {
+				source.getVertex(i, vertex);
 
-		for (int i = 0; i < numVerts; i++) {
-			source.getVertex(i, vertex);
+				float dist_sq = vertex.distanceSquared(center);
+				if (dist_sq > maxDist_sq)
+					maxDist_sq = dist_sq;
+			}
 
-			float dist_sq = vertex.distanceSquared(center);
-			if (dist_sq > maxDist_sq)
-				maxDist_sq = dist_sq;
+			sphere.setRadius(FastMath.sqrt(maxDist_sq));
+		} finally {
+			stack.pop();
 		}
-
-		sphere.setRadius(FastMath.sqrt(maxDist_sq));
-
-		Point3f.toPool(vertex);
 	}
 
 	/**
@@ -0,0 +1,892 @@
+/**
+ * Copyright (c) 2007-2009, OpenMaLi Project Group all rights reserved.
+ * 
+ * Portions based on the Sun's javax.vecmath interface, Copyright by Sun
+ * Microsystems or Kenji Hiranabe's alternative GC-cheap implementation.
+ * Many thanks to the developers.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the 'OpenMaLi Project Group' nor the names of its
+ * contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) A
+ * RISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE
+ */
+package org.openmali.spatial.bvh;
+
+import java.util.Arrays;
+
+import org.openmali.spatial.IndexContainer;
+import org.openmali.spatial.TriangleContainer;
+import org.openmali.spatial.VertexContainer;
+import org.openmali.spatial.bodies.Box;
+import org.openmali.spatial.bodies.IntersectionFactory;
+import org.openmali.spatial.polygons.Triangle;
+import org.openmali.vecmath2.Point3f;
+import org.openmali.vecmath2.Ray3f;
+import org.openmali.vecmath2.Tuple3f;
+import org.openmali.vecmath2.util.VecStack;
+
+/**
+ * A bounding volume hierarchy over a static triangle mesh, built with the surface area heuristic (SAH).
+ * It answers nearest-hit and any-hit ray queries and box overlap queries.
+ * 
+ * The whole hierarchy lives in a few flat arrays (no node objects):
+ * six floats of bounds and two ints per node (first triangle and triangle count for leaves,
+ * first child and 0 for inner nodes, the second child always follows the first one)
+ * and nine floats of coordinates per triangle, reordered so that each leaf's triangles are contiguous.
+ * The triangles are reported by their index in the source container.
+ */
+public class TriangleBVH {
+	public static final int DEFAULT_MAX_LEAF_SIZE = 4;
+
+	private static final int NUM_BINS = 16;
+
+	/*
+	 * The cost of traversing a node relative to one triangle test.
+	 */
+	private static final float TRAVERSAL_COST = 1f;
+
+	/*
+	 * Nodes with up to this number of triangles become leaves, if splitting them doesn't pay off.
+	 */
+	private static final int MAX_SAH_LEAF_SIZE = 16;
+
+	private float[] coords;
+	private int[] triangleIndices;
+	private int[] triangleSlots;
+
+	private float[] nodeBounds;
+	private int[] nodeData;
+	private int numNodes;
+	private int depth;
+
+	/**
+	 * @return the number of triangles in the hierarchy.
+	 */
+	public final int getNumTriangles() {
+		return (triangleIndices.length);
+	}
+
+	/**
+	 * @return the number of nodes (inner nodes and leaves).
+	 */
+	public final int getNumNodes() {
+		return (numNodes);
+	}
+
+	/**
+	 * @return the number of levels below the root node.
+	 */
+	public final int getDepth() {
+		return (depth);
+	}
+
+	/**
+	 * Gets the bounds of all triangles.
+	 * 
+	 * @param lower
+	 * @param upper
+	 * 
+	 * @return false, if the hierarchy is empty
+	 */
+	public final boolean getBounds(Tuple3f lower, Tuple3f upper) {
+		if (numNodes == 0)
+			return (false);
+
+		lower.set(nodeBounds[0], nodeBounds[1], nodeBounds[2]);
+		upper.set(nodeBounds[3], nodeBounds[4], nodeBounds[5]);
+
+		return (true);
+	}
+
+	/**
+	 * Gets the coordinates of a triangle.
+	 * 
+	 * @param triangleIndex the triangle's index in the source container
+	 * @param triangle
+	 * 
+	 * @return false, if the triangle is not part of the hierarchy
+	 */
+	public final boolean getTriangle(int triangleIndex, Triangle triangle) {
+		if ((triangleIndex < 0) || (triangleIndex >= triangleSlots.length) || (triangleSlots[triangleIndex] == -1))
+			return (false);
+
+		final int i = triangleSlots[triangleIndex] * 9;
+		final VecStack stack = VecStack.push();
+		final Point3f p = stack.point3();
+
+		try {
+			p.set(coords[i + 0], coords[i + 1], coords[i + 2]);
+			triangle.setVertexCoordA(p);
+			p.set(coords[i + 3], coords[i + 4], coords[i + 5]);
+			triangle.setVertexCoordB(p);
+			p.set(coords[i + 6], coords[i + 7], coords[i + 8]);
+			triangle.setVertexCoordC(p);
+		} finally {
+			stack.pop();
+		}
+
+		return (true);
+	}
+
+	private static final float getHalfArea(float[] bounds, int offset) {
+		final float dx = bounds[offset + 3] - bounds[offset + 0];
+		final float dy = bounds[offset + 4] - bounds[offset + 1];
+		final float dz = bounds[offset + 5] - bounds[offset + 2];
+
+		return (dx * dy + dy * dz + dz * dx);
+	}
+
+	private static final void resetBounds(float[] bounds, int offset) {
+		bounds[offset + 0] = Float.MAX_VALUE;
+		bounds[offset + 1] = Float.MAX_VALUE;
+		bounds[offset + 2] = Float.MAX_VALUE;
+		bounds[offset + 3] = -Float.MAX_VALUE;
+		bounds[offset + 4] = -Float.MAX_VALUE;
+		bounds[offset + 5] = -Float.MAX_VALUE;
+	}
+
+	private static final void combineBounds(float[] bounds, int offset, float[] src, int srcOffset) {
+		bounds[offset + 0] = Math.min(bounds[offset + 0], src[srcOffset + 0]);
+		bounds[offset + 1] = Math.min(bounds[offset + 1], src[srcOffset + 1]);
+		bounds[offset + 2] = Math.min(bounds[offset + 2], src[srcOffset + 2]);
+		bounds[offset + 3] = Math.max(bounds[offset + 3], src[srcOffset + 3]);
+		bounds[offset + 4] = Math.max(bounds[offset + 4], src[srcOffset + 4]);
+		bounds[offset + 5] = Math.max(bounds[offset + 5], src[srcOffset + 5]);
+	}
+
+	/**
+	 * Builds the hierarchy top-down. Each node is split by the cheapest of the binned SAH candidates
+	 * along all three axes. If all centroids coincide, the triangles are simply halved.
+	 * 
+	 * @param source nine coordinates per triangle
+	 * @param sourceIndices the source container index of each triangle
+	 * @param numTriangles
+	 * @param numSourceTriangles
+	 * @param maxLeafSize
+	 */
+	private void build(float[] source, int[] sourceIndices, int numTriangles, int numSourceTriangles, int maxLeafSize) {
+		if (maxLeafSize < 1)
+			throw new IllegalArgumentException("maxLeafSize must be greater than 0.");
+
+		final float[] triBounds = new float[numTriangles * 6];
+		final float[] centroids = new float[numTriangles * 3];
+		final int[] order = new int[numTriangles];
+
+		for (int i = 0; i < numTriangles; i++) {
+			final int s = i * 9;
+			final int b = i * 6;
+
+			for (int axis = 0; axis < 3; axis++) {
+				final float v0 = source[s + axis];
+				final float v1 = source[s + 3 + axis];
+				final float v2 = source[s + 6 + axis];
+
+				triBounds[b + axis] = Math.min(v0, Math.min(v1, v2));
+				triBounds[b + 3 + axis] = Math.max(v0, Math.max(v1, v2));
+				centroids[i * 3 + axis] = (triBounds[b + axis] + triBounds[b + 3 + axis]) * 0.5f;
+			}
+
+			order[i] = i;
+		}
+
+		final int capacity = Math.max(1, 2 * numTriangles - 1);
+		float[] bounds = new float[capacity * 6];
+		int[] data = new int[capacity * 2];
+		int n = (numTriangles > 0) ? 1 : 0;
+		int maxDepth = 0;
+
+		final int[] binCounts = new int[NUM_BINS];
+		final float[] binBounds = new float[NUM_BINS * 6];
+		final float[] rightAreas = new float[NUM_BINS];
+		final int[] rightCounts = new int[NUM_BINS];
+		final float[] tmpBounds = new float[6];
+		final float[] centroidBounds = new float[6];
+
+		// node, start, end, depth
+		int[] stack = new int[4 * 64];
+		int sp = 0;
+
+		if (numTriangles > 0) {
+			stack[sp++] = 0;
+			stack[sp++] = 0;
+			stack[sp++] = numTriangles;
+			stack[sp++] = 0;
+		}
+
+		while (sp > 0) {
+			final int nodeDepth = stack[--sp];
+			final int end = stack[--sp];
+			final int start = stack[--sp];
+			final int node = stack[--sp];
+			final int count = end - start;
+
+			if (nodeDepth > maxDepth)
+				maxDepth = nodeDepth;
+
+			resetBounds(bounds, node * 6);
+			resetBounds(centroidBounds, 0);
+			for (int i = start; i < end; i++) {
+				final int t = order[i];
+
+				combineBounds(bounds, node * 6, triBounds, t * 6);
+
+				for (int axis = 0; axis < 3; axis++) {
+					centroidBounds[axis] = Math.min(centroidBounds[axis], centroids[t * 3 + axis]);
+					centroidBounds[3 + axis] = Math.max(centroidBounds[3 + axis], centroids[t * 3 + axis]);
+				}
+			}
+
+			if (count <= maxLeafSize) {
+				data[node * 2 + 0] = start;
+				data[node * 2 + 1] = count;
+
+				continue;
+			}
+
+			int bestAxis = -1;
+			int bestSplit = -1;
+			float bestCost = Float.MAX_VALUE;
+
+			for (int axis = 0; axis < 3; axis++) {
+				final float cmin = centroidBounds[axis];
+				final float extent = centroidBounds[3 + axis] - cmin;
+
+				if (extent <= 0f)
+					continue;
+
+				final float scale = NUM_BINS / extent;
+
+				for (int b = 0; b < NUM_BINS; b++) {
+					binCounts[b] = 0;
+					resetBounds(binBounds, b * 6);
+				}
+
+				for (int i = start; i < end; i++) {
+					final int t = order[i];
+					final int b = Math.min(NUM_BINS - 1, (int) ((centroids[t * 3 + axis] - cmin) * scale));
+
+					binCounts[b]++;
+					combineBounds(binBounds, b * 6, triBounds, t * 6);
+				}
+
+				resetBounds(tmpBounds, 0);
+				int rightCount = 0;
+				for (int b = NUM_BINS - 1; b > 0; b--) {
+					rightCount += binCounts[b];
+					if (binCounts[b] > 0)
+						combineBounds(tmpBounds, 0, binBounds, b * 6);
+
+					rightCounts[b] = rightCount;
+					rightAreas[b] = (rightCount > 0) ? getHalfArea(tmpBounds, 0) : 0f;
+				}
+
+				resetBounds(tmpBounds, 0);
+				int leftCount = 0;
+				for (int b = 1; b < NUM_BINS; b++) {
+					leftCount += binCounts[b - 1];
+					if (binCounts[b - 1] > 0)
+						combineBounds(tmpBounds, 0, binBounds, (b - 1) * 6);
+
+					if ((leftCount == 0) || (rightCounts[b] == 0))
+						continue;
+
+					final float cost = getHalfArea(tmpBounds, 0) * leftCount + rightAreas[b] * rightCounts[b];
+
+					if (cost < bestCost) {
+						bestCost = cost;
+						bestAxis = axis;
+						bestSplit = b;
+					}
+				}
+			}
+
+			int mid;
+			if (bestAxis == -1) {
+				mid = start + count / 2;
+			} else {
+				final float nodeArea = getHalfArea(bounds, node * 6);
+
+				if ((count <= MAX_SAH_LEAF_SIZE) && (TRAVERSAL_COST * nodeArea + bestCost >= nodeArea * count)) {
+					data[node * 2 + 0] = start;
+					data[node * 2 + 1] = count;
+
+					continue;
+				}
+
+				final float cmin = centroidBounds[bestAxis];
+				final float scale = NUM_BINS / (centroidBounds[3 + bestAxis] - cmin);
+
+				int i = start;
+				int j = end - 1;
+				while (i <= j) {
+					final int t = order[i];
+
+					if (Math.min(NUM_BINS - 1, (int) ((centroids[t * 3 + bestAxis] - cmin) * scale)) < bestSplit) {
+						i++;
+					} else {
+						order[i] = order[j];
+						order[j] = t;
+						j--;
+					}
+				}
+
+				mid = i;
+				if ((mid == start) || (mid == end))
+					mid = start + count / 2;
+			}
+
+			final int left = n;
+			n += 2;
+
+			data[node * 2 + 0] = left;
+			data[node * 2 + 1] = 0;
+
+			if (sp + 8 > stack.length) {
+				int[] stack2 = new int[stack.length * 2];
+				System.arraycopy(stack, 0, stack2, 0, sp);
+				stack = stack2;
+			}
+
+			stack[sp++] = left + 1;
+			stack[sp++] = mid;
+			stack[sp++] = end;
+			stack[sp++] = nodeDepth + 1;
+
+			stack[sp++] = left;
+			stack[sp++] = start;
+			stack[sp++] = mid;
+			stack[sp++] = nodeDepth + 1;
+		}
+
+		if (n < capacity) {
+			float[] bounds2 = new float[n * 6];
+			System.arraycopy(bounds, 0, bounds2, 0, n * 6);
+			bounds = bounds2;
+
+			int[] data2 = new int[n * 2];
+			System.arraycopy(data, 0, data2, 0, n * 2);
+			data = data2;
+		}
+
+		this.coords = new float[numTriangles * 9];
+		this.triangleIndices = new int[numTriangles];
+		this.triangleSlots = new int[numSourceTriangles];
+		Arrays.fill(triangleSlots, -1);
+
+		for (int slot = 0; slot < numTriangles; slot++) {
+			System.arraycopy(source, order[slot] * 9, coords, slot * 9, 9);
+			triangleIndices[slot] = sourceIndices[order[slot]];
+			triangleSlots[triangleIndices[slot]] = slot;
+		}
+
+		this.nodeBounds = bounds;
+		this.nodeData = data;
+		this.numNodes = n;
+		this.depth = maxDepth;
+	}
+
+	/*
+	 * @return the entry parameter of the ray into the node's box or NaN, if the box is missed or entered behind maxT
+	 */
+	private final float intersectNode(int node, float ox, float oy, float oz, float invDx, float invDy, float invDz, float maxT) {
+		final int b = node * 6;
+
+		float tNear = 0f;
+		float tFar = maxT;
+
+		// NaNs (from 0 * infinity) fail all comparisons and so don't restrict the interval.
+		float t0 = (nodeBounds[b + 0] - ox) * invDx;
+		float t1 = (nodeBounds[b + 3] - ox) * invDx;
+		if (t0 > t1) {
+			final float tmp = t0;
+			t0 = t1;
+			t1 = tmp;
+		}
+		if (t0 > tNear)
+			tNear = t0;
+		if (t1 < tFar)
+			tFar = t1;
+
+		t0 = (nodeBounds[b + 1] - oy) * invDy;
+		t1 = (nodeBounds[b + 4] - oy) * invDy;
+		if (t0 > t1) {
+			final float tmp = t0;
+			t0 = t1;
+			t1 = tmp;
+		}
+		if (t0 > tNear)
+			tNear = t0;
+		if (t1 < tFar)
+			tFar = t1;
+
+		t0 = (nodeBounds[b + 2] - oz) * invDz;
+		t1 = (nodeBounds[b + 5] - oz) * invDz;
+		if (t0 > t1) {
+			final float tmp = t0;
+			t0 = t1;
+			t1 = tmp;
+		}
+		if (t0 > tNear)
+			tNear = t0;
+		if (t1 < tFar)
+			tFar = t1;
+
+		if (tNear > tFar)
+			return (Float.NaN);
+
+		return (tNear);
+	}
+
+	/*
+	 * Moeller-Trumbore test.
+	 * 
+	 * @return the ray parameter of the hit or NaN, if the triangle is missed or hit behind maxT
+	 */
+	private final float intersectTriangle(int slot, float ox, float oy, float oz, float dx, float dy, float dz, float maxT) {
+		final int i = slot * 9;
+
+		final float ax = coords[i + 0];
+		final float ay = coords[i + 1];
+		final float az = coords[i + 2];
+
+		final float e1x = coords[i + 3] - ax;
+		final float e1y = coords[i + 4] - ay;
+		final float e1z = coords[i + 5] - az;
+		final float e2x = coords[i + 6] - ax;
+		final float e2y = coords[i + 7] - ay;
+		final float e2z = coords[i + 8] - az;
+
+		final float px = dy * e2z - dz * e2y;
+		final float py = dz * e2x - dx * e2z;
+		final float pz = dx * e2y - dy * e2x;
+
+		final float det = e1x * px + e1y * py + e1z * pz;
+
+		// The ray is parallel to the triangle (or the triangle is degenerate).
+		if (det == 0f)
+			return (Float.NaN);
+
+		final float invDet = 1f / det;
+
+		final float sx = ox - ax;
+		final float sy = oy - ay;
+		final float sz = oz - az;
+
+		final float u = (sx * px + sy * py + sz * pz) * invDet;
+		if ((u < 0f) || (u > 1f))
+			return (Float.NaN);
+
+		final float qx = sy * e1z - sz * e1y;
+		final float qy = sz * e1x - sx * e1z;
+		final float qz = sx * e1y - sy * e1x;
+
+		final float v = (dx * qx + dy * qy + dz * qz) * invDet;
+		if ((v < 0f) || (u + v > 1f))
+			return (Float.NaN);
+
+		final float t = (e2x * qx + e2y * qy + e2z * qz) * invDet;
+		if ((t < 0f) || (t > maxT))
+			return (Float.NaN);
+
+		return (t);
+	}
+
+	/*
+	 * Walks the hierarchy front-to-back.
+	 * 
+	 * @return the slot of the nearest hit triangle (or any hit triangle) or -1
+	 */
+	private final int rayCast(float ox, float oy, float oz, float dx, float dy, float dz, float maxT, boolean anyHit, float[] hitT) {
+		if (numNodes == 0)
+			return (-1);
+
+		final float invDx = 1f / dx;
+		final float invDy = 1f / dy;
+		final float invDz = 1f / dz;
+
+		if (Float.isNaN(intersectNode(0, ox, oy, oz, invDx, invDy, invDz, maxT)))
+			return (-1);
+
+		final int[] stack = new int[depth + 1];
+		final float[] stackT = new float[depth + 1];
+		int sp = 0;
+
+		float bestT = maxT;
+		int bestSlot = -1;
+
+		int node = 0;
+		while (true) {
+			final int count = nodeData[node * 2 + 1];
+
+			if (count > 0) {
+				final int first = nodeData[node * 2 + 0];
+
+				for (int slot = first; slot < first + count; slot++) {
+					final float t = intersectTriangle(slot, ox, oy, oz, dx, dy, dz, bestT);
+
+					if (!Float.isNaN(t)) {
+						bestT = t;
+						bestSlot = slot;
+
+						if (anyHit) {
+							hitT[0] = bestT;
+
+							return (bestSlot);
+						}
+					}
+				}
+
+				node = -1;
+			} else {
+				final int left = nodeData[node * 2 + 0];
+				final float tLeft = intersectNode(left, ox, oy, oz, invDx, invDy, invDz, bestT);
+				final float tRight = intersectNode(left + 1, ox, oy, oz, invDx, invDy, invDz, bestT);
+
+				if (Float.isNaN(tLeft)) {
+					node = Float.isNaN(tRight) ? -1 : left + 1;
+				} else if (Float.isNaN(tRight)) {
+					node = left;
+				} else if (tLeft <= tRight) {
+					stack[sp] = left + 1;
+					stackT[sp++] = tRight;
+					node = left;
+				} else {
+					stack[sp] = left;
+					stackT[sp++] = tLeft;
+					node = left + 1;
+				}
+			}
+
+			// Pop the next node, that may still contain a nearer hit.
+			while ((node == -1) && (sp > 0)) {
+				sp--;
+				if (stackT[sp] <= bestT)
+					node = stack[sp];
+			}
+
+			if (node == -1)
+				break;
+		}
+
+		hitT[0] = bestT;
+
+		return (bestSlot);
+	}
+
+	/**
+	 * Finds the triangle, that is hit first by the ray.
+	 * 
+	 * @param originX
+	 * @param originY
+	 * @param originZ
+	 * @param directionX
+	 * @param directionY
+	 * @param directionZ
+	 * @param maxT only hits up to origin + maxT * direction are accepted
+	 * @param intersection the intersection point is written to this tuple (if a triangle was hit). Can be null.
+	 * 
+	 * @return the triangle's index in the source container or -1, if no triangle is hit.
+	 */
+	public final int rayCastNearest(float originX, float originY, float originZ, float directionX, float directionY, float directionZ, float maxT, Tuple3f intersection) {
+		final float[] hitT = new float[1];
+		final int slot = rayCast(originX, originY, originZ, directionX, directionY, directionZ, maxT, false, hitT);
+
+		if (slot == -1)
+			return (-1);
+
+		if (intersection != null)
+			intersection.set(originX + hitT[0] * directionX, originY + hitT[0] * directionY, originZ + hitT[0] * directionZ);
+
+		return (triangleIndices[slot]);
+	}
+
+	/**
+	 * Finds the triangle, that is hit first by the ray.
+	 * 
+	 * @param ray
+	 * @param intersection the intersection point is written to this tuple (if a triangle was hit). Can be null.
+	 * 
+	 * @return the triangle's index in the source container or -1, if no triangle is hit.
+	 */
+	public final int rayCastNearest(Ray3f ray, Tuple3f intersection) {
+		final Point3f o = ray.getOrigin();
+		final Tuple3f d = ray.getDirection();
+
+		return (rayCastNearest(o.getX(), o.getY(), o.getZ(), d.getX(), d.getY(), d.getZ(), Float.MAX_VALUE, intersection));
+	}
+
+	/**
+	 * Finds the triangle, that is hit first by the ray.
+	 * 
+	 * @param ray
+	 * 
+	 * @return the triangle's index in the source container or -1, if no triangle is hit.
+	 */
+	public final int rayCastNearest(Ray3f ray) {
+		return (rayCastNearest(ray, null));
+	}
+
+	/**
+	 * Finds any triangle, that is hit by the ray (not necessarily the nearest one).
+	 * The search stops at the first hit, which makes it the right choice for occlusion tests.
+	 * 
+	 * @param originX
+	 * @param originY
+	 * @param originZ
+	 * @param directionX
+	 * @param directionY
+	 * @param directionZ
+	 * @param maxT only hits up to origin + maxT * direction are accepted
+	 * 
+	 * @return the triangle's index in the source container or -1, if no triangle is hit.
+	 */
+	public final int rayCastAny(float originX, float originY, float originZ, float directionX, float directionY, float directionZ, float maxT) {
+		final int slot = rayCast(originX, originY, originZ, directionX, directionY, directionZ, maxT, true, new float[1]);
+
+		if (slot == -1)
+			return (-1);
+
+		return (triangleIndices[slot]);
+	}
+
+	/**
+	 * Finds any triangle, that is hit by the ray (not necessarily the nearest one).
+	 * 
+	 * @see #rayCastAny(float, float, float, float, float, float, float)
+	 * 
+	 * @param ray
+	 * @param maxT only hits up to origin + maxT * direction are accepted
+	 * 
+	 * @return the triangle's index in the source container or -1, if no triangle is hit.
+	 */
+	public final int rayCastAny(Ray3f ray, float maxT) {
+		final Point3f o = ray.getOrigin();
+		final Tuple3f d = ray.getDirection();
+
+		return (rayCastAny(o.getX(), o.getY(), o.getZ(), d.getX(), d.getY(), d.getZ(), maxT));
+	}
+
+	private final boolean nodeIntersectsBox(int node, float lowerX, float lowerY, float lowerZ, float upperX, float upperY, float upperZ) {
+		final int b = node * 6;
+
+		return ((nodeBounds[b + 0] <= upperX) && (nodeBounds[b + 3] >= lowerX) && (nodeBounds[b + 1] <= upperY) && (nodeBounds[b + 4] >= lowerY) && (nodeBounds[b + 2] <= upperZ) && (nodeBounds[b + 5] >= lowerZ));
+	}
+
+	/**
+	 * Passes all triangles to the callback, that intersect the given box.
+	 * 
+	 * @param lowerX
+	 * @param lowerY
+	 * @param lowerZ
+	 * @param upperX
+	 * @param upperY
+	 * @param upperZ
+	 * @param callback
+	 */
+	public final void queryBox(float lowerX, float lowerY, float lowerZ, float upperX, float upperY, float upperZ, TriangleCallback callback) {
+		if ((numNodes == 0) || !nodeIntersectsBox(0, lowerX, lowerY, lowerZ, upperX, upperY, upperZ))
+			return;
+
+		final int[] stack = new int[depth + 1];
+		int sp = 0;
+
+		stack[sp++] = 0;
+
+		while (sp > 0) {
+			final int node = stack[--sp];
+			final int count = nodeData[node * 2 + 1];
+
+			if (count > 0) {
+				final int first = nodeData[node * 2 + 0];
+
+				for (int slot = first; slot < first + count; slot++) {
+					final int i = slot * 9;
+
+					if (IntersectionFactory.triangleIntersectsBox(coords[i + 0], coords[i + 1], coords[i + 2], coords[i + 3], coords[i + 4], coords[i + 5], coords[i + 6], coords[i + 7], coords[i + 8], lowerX, lowerY, lowerZ, upperX, upperY, upperZ))
+						callback.hit(triangleIndices[slot]);
+				}
+			} else {
+				final int left = nodeData[node * 2 + 0];
+
+				if (nodeIntersectsBox(left + 1, lowerX, lowerY, lowerZ, upperX, upperY, upperZ))
+					stack[sp++] = left + 1;
+
+				if (nodeIntersectsBox(left, lowerX, lowerY, lowerZ, upperX, upperY, upperZ))
+					stack[sp++] = left;
+			}
+		}
+	}
+
+	/**
+	 * Passes all triangles to the callback, that intersect the given box.
+	 * 
+	 * @see #queryBox(float, float, float, float, float, float, TriangleCallback)
+	 * 
+	 * @param box
+	 * @param callback
+	 */
+	public final void queryBox(Box box, TriangleCallback callback) {
+		queryBox(box.getLowerX(), box.getLowerY(), box.getLowerZ(), box.getUpperX(), box.getUpperY(), box.getUpperZ(), callback);
+	}
+
+	/**
+	 * Builds a hierarchy over the triangles of the container.
+	 * 
+	 * @param triangles
+	 * @param maxLeafSize nodes with up to this number of triangles are never split
+	 */
+	public TriangleBVH(TriangleContainer triangles, int maxLeafSize) {
+		final int numSourceTriangles = triangles.getTriangleCount();
+		final float[] source = new float[numSourceTriangles * 9];
+		final int[] sourceIndices = new int[numSourceTriangles];
+		int numTriangles = 0;
+
+		final Triangle triangle = new Triangle();
+		final VecStack stack = VecStack.push();
+		final Point3f p = stack.point3();
+
+		try {
+			for (int i = 0; i < numSourceTriangles; i++) {
+				if (!triangles.getTriangle(i, triangle))
+					continue;
+
+				final int s = numTriangles * 9;
+
+				triangle.getVertexCoordA(p);
+				source[s + 0] = p.getX();
+				source[s + 1] = p.getY();
+				source[s + 2] = p.getZ();
+				triangle.getVertexCoordB(p);
+				source[s + 3] = p.getX();
+				source[s + 4] = p.getY();
+				source[s + 5] = p.getZ();
+				triangle.getVertexCoordC(p);
+				source[s + 6] = p.getX();
+				source[s + 7] = p.getY();
+				source[s + 8] = p.getZ();
+
+				sourceIndices[numTriangles++] = i;
+			}
+		} finally {
+			stack.pop();
+		}
+
+		build(source, sourceIndices, numTriangles, numSourceTriangles, maxLeafSize);
+	}
+
+	/**
+	 * Builds a hierarchy over the triangles of the container.
+	 * 
+	 * @param triangles
+	 */
+	public TriangleBVH(TriangleContainer triangles) {
+		this(triangles, DEFAULT_MAX_LEAF_SIZE);
+	}
+
+	/**
+	 * Builds a hierarchy over an indexed triangle list. Every three indices form a triangle.
+	 * 
+	 * @param vertices
+	 * @param indices
+	 * @param maxLeafSize nodes with up to this number of triangles are never split
+	 */
+	public TriangleBVH(VertexContainer vertices, IndexContainer indices, int maxLeafSize) {
+		final int numSourceTriangles = indices.getIndexCount() / 3;
+		final float[] source = new float[numSourceTriangles * 9];
+		final int[] sourceIndices = new int[numSourceTriangles];
+		int numTriangles = 0;
+
+		final VecStack stack = VecStack.push();
+		final Point3f p = stack.point3();
+
+		try {
+			for (int i = 0; i < numSourceTriangles; i++) {
+				final int s = numTriangles * 9;
+				boolean valid = true;
+
+				for (int j = 0; (j < 3) && valid; j++) {
+					valid = vertices.getVertex(indices.getIndex(i * 3 + j), p);
+
+					source[s + j * 3 + 0] = p.getX();
+					source[s + j * 3 + 1] = p.getY();
+					source[s + j * 3 + 2] = p.getZ();
+				}
+
+				if (valid)
+					sourceIndices[numTriangles++] = i;
+			}
+		} finally {
+			stack.pop();
+		}
+
+		build(source, sourceIndices, numTriangles, numSourceTriangles, maxLeafSize);
+	}
+
+	/**
+	 * Builds a hierarchy over an indexed triangle list. Every three indices form a triangle.
+	 * 
+	 * @param vertices
+	 * @param indices
+	 */
+	public TriangleBVH(VertexContainer vertices, IndexContainer indices) {
+		this(vertices, indices, DEFAULT_MAX_LEAF_SIZE);
+	}
+
+	/**
+	 * Builds a hierarchy over raw coordinates.
+	 * 
+	 * @param coords three floats per vertex
+	 * @param indices three indices per triangle. If null, every three vertices form a triangle.
+	 * @param maxLeafSize nodes with up to this number of triangles are never split
+	 */
+	public TriangleBVH(float[] coords, int[] indices, int maxLeafSize) {
+		final int numTriangles = (indices == null) ? coords.length / 9 : indices.length / 3;
+		final float[] source;
+		final int[] sourceIndices = new int[numTriangles];
+
+		if (indices == null) {
+			source = coords;
+		} else {
+			source = new float[numTriangles * 9];
+
+			for (int i = 0; i < numTriangles * 3; i++)
+				System.arraycopy(coords, indices[i] * 3, source, i * 3, 3);
+		}
+
+		for (int i = 0; i < numTriangles; i++)
+			sourceIndices[i] = i;
+
+		build(source, sourceIndices, numTriangles, numTriangles, maxLeafSize);
+	}
+
+	/**
+	 * Builds a hierarchy over raw coordinates.
+	 * 
+	 * @param coords three floats per vertex
+	 * @param indices three indices per triangle. If null, every three vertices form a triangle.
+	 */
+	public TriangleBVH(float[] coords, int[] indices) {
+		this(coords, indices, DEFAULT_MAX_LEAF_SIZE);
+	}
+}
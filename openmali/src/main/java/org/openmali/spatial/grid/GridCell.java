@@ -0,0 +1,140 @@
+/**
+ * Copyright (c) 2007-2009, OpenMaLi Project Group all rights reserved.
+ * 
+ * Portions based on the Sun's javax.vecmath interface, Copyright by Sun
+ * Microsystems or Kenji Hiranabe's alternative GC-cheap implementation.
+ * Many thanks to the developers.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the 'OpenMaLi Project Group' nor the names of its
+ * contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) A
+ * RISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE
+ */
+package org.openmali.spatial.grid;
+
+import org.openmali.spatial.IndexedSpatialNode;
+import org.openmali.spatial.SpatialNode;
+
+/**
+ * A single cell (bucket) of a grid. The node order is irrelevant,
+ * so a removed node's slot is filled by the last node.
+ */
+public class GridCell<T extends SpatialNode> {
+	private final int key;
+
+	private Object[] nodes = new Object[4];
+	private int numNodes = 0;
+
+	/**
+	 * @return the key (cell index), this cell is stored with in its grid.
+	 */
+	public final int getKey() {
+		return (key);
+	}
+
+	public final int getNumNodes() {
+		return (numNodes);
+	}
+
+	@SuppressWarnings("unchecked")
+	public final T getNode(int index) {
+		return ((T) nodes[index]);
+	}
+
+	private static final void setNodeIndex(Object node, int index) {
+		if (node instanceof IndexedSpatialNode)
+			((IndexedSpatialNode) node).setTreeCellIndex(index);
+	}
+
+	final void insertNode(T node) {
+		final float growFactor = 1.5f;
+
+		if (numNodes == nodes.length) {
+			Object[] nodes2 = new Object[(int) (numNodes * growFactor) + 1];
+			System.arraycopy(nodes, 0, nodes2, 0, numNodes);
+			nodes = nodes2;
+		}
+
+		setNodeIndex(node, numNodes);
+		nodes[numNodes++] = node;
+		node.setTreeCell(this);
+	}
+
+	private final int indexOfNode(T node) {
+		if (node instanceof IndexedSpatialNode) {
+			final int index = ((IndexedSpatialNode) node).getTreeCellIndex();
+
+			if ((index >= 0) && (index < numNodes) && (nodes[index] == node))
+				return (index);
+		}
+
+		for (int i = 0; i < numNodes; i++) {
+			if (nodes[i] == node)
+				return (i);
+		}
+
+		return (-1);
+	}
+
+	final boolean removeNode(T node) {
+		final int index = indexOfNode(node);
+
+		if (index == -1)
+			return (false);
+
+		numNodes--;
+		if (index < numNodes) {
+			nodes[index] = nodes[numNodes];
+			setNodeIndex(nodes[index], index);
+		}
+		nodes[numNodes] = null;
+
+		node.setTreeCell(null);
+		setNodeIndex(node, -1);
+
+		return (true);
+	}
+
+	final void clear() {
+		for (int i = 0; i < numNodes; i++) {
+			((SpatialNode) nodes[i]).setTreeCell(null);
+			setNodeIndex(nodes[i], -1);
+			nodes[i] = null;
+		}
+
+		numNodes = 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return (this.getClass().getSimpleName() + " { key: " + key + ", numNodes: " + numNodes + " }");
+	}
+
+	public GridCell(int key) {
+		this.key = key;
+	}
+}
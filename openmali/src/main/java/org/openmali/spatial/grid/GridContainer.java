@@ -0,0 +1,425 @@
+/**
+ * Copyright (c) 2007-2009, OpenMaLi Project Group all rights reserved.
+ * 
+ * Portions based on the Sun's javax.vecmath interface, Copyright by Sun
+ * Microsystems or Kenji Hiranabe's alternative GC-cheap implementation.
+ * Many thanks to the developers.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the 'OpenMaLi Project Group' nor the names of its
+ * contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) A
+ * RISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE
+ */
+package org.openmali.spatial.grid;
+
+import org.openmali.spatial.SpatialCallback;
+import org.openmali.spatial.SpatialContainerInterface;
+import org.openmali.spatial.SpatialCuller;
+import org.openmali.spatial.SpatialHandle;
+import org.openmali.spatial.SpatialNode;
+import org.openmali.spatial.SpatialNodeHandle;
+import org.openmali.spatial.VertexContainer;
+import org.openmali.spatial.bodies.Box;
+import org.openmali.spatial.bodies.Classifier;
+import org.openmali.spatial.bodies.Frustum;
+import org.openmali.spatial.bodies.IntersectionFactory;
+import org.openmali.spatial.bounds.Bounds;
+import org.openmali.vecmath2.Tuple3f;
+
+/**
+ * A {@link SpatialContainerInterface} implementation backed by a flat uniform grid.
+ * Each object is stored in exactly one {@link GridCell}, the one containing its bounds' center.
+ * Objects outside of the grid's area go to the nearest border cell.
+ * Queries widen their cell range by the largest object extent, that has been seen so far.
+ * 
+ * The {@link SpatialNodeHandle}s cache their {@link GridCell}, so {@link #changed(SpatialHandle)}
+ * doesn't touch the cell lists at all, as long as the object's center stays in the same cell.
+ */
+public class GridContainer<T> implements SpatialContainerInterface<T> {
+	private final float lowerX;
+	private final float lowerY;
+	private final float lowerZ;
+	private final float cellSizeX;
+	private final float cellSizeY;
+	private final float cellSizeZ;
+	private final int numCellsX;
+	private final int numCellsY;
+	private final int numCellsZ;
+
+	private final GridCell<SpatialNodeHandle<T>>[] cells;
+
+	/*
+	 * The largest center distance of all objects ever stored (only reset by empty()).
+	 */
+	private float maxExtent = 0f;
+
+	/*
+	 * The range of all centers ever stored (only reset by empty()).
+	 * Only needed to bound the border cells, which also hold the objects outside of the grid.
+	 */
+	private float centersLowerX = Float.MAX_VALUE;
+	private float centersLowerY = Float.MAX_VALUE;
+	private float centersLowerZ = Float.MAX_VALUE;
+	private float centersUpperX = -Float.MAX_VALUE;
+	private float centersUpperY = -Float.MAX_VALUE;
+	private float centersUpperZ = -Float.MAX_VALUE;
+
+	private int numNodes = 0;
+
+	public final int getNumCellsX() {
+		return (numCellsX);
+	}
+
+	public final int getNumCellsY() {
+		return (numCellsY);
+	}
+
+	public final int getNumCellsZ() {
+		return (numCellsZ);
+	}
+
+	/**
+	 * @return the number of objects in this container.
+	 */
+	public final int getNumNodes() {
+		return (numNodes);
+	}
+
+	private static final int getCellCoord(float p, float lower, float cellSize, int numCells) {
+		final int i = (int) Math.floor((p - lower) / cellSize);
+
+		if (i < 0)
+			return (0);
+
+		if (i >= numCells)
+			return (numCells - 1);
+
+		return (i);
+	}
+
+	private final int getCellX(float x) {
+		return (getCellCoord(x, lowerX, cellSizeX, numCellsX));
+	}
+
+	private final int getCellY(float y) {
+		return (getCellCoord(y, lowerY, cellSizeY, numCellsY));
+	}
+
+	private final int getCellZ(float z) {
+		return (getCellCoord(z, lowerZ, cellSizeZ, numCellsZ));
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static final <N extends SpatialNode> GridCell<N>[] newCells(int length) {
+		return ((GridCell<N>[]) new GridCell[length]);
+	}
+
+	private final int getCellKey(int ix, int iy, int iz) {
+		return (ix + (iy + iz * numCellsY) * numCellsX);
+	}
+
+	@SuppressWarnings("unchecked")
+	private final SpatialNodeHandle<T> getHandle(SpatialHandle<T> handle) {
+		if (!(handle instanceof SpatialNodeHandle) || (((SpatialNodeHandle<T>) handle).getContainer() != this))
+			throw new IllegalArgumentException("The handle doesn't belong to this container.");
+
+		return ((SpatialNodeHandle<T>) handle);
+	}
+
+	private final void updateExtents(Bounds bounds) {
+		final float cx = bounds.getCenterX();
+		final float cy = bounds.getCenterY();
+		final float cz = bounds.getCenterZ();
+
+		maxExtent = Math.max(maxExtent, bounds.getMaxCenterDistance());
+
+		centersLowerX = Math.min(centersLowerX, cx);
+		centersLowerY = Math.min(centersLowerY, cy);
+		centersLowerZ = Math.min(centersLowerZ, cz);
+		centersUpperX = Math.max(centersUpperX, cx);
+		centersUpperY = Math.max(centersUpperY, cy);
+		centersUpperZ = Math.max(centersUpperZ, cz);
+	}
+
+	private final GridCell<SpatialNodeHandle<T>> getCell(Bounds bounds) {
+		final int key = getCellKey(getCellX(bounds.getCenterX()), getCellY(bounds.getCenterY()), getCellZ(bounds.getCenterZ()));
+
+		GridCell<SpatialNodeHandle<T>> cell = cells[key];
+		if (cell == null) {
+			cell = new GridCell<SpatialNodeHandle<T>>(key);
+			cells[key] = cell;
+		}
+
+		return (cell);
+	}
+
+	private final SpatialHandle<T> insertHandle(SpatialNodeHandle<T> handle) {
+		updateExtents(handle.getWorldBounds());
+		getCell(handle.getWorldBounds()).insertNode(handle);
+		numNodes++;
+
+		return (handle);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@SuppressWarnings("unchecked")
+	public SpatialHandle<T> inject(Tuple3f center, float radius, Object object) {
+		return (insertHandle(new SpatialNodeHandle<T>(this, (T) object, center, radius)));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@SuppressWarnings("unchecked")
+	public SpatialHandle<T> inject(VertexContainer object) {
+		return (insertHandle(new SpatialNodeHandle<T>(this, (T) object, object)));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@SuppressWarnings("unchecked")
+	public void changed(SpatialHandle<T> handle) {
+		final SpatialNodeHandle<T> nodeHandle = getHandle(handle);
+		final GridCell<SpatialNodeHandle<T>> oldCell = (GridCell<SpatialNodeHandle<T>>) nodeHandle.getTreeCell();
+
+		// A removed handle stays removed, just like in the tree containers.
+		if (oldCell == null)
+			return;
+
+		nodeHandle.updateBounds();
+		updateExtents(nodeHandle.getWorldBounds());
+
+		final GridCell<SpatialNodeHandle<T>> newCell = getCell(nodeHandle.getWorldBounds());
+
+		if (newCell == oldCell)
+			return;
+
+		oldCell.removeNode(nodeHandle);
+		newCell.insertNode(nodeHandle);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@SuppressWarnings("unchecked")
+	public void remove(SpatialHandle<T> handle) {
+		final SpatialNodeHandle<T> nodeHandle = getHandle(handle);
+		final GridCell<SpatialNodeHandle<T>> cell = (GridCell<SpatialNodeHandle<T>>) nodeHandle.getTreeCell();
+
+		if ((cell != null) && cell.removeNode(nodeHandle))
+			numNodes--;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void empty() {
+		for (int i = 0; i < cells.length; i++) {
+			if (cells[i] != null)
+				cells[i].clear();
+		}
+
+		numNodes = 0;
+		maxExtent = 0f;
+		centersLowerX = Float.MAX_VALUE;
+		centersLowerY = Float.MAX_VALUE;
+		centersLowerZ = Float.MAX_VALUE;
+		centersUpperX = -Float.MAX_VALUE;
+		centersUpperY = -Float.MAX_VALUE;
+		centersUpperZ = -Float.MAX_VALUE;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void cull(Frustum frustum, SpatialCuller<T> culler, SpatialCallback<T> callback) {
+		if (numNodes == 0)
+			return;
+
+		for (int iz = 0; iz < numCellsZ; iz++) {
+			final float cellLowerZ = (iz == 0) ? Math.min(lowerZ, centersLowerZ) : lowerZ + iz * cellSizeZ;
+			final float cellUpperZ = (iz == numCellsZ - 1) ? Math.max(lowerZ + numCellsZ * cellSizeZ, centersUpperZ) : lowerZ + (iz + 1) * cellSizeZ;
+
+			for (int iy = 0; iy < numCellsY; iy++) {
+				final float cellLowerY = (iy == 0) ? Math.min(lowerY, centersLowerY) : lowerY + iy * cellSizeY;
+				final float cellUpperY = (iy == numCellsY - 1) ? Math.max(lowerY + numCellsY * cellSizeY, centersUpperY) : lowerY + (iy + 1) * cellSizeY;
+
+				for (int ix = 0; ix < numCellsX; ix++) {
+					final GridCell<SpatialNodeHandle<T>> cell = cells[getCellKey(ix, iy, iz)];
+
+					if ((cell == null) || (cell.getNumNodes() == 0))
+						continue;
+
+					final float cellLowerX = (ix == 0) ? Math.min(lowerX, centersLowerX) : lowerX + ix * cellSizeX;
+					final float cellUpperX = (ix == numCellsX - 1) ? Math.max(lowerX + numCellsX * cellSizeX, centersUpperX) : lowerX + (ix + 1) * cellSizeX;
+
+					// The objects may stick out of their cell by up to maxExtent.
+					final int mask = Classifier.classifyFrustumBox(frustum, cellLowerX - maxExtent, cellLowerY - maxExtent, cellLowerZ - maxExtent, cellUpperX + maxExtent, cellUpperY + maxExtent, cellUpperZ + maxExtent, Classifier.ALL_FRUSTUM_PLANES);
+
+					if (mask == Classifier.FRUSTUM_OUTSIDE)
+						continue;
+
+					for (int i = 0; i < cell.getNumNodes(); i++) {
+						final SpatialNodeHandle<T> handle = cell.getNode(i);
+
+						if ((mask == 0) || (Classifier.classifyFrustumBounds(frustum, handle.getWorldBounds(), mask) != Classifier.FRUSTUM_OUTSIDE)) {
+							if ((culler == null) || !culler.cull(handle))
+								callback.hit(handle);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void queryBox(Box box, SpatialCuller<T> culler, SpatialCallback<T> callback) {
+		if (numNodes == 0)
+			return;
+
+		final float boxLowerX = box.getLowerX();
+		final float boxLowerY = box.getLowerY();
+		final float boxLowerZ = box.getLowerZ();
+		final float boxUpperX = box.getUpperX();
+		final float boxUpperY = box.getUpperY();
+		final float boxUpperZ = box.getUpperZ();
+
+		final int ix0 = getCellX(boxLowerX - maxExtent);
+		final int iy0 = getCellY(boxLowerY - maxExtent);
+		final int iz0 = getCellZ(boxLowerZ - maxExtent);
+		final int ix1 = getCellX(boxUpperX + maxExtent);
+		final int iy1 = getCellY(boxUpperY + maxExtent);
+		final int iz1 = getCellZ(boxUpperZ + maxExtent);
+
+		for (int iz = iz0; iz <= iz1; iz++) {
+			for (int iy = iy0; iy <= iy1; iy++) {
+				for (int ix = ix0; ix <= ix1; ix++) {
+					final GridCell<SpatialNodeHandle<T>> cell = cells[getCellKey(ix, iy, iz)];
+
+					if (cell == null)
+						continue;
+
+					for (int i = 0; i < cell.getNumNodes(); i++) {
+						final SpatialNodeHandle<T> handle = cell.getNode(i);
+
+						if (IntersectionFactory.boundsIntersectsBox(handle.getWorldBounds(), boxLowerX, boxLowerY, boxLowerZ, boxUpperX, boxUpperY, boxUpperZ)) {
+							if ((culler == null) || !culler.cull(handle))
+								callback.hit(handle);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void querySphere(Tuple3f center, float radius, SpatialCuller<T> culler, SpatialCallback<T> callback) {
+		if (numNodes == 0)
+			return;
+
+		final float cx = center.getX();
+		final float cy = center.getY();
+		final float cz = center.getZ();
+		final float r = radius + maxExtent;
+
+		final int ix0 = getCellX(cx - r);
+		final int iy0 = getCellY(cy - r);
+		final int iz0 = getCellZ(cz - r);
+		final int ix1 = getCellX(cx + r);
+		final int iy1 = getCellY(cy + r);
+		final int iz1 = getCellZ(cz + r);
+
+		for (int iz = iz0; iz <= iz1; iz++) {
+			for (int iy = iy0; iy <= iy1; iy++) {
+				for (int ix = ix0; ix <= ix1; ix++) {
+					final GridCell<SpatialNodeHandle<T>> cell = cells[getCellKey(ix, iy, iz)];
+
+					if (cell == null)
+						continue;
+
+					for (int i = 0; i < cell.getNumNodes(); i++) {
+						final SpatialNodeHandle<T> handle = cell.getNode(i);
+
+						if (IntersectionFactory.boundsIntersectsSphere(handle.getWorldBounds(), cx, cy, cz, radius)) {
+							if ((culler == null) || !culler.cull(handle))
+								callback.hit(handle);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Creates a new grid over the given box.
+	 * 
+	 * @param lowerX
+	 * @param lowerY
+	 * @param lowerZ
+	 * @param upperX
+	 * @param upperY
+	 * @param upperZ
+	 * @param numCellsX
+	 * @param numCellsY
+	 * @param numCellsZ
+	 */
+	public GridContainer(float lowerX, float lowerY, float lowerZ, float upperX, float upperY, float upperZ, int numCellsX, int numCellsY, int numCellsZ) {
+		if ((numCellsX < 1) || (numCellsY < 1) || (numCellsZ < 1))
+			throw new IllegalArgumentException("The number of cells must be positive in every direction.");
+
+		if ((upperX <= lowerX) || (upperY <= lowerY) || (upperZ <= lowerZ))
+			throw new IllegalArgumentException("The upper bounds must be greater than the lower bounds.");
+
+		this.lowerX = lowerX;
+		this.lowerY = lowerY;
+		this.lowerZ = lowerZ;
+		this.cellSizeX = (upperX - lowerX) / numCellsX;
+		this.cellSizeY = (upperY - lowerY) / numCellsY;
+		this.cellSizeZ = (upperZ - lowerZ) / numCellsZ;
+		this.numCellsX = numCellsX;
+		this.numCellsY = numCellsY;
+		this.numCellsZ = numCellsZ;
+
+		this.cells = newCells(numCellsX * numCellsY * numCellsZ);
+	}
+
+	/**
+	 * Creates a new grid over the given box.
+	 * 
+	 * @param box
+	 * @param numCellsX
+	 * @param numCellsY
+	 * @param numCellsZ
+	 */
+	public GridContainer(Box box, int numCellsX, int numCellsY, int numCellsZ) {
+		this(box.getLowerX(), box.getLowerY(), box.getLowerZ(), box.getUpperX(), box.getUpperY(), box.getUpperZ(), numCellsX, numCellsY, numCellsZ);
+	}
+}
@@ -0,0 +1,658 @@
+/**
+ * Copyright (c) 2007-2009, OpenMaLi Project Group all rights reserved.
+ * 
+ * Portions based on the Sun's javax.vecmath interface, Copyright by Sun
+ * Microsystems or Kenji Hiranabe's alternative GC-cheap implementation.
+ * Many thanks to the developers.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the 'OpenMaLi Project Group' nor the names of its
+ * contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) A
+ * RISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE
+ */
+package org.openmali.spatial.grid;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.openmali.spatial.DistanceHeap;
+import org.openmali.spatial.PlaneIndicator;
+import org.openmali.spatial.SpatialNode;
+import org.openmali.spatial.SpatialNodeCallback;
+import org.openmali.spatial.bodies.Box;
+import org.openmali.spatial.bodies.IntersectionFactory;
+import org.openmali.spatial.bounds.Bounds;
+import org.openmali.vecmath2.Tuple3f;
+
+/**
+ * An unbounded uniform grid, that only stores the occupied cells in a hash table.
+ * It is an alternative to the {@link org.openmali.spatial.octree.OcTree} for densely
+ * and uniformly populated worlds, where a hierarchy costs more than it saves.
+ * 
+ * A node is stored in the {@link GridCell}, that contains its bounds' center.
+ * Nodes, that stick out of their cell by more than the cell size, are kept in a separate list,
+ * that is tested by every query. So the cell size should be chosen about the size of the typical node.
+ * 
+ * The cells are found by their integer coordinates in an open addressing table
+ * (no boxing, no per-lookup allocation). Inserting, moving and removing a node is O(1).
+ * Empty cells are dropped immediately.
+ * 
+ * A 2D grid (see {@link #SpatialHashGrid(PlaneIndicator, float)}) doesn't divide the space
+ * along the plane's normal, but the queries still test the nodes' real bounds.
+ */
+public class SpatialHashGrid<T extends SpatialNode> {
+	private static final int INITIAL_CAPACITY = 64;
+
+	/*
+	 * Keeps the cell coordinates far away from integer overflow.
+	 */
+	private static final int MAX_CELL_COORD = 1 << 30;
+
+	private final float cellSize;
+	private final float invCellSize;
+	private final PlaneIndicator plane;
+	private final boolean flatX;
+	private final boolean flatY;
+	private final boolean flatZ;
+
+	private GridCell<T>[] table;
+	private int[] cellXs;
+	private int[] cellYs;
+	private int[] cellZs;
+	private int numCells = 0;
+
+	private final GridCell<T> largeNodes = new GridCell<T>(0);
+	private int numNodes = 0;
+
+	/**
+	 * @return the edge length of the (cubic) cells.
+	 */
+	public final float getCellSize() {
+		return (cellSize);
+	}
+
+	/**
+	 * @return the plane of a 2D grid or null for a 3D grid.
+	 */
+	public final PlaneIndicator getPlane() {
+		return (plane);
+	}
+
+	/**
+	 * @return the number of nodes in this grid.
+	 */
+	public final int getNumNodes() {
+		return (numNodes);
+	}
+
+	/**
+	 * @return the number of occupied cells.
+	 */
+	public final int getNumCells() {
+		return (numCells);
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static final <T extends SpatialNode> GridCell<T>[] newTable(int length) {
+		return ((GridCell<T>[]) new GridCell[length]);
+	}
+
+	private static final int hash(int ix, int iy, int iz) {
+		final int h = (ix * 73856093) ^ (iy * 19349663) ^ (iz * 83492791);
+
+		return (h ^ (h >>> 16));
+	}
+
+	private final int getCellCoord(float p, boolean flat) {
+		if (flat)
+			return (0);
+
+		final float i = (float) Math.floor(p * invCellSize);
+
+		if (i < -MAX_CELL_COORD)
+			return (-MAX_CELL_COORD);
+
+		if (i > MAX_CELL_COORD)
+			return (MAX_CELL_COORD);
+
+		return ((int) i);
+	}
+
+	private final int getCellX(float x) {
+		return (getCellCoord(x, flatX));
+	}
+
+	private final int getCellY(float y) {
+		return (getCellCoord(y, flatY));
+	}
+
+	private final int getCellZ(float z) {
+		return (getCellCoord(z, flatZ));
+	}
+
+	/*
+	 * @return the slot of the cell or (-insertionSlot - 1), if there is no such cell
+	 */
+	private final int findSlot(int ix, int iy, int iz, int hash) {
+		final int mask = table.length - 1;
+		int slot = hash & mask;
+
+		while (table[slot] != null) {
+			if ((cellXs[slot] == ix) && (cellYs[slot] == iy) && (cellZs[slot] == iz))
+				return (slot);
+
+			slot = (slot + 1) & mask;
+		}
+
+		return (-slot - 1);
+	}
+
+	private final GridCell<T> getCell(int ix, int iy, int iz) {
+		final int slot = findSlot(ix, iy, iz, hash(ix, iy, iz));
+
+		if (slot < 0)
+			return (null);
+
+		return (table[slot]);
+	}
+
+	private final void setTableCapacity(int capacity) {
+		final GridCell<T>[] oldTable = table;
+		final int[] oldXs = cellXs;
+		final int[] oldYs = cellYs;
+		final int[] oldZs = cellZs;
+
+		this.table = newTable(capacity);
+		this.cellXs = new int[capacity];
+		this.cellYs = new int[capacity];
+		this.cellZs = new int[capacity];
+
+		if (oldTable == null)
+			return;
+
+		final int mask = capacity - 1;
+
+		for (int i = 0; i < oldTable.length; i++) {
+			if (oldTable[i] == null)
+				continue;
+
+			int slot = oldTable[i].getKey() & mask;
+			while (table[slot] != null)
+				slot = (slot + 1) & mask;
+
+			table[slot] = oldTable[i];
+			cellXs[slot] = oldXs[i];
+			cellYs[slot] = oldYs[i];
+			cellZs[slot] = oldZs[i];
+		}
+	}
+
+	private final GridCell<T> getOrCreateCell(int ix, int iy, int iz) {
+		final int hash = hash(ix, iy, iz);
+		int slot = findSlot(ix, iy, iz, hash);
+
+		if (slot >= 0)
+			return (table[slot]);
+
+		// Keep the load factor below 0.5.
+		if ((numCells + 1) * 2 > table.length) {
+			setTableCapacity(table.length * 2);
+			slot = findSlot(ix, iy, iz, hash);
+		}
+
+		slot = -slot - 1;
+
+		final GridCell<T> cell = new GridCell<T>(hash);
+		table[slot] = cell;
+		cellXs[slot] = ix;
+		cellYs[slot] = iy;
+		cellZs[slot] = iz;
+		numCells++;
+
+		return (cell);
+	}
+
+	private final void removeCell(GridCell<T> cell) {
+		final int mask = table.length - 1;
+		int slot = cell.getKey() & mask;
+
+		while (table[slot] != cell)
+			slot = (slot + 1) & mask;
+
+		table[slot] = null;
+		numCells--;
+
+		/*
+		 * Linear probing needs the following cells of the cluster to be shifted back,
+		 * if the freed slot lies on their probe sequence.
+		 */
+		int free = slot;
+		int i = slot;
+		while (true) {
+			i = (i + 1) & mask;
+
+			if (table[i] == null)
+				break;
+
+			final int home = table[i].getKey() & mask;
+			final boolean stays = (free <= i) ? ((free < home) && (home <= i)) : ((free < home) || (home <= i));
+
+			if (!stays) {
+				table[free] = table[i];
+				cellXs[free] = cellXs[i];
+				cellYs[free] = cellYs[i];
+				cellZs[free] = cellZs[i];
+				table[i] = null;
+				free = i;
+			}
+		}
+	}
+
+	private final boolean isLarge(Bounds bounds) {
+		return (bounds.getMaxCenterDistance() > cellSize);
+	}
+
+	/**
+	 * Inserts a node into the grid.
+	 * 
+	 * @param node
+	 */
+	public final void insertNode(T node) {
+		final Bounds bounds = node.getWorldBounds();
+
+		if (isLarge(bounds))
+			largeNodes.insertNode(node);
+		else
+			getOrCreateCell(getCellX(bounds.getCenterX()), getCellY(bounds.getCenterY()), getCellZ(bounds.getCenterZ())).insertNode(node);
+
+		numNodes++;
+	}
+
+	/**
+	 * Removes the node from the grid (from its container cell).
+	 * 
+	 * @param node
+	 */
+	@SuppressWarnings("unchecked")
+	public final void removeNode(T node) {
+		final GridCell<T> cell = (GridCell<T>) node.getTreeCell();
+
+		if ((cell == null) || !cell.removeNode(node))
+			return;
+
+		numNodes--;
+
+		if ((cell != largeNodes) && (cell.getNumNodes() == 0))
+			removeCell(cell);
+	}
+
+	/**
+	 * Removes all nodes from this grid.
+	 */
+	public final void clear() {
+		for (int i = 0; i < table.length; i++) {
+			if (table[i] != null)
+				table[i].clear();
+		}
+
+		Arrays.fill(table, null);
+		numCells = 0;
+
+		largeNodes.clear();
+		numNodes = 0;
+	}
+
+	/**
+	 * This method must be called after a node's position or size has changed.
+	 * The node's cell lists are only touched, if its center has moved to another cell.
+	 * 
+	 * @param node
+	 */
+	@SuppressWarnings("unchecked")
+	public final void updateNodePosition(T node) {
+		final GridCell<T> oldCell = (GridCell<T>) node.getTreeCell();
+
+		if (oldCell == null) {
+			insertNode(node);
+
+			return;
+		}
+
+		final Bounds bounds = node.getWorldBounds();
+
+		if (isLarge(bounds)) {
+			if (oldCell == largeNodes)
+				return;
+		} else if (oldCell != largeNodes) {
+			if (getCell(getCellX(bounds.getCenterX()), getCellY(bounds.getCenterY()), getCellZ(bounds.getCenterZ())) == oldCell)
+				return;
+		}
+
+		removeNode(node);
+		insertNode(node);
+	}
+
+	private final void queryCell(GridCell<T> cell, boolean sphere, float a, float b, float c, float d, float e, float f, T exclude, SpatialNodeCallback<T> callback) {
+		for (int i = 0; i < cell.getNumNodes(); i++) {
+			final T node = cell.getNode(i);
+
+			if (node == exclude)
+				continue;
+
+			final boolean hit;
+			if (sphere)
+				hit = IntersectionFactory.boundsIntersectsSphere(node.getWorldBounds(), a, b, c, d);
+			else
+				hit = IntersectionFactory.boundsIntersectsBox(node.getWorldBounds(), a, b, c, d, e, f);
+
+			if (hit)
+				callback.hit(node);
+		}
+	}
+
+	/*
+	 * Tests the nodes of all cells in the given (inclusive) cell range and the large nodes.
+	 * The parameters a - f are the box (lower, upper) or the sphere (center, radius).
+	 */
+	private final void queryCells(int ix0, int iy0, int iz0, int ix1, int iy1, int iz1, boolean sphere, float a, float b, float c, float d, float e, float f, T exclude, SpatialNodeCallback<T> callback) {
+		final long numRangeCells = ((long) ix1 - ix0 + 1L) * ((long) iy1 - iy0 + 1L) * ((long) iz1 - iz0 + 1L);
+
+		if (numRangeCells > numCells) {
+			// The range is bigger than the occupied area. So we simply walk the table.
+			for (int slot = 0; slot < table.length; slot++) {
+				if (table[slot] == null)
+					continue;
+
+				if ((cellXs[slot] < ix0) || (cellXs[slot] > ix1) || (cellYs[slot] < iy0) || (cellYs[slot] > iy1) || (cellZs[slot] < iz0) || (cellZs[slot] > iz1))
+					continue;
+
+				queryCell(table[slot], sphere, a, b, c, d, e, f, exclude, callback);
+			}
+		} else {
+			for (int iz = iz0; iz <= iz1; iz++) {
+				for (int iy = iy0; iy <= iy1; iy++) {
+					for (int ix = ix0; ix <= ix1; ix++) {
+						final GridCell<T> cell = getCell(ix, iy, iz);
+
+						if (cell != null)
+							queryCell(cell, sphere, a, b, c, d, e, f, exclude, callback);
+					}
+				}
+			}
+		}
+
+		queryCell(largeNodes, sphere, a, b, c, d, e, f, exclude, callback);
+	}
+
+	/**
+	 * Passes all nodes to the callback, whose bounds intersect the given box.
+	 * 
+	 * @param lowerX
+	 * @param lowerY
+	 * @param lowerZ
+	 * @param upperX
+	 * @param upperY
+	 * @param upperZ
+	 * @param callback
+	 */
+	public final void queryBox(float lowerX, float lowerY, float lowerZ, float upperX, float upperY, float upperZ, SpatialNodeCallback<T> callback) {
+		if (numNodes == 0)
+			return;
+
+		// The nodes stick out of their cells by at most one cell size.
+		queryCells(getCellX(lowerX - cellSize), getCellY(lowerY - cellSize), getCellZ(lowerZ - cellSize), getCellX(upperX + cellSize), getCellY(upperY + cellSize), getCellZ(upperZ + cellSize), false, lowerX, lowerY, lowerZ, upperX, upperY, upperZ, null, callback);
+	}
+
+	/**
+	 * Passes all nodes to the callback, whose bounds intersect the given box.
+	 * 
+	 * @see #queryBox(float, float, float, float, float, float, SpatialNodeCallback)
+	 * 
+	 * @param box
+	 * @param callback
+	 */
+	public final void queryBox(Box box, SpatialNodeCallback<T> callback) {
+		queryBox(box.getLowerX(), box.getLowerY(), box.getLowerZ(), box.getUpperX(), box.getUpperY(), box.getUpperZ(), callback);
+	}
+
+	private final void querySphere(float centerX, float centerY, float centerZ, float radius, T exclude, SpatialNodeCallback<T> callback) {
+		if (numNodes == 0)
+			return;
+
+		final float r = radius + cellSize;
+
+		queryCells(getCellX(centerX - r), getCellY(centerY - r), getCellZ(centerZ - r), getCellX(centerX + r), getCellY(centerY + r), getCellZ(centerZ + r), true, centerX, centerY, centerZ, radius, 0f, 0f, exclude, callback);
+	}
+
+	/**
+	 * Passes all nodes to the callback, whose bounds intersect the given sphere.
+	 * 
+	 * @param centerX
+	 * @param centerY
+	 * @param centerZ
+	 * @param radius
+	 * @param callback
+	 */
+	public final void querySphere(float centerX, float centerY, float centerZ, float radius, SpatialNodeCallback<T> callback) {
+		querySphere(centerX, centerY, centerZ, radius, null, callback);
+	}
+
+	/**
+	 * Passes all nodes to the callback, whose bounds intersect the given sphere.
+	 * 
+	 * @see #querySphere(float, float, float, float, SpatialNodeCallback)
+	 * 
+	 * @param center
+	 * @param radius
+	 * @param callback
+	 */
+	public final void querySphere(Tuple3f center, float radius, SpatialNodeCallback<T> callback) {
+		querySphere(center.getX(), center.getY(), center.getZ(), radius, null, callback);
+	}
+
+	/**
+	 * Passes all other nodes to the callback, whose bounds intersect the sphere
+	 * around the given node's center.
+	 * 
+	 * @param node
+	 * @param radius
+	 * @param callback
+	 */
+	public final void queryNeighbors(T node, float radius, SpatialNodeCallback<T> callback) {
+		final Bounds bounds = node.getWorldBounds();
+
+		querySphere(bounds.getCenterX(), bounds.getCenterY(), bounds.getCenterZ(), radius, node, callback);
+	}
+
+	private static final <T extends SpatialNode> void addNearest(GridCell<T> cell, float px, float py, float pz, int k, DistanceHeap<T> nearest) {
+		for (int i = 0; i < cell.getNumNodes(); i++) {
+			final T node = cell.getNode(i);
+			final float distSq = IntersectionFactory.boundsDistanceSquared(px, py, pz, node.getWorldBounds());
+
+			if (nearest.size() < k) {
+				nearest.add(node, -distSq);
+			} else if (distSq < -nearest.peekDistance()) {
+				nearest.poll();
+				nearest.add(node, -distSq);
+			}
+		}
+	}
+
+	/**
+	 * Finds the k nodes nearest to the given point. The distance of a node is the distance
+	 * of the point to the node's bounds (0, if the point is inside).
+	 * The cells are visited in growing rings around the point's cell and the search stops,
+	 * as soon as the next ring is farther away than the k-th nearest node found so far.
+	 * 
+	 * @param point
+	 * @param k
+	 * @param result the nodes are appended to this list ordered by ascending distance
+	 * 
+	 * @return the result list
+	 */
+	public final List<T> kNearest(Tuple3f point, int k, List<T> result) {
+		if (k < 1)
+			throw new IllegalArgumentException("k must be greater than 0.");
+
+		final float px = point.getX();
+		final float py = point.getY();
+		final float pz = point.getZ();
+
+		// The distances are negated to keep the farthest of the nearest nodes on top.
+		final DistanceHeap<T> nearest = new DistanceHeap<T>(k + 1);
+
+		addNearest(largeNodes, px, py, pz, k, nearest);
+
+		final int cx = getCellX(px);
+		final int cy = getCellY(py);
+		final int cz = getCellZ(pz);
+		final int dims = (plane == null) ? 3 : 2;
+
+		int visitedCells = 0;
+		for (int ring = 0; visitedCells < numCells; ring++) {
+			/*
+			 * All cells up to ring - 1 have been visited. The nodes in the remaining cells
+			 * are at least (ring - 1) cells away by their centers and stick out by at most one cell.
+			 */
+			if ((nearest.size() == k) && (ring >= 2)) {
+				final float minDist = (ring - 2) * cellSize;
+
+				if (minDist * minDist >= -nearest.peekDistance())
+					break;
+			}
+
+			final long ringSize = 2L * ring + 1L;
+			if (((dims == 3) ? ringSize * ringSize * ringSize : ringSize * ringSize) > 4L * numCells) {
+				// The rings have become bigger than the occupied area. So we simply walk all the cells.
+				nearest.clear();
+				addNearest(largeNodes, px, py, pz, k, nearest);
+
+				for (int slot = 0; slot < table.length; slot++) {
+					if (table[slot] != null)
+						addNearest(table[slot], px, py, pz, k, nearest);
+				}
+
+				break;
+			}
+
+			final int rx = flatX ? 0 : ring;
+			final int ry = flatY ? 0 : ring;
+			final int rz = flatZ ? 0 : ring;
+
+			for (int dz = -rz; dz <= rz; dz++) {
+				for (int dy = -ry; dy <= ry; dy++) {
+					for (int dx = -rx; dx <= rx; dx++) {
+						if (Math.max(Math.abs(dx), Math.max(Math.abs(dy), Math.abs(dz))) < ring)
+							continue;
+
+						final GridCell<T> cell = getCell(cx + dx, cy + dy, cz + dz);
+
+						if (cell != null) {
+							addNearest(cell, px, py, pz, k, nearest);
+							visitedCells++;
+						}
+					}
+				}
+			}
+		}
+
+		final int offset = result.size();
+		final int n = nearest.size();
+
+		for (int i = 0; i < n; i++)
+			result.add(null);
+
+		for (int i = n - 1; i >= 0; i--)
+			result.set(offset + i, nearest.poll());
+
+		return (result);
+	}
+
+	/**
+	 * Finds the k nodes nearest to the given point.
+	 * 
+	 * @see #kNearest(Tuple3f, int, List)
+	 * 
+	 * @param point
+	 * @param k
+	 * 
+	 * @return a new list with the nodes ordered by ascending distance
+	 */
+	public final List<T> kNearest(Tuple3f point, int k) {
+		return (kNearest(point, k, new ArrayList<T>(k)));
+	}
+
+	/**
+	 * Creates a 2D grid, that only divides the space along the given plane, or a 3D grid.
+	 * 
+	 * @param plane the plane of a 2D grid or null for a 3D grid
+	 * @param cellSize the edge length of the cells
+	 */
+	public SpatialHashGrid(PlaneIndicator plane, float cellSize) {
+		if (cellSize <= 0f)
+			throw new IllegalArgumentException("cellSize must be positive.");
+
+		this.cellSize = cellSize;
+		this.invCellSize = 1f / cellSize;
+		this.plane = plane;
+
+		if (plane == null) {
+			this.flatX = false;
+			this.flatY = false;
+			this.flatZ = false;
+		} else {
+			switch (plane) {
+			case X_Y_PLANE:
+				this.flatX = false;
+				this.flatY = false;
+				this.flatZ = true;
+				break;
+			case X_Z_PLANE:
+				this.flatX = false;
+				this.flatY = true;
+				this.flatZ = false;
+				break;
+			case Z_Y_PLANE:
+				this.flatX = true;
+				this.flatY = false;
+				this.flatZ = false;
+				break;
+			default:
+				throw new Error("Should not happen!");
+			}
+		}
+
+		setTableCapacity(INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Creates a 3D grid.
+	 * 
+	 * @param cellSize the edge length of the cells
+	 */
+	public SpatialHashGrid(float cellSize) {
+		this(null, cellSize);
+	}
+}
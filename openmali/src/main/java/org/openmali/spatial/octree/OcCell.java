@@ -34,9 +34,18 @@
 package org.openmali.spatial.octree;
 
 import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
+import org.openmali.spatial.IndexedSpatialNode;
 import org.openmali.spatial.SpatialNode;
+import org.openmali.spatial.SpatialNodeCallback;
 import org.openmali.spatial.bodies.Box;
+import org.openmali.spatial.bodies.Classifier;
+import org.openmali.spatial.bodies.Frustum;
 import org.openmali.spatial.bounds.Bounds;
 import org.openmali.spatial.bounds.BoundsType;
 
@@ -94,6 +103,13 @@ public class OcCell<T extends SpatialNode> extends Box {
 
 	private final boolean useExtendedCells;
 
+	/*
+	 * The factor, by which the cell's box is enlarged in loose mode (1 for a regular cell).
+	 */
+	private final float looseness;
+
+	private OcCell<T> parent = null;
+
 	/*
 	 * @SuppressWarnings( "unchecked" ) private final T[] newTArray( int length
 	 * ) { return ( (T[])new Object[ length ] ); }
@@ -107,6 +123,16 @@ public class OcCell<T extends SpatialNode> extends Box {
 
 	private boolean hasChildCells = false;
 
+	/*
+	 * All non-null child cells (regular and extended) in creation order.
+	 * This saves the traversal code from checking all 26 fields.
+	 */
+	private Object[] childCells = null;
+	private int numChildCells = 0;
+
+	// this cell's index in its parent's child cell list
+	private int childIndex = -1;
+
 	/**
 	 * @return true, if extended cells are <b>potentially</b> used.
 	 * This doesn't necessarily mean, that extended cells are currently in use.
@@ -166,6 +192,20 @@ public class OcCell<T extends SpatialNode> extends Box {
 		return (halfSizeY);
 	}
 
+	/**
+	 * @return the factor, by which this cell's box is enlarged (loose mode). 1 for a regular cell.
+	 */
+	public final float getLooseness() {
+		return (looseness);
+	}
+
+	/**
+	 * @return the parent cell or null for the root cell.
+	 */
+	public final OcCell<T> getParentCell() {
+		return (parent);
+	}
+
 	/**
 	 * @return the half z-size of this {@link OcCell}.
 	 */
@@ -299,6 +339,44 @@ public class OcCell<T extends SpatialNode> extends Box {
 		return (hasChildCells);
 	}
 
+	/**
+	 * @return the number of currently existing child {@link OcCell}s.
+	 * This also includes extended cells!
+	 */
+	public final int getNumChildCells() {
+		return (numChildCells);
+	}
+
+	/**
+	 * @param index
+	 * 
+	 * @return one of the currently existing child {@link OcCell}s.
+	 * This also includes extended cells!
+	 */
+	@SuppressWarnings("unchecked")
+	public final OcCell<T> getChildCell(int index) {
+		return ((OcCell<T>) childCells[index]);
+	}
+
+	private final void addChildCell(OcCell<T> cell) {
+		if (childCells == null) {
+			childCells = new Object[useExtendedCells ? 26 : 8];
+		}
+
+		cell.parent = this;
+		cell.childIndex = numChildCells;
+		childCells[numChildCells++] = cell;
+		hasChildCells = true;
+	}
+
+	/**
+	 * Checks, if the given bounds are completely enclosed by this cell's box.
+	 */
+	private final boolean encloses(Bounds bounds, BoundsType type) {
+		return ((BoundsHelper.getMinX(bounds, type) >= getLowerX()) && (BoundsHelper.getMaxX(bounds, type) <= getUpperX()) && (BoundsHelper.getMinY(bounds, type) >= getLowerY())
+				&& (BoundsHelper.getMaxY(bounds, type) <= getUpperY()) && (BoundsHelper.getMinZ(bounds, type) >= getLowerZ()) && (BoundsHelper.getMaxZ(bounds, type) <= getUpperZ()));
+	}
+
 	private void reinsertNodes(int minNodesBeforeSplit, int maxLevelForExtendedCells) {
 		int pushedNodes = 0;
 
@@ -314,20 +392,134 @@ public class OcCell<T extends SpatialNode> extends Box {
 		}
 
 		if (pushedNodes > 0) {
-			Object[] temp = newTArray(getNumNodes() - pushedNodes);
-
 			int j = 0;
 			for (int i = 0; i < getNumNodes(); i++) {
-				if (getNode(i) != null) {
-					temp[j++] = getNode(i);
+				if (nodes[i] != null) {
+					nodes[j] = nodes[i];
+					setNodeIndex(nodes[j], j);
+					j++;
 				}
 			}
 
-			this.nodes = temp;
+			for (int i = j; i < getNumNodes(); i++)
+				nodes[i] = null;
+
 			this.numNodes -= pushedNodes;
 		}
 	}
 
+	/**
+	 * Gets one of the eight regular octree-cells and creates it, if it doesn't exist yet.
+	 */
+	private final OcCell<T> getOcCell(boolean upper, boolean front, boolean right, int maxLevelForExtendedCells) {
+		if (upper) {
+			if (front) {
+				if (right) {
+					if (ocUpperFrontRight == null)
+						this.ocUpperFrontRight = newOcCell(upper, front, right, maxLevelForExtendedCells);
+
+					return (ocUpperFrontRight);
+				}
+
+				if (ocUpperFrontLeft == null)
+					this.ocUpperFrontLeft = newOcCell(upper, front, right, maxLevelForExtendedCells);
+
+				return (ocUpperFrontLeft);
+			}
+
+			if (right) {
+				if (ocUpperBackRight == null)
+					this.ocUpperBackRight = newOcCell(upper, front, right, maxLevelForExtendedCells);
+
+				return (ocUpperBackRight);
+			}
+
+			if (ocUpperBackLeft == null)
+				this.ocUpperBackLeft = newOcCell(upper, front, right, maxLevelForExtendedCells);
+
+			return (ocUpperBackLeft);
+		}
+
+		if (front) {
+			if (right) {
+				if (ocLowerFrontRight == null)
+					this.ocLowerFrontRight = newOcCell(upper, front, right, maxLevelForExtendedCells);
+
+				return (ocLowerFrontRight);
+			}
+
+			if (ocLowerFrontLeft == null)
+				this.ocLowerFrontLeft = newOcCell(upper, front, right, maxLevelForExtendedCells);
+
+			return (ocLowerFrontLeft);
+		}
+
+		if (right) {
+			if (ocLowerBackRight == null)
+				this.ocLowerBackRight = newOcCell(upper, front, right, maxLevelForExtendedCells);
+
+			return (ocLowerBackRight);
+		}
+
+		if (ocLowerBackLeft == null)
+			this.ocLowerBackLeft = newOcCell(upper, front, right, maxLevelForExtendedCells);
+
+		return (ocLowerBackLeft);
+	}
+
+	private final OcCell<T> newOcCell(boolean upper, boolean front, boolean right, int maxLevelForExtendedCells) {
+		final float childCenterX = right ? centerX + sizeX / 4f : centerX - sizeX / 4f;
+		final float childCenterY = upper ? centerY + sizeY / 4f : centerY - sizeY / 4f;
+		final float childCenterZ = front ? centerZ + sizeZ / 4f : centerZ - sizeZ / 4f;
+
+		final OcCell<T> cell = new OcCell<T>(getLevel() + 1, childCenterX, childCenterY, childCenterZ, halfSizeX, halfSizeY, halfSizeZ, useExtendedCells && (level < maxLevelForExtendedCells),
+				looseness);
+		addChildCell(cell);
+
+		return (cell);
+	}
+
+	/**
+	 * Selects the child cell for the loose mode. The octant is chosen by the bounds' center
+	 * and the bounds must fit into the octant's loose box. Extended cells are not used.
+	 * 
+	 * @return the child cell or this cell, if the bounds don't fit into the octant.
+	 */
+	private OcCell<T> selectLooseChildCell(Bounds bounds, BoundsType type, int maxLevelForExtendedCells) {
+		final float minX = BoundsHelper.getMinX(bounds, type);
+		final float minY = BoundsHelper.getMinY(bounds, type);
+		final float minZ = BoundsHelper.getMinZ(bounds, type);
+		final float maxX = BoundsHelper.getMaxX(bounds, type);
+		final float maxY = BoundsHelper.getMaxY(bounds, type);
+		final float maxZ = BoundsHelper.getMaxZ(bounds, type);
+
+		final boolean upper = (minY + maxY) / 2f >= centerY;
+		final boolean front = (minZ + maxZ) / 2f >= centerZ;
+		final boolean right = (minX + maxX) / 2f >= centerX;
+
+		final float childCenterX = right ? centerX + sizeX / 4f : centerX - sizeX / 4f;
+		final float childCenterY = upper ? centerY + sizeY / 4f : centerY - sizeY / 4f;
+		final float childCenterZ = front ? centerZ + sizeZ / 4f : centerZ - sizeZ / 4f;
+
+		final float looseHalfSizeX = looseness * sizeX / 4f;
+		final float looseHalfSizeY = looseness * sizeY / 4f;
+		final float looseHalfSizeZ = looseness * sizeZ / 4f;
+
+		if ((minX < childCenterX - looseHalfSizeX) || (maxX > childCenterX + looseHalfSizeX) || (minY < childCenterY - looseHalfSizeY) || (maxY > childCenterY + looseHalfSizeY)
+				|| (minZ < childCenterZ - looseHalfSizeZ) || (maxZ > childCenterZ + looseHalfSizeZ))
+			return (this);
+
+		return (getOcCell(upper, front, right, maxLevelForExtendedCells));
+	}
+
+	/**
+	 * @return true, if the given cell is one of the eight regular octree-cells of this cell.
+	 */
+	private final boolean isRegularChildCell(OcCell<T> cell) {
+		return ((cell == ocUpperFrontLeft) || (cell == ocUpperFrontRight) || (cell == ocUpperBackLeft) || (cell == ocUpperBackRight) || (cell == ocLowerFrontLeft) || (cell == ocLowerFrontRight)
+				|| (cell == ocLowerBackLeft) || (cell == ocLowerBackRight));
+	}
+
 	protected OcCell<T> findChildCell(Bounds bounds, BoundsType type, int minNodesBeforeSplit, int maxLevelForExtendedCells, boolean ignoreReinserting) {
 		if (!ignoreReinserting) {
 			if (this.getNumNodes() < minNodesBeforeSplit) {
@@ -337,6 +529,33 @@ public class OcCell<T extends SpatialNode> extends Box {
 			}
 		}
 
+		final OcCell<T> cell = selectChildCell(bounds, type, maxLevelForExtendedCells);
+
+		// Extended cells are never splitted. So only the regular cells are searched further.
+		if ((cell == this) || !isRegularChildCell(cell))
+			return (cell);
+
+		return (cell.findChildCell(bounds, minNodesBeforeSplit, maxLevelForExtendedCells));
+	}
+
+	/**
+	 * Selects the direct child cell, that completely encloses the given bounds.
+	 * The child cell is created, if it doesn't exist yet.
+	 * 
+	 * @return the child cell or this cell, if no child cell encloses the bounds.
+	 */
+	private OcCell<T> selectChildCell(Bounds bounds, BoundsType type, int maxLevelForExtendedCells) {
+		/*
+		 * Nodes, that are not completely inside of the tree's volume, are kept
+		 * in the root cell. This way every other cell's box encloses all the
+		 * nodes of its subtree, which the spatial queries rely on.
+		 */
+		if ((level == 0) && !encloses(bounds, type))
+			return (this);
+
+		if (looseness > 1f)
+			return (selectLooseChildCell(bounds, type, maxLevelForExtendedCells));
+
 		// First check: upper or lower (or spanning)...
 
 		if (BoundsHelper.getMinY(bounds, type) >= this.centerY) {
@@ -348,25 +567,13 @@ public class OcCell<T extends SpatialNode> extends Box {
 				if (BoundsHelper.getMinX(bounds, type) >= this.centerX) {
 					// Found upper-front-right cell!
 
-					if (ocUpperFrontRight == null) {
-						this.ocUpperFrontRight = new OcCell<T>(getLevel() + 1, centerX + sizeX / 4f, centerY + sizeY / 4f, centerZ + sizeZ / 4f, halfSizeX, halfSizeY, halfSizeZ, useExtendedCells
-								&& (level < maxLevelForExtendedCells));
-						hasChildCells = true;
-					}
-
-					return (ocUpperFrontRight.findChildCell(bounds, minNodesBeforeSplit, maxLevelForExtendedCells));
+					return (getOcCell(true, true, true, maxLevelForExtendedCells));
 				}
 
 				if (BoundsHelper.getMaxX(bounds, type) <= this.centerX) {
 					// Found upper-front-left cell!
 
-					if (ocUpperFrontLeft == null) {
-						this.ocUpperFrontLeft = new OcCell<T>(getLevel() + 1, centerX - sizeX / 4f, centerY + sizeY / 4f, centerZ + sizeZ / 4f, halfSizeX, halfSizeY, halfSizeZ, useExtendedCells
-								&& (level < maxLevelForExtendedCells));
-						hasChildCells = true;
-					}
-
-					return (ocUpperFrontLeft.findChildCell(bounds, minNodesBeforeSplit, maxLevelForExtendedCells));
+					return (getOcCell(true, true, false, maxLevelForExtendedCells));
 				}
 
 				// bounds span the upper-front left-right region!
@@ -376,7 +583,7 @@ public class OcCell<T extends SpatialNode> extends Box {
 
 					if (quUpperFront == null) {
 						this.quUpperFront = new OcCell<T>(getLevel() + 1, centerX, centerY + sizeY / 4f, centerZ + sizeZ / 4f, sizeX, halfSizeY, halfSizeZ, false);
-						hasChildCells = true;
+						addChildCell(quUpperFront);
 					}
 
 					return (quUpperFront);
@@ -391,25 +598,13 @@ public class OcCell<T extends SpatialNode> extends Box {
 				if (BoundsHelper.getMinX(bounds, type) >= this.centerX) {
 					// Found upper-back-right cell!
 
-					if (ocUpperBackRight == null) {
-						this.ocUpperBackRight = new OcCell<T>(getLevel() + 1, centerX + sizeX / 4f, centerY + sizeY / 4f, centerZ - sizeZ / 4f, halfSizeX, halfSizeY, halfSizeZ, useExtendedCells
-								&& (level < maxLevelForExtendedCells));
-						hasChildCells = true;
-					}
-
-					return (ocUpperBackRight.findChildCell(bounds, minNodesBeforeSplit, maxLevelForExtendedCells));
+					return (getOcCell(true, false, true, maxLevelForExtendedCells));
 				}
 
 				if (BoundsHelper.getMaxX(bounds, type) <= this.centerX) {
 					// Found upper-back-left cell!
 
-					if (ocUpperBackLeft == null) {
-						this.ocUpperBackLeft = new OcCell<T>(getLevel() + 1, centerX - sizeX / 4f, centerY + sizeY / 4f, centerZ - sizeZ / 4f, halfSizeX, halfSizeY, halfSizeZ, useExtendedCells
-								&& (level < maxLevelForExtendedCells));
-						hasChildCells = true;
-					}
-
-					return (ocUpperBackLeft.findChildCell(bounds, minNodesBeforeSplit, maxLevelForExtendedCells));
+					return (getOcCell(true, false, false, maxLevelForExtendedCells));
 				}
 
 				// bounds span the upper-back left-right-region
@@ -419,7 +614,7 @@ public class OcCell<T extends SpatialNode> extends Box {
 
 					if (quUpperBack == null) {
 						this.quUpperBack = new OcCell<T>(getLevel() + 1, centerX, centerY + sizeY / 4f, centerZ - sizeZ / 4f, sizeX, halfSizeY, halfSizeZ, false);
-						hasChildCells = true;
+						addChildCell(quUpperBack);
 					}
 
 					return (quUpperBack);
@@ -436,7 +631,7 @@ public class OcCell<T extends SpatialNode> extends Box {
 
 					if (quUpperLeft == null) {
 						this.quUpperLeft = new OcCell<T>(getLevel() + 1, centerX - sizeX / 4f, centerY + sizeY / 4f, centerZ, halfSizeX, halfSizeY, sizeZ, false);
-						hasChildCells = true;
+						addChildCell(quUpperLeft);
 					}
 
 					return (quUpperLeft);
@@ -447,7 +642,7 @@ public class OcCell<T extends SpatialNode> extends Box {
 
 					if (quUpperRight == null) {
 						this.quUpperRight = new OcCell<T>(getLevel() + 1, centerX + sizeX / 4f, centerY + sizeY / 4f, centerZ, halfSizeX, halfSizeY, sizeZ, false);
-						hasChildCells = true;
+						addChildCell(quUpperRight);
 					}
 
 					return (quUpperRight);
@@ -455,7 +650,7 @@ public class OcCell<T extends SpatialNode> extends Box {
 
 				if (hUpper == null) {
 					this.hUpper = new OcCell<T>(getLevel() + 1, centerX, centerY + sizeY / 4f, centerZ, sizeX, halfSizeY, sizeZ, false);
-					hasChildCells = true;
+					addChildCell(hUpper);
 				}
 
 				return (hUpper);
@@ -473,25 +668,13 @@ public class OcCell<T extends SpatialNode> extends Box {
 				if (BoundsHelper.getMinX(bounds, type) >= this.centerX) {
 					// Found lower-front-right cell!
 
-					if (ocLowerFrontRight == null) {
-						this.ocLowerFrontRight = new OcCell<T>(getLevel() + 1, centerX + sizeX / 4f, centerY - sizeY / 4f, centerZ + sizeZ / 4f, halfSizeX, halfSizeY, halfSizeZ, useExtendedCells
-								&& (level < maxLevelForExtendedCells));
-						hasChildCells = true;
-					}
-
-					return (ocLowerFrontRight.findChildCell(bounds, minNodesBeforeSplit, maxLevelForExtendedCells));
+					return (getOcCell(false, true, true, maxLevelForExtendedCells));
 				}
 
 				if (BoundsHelper.getMaxX(bounds, type) <= this.centerX) {
 					// Found lower-front-left cell!
 
-					if (ocLowerFrontLeft == null) {
-						this.ocLowerFrontLeft = new OcCell<T>(getLevel() + 1, centerX - sizeX / 4f, centerY - sizeY / 4f, centerZ + sizeZ / 4f, halfSizeX, halfSizeY, halfSizeZ, useExtendedCells
-								&& (level < maxLevelForExtendedCells));
-						hasChildCells = true;
-					}
-
-					return (ocLowerFrontLeft.findChildCell(bounds, minNodesBeforeSplit, maxLevelForExtendedCells));
+					return (getOcCell(false, true, false, maxLevelForExtendedCells));
 				}
 
 				// bounds span the lower-front left-right region!
@@ -501,7 +684,7 @@ public class OcCell<T extends SpatialNode> extends Box {
 
 					if (quLowerFront == null) {
 						this.quLowerFront = new OcCell<T>(getLevel() + 1, centerX, centerY - sizeY / 4f, centerZ + sizeZ / 4f, sizeX, halfSizeY, halfSizeZ, false);
-						hasChildCells = true;
+						addChildCell(quLowerFront);
 					}
 
 					return (quLowerFront);
@@ -516,25 +699,13 @@ public class OcCell<T extends SpatialNode> extends Box {
 				if (BoundsHelper.getMinX(bounds, type) >= this.centerX) {
 					// Found lower-back-right cell!
 
-					if (ocLowerBackRight == null) {
-						this.ocLowerBackRight = new OcCell<T>(getLevel() + 1, centerX + sizeX / 4f, centerY - sizeY / 4f, centerZ - sizeZ / 4f, halfSizeX, halfSizeY, halfSizeZ, useExtendedCells
-								&& (level < maxLevelForExtendedCells));
-						hasChildCells = true;
-					}
-
-					return (ocLowerBackRight.findChildCell(bounds, minNodesBeforeSplit, maxLevelForExtendedCells));
+					return (getOcCell(false, false, true, maxLevelForExtendedCells));
 				}
 
 				if (BoundsHelper.getMaxX(bounds, type) <= this.centerX) {
 					// Found lower-back-left cell!
 
-					if (ocLowerBackLeft == null) {
-						this.ocLowerBackLeft = new OcCell<T>(getLevel() + 1, centerX - sizeX / 4f, centerY - sizeY / 4f, centerZ - sizeZ / 4f, halfSizeX, halfSizeY, halfSizeZ, useExtendedCells
-								&& (level < maxLevelForExtendedCells));
-						hasChildCells = true;
-					}
-
-					return (ocLowerBackLeft.findChildCell(bounds, minNodesBeforeSplit, maxLevelForExtendedCells));
+					return (getOcCell(false, false, false, maxLevelForExtendedCells));
 				}
 
 				// bounds span the lower-back left-right-region
@@ -544,7 +715,7 @@ public class OcCell<T extends SpatialNode> extends Box {
 
 					if (quLowerBack == null) {
 						this.quLowerBack = new OcCell<T>(getLevel() + 1, centerX, centerY - sizeY / 4f, centerZ - sizeZ / 4f, sizeX, halfSizeY, halfSizeZ, false);
-						hasChildCells = true;
+						addChildCell(quLowerBack);
 					}
 
 					return (quLowerBack);
@@ -561,7 +732,7 @@ public class OcCell<T extends SpatialNode> extends Box {
 
 					if (quLowerLeft == null) {
 						this.quLowerLeft = new OcCell<T>(getLevel() + 1, centerX - sizeX / 4f, centerY - sizeY / 4f, centerZ, halfSizeX, halfSizeY, sizeZ, false);
-						hasChildCells = true;
+						addChildCell(quLowerLeft);
 					}
 
 					return (quLowerLeft);
@@ -572,7 +743,7 @@ public class OcCell<T extends SpatialNode> extends Box {
 
 					if (quLowerRight == null) {
 						this.quLowerRight = new OcCell<T>(getLevel() + 1, centerX + sizeX / 4f, centerY - sizeY / 4f, centerZ, halfSizeX, halfSizeY, sizeZ, false);
-						hasChildCells = true;
+						addChildCell(quLowerRight);
 					}
 
 					return (quLowerRight);
@@ -580,7 +751,7 @@ public class OcCell<T extends SpatialNode> extends Box {
 
 				if (hLower == null) {
 					this.hLower = new OcCell<T>(getLevel() + 1, centerX, centerY - sizeY / 4f, centerZ, sizeX, halfSizeY, sizeZ, false);
-					hasChildCells = true;
+					addChildCell(hLower);
 				}
 
 				return (hLower);
@@ -600,7 +771,7 @@ public class OcCell<T extends SpatialNode> extends Box {
 
 					if (quFrontLeft == null) {
 						this.quFrontLeft = new OcCell<T>(getLevel() + 1, centerX - sizeX / 4f, centerY, centerZ + sizeZ / 4f, halfSizeX, sizeY, halfSizeZ, false);
-						hasChildCells = true;
+						addChildCell(quFrontLeft);
 					}
 
 					return (quFrontLeft);
@@ -611,7 +782,7 @@ public class OcCell<T extends SpatialNode> extends Box {
 
 					if (quFrontRight == null) {
 						this.quFrontRight = new OcCell<T>(getLevel() + 1, centerX + sizeX / 4f, centerY, centerZ + sizeZ / 4f, halfSizeX, sizeY, halfSizeZ, false);
-						hasChildCells = true;
+						addChildCell(quFrontRight);
 					}
 
 					return (quFrontRight);
@@ -621,7 +792,7 @@ public class OcCell<T extends SpatialNode> extends Box {
 
 				if (hFront == null) {
 					this.hFront = new OcCell<T>(getLevel() + 1, centerX, centerY, centerZ + sizeZ / 4f, sizeX, sizeY, halfSizeZ, false);
-					hasChildCells = true;
+					addChildCell(hFront);
 				}
 
 				return (hFront);
@@ -635,7 +806,7 @@ public class OcCell<T extends SpatialNode> extends Box {
 
 					if (quBackLeft == null) {
 						this.quBackLeft = new OcCell<T>(getLevel() + 1, centerX - sizeX / 4f, centerY, centerZ - sizeZ / 4f, halfSizeX, sizeY, halfSizeZ, false);
-						hasChildCells = true;
+						addChildCell(quBackLeft);
 					}
 
 					return (quBackLeft);
@@ -646,7 +817,7 @@ public class OcCell<T extends SpatialNode> extends Box {
 
 					if (quBackRight == null) {
 						this.quBackRight = new OcCell<T>(getLevel() + 1, centerX + sizeX / 4f, centerY, centerZ - sizeZ / 4f, halfSizeX, sizeY, halfSizeZ, false);
-						hasChildCells = true;
+						addChildCell(quBackRight);
 					}
 
 					return (quBackRight);
@@ -656,7 +827,7 @@ public class OcCell<T extends SpatialNode> extends Box {
 
 				if (hBack == null) {
 					this.hBack = new OcCell<T>(getLevel() + 1, centerX, centerY, centerZ - sizeZ / 4f, sizeX, sizeY, halfSizeZ, false);
-					hasChildCells = true;
+					addChildCell(hBack);
 				}
 
 				return (hBack);
@@ -667,7 +838,7 @@ public class OcCell<T extends SpatialNode> extends Box {
 
 				if (hLeft == null) {
 					this.hLeft = new OcCell<T>(getLevel() + 1, centerX - sizeX / 4f, centerY, centerZ, halfSizeX, sizeY, sizeZ, false);
-					hasChildCells = true;
+					addChildCell(hLeft);
 				}
 
 				return (hLeft);
@@ -678,7 +849,7 @@ public class OcCell<T extends SpatialNode> extends Box {
 
 				if (hRight == null) {
 					this.hRight = new OcCell<T>(getLevel() + 1, centerX + sizeX / 4f, centerY, centerZ, halfSizeX, sizeY, sizeZ, false);
-					hasChildCells = true;
+					addChildCell(hRight);
 				}
 
 				return (hRight);
@@ -702,15 +873,21 @@ public class OcCell<T extends SpatialNode> extends Box {
 		return (findChildCell(node.getWorldBounds(), minNodesBeforeSplit, maxLevelForExtendedCells));
 	}
 
+	private static final void setNodeIndex(Object node, int index) {
+		if (node instanceof IndexedSpatialNode)
+			((IndexedSpatialNode) node).setTreeCellIndex(index);
+	}
+
 	private final void insertNode_(T node) {
-		final double growFactor = 1.0;
+		final float growFactor = 1.5f;
 
 		if (numNodes == nodes.length) {
-			Object[] nodes2 = newTArray((int) ((numNodes + 1) * growFactor));
+			Object[] nodes2 = newTArray((int) (numNodes * growFactor) + 1);
 			System.arraycopy(nodes, 0, nodes2, 0, numNodes);
 			nodes = nodes2;
 		}
 
+		setNodeIndex(node, numNodes);
 		nodes[numNodes++] = node;
 		node.setTreeCell(this);
 	}
@@ -732,15 +909,160 @@ public class OcCell<T extends SpatialNode> extends Box {
 		return (cell.getLevel());
 	}
 
-	private final void removeNode_(T node) {
-		int index = -1;
-		for (int i = 0; i < numNodes; i++) {
-			if (nodes[i] == node) {
-				index = i;
+	private final void setNodes_(Object[] src, int offset, int count) {
+		if (count > nodes.length)
+			nodes = newTArray(count);
+
+		System.arraycopy(src, offset, nodes, 0, count);
+		numNodes = count;
+
+		for (int i = 0; i < count; i++) {
+			getNode(i).setTreeCell(this);
+			setNodeIndex(nodes[i], i);
+		}
+	}
+
+	/**
+	 * Waits for the task and rethrows its exception (if any) unchecked.
+	 * 
+	 * @param future
+	 * 
+	 * @return the task's result.
+	 */
+	static final <V> V getResult(Future<V> future) {
+		try {
+			return (future.get());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			if (e.getCause() instanceof Error)
+				throw (Error) e.getCause();
+
+			throw new RuntimeException(e.getCause());
+		}
+	}
+
+	/**
+	 * Distributes a set of nodes over this (empty) {@link OcCell} and its child cells in one top-down pass.
+	 * A cell receiving more than minNodesBeforeSplit nodes keeps only the ones,
+	 * that don't fit into a child cell, just like it would have after the reinsertion
+	 * done by {@link #insertNode(SpatialNode, int, int)}. But the nodes are moved down only once.
+	 * 
+	 * @param src the nodes in the range [offset, offset + count). The range is reordered.
+	 * @param tmp a scratch array of the same length as src
+	 * @param slots a scratch array of the same length as src
+	 * @param offset
+	 * @param count
+	 * @param minNodesBeforeSplit
+	 * @param maxLevelForExtendedCells
+	 * @param executor if non-null, the child cells' subtrees are built by this executor's threads
+	 * 
+	 * @return the maximum level of the cells, that received nodes (-1, if none).
+	 */
+	@SuppressWarnings("unchecked")
+	int bulkInsert(final Object[] src, final Object[] tmp, final int[] slots, int offset, int count, final int minNodesBeforeSplit, final int maxLevelForExtendedCells, ExecutorService executor) {
+		/*
+		 * If the child cells' centers can't be distinguished from this cell's center (float precision),
+		 * the nodes can't be separated any further (e.g. many nodes at the same location).
+		 */
+		if ((count <= minNodesBeforeSplit) || (centerX + sizeX / 4f == centerX) || (centerY + sizeY / 4f == centerY) || (centerZ + sizeZ / 4f == centerZ)) {
+			setNodes_(src, offset, count);
+
+			return ((count > 0) ? getLevel() : -1);
+		}
+
+		for (int i = offset; i < offset + count; i++) {
+			final Bounds bounds = ((T) src[i]).getWorldBounds();
+			final OcCell<T> cell;
+
+			switch (bounds.getType()) {
+			case AABB:
+			case SPHERE:
+				cell = selectChildCell(bounds, bounds.getType(), maxLevelForExtendedCells);
+				break;
+			default:
+				cell = this;
 				break;
 			}
+
+			slots[i] = (cell == this) ? 0 : cell.childIndex + 1;
+		}
+
+		// Sort the nodes by their target cell (slot 0 is this cell).
+		final int[] starts = new int[numChildCells + 2];
+		for (int i = offset; i < offset + count; i++)
+			starts[slots[i] + 1]++;
+		for (int s = 1; s < starts.length; s++)
+			starts[s] += starts[s - 1];
+
+		final int[] fill = new int[numChildCells + 1];
+		System.arraycopy(starts, 0, fill, 0, fill.length);
+		for (int i = offset; i < offset + count; i++)
+			tmp[offset + fill[slots[i]]++] = src[i];
+		System.arraycopy(tmp, offset, src, offset, count);
+
+		setNodes_(src, offset, starts[1]);
+
+		int maxLevel = (starts[1] > 0) ? getLevel() : -1;
+
+		final Future<?>[] futures = (executor != null) ? new Future<?>[numChildCells] : null;
+
+		for (int c = 0; c < numChildCells; c++) {
+			final OcCell<T> childCell = getChildCell(c);
+			final int childOffset = offset + starts[c + 1];
+			final int childCount = starts[c + 2] - starts[c + 1];
+
+			if (!isRegularChildCell(childCell)) {
+				childCell.setNodes_(src, childOffset, childCount);
+
+				if (childCount > 0)
+					maxLevel = Math.max(maxLevel, childCell.getLevel());
+			} else if (executor == null) {
+				maxLevel = Math.max(maxLevel, childCell.bulkInsert(src, tmp, slots, childOffset, childCount, minNodesBeforeSplit, maxLevelForExtendedCells, null));
+			} else {
+				futures[c] = executor.submit(new Callable<Integer>() {
+					public Integer call() {
+						return (childCell.bulkInsert(src, tmp, slots, childOffset, childCount, minNodesBeforeSplit, maxLevelForExtendedCells, null));
+					}
+				});
+			}
+		}
+
+		if (futures != null) {
+			for (int c = 0; c < futures.length; c++) {
+				if (futures[c] == null)
+					continue;
+
+				maxLevel = Math.max(maxLevel, (Integer) getResult(futures[c]));
+			}
+		}
+
+		return (maxLevel);
+	}
+
+	private final int indexOfNode(T node) {
+		if (node instanceof IndexedSpatialNode) {
+			final int index = ((IndexedSpatialNode) node).getTreeCellIndex();
+
+			if ((index >= 0) && (index < numNodes) && (nodes[index] == node))
+				return (index);
 		}
 
+		for (int i = 0; i < numNodes; i++) {
+			if (nodes[i] == node)
+				return (i);
+		}
+
+		return (-1);
+	}
+
+	private final void removeNode_(T node) {
+		final int index = indexOfNode(node);
+
 		/*
 		 * We don't need to check this, since the precondition to enter this
 		 * method is, that the node is in this cell!
@@ -748,10 +1070,16 @@ public class OcCell<T extends SpatialNode> extends Box {
 		// if ( index == -1 )
 		// return;
 
-		System.arraycopy(nodes, index + 1, nodes, index, numNodes - index - 1);
+		// The node order doesn't matter. So the last node simply fills the gap.
 		numNodes--;
+		if (index < numNodes) {
+			nodes[index] = nodes[numNodes];
+			setNodeIndex(nodes[index], index);
+		}
+		nodes[numNodes] = null;
 
 		node.setTreeCell(null);
+		setNodeIndex(node, -1);
 	}
 
 	/**
@@ -773,6 +1101,138 @@ public class OcCell<T extends SpatialNode> extends Box {
 		return (true);
 	}
 
+	/**
+	 * Moves a node, whose position or size has changed, to the right cell.
+	 * Instead of reinserting the node from the root, only the nearest ancestor cell
+	 * (or the node's current cell itself), that still encloses the node, is searched.
+	 * 
+	 * @param node
+	 * @param minNodesBeforeSplit
+	 * @param maxLevelForExtendedCells
+	 * 
+	 * @return the chosen cell's level or -1, if the node was not contained in this cell.
+	 */
+	@SuppressWarnings("unchecked")
+	public int updateNode(T node, int minNodesBeforeSplit, int maxLevelForExtendedCells) {
+		final Object treeCellObj = node.getTreeCell();
+		if (treeCellObj == null)
+			return (-1);
+
+		final OcCell<T> treeCell = (OcCell<T>) treeCellObj;
+		final Bounds bounds = node.getWorldBounds();
+
+		/*
+		 * Extended cells are never searched for child cells.
+		 * So the search has to start at their parent in any case.
+		 */
+		OcCell<T> cell = treeCell;
+		while ((cell.parent != null) && (!cell.parent.isRegularChildCell(cell) || !cell.encloses(bounds, bounds.getType())))
+			cell = cell.parent;
+
+		treeCell.removeNode_(node);
+
+		return (cell.insertNode(node, minNodesBeforeSplit, maxLevelForExtendedCells));
+	}
+
+	/**
+	 * Passes all nodes of this cell and of all child cells (recursively) to the callback.
+	 * 
+	 * @param callback
+	 */
+	void collectNodes(SpatialNodeCallback<T> callback) {
+		for (int i = 0; i < numNodes; i++)
+			callback.hit(getNode(i));
+
+		for (int i = 0; i < numChildCells; i++)
+			getChildCell(i).collectNodes(callback);
+	}
+
+	/**
+	 * Tests this cell's own nodes against the frustum planes set in the mask.
+	 * 
+	 * @param frustum
+	 * @param planeMask
+	 * @param callback
+	 */
+	void cullNodes(Frustum frustum, int planeMask, SpatialNodeCallback<T> callback) {
+		for (int i = 0; i < numNodes; i++) {
+			final T node = getNode(i);
+
+			if (Classifier.classifyFrustumBounds(frustum, node.getWorldBounds(), planeMask) != Classifier.FRUSTUM_OUTSIDE)
+				callback.hit(node);
+		}
+	}
+
+	/**
+	 * Classifies the child cells against the frustum planes set in the mask
+	 * and culls the ones, that are not outside.
+	 * 
+	 * @param frustum
+	 * @param planeMask
+	 * @param callback
+	 */
+	void cullChildCells(Frustum frustum, int planeMask, SpatialNodeCallback<T> callback) {
+		for (int i = 0; i < numChildCells; i++) {
+			final OcCell<T> childCell = getChildCell(i);
+			final int childMask = Classifier.classifyFrustumBox(frustum, childCell, planeMask);
+
+			if (childMask != Classifier.FRUSTUM_OUTSIDE)
+				childCell.cullFrustum(frustum, childMask, callback);
+		}
+	}
+
+	/**
+	 * Culls the nodes of this cell and its child cells against the frustum.
+	 * This cell must already have been classified as not being outside
+	 * and the mask must contain the planes spanned by this cell.
+	 * If the cell is completely inside (mask is 0), all nodes are accepted without further tests.
+	 * 
+	 * @param frustum
+	 * @param planeMask
+	 * @param callback
+	 */
+	void cullFrustum(Frustum frustum, int planeMask, SpatialNodeCallback<T> callback) {
+		if (planeMask == 0) {
+			collectNodes(callback);
+		} else {
+			cullNodes(frustum, planeMask, callback);
+			cullChildCells(frustum, planeMask, callback);
+		}
+	}
+
+	/**
+	 * Like {@link #cullChildCells(Frustum, int, SpatialNodeCallback)}, but the subtrees
+	 * of the cells splitLevels levels below this cell are culled by the executor's threads.
+	 * The cells above are culled by the calling thread.
+	 * 
+	 * @param frustum
+	 * @param planeMask
+	 * @param callback must be thread-safe
+	 * @param splitLevels
+	 * @param executor
+	 * @param futures the submitted tasks are added to this list
+	 */
+	void cullChildCells(final Frustum frustum, int planeMask, final SpatialNodeCallback<T> callback, int splitLevels, ExecutorService executor, List<Future<?>> futures) {
+		for (int i = 0; i < numChildCells; i++) {
+			final OcCell<T> childCell = getChildCell(i);
+			final int childMask = Classifier.classifyFrustumBox(frustum, childCell, planeMask);
+
+			if (childMask == Classifier.FRUSTUM_OUTSIDE)
+				continue;
+
+			if ((splitLevels <= 1) || (childMask == 0) || (childCell.numChildCells == 0)) {
+				futures.add(executor.submit(new Runnable() {
+					public void run() {
+						childCell.cullFrustum(frustum, childMask, callback);
+					}
+				}));
+			} else {
+				childCell.cullNodes(frustum, childMask, callback);
+				childCell.cullChildCells(frustum, childMask, callback, splitLevels - 1, executor, futures);
+			}
+		}
+	}
+
 	/**
 	 * Removes all nodes from this cell and also removes all child cells.
 	 */
@@ -810,6 +1270,10 @@ public class OcCell<T extends SpatialNode> extends Box {
 		hRight = null;
 		hBack = null;
 		hFront = null;
+
+		childCells = null;
+		numChildCells = 0;
+		hasChildCells = false;
 	}
 
 	private static final void printIndentation(int indentation, PrintStream ps) {
@@ -899,8 +1363,9 @@ public class OcCell<T extends SpatialNode> extends Box {
 		dump(this, "root", 0, System.out);
 	}
 
-	protected OcCell(int level, float centerX, float centerY, float centerZ, float sizeX, float sizeY, float sizeZ, boolean useExtendedCells) {
-		super(centerX - sizeX / 2f, centerY - sizeY / 2f, centerZ - sizeZ / 2f, centerX + sizeX / 2f, centerY + sizeY / 2f, centerZ + sizeZ / 2f);
+	protected OcCell(int level, float centerX, float centerY, float centerZ, float sizeX, float sizeY, float sizeZ, boolean useExtendedCells, float looseness) {
+		super(centerX - looseness * sizeX / 2f, centerY - looseness * sizeY / 2f, centerZ - looseness * sizeZ / 2f, centerX + looseness * sizeX / 2f, centerY + looseness * sizeY / 2f, centerZ
+				+ looseness * sizeZ / 2f);
 
 		this.level = level;
 
@@ -917,10 +1382,15 @@ public class OcCell<T extends SpatialNode> extends Box {
 		this.halfSizeZ = sizeZ / 2f;
 
 		this.useExtendedCells = useExtendedCells;
+		this.looseness = looseness;
 
 		nodes = new Object[8];
 	}
 
+	protected OcCell(int level, float centerX, float centerY, float centerZ, float sizeX, float sizeY, float sizeZ, boolean useExtendedCells) {
+		this(level, centerX, centerY, centerZ, sizeX, sizeY, sizeZ, useExtendedCells, 1f);
+	}
+
 	public OcCell(int level, float centerX, float centerY, float centerZ, float sizeX, float sizeY, float sizeZ) {
 		this(level, centerX, centerY, centerZ, sizeX, sizeY, sizeZ, true);
 	}
@@ -33,7 +33,23 @@
  */
 package org.openmali.spatial.octree;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.openmali.spatial.DistanceHeap;
 import org.openmali.spatial.SpatialNode;
+import org.openmali.spatial.SpatialNodeCallback;
+import org.openmali.spatial.bodies.Box;
+import org.openmali.spatial.bodies.Classifier;
+import org.openmali.spatial.bodies.Frustum;
+import org.openmali.spatial.bodies.IntersectionFactory;
+import org.openmali.spatial.bounds.Bounds;
+import org.openmali.spatial.bounds.BoundsType;
+import org.openmali.vecmath2.Ray3f;
 import org.openmali.vecmath2.Tuple3f;
 
 /**
@@ -50,7 +66,51 @@ public class OcTree<T extends SpatialNode> {
 	private int minNodesBeforeSplit = 8;
 	private int maxLevelForExtendedCells = 0;
 
-	private int maxLevel = 0;
+	private volatile int maxLevel = 0;
+
+	private ReentrantReadWriteLock lock = null;
+
+	/**
+	 * Enables or disables the thread-safe mode. In thread-safe mode any number of threads
+	 * can query the {@link OcTree} concurrently, while modifications (insertion, removal, updates)
+	 * wait for all running queries and block new ones until they're done.
+	 * This method itself is not thread-safe and must be called before the tree is shared between threads.
+	 * 
+	 * @param threadSafe
+	 */
+	public void setThreadSafe(boolean threadSafe) {
+		if (threadSafe == (lock != null))
+			return;
+
+		this.lock = threadSafe ? new ReentrantReadWriteLock() : null;
+	}
+
+	/**
+	 * @return true, if the thread-safe mode is enabled.
+	 */
+	public final boolean isThreadSafe() {
+		return (lock != null);
+	}
+
+	private final void lockRead() {
+		if (lock != null)
+			lock.readLock().lock();
+	}
+
+	private final void unlockRead() {
+		if (lock != null)
+			lock.readLock().unlock();
+	}
+
+	private final void lockWrite() {
+		if (lock != null)
+			lock.writeLock().lock();
+	}
+
+	private final void unlockWrite() {
+		if (lock != null)
+			lock.writeLock().unlock();
+	}
 
 	/**
 	 * @return the {@link OcTree}'s root {@link OcCell}.
@@ -59,6 +119,13 @@ public class OcTree<T extends SpatialNode> {
 		return (rootCell);
 	}
 
+	/**
+	 * @return the factor, by which the cells' boxes are enlarged (1 for a regular {@link OcTree}).
+	 */
+	public final float getLooseness() {
+		return (rootCell.getLooseness());
+	}
+
 	/**
 	 * @return the maximum currently used level of cells in this {@link OcTree}.
 	 */
@@ -153,12 +220,82 @@ public class OcTree<T extends SpatialNode> {
 	 * @return the level of the {@link OcCell}, the node has been inserted to.
 	 */
 	public final int insertNode(T node) {
-		int level = rootCell.insertNode(node, getMinNodesBeforeSplit(), getMaxLevelForExtendedCells());
+		lockWrite();
+
+		try {
+			int level = rootCell.insertNode(node, getMinNodesBeforeSplit(), getMaxLevelForExtendedCells());
 
-		if (level > maxLevel)
-			maxLevel = level;
+			if (level > maxLevel)
+				maxLevel = level;
 
-		return (level);
+			return (level);
+		} finally {
+			unlockWrite();
+		}
+	}
+
+	private final void bulkLoad(Object[] nodes, ExecutorService executor) {
+		lockWrite();
+
+		try {
+			rootCell.clear();
+
+			final int level = rootCell.bulkInsert(nodes, new Object[nodes.length], new int[nodes.length], 0, nodes.length, getMinNodesBeforeSplit(), getMaxLevelForExtendedCells(), executor);
+
+			maxLevel = Math.max(0, level);
+		} finally {
+			unlockWrite();
+		}
+	}
+
+	/**
+	 * Replaces all nodes of this {@link OcTree} by the given ones.
+	 * The nodes are distributed over the cells in a single top-down pass,
+	 * which is a lot faster than inserting them one by one, since they don't need to be reinserted,
+	 * whenever a cell is splitted.
+	 * 
+	 * @param nodes
+	 * @param executor if non-null, the subtrees of the root cell are built in parallel by this executor's threads
+	 */
+	public final void bulkLoad(Collection<T> nodes, ExecutorService executor) {
+		bulkLoad(nodes.toArray(), executor);
+	}
+
+	/**
+	 * Replaces all nodes of this {@link OcTree} by the given ones.
+	 * 
+	 * @see #bulkLoad(Collection, ExecutorService)
+	 * 
+	 * @param nodes
+	 */
+	public final void bulkLoad(Collection<T> nodes) {
+		bulkLoad(nodes.toArray(), null);
+	}
+
+	/**
+	 * Replaces all nodes of this {@link OcTree} by the given ones.
+	 * 
+	 * @see #bulkLoad(Collection, ExecutorService)
+	 * 
+	 * @param nodes
+	 * @param executor if non-null, the subtrees of the root cell are built in parallel by this executor's threads
+	 */
+	public final void bulkLoad(T[] nodes, ExecutorService executor) {
+		final Object[] nodes2 = new Object[nodes.length];
+		System.arraycopy(nodes, 0, nodes2, 0, nodes.length);
+
+		bulkLoad(nodes2, executor);
+	}
+
+	/**
+	 * Replaces all nodes of this {@link OcTree} by the given ones.
+	 * 
+	 * @see #bulkLoad(Collection, ExecutorService)
+	 * 
+	 * @param nodes
+	 */
+	public final void bulkLoad(T[] nodes) {
+		bulkLoad(nodes, null);
 	}
 
 	/**
@@ -167,35 +304,452 @@ public class OcTree<T extends SpatialNode> {
 	 * @param node
 	 */
 	public final void removeNode(T node) {
-		rootCell.removeNode(node);
+		lockWrite();
+
+		try {
+			rootCell.removeNode(node);
+		} finally {
+			unlockWrite();
+		}
 	}
 
 	/**
 	 * Removes all nodes from this {@link OcTree}.
 	 */
 	public final void clear() {
-		rootCell.clear();
+		lockWrite();
+
+		try {
+			rootCell.clear();
+		} finally {
+			unlockWrite();
+		}
 	}
 
 	/**
 	 * This method must be called after a node's position or size has changed.
 	 * You don't need to call this method, if you exactly know, that the
 	 * modification won't affect the node's placement in the tree.
+	 * The node is only reinserted from the nearest cell, that still encloses it.
 	 * 
 	 * @param node
 	 */
 	public final void updateNodePosition(T node) {
-		if (rootCell.removeNode(node))
-			insertNode(node);
+		lockWrite();
+
+		try {
+			int level = rootCell.updateNode(node, getMinNodesBeforeSplit(), getMaxLevelForExtendedCells());
+
+			if (level > maxLevel)
+				maxLevel = level;
+		} finally {
+			unlockWrite();
+		}
+	}
+
+	/**
+	 * Passes all nodes to the callback, that are (at least partially) inside of the frustum.
+	 * Each {@link OcCell} is classified only once. Cells, that are completely inside,
+	 * are accepted with all their nodes and child cells without any further test,
+	 * cells outside are skipped. Child cells only test the planes, their parent cell spans.
+	 * 
+	 * @param frustum
+	 * @param callback
+	 */
+	public final void cullFrustum(Frustum frustum, SpatialNodeCallback<T> callback) {
+		lockRead();
+
+		try {
+			// The root cell may hold nodes exceeding the tree's volume. So they are always tested.
+			rootCell.cullNodes(frustum, Classifier.ALL_FRUSTUM_PLANES, callback);
+
+			final int planeMask = Classifier.classifyFrustumBox(frustum, rootCell, Classifier.ALL_FRUSTUM_PLANES);
+
+			if (planeMask != Classifier.FRUSTUM_OUTSIDE)
+				rootCell.cullChildCells(frustum, planeMask, callback);
+		} finally {
+			unlockRead();
+		}
+	}
+
+	/**
+	 * Like {@link #cullFrustum(Frustum, SpatialNodeCallback)}, but the subtrees two levels
+	 * below the root cell are culled in parallel by the executor's threads.
+	 * This method returns, when all nodes have been passed to the callback.
+	 * 
+	 * @param frustum
+	 * @param callback must be thread-safe, since it is called from the executor's threads
+	 * @param executor
+	 */
+	public final void cullFrustum(Frustum frustum, SpatialNodeCallback<T> callback, ExecutorService executor) {
+		lockRead();
+
+		try {
+			rootCell.cullNodes(frustum, Classifier.ALL_FRUSTUM_PLANES, callback);
+
+			final int planeMask = Classifier.classifyFrustumBox(frustum, rootCell, Classifier.ALL_FRUSTUM_PLANES);
+
+			if (planeMask == Classifier.FRUSTUM_OUTSIDE)
+				return;
+
+			final List<Future<?>> futures = new ArrayList<Future<?>>();
+
+			rootCell.cullChildCells(frustum, planeMask, callback, 2, executor, futures);
+
+			// All tasks must have finished, before the read lock is released.
+			RuntimeException failure = null;
+			for (int i = 0; i < futures.size(); i++) {
+				try {
+					OcCell.getResult(futures.get(i));
+				} catch (RuntimeException e) {
+					if (failure == null)
+						failure = e;
+				}
+			}
+
+			if (failure != null)
+				throw failure;
+		} finally {
+			unlockRead();
+		}
+	}
+
+	private final void addChildCellsHitByRay(OcCell<T> cell, Ray3f ray, DistanceHeap<OcCell<T>> heap) {
+		for (int i = 0; i < cell.getNumChildCells(); i++) {
+			final OcCell<T> childCell = cell.getChildCell(i);
+			final float t = IntersectionFactory.boxIntersectsRayParametric(childCell, ray);
+
+			if (!Float.isNaN(t))
+				heap.add(childCell, t);
+		}
+	}
+
+	/**
+	 * Passes all nodes to the callback, whose bounds are hit by the ray.
+	 * The {@link OcCell}s are walked front-to-back (ordered by the ray's entry point)
+	 * and cells missed by the ray are skipped. The nodes of one cell are not sorted.
+	 * 
+	 * @param ray
+	 * @param callback
+	 */
+	public final void rayCast(Ray3f ray, SpatialNodeCallback<T> callback) {
+		lockRead();
+
+		try {
+			final DistanceHeap<OcCell<T>> heap = new DistanceHeap<OcCell<T>>();
+
+			// The root cell may hold nodes exceeding the tree's volume. So it is always visited.
+			heap.add(rootCell, 0f);
+
+			while (!heap.isEmpty()) {
+				final OcCell<T> cell = heap.poll();
+
+				for (int i = 0; i < cell.getNumNodes(); i++) {
+					final T node = cell.getNode(i);
+
+					if (!Float.isNaN(IntersectionFactory.boundsIntersectsRayParametric(node.getWorldBounds(), ray)))
+						callback.hit(node);
+				}
+
+				addChildCellsHitByRay(cell, ray, heap);
+			}
+		} finally {
+			unlockRead();
+		}
+	}
+
+	/**
+	 * Finds the node, whose bounds are hit first by the ray.
+	 * The {@link OcCell}s are walked front-to-back and the search stops,
+	 * as soon as the nearest hit so far is closer than the next cell's entry point.
+	 * 
+	 * @param ray
+	 * @param intersection the intersection point is written to this tuple (if a node was hit). Can be null.
+	 * 
+	 * @return the nearest node or null, if no node is hit.
+	 */
+	public final T rayCastNearest(Ray3f ray, Tuple3f intersection) {
+		lockRead();
+
+		try {
+			final DistanceHeap<OcCell<T>> heap = new DistanceHeap<OcCell<T>>();
+
+			T nearest = null;
+			float nearestT = Float.MAX_VALUE;
+
+			heap.add(rootCell, 0f);
+
+			while (!heap.isEmpty() && (heap.peekDistance() < nearestT)) {
+				final OcCell<T> cell = heap.poll();
+
+				for (int i = 0; i < cell.getNumNodes(); i++) {
+					final T node = cell.getNode(i);
+					final float t = IntersectionFactory.boundsIntersectsRayParametric(node.getWorldBounds(), ray);
+
+					if (t < nearestT) {
+						nearest = node;
+						nearestT = t;
+					}
+				}
+
+				addChildCellsHitByRay(cell, ray, heap);
+			}
+
+			if ((nearest != null) && (intersection != null))
+				intersection.scaleAdd(nearestT, ray.getDirection(), ray.getOrigin());
+
+			return (nearest);
+		} finally {
+			unlockRead();
+		}
+	}
+
+	/**
+	 * Finds the node, whose bounds are hit first by the ray.
+	 * 
+	 * @see #rayCastNearest(Ray3f, Tuple3f)
+	 * 
+	 * @param ray
+	 * 
+	 * @return the nearest node or null, if no node is hit.
+	 */
+	public final T rayCastNearest(Ray3f ray) {
+		return (rayCastNearest(ray, null));
+	}
+
+	private final void queryBox(OcCell<T> cell, float lowerX, float lowerY, float lowerZ, float upperX, float upperY, float upperZ, SpatialNodeCallback<T> callback) {
+		for (int i = 0; i < cell.getNumNodes(); i++) {
+			final T node = cell.getNode(i);
+
+			if (IntersectionFactory.boundsIntersectsBox(node.getWorldBounds(), lowerX, lowerY, lowerZ, upperX, upperY, upperZ))
+				callback.hit(node);
+		}
+
+		for (int i = 0; i < cell.getNumChildCells(); i++) {
+			final OcCell<T> childCell = cell.getChildCell(i);
+
+			if (!IntersectionFactory.boxIntersectsBox(childCell.getLowerX(), childCell.getLowerY(), childCell.getLowerZ(), childCell.getUpperX(), childCell.getUpperY(), childCell.getUpperZ(),
+					lowerX, lowerY, lowerZ, upperX, upperY, upperZ))
+				continue;
+
+			if ((childCell.getLowerX() >= lowerX) && (childCell.getLowerY() >= lowerY) && (childCell.getLowerZ() >= lowerZ) && (childCell.getUpperX() <= upperX) && (childCell.getUpperY() <= upperY)
+					&& (childCell.getUpperZ() <= upperZ))
+				childCell.collectNodes(callback);
+			else
+				queryBox(childCell, lowerX, lowerY, lowerZ, upperX, upperY, upperZ, callback);
+		}
+	}
+
+	/**
+	 * Passes all nodes to the callback, whose bounds intersect the given box.
+	 * Cells completely inside of the box are accepted with all their nodes without any further test.
+	 * 
+	 * @param lowerX
+	 * @param lowerY
+	 * @param lowerZ
+	 * @param upperX
+	 * @param upperY
+	 * @param upperZ
+	 * @param callback
+	 */
+	public final void queryBox(float lowerX, float lowerY, float lowerZ, float upperX, float upperY, float upperZ, SpatialNodeCallback<T> callback) {
+		lockRead();
+
+		try {
+			queryBox(rootCell, lowerX, lowerY, lowerZ, upperX, upperY, upperZ, callback);
+		} finally {
+			unlockRead();
+		}
+	}
+
+	/**
+	 * Passes all nodes to the callback, whose bounds intersect the given box.
+	 * 
+	 * @see #queryBox(float, float, float, float, float, float, SpatialNodeCallback)
+	 * 
+	 * @param box
+	 * @param callback
+	 */
+	public final void queryBox(Box box, SpatialNodeCallback<T> callback) {
+		lockRead();
+
+		try {
+			queryBox(rootCell, box.getLowerX(), box.getLowerY(), box.getLowerZ(), box.getUpperX(), box.getUpperY(), box.getUpperZ(), callback);
+		} finally {
+			unlockRead();
+		}
+	}
+
+	private static final float maxDistance(float point, float min, float max) {
+		return (Math.max(Math.abs(point - min), Math.abs(max - point)));
+	}
+
+	private static final boolean isInsideSphere(OcCell<?> cell, float centerX, float centerY, float centerZ, float radius) {
+		final float dx = maxDistance(centerX, cell.getLowerX(), cell.getUpperX());
+		final float dy = maxDistance(centerY, cell.getLowerY(), cell.getUpperY());
+		final float dz = maxDistance(centerZ, cell.getLowerZ(), cell.getUpperZ());
+
+		return (dx * dx + dy * dy + dz * dz <= radius * radius);
+	}
+
+	private final void querySphere(OcCell<T> cell, float centerX, float centerY, float centerZ, float radius, SpatialNodeCallback<T> callback) {
+		for (int i = 0; i < cell.getNumNodes(); i++) {
+			final T node = cell.getNode(i);
+
+			if (IntersectionFactory.boundsIntersectsSphere(node.getWorldBounds(), centerX, centerY, centerZ, radius))
+				callback.hit(node);
+		}
+
+		for (int i = 0; i < cell.getNumChildCells(); i++) {
+			final OcCell<T> childCell = cell.getChildCell(i);
+
+			if (IntersectionFactory.boxDistanceSquared(centerX, centerY, centerZ, childCell) > radius * radius)
+				continue;
+
+			if (isInsideSphere(childCell, centerX, centerY, centerZ, radius))
+				childCell.collectNodes(callback);
+			else
+				querySphere(childCell, centerX, centerY, centerZ, radius, callback);
+		}
+	}
+
+	/**
+	 * Passes all nodes to the callback, whose bounds intersect the given sphere.
+	 * Cells completely inside of the sphere are accepted with all their nodes without any further test.
+	 * 
+	 * @param centerX
+	 * @param centerY
+	 * @param centerZ
+	 * @param radius
+	 * @param callback
+	 */
+	public final void querySphere(float centerX, float centerY, float centerZ, float radius, SpatialNodeCallback<T> callback) {
+		lockRead();
+
+		try {
+			querySphere(rootCell, centerX, centerY, centerZ, radius, callback);
+		} finally {
+			unlockRead();
+		}
+	}
+
+	/**
+	 * Passes all nodes to the callback, whose bounds intersect the given sphere.
+	 * 
+	 * @see #querySphere(float, float, float, float, SpatialNodeCallback)
+	 * 
+	 * @param center
+	 * @param radius
+	 * @param callback
+	 */
+	public final void querySphere(Tuple3f center, float radius, SpatialNodeCallback<T> callback) {
+		lockRead();
+
+		try {
+			querySphere(rootCell, center.getX(), center.getY(), center.getZ(), radius, callback);
+		} finally {
+			unlockRead();
+		}
+	}
+
+	/**
+	 * Finds the k nodes nearest to the given point. The distance of a node is the distance
+	 * of the point to the node's bounds (0, if the point is inside).
+	 * The {@link OcCell}s are walked nearest-first and the search stops,
+	 * as soon as the next cell is farther away than the k-th nearest node found so far.
+	 * 
+	 * @param point
+	 * @param k
+	 * @param result the nodes are appended to this list ordered by ascending distance
+	 * 
+	 * @return the result list
+	 */
+	public final List<T> kNearest(Tuple3f point, int k, List<T> result) {
+		lockRead();
+
+		try {
+			if (k < 1)
+				throw new IllegalArgumentException("k must be greater than 0.");
+
+			final float px = point.getX();
+			final float py = point.getY();
+			final float pz = point.getZ();
+
+			final DistanceHeap<OcCell<T>> cellHeap = new DistanceHeap<OcCell<T>>();
+			// The distances are negated to keep the farthest of the nearest nodes on top.
+			final DistanceHeap<T> nearest = new DistanceHeap<T>(k + 1);
+
+			cellHeap.add(rootCell, 0f);
+
+			while (!cellHeap.isEmpty()) {
+				if ((nearest.size() == k) && (cellHeap.peekDistance() >= -nearest.peekDistance()))
+					break;
+
+				final OcCell<T> cell = cellHeap.poll();
+
+				for (int i = 0; i < cell.getNumNodes(); i++) {
+					final T node = cell.getNode(i);
+					final float distSq = IntersectionFactory.boundsDistanceSquared(px, py, pz, node.getWorldBounds());
+
+					if (nearest.size() < k) {
+						nearest.add(node, -distSq);
+					} else if (distSq < -nearest.peekDistance()) {
+						nearest.poll();
+						nearest.add(node, -distSq);
+					}
+				}
+
+				for (int i = 0; i < cell.getNumChildCells(); i++) {
+					final OcCell<T> childCell = cell.getChildCell(i);
+					final float distSq = IntersectionFactory.boxDistanceSquared(px, py, pz, childCell);
+
+					if ((nearest.size() < k) || (distSq < -nearest.peekDistance()))
+						cellHeap.add(childCell, distSq);
+				}
+			}
+
+			final int offset = result.size();
+			final int n = nearest.size();
+
+			for (int i = 0; i < n; i++)
+				result.add(null);
+
+			for (int i = n - 1; i >= 0; i--)
+				result.set(offset + i, nearest.poll());
+
+			return (result);
+		} finally {
+			unlockRead();
+		}
+	}
+
+	/**
+	 * Finds the k nodes nearest to the given point.
+	 * 
+	 * @see #kNearest(Tuple3f, int, List)
+	 * 
+	 * @param point
+	 * @param k
+	 * 
+	 * @return a new list with the nodes ordered by ascending distance
+	 */
+	public final List<T> kNearest(Tuple3f point, int k) {
+		return (kNearest(point, k, new ArrayList<T>(k)));
 	}
 
 	/**
 	 * Dumps the whole {@link OcTree} to System.out.
 	 */
 	public void dump() {
-		System.out.println(this.getClass().getSimpleName() + " ( max-level: " + getMaxLevel() + " )");
+		lockRead();
+
+		try {
+			System.out.println(this.getClass().getSimpleName() + " ( max-level: " + getMaxLevel() + " )");
 
-		rootCell.dump();
+			rootCell.dump();
+		} finally {
+			unlockRead();
+		}
 	}
 
 	public OcTree(float centerX, float centerY, float centerZ, float sizeX, float sizeY, float sizeZ, boolean useExtendedCells) {
@@ -214,6 +768,108 @@ public class OcTree<T extends SpatialNode> {
 		this(center.getX(), center.getY(), center.getZ(), size, useExtendedCells);
 	}
 
+	/**
+	 * Creates a loose {@link OcTree}. Each cell's box is enlarged by the looseness factor (typically 2),
+	 * so that a node is put into the octant, that contains its center, as long as it fits into the enlarged box.
+	 * This way small nodes rarely get stuck in big cells and moving nodes change their cells less often.
+	 * Loose trees don't use extended cells.
+	 * 
+	 * @param centerX
+	 * @param centerY
+	 * @param centerZ
+	 * @param sizeX
+	 * @param sizeY
+	 * @param sizeZ
+	 * @param looseness the factor (>= 1), by which the cells' boxes are enlarged
+	 */
+	public OcTree(float centerX, float centerY, float centerZ, float sizeX, float sizeY, float sizeZ, float looseness) {
+		if (looseness < 1f)
+			throw new IllegalArgumentException("looseness must be >= 1.");
+
+		this.rootCell = new OcCell<T>(0, centerX, centerY, centerZ, sizeX, sizeY, sizeZ, false, looseness);
+	}
+
+	/**
+	 * Creates a loose {@link OcTree}.
+	 * 
+	 * @see #OcTree(float, float, float, float, float, float, float)
+	 * 
+	 * @param center
+	 * @param size
+	 * @param looseness the factor (>= 1), by which the cells' boxes are enlarged
+	 */
+	public OcTree(Tuple3f center, float size, float looseness) {
+		this(center.getX(), center.getY(), center.getZ(), size, size, size, looseness);
+	}
+
+	/**
+	 * Creates a new {@link OcTree}, that (cubically) encloses all the given nodes,
+	 * and bulk-loads the nodes into it.
+	 * 
+	 * @see #bulkLoad(Collection, ExecutorService)
+	 * 
+	 * @param <T>
+	 * @param nodes
+	 * @param useExtendedCells
+	 * @param minNodesBeforeSplit
+	 * @param maxLevelForExtendedCells
+	 * @param executor if non-null, the subtrees of the root cell are built in parallel by this executor's threads
+	 * 
+	 * @return the new {@link OcTree}.
+	 */
+	public static <T extends SpatialNode> OcTree<T> build(T[] nodes, boolean useExtendedCells, int minNodesBeforeSplit, int maxLevelForExtendedCells, ExecutorService executor) {
+		float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE, minZ = Float.MAX_VALUE;
+		float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE, maxZ = -Float.MAX_VALUE;
+
+		for (int i = 0; i < nodes.length; i++) {
+			final Bounds bounds = nodes[i].getWorldBounds();
+			final BoundsType type = bounds.getType();
+
+			// Other bounds types are never put into child cells anyway.
+			if ((type != BoundsType.AABB) && (type != BoundsType.SPHERE))
+				continue;
+
+			minX = Math.min(minX, BoundsHelper.getMinX(bounds, type));
+			minY = Math.min(minY, BoundsHelper.getMinY(bounds, type));
+			minZ = Math.min(minZ, BoundsHelper.getMinZ(bounds, type));
+			maxX = Math.max(maxX, BoundsHelper.getMaxX(bounds, type));
+			maxY = Math.max(maxY, BoundsHelper.getMaxY(bounds, type));
+			maxZ = Math.max(maxZ, BoundsHelper.getMaxZ(bounds, type));
+		}
+
+		final OcTree<T> tree;
+		if (minX > maxX) {
+			tree = new OcTree<T>(0f, 0f, 0f, 1f, useExtendedCells);
+		} else {
+			// Enlarge the size a little bit to compensate rounding errors at the tree's borders.
+			final float size = Math.max(Math.max(maxX - minX, maxY - minY), maxZ - minZ) * 1.0001f + 0.0001f;
+
+			tree = new OcTree<T>((minX + maxX) / 2f, (minY + maxY) / 2f, (minZ + maxZ) / 2f, size, useExtendedCells);
+		}
+
+		tree.setMinNodesBeforeSplit(minNodesBeforeSplit);
+		tree.setMaxLevelForExtendedCells(maxLevelForExtendedCells);
+		tree.bulkLoad(nodes, executor);
+
+		return (tree);
+	}
+
+	/**
+	 * Creates a new {@link OcTree}, that (cubically) encloses all the given nodes,
+	 * and bulk-loads the nodes into it.
+	 * 
+	 * @see #build(SpatialNode[], boolean, int, int, ExecutorService)
+	 * 
+	 * @param <T>
+	 * @param nodes
+	 * @param useExtendedCells
+	 * 
+	 * @return the new {@link OcTree}.
+	 */
+	public static <T extends SpatialNode> OcTree<T> build(T[] nodes, boolean useExtendedCells) {
+		return (build(nodes, useExtendedCells, 8, 0, null));
+	}
+
 	/*
 	 * private static class MyNode implements SpatialNode { private
 	 * org.openmali.spatial.bounds.Bounds worldBounds; private Object treeCell =
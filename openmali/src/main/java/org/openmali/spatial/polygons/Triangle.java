@@ -43,6 +43,7 @@ import org.openmali.vecmath2.TexCoord2f;
 import org.openmali.vecmath2.Tuple3f;
 import org.openmali.vecmath2.Vector3f;
 import org.openmali.vecmath2.Vertex3f;
+import org.openmali.vecmath2.util.VecStack;
 
 /**
  * A Triangle is composed of three vertices.
@@ -486,51 +487,57 @@ public class Triangle extends Polygon {
 	 * Calculates angle between the edges AC and AB.
 	 */
 	public float getAngleA() {
-		Vector3f tmpVec1 = Vector3f.fromPool();
-		Vector3f tmpVec2 = Vector3f.fromPool();
-
-		tmpVec1.sub(getVertexCoordC(), getVertexCoordA());
-		tmpVec2.sub(getVertexCoordB(), getVertexCoordA());
-		final float angle = tmpVec1.angle(tmpVec2);
+		final VecStack stack = VecStack.push();
+		try {
+			Vector3f tmpVec1 = stack.vec3();
+			Vector3f tmpVec2 = stack.vec3();
 
-		Vector3f.toPool(tmpVec2);
-		Vector3f.toPool(tmpVec1);
+			tmpVec1.sub(getVertexCoordC(), getVertexCoordA());
+			tmpVec2.sub(getVertexCoordB(), getVertexCoordA());
+			final float angle = tmpVec1.angle(tmpVec2);
 
-		return (angle);
+			return (angle);
+		} finally {
+			stack.pop();
+		}
 	}
 
 	/**
 	 * Calculates angle between the edges BA and BC.
 	 */
 	public float getAngleB() {
-		Vector3f tmpVec1 = Vector3f.fromPool();
-		Vector3f tmpVec2 = Vector3f.fromPool();
-
-		tmpVec1.sub(getVertexCoordA(), getVertexCoordB());
-		tmpVec2.sub(getVertexCoordC(), getVertexCoordB());
-		final float angle = tmpVec1.angle(tmpVec2);
+		final VecStack stack = VecStack.push();
+		try {
+			Vector3f tmpVec1 = stack.vec3();
+			Vector3f tmpVec2 = stack.vec3();
 
-		Vector3f.toPool(tmpVec2);
-		Vector3f.toPool(tmpVec1);
+			tmpVec1.sub(getVertexCoordA(), getVertexCoordB());
+			tmpVec2.sub(getVertexCoordC(), getVertexCoordB());
+			final float angle = tmpVec1.angle(tmpVec2);
 
-		return (angle);
+			return (angle);
+		} finally {
+			stack.pop();
+		}
 	}
 
 	/**
 	 * Calculates angle between the edges CB and CA.
 	 */
 	public float getAngleC() {
-		Vector3f tmpVec1 = Vector3f.fromPool();
-		Vector3f tmpVec2 = Vector3f.fromPool();
-
-		tmpVec1.sub(getVertexCoordB(), getVertexCoordC());
-		tmpVec2.sub(getVertexCoordA(), getVertexCoordC());
-		final float angle = tmpVec1.angle(tmpVec2);
+		final VecStack stack = VecStack.push();
+		try {
+			Vector3f tmpVec1 = stack.vec3();
+			Vector3f tmpVec2 = stack.vec3();
 
-		Vector3f.toPool(tmpVec2);
-		Vector3f.toPool(tmpVec1);
+			tmpVec1.sub(getVertexCoordB(), getVertexCoordC());
+			tmpVec2.sub(getVertexCoordA(), getVertexCoordC());
+			final float angle = tmpVec1.angle(tmpVec2);
 
-		return (angle);
+			return (angle);
+		} finally {
+			stack.pop();
+		}
 	}
 
 	/**
@@ -539,17 +546,19 @@ public class Triangle extends Polygon {
 	 * @param faceNormal
 	 */
 	public void getFaceNormalACAB(Vector3f faceNormal) {
-		Vector3f tmpVec1 = Vector3f.fromPool();
-		Vector3f tmpVec2 = Vector3f.fromPool();
-
-		tmpVec1.sub(getVertexCoordC(), getVertexCoordA());
-		tmpVec2.sub(getVertexCoordB(), getVertexCoordA());
+		final VecStack stack = VecStack.push();
+		try {
+			Vector3f tmpVec1 = stack.vec3();
+			Vector3f tmpVec2 = stack.vec3();
 
-		faceNormal.cross(tmpVec1, tmpVec2);
-		faceNormal.normalize();
+			tmpVec1.sub(getVertexCoordC(), getVertexCoordA());
+			tmpVec2.sub(getVertexCoordB(), getVertexCoordA());
 
-		Vector3f.toPool(tmpVec2);
-		Vector3f.toPool(tmpVec1);
+			faceNormal.cross(tmpVec1, tmpVec2);
+			faceNormal.normalize();
+		} finally {
+			stack.pop();
+		}
 	}
 
 	/**
@@ -567,17 +576,19 @@ public class Triangle extends Polygon {
 	 * @param faceNormal
 	 */
 	public void getFaceNormalBABC(Vector3f faceNormal) {
-		Vector3f tmpVec1 = Vector3f.fromPool();
-		Vector3f tmpVec2 = Vector3f.fromPool();
-
-		tmpVec1.sub(getVertexCoordA(), getVertexCoordB());
-		tmpVec2.sub(getVertexCoordC(), getVertexCoordB());
+		final VecStack stack = VecStack.push();
+		try {
+			Vector3f tmpVec1 = stack.vec3();
+			Vector3f tmpVec2 = stack.vec3();
 
-		faceNormal.cross(tmpVec1, tmpVec2);
-		faceNormal.normalize();
+			tmpVec1.sub(getVertexCoordA(), getVertexCoordB());
+			tmpVec2.sub(getVertexCoordC(), getVertexCoordB());
 
-		Vector3f.toPool(tmpVec2);
-		Vector3f.toPool(tmpVec1);
+			faceNormal.cross(tmpVec1, tmpVec2);
+			faceNormal.normalize();
+		} finally {
+			stack.pop();
+		}
 	}
 
 	/**
@@ -595,17 +606,19 @@ public class Triangle extends Polygon {
 	 * @param faceNormal
 	 */
 	public void getFaceNormalCBCA(Vector3f faceNormal) {
-		Vector3f tmpVec1 = Vector3f.fromPool();
-		Vector3f tmpVec2 = Vector3f.fromPool();
-
-		tmpVec1.sub(getVertexCoordB(), getVertexCoordC());
-		tmpVec2.sub(getVertexCoordA(), getVertexCoordC());
+		final VecStack stack = VecStack.push();
+		try {
+			Vector3f tmpVec1 = stack.vec3();
+			Vector3f tmpVec2 = stack.vec3();
 
-		faceNormal.cross(tmpVec1, tmpVec2);
-		faceNormal.normalize();
+			tmpVec1.sub(getVertexCoordB(), getVertexCoordC());
+			tmpVec2.sub(getVertexCoordA(), getVertexCoordC());
 
-		Vector3f.toPool(tmpVec2);
-		Vector3f.toPool(tmpVec1);
+			faceNormal.cross(tmpVec1, tmpVec2);
+			faceNormal.normalize();
+		} finally {
+			stack.pop();
+		}
 	}
 
 	/**
@@ -626,9 +639,10 @@ public class Triangle extends Polygon {
 		if (!hasFeature(Vertex3f.NORMALS))
 			throw new NullPointerException("You need vertex normals to calculate the face normal");
 
-		Vector3f tmpVec4 = Vector3f.fromPool();
-		Vector3f tmpVec5 = Vector3f.fromPool();
-		Vector3f tmpVec6 = Vector3f.fromPool();
+		final VecStack stack = VecStack.push();
+		Vector3f tmpVec4 = stack.vec3();
+		Vector3f tmpVec5 = stack.vec3();
+		Vector3f tmpVec6 = stack.vec3();
 
 		try {
 			getFaceNormalACAB(tmpVec4);
@@ -665,9 +679,7 @@ public class Triangle extends Polygon {
 
 			faceNormal.set(tmpVec4);
 		} finally {
-			Vector3f.toPool(tmpVec6);
-			Vector3f.toPool(tmpVec5);
-			Vector3f.toPool(tmpVec4);
+			stack.pop();
 		}
 	}
 
@@ -745,23 +757,26 @@ public class Triangle extends Polygon {
 	}
 
 	public int sign3D(Tuple3f a, Tuple3f b, Tuple3f c, Tuple3f d) {
-		Matrix3f tmpMat = Matrix3f.fromPool();
-
-		tmpMat.setRow(0, a.getX() - d.getX(), a.getY() - d.getY(), a.getZ() - d.getZ());
-		tmpMat.setRow(1, b.getX() - d.getX(), b.getY() - d.getY(), b.getZ() - d.getZ());
-		tmpMat.setRow(2, c.getX() - d.getX(), c.getY() - d.getY(), c.getZ() - d.getZ());
+		final VecStack stack = VecStack.push();
+		try {
+			Matrix3f tmpMat = stack.mat3();
 
-		final float det = tmpMat.determinant();
-		final float EPSILON = 0.00001f;
+			tmpMat.setRow(0, a.getX() - d.getX(), a.getY() - d.getY(), a.getZ() - d.getZ());
+			tmpMat.setRow(1, b.getX() - d.getX(), b.getY() - d.getY(), b.getZ() - d.getZ());
+			tmpMat.setRow(2, c.getX() - d.getX(), c.getY() - d.getY(), c.getZ() - d.getZ());
 
-		Matrix3f.toPool(tmpMat);
+			final float det = tmpMat.determinant();
+			final float EPSILON = 0.00001f;
 
-		if (det > EPSILON)
-			return (1);
-		else if (det < -EPSILON)
-			return (-1);
-		else
-			return (0);
+			if (det > EPSILON)
+				return (1);
+			else if (det < -EPSILON)
+				return (-1);
+			else
+				return (0);
+		} finally {
+			stack.pop();
+		}
 	}
 
 	/**
@@ -773,31 +788,34 @@ public class Triangle extends Polygon {
 	 * @return true, if an intersection is possible
 	 */
 	public boolean quickIntersectionTest(Ray3f pickRay) {
-		Point3f tmpPnt = Point3f.fromPool();
-
-		tmpPnt.scaleAdd(100000.0f, pickRay.getDirection(), pickRay.getOrigin());
-		final int i = sign3D(tmpPnt, coordA, pickRay.getOrigin(), coordB);
-		final int j = sign3D(tmpPnt, coordC, coordB, pickRay.getOrigin());
-		final int k = sign3D(tmpPnt, coordA, coordC, pickRay.getOrigin());
-
-		Point3f.toPool(tmpPnt);
-
-		if (i == 0 && j == 0)
-			return (true); // intersects in C
-		if (i == 0 && k == 0)
-			return (true); // intersects in A
-		if (j == 0 && k == 0)
-			return (true); // intersects in B
-		if (i == 0 && j == k)
-			return (true); // intersects in AC
-		if (j == 0 && i == k)
-			return (true); // intersects in BC
-		if (k == 0 && j == i)
-			return (true); // intersects in AB
-		if (i == j && j == k)
-			return (true); // intersects inside
-
-		return (false); // does not intersect
+		final VecStack stack = VecStack.push();
+		try {
+			Point3f tmpPnt = stack.point3();
+
+			tmpPnt.scaleAdd(100000.0f, pickRay.getDirection(), pickRay.getOrigin());
+			final int i = sign3D(tmpPnt, coordA, pickRay.getOrigin(), coordB);
+			final int j = sign3D(tmpPnt, coordC, coordB, pickRay.getOrigin());
+			final int k = sign3D(tmpPnt, coordA, coordC, pickRay.getOrigin());
+
+			if (i == 0 && j == 0)
+				return (true); // intersects in C
+			if (i == 0 && k == 0)
+				return (true); // intersects in A
+			if (j == 0 && k == 0)
+				return (true); // intersects in B
+			if (i == 0 && j == k)
+				return (true); // intersects in AC
+			if (j == 0 && i == k)
+				return (true); // intersects in BC
+			if (k == 0 && j == i)
+				return (true); // intersects in AB
+			if (i == j && j == k)
+				return (true); // intersects inside
+
+			return (false); // does not intersect
+		} finally {
+			stack.pop();
+		}
 	}
 
 	/**
@@ -810,11 +828,12 @@ public class Triangle extends Polygon {
 	 */
 	public float intersects(Point3f rayOrigin, Vector3f rayDirection) {
 		// map tmp vectors to local names
-		Vector3f e1 = Vector3f.fromPool();
-		Vector3f e2 = Vector3f.fromPool();
-		Vector3f p = Vector3f.fromPool();
-		Vector3f q = Vector3f.fromPool();
-		Vector3f s = Vector3f.fromPool();
+		final VecStack stack = VecStack.push();
+		Vector3f e1 = stack.vec3();
+		Vector3f e2 = stack.vec3();
+		Vector3f p = stack.vec3();
+		Vector3f q = stack.vec3();
+		Vector3f s = stack.vec3();
 
 		try {
 			// test raydirection
@@ -851,11 +870,7 @@ public class Triangle extends Polygon {
 
 			return (l * l);
 		} finally {
-			Vector3f.toPool(s);
-			Vector3f.toPool(q);
-			Vector3f.toPool(p);
-			Vector3f.toPool(e2);
-			Vector3f.toPool(e1);
+			stack.pop();
 		}
 	}
 
@@ -36,6 +36,7 @@ package org.openmali.spatial.quadtree;
 import java.io.PrintStream;
 
 import org.openmali.spatial.AxisIndicator;
+import org.openmali.spatial.IndexedSpatialNode;
 import org.openmali.spatial.PlaneIndicator;
 import org.openmali.spatial.SpatialNode;
 import org.openmali.spatial.bodies.Box;
@@ -102,6 +103,13 @@ public class QuadCell<T extends SpatialNode> extends Box {
 
 	private boolean hasChildCells = false;
 
+	/*
+	 * All non-null child cells (regular and extended) in creation order.
+	 * This saves the traversal code from checking all the fields.
+	 */
+	private Object[] childCells = null;
+	private int numChildCells = 0;
+
 	/**
 	 * @return true, if extended cells are <b>potentially</b> used.
 	 * This doesn't necessarily mean, that extended cells are currently in use.
@@ -215,6 +223,42 @@ public class QuadCell<T extends SpatialNode> extends Box {
 		return (hasChildCells);
 	}
 
+	/**
+	 * @return the number of currently existing child {@link QuadCell}s.
+	 * This also includes extended cells!
+	 */
+	public final int getNumChildCells() {
+		return (numChildCells);
+	}
+
+	/**
+	 * @param index
+	 * 
+	 * @return one of the currently existing child {@link QuadCell}s.
+	 * This also includes extended cells!
+	 */
+	@SuppressWarnings("unchecked")
+	public final QuadCell<T> getChildCell(int index) {
+		return ((QuadCell<T>) childCells[index]);
+	}
+
+	private final void addChildCell(QuadCell<T> cell) {
+		if (childCells == null) {
+			childCells = new Object[useExtendedCells ? 8 : 4];
+		}
+
+		childCells[numChildCells++] = cell;
+		hasChildCells = true;
+	}
+
+	/**
+	 * Checks, if the given bounds are completely enclosed by this cell's area in the tree's plane.
+	 */
+	private final boolean encloses(Bounds bounds, BoundsType type) {
+		return ((BoundsHelper.getMinX(plane, bounds, type) >= centerW - halfWidth) && (BoundsHelper.getMaxX(plane, bounds, type) <= centerW + halfWidth)
+				&& (BoundsHelper.getMinDepth(plane, bounds, type) >= centerD - halfDepth) && (BoundsHelper.getMaxDepth(plane, bounds, type) <= centerD + halfDepth));
+	}
+
 	private void reinsertNodes(int minNodesBeforeSplit, int maxLevelForExtendedCells) {
 		int pushedNodes = 0;
 
@@ -230,16 +274,18 @@ public class QuadCell<T extends SpatialNode> extends Box {
 		}
 
 		if (pushedNodes > 0) {
-			Object[] temp = newTArray(getNumNodes() - pushedNodes);
-
 			int j = 0;
 			for (int i = 0; i < getNumNodes(); i++) {
-				if (getNode(i) != null) {
-					temp[j++] = getNode(i);
+				if (nodes[i] != null) {
+					nodes[j] = nodes[i];
+					setNodeIndex(nodes[j], j);
+					j++;
 				}
 			}
 
-			this.nodes = temp;
+			for (int i = j; i < getNumNodes(); i++)
+				nodes[i] = null;
+
 			this.numNodes -= pushedNodes;
 		}
 	}
@@ -259,7 +305,7 @@ public class QuadCell<T extends SpatialNode> extends Box {
 		} else// if ( ( plane == PlaneIndicator.X_Y_PLANE ) || ( plane ==
 				// PlaneIndicator.Z_Y_PLANE ) )
 		{
-			childCenterY = centerY - depth / 4f;
+			childCenterY = centerY + depth / 4f;
 		}
 
 		float childCenterZ;
@@ -290,7 +336,7 @@ public class QuadCell<T extends SpatialNode> extends Box {
 		} else// if ( ( plane == PlaneIndicator.X_Y_PLANE ) || ( plane ==
 				// PlaneIndicator.Z_Y_PLANE ) )
 		{
-			childCenterY = centerY - depth / 4f;
+			childCenterY = centerY + depth / 4f;
 		}
 
 		float childCenterZ;
@@ -321,7 +367,7 @@ public class QuadCell<T extends SpatialNode> extends Box {
 		} else// if ( ( plane == PlaneIndicator.X_Y_PLANE ) || ( plane ==
 				// PlaneIndicator.Z_Y_PLANE ) )
 		{
-			childCenterY = centerY + depth / 4f;
+			childCenterY = centerY - depth / 4f;
 		}
 
 		float childCenterZ;
@@ -352,7 +398,7 @@ public class QuadCell<T extends SpatialNode> extends Box {
 		} else// if ( ( plane == PlaneIndicator.X_Y_PLANE ) || ( plane ==
 				// PlaneIndicator.Z_Y_PLANE ) )
 		{
-			childCenterY = centerY + depth / 4f;
+			childCenterY = centerY - depth / 4f;
 		}
 
 		float childCenterZ;
@@ -424,7 +470,7 @@ public class QuadCell<T extends SpatialNode> extends Box {
 		} else// if ( ( plane == PlaneIndicator.X_Y_PLANE ) || ( plane ==
 				// PlaneIndicator.Z_Y_PLANE ) )
 		{
-			childCenterY = centerY - depth / 4f;
+			childCenterY = centerY + depth / 4f;
 		}
 
 		float childCenterZ;
@@ -449,7 +495,7 @@ public class QuadCell<T extends SpatialNode> extends Box {
 		} else// if ( ( plane == PlaneIndicator.X_Y_PLANE ) || ( plane ==
 				// PlaneIndicator.Z_Y_PLANE ) )
 		{
-			childCenterY = centerY + depth / 4f;
+			childCenterY = centerY - depth / 4f;
 		}
 
 		float childCenterZ;
@@ -473,6 +519,14 @@ public class QuadCell<T extends SpatialNode> extends Box {
 			}
 		}
 
+		/*
+		 * Nodes, that are not completely inside of the tree's area, are kept
+		 * in the root cell. This way every other cell encloses all the
+		 * nodes of its subtree, which the spatial queries rely on.
+		 */
+		if ((level == 0) && !encloses(bounds, type))
+			return (this);
+
 		// First check: left or right (or spanning)...
 
 		if (BoundsHelper.getMaxX(plane, bounds, type) <= this.centerW) {
@@ -483,7 +537,7 @@ public class QuadCell<T extends SpatialNode> extends Box {
 
 				if (quFrontLeft == null) {
 					this.quFrontLeft = createFrontLeftQuadrant(maxLevelForExtendedCells);
-					hasChildCells = true;
+					addChildCell(quFrontLeft);
 				}
 
 				return (quFrontLeft.findChildCell(bounds, minNodesBeforeSplit, maxLevelForExtendedCells));
@@ -494,7 +548,7 @@ public class QuadCell<T extends SpatialNode> extends Box {
 
 				if (quBackLeft == null) {
 					this.quBackLeft = createBackLeftQuadrant(maxLevelForExtendedCells);
-					hasChildCells = true;
+					addChildCell(quBackLeft);
 				}
 
 				return (quBackLeft.findChildCell(bounds, minNodesBeforeSplit, maxLevelForExtendedCells));
@@ -508,7 +562,7 @@ public class QuadCell<T extends SpatialNode> extends Box {
 				if (hLeft == null) {
 					this.hLeft = createLeftHalf();// ( maxLevelForExtendedCells
 													// );
-					hasChildCells = true;
+					addChildCell(hLeft);
 				}
 
 				return (hLeft);
@@ -527,7 +581,7 @@ public class QuadCell<T extends SpatialNode> extends Box {
 
 				if (quFrontRight == null) {
 					this.quFrontRight = createFrontRightQuadrant(maxLevelForExtendedCells);
-					hasChildCells = true;
+					addChildCell(quFrontRight);
 				}
 
 				return (quFrontRight.findChildCell(bounds, minNodesBeforeSplit, maxLevelForExtendedCells));
@@ -538,7 +592,7 @@ public class QuadCell<T extends SpatialNode> extends Box {
 
 				if (quBackRight == null) {
 					this.quBackRight = createBackRightQuadrant(maxLevelForExtendedCells);
-					hasChildCells = true;
+					addChildCell(quBackRight);
 				}
 
 				return (quBackRight.findChildCell(bounds, minNodesBeforeSplit, maxLevelForExtendedCells));
@@ -553,7 +607,7 @@ public class QuadCell<T extends SpatialNode> extends Box {
 					this.hRight = createRightHalf();// (
 													// maxLevelForExtendedCells
 													// );
-					hasChildCells = true;
+					addChildCell(hRight);
 				}
 
 				return (hRight);
@@ -574,7 +628,7 @@ public class QuadCell<T extends SpatialNode> extends Box {
 					this.hFront = createFrontHalf();// (
 													// maxLevelForExtendedCells
 													// );
-					hasChildCells = true;
+					addChildCell(hFront);
 				}
 
 				return (hFront);
@@ -586,7 +640,7 @@ public class QuadCell<T extends SpatialNode> extends Box {
 				if (hBack == null) {
 					this.hBack = createBackHalf();// ( maxLevelForExtendedCells
 													// );
-					hasChildCells = true;
+					addChildCell(hBack);
 				}
 
 				return (hBack);
@@ -613,15 +667,21 @@ public class QuadCell<T extends SpatialNode> extends Box {
 		return (findChildCell(node.getWorldBounds(), minNodesBeforeSplit, maxLevelForExtendedCells));
 	}
 
+	private static final void setNodeIndex(Object node, int index) {
+		if (node instanceof IndexedSpatialNode)
+			((IndexedSpatialNode) node).setTreeCellIndex(index);
+	}
+
 	private final void insertNode_(T node) {
-		final double growFactor = 1.0;
+		final float growFactor = 1.5f;
 
 		if (numNodes == nodes.length) {
-			Object[] nodes2 = newTArray((int) ((numNodes + 1) * growFactor));
+			Object[] nodes2 = newTArray((int) (numNodes * growFactor) + 1);
 			System.arraycopy(nodes, 0, nodes2, 0, numNodes);
 			nodes = nodes2;
 		}
 
+		setNodeIndex(node, numNodes);
 		nodes[numNodes++] = node;
 		node.setTreeCell(this);
 
@@ -650,15 +710,25 @@ public class QuadCell<T extends SpatialNode> extends Box {
 		return (cell.getLevel());
 	}
 
-	private final void removeNode_(T node) {
-		int index = -1;
+	private final int indexOfNode(T node) {
+		if (node instanceof IndexedSpatialNode) {
+			final int index = ((IndexedSpatialNode) node).getTreeCellIndex();
+
+			if ((index >= 0) && (index < numNodes) && (nodes[index] == node))
+				return (index);
+		}
+
 		for (int i = 0; i < numNodes; i++) {
-			if (nodes[i] == node) {
-				index = i;
-				break;
-			}
+			if (nodes[i] == node)
+				return (i);
 		}
 
+		return (-1);
+	}
+
+	private final void removeNode_(T node) {
+		final int index = indexOfNode(node);
+
 		/*
 		 * We don't need to check this, since the precondition to enter this
 		 * method is, that the node is in this cell!
@@ -666,10 +736,16 @@ public class QuadCell<T extends SpatialNode> extends Box {
 		// if ( index == -1 )
 		// return;
 
-		System.arraycopy(nodes, index + 1, nodes, index, numNodes - index - 1);
+		// The node order doesn't matter. So the last node simply fills the gap.
 		numNodes--;
+		if (index < numNodes) {
+			nodes[index] = nodes[numNodes];
+			setNodeIndex(nodes[index], index);
+		}
+		nodes[numNodes] = null;
 
 		node.setTreeCell(null);
+		setNodeIndex(node, -1);
 	}
 
 	/**
@@ -709,6 +785,10 @@ public class QuadCell<T extends SpatialNode> extends Box {
 		hRight = null;
 		hBack = null;
 		hFront = null;
+
+		childCells = null;
+		numChildCells = 0;
+		hasChildCells = false;
 	}
 
 	private static final void printIndentation(int indentation, PrintStream ps) {
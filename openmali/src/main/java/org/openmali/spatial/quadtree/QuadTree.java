@@ -33,9 +33,20 @@
  */
 package org.openmali.spatial.quadtree;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.openmali.spatial.AxisIndicator;
+import org.openmali.spatial.DistanceHeap;
 import org.openmali.spatial.PlaneIndicator;
 import org.openmali.spatial.SpatialNode;
+import org.openmali.spatial.SpatialNodeCallback;
+import org.openmali.spatial.bodies.Box;
+import org.openmali.spatial.bodies.Classifier;
+import org.openmali.spatial.bodies.Frustum;
+import org.openmali.spatial.bodies.IntersectionFactory;
+import org.openmali.spatial.bounds.Bounds;
+import org.openmali.vecmath2.Ray3f;
 import org.openmali.vecmath2.Tuple3f;
 
 /**
@@ -56,6 +67,14 @@ public class QuadTree<T extends SpatialNode> {
 
 	private int maxLevel = 0;
 
+	/*
+	 * A conservative range of all nodes' bounds along the up-axis. It only grows (until clear()),
+	 * so it encloses the nodes' heights, which the cells don't limit, as long as every change
+	 * along the up-axis is passed to updateNodePosition().
+	 */
+	private float nodesLowerUp = Float.MAX_VALUE;
+	private float nodesUpperUp = -Float.MAX_VALUE;
+
 	/**
 	 * @return the plane covered by this {@link QuadTree}.
 	 */
@@ -164,6 +183,13 @@ public class QuadTree<T extends SpatialNode> {
 	 * @return the level of the {@link QuadCell}, the node has been inserted to.
 	 */
 	public final int insertNode(T node) {
+		final Bounds bounds = node.getWorldBounds();
+		final float up = getUpCoord(bounds.getCenterX(), bounds.getCenterY(), bounds.getCenterZ());
+		final float extent = bounds.getMaxCenterDistance();
+
+		nodesLowerUp = Math.min(nodesLowerUp, up - extent);
+		nodesUpperUp = Math.max(nodesUpperUp, up + extent);
+
 		int level = rootCell.insertNode(node, getMinNodesBeforeSplit(), getMaxLevelForExtendedCells());
 
 		if (level > maxLevel)
@@ -186,12 +212,18 @@ public class QuadTree<T extends SpatialNode> {
 	 */
 	public final void clear() {
 		rootCell.clear();
+
+		nodesLowerUp = Float.MAX_VALUE;
+		nodesUpperUp = -Float.MAX_VALUE;
 	}
 
 	/**
 	 * This method must be called after a node's position or size has changed.
 	 * You don't need to call this method, if you exactly know, that the
-	 * modification won't affect the node's placement in the tree.
+	 * modification won't affect the node's placement in the tree and that the
+	 * node neither moved nor grew along the up-axis. The box and sphere queries
+	 * rely on the nodes' heights, that were passed in here or to
+	 * {@link #insertNode(SpatialNode)}, to accept whole cells untested.
 	 * 
 	 * @param node
 	 */
@@ -200,6 +232,455 @@ public class QuadTree<T extends SpatialNode> {
 			insertNode(node);
 	}
 
+	/**
+	 * Classifies the cell against the frustum.
+	 * The cells are taken as unbounded along the up-axis, since the nodes' heights are not limited by the cells.
+	 */
+	private final int classifyCell(QuadCell<T> cell, Frustum frustum, int planeMask) {
+		switch (getPlane()) {
+		case X_Z_PLANE:
+			return (Classifier.classifyFrustumBox(frustum, cell.getLowerX(), -Float.MAX_VALUE, cell.getLowerZ(), cell.getUpperX(), Float.MAX_VALUE, cell.getUpperZ(), planeMask));
+		case X_Y_PLANE:
+			return (Classifier.classifyFrustumBox(frustum, cell.getLowerX(), cell.getLowerY(), -Float.MAX_VALUE, cell.getUpperX(), cell.getUpperY(), Float.MAX_VALUE, planeMask));
+		case Z_Y_PLANE:
+			return (Classifier.classifyFrustumBox(frustum, -Float.MAX_VALUE, cell.getLowerY(), cell.getLowerZ(), Float.MAX_VALUE, cell.getUpperY(), cell.getUpperZ(), planeMask));
+		}
+
+		throw new Error("Should not happen!");
+	}
+
+	private final void cullFrustum(QuadCell<T> cell, Frustum frustum, int planeMask, SpatialNodeCallback<T> callback) {
+		for (int i = 0; i < cell.getNumNodes(); i++) {
+			final T node = cell.getNode(i);
+
+			if (Classifier.classifyFrustumBounds(frustum, node.getWorldBounds(), planeMask) != Classifier.FRUSTUM_OUTSIDE)
+				callback.hit(node);
+		}
+
+		for (int i = 0; i < cell.getNumChildCells(); i++) {
+			final QuadCell<T> childCell = cell.getChildCell(i);
+			final int childMask = classifyCell(childCell, frustum, planeMask);
+
+			if (childMask == 0)
+				collectNodes(childCell, callback);
+			else if (childMask != Classifier.FRUSTUM_OUTSIDE)
+				cullFrustum(childCell, frustum, childMask, callback);
+		}
+	}
+
+	/**
+	 * Passes all nodes to the callback, that are (at least partially) inside of the frustum.
+	 * Cells, that are completely inside, are accepted with all their nodes and child cells
+	 * without any further test, cells outside are skipped.
+	 * 
+	 * @param frustum
+	 * @param callback
+	 */
+	public final void cullFrustum(Frustum frustum, SpatialNodeCallback<T> callback) {
+		// The root cell may hold nodes exceeding the tree's area. So they are always tested.
+		cullFrustum(rootCell, frustum, Classifier.ALL_FRUSTUM_PLANES, callback);
+	}
+
+	/**
+	 * Computes the ray parameter of the ray's entry point into the cell.
+	 * The cells are taken as unbounded along the up-axis, since the nodes' heights are not limited by the cells.
+	 */
+	private final float getRayEntry(QuadCell<T> cell, Ray3f ray) {
+		switch (getPlane()) {
+		case X_Z_PLANE:
+			return (IntersectionFactory.boxIntersectsRayParametric(cell.getLowerX(), -Float.MAX_VALUE, cell.getLowerZ(), cell.getUpperX(), Float.MAX_VALUE, cell.getUpperZ(), ray.getOrigin(), ray
+					.getDirection()));
+		case X_Y_PLANE:
+			return (IntersectionFactory.boxIntersectsRayParametric(cell.getLowerX(), cell.getLowerY(), -Float.MAX_VALUE, cell.getUpperX(), cell.getUpperY(), Float.MAX_VALUE, ray.getOrigin(), ray
+					.getDirection()));
+		case Z_Y_PLANE:
+			return (IntersectionFactory.boxIntersectsRayParametric(-Float.MAX_VALUE, cell.getLowerY(), cell.getLowerZ(), Float.MAX_VALUE, cell.getUpperY(), cell.getUpperZ(), ray.getOrigin(), ray
+					.getDirection()));
+		}
+
+		throw new Error("Should not happen!");
+	}
+
+	private final void addChildCellsHitByRay(QuadCell<T> cell, Ray3f ray, DistanceHeap<QuadCell<T>> heap) {
+		for (int i = 0; i < cell.getNumChildCells(); i++) {
+			final QuadCell<T> childCell = cell.getChildCell(i);
+			final float t = getRayEntry(childCell, ray);
+
+			if (!Float.isNaN(t))
+				heap.add(childCell, t);
+		}
+	}
+
+	/**
+	 * Passes all nodes to the callback, whose bounds are hit by the ray.
+	 * The {@link QuadCell}s are walked front-to-back (ordered by the ray's entry point)
+	 * and cells missed by the ray are skipped. The nodes of one cell are not sorted.
+	 * 
+	 * @param ray
+	 * @param callback
+	 */
+	public final void rayCast(Ray3f ray, SpatialNodeCallback<T> callback) {
+		final DistanceHeap<QuadCell<T>> heap = new DistanceHeap<QuadCell<T>>();
+
+		// The root cell may hold nodes exceeding the tree's area. So it is always visited.
+		heap.add(rootCell, 0f);
+
+		while (!heap.isEmpty()) {
+			final QuadCell<T> cell = heap.poll();
+
+			for (int i = 0; i < cell.getNumNodes(); i++) {
+				final T node = cell.getNode(i);
+
+				if (!Float.isNaN(IntersectionFactory.boundsIntersectsRayParametric(node.getWorldBounds(), ray)))
+					callback.hit(node);
+			}
+
+			addChildCellsHitByRay(cell, ray, heap);
+		}
+	}
+
+	/**
+	 * Finds the node, whose bounds are hit first by the ray.
+	 * The {@link QuadCell}s are walked front-to-back and the search stops,
+	 * as soon as the nearest hit so far is closer than the next cell's entry point.
+	 * 
+	 * @param ray
+	 * @param intersection the intersection point is written to this tuple (if a node was hit). Can be null.
+	 * 
+	 * @return the nearest node or null, if no node is hit.
+	 */
+	public final T rayCastNearest(Ray3f ray, Tuple3f intersection) {
+		final DistanceHeap<QuadCell<T>> heap = new DistanceHeap<QuadCell<T>>();
+
+		T nearest = null;
+		float nearestT = Float.MAX_VALUE;
+
+		heap.add(rootCell, 0f);
+
+		while (!heap.isEmpty() && (heap.peekDistance() < nearestT)) {
+			final QuadCell<T> cell = heap.poll();
+
+			for (int i = 0; i < cell.getNumNodes(); i++) {
+				final T node = cell.getNode(i);
+				final float t = IntersectionFactory.boundsIntersectsRayParametric(node.getWorldBounds(), ray);
+
+				if (t < nearestT) {
+					nearest = node;
+					nearestT = t;
+				}
+			}
+
+			addChildCellsHitByRay(cell, ray, heap);
+		}
+
+		if ((nearest != null) && (intersection != null))
+			intersection.scaleAdd(nearestT, ray.getDirection(), ray.getOrigin());
+
+		return (nearest);
+	}
+
+	/**
+	 * Finds the node, whose bounds are hit first by the ray.
+	 * 
+	 * @see #rayCastNearest(Ray3f, Tuple3f)
+	 * 
+	 * @param ray
+	 * 
+	 * @return the nearest node or null, if no node is hit.
+	 */
+	public final T rayCastNearest(Ray3f ray) {
+		return (rayCastNearest(ray, null));
+	}
+
+	/**
+	 * Tests the cell for intersection with a box.
+	 * The cells are taken as unbounded along the up-axis, since the nodes' heights are not limited by the cells.
+	 */
+	private final boolean cellIntersectsBox(QuadCell<T> cell, float lowerX, float lowerY, float lowerZ, float upperX, float upperY, float upperZ) {
+		switch (getPlane()) {
+		case X_Z_PLANE:
+			return ((cell.getUpperX() >= lowerX) && (cell.getLowerX() <= upperX) && (cell.getUpperZ() >= lowerZ) && (cell.getLowerZ() <= upperZ));
+		case X_Y_PLANE:
+			return ((cell.getUpperX() >= lowerX) && (cell.getLowerX() <= upperX) && (cell.getUpperY() >= lowerY) && (cell.getLowerY() <= upperY));
+		case Z_Y_PLANE:
+			return ((cell.getUpperZ() >= lowerZ) && (cell.getLowerZ() <= upperZ) && (cell.getUpperY() >= lowerY) && (cell.getLowerY() <= upperY));
+		}
+
+		throw new Error("Should not happen!");
+	}
+
+	/**
+	 * Computes the squared distance of the point to the cell, ignoring the up-axis.
+	 */
+	private final float getCellDistanceSquared(QuadCell<T> cell, float px, float py, float pz) {
+		switch (getPlane()) {
+		case X_Z_PLANE:
+			return (IntersectionFactory.boxDistanceSquared(px, py, pz, cell.getLowerX(), -Float.MAX_VALUE, cell.getLowerZ(), cell.getUpperX(), Float.MAX_VALUE, cell.getUpperZ()));
+		case X_Y_PLANE:
+			return (IntersectionFactory.boxDistanceSquared(px, py, pz, cell.getLowerX(), cell.getLowerY(), -Float.MAX_VALUE, cell.getUpperX(), cell.getUpperY(), Float.MAX_VALUE));
+		case Z_Y_PLANE:
+			return (IntersectionFactory.boxDistanceSquared(px, py, pz, -Float.MAX_VALUE, cell.getLowerY(), cell.getLowerZ(), Float.MAX_VALUE, cell.getUpperY(), cell.getUpperZ()));
+		}
+
+		throw new Error("Should not happen!");
+	}
+
+	/**
+	 * @return the coordinate along the up-axis.
+	 */
+	private final float getUpCoord(float x, float y, float z) {
+		switch (getPlane()) {
+		case X_Z_PLANE:
+			return (y);
+		case X_Y_PLANE:
+			return (z);
+		case Z_Y_PLANE:
+			return (x);
+		}
+
+		throw new Error("Should not happen!");
+	}
+
+	/**
+	 * Checks, if the cell is completely inside of the box.
+	 * Along the up-axis the cell is taken to span the range of all nodes' heights.
+	 */
+	private final boolean isInsideBox(QuadCell<T> cell, float lowerX, float lowerY, float lowerZ, float upperX, float upperY, float upperZ) {
+		final float lowerUp = getUpCoord(lowerX, lowerY, lowerZ);
+		final float upperUp = getUpCoord(upperX, upperY, upperZ);
+
+		if ((nodesLowerUp < lowerUp) || (nodesUpperUp > upperUp))
+			return (false);
+
+		switch (getPlane()) {
+		case X_Z_PLANE:
+			return ((cell.getLowerX() >= lowerX) && (cell.getUpperX() <= upperX) && (cell.getLowerZ() >= lowerZ) && (cell.getUpperZ() <= upperZ));
+		case X_Y_PLANE:
+			return ((cell.getLowerX() >= lowerX) && (cell.getUpperX() <= upperX) && (cell.getLowerY() >= lowerY) && (cell.getUpperY() <= upperY));
+		case Z_Y_PLANE:
+			return ((cell.getLowerZ() >= lowerZ) && (cell.getUpperZ() <= upperZ) && (cell.getLowerY() >= lowerY) && (cell.getUpperY() <= upperY));
+		}
+
+		throw new Error("Should not happen!");
+	}
+
+	private final void collectNodes(QuadCell<T> cell, SpatialNodeCallback<T> callback) {
+		for (int i = 0; i < cell.getNumNodes(); i++)
+			callback.hit(cell.getNode(i));
+
+		for (int i = 0; i < cell.getNumChildCells(); i++)
+			collectNodes(cell.getChildCell(i), callback);
+	}
+
+	private final void queryBox(QuadCell<T> cell, float lowerX, float lowerY, float lowerZ, float upperX, float upperY, float upperZ, SpatialNodeCallback<T> callback) {
+		for (int i = 0; i < cell.getNumNodes(); i++) {
+			final T node = cell.getNode(i);
+
+			if (IntersectionFactory.boundsIntersectsBox(node.getWorldBounds(), lowerX, lowerY, lowerZ, upperX, upperY, upperZ))
+				callback.hit(node);
+		}
+
+		for (int i = 0; i < cell.getNumChildCells(); i++) {
+			final QuadCell<T> childCell = cell.getChildCell(i);
+
+			if (!cellIntersectsBox(childCell, lowerX, lowerY, lowerZ, upperX, upperY, upperZ))
+				continue;
+
+			if (isInsideBox(childCell, lowerX, lowerY, lowerZ, upperX, upperY, upperZ))
+				collectNodes(childCell, callback);
+			else
+				queryBox(childCell, lowerX, lowerY, lowerZ, upperX, upperY, upperZ, callback);
+		}
+	}
+
+	/**
+	 * Passes all nodes to the callback, whose bounds intersect the given box.
+	 * Cells completely inside of the box are accepted with all their nodes without any further test.
+	 * 
+	 * @param lowerX
+	 * @param lowerY
+	 * @param lowerZ
+	 * @param upperX
+	 * @param upperY
+	 * @param upperZ
+	 * @param callback
+	 */
+	public final void queryBox(float lowerX, float lowerY, float lowerZ, float upperX, float upperY, float upperZ, SpatialNodeCallback<T> callback) {
+		queryBox(rootCell, lowerX, lowerY, lowerZ, upperX, upperY, upperZ, callback);
+	}
+
+	/**
+	 * Passes all nodes to the callback, whose bounds intersect the given box.
+	 * 
+	 * @see #queryBox(float, float, float, float, float, float, SpatialNodeCallback)
+	 * 
+	 * @param box
+	 * @param callback
+	 */
+	public final void queryBox(Box box, SpatialNodeCallback<T> callback) {
+		queryBox(rootCell, box.getLowerX(), box.getLowerY(), box.getLowerZ(), box.getUpperX(), box.getUpperY(), box.getUpperZ(), callback);
+	}
+
+	private static final float maxDistance(float point, float min, float max) {
+		return (Math.max(Math.abs(point - min), Math.abs(max - point)));
+	}
+
+	/**
+	 * Checks, if the cell is completely inside of the sphere.
+	 * Along the up-axis the cell is taken to span the range of all nodes' heights.
+	 */
+	private final boolean isInsideSphere(QuadCell<T> cell, float centerX, float centerY, float centerZ, float radius) {
+		final float dUp = maxDistance(getUpCoord(centerX, centerY, centerZ), nodesLowerUp, nodesUpperUp);
+		final float dw;
+		final float dd;
+
+		switch (getPlane()) {
+		case X_Z_PLANE:
+			dw = maxDistance(centerX, cell.getLowerX(), cell.getUpperX());
+			dd = maxDistance(centerZ, cell.getLowerZ(), cell.getUpperZ());
+			break;
+		case X_Y_PLANE:
+			dw = maxDistance(centerX, cell.getLowerX(), cell.getUpperX());
+			dd = maxDistance(centerY, cell.getLowerY(), cell.getUpperY());
+			break;
+		case Z_Y_PLANE:
+			dw = maxDistance(centerZ, cell.getLowerZ(), cell.getUpperZ());
+			dd = maxDistance(centerY, cell.getLowerY(), cell.getUpperY());
+			break;
+		default:
+			throw new Error("Should not happen!");
+		}
+
+		return (dw * dw + dd * dd + dUp * dUp <= radius * radius);
+	}
+
+	private final void querySphere(QuadCell<T> cell, float centerX, float centerY, float centerZ, float radius, SpatialNodeCallback<T> callback) {
+		for (int i = 0; i < cell.getNumNodes(); i++) {
+			final T node = cell.getNode(i);
+
+			if (IntersectionFactory.boundsIntersectsSphere(node.getWorldBounds(), centerX, centerY, centerZ, radius))
+				callback.hit(node);
+		}
+
+		for (int i = 0; i < cell.getNumChildCells(); i++) {
+			final QuadCell<T> childCell = cell.getChildCell(i);
+
+			if (getCellDistanceSquared(childCell, centerX, centerY, centerZ) > radius * radius)
+				continue;
+
+			if (isInsideSphere(childCell, centerX, centerY, centerZ, radius))
+				collectNodes(childCell, callback);
+			else
+				querySphere(childCell, centerX, centerY, centerZ, radius, callback);
+		}
+	}
+
+	/**
+	 * Passes all nodes to the callback, whose bounds intersect the given sphere.
+	 * Cells completely inside of the sphere are accepted with all their nodes without any further test.
+	 * 
+	 * @param centerX
+	 * @param centerY
+	 * @param centerZ
+	 * @param radius
+	 * @param callback
+	 */
+	public final void querySphere(float centerX, float centerY, float centerZ, float radius, SpatialNodeCallback<T> callback) {
+		querySphere(rootCell, centerX, centerY, centerZ, radius, callback);
+	}
+
+	/**
+	 * Passes all nodes to the callback, whose bounds intersect the given sphere.
+	 * 
+	 * @see #querySphere(float, float, float, float, SpatialNodeCallback)
+	 * 
+	 * @param center
+	 * @param radius
+	 * @param callback
+	 */
+	public final void querySphere(Tuple3f center, float radius, SpatialNodeCallback<T> callback) {
+		querySphere(rootCell, center.getX(), center.getY(), center.getZ(), radius, callback);
+	}
+
+	/**
+	 * Finds the k nodes nearest to the given point. The distance of a node is the distance
+	 * of the point to the node's bounds (0, if the point is inside).
+	 * The {@link QuadCell}s are walked nearest-first and the search stops,
+	 * as soon as the next cell is farther away than the k-th nearest node found so far.
+	 * 
+	 * @param point
+	 * @param k
+	 * @param result the nodes are appended to this list ordered by ascending distance
+	 * 
+	 * @return the result list
+	 */
+	public final List<T> kNearest(Tuple3f point, int k, List<T> result) {
+		if (k < 1)
+			throw new IllegalArgumentException("k must be greater than 0.");
+
+		final float px = point.getX();
+		final float py = point.getY();
+		final float pz = point.getZ();
+
+		final DistanceHeap<QuadCell<T>> cellHeap = new DistanceHeap<QuadCell<T>>();
+		// The distances are negated to keep the farthest of the nearest nodes on top.
+		final DistanceHeap<T> nearest = new DistanceHeap<T>(k + 1);
+
+		cellHeap.add(rootCell, 0f);
+
+		while (!cellHeap.isEmpty()) {
+			if ((nearest.size() == k) && (cellHeap.peekDistance() >= -nearest.peekDistance()))
+				break;
+
+			final QuadCell<T> cell = cellHeap.poll();
+
+			for (int i = 0; i < cell.getNumNodes(); i++) {
+				final T node = cell.getNode(i);
+				final float distSq = IntersectionFactory.boundsDistanceSquared(px, py, pz, node.getWorldBounds());
+
+				if (nearest.size() < k) {
+					nearest.add(node, -distSq);
+				} else if (distSq < -nearest.peekDistance()) {
+					nearest.poll();
+					nearest.add(node, -distSq);
+				}
+			}
+
+			for (int i = 0; i < cell.getNumChildCells(); i++) {
+				final QuadCell<T> childCell = cell.getChildCell(i);
+				final float distSq = getCellDistanceSquared(childCell, px, py, pz);
+
+				if ((nearest.size() < k) || (distSq < -nearest.peekDistance()))
+					cellHeap.add(childCell, distSq);
+			}
+		}
+
+		final int offset = result.size();
+		final int n = nearest.size();
+
+		for (int i = 0; i < n; i++)
+			result.add(null);
+
+		for (int i = n - 1; i >= 0; i--)
+			result.set(offset + i, nearest.poll());
+
+		return (result);
+	}
+
+	/**
+	 * Finds the k nodes nearest to the given point.
+	 * 
+	 * @see #kNearest(Tuple3f, int, List)
+	 * 
+	 * @param point
+	 * @param k
+	 * 
+	 * @return a new list with the nodes ordered by ascending distance
+	 */
+	public final List<T> kNearest(Tuple3f point, int k) {
+		return (kNearest(point, k, new ArrayList<T>(k)));
+	}
+
 	/**
 	 * Dumps the whole {@link QuadTree} to System.out.
 	 */
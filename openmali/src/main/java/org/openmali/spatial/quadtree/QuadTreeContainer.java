@@ -0,0 +1,160 @@
+/**
+ * Copyright (c) 2007-2009, OpenMaLi Project Group all rights reserved.
+ * 
+ * Portions based on the Sun's javax.vecmath interface, Copyright by Sun
+ * Microsystems or Kenji Hiranabe's alternative GC-cheap implementation.
+ * Many thanks to the developers.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the 'OpenMaLi Project Group' nor the names of its
+ * contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) A
+ * RISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE
+ */
+package org.openmali.spatial.quadtree;
+
+import org.openmali.spatial.PlaneIndicator;
+import org.openmali.spatial.SpatialCallback;
+import org.openmali.spatial.SpatialContainerInterface;
+import org.openmali.spatial.SpatialCuller;
+import org.openmali.spatial.SpatialHandle;
+import org.openmali.spatial.SpatialNodeCallback;
+import org.openmali.spatial.SpatialNodeHandle;
+import org.openmali.spatial.VertexContainer;
+import org.openmali.spatial.bodies.Box;
+import org.openmali.spatial.bodies.Frustum;
+import org.openmali.vecmath2.Tuple3f;
+
+/**
+ * A {@link SpatialContainerInterface} implementation backed by a {@link QuadTree}.
+ * The {@link SpatialNodeHandle}s are stored as the tree's nodes
+ * and cache their {@link QuadCell}, so updates and removal don't need to search the tree.
+ */
+public class QuadTreeContainer<T> implements SpatialContainerInterface<T> {
+	private final QuadTree<SpatialNodeHandle<T>> tree;
+
+	/**
+	 * @return the backing {@link QuadTree}.
+	 */
+	public final QuadTree<SpatialNodeHandle<T>> getTree() {
+		return (tree);
+	}
+
+	@SuppressWarnings("unchecked")
+	private final SpatialNodeHandle<T> getHandle(SpatialHandle<T> handle) {
+		if (!(handle instanceof SpatialNodeHandle) || (((SpatialNodeHandle<T>) handle).getContainer() != this))
+			throw new IllegalArgumentException("The handle doesn't belong to this container.");
+
+		return ((SpatialNodeHandle<T>) handle);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@SuppressWarnings("unchecked")
+	public SpatialHandle<T> inject(Tuple3f center, float radius, Object object) {
+		final SpatialNodeHandle<T> handle = new SpatialNodeHandle<T>(this, (T) object, center, radius);
+
+		tree.insertNode(handle);
+
+		return (handle);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@SuppressWarnings("unchecked")
+	public SpatialHandle<T> inject(VertexContainer object) {
+		final SpatialNodeHandle<T> handle = new SpatialNodeHandle<T>(this, (T) object, object);
+
+		tree.insertNode(handle);
+
+		return (handle);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void changed(SpatialHandle<T> handle) {
+		final SpatialNodeHandle<T> nodeHandle = getHandle(handle);
+
+		nodeHandle.updateBounds();
+		tree.updateNodePosition(nodeHandle);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void remove(SpatialHandle<T> handle) {
+		tree.removeNode(getHandle(handle));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void empty() {
+		tree.clear();
+	}
+
+	private final SpatialNodeCallback<SpatialNodeHandle<T>> getNodeCallback(final SpatialCuller<T> culler, final SpatialCallback<T> callback) {
+		return (new SpatialNodeCallback<SpatialNodeHandle<T>>() {
+			public void hit(SpatialNodeHandle<T> handle) {
+				if ((culler == null) || !culler.cull(handle))
+					callback.hit(handle);
+			}
+		});
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void cull(Frustum frustum, SpatialCuller<T> culler, SpatialCallback<T> callback) {
+		tree.cullFrustum(frustum, getNodeCallback(culler, callback));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void queryBox(Box box, SpatialCuller<T> culler, SpatialCallback<T> callback) {
+		tree.queryBox(box, getNodeCallback(culler, callback));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void querySphere(Tuple3f center, float radius, SpatialCuller<T> culler, SpatialCallback<T> callback) {
+		tree.querySphere(center, radius, getNodeCallback(culler, callback));
+	}
+
+	public QuadTreeContainer(QuadTree<SpatialNodeHandle<T>> tree) {
+		this.tree = tree;
+	}
+
+	public QuadTreeContainer(float centerX, float centerY, float centerZ, PlaneIndicator plane, float size, float height, boolean useExtendedCells) {
+		this(new QuadTree<SpatialNodeHandle<T>>(centerX, centerY, centerZ, plane, size, height, useExtendedCells));
+	}
+
+	public QuadTreeContainer(Tuple3f center, PlaneIndicator plane, float size, float height, boolean useExtendedCells) {
+		this(center.getX(), center.getY(), center.getZ(), plane, size, height, useExtendedCells);
+	}
+}
@@ -1662,7 +1662,7 @@ public class Colord implements Externalizable {
 	public int serialize(int pos, final byte[] buffer) {
 		for (int i = 0; i < values.length; i++) {
 			SerializationUtils.writeToBuffer(values[i], pos, buffer);
-			pos += 4;
+			pos += 8;
 		}
 
 		SerializationUtils.writeToBuffer(hasAlpha, pos, buffer);
@@ -1684,7 +1684,7 @@ public class Colord implements Externalizable {
 	public int deserialize(int pos, final byte[] buffer) {
 		for (int i = 0; i < values.length; i++) {
 			values[i] = SerializationUtils.readDoubleFromBuffer(pos, buffer);
-			pos += 4;
+			pos += 8;
 		}
 
 		hasAlpha = SerializationUtils.readBoolFromBuffer(pos, buffer);
@@ -1696,7 +1696,7 @@ public class Colord implements Externalizable {
 	}
 
 	public void writeExternal(ObjectOutput out) throws IOException {
-		final byte[] buffer = new byte[N * 4 + 2];
+		final byte[] buffer = new byte[N * 8 + 2];
 
 		serialize(0, buffer);
 
@@ -1704,7 +1704,7 @@ public class Colord implements Externalizable {
 	}
 
 	public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
-		final byte[] buffer = new byte[N * 4 + 2];
+		final byte[] buffer = new byte[N * 8 + 2];
 
 		in.read(buffer);
 
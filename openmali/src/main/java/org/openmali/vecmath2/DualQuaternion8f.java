@@ -0,0 +1,1196 @@
+/**
+ * Copyright (c) 2007-2009, OpenMaLi Project Group all rights reserved.
+ * 
+ * Portions based on the Sun's javax.vecmath interface, Copyright by Sun
+ * Microsystems or Kenji Hiranabe's alternative GC-cheap implementation.
+ * Many thanks to the developers.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the 'OpenMaLi Project Group' nor the names of its
+ * contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) A
+ * RISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE
+ */
+package org.openmali.vecmath2;
+
+import java.io.Externalizable;
+
+import org.openmali.FastMath;
+import org.openmali.vecmath2.pools.DualQuaternion8fPool;
+import org.openmali.vecmath2.util.MatrixUtils;
+import org.openmali.vecmath2.util.VecStack;
+
+/**
+ * A dual quaternion represented by eight single precision floating point
+ * values. The first four values are the real part (a rotation quaternion
+ * a,b,c,d), the last four values are the dual part, which carries the
+ * translation.<br>
+ * A unit dual quaternion describes a rigid transform. Composing two of them
+ * takes 48 multiplications instead of the 64 of a 4x4 matrix product, and
+ * blending them doesn't shrink the mesh like blending matrices does.
+ */
+public class DualQuaternion8f extends TupleNf<DualQuaternion8f> implements Externalizable {
+	private static final long serialVersionUID = 3620184412847520731L;
+
+	public static final DualQuaternion8f ZERO = DualQuaternion8f.newReadOnly(0f, 0f, 0f, 0f, 0f, 0f, 0f, 0f);
+	public static final DualQuaternion8f IDENTITY = DualQuaternion8f.newReadOnly(0f, 0f, 0f, 1f, 0f, 0f, 0f, 0f);
+
+	/**
+	 * Below this squared sine of the half rotation angle between two dual
+	 * quaternions, ScLERP cannot extract the screw axis reliably and falls
+	 * back to the normalized linear blend.
+	 */
+	private static final float SCLERP_MIN_SIN_SQ = 1.0e-6f;
+
+	// private static final DualQuaternion8fPool POOL = new DualQuaternion8fPool( 128 );
+	private static final ThreadLocal<DualQuaternion8fPool> POOL = new ThreadLocal<DualQuaternion8fPool>() {
+		@Override
+		protected DualQuaternion8fPool initialValue() {
+			return (new DualQuaternion8fPool(128));
+		}
+	};
+
+	private DualQuaternion8f readOnlyInstance = null;
+
+	/**
+	 * Sets all values of this DualQuaternion8f to the specified ones.
+	 * 
+	 * @param realA the a element of the real part
+	 * @param realB the b element of the real part
+	 * @param realC the c element of the real part
+	 * @param realD the d element of the real part
+	 * @param dualA the a element of the dual part
+	 * @param dualB the b element of the dual part
+	 * @param dualC the c element of the dual part
+	 * @param dualD the d element of the dual part
+	 * 
+	 * @return itself
+	 */
+	public final DualQuaternion8f set(float realA, float realB, float realC, float realD, float dualA, float dualB, float dualC, float dualD) {
+		final int o = roTrick;
+
+		values[o + 0] = realA;
+		values[o + 1] = realB;
+		values[o + 2] = realC;
+		values[o + 3] = realD;
+		values[o + 4] = dualA;
+		values[o + 5] = dualB;
+		values[o + 6] = dualC;
+		values[o + 7] = dualD;
+
+		this.isDirty[0] = true;
+
+		return (this);
+	}
+
+	/**
+	 * Sets the real part of this dual quaternion.
+	 * 
+	 * @param real
+	 * 
+	 * @return itself
+	 */
+	public final DualQuaternion8f setReal(Quaternion4f real) {
+		setValue(0, real.getA());
+		setValue(1, real.getB());
+		setValue(2, real.getC());
+		setValue(3, real.getD());
+
+		return (this);
+	}
+
+	/**
+	 * Sets the dual part of this dual quaternion.
+	 * 
+	 * @param dual
+	 * 
+	 * @return itself
+	 */
+	public final DualQuaternion8f setDual(Quaternion4f dual) {
+		setValue(4, dual.getA());
+		setValue(5, dual.getB());
+		setValue(6, dual.getC());
+		setValue(7, dual.getD());
+
+		return (this);
+	}
+
+	/**
+	 * Writes the real part of this dual quaternion to the given quaternion.
+	 * 
+	 * @param real
+	 * 
+	 * @return the real quaternion
+	 */
+	public final Quaternion4f getReal(Quaternion4f real) {
+		real.set(values[0], values[1], values[2], values[3]);
+
+		return (real);
+	}
+
+	/**
+	 * Writes the dual part of this dual quaternion to the given quaternion.
+	 * 
+	 * @param dual
+	 * 
+	 * @return the dual quaternion
+	 */
+	public final Quaternion4f getDual(Quaternion4f dual) {
+		dual.set(values[4], values[5], values[6], values[7]);
+
+		return (dual);
+	}
+
+	/**
+	 * Sets the value of this dual quaternion to the identity transform.
+	 * 
+	 * @return itself
+	 */
+	public final DualQuaternion8f setIdentity() {
+		return (set(0f, 0f, 0f, 1f, 0f, 0f, 0f, 0f));
+	}
+
+	/**
+	 * Sets the value of this dual quaternion to the rigid transform, which
+	 * first rotates by rot and then translates by trans.
+	 * 
+	 * @param rot the rotation (expected to be normalized)
+	 * @param trans the translation
+	 * 
+	 * @return itself
+	 */
+	public final DualQuaternion8f set(Quaternion4f rot, Tuple3f trans) {
+		return (set(rot.getA(), rot.getB(), rot.getC(), rot.getD(), trans.getX(), trans.getY(), trans.getZ()));
+	}
+
+	/**
+	 * Sets the value of this dual quaternion to the rigid transform, which
+	 * first rotates by the quaternion (a, b, c, d) and then translates by
+	 * (tx, ty, tz).
+	 * 
+	 * @param a
+	 * @param b
+	 * @param c
+	 * @param d
+	 * @param tx
+	 * @param ty
+	 * @param tz
+	 * 
+	 * @return itself
+	 */
+	public final DualQuaternion8f set(float a, float b, float c, float d, float tx, float ty, float tz) {
+		// dual = 0.5 * (t, 0) * rot
+		return (set(a, b, c, d, 0.5f * (d * tx + ty * c - tz * b), 0.5f * (d * ty + tz * a - tx * c), 0.5f * (d * tz + tx * b - ty * a), -0.5f * (tx * a + ty * b + tz * c)));
+	}
+
+	/**
+	 * Sets the value of this dual quaternion to the rigid transform of the
+	 * passed matrix. The upper 3x3 part is expected to be a pure rotation.
+	 * 
+	 * @param mat
+	 * 
+	 * @return itself
+	 */
+	public final DualQuaternion8f set(Matrix4f mat) {
+		final VecStack stack = VecStack.push();
+		try {
+			final Quaternion4f rot = stack.quat4();
+
+			rot.set(mat);
+			rot.normalize();
+
+			set(rot.getA(), rot.getB(), rot.getC(), rot.getD(), mat.m03(), mat.m13(), mat.m23());
+
+			return (this);
+		} finally {
+			stack.pop();
+		}
+	}
+
+	/**
+	 * Writes the rigid transform of this dual quaternion to the given matrix.
+	 * A dual quaternion, that is not normalized, is treated like its
+	 * normalized version.
+	 * 
+	 * @param mat
+	 * 
+	 * @return the matrix
+	 */
+	public final Matrix4f get(Matrix4f mat) {
+		final float x = values[0], y = values[1], z = values[2], w = values[3];
+		final float dx = values[4], dy = values[5], dz = values[6], dw = values[7];
+
+		final float n = x * x + y * y + z * z + w * w;
+		final float s = (n > 0.0f) ? (2.0f / n) : 0.0f;
+
+		final float xs = x * s, ys = y * s, zs = z * s;
+		final float wx = w * xs, wy = w * ys, wz = w * zs;
+		final float xx = x * xs, xy = x * ys, xz = x * zs;
+		final float yy = y * ys, yz = y * zs, zz = z * zs;
+
+		mat.set(1.0f - (yy + zz), xy - wz, xz + wy, s * (w * dx - dw * x + y * dz - z * dy), xy + wz, 1.0f - (xx + zz), yz - wx, s * (w * dy - dw * y + z * dx - x * dz), xz - wy, yz + wx,
+				1.0f - (xx + yy), s * (w * dz - dw * z + x * dy - y * dx), 0.0f, 0.0f, 0.0f, 1.0f);
+
+		return (mat);
+	}
+
+	/**
+	 * Writes the (normalized) rotation of this dual quaternion to the given
+	 * quaternion.
+	 * 
+	 * @param rot
+	 * 
+	 * @return the rotation
+	 */
+	public final Quaternion4f getRotation(Quaternion4f rot) {
+		getReal(rot);
+		rot.normalize();
+
+		return (rot);
+	}
+
+	/**
+	 * Writes the translation of this dual quaternion to the given tuple.
+	 * 
+	 * @param <T>
+	 * 
+	 * @param trans
+	 * 
+	 * @return the translation
+	 */
+	public final <T extends Tuple3f> T getTranslation(T trans) {
+		final float x = values[0], y = values[1], z = values[2], w = values[3];
+		final float dx = values[4], dy = values[5], dz = values[6], dw = values[7];
+
+		final float n = x * x + y * y + z * z + w * w;
+		final float s = (n > 0.0f) ? (2.0f / n) : 0.0f;
+
+		// t = 2 * dual * conjugate(real)
+		trans.set(s * (w * dx - dw * x + y * dz - z * dy), s * (w * dy - dw * y + z * dx - x * dz), s * (w * dz - dw * z + x * dy - y * dx));
+
+		return (trans);
+	}
+
+	/**
+	 * Sets the value of this dual quaternion to the product of dq1 and dq2
+	 * (this = dq1 * dq2). Like with matrices, the result applies dq2 first.
+	 * Note that this is safe for aliasing (e.g. this can be dq1 or dq2).
+	 * 
+	 * @param dq1 the first dual quaternion
+	 * @param dq2 the second dual quaternion
+	 * 
+	 * @return itself
+	 */
+	public final DualQuaternion8f mul(DualQuaternion8f dq1, DualQuaternion8f dq2) {
+		mul(dq1.values, 0, dq2.values, 0, this.values, roTrick);
+
+		this.isDirty[0] = true;
+
+		return (this);
+	}
+
+	/**
+	 * Sets the value of this dual quaternion to the product of itself and dq2
+	 * (this = this * dq2).
+	 * 
+	 * @param dq2 the other dual quaternion
+	 * 
+	 * @return itself
+	 */
+	public final DualQuaternion8f mul(DualQuaternion8f dq2) {
+		return (mul(this, dq2));
+	}
+
+	/**
+	 * Sets the value of this dual quaternion to the quaternion conjugate of
+	 * dq. The real and the dual part are both conjugated, which inverts a
+	 * unit dual quaternion.
+	 * 
+	 * @param dq the source dual quaternion
+	 * 
+	 * @return itself
+	 */
+	public final DualQuaternion8f conjugate(DualQuaternion8f dq) {
+		final float[] v = dq.values;
+
+		return (set(-v[0], -v[1], -v[2], v[3], -v[4], -v[5], -v[6], v[7]));
+	}
+
+	/**
+	 * Conjugates the real and the dual part of this dual quaternion in place.
+	 * 
+	 * @return itself
+	 */
+	public final DualQuaternion8f conjugate() {
+		return (conjugate(this));
+	}
+
+	/**
+	 * Sets the value of this dual quaternion to the inverse of dq. For unit
+	 * dual quaternions {@link #conjugate(DualQuaternion8f)} gives the same
+	 * result cheaper. If the real part of dq is zero, this dual quaternion is
+	 * left untouched.
+	 * 
+	 * @param dq the dual quaternion to be inverted
+	 * 
+	 * @return itself
+	 */
+	public final DualQuaternion8f invert(DualQuaternion8f dq) {
+		final float[] v = dq.values;
+		final float x = v[0], y = v[1], z = v[2], w = v[3];
+		final float dx = v[4], dy = v[5], dz = v[6], dw = v[7];
+
+		final float n = x * x + y * y + z * z + w * w;
+		if (n == 0.0f)
+			return (this);
+
+		final float invN = 1.0f / n;
+		final float k = 2.0f * (x * dx + y * dy + z * dz + w * dw) * invN * invN;
+
+		// (r + e d)^-1 = r* / n + e (d* / n - r* * 2 (r . d) / n^2)
+		return (set(-x * invN, -y * invN, -z * invN, w * invN, x * k - dx * invN, y * k - dy * invN, z * k - dz * invN, dw * invN - w * k));
+	}
+
+	/**
+	 * Sets the value of this dual quaternion to its inverse.
+	 * 
+	 * @return itself
+	 */
+	public final DualQuaternion8f invert() {
+		return (invert(this));
+	}
+
+	/**
+	 * Sets the value of this dual quaternion to the normalized value of dq.
+	 * The real part gets unit length and the dual part is made orthogonal to
+	 * it.
+	 * 
+	 * @param dq the dual quaternion to be normalized
+	 * 
+	 * @return itself
+	 */
+	public final DualQuaternion8f normalize(DualQuaternion8f dq) {
+		normalize(dq.values, 0, this.values, roTrick);
+
+		this.isDirty[0] = true;
+
+		return (this);
+	}
+
+	/**
+	 * Normalizes the value of this dual quaternion in place.
+	 * 
+	 * @return itself
+	 */
+	public final DualQuaternion8f normalize() {
+		return (normalize(this));
+	}
+
+	/**
+	 * Transforms the point by this (unit) dual quaternion and places the
+	 * result into result.
+	 * 
+	 * @param <T>
+	 * 
+	 * @param point the point to be transformed
+	 * @param result the transformed point
+	 * 
+	 * @return the result
+	 */
+	public final <T extends Tuple3f> T transformPoint(Tuple3f point, T result) {
+		final float x = values[0], y = values[1], z = values[2], w = values[3];
+		final float dx = values[4], dy = values[5], dz = values[6], dw = values[7];
+		final float px = point.getX(), py = point.getY(), pz = point.getZ();
+
+		// u = 2 * (r x p), p' = p + w u + r x u + 2 (w d - dw r + r x d)
+		final float ux = 2.0f * (y * pz - z * py);
+		final float uy = 2.0f * (z * px - x * pz);
+		final float uz = 2.0f * (x * py - y * px);
+
+		result.set(px + w * ux + y * uz - z * uy + 2.0f * (w * dx - dw * x + y * dz - z * dy), py + w * uy + z * ux - x * uz + 2.0f * (w * dy - dw * y + z * dx - x * dz), pz + w * uz + x * uy - y
+				* ux + 2.0f * (w * dz - dw * z + x * dy - y * dx));
+
+		return (result);
+	}
+
+	/**
+	 * Transforms the point by this (unit) dual quaternion and places the
+	 * result back into point.
+	 * 
+	 * @param <T>
+	 * 
+	 * @param point the point to be transformed
+	 * 
+	 * @return the point
+	 */
+	public final <T extends Tuple3f> T transformPoint(T point) {
+		return (transformPoint(point, point));
+	}
+
+	/**
+	 * Rotates the vector by this (unit) dual quaternion and places the result
+	 * into result. The translation is not applied.
+	 * 
+	 * @param <T>
+	 * 
+	 * @param vector the vector to be transformed
+	 * @param result the transformed vector
+	 * 
+	 * @return the result
+	 */
+	public final <T extends Tuple3f> T transformVector(Tuple3f vector, T result) {
+		final float x = values[0], y = values[1], z = values[2], w = values[3];
+		final float vx = vector.getX(), vy = vector.getY(), vz = vector.getZ();
+
+		final float ux = 2.0f * (y * vz - z * vy);
+		final float uy = 2.0f * (z * vx - x * vz);
+		final float uz = 2.0f * (x * vy - y * vx);
+
+		result.set(vx + w * ux + y * uz - z * uy, vy + w * uy + z * ux - x * uz, vz + w * uz + x * uy - y * ux);
+
+		return (result);
+	}
+
+	/**
+	 * Rotates the vector by this (unit) dual quaternion and places the result
+	 * back into vector. The translation is not applied.
+	 * 
+	 * @param <T>
+	 * 
+	 * @param vector the vector to be transformed
+	 * 
+	 * @return the vector
+	 */
+	public final <T extends Tuple3f> T transformVector(T vector) {
+		return (transformVector(vector, vector));
+	}
+
+	/**
+	 * Transforms count points by this dual quaternion.
+	 * src and dst may be the same array at the same offset.
+	 * 
+	 * @param src
+	 * @param srcOffset
+	 * @param dst
+	 * @param dstOffset
+	 * @param count the number of tuples
+	 * @param stride the number of floats from one tuple to the next (at least 3)
+	 */
+	public final void transformPoints(float[] src, int srcOffset, float[] dst, int dstOffset, int count, int stride) {
+		final float x = values[0], y = values[1], z = values[2], w = values[3];
+		final float dx = values[4], dy = values[5], dz = values[6], dw = values[7];
+
+		final float n = x * x + y * y + z * z + w * w;
+		final float s = (n > 0.0f) ? (2.0f / n) : 0.0f;
+
+		final float xs = x * s, ys = y * s, zs = z * s;
+		final float wx = w * xs, wy = w * ys, wz = w * zs;
+		final float xx = x * xs, xy = x * ys, xz = x * zs;
+		final float yy = y * ys, yz = y * zs, zz = z * zs;
+
+		MatrixUtils.transformAffine(1.0f - (yy + zz), xy - wz, xz + wy, s * (w * dx - dw * x + y * dz - z * dy), xy + wz, 1.0f - (xx + zz), yz - wx, s * (w * dy - dw * y + z * dx - x * dz), xz - wy,
+				yz + wx, 1.0f - (xx + yy), s * (w * dz - dw * z + x * dy - y * dx), src, srcOffset, dst, dstOffset, count, stride);
+	}
+
+	/**
+	 * Rotates count directions by this dual quaternion. The translation is
+	 * not applied.
+	 * src and dst may be the same array at the same offset.
+	 * 
+	 * @param src
+	 * @param srcOffset
+	 * @param dst
+	 * @param dstOffset
+	 * @param count the number of tuples
+	 * @param stride the number of floats from one tuple to the next (at least 3)
+	 */
+	public final void transformDirections(float[] src, int srcOffset, float[] dst, int dstOffset, int count, int stride) {
+		final float x = values[0], y = values[1], z = values[2], w = values[3];
+
+		final float n = x * x + y * y + z * z + w * w;
+		final float s = (n > 0.0f) ? (2.0f / n) : 0.0f;
+
+		final float xs = x * s, ys = y * s, zs = z * s;
+		final float wx = w * xs, wy = w * ys, wz = w * zs;
+		final float xx = x * xs, xy = x * ys, xz = x * zs;
+		final float yy = y * ys, yz = y * zs, zz = z * zs;
+
+		MatrixUtils.transformAffine(1.0f - (yy + zz), xy - wz, xz + wy, 0f, xy + wz, 1.0f - (xx + zz), yz - wx, 0f, xz - wy, yz + wx, 1.0f - (xx + yy), 0f, src, srcOffset, dst, dstOffset, count,
+				stride);
+	}
+
+	/**
+	 * Sets the value of this dual quaternion to the screw linear interpolation
+	 * (ScLERP) of the unit dual quaternions dq1 and dq2. The rotation and the
+	 * translation move along a single screw motion with constant speed.
+	 * 
+	 * @param dq1 the dual quaternion for alpha = 0
+	 * @param dq2 the dual quaternion for alpha = 1
+	 * @param alpha the alpha interpolation parameter
+	 * 
+	 * @return itself
+	 */
+	public final DualQuaternion8f sclerp(DualQuaternion8f dq1, DualQuaternion8f dq2, float alpha) {
+		sclerp(dq1.values, 0, dq2.values, 0, alpha, this.values, roTrick);
+
+		this.isDirty[0] = true;
+
+		return (this);
+	}
+
+	/**
+	 * Performs a screw linear interpolation (ScLERP) between this dual
+	 * quaternion and the dual quaternion parameter and places the result into
+	 * this dual quaternion.
+	 * 
+	 * @param dq2 the other dual quaternion
+	 * @param alpha the alpha interpolation parameter
+	 */
+	@Override
+	public void interpolate(DualQuaternion8f dq2, float alpha) {
+		sclerp(this, dq2, alpha);
+	}
+
+	/**
+	 * Sets the value of this dual quaternion to the dual quaternion linear
+	 * blend (DLB) of the given unit dual quaternions. Each one is weighted,
+	 * flipped onto the hemisphere of the first one and summed up. The sum is
+	 * normalized.
+	 * 
+	 * @param dqs the dual quaternions to blend
+	 * @param weights the weight of each dual quaternion
+	 * @param count the number of dual quaternions to blend
+	 * 
+	 * @return itself
+	 */
+	public final DualQuaternion8f blend(DualQuaternion8f[] dqs, float[] weights, int count) {
+		if (count == 0)
+			return (setIdentity());
+
+		final float[] p = dqs[0].values;
+
+		float x = 0f, y = 0f, z = 0f, w = 0f, dx = 0f, dy = 0f, dz = 0f, dw = 0f;
+
+		for (int i = 0; i < count; i++) {
+			final float[] v = dqs[i].values;
+
+			float weight = weights[i];
+			if (p[0] * v[0] + p[1] * v[1] + p[2] * v[2] + p[3] * v[3] < 0.0f)
+				weight = -weight;
+
+			x += weight * v[0];
+			y += weight * v[1];
+			z += weight * v[2];
+			w += weight * v[3];
+			dx += weight * v[4];
+			dy += weight * v[5];
+			dz += weight * v[6];
+			dw += weight * v[7];
+		}
+
+		set(x, y, z, w, dx, dy, dz, dw);
+
+		return (normalize());
+	}
+
+	/**
+	 * Multiplies the dual quaternion at a[ao] with the one at b[bo] and writes
+	 * the product to dst[d]. Safe for aliasing.
+	 */
+	private static final void mul(float[] a, int ao, float[] b, int bo, float[] dst, int d) {
+		final float ax = a[ao + 0], ay = a[ao + 1], az = a[ao + 2], aw = a[ao + 3];
+		final float adx = a[ao + 4], ady = a[ao + 5], adz = a[ao + 6], adw = a[ao + 7];
+		final float bx = b[bo + 0], by = b[bo + 1], bz = b[bo + 2], bw = b[bo + 3];
+		final float bdx = b[bo + 4], bdy = b[bo + 5], bdz = b[bo + 6], bdw = b[bo + 7];
+
+		// real = ar * br, dual = ar * bd + ad * br
+		dst[d + 0] = ax * bw + aw * bx + ay * bz - az * by;
+		dst[d + 1] = ay * bw + aw * by + az * bx - ax * bz;
+		dst[d + 2] = az * bw + aw * bz + ax * by - ay * bx;
+		dst[d + 3] = aw * bw - ax * bx - ay * by - az * bz;
+		dst[d + 4] = ax * bdw + aw * bdx + ay * bdz - az * bdy + adx * bw + adw * bx + ady * bz - adz * by;
+		dst[d + 5] = ay * bdw + aw * bdy + az * bdx - ax * bdz + ady * bw + adw * by + adz * bx - adx * bz;
+		dst[d + 6] = az * bdw + aw * bdz + ax * bdy - ay * bdx + adz * bw + adw * bz + adx * by - ady * bx;
+		dst[d + 7] = aw * bdw - ax * bdx - ay * bdy - az * bdz + adw * bw - adx * bx - ady * by - adz * bz;
+	}
+
+	/**
+	 * Normalizes the dual quaternion at src[s] and writes it to dst[d]. A zero
+	 * real part is copied unchanged.
+	 */
+	private static final void normalize(float[] src, int s, float[] dst, int d) {
+		float x = src[s + 0], y = src[s + 1], z = src[s + 2], w = src[s + 3];
+		float dx = src[s + 4], dy = src[s + 5], dz = src[s + 6], dw = src[s + 7];
+
+		final float n = x * x + y * y + z * z + w * w;
+		if (n > 0.0f) {
+			final float invLen = 1.0f / FastMath.sqrt(n);
+
+			x *= invLen;
+			y *= invLen;
+			z *= invLen;
+			w *= invLen;
+			dx *= invLen;
+			dy *= invLen;
+			dz *= invLen;
+			dw *= invLen;
+
+			// remove the part of the dual, that is parallel to the real part.
+			final float dot = x * dx + y * dy + z * dz + w * dw;
+
+			dx -= x * dot;
+			dy -= y * dot;
+			dz -= z * dot;
+			dw -= w * dot;
+		}
+
+		dst[d + 0] = x;
+		dst[d + 1] = y;
+		dst[d + 2] = z;
+		dst[d + 3] = w;
+		dst[d + 4] = dx;
+		dst[d + 5] = dy;
+		dst[d + 6] = dz;
+		dst[d + 7] = dw;
+	}
+
+	/**
+	 * Writes the ScLERP of the unit dual quaternions at a[ao] and b[bo] to
+	 * dst[d].
+	 */
+	private static final void sclerp(float[] a, int ao, float[] b, int bo, float alpha, float[] dst, int d) {
+		final float ax = a[ao + 0], ay = a[ao + 1], az = a[ao + 2], aw = a[ao + 3];
+		final float adx = a[ao + 4], ady = a[ao + 5], adz = a[ao + 6], adw = a[ao + 7];
+		final float bx = b[bo + 0], by = b[bo + 1], bz = b[bo + 2], bw = b[bo + 3];
+		final float bdx = b[bo + 4], bdy = b[bo + 5], bdz = b[bo + 6], bdw = b[bo + 7];
+
+		// difference = conjugate(a) * b
+		float x = -ax * bw + aw * bx - ay * bz + az * by;
+		float y = -ay * bw + aw * by - az * bx + ax * bz;
+		float z = -az * bw + aw * bz - ax * by + ay * bx;
+		float w = aw * bw + ax * bx + ay * by + az * bz;
+		float dx = -ax * bdw + aw * bdx - ay * bdz + az * bdy - adx * bw + adw * bx - ady * bz + adz * by;
+		float dy = -ay * bdw + aw * bdy - az * bdx + ax * bdz - ady * bw + adw * by - adz * bx + adx * bz;
+		float dz = -az * bdw + aw * bdz - ax * bdy + ay * bdx - adz * bw + adw * bz - adx * by + ady * bx;
+		float dw = aw * bdw + ax * bdx + ay * bdy + az * bdz + adw * bw + adx * bx + ady * by + adz * bz;
+
+		// take the shorter path
+		final float sign = (w < 0.0f) ? -1.0f : 1.0f;
+
+		final float sinSq = x * x + y * y + z * z;
+		if (sinSq < SCLERP_MIN_SIN_SQ) {
+			// (almost) no rotation between a and b. The linear blend is exact
+			// for a pure translation and close to the screw motion otherwise.
+			final float beta = 1.0f - alpha;
+			final float gamma = sign * alpha;
+
+			dst[d + 0] = beta * ax + gamma * bx;
+			dst[d + 1] = beta * ay + gamma * by;
+			dst[d + 2] = beta * az + gamma * bz;
+			dst[d + 3] = beta * aw + gamma * bw;
+			dst[d + 4] = beta * adx + gamma * bdx;
+			dst[d + 5] = beta * ady + gamma * bdy;
+			dst[d + 6] = beta * adz + gamma * bdz;
+			dst[d + 7] = beta * adw + gamma * bdw;
+
+			normalize(dst, d, dst, d);
+
+			return;
+		}
+
+		x *= sign;
+		y *= sign;
+		z *= sign;
+		w *= sign;
+		dx *= sign;
+		dy *= sign;
+		dz *= sign;
+		dw *= sign;
+
+		// screw parameters of the difference: angle, pitch, direction and moment
+		final float invLen = 1.0f / FastMath.sqrt(sinSq);
+		float angle = 2.0f * FastMath.acos(Math.min(w, 1.0f));
+		float pitch = -2.0f * dw * invLen;
+		final float lx = x * invLen, ly = y * invLen, lz = z * invLen;
+		final float halfPitchW = 0.5f * pitch * w;
+		final float mx = (dx - lx * halfPitchW) * invLen;
+		final float my = (dy - ly * halfPitchW) * invLen;
+		final float mz = (dz - lz * halfPitchW) * invLen;
+
+		// difference ^ alpha
+		angle *= alpha;
+		pitch *= alpha;
+
+		final float sin = FastMath.sin(0.5f * angle);
+		final float cos = FastMath.cos(0.5f * angle);
+		final float halfPitchCos = 0.5f * pitch * cos;
+
+		x = lx * sin;
+		y = ly * sin;
+		z = lz * sin;
+		w = cos;
+		dx = sin * mx + halfPitchCos * lx;
+		dy = sin * my + halfPitchCos * ly;
+		dz = sin * mz + halfPitchCos * lz;
+		dw = -0.5f * pitch * sin;
+
+		// a * difference ^ alpha
+		dst[d + 0] = ax * w + aw * x + ay * z - az * y;
+		dst[d + 1] = ay * w + aw * y + az * x - ax * z;
+		dst[d + 2] = az * w + aw * z + ax * y - ay * x;
+		dst[d + 3] = aw * w - ax * x - ay * y - az * z;
+		dst[d + 4] = ax * dw + aw * dx + ay * dz - az * dy + adx * w + adw * x + ady * z - adz * y;
+		dst[d + 5] = ay * dw + aw * dy + az * dx - ax * dz + ady * w + adw * y + adz * x - adx * z;
+		dst[d + 6] = az * dw + aw * dz + ax * dy - ay * dx + adz * w + adw * z + adx * y - ady * x;
+		dst[d + 7] = aw * dw - ax * dx - ay * dy - az * dz + adw * w - adx * x - ady * y - adz * z;
+	}
+
+	/**
+	 * Writes the normalized DLB of the influences of item k to dst[d].
+	 */
+	private static final void blend(float[] dqs, int dqsOffset, int[] indices, float[] weights, int influences, int k, float[] dst, int d) {
+		final int first = k * influences;
+		final int p = dqsOffset + indices[first] * 8;
+		final float px = dqs[p + 0], py = dqs[p + 1], pz = dqs[p + 2], pw = dqs[p + 3];
+
+		float x = 0f, y = 0f, z = 0f, w = 0f, dx = 0f, dy = 0f, dz = 0f, dw = 0f;
+
+		for (int i = first; i < first + influences; i++) {
+			final int q = dqsOffset + indices[i] * 8;
+
+			float weight = weights[i];
+			if (px * dqs[q + 0] + py * dqs[q + 1] + pz * dqs[q + 2] + pw * dqs[q + 3] < 0.0f)
+				weight = -weight;
+
+			x += weight * dqs[q + 0];
+			y += weight * dqs[q + 1];
+			z += weight * dqs[q + 2];
+			w += weight * dqs[q + 3];
+			dx += weight * dqs[q + 4];
+			dy += weight * dqs[q + 5];
+			dz += weight * dqs[q + 6];
+			dw += weight * dqs[q + 7];
+		}
+
+		dst[d + 0] = x;
+		dst[d + 1] = y;
+		dst[d + 2] = z;
+		dst[d + 3] = w;
+		dst[d + 4] = dx;
+		dst[d + 5] = dy;
+		dst[d + 6] = dz;
+		dst[d + 7] = dw;
+
+		normalize(dst, d, dst, d);
+	}
+
+	/**
+	 * Multiplies count pairs of packed dual quaternions (eight floats each,
+	 * dst = dqs1 * dqs2). dst may be the same array as dqs1 or dqs2 at the
+	 * same offset.
+	 * 
+	 * @param dqs1
+	 * @param offset1
+	 * @param dqs2
+	 * @param offset2
+	 * @param dst
+	 * @param dstOffset
+	 * @param count the number of dual quaternions
+	 */
+	public static final void mul(float[] dqs1, int offset1, float[] dqs2, int offset2, float[] dst, int dstOffset, int count) {
+		for (int i = 0; i < count; i++) {
+			mul(dqs1, offset1 + i * 8, dqs2, offset2 + i * 8, dst, dstOffset + i * 8);
+		}
+	}
+
+	/**
+	 * Interpolates count pairs of packed unit dual quaternions by ScLERP.
+	 * 
+	 * @see #sclerp(DualQuaternion8f, DualQuaternion8f, float)
+	 * 
+	 * @param dqs1 the dual quaternions for alpha = 0
+	 * @param offset1
+	 * @param dqs2 the dual quaternions for alpha = 1
+	 * @param offset2
+	 * @param alphas the alpha interpolation parameter of each pair
+	 * @param alphasOffset
+	 * @param dst
+	 * @param dstOffset
+	 * @param count the number of dual quaternions
+	 */
+	public static final void sclerp(float[] dqs1, int offset1, float[] dqs2, int offset2, float[] alphas, int alphasOffset, float[] dst, int dstOffset, int count) {
+		for (int i = 0; i < count; i++) {
+			sclerp(dqs1, offset1 + i * 8, dqs2, offset2 + i * 8, alphas[alphasOffset + i], dst, dstOffset + i * 8);
+		}
+	}
+
+	/**
+	 * Writes the rigid transforms of count packed dual quaternions as packed
+	 * row major 4x4 matrices.
+	 * 
+	 * @param dqs
+	 * @param dqsOffset
+	 * @param dst
+	 * @param dstOffset
+	 * @param count the number of dual quaternions
+	 */
+	public static final void toMatrices(float[] dqs, int dqsOffset, float[] dst, int dstOffset, int count) {
+		for (int i = 0; i < count; i++) {
+			final int q = dqsOffset + i * 8;
+			final int d = dstOffset + i * 16;
+
+			final float x = dqs[q + 0], y = dqs[q + 1], z = dqs[q + 2], w = dqs[q + 3];
+			final float dx = dqs[q + 4], dy = dqs[q + 5], dz = dqs[q + 6], dw = dqs[q + 7];
+
+			final float n = x * x + y * y + z * z + w * w;
+			final float s = (n > 0.0f) ? (2.0f / n) : 0.0f;
+
+			final float xs = x * s, ys = y * s, zs = z * s;
+			final float wx = w * xs, wy = w * ys, wz = w * zs;
+			final float xx = x * xs, xy = x * ys, xz = x * zs;
+			final float yy = y * ys, yz = y * zs, zz = z * zs;
+
+			dst[d + 0] = 1.0f - (yy + zz);
+			dst[d + 1] = xy - wz;
+			dst[d + 2] = xz + wy;
+			dst[d + 3] = s * (w * dx - dw * x + y * dz - z * dy);
+			dst[d + 4] = xy + wz;
+			dst[d + 5] = 1.0f - (xx + zz);
+			dst[d + 6] = yz - wx;
+			dst[d + 7] = s * (w * dy - dw * y + z * dx - x * dz);
+			dst[d + 8] = xz - wy;
+			dst[d + 9] = yz + wx;
+			dst[d + 10] = 1.0f - (xx + yy);
+			dst[d + 11] = s * (w * dz - dw * z + x * dy - y * dx);
+			dst[d + 12] = 0.0f;
+			dst[d + 13] = 0.0f;
+			dst[d + 14] = 0.0f;
+			dst[d + 15] = 1.0f;
+		}
+	}
+
+	/**
+	 * Blends the packed unit dual quaternions by DLB for count items (e.g.
+	 * vertices) and writes one normalized dual quaternion per item.
+	 * Item k is influenced by the dual quaternions at the indices
+	 * indices[k * influences] to indices[k * influences + influences - 1]
+	 * with the weights at the same positions.
+	 * 
+	 * @see #blend(DualQuaternion8f[], float[], int)
+	 * 
+	 * @param dqs the dual quaternions (e.g. the bone transforms)
+	 * @param dqsOffset
+	 * @param indices the dual quaternion indices, influences per item
+	 * @param weights the weights, influences per item
+	 * @param influences the number of influences per item (at least 1)
+	 * @param dst
+	 * @param dstOffset
+	 * @param count the number of items
+	 */
+	public static final void blend(float[] dqs, int dqsOffset, int[] indices, float[] weights, int influences, float[] dst, int dstOffset, int count) {
+		if (influences < 1)
+			throw new IllegalArgumentException("influences must be at least 1.");
+
+		for (int k = 0; k < count; k++) {
+			blend(dqs, dqsOffset, indices, weights, influences, k, dst, dstOffset + k * 8);
+		}
+	}
+
+	/**
+	 * Skins count points. Each point is transformed by the DLB of its
+	 * influencing dual quaternions. No blended dual quaternions are stored.
+	 * src and dst may be the same array at the same offset.
+	 * 
+	 * @see #blend(float[], int, int[], float[], int, float[], int, int)
+	 * 
+	 * @param dqs the dual quaternions (e.g. the bone transforms)
+	 * @param dqsOffset
+	 * @param indices the dual quaternion indices, influences per point
+	 * @param weights the weights, influences per point
+	 * @param influences the number of influences per point (at least 1)
+	 * @param src
+	 * @param srcOffset
+	 * @param dst
+	 * @param dstOffset
+	 * @param count the number of points
+	 * @param stride the number of floats from one point to the next (at least 3)
+	 */
+	public static final void skinPoints(float[] dqs, int dqsOffset, int[] indices, float[] weights, int influences, float[] src, int srcOffset, float[] dst, int dstOffset, int count, int stride) {
+		if (influences < 1)
+			throw new IllegalArgumentException("influences must be at least 1.");
+		if (stride < 3)
+			throw new IllegalArgumentException("stride must be at least 3.");
+
+		final float[] tmp = new float[8];
+
+		int s = srcOffset;
+		int d = dstOffset;
+
+		for (int k = 0; k < count; k++) {
+			blend(dqs, dqsOffset, indices, weights, influences, k, tmp, 0);
+
+			final float x = tmp[0], y = tmp[1], z = tmp[2], w = tmp[3];
+			final float dx = tmp[4], dy = tmp[5], dz = tmp[6], dw = tmp[7];
+			final float px = src[s + 0], py = src[s + 1], pz = src[s + 2];
+
+			final float ux = 2.0f * (y * pz - z * py);
+			final float uy = 2.0f * (z * px - x * pz);
+			final float uz = 2.0f * (x * py - y * px);
+
+			dst[d + 0] = px + w * ux + y * uz - z * uy + 2.0f * (w * dx - dw * x + y * dz - z * dy);
+			dst[d + 1] = py + w * uy + z * ux - x * uz + 2.0f * (w * dy - dw * y + z * dx - x * dz);
+			dst[d + 2] = pz + w * uz + x * uy - y * ux + 2.0f * (w * dz - dw * z + x * dy - y * dx);
+
+			s += stride;
+			d += stride;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public DualQuaternion8f asReadOnly() {
+		return (new DualQuaternion8f(true, this.values, this.isDirty, false));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public DualQuaternion8f getReadOnly() {
+		if (readOnlyInstance == null)
+			readOnlyInstance = asReadOnly();
+
+		return (readOnlyInstance);
+	}
+
+	/**
+	 * Returns true if the Object o is of type DualQuaternion8f and all of the
+	 * data members of o are equal to the corresponding data members in
+	 * this DualQuaternion8f.
+	 * 
+	 * @param o  the Object with which the comparison is made
+	 * @return  true or false
+	 */
+	@Override
+	public final boolean equals(Object o) {
+		return ((o != null) && ((o instanceof DualQuaternion8f) && equals((DualQuaternion8f) o)));
+	}
+
+	/**
+	 * Creates and returns a copy of this object.
+	 * 
+	 * @return a clone of this instance.
+	 * @exception OutOfMemoryError if there is not enough memory.
+	 * @see java.lang.Cloneable
+	 */
+	@Override
+	public DualQuaternion8f clone() {
+		return (new DualQuaternion8f(this));
+	}
+
+	/**
+	 * Constructs and initializes a DualQuaternion8f from the specified values.
+	 * 
+	 * @param readOnly
+	 * @param realA the a element of the real part
+	 * @param realB the b element of the real part
+	 * @param realC the c element of the real part
+	 * @param realD the d element of the real part
+	 * @param dualA the a element of the dual part
+	 * @param dualB the b element of the dual part
+	 * @param dualC the c element of the dual part
+	 * @param dualD the d element of the dual part
+	 */
+	protected DualQuaternion8f(boolean readOnly, float realA, float realB, float realC, float realD, float dualA, float dualB, float dualC, float dualD) {
+		super(readOnly, 8);
+
+		this.values[0] = realA;
+		this.values[1] = realB;
+		this.values[2] = realC;
+		this.values[3] = realD;
+		this.values[4] = dualA;
+		this.values[5] = dualB;
+		this.values[6] = dualC;
+		this.values[7] = dualD;
+	}
+
+	/**
+	 * Constructs and initializes a DualQuaternion8f from the array of length 8.
+	 * 
+	 * @param readOnly
+	 * @param values the array of length 8 containing the real and the dual part in order
+	 * @param isDirty
+	 * @param copy
+	 */
+	protected DualQuaternion8f(boolean readOnly, float[] values, boolean[] isDirty, boolean copy) {
+		super(readOnly, values, isDirty, 8, copy);
+	}
+
+	/**
+	 * Constructs and initializes a DualQuaternion8f from the specified one.
+	 * 
+	 * @param readOnly
+	 * @param dq
+	 */
+	protected DualQuaternion8f(boolean readOnly, DualQuaternion8f dq) {
+		super(readOnly, dq);
+	}
+
+	/**
+	 * Constructs and initializes a DualQuaternion8f to the identity.
+	 * 
+	 * @param readOnly
+	 */
+	protected DualQuaternion8f(boolean readOnly) {
+		this(readOnly, 0f, 0f, 0f, 1f, 0f, 0f, 0f, 0f);
+	}
+
+	/**
+	 * Constructs and initializes a DualQuaternion8f from the specified values.
+	 * 
+	 * @param realA the a element of the real part
+	 * @param realB the b element of the real part
+	 * @param realC the c element of the real part
+	 * @param realD the d element of the real part
+	 * @param dualA the a element of the dual part
+	 * @param dualB the b element of the dual part
+	 * @param dualC the c element of the dual part
+	 * @param dualD the d element of the dual part
+	 */
+	public DualQuaternion8f(float realA, float realB, float realC, float realD, float dualA, float dualB, float dualC, float dualD) {
+		this(false, realA, realB, realC, realD, dualA, dualB, dualC, dualD);
+	}
+
+	/**
+	 * Constructs and initializes a DualQuaternion8f from the array of length 8.
+	 * 
+	 * @param values the array of length 8 containing the real and the dual part in order
+	 */
+	public DualQuaternion8f(float[] values) {
+		this(false, values, null, true);
+	}
+
+	/**
+	 * Constructs and initializes a DualQuaternion8f from the specified one.
+	 * 
+	 * @param dq
+	 */
+	public DualQuaternion8f(DualQuaternion8f dq) {
+		this(false, dq);
+	}
+
+	/**
+	 * Constructs and initializes a DualQuaternion8f from a rotation and a
+	 * translation.
+	 * 
+	 * @param rot the rotation (expected to be normalized)
+	 * @param trans the translation
+	 */
+	public DualQuaternion8f(Quaternion4f rot, Tuple3f trans) {
+		this(false);
+
+		set(rot, trans);
+	}
+
+	/**
+	 * Constructs and initializes a DualQuaternion8f to the identity.
+	 */
+	public DualQuaternion8f() {
+		this(false);
+	}
+
+	/**
+	 * Constructs and initializes a DualQuaternion8f from the specified values.
+	 * 
+	 * @param realA the a element of the real part
+	 * @param realB the b element of the real part
+	 * @param realC the c element of the real part
+	 * @param realD the d element of the real part
+	 * @param dualA the a element of the dual part
+	 * @param dualB the b element of the dual part
+	 * @param dualC the c element of the dual part
+	 * @param dualD the d element of the dual part
+	 */
+	public static DualQuaternion8f newReadOnly(float realA, float realB, float realC, float realD, float dualA, float dualB, float dualC, float dualD) {
+		return (new DualQuaternion8f(true, realA, realB, realC, realD, dualA, dualB, dualC, dualD));
+	}
+
+	/**
+	 * Constructs and initializes a DualQuaternion8f from the array of length 8.
+	 * 
+	 * @param values the array of length 8 containing the real and the dual part in order
+	 */
+	public static DualQuaternion8f newReadOnly(float[] values) {
+		return (new DualQuaternion8f(true, values, null, true));
+	}
+
+	/**
+	 * Constructs and initializes a DualQuaternion8f from the specified one.
+	 * 
+	 * @param dq
+	 */
+	public static DualQuaternion8f newReadOnly(DualQuaternion8f dq) {
+		return (new DualQuaternion8f(true, dq));
+	}
+
+	/**
+	 * Constructs and initializes a DualQuaternion8f to the identity.
+	 */
+	public static DualQuaternion8f newReadOnly() {
+		return (new DualQuaternion8f(true));
+	}
+
+	/**
+	 * Allocates an DualQuaternion8f instance from the pool.
+	 */
+	public static DualQuaternion8f fromPool() {
+		return (POOL.get().alloc());
+	}
+
+	/**
+	 * Allocates an DualQuaternion8f instance from the pool.
+	 */
+	public static DualQuaternion8f fromPool(float realA, float realB, float realC, float realD, float dualA, float dualB, float dualC, float dualD) {
+		return (POOL.get().alloc(realA, realB, realC, realD, dualA, dualB, dualC, dualD));
+	}
+
+	/**
+	 * Allocates an DualQuaternion8f instance from the pool.
+	 */
+	public static DualQuaternion8f fromPool(DualQuaternion8f dq) {
+		final float[] v = dq.values;
+
+		return (fromPool(v[0], v[1], v[2], v[3], v[4], v[5], v[6], v[7]));
+	}
+
+	/**
+	 * Stores the given DualQuaternion8f instance in the pool.
+	 * 
+	 * @param o
+	 */
+	public static void toPool(DualQuaternion8f o) {
+		POOL.get().free(o);
+	}
+}
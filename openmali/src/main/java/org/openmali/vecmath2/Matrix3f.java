@@ -34,6 +34,7 @@
 package org.openmali.vecmath2;
 
 import java.io.Externalizable;
+import java.nio.FloatBuffer;
 
 import org.openmali.FastMath;
 import org.openmali.vecmath2.pools.Matrix3fPool;
@@ -716,6 +717,68 @@ public class Matrix3f extends MatrixMxNf implements Externalizable, Cloneable {
 		transform(t3f, t3f);
 	}
 
+	/**
+	 * Transforms count tuples by this matrix.
+	 * src and dst may be the same array at the same offset.
+	 * 
+	 * @param src
+	 * @param srcOffset
+	 * @param dst
+	 * @param dstOffset
+	 * @param count the number of tuples
+	 * @param stride the number of floats from one tuple to the next (at least 3)
+	 */
+	public final void transformVectors(float[] src, int srcOffset, float[] dst, int dstOffset, int count, int stride) {
+		MatrixUtils.transformAffine(m00(), m01(), m02(), 0f, m10(), m11(), m12(), 0f, m20(), m21(), m22(), 0f, src, srcOffset, dst, dstOffset, count, stride);
+	}
+
+	/**
+	 * Transforms count tuples by this matrix.
+	 * The buffers are addressed absolutely, their positions are not changed.
+	 * 
+	 * @param src
+	 * @param srcOffset
+	 * @param dst
+	 * @param dstOffset
+	 * @param count the number of tuples
+	 * @param stride the number of floats from one tuple to the next (at least 3)
+	 */
+	public final void transformVectors(FloatBuffer src, int srcOffset, FloatBuffer dst, int dstOffset, int count, int stride) {
+		MatrixUtils.transformAffine(m00(), m01(), m02(), 0f, m10(), m11(), m12(), 0f, m20(), m21(), m22(), 0f, src, srcOffset, dst, dstOffset, count, stride);
+	}
+
+	/**
+	 * Transforms count normals by the inverse transpose of this matrix.
+	 * The normals are not renormalized.
+	 * src and dst may be the same array at the same offset.
+	 * 
+	 * @param src
+	 * @param srcOffset
+	 * @param dst
+	 * @param dstOffset
+	 * @param count the number of tuples
+	 * @param stride the number of floats from one tuple to the next (at least 3)
+	 */
+	public final void transformNormals(float[] src, int srcOffset, float[] dst, int dstOffset, int count, int stride) {
+		MatrixUtils.transformNormals(m00(), m01(), m02(), m10(), m11(), m12(), m20(), m21(), m22(), src, srcOffset, dst, dstOffset, count, stride);
+	}
+
+	/**
+	 * Transforms count normals by the inverse transpose of this matrix.
+	 * The normals are not renormalized.
+	 * The buffers are addressed absolutely, their positions are not changed.
+	 * 
+	 * @param src
+	 * @param srcOffset
+	 * @param dst
+	 * @param dstOffset
+	 * @param count the number of tuples
+	 * @param stride the number of floats from one tuple to the next (at least 3)
+	 */
+	public final void transformNormals(FloatBuffer src, int srcOffset, FloatBuffer dst, int dstOffset, int count, int stride) {
+		MatrixUtils.transformNormals(m00(), m01(), m02(), m10(), m11(), m12(), m20(), m21(), m22(), src, srcOffset, dst, dstOffset, count, stride);
+	}
+
 	/**
 	 * Sets the value of this matrix to the matrix sum of matrices m1 and m2.
 	 * 
@@ -0,0 +1,2643 @@
+/**
+ * Copyright (c) 2007-2009, OpenMaLi Project Group all rights reserved.
+ * 
+ * Portions based on the Sun's javax.vecmath interface, Copyright by Sun
+ * Microsystems or Kenji Hiranabe's alternative GC-cheap implementation.
+ * Many thanks to the developers.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the 'OpenMaLi Project Group' nor the names of its
+ * contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) A
+ * RISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE
+ */
+package org.openmali.vecmath2;
+
+import java.io.Externalizable;
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+
+import org.openmali.FastMathd;
+import org.openmali.vecmath2.pools.Matrix4dPool;
+import org.openmali.vecmath2.util.MatrixUtils;
+import org.openmali.vecmath2.util.VecMathUtils;
+
+/**
+ * A double precision floating point 4 by 4 matrix.
+ * 
+ * Inspired by Kenji Hiranabe's GMatrix implementation
+ */
+public class Matrix4d extends MatrixMxNd implements Externalizable {
+	private static final long serialVersionUID = -4090076415174613395L;
+
+	public static final Matrix4d ZERO = Matrix4d.newReadOnly(0d, 0d, 0d, 0d, 0d, 0d, 0d, 0d, 0d, 0d, 0d, 0d, 0d, 0d, 0d, 0d);
+
+	public static final Matrix4d IDENTITY = Matrix4d.newReadOnly(1d, 0d, 0d, 0d, 0d, 1d, 0d, 0d, 0d, 0d, 1d, 0d, 0d, 0d, 0d, 1d);
+
+	public static final Matrix4d ROT_PLUS_90_DEG_BY_X_AXIS;
+	public static final Matrix4d ROT_MINUS_90_DEG_BY_X_AXIS;
+	public static final Matrix4d ROT_PLUS_90_DEG_BY_Y_AXIS;
+	public static final Matrix4d ROT_MINUS_90_DEG_BY_Y_AXIS;
+	public static final Matrix4d ROT_PLUS_90_DEG_BY_Z_AXIS;
+	public static final Matrix4d ROT_MINUS_90_DEG_BY_Z_AXIS;
+
+	static {
+		ROT_PLUS_90_DEG_BY_X_AXIS = new Matrix4d(true, Matrix3d.ROT_PLUS_90_DEG_BY_X_AXIS);
+		ROT_MINUS_90_DEG_BY_X_AXIS = new Matrix4d(true, Matrix3d.ROT_MINUS_90_DEG_BY_X_AXIS);
+		ROT_PLUS_90_DEG_BY_Y_AXIS = new Matrix4d(true, Matrix3d.ROT_PLUS_90_DEG_BY_Y_AXIS);
+		ROT_MINUS_90_DEG_BY_Y_AXIS = new Matrix4d(true, Matrix3d.ROT_MINUS_90_DEG_BY_Y_AXIS);
+		ROT_PLUS_90_DEG_BY_Z_AXIS = new Matrix4d(true, Matrix3d.ROT_PLUS_90_DEG_BY_Z_AXIS);
+		ROT_MINUS_90_DEG_BY_Z_AXIS = new Matrix4d(true, Matrix3d.ROT_MINUS_90_DEG_BY_Z_AXIS);
+	}
+
+	public static final Matrix4d Z_UP_TO_Y_UP = ROT_MINUS_90_DEG_BY_X_AXIS;
+
+	// private static final Matrix4dPool POOL = new Matrix4dPool( 128 );
+	private static final ThreadLocal<Matrix4dPool> POOL = new ThreadLocal<Matrix4dPool>() {
+		@Override
+		protected Matrix4dPool initialValue() {
+			return (new Matrix4dPool(128));
+		}
+	};
+
+	/**
+	 * Maximum deviation of the dot products of the upper 3x3 rows from the
+	 * identity, below which {@link #invert()} treats the matrix as rigid.
+	 */
+	private static final double ORTHONORMAL_EPSILON = 1.0e-12d;
+
+	private Matrix4d readOnlyInstance = null;
+
+	protected static final int M = 4;
+	protected static final int N = 4;
+
+	public final double m00() {
+		return (get(0, 0));
+	}
+
+	public final double m01() {
+		return (get(0, 1));
+	}
+
+	public final double m02() {
+		return (get(0, 2));
+	}
+
+	public final double m03() {
+		return (get(0, 3));
+	}
+
+	public final double m10() {
+		return (get(1, 0));
+	}
+
+	public final double m11() {
+		return (get(1, 1));
+	}
+
+	public final double m12() {
+		return (get(1, 2));
+	}
+
+	public final double m13() {
+		return (get(1, 3));
+	}
+
+	public final double m20() {
+		return (get(2, 0));
+	}
+
+	public final double m21() {
+		return (get(2, 1));
+	}
+
+	public final double m22() {
+		return (get(2, 2));
+	}
+
+	public final double m23() {
+		return (get(2, 3));
+	}
+
+	public final double m30() {
+		return (get(3, 0));
+	}
+
+	public final double m31() {
+		return (get(3, 1));
+	}
+
+	public final double m32() {
+		return (get(3, 2));
+	}
+
+	public final double m33() {
+		return (get(3, 3));
+	}
+
+	public final Matrix4d m00(double v) {
+		set(0, 0, v);
+
+		return (this);
+	}
+
+	public final Matrix4d m01(double v) {
+		set(0, 1, v);
+
+		return (this);
+	}
+
+	public final Matrix4d m02(double v) {
+		set(0, 2, v);
+
+		return (this);
+	}
+
+	public final Matrix4d m03(double v) {
+		set(0, 3, v);
+
+		return (this);
+	}
+
+	public final Matrix4d m10(double v) {
+		set(1, 0, v);
+
+		return (this);
+	}
+
+	public final Matrix4d m11(double v) {
+		set(1, 1, v);
+
+		return (this);
+	}
+
+	public final Matrix4d m12(double v) {
+		set(1, 2, v);
+
+		return (this);
+	}
+
+	public final Matrix4d m13(double v) {
+		set(1, 3, v);
+
+		return (this);
+	}
+
+	public final Matrix4d m20(double v) {
+		set(2, 0, v);
+
+		return (this);
+	}
+
+	public final Matrix4d m21(double v) {
+		set(2, 1, v);
+
+		return (this);
+	}
+
+	public final Matrix4d m22(double v) {
+		set(2, 2, v);
+
+		return (this);
+	}
+
+	public final Matrix4d m23(double v) {
+		set(2, 3, v);
+
+		return (this);
+	}
+
+	public final Matrix4d m30(double v) {
+		set(3, 0, v);
+
+		return (this);
+	}
+
+	public final Matrix4d m31(double v) {
+		set(3, 1, v);
+
+		return (this);
+	}
+
+	public final Matrix4d m32(double v) {
+		set(3, 2, v);
+
+		return (this);
+	}
+
+	public final Matrix4d m33(double v) {
+		set(3, 3, v);
+
+		return (this);
+	}
+
+	/**
+	 * Sets 16 values
+	 * 
+	 * @param m00
+	 * @param m01
+	 * @param m02
+	 * @param m03
+	 * @param m10
+	 * @param m11
+	 * @param m12
+	 * @param m13
+	 * @param m20
+	 * @param m21
+	 * @param m22
+	 * @param m23
+	 * @param m30
+	 * @param m31
+	 * @param m32
+	 * @param m33
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4d set(double m00, double m01, double m02, double m03, double m10, double m11, double m12, double m13, double m20, double m21, double m22, double m23, double m30, double m31, double m32,
+			double m33) {
+		if (isReadOnly())
+			throw new Error("This is a read-only Matrix");
+
+		if (!this.isSubMatrix()) {
+			values[0] = m00;
+			values[1] = m01;
+			values[2] = m02;
+			values[3] = m03;
+			values[4] = m10;
+			values[5] = m11;
+			values[6] = m12;
+			values[7] = m13;
+			values[8] = m20;
+			values[9] = m21;
+			values[10] = m22;
+			values[11] = m23;
+			values[12] = m30;
+			values[13] = m31;
+			values[14] = m32;
+			values[15] = m33;
+
+			this.isDirty[0] = true;
+		} else {
+			m00(m00);
+			m01(m01);
+			m02(m02);
+			m03(m03);
+			m10(m10);
+			m11(m11);
+			m12(m12);
+			m13(m13);
+			m20(m20);
+			m21(m21);
+			m22(m22);
+			m23(m23);
+			m30(m30);
+			m31(m31);
+			m32(m32);
+			m33(m33);
+		}
+
+		return (this);
+	}
+
+	/**
+	 * Sets the value of this matrix to a scale matrix with the passed scale
+	 * amount.
+	 * 
+	 * @param scale the scale factor for the matrix
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4d set(double scale) {
+		if (isReadOnly())
+			throw new Error("This is a read-only Matrix");
+
+		if (!this.isSubMatrix()) {
+			values[0] = scale;
+			values[1] = 0d;
+			values[2] = 0d;
+			values[3] = 0d;
+			values[4] = 0d;
+			values[5] = scale;
+			values[6] = 0d;
+			values[7] = 0d;
+			values[8] = 0d;
+			values[9] = 0d;
+			values[10] = scale;
+			values[11] = 0d;
+			values[12] = 0d;
+			values[13] = 0d;
+			values[14] = 0d;
+			values[15] = 0d;
+
+			this.isDirty[0] = true;
+		} else {
+			this.m00(scale);
+			this.m01(0.0d);
+			this.m02(0.0d);
+			this.m03(0.0d);
+			this.m10(0.0d);
+			this.m11(scale);
+			this.m12(0.0d);
+			this.m13(0.0d);
+			this.m20(0.0d);
+			this.m21(0.0d);
+			this.m22(scale);
+			this.m23(0.0d);
+			this.m30(0.0d);
+			this.m31(0.0d);
+			this.m32(0.0d);
+			this.m33(1.0d);
+		}
+
+		return (this);
+	}
+
+	/**
+	 * Sets the rotational component (upper 3x3) of this matrix to the matrix
+	 * values in the double precision Matrix3d argument; the other elements of
+	 * this matrix are initialized as if this were an identity matrix (ie,
+	 * affine matrix with no translational component).
+	 * 
+	 * @param mat the 3x3 matrix
+	 */
+	@Override
+	public void set(Matrix3d mat) {
+		if (isReadOnly())
+			throw new Error("This is a read-only Matrix");
+
+		values[0] = mat.m00();
+		values[1] = mat.m01();
+		values[2] = mat.m02();
+		values[3] = 0d;
+		values[4] = mat.m10();
+		values[5] = mat.m11();
+		values[6] = mat.m12();
+		values[7] = 0d;
+		values[8] = mat.m20();
+		values[9] = mat.m21();
+		values[10] = mat.m22();
+		values[11] = 0d;
+		values[12] = 0d;
+		values[13] = 0d;
+		values[14] = 0d;
+		values[15] = 1d;
+
+		this.isDirty[0] = true;
+	}
+
+	/**
+	 * Sets the value of this matrix to a translate matrix by the passed
+	 * translation value.
+	 * 
+	 * @param pos the translation amount
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4d set(Tuple3d pos) {
+		setIdentity();
+		setTranslation(pos);
+
+		return (this);
+	}
+
+	/**
+	 * Sets the value of this matrix to a scale and translation matrix; scale is
+	 * not applied to the translation and all of the matrix values are modified.
+	 * 
+	 * @param scale the scale factor for the matrix
+	 * @param pos the translation amount
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4d set(double scale, Tuple3d pos) {
+		set(scale);
+		setTranslation(pos);
+
+		return (this);
+	}
+
+	/**
+	 * Sets the value of this matrix to a scale and translation matrix; the
+	 * translation is scaled by the scale factor and all of the matrix values
+	 * are modified.
+	 * 
+	 * @param pos the translation amount
+	 * @param scale the scale factor for the matrix
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4d set(Tuple3d pos, double scale) {
+		this.m00(scale);
+		this.m01(0.0d);
+		this.m02(0.0d);
+		this.m03(scale * pos.getX());
+		this.m10(0.0d);
+		this.m11(scale);
+		this.m12(0.0d);
+		this.m13(scale * pos.getY());
+		this.m20(0.0d);
+		this.m21(0.0d);
+		this.m22(scale);
+		this.m23(scale * pos.getZ());
+		this.m30(0.0d);
+		this.m31(0.0d);
+		this.m32(0.0d);
+		this.m33(1.0d);
+
+		return (this);
+	}
+
+	/**
+	 * Sets the value of this matrix from the rotation expressed by the rotation
+	 * matrix m1, the translation t1, and the scale s. The translation is not
+	 * modified by the scale.
+	 * 
+	 * @param mat The rotation component
+	 * @param pos The translation component
+	 * @param scale The scale component
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4d set(Matrix3d mat, Tuple3d pos, double scale) {
+		setRotationScale(mat);
+		mulRotationScale(scale);
+		setTranslation(pos);
+		set(3, 3, 1.0d);
+
+		return (this);
+	}
+
+	/**
+	 * Modifies the translational components of this matrix to the values of the
+	 * Vector3d argument; the other values of this matrix are not modified.
+	 * 
+	 * @param transX the translational x-component
+	 * @param transY the translational y-component
+	 * @param transZ the translational z-component
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4d setTranslation(double transX, double transY, double transZ) {
+		set(0, 3, transX);
+		set(1, 3, transY);
+		set(2, 3, transZ);
+
+		return (this);
+	}
+
+	/**
+	 * Modifies the translational components of this matrix to the values of the
+	 * Vector3d argument; the other values of this matrix are not modified.
+	 * 
+	 * @param trans the translational component
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4d setTranslation(Tuple3d trans) {
+		set(0, 3, trans.getX());
+		set(1, 3, trans.getY());
+		set(2, 3, trans.getZ());
+
+		return (this);
+	}
+
+	/**
+	 * Sets the value of this matrix to the matrix conversion of the single
+	 * precision quaternion argument.
+	 * 
+	 * @param quat the quaternion to be converted
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4d set(Quaternion4f quat) {
+		setFromQuat(quat.getA(), quat.getB(), quat.getC(), quat.getD());
+
+		return (this);
+	}
+
+	/**
+	 * Sets the value of this matrix to the matrix conversion of the single
+	 * precision axis and angle argument.
+	 * 
+	 * @param aa3f the axis and angle to be converted
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4d set(AxisAngle3f aa3f) {
+		setFromAxisAngle(aa3f.getX(), aa3f.getY(), aa3f.getZ(), aa3f.getAngle());
+
+		return (this);
+	}
+
+	/**
+	 * Sets the value of this matrix from the rotation expressed by the
+	 * quaternion q1, the translation t1, and the scale s.
+	 * 
+	 * @param quat the rotation expressed as a quaternion
+	 * @param pos the translation
+	 * @param scale the scale value
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4d set(Quaternion4f quat, Tuple3d pos, double scale) {
+		set(quat);
+		mulRotationScale(scale);
+		this.set(0, 3, pos.getX());
+		this.set(1, 3, pos.getY());
+		this.set(2, 3, pos.getZ());
+
+		return (this);
+	}
+
+	/**
+	 * Sets the scale component of the current matrix by factoring out the
+	 * current scale (by doing an SVD) from the rotational component and
+	 * multiplying by the new scale.
+	 * 
+	 * @param scale the new scale amount
+	 * 
+	 * @return itself
+	 */
+	@Override
+	public final Matrix4d setScale(double scale) {
+		SVD(null, this);
+		mulRotationScale(scale);
+
+		return (this);
+	}
+
+	/**
+	 * Performs an SVD normalization of this matrix in order to acquire the
+	 * normalized rotational component; the values are placed into the Matrix3d
+	 * parameter.
+	 * 
+	 * @param mat matrix into which the rotational component is placed
+	 */
+	@Override
+	public final void get(Matrix3d mat) {
+		SVD(mat, null);
+	}
+
+	/**
+	 * Performs an SVD normalization of this matrix to calculate the rotation as
+	 * a 3x3 matrix, the translation, and the scale. None of the matrix values
+	 * are modified.
+	 * 
+	 * @param mat The normalized matrix representing the rotation
+	 * @param pos The translation component
+	 * @return The scale component of this transform
+	 */
+	public final double get(Matrix3d mat, Tuple3d pos) {
+		get(pos);
+
+		return (SVD(mat, null));
+	}
+
+	/**
+	 * Performs an SVD normalization of this matrix in order to acquire the
+	 * normalized rotational component; the values are placed into the Quat4f
+	 * parameter.
+	 * 
+	 * @param quat quaternion into which the rotation component is placed
+	 */
+	public final void get(Quaternion4f quat) {
+		// From Ken Shoemake
+		// (ftp://ftp.cis.upenn.edu/pub/graphics/shoemake)
+
+		double a, b, c, d, s;
+		final double tr = m00() + m11() + m22();
+		if (tr >= 0.0d) {
+			s = FastMathd.sqrt(tr + 1.0d);
+			d = s * 0.5d;
+			s = 0.5d / s;
+			a = (m21() - m12()) * s;
+			b = (m02() - m20()) * s;
+			c = (m10() - m01()) * s;
+		} else {
+			double max = Math.max(Math.max(m00(), m11()), m22());
+			if (max == m00()) {
+				s = FastMathd.sqrt(m00() - (m11() + m22()) + 1.0d);
+				a = s * 0.5d;
+				s = 0.5d / s;
+				b = (m01() + m10()) * s;
+				c = (m20() + m02()) * s;
+				d = (m21() - m12()) * s;
+			} else if (max == m11()) {
+				s = FastMathd.sqrt(m11() - (m22() + m00()) + 1.0d);
+				b = s * 0.5d;
+				s = 0.5d / s;
+				c = (m12() + m21()) * s;
+				a = (m01() + m10()) * s;
+				d = (m02() - m20()) * s;
+			} else {
+				s = FastMathd.sqrt(m22() - (m00() + m11()) + 1.0d);
+				c = s * 0.5d;
+				s = 0.5d / s;
+				a = (m20() + m02()) * s;
+				b = (m12() + m21()) * s;
+				d = (m10() - m01()) * s;
+			}
+		}
+
+		quat.set((float) a, (float) b, (float) c, (float) d);
+		quat.normalize();
+	}
+
+	/**
+	 * Sets the value of this matrix to the single precision Matrix4f.
+	 * No memory is allocated.
+	 * 
+	 * @param mat the source matrix
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4d set(Matrix4f mat) {
+		return (set(mat.m00(), mat.m01(), mat.m02(), mat.m03(), mat.m10(), mat.m11(), mat.m12(), mat.m13(), mat.m20(), mat.m21(), mat.m22(), mat.m23(), mat.m30(), mat.m31(), mat.m32(), mat.m33()));
+	}
+
+	/**
+	 * Places the values of this matrix into the single precision Matrix4f
+	 * (rounded to float). No memory is allocated.
+	 * 
+	 * @param mat The matrix that will hold the new values
+	 */
+	public final void get(Matrix4f mat) {
+		mat.set((float) m00(), (float) m01(), (float) m02(), (float) m03(), (float) m10(), (float) m11(), (float) m12(), (float) m13(), (float) m20(), (float) m21(), (float) m22(),
+				(float) m23(), (float) m30(), (float) m31(), (float) m32(), (float) m33());
+	}
+
+	/**
+	 * Writes the contents of this matrix column-wise to a DoubleBuffer.<br>
+	 * 
+	 * @param buffer
+	 * @param clear clear the buffer before writing data?
+	 * @param flip flip the buffer after writing data?
+	 * 
+	 * @return itself
+	 */
+	public java.nio.DoubleBuffer writeToBuffer(java.nio.DoubleBuffer buffer, boolean clear, boolean flip) {
+		if (clear)
+			buffer.clear();
+
+		buffer.put(values[0]).put(values[4]).put(values[8]).put(values[12]).put(values[1]).put(values[5]).put(values[9]).put(values[13]).put(values[2]).put(values[6]).put(values[10]).put(values[14])
+				.put(values[3]).put(values[7]).put(values[11]).put(values[15]);
+
+		if (flip)
+			buffer.flip();
+
+		return (buffer);
+	}
+
+	/**
+	 * Writes the contents of this matrix column-wise to a DoubleBuffer.<br>
+	 * 
+	 * @param buffer
+	 * @param position position in the buffer
+	 * @param clear clear the buffer before writing data?
+	 * @param flip flip the buffer after writing data?
+	 * 
+	 * @return itself
+	 */
+	public java.nio.DoubleBuffer writeToBuffer(java.nio.DoubleBuffer buffer, int position, boolean clear, boolean flip) {
+		if (clear)
+			buffer.clear();
+
+		buffer.position(position);
+
+		buffer.put(values[0]).put(values[4]).put(values[8]).put(values[12]).put(values[1]).put(values[5]).put(values[9]).put(values[13]).put(values[2]).put(values[6]).put(values[10]).put(values[14])
+				.put(values[3]).put(values[7]).put(values[11]).put(values[15]);
+
+		if (flip)
+			buffer.flip();
+
+		return (buffer);
+	}
+
+	/**
+	 * Writes the contents of this matrix column-wise to a DoubleBuffer.<br>
+	 * 
+	 * @param matrices
+	 * @param buffer
+	 * @param clear clear the buffer before writing data?
+	 * @param flip flip the buffer after writing data?
+	 * 
+	 * @return itself
+	 */
+	public static java.nio.DoubleBuffer writeToBuffer(Matrix4d[] matrices, java.nio.DoubleBuffer buffer, boolean clear, boolean flip) {
+		if (clear)
+			buffer.clear();
+
+		for (int i = 0; i < matrices.length; i++) {
+			matrices[i].writeToBuffer(buffer, false, false);
+		}
+
+		if (flip)
+			buffer.flip();
+
+		return (buffer);
+	}
+
+	/**
+	 * Writes the contents of this matrix column-wise to a DoubleBuffer.<br>
+	 * 
+	 * @param matrices
+	 * @param buffer
+	 * @param position position in the buffer
+	 * @param clear clear the buffer before writing data?
+	 * @param flip flip the buffer after writing data?
+	 * 
+	 * @return itself
+	 */
+	public static java.nio.DoubleBuffer writeToBuffer(Matrix4d[] matrices, java.nio.DoubleBuffer buffer, int position, boolean clear, boolean flip) {
+		if (clear)
+			buffer.clear();
+
+		buffer.position(position);
+
+		for (int i = 0; i < matrices.length; i++) {
+			matrices[i].writeToBuffer(buffer, false, false);
+		}
+
+		if (flip)
+			buffer.flip();
+
+		return (buffer);
+	}
+
+	/**
+	 * Reads the contents of this matrix column-wise from a DoubleBuffer.<br>
+	 * 
+	 * @param buffer
+	 * 
+	 * @return itself
+	 */
+	public java.nio.DoubleBuffer readFromBuffer(java.nio.DoubleBuffer buffer) {
+		buffer.get(values, 0, 1).get(values, 4, 1).get(values, 8, 1).get(values, 12, 1).get(values, 1, 1).get(values, 5, 1).get(values, 9, 1).get(values, 13, 1).get(values, 2, 1).get(values, 6, 1)
+				.get(values, 10, 1).get(values, 14, 1).get(values, 3, 1).get(values, 7, 1).get(values, 11, 1).get(values, 15, 1);
+
+		return (buffer);
+	}
+
+	/**
+	 * Reads the contents of this matrix column-wise from a DoubleBuffer.<br>
+	 * 
+	 * @param buffer
+	 * @param position position in the buffer
+	 * 
+	 * @return itself
+	 */
+	public java.nio.DoubleBuffer readFromBuffer(java.nio.DoubleBuffer buffer, int position) {
+		buffer.position(position);
+
+		buffer.get(values, 0, 1).get(values, 4, 1).get(values, 8, 1).get(values, 12, 1).get(values, 1, 1).get(values, 5, 1).get(values, 9, 1).get(values, 13, 1).get(values, 2, 1).get(values, 6, 1)
+				.get(values, 10, 1).get(values, 14, 1).get(values, 3, 1).get(values, 7, 1).get(values, 11, 1).get(values, 15, 1);
+
+		return (buffer);
+	}
+
+	/**
+	 * Reads the contents of this matrix column-wise from a DoubleBuffer.<br>
+	 * 
+	 * @param matrices
+	 * @param buffer
+	 * 
+	 * @return itself
+	 */
+	public static java.nio.DoubleBuffer readFromBuffer(Matrix4d[] matrices, java.nio.DoubleBuffer buffer) {
+		for (int i = 0; i < matrices.length; i++) {
+			matrices[i].readFromBuffer(buffer);
+		}
+
+		return (buffer);
+	}
+
+	/**
+	 * Reads the contents of this matrix column-wise from a DoubleBuffer.<br>
+	 * 
+	 * @param matrices
+	 * @param buffer
+	 * @param position position in the buffer
+	 * 
+	 * @return itself
+	 */
+	public static java.nio.DoubleBuffer readFromBuffer(Matrix4d[] matrices, java.nio.DoubleBuffer buffer, int position) {
+		buffer.position(position);
+
+		for (int i = 0; i < matrices.length; i++) {
+			matrices[i].readFromBuffer(buffer);
+		}
+
+		return (buffer);
+	}
+
+	/**
+	 * Retrieves the translational components of this matrix.
+	 * 
+	 * @param trans the vector that will receive the translational component
+	 */
+	public final void get(Tuple3d trans) {
+		trans.set(m03(), m13(), m23());
+	}
+
+	/**
+	 * Gets the upper 3x3 values of this matrix and places them into the matrix mat.
+	 * 
+	 * @param mat The matrix that will hold the values
+	 */
+	public final void getRotationScale(Matrix3d mat) {
+		for (int i = 0; i < 3; i++) {
+			for (int j = 0; j < 3; j++) {
+				mat.set(i, j, this.get(i, j));
+			}
+		}
+	}
+
+	/**
+	 * Performs an SVD normalization of this matrix to calculate and return the
+	 * uniform scale factor. This matrix is not modified.
+	 * 
+	 * @return the scale factor of this matrix
+	 */
+	public final double getScale() {
+		return (SVD((Matrix3d) null));
+	}
+
+	/**
+	 * Replaces the upper 3x3 matrix values of this matrix with the values in
+	 * the matrix mat.
+	 * 
+	 * @param mat The matrix that will be the new upper 3x3
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4d setRotationScale(Matrix3d mat) {
+		for (int i = 0; i < 3; i++) {
+			for (int j = 0; j < 3; j++) {
+				this.set(i, j, mat.get(i, j));
+			}
+		}
+
+		return (this);
+	}
+
+	/**
+	 * Sets the specified row of this Matrix4d to the four values provided.
+	 * 
+	 * @param row the row number to be modified (zero indexed)
+	 * @param x the first column element
+	 * @param y the second column element
+	 * @param z the third column element
+	 * @param w the fourth column element
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4d setRow(int row, double x, double y, double z, double w) {
+		if ((row >= 0) && (row <= 4)) {
+			this.set(row, 0, x);
+			this.set(row, 1, y);
+			this.set(row, 2, z);
+			this.set(row, 3, w);
+
+			return (this);
+		}
+
+		throw new ArrayIndexOutOfBoundsException("row must be 0 to 4 and is " + row);
+	}
+
+	/**
+	 * Sets the specified row of this matrix4d to the Vector provided.
+	 * 
+	 * @param row the row number to be modified (zero indexed)
+	 * @param values the replacement row
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4d setRow(int row, Vector4f values) {
+		if ((row >= 0) && (row <= 4)) {
+			this.set(row, 0, values.getX());
+			this.set(row, 1, values.getY());
+			this.set(row, 2, values.getZ());
+			this.set(row, 3, values.getW());
+
+			return (this);
+		}
+
+		throw new ArrayIndexOutOfBoundsException("row must be 0 to 4 and is " + row);
+	}
+
+	/**
+	 * Copies the matrix values in the specified row into the vector parameter.
+	 * 
+	 * @param row the matrix row
+	 * @param buffer The vector into which the matrix row values will be copied
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4d getRow(int row, Vector4f buffer) {
+		if ((row >= 0) && (row <= 4)) {
+			buffer.setX((float) get(row, 0));
+			buffer.setY((float) get(row, 1));
+			buffer.setZ((float) get(row, 2));
+			buffer.setW((float) get(row, 3));
+
+			return (this);
+		}
+
+		throw new ArrayIndexOutOfBoundsException("row must be 0 to 4 and is " + row);
+	}
+
+	/**
+	 * Sets the specified column of this matrix4d to the four values provided.
+	 * 
+	 * @param column the column number to be modified (zero indexed)
+	 * @param x the first row element
+	 * @param y the second row element
+	 * @param z the third row element
+	 * @param w the fourth row element
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4d setColumn(int column, double x, double y, double z, double w) {
+		if ((column >= 0) && (column <= 4)) {
+			this.set(0, column, x);
+			this.set(1, column, y);
+			this.set(2, column, z);
+			this.set(3, column, w);
+
+			return (this);
+		}
+
+		throw new ArrayIndexOutOfBoundsException("column must be 0 to 4 and is " + column);
+	}
+
+	/**
+	 * Sets the specified column of this matrix4d to the vector provided.
+	 * 
+	 * @param column the column number to be modified (zero indexed)
+	 * @param values the replacement column
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4d setColumn(int column, Vector4f values) {
+		if ((column >= 0) && (column <= 4)) {
+			this.set(0, column, values.getX());
+			this.set(1, column, values.getY());
+			this.set(2, column, values.getZ());
+			this.set(3, column, values.getW());
+
+			return (this);
+		}
+
+		throw new ArrayIndexOutOfBoundsException("column must be 0 to 4 and is " + column);
+	}
+
+	/**
+	 * Copies the matrix values in the specified column into the vector
+	 * parameter.
+	 * 
+	 * @param column the matrix column
+	 * @param buffer The vector into which the matrix column values will be copied
+	 */
+	public final void getColumn(int column, Vector4f buffer) {
+		if ((column >= 0) && (column <= 4)) {
+			buffer.setX((float) get(0, column));
+			buffer.setY((float) get(1, column));
+			buffer.setZ((float) get(2, column));
+			buffer.setW((float) get(3, column));
+		} else {
+			throw new ArrayIndexOutOfBoundsException("column must be 0 to 4 and is " + column);
+		}
+	}
+
+	/**
+	 * Computes the determinant of this matrix.
+	 * 
+	 * @return the determinant of the matrix
+	 */
+	public final double determinant() {
+		// less *,+,- calculation than expanded expression.
+		return (m00() * m11() - m01() * m10()) * (m22() * m33() - m23() * m32()) - (m00() * m12() - m02() * m10()) * (m21() * m33() - m23() * m31()) + (m00() * m13() - m03() * m10())
+				* (m21() * m32() - m22() * m31()) + (m01() * m12() - m02() * m11()) * (m20() * m33() - m23() * m30()) - (m01() * m13() - m03() * m11()) * (m20() * m32() - m22() * m30())
+				+ (m02() * m13() - m03() * m12()) * (m20() * m31() - m21() * m30());
+	}
+
+	/**
+	 * Sets the value of this matrix to the transpose of the argument matrix
+	 * 
+	 * @param mat the matrix to be transposed
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4d transpose(Matrix4d mat) {
+		super.transpose(mat);
+
+		return (this);
+	}
+
+	/**
+	 * Sets the value of this matrix equal to the negation of of the Matrix4d
+	 * parameter.
+	 * 
+	 * @param m1 The source matrix
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4d negate(Matrix4d m1) {
+		set(m1);
+		negate();
+
+		return (this);
+	}
+
+	/**
+	 * Checks, if the last row of this matrix is (0, 0, 0, 1), which is the case
+	 * for all affine transforms.
+	 * 
+	 * @return true, if this matrix is affine
+	 */
+	public final boolean isAffine() {
+		return ((m30() == 0.0d) && (m31() == 0.0d) && (m32() == 0.0d) && (m33() == 1.0d));
+	}
+
+	/**
+	 * Checks, if this matrix is affine and its upper 3x3 part is orthonormal,
+	 * i.e. the matrix only rotates (or mirrors) and translates.
+	 * 
+	 * @return true, if this matrix is a rigid transform
+	 */
+	public final boolean isRigid() {
+		return (isAffine() && isOrthonormal3x3());
+	}
+
+	private final boolean isOrthonormal3x3() {
+		final double m00 = m00(), m01 = m01(), m02 = m02();
+		final double m10 = m10(), m11 = m11(), m12 = m12();
+		final double m20 = m20(), m21 = m21(), m22 = m22();
+
+		if (Math.abs(m00 * m00 + m01 * m01 + m02 * m02 - 1.0d) > ORTHONORMAL_EPSILON)
+			return (false);
+		if (Math.abs(m10 * m10 + m11 * m11 + m12 * m12 - 1.0d) > ORTHONORMAL_EPSILON)
+			return (false);
+		if (Math.abs(m20 * m20 + m21 * m21 + m22 * m22 - 1.0d) > ORTHONORMAL_EPSILON)
+			return (false);
+		if (Math.abs(m00 * m10 + m01 * m11 + m02 * m12) > ORTHONORMAL_EPSILON)
+			return (false);
+		if (Math.abs(m00 * m20 + m01 * m21 + m02 * m22) > ORTHONORMAL_EPSILON)
+			return (false);
+		if (Math.abs(m10 * m20 + m11 * m21 + m12 * m22) > ORTHONORMAL_EPSILON)
+			return (false);
+
+		return (true);
+	}
+
+	/**
+	 * Sets the value of this matrix to its inverse, assuming that it is a rigid
+	 * transform (orthonormal upper 3x3 part and a last row of (0, 0, 0, 1)).
+	 * The rotation is transposed and the translation is rotated back and
+	 * negated. The result is undefined for any other matrix.
+	 * 
+	 * @see #isRigid()
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4d invertRigid() {
+		final double m00 = m00(), m01 = m01(), m02 = m02(), m03 = m03();
+		final double m10 = m10(), m11 = m11(), m12 = m12(), m13 = m13();
+		final double m20 = m20(), m21 = m21(), m22 = m22(), m23 = m23();
+
+		set(m00, m10, m20, -(m00 * m03 + m10 * m13 + m20 * m23), m01, m11, m21, -(m01 * m03 + m11 * m13 + m21 * m23), m02, m12, m22, -(m02 * m03 + m12 * m13 + m22 * m23), 0.0d, 0.0d, 0.0d, 1.0d);
+
+		return (this);
+	}
+
+	/**
+	 * Sets the value of this matrix to the inverse of the passed rigid
+	 * transform.
+	 * 
+	 * @see #invertRigid()
+	 * 
+	 * @param mat the matrix to be inverted
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4d invertRigid(Matrix4d mat) {
+		set(mat);
+		invertRigid();
+
+		return (this);
+	}
+
+	/**
+	 * Sets the value of this matrix to its inverse, assuming that it is an
+	 * affine transform (last row of (0, 0, 0, 1)). Only the upper 3x3 part is
+	 * inverted and the translation is transformed by it and negated. The last
+	 * row is not read. If the upper 3x3 part is singular, the matrix is left
+	 * untouched.
+	 * 
+	 * @see #isAffine()
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4d invertAffine() {
+		final double m00 = m00(), m01 = m01(), m02 = m02(), m03 = m03();
+		final double m10 = m10(), m11 = m11(), m12 = m12(), m13 = m13();
+		final double m20 = m20(), m21 = m21(), m22 = m22(), m23 = m23();
+
+		final double c00 = m11 * m22 - m12 * m21;
+		final double c01 = m12 * m20 - m10 * m22;
+		final double c02 = m10 * m21 - m11 * m20;
+
+		double d = m00 * c00 + m01 * c01 + m02 * c02;
+		if (d == 0.0d)
+			return (this);
+		d = 1.0d / d;
+
+		if (isReadOnly())
+			throw new Error("This is a read-only Matrix");
+
+		final double i00 = c00 * d;
+		final double i01 = (m02 * m21 - m01 * m22) * d;
+		final double i02 = (m01 * m12 - m02 * m11) * d;
+		final double i10 = c01 * d;
+		final double i11 = (m00 * m22 - m02 * m20) * d;
+		final double i12 = (m02 * m10 - m00 * m12) * d;
+		final double i20 = c02 * d;
+		final double i21 = (m01 * m20 - m00 * m21) * d;
+		final double i22 = (m00 * m11 - m01 * m10) * d;
+
+		set(i00, i01, i02, -(i00 * m03 + i01 * m13 + i02 * m23), i10, i11, i12, -(i10 * m03 + i11 * m13 + i12 * m23), i20, i21, i22, -(i20 * m03 + i21 * m13 + i22 * m23), 0.0d, 0.0d, 0.0d, 1.0d);
+
+		return (this);
+	}
+
+	/**
+	 * Sets the value of this matrix to the inverse of the passed affine
+	 * transform.
+	 * 
+	 * @see #invertAffine()
+	 * 
+	 * @param mat the matrix to be inverted
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4d invertAffine(Matrix4d mat) {
+		set(mat);
+		invertAffine();
+
+		return (this);
+	}
+
+	/**
+	 * Sets the value of this matrix to its inverse.<br>
+	 * Rigid and affine transforms are detected and inverted by
+	 * {@link #invertRigid()} and {@link #invertAffine()}. All other matrices
+	 * are inverted by the full cofactor expansion.
+	 * 
+	 * @return itself
+	 */
+	@Override
+	public Matrix4d invert() {
+		if (isAffine()) {
+			if (isOrthonormal3x3())
+				return (invertRigid());
+
+			return (invertAffine());
+		}
+
+		return (invertGeneral());
+	}
+
+	/**
+	 * Sets the value of this matrix to its inverse by the full cofactor
+	 * expansion, regardless of its structure.
+	 * 
+	 * @return itself
+	 */
+	public Matrix4d invertGeneral() {
+		double d = determinant();
+		if (d == 0.0d)
+			return (this);
+		d = 1.0d / d;
+
+		if (isReadOnly())
+			throw new Error("This is a read-only Matrix");
+
+		// alias-safe way.
+		// less *,+,- calculation than expanded expression.
+		set(values[5] * (values[10] * values[15] - values[11] * values[14]) + values[6] * (values[11] * values[13] - values[9] * values[15]) + values[7]
+				* (values[9] * values[14] - values[10] * values[13]), values[9] * (values[2] * values[15] - values[3] * values[14]) + values[10] * (values[3] * values[13] - values[1] * values[15])
+				+ values[11] * (values[1] * values[14] - values[2] * values[13]), values[13] * (values[2] * values[7] - values[3] * values[6]) + values[14]
+				* (values[3] * values[5] - values[1] * values[7]) + values[15] * (values[1] * values[6] - values[2] * values[5]), values[1] * (values[7] * values[10] - values[6] * values[11])
+				+ values[2] * (values[5] * values[11] - values[7] * values[9]) + values[3] * (values[6] * values[9] - values[5] * values[10]),
+				values[6] * (values[8] * values[15] - values[11] * values[12]) + values[7] * (values[10] * values[12] - values[8] * values[14]) + values[4]
+						* (values[11] * values[14] - values[10] * values[15]), values[10] * (values[0] * values[15] - values[3] * values[12]) + values[11]
+						* (values[2] * values[12] - values[0] * values[14]) + values[8] * (values[3] * values[14] - values[2] * values[15]),
+				values[14] * (values[0] * values[7] - values[3] * values[4]) + values[15] * (values[2] * values[4] - values[0] * values[6]) + values[12]
+						* (values[3] * values[6] - values[2] * values[7]), values[2] * (values[7] * values[8] - values[4] * values[11]) + values[3] * (values[4] * values[10] - values[6] * values[8])
+						+ values[0] * (values[6] * values[11] - values[7] * values[10]), values[7] * (values[8] * values[13] - values[9] * values[12]) + values[4]
+						* (values[9] * values[15] - values[11] * values[13]) + values[5] * (values[11] * values[12] - values[8] * values[15]), values[11]
+						* (values[0] * values[13] - values[1] * values[12]) + values[8] * (values[1] * values[15] - values[3] * values[13]) + values[9]
+						* (values[3] * values[12] - values[0] * values[15]), values[15] * (values[0] * values[5] - values[1] * values[4]) + values[12]
+						* (values[1] * values[7] - values[3] * values[5]) + values[13] * (values[3] * values[4] - values[0] * values[7]), values[3] * (values[5] * values[8] - values[4] * values[9])
+						+ values[0] * (values[7] * values[9] - values[5] * values[11]) + values[1] * (values[4] * values[11] - values[7] * values[8]), values[4]
+						* (values[10] * values[13] - values[9] * values[14]) + values[5] * (values[8] * values[14] - values[10] * values[12]) + values[6]
+						* (values[9] * values[12] - values[8] * values[13]), values[8] * (values[2] * values[13] - values[1] * values[14]) + values[9]
+						* (values[0] * values[14] - values[2] * values[12]) + values[10] * (values[1] * values[12] - values[0] * values[13]),
+				values[12] * (values[2] * values[5] - values[1] * values[6]) + values[13] * (values[0] * values[6] - values[2] * values[4]) + values[14]
+						* (values[1] * values[4] - values[0] * values[5]), values[0] * (values[5] * values[10] - values[6] * values[9]) + values[1] * (values[6] * values[8] - values[4] * values[10])
+						+ values[2] * (values[4] * values[9] - values[5] * values[8]));
+
+		mul(d);
+
+		return (this);
+	}
+
+	/**
+	 * Sets the value of this matrix to the matrix inverse of the passed matrix
+	 * m1.
+	 * 
+	 * @param mat the matrix to be inverted
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4d invert(Matrix4d mat) {
+		set(mat);
+		invert();
+
+		return (this);
+	}
+
+	/**
+	 * Adds a scalar to each component of the matrix m1 and places the result
+	 * into this. Matrix m1 is not modified.
+	 * 
+	 * @param scalar The scalar adder.
+	 * @param mat The original matrix values.
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4d add(double scalar, Matrix4d mat) {
+		set(mat);
+		add(scalar);
+
+		return (this);
+	}
+
+	/**
+	 * Sets the value of this matrix to the matrix sum of matrices m1 and m2.
+	 * 
+	 * @param mat1 the first matrix
+	 * @param mat2 the second matrix
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4d add(Matrix4d mat1, Matrix4d mat2) {
+		set(mat1);
+		add(mat2);
+
+		return (this);
+	}
+
+	/**
+	 * Sets the value of this matrix to sum of itself and matrix m1.
+	 * 
+	 * @param mat2 the other matrix
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4d add(Matrix4d mat2) {
+		for (int i = 0; i < M; i++) {
+			for (int j = 0; j < N; j++) {
+				set(i, j, this.get(i, j) + mat2.get(i, j));
+			}
+		}
+
+		return (this);
+	}
+
+	/**
+	 * Sets the value of this matrix to the matrix difference of itself and
+	 * matrix m1 (this = this - m1).
+	 * 
+	 * @param mat2 the other matrix
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4d sub(Matrix4d mat2) {
+		for (int i = 0; i < M; i++) {
+			for (int j = 0; j < N; j++) {
+				set(i, j, this.get(i, j) - mat2.get(i, j));
+			}
+		}
+
+		return (this);
+	}
+
+	/**
+	 * Sets the value of this matrix to the matrix difference of matrices m1 and m2.
+	 * 
+	 * @param mat1 the first matrix
+	 * @param mat2 the second matrix
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4d sub(Matrix4d mat1, Matrix4d mat2) {
+		set(mat1);
+		sub(mat2);
+
+		return (this);
+	}
+
+	/**
+	 * Sets the value of this matrix to a rotation matrix about the x axis by
+	 * the passed angle.
+	 * 
+	 * @param angle the angle to rotate about the X axis in radians
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4d rotX(double angle) {
+		final double c = Math.cos(angle);
+		final double s = Math.sin(angle);
+
+		this.m00(1.0d);
+		this.m01(0.0d);
+		this.m02(0.0d);
+		// this.m03( 0.0d );
+		this.m10(0.0d);
+		this.m11(c);
+		this.m12(-s);
+		// this.m13( 0.0d );
+		this.m20(0.0d);
+		this.m21(s);
+		this.m22(c);
+		// this.m23( 0.0d );
+		this.m30(0.0d);
+		this.m31(0.0d);
+		this.m32(0.0d);
+		this.m33(1.0d);
+
+		return (this);
+	}
+
+	/**
+	 * Sets the value of this matrix to a rotation matrix about the y axis by
+	 * the passed angle.
+	 * 
+	 * @param angle the angle to rotate about the Y axis in radians
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4d rotY(double angle) {
+		final double c = Math.cos(angle);
+		final double s = Math.sin(angle);
+
+		this.m00(c);
+		this.m01(0.0d);
+		this.m02(s);
+		// this.m03( 0.0d );
+		this.m10(0.0d);
+		this.m11(1.0d);
+		this.m12(0.0d);
+		// this.m13( 0.0d );
+		this.m20(-s);
+		this.m21(0.0d);
+		this.m22(c);
+		// this.m23( 0.0d );
+		this.m30(0.0d);
+		this.m31(0.0d);
+		this.m32(0.0d);
+		this.m33(1.0d);
+
+		return (this);
+	}
+
+	/**
+	 * Sets the value of this matrix to a rotation matrix about the z axis by
+	 * the passed angle.
+	 * 
+	 * @param angle the angle to rotate about the Z axis in radians
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4d rotZ(double angle) {
+		final double c = Math.cos(angle);
+		final double s = Math.sin(angle);
+
+		this.m00(c);
+		this.m01(-s);
+		this.m02(0.0d);
+		// this.m03( 0.0d );
+		this.m10(s);
+		this.m11(c);
+		this.m12(0.0d);
+		// this.m13( 0.0d );
+		this.m20(0.0d);
+		this.m21(0.0d);
+		this.m22(1.0d);
+		// this.m23( 0.0d );
+		this.m30(0.0d);
+		this.m31(0.0d);
+		this.m32(0.0d);
+		this.m33(1.0d);
+
+		return (this);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Matrix4d mul(double scalar) {
+		values[0] *= scalar;
+		values[1] *= scalar;
+		values[2] *= scalar;
+		values[3] *= scalar;
+		values[4] *= scalar;
+		values[5] *= scalar;
+		values[6] *= scalar;
+		values[7] *= scalar;
+		values[8] *= scalar;
+		values[9] *= scalar;
+		values[10] *= scalar;
+		values[11] *= scalar;
+		values[12] *= scalar;
+		values[13] *= scalar;
+		values[14] *= scalar;
+		values[15] *= scalar;
+
+		this.isDirty[0] = true;
+
+		return (this);
+	}
+
+	/**
+	 * Multiplies each element of matrix m1 by a scalar and places the result
+	 * into this. Matrix mat is not modified.
+	 * 
+	 * @param scalar The scalar multiplier.
+	 * @param mat The original matrix.
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4d mul(double scalar, Matrix4d mat) {
+		set(mat);
+		mul(scalar);
+
+		return (this);
+	}
+
+	/**
+	 * Sets the value of this matrix to the result of multiplying itself with
+	 * matrix mat.
+	 * 
+	 * @param mat the other matrix
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4d mul(Matrix4d mat) {
+		mul(this, mat);
+
+		return (this);
+	}
+
+	/**
+	 * Sets the value of this matrix to the result of multiplying the two
+	 * argument matrices together.
+	 * 
+	 * @param mat1 the first matrix
+	 * @param mat2 the second matrix
+	 * 
+	 * @return itself
+	 */
+	public Matrix4d mul(Matrix4d mat1, Matrix4d mat2) {
+		if (isReadOnly())
+			throw new Error("This is a read-only Matrix");
+
+		if (!mat1.isSubMatrix() && !mat1.isSubMatrix()) // No idea why, but the
+														// presence of this
+														// selection makes it
+														// faster!
+		{
+			// alias-safe way.
+			set(mat1.values[0] * mat2.values[0] + mat1.values[1] * mat2.values[4] + mat1.values[2] * mat2.values[8] + mat1.values[3] * mat2.values[12], mat1.values[0] * mat2.values[1]
+					+ mat1.values[1] * mat2.values[5] + mat1.values[2] * mat2.values[9] + mat1.values[3] * mat2.values[13], mat1.values[0] * mat2.values[2] + mat1.values[1] * mat2.values[6]
+					+ mat1.values[2] * mat2.values[10] + mat1.values[3] * mat2.values[14], mat1.values[0] * mat2.values[3] + mat1.values[1] * mat2.values[7] + mat1.values[2] * mat2.values[11]
+					+ mat1.values[3] * mat2.values[15], mat1.values[4] * mat2.values[0] + mat1.values[5] * mat2.values[4] + mat1.values[6] * mat2.values[8] + mat1.values[7] * mat2.values[12],
+					mat1.values[4] * mat2.values[1] + mat1.values[5] * mat2.values[5] + mat1.values[6] * mat2.values[9] + mat1.values[7] * mat2.values[13], mat1.values[4] * mat2.values[2]
+							+ mat1.values[5] * mat2.values[6] + mat1.values[6] * mat2.values[10] + mat1.values[7] * mat2.values[14], mat1.values[4] * mat2.values[3] + mat1.values[5] * mat2.values[7]
+							+ mat1.values[6] * mat2.values[11] + mat1.values[7] * mat2.values[15], mat1.values[8] * mat2.values[0] + mat1.values[9] * mat2.values[4] + mat1.values[10] * mat2.values[8]
+							+ mat1.values[11] * mat2.values[12], mat1.values[8] * mat2.values[1] + mat1.values[9] * mat2.values[5] + mat1.values[10] * mat2.values[9] + mat1.values[11]
+							* mat2.values[13], mat1.values[8] * mat2.values[2] + mat1.values[9] * mat2.values[6] + mat1.values[10] * mat2.values[10] + mat1.values[11] * mat2.values[14],
+					mat1.values[8] * mat2.values[3] + mat1.values[9] * mat2.values[7] + mat1.values[10] * mat2.values[11] + mat1.values[11] * mat2.values[15], mat1.values[12] * mat2.values[0]
+							+ mat1.values[13] * mat2.values[4] + mat1.values[14] * mat2.values[8] + mat1.values[15] * mat2.values[12], mat1.values[12] * mat2.values[1] + mat1.values[13]
+							* mat2.values[5] + mat1.values[14] * mat2.values[9] + mat1.values[15] * mat2.values[13], mat1.values[12] * mat2.values[2] + mat1.values[13] * mat2.values[6]
+							+ mat1.values[14] * mat2.values[10] + mat1.values[15] * mat2.values[14], mat1.values[12] * mat2.values[3] + mat1.values[13] * mat2.values[7] + mat1.values[14]
+							* mat2.values[11] + mat1.values[15] * mat2.values[15]);
+		}
+
+		return (this);
+	}
+
+	/**
+	 * Multiplies the transpose of matrix m1 times the transpose of matrix m2,
+	 * and places the result into this.
+	 * 
+	 * @param mat1 The matrix on the left hand side of the multiplication
+	 * @param mat2 The matrix on the right hand side of the multiplication
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4d mulTransposeBoth(Matrix4d mat1, Matrix4d mat2) {
+		mul(mat2, mat1);
+		transpose();
+
+		return (this);
+	}
+
+	/**
+	 * Multiplies the transpose of matrix m1 times matrix m2, and places the
+	 * result into this.
+	 * 
+	 * @param mat1 The matrix on the left hand side of the multiplication
+	 * @param mat2 The matrix on the right hand side of the multiplication
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4d mulTransposeLeft(Matrix4d mat1, Matrix4d mat2) {
+		// alias-safe way.
+		set(mat1.get(0, 0) * mat2.get(0, 0) + mat1.get(1, 0) * mat2.get(1, 0) + mat1.get(2, 0) * mat2.get(2, 0) + mat1.get(3, 0) * mat2.get(3, 0), mat1.get(0, 0) * mat2.get(0, 1) + mat1.get(1, 0)
+				* mat2.get(1, 1) + mat1.get(2, 0) * mat2.get(2, 1) + mat1.get(3, 0) * mat2.get(3, 1),
+				mat1.get(0, 0) * mat2.get(0, 2) + mat1.get(1, 0) * mat2.get(1, 2) + mat1.get(2, 0) * mat2.get(2, 2) + mat1.get(3, 0) * mat2.get(3, 2), mat1.get(0, 0) * mat2.get(0, 3) + mat1.get(1, 0)
+						* mat2.get(1, 3) + mat1.get(2, 0) * mat2.get(2, 3) + mat1.get(3, 0) * mat2.get(3, 3),
+				mat1.get(0, 1) * mat2.get(0, 0) + mat1.get(1, 1) * mat2.get(1, 0) + mat1.get(2, 1) * mat2.get(2, 0) + mat1.get(3, 1) * mat2.get(3, 0), mat1.get(0, 1) * mat2.get(0, 1) + mat1.get(1, 1)
+						* mat2.get(1, 1) + mat1.get(2, 1) * mat2.get(2, 1) + mat1.get(3, 1) * mat2.get(3, 1),
+				mat1.get(0, 1) * mat2.get(0, 2) + mat1.get(1, 1) * mat2.get(1, 2) + mat1.get(2, 1) * mat2.get(2, 2) + mat1.get(3, 1) * mat2.get(3, 2), mat1.get(0, 1) * mat2.get(0, 3) + mat1.get(1, 1)
+						* mat2.get(1, 3) + mat1.get(2, 1) * mat2.get(2, 3) + mat1.get(3, 1) * mat2.get(3, 3),
+				mat1.get(0, 2) * mat2.get(0, 0) + mat1.get(1, 2) * mat2.get(1, 0) + mat1.get(2, 2) * mat2.get(2, 0) + mat1.get(3, 2) * mat2.get(3, 0), mat1.get(0, 2) * mat2.get(0, 1) + mat1.get(1, 2)
+						* mat2.get(1, 1) + mat1.get(2, 2) * mat2.get(2, 1) + mat1.get(3, 2) * mat2.get(3, 1),
+				mat1.get(0, 2) * mat2.get(0, 2) + mat1.get(1, 2) * mat2.get(1, 2) + mat1.get(2, 2) * mat2.get(2, 2) + mat1.get(3, 2) * mat2.get(3, 2), mat1.get(0, 2) * mat2.get(0, 3) + mat1.get(1, 2)
+						* mat2.get(1, 3) + mat1.get(2, 2) * mat2.get(2, 3) + mat1.get(3, 2) * mat2.get(3, 3),
+				mat1.get(0, 3) * mat2.get(0, 0) + mat1.get(1, 3) * mat2.get(1, 0) + mat1.get(2, 3) * mat2.get(2, 0) + mat1.get(3, 3) * mat2.get(3, 0), mat1.get(0, 3) * mat2.get(0, 1) + mat1.get(1, 3)
+						* mat2.get(1, 1) + mat1.get(2, 3) * mat2.get(2, 1) + mat1.get(3, 3) * mat2.get(3, 1),
+				mat1.get(0, 3) * mat2.get(0, 2) + mat1.get(1, 3) * mat2.get(1, 2) + mat1.get(2, 3) * mat2.get(2, 2) + mat1.get(3, 3) * mat2.get(3, 2), mat1.get(0, 3) * mat2.get(0, 3) + mat1.get(1, 3)
+						* mat2.get(1, 3) + mat1.get(2, 3) * mat2.get(2, 3) + mat1.get(3, 3) * mat2.get(3, 3));
+
+		return (this);
+	}
+
+	/**
+	 * Multiplies matrix m1 times the transpose of matrix m2, and places the
+	 * result into this.
+	 * 
+	 * @param mat1 The matrix on the left hand side of the multiplication
+	 * @param mat2 The matrix on the right hand side of the multiplication
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4d mulTransposeRight(Matrix4d mat1, Matrix4d mat2) {
+		// alias-safe way.
+		set(mat1.get(0, 0) * mat2.get(0, 0) + mat1.get(0, 1) * mat2.get(0, 1) + mat1.get(0, 2) * mat2.get(0, 2) + mat1.get(0, 3) * mat2.get(0, 3), mat1.get(0, 0) * mat2.get(1, 0) + mat1.get(0, 1)
+				* mat2.get(1, 1) + mat1.get(0, 2) * mat2.get(1, 2) + mat1.get(0, 3) * mat2.get(1, 3),
+				mat1.get(0, 0) * mat2.get(2, 0) + mat1.get(0, 1) * mat2.get(2, 1) + mat1.get(0, 2) * mat2.get(2, 2) + mat1.get(0, 3) * mat2.get(2, 3), mat1.get(0, 0) * mat2.get(3, 0) + mat1.get(0, 1)
+						* mat2.get(3, 1) + mat1.get(0, 2) * mat2.get(3, 2) + mat1.get(0, 3) * mat2.get(3, 3),
+				mat1.get(1, 0) * mat2.get(0, 0) + mat1.get(1, 1) * mat2.get(0, 1) + mat1.get(1, 2) * mat2.get(0, 2) + mat1.get(1, 3) * mat2.get(0, 3), mat1.get(1, 0) * mat2.get(1, 0) + mat1.get(1, 1)
+						* mat2.get(1, 1) + mat1.get(1, 2) * mat2.get(1, 2) + mat1.get(1, 3) * mat2.get(1, 3),
+				mat1.get(1, 0) * mat2.get(2, 0) + mat1.get(1, 1) * mat2.get(2, 1) + mat1.get(1, 2) * mat2.get(2, 2) + mat1.get(1, 3) * mat2.get(2, 3), mat1.get(1, 0) * mat2.get(3, 0) + mat1.get(1, 1)
+						* mat2.get(3, 1) + mat1.get(1, 2) * mat2.get(3, 2) + mat1.get(1, 3) * mat2.get(3, 3),
+				mat1.get(2, 0) * mat2.get(0, 0) + mat1.get(2, 1) * mat2.get(0, 1) + mat1.get(2, 2) * mat2.get(0, 2) + mat1.get(2, 3) * mat2.get(0, 3), mat1.get(2, 0) * mat2.get(1, 0) + mat1.get(2, 1)
+						* mat2.get(1, 1) + mat1.get(2, 2) * mat2.get(1, 2) + mat1.get(2, 3) * mat2.get(1, 3),
+				mat1.get(2, 0) * mat2.get(2, 0) + mat1.get(2, 1) * mat2.get(2, 1) + mat1.get(2, 2) * mat2.get(2, 2) + mat1.get(2, 3) * mat2.get(2, 3), mat1.get(2, 0) * mat2.get(3, 0) + mat1.get(2, 1)
+						* mat2.get(3, 1) + mat1.get(2, 2) * mat2.get(3, 2) + mat1.get(2, 3) * mat2.get(3, 3),
+				mat1.get(3, 0) * mat2.get(0, 0) + mat1.get(3, 1) * mat2.get(0, 1) + mat1.get(3, 2) * mat2.get(0, 2) + mat1.get(3, 3) * mat2.get(0, 3), mat1.get(3, 0) * mat2.get(1, 0) + mat1.get(3, 1)
+						* mat2.get(1, 1) + mat1.get(3, 2) * mat2.get(1, 2) + mat1.get(3, 3) * mat2.get(1, 3),
+				mat1.get(3, 0) * mat2.get(2, 0) + mat1.get(3, 1) * mat2.get(2, 1) + mat1.get(3, 2) * mat2.get(2, 2) + mat1.get(3, 3) * mat2.get(2, 3), mat1.get(3, 0) * mat2.get(3, 0) + mat1.get(3, 1)
+						* mat2.get(3, 1) + mat1.get(3, 2) * mat2.get(3, 2) + mat1.get(3, 3) * mat2.get(3, 3));
+
+		return (this);
+	}
+
+	/**
+	 * Transform the vector vec using this Matrix4d and place the result into
+	 * vecOut.
+	 * 
+	 * @param vec the double precision vector to be transformed
+	 * @param vecOut the vector into which the transformed values are placed
+	 */
+	public final void transform(Vector4f vec, Vector4f vecOut) {
+		// alias-safe
+		vecOut.set((float) (m00() * vec.getX() + m01() * vec.getY() + m02() * vec.getZ() + m03() * vec.getW()), (float) (m10() * vec.getX() + m11() * vec.getY() + m12() * vec.getZ() + m13() * vec.getW()),
+				(float) (m20() * vec.getX() + m21() * vec.getY() + m22() * vec.getZ() + m23() * vec.getW()), (float) (m30() * vec.getX() + m31() * vec.getY() + m32() * vec.getZ() + m33() * vec.getW()));
+	}
+
+	/**
+	 * Transform the vector vec using this Matrix4d and place the result back
+	 * into vec.
+	 * 
+	 * @param vec the double precision vector to be transformed
+	 */
+	public final void transform(Vector4f vec) {
+		transform(vec, vec);
+	}
+
+	/**
+	 * Transforms the point parameter with this Matrix4d and places the result
+	 * into pointOut. The fourth element of the point input paramter is assumed
+	 * to be one.
+	 * 
+	 * @param point the input point to be transformed.
+	 * @param pointOut the transformed point
+	 */
+	public final void transform(Point3d point, Point3d pointOut) {
+		pointOut.set(m00() * point.getX() + m01() * point.getY() + m02() * point.getZ() + m03(), m10() * point.getX() + m11() * point.getY() + m12() * point.getZ() + m13(), m20() * point.getX()
+				+ m21() * point.getY() + m22() * point.getZ() + m23());
+	}
+
+	/**
+	 * Transforms the point parameter with this Matrix4d and places the result
+	 * back into point. The fourth element of the point input paramter is
+	 * assumed to be one.
+	 * 
+	 * @param point the input point to be transformed.
+	 */
+	public final void transform(Point3d point) {
+		transform(point, point);
+	}
+
+	/**
+	 * Transforms the normal parameter by this Matrix4d and places the value
+	 * into normalOut. The fourth element of the normal is assumed to be zero.
+	 * 
+	 * @param vec the input normal to be transformed.
+	 * @param vecOut the transformed normal
+	 */
+	public final void transform(Vector3d vec, Vector3d vecOut) {
+		vecOut.set(m00() * vec.getX() + m01() * vec.getY() + m02() * vec.getZ(), m10() * vec.getX() + m11() * vec.getY() + m12() * vec.getZ(),
+				m20() * vec.getX() + m21() * vec.getY() + m22() * vec.getZ());
+	}
+
+	/**
+	 * Transforms the normal parameter by this transform and places the value
+	 * back into normal. The fourth element of the normal is assumed to be zero.
+	 * 
+	 * @param vec the input normal to be transformed.
+	 */
+	public final void transform(Vector3d vec) {
+		transform(vec, vec);
+	}
+
+	/**
+	 * Transforms count points (with an implicit fourth element of one) by this matrix.
+	 * src and dst may be the same array at the same offset.
+	 * 
+	 * @param src
+	 * @param srcOffset
+	 * @param dst
+	 * @param dstOffset
+	 * @param count the number of tuples
+	 * @param stride the number of floats from one tuple to the next (at least 3)
+	 */
+	public final void transformPoints(double[] src, int srcOffset, double[] dst, int dstOffset, int count, int stride) {
+		MatrixUtils.transformAffine(m00(), m01(), m02(), m03(), m10(), m11(), m12(), m13(), m20(), m21(), m22(), m23(), src, srcOffset, dst, dstOffset, count, stride);
+	}
+
+	/**
+	 * Transforms count points (with an implicit fourth element of one) by this matrix.
+	 * The buffers are addressed absolutely, their positions are not changed.
+	 * 
+	 * @param src
+	 * @param srcOffset
+	 * @param dst
+	 * @param dstOffset
+	 * @param count the number of tuples
+	 * @param stride the number of floats from one tuple to the next (at least 3)
+	 */
+	public final void transformPoints(DoubleBuffer src, int srcOffset, DoubleBuffer dst, int dstOffset, int count, int stride) {
+		MatrixUtils.transformAffine(m00(), m01(), m02(), m03(), m10(), m11(), m12(), m13(), m20(), m21(), m22(), m23(), src, srcOffset, dst, dstOffset, count, stride);
+	}
+
+	/**
+	 * Transforms count directions (with an implicit fourth element of zero) by this matrix.
+	 * src and dst may be the same array at the same offset.
+	 * 
+	 * @param src
+	 * @param srcOffset
+	 * @param dst
+	 * @param dstOffset
+	 * @param count the number of tuples
+	 * @param stride the number of floats from one tuple to the next (at least 3)
+	 */
+	public final void transformDirections(double[] src, int srcOffset, double[] dst, int dstOffset, int count, int stride) {
+		MatrixUtils.transformAffine(m00(), m01(), m02(), 0d, m10(), m11(), m12(), 0d, m20(), m21(), m22(), 0d, src, srcOffset, dst, dstOffset, count, stride);
+	}
+
+	/**
+	 * Transforms count directions (with an implicit fourth element of zero) by this matrix.
+	 * The buffers are addressed absolutely, their positions are not changed.
+	 * 
+	 * @param src
+	 * @param srcOffset
+	 * @param dst
+	 * @param dstOffset
+	 * @param count the number of tuples
+	 * @param stride the number of floats from one tuple to the next (at least 3)
+	 */
+	public final void transformDirections(DoubleBuffer src, int srcOffset, DoubleBuffer dst, int dstOffset, int count, int stride) {
+		MatrixUtils.transformAffine(m00(), m01(), m02(), 0d, m10(), m11(), m12(), 0d, m20(), m21(), m22(), 0d, src, srcOffset, dst, dstOffset, count, stride);
+	}
+
+	/**
+	 * Transforms count normals by the inverse transpose of this matrix's upper 3x3 part.
+	 * The normals are not renormalized.
+	 * src and dst may be the same array at the same offset.
+	 * 
+	 * @param src
+	 * @param srcOffset
+	 * @param dst
+	 * @param dstOffset
+	 * @param count the number of tuples
+	 * @param stride the number of floats from one tuple to the next (at least 3)
+	 */
+	public final void transformNormals(double[] src, int srcOffset, double[] dst, int dstOffset, int count, int stride) {
+		MatrixUtils.transformNormals(m00(), m01(), m02(), m10(), m11(), m12(), m20(), m21(), m22(), src, srcOffset, dst, dstOffset, count, stride);
+	}
+
+	/**
+	 * Transforms count normals by the inverse transpose of this matrix's upper 3x3 part.
+	 * The normals are not renormalized.
+	 * The buffers are addressed absolutely, their positions are not changed.
+	 * 
+	 * @param src
+	 * @param srcOffset
+	 * @param dst
+	 * @param dstOffset
+	 * @param count the number of tuples
+	 * @param stride the number of floats from one tuple to the next (at least 3)
+	 */
+	public final void transformNormals(DoubleBuffer src, int srcOffset, DoubleBuffer dst, int dstOffset, int count, int stride) {
+		MatrixUtils.transformNormals(m00(), m01(), m02(), m10(), m11(), m12(), m20(), m21(), m22(), src, srcOffset, dst, dstOffset, count, stride);
+	}
+
+	/**
+	 * Sets the rotational component (upper 3x3) of this matrix to the matrix
+	 * values in the double precision Matrix3d argument; the other elements of
+	 * this matrix are unchanged; a singular value decomposition is performed on
+	 * this object's upper 3x3 matrix to factor out the scale, then this
+	 * object's upper 3x3 matrix components are replaced by the passed rotation
+	 * components, and then the scale is reapplied to the rotational components.
+	 * 
+	 * @param mat double precision 3x3 matrix
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4d setRotation(Matrix3d mat) {
+		final double scale = SVD((Matrix3d) null);
+		setRotationScale(mat);
+		mulRotationScale(scale);
+
+		return (this);
+	}
+
+	/**
+	 * Sets the rotational component (upper 3x3) of this matrix to the matrix
+	 * equivalent values of the quaternion argument; the other elements of this
+	 * matrix are unchanged; a singular value decomposition is performed on this
+	 * object's upper 3x3 matrix to factor out the scale, then this object's
+	 * upper 3x3 matrix components are replaced by the matrix equivalent of the
+	 * quaternion, and then the scale is reapplied to the rotational components.
+	 * 
+	 * @param quat the quaternion that specifies the rotation
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4d setRotation(Quaternion4f quat) {
+		final double scale = SVD((Matrix3d) null, (Matrix4d) null);
+
+		// save other values
+		final double tx = get(0, 3);
+		final double ty = get(1, 3);
+		final double tz = get(2, 3);
+		final double w0 = get(3, 0);
+		final double w1 = get(3, 1);
+		final double w2 = get(3, 2);
+		final double w3 = get(3, 3);
+
+		set(quat);
+		mulRotationScale(scale);
+
+		// set back
+		set(0, 3, tx);
+		set(1, 3, ty);
+		set(2, 3, tz);
+		set(3, 0, w0);
+		set(3, 1, w1);
+		set(3, 2, w2);
+		set(3, 3, w3);
+
+		return (this);
+	}
+
+	/**
+	 * Sets the rotational component (upper 3x3) of this matrix to the matrix
+	 * equivalent values of the axis-angle argument; the other elements of this
+	 * matrix are unchanged; a singular value decomposition is performed on this
+	 * object's upper 3x3 matrix to factor out the scale, then this object's
+	 * upper 3x3 matrix components are replaced by the matrix equivalent of the
+	 * axis-angle, and then the scale is reapplied to the rotational components.
+	 * 
+	 * @param aa the axis-angle to be converted (x, y, z, angle)
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4d setRotation(AxisAngle3f aa) {
+		final double scale = SVD((Matrix3d) null, (Matrix4d) null);
+		// save other values
+		final double tx = get(0, 3);
+		final double ty = get(1, 3);
+		final double tz = get(2, 3);
+		final double w0 = get(3, 0);
+		final double w1 = get(3, 1);
+		final double w2 = get(3, 2);
+		final double w3 = get(3, 3);
+
+		set(aa);
+		mulRotationScale(scale);
+
+		// set back
+		set(0, 3, tx);
+		set(1, 3, ty);
+		set(2, 3, tz);
+		set(3, 0, w0);
+		set(3, 1, w1);
+		set(3, 2, w2);
+		set(3, 3, w3);
+
+		return (this);
+	}
+
+	/**
+	 * Builds a rotation matrix.
+	 * 
+	 * @param tup
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4d setRotation(Tuple3d tup) {
+		final double cx = Math.cos(tup.getX());
+		final double sx = Math.sin(tup.getX());
+		final double cy = Math.cos(tup.getY());
+		final double sy = Math.sin(tup.getY());
+		final double cz = Math.cos(tup.getZ());
+		final double sz = Math.sin(tup.getZ());
+
+		this.m00(cy * cz);
+		this.m01(cy * sz);
+		this.m02(-sy);
+
+		this.m10(sx * sy * cz - cx * sz);
+		this.m11(sx * sy * sz + cx * cz);
+		this.m12(sx * cy);
+
+		this.m20(cx * sy * cz + sx * sz);
+		this.m21(cx * sy * sz - sx * cz);
+		this.m22(cx * cy);
+
+		this.m33(1.0d);
+
+		return (this);
+	}
+
+	/**
+	 * Builds an inverse rotation matrix.
+	 * 
+	 * @param tup
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4d setInvRotation(Tuple3d tup) {
+		final double cx = Math.cos(tup.getX());
+		final double sx = Math.sin(tup.getX());
+		final double cy = Math.cos(tup.getY());
+		final double sy = Math.sin(tup.getY());
+		final double cz = Math.cos(tup.getZ());
+		final double sz = Math.sin(tup.getZ());
+
+		this.m00(cy * cz);
+		this.m10(cy * sz);
+		this.m20(-sy);
+
+		this.m01(sx * sy * cz - cx * sz);
+		this.m11(sx * sy * sz + cx * cz);
+		this.m21(sx * cy);
+
+		this.m02(cx * sy * cz + sx * sz);
+		this.m12(cx * sy * sz - sx * cz);
+		this.m22(cx * cy);
+
+		return (this);
+	}
+
+	/**
+	 * Interpolates each value of this Matrix by the value alpha.
+	 * 
+	 * Mxy = M1xy + ( ( M2xy - M1xy ) * alpha )
+	 * 
+	 * @param m1
+	 * @param m2
+	 * @param alpha
+	 * @param interpolateLastLine
+	 */
+	public void interpolate(Matrix4d m1, Matrix4d m2, double alpha, boolean interpolateLastLine) {
+		if (this.isReadOnly())
+			throw new Error("This is a read-only Matrix");
+
+		this.values[0] = m1.values[0] + ((m2.values[0] - m1.values[0]) * alpha);
+		this.values[1] = m1.values[1] + ((m2.values[1] - m1.values[1]) * alpha);
+		this.values[2] = m1.values[2] + ((m2.values[2] - m1.values[2]) * alpha);
+		this.values[3] = m1.values[3] + ((m2.values[3] - m1.values[3]) * alpha);
+		this.values[4] = m1.values[4] + ((m2.values[4] - m1.values[4]) * alpha);
+		this.values[5] = m1.values[5] + ((m2.values[5] - m1.values[5]) * alpha);
+		this.values[6] = m1.values[6] + ((m2.values[6] - m1.values[6]) * alpha);
+		this.values[7] = m1.values[7] + ((m2.values[7] - m1.values[7]) * alpha);
+		this.values[8] = m1.values[8] + ((m2.values[8] - m1.values[8]) * alpha);
+		this.values[9] = m1.values[9] + ((m2.values[9] - m1.values[9]) * alpha);
+		this.values[10] = m1.values[10] + ((m2.values[10] - m1.values[10]) * alpha);
+		this.values[11] = m1.values[11] + ((m2.values[11] - m1.values[11]) * alpha);
+		if (interpolateLastLine) {
+			this.values[12] = m1.values[12] + ((m2.values[12] - m1.values[12]) * alpha);
+			this.values[13] = m1.values[13] + ((m2.values[13] - m1.values[13]) * alpha);
+			this.values[14] = m1.values[14] + ((m2.values[14] - m1.values[14]) * alpha);
+			this.values[15] = m1.values[15] + ((m2.values[15] - m1.values[15]) * alpha);
+		}
+
+		this.isDirty[0] = true;
+	}
+
+	/**
+	 * Interpolates each value of this Matrix by the value alpha.
+	 * 
+	 * Mxy = M1xy + ( ( M2xy - M1xy ) * alpha )
+	 * 
+	 * @param m1
+	 * @param m2
+	 * @param alpha
+	 */
+	public final void interpolate(Matrix4d m1, Matrix4d m2, double alpha) {
+		interpolate(m1, m2, alpha, true);
+	}
+
+	/**
+	 * Returns a hash number based on the data values in this object. Two
+	 * different Matrix4d objects with identical data values (ie, returns true
+	 * for equals(Matrix4d) ) will return the same hash number. Two objects with
+	 * different data members may return the same hash value, although this is
+	 * not likely.
+	 * 
+	 * @return the integer hash value
+	 */
+	@Override
+	public int hashCode() {
+		int hash = 0;
+		for (int r = 0; r < getNumRows(); r++) {
+			for (int c = 0; c < getNumCols(); c++) {
+				long bits = VecMathUtils.doubleToLongBits(get(r, c));
+				hash ^= (bits ^ (bits >> 32));
+			}
+		}
+
+		return (hash);
+	}
+
+	/**
+	 * Returns true if all of the data members of Matrix4d m1 are equal to the
+	 * corresponding data members in this Matrix4d.
+	 * 
+	 * @param mat2 The matrix with which the comparison is made.
+	 * @return true or false
+	 */
+	public boolean equals(Matrix4d mat2) {
+		return (super.equals(mat2));
+	}
+
+	/**
+	 * Returns true if the Object o1 is of type Matrix4d and all of the data
+	 * members of t1 are equal to the corresponding data members in this
+	 * Matrix4d.
+	 * 
+	 * @param o the object with which the comparison is made.
+	 */
+	@Override
+	public boolean equals(Object o) {
+		return (o != null && ((o instanceof Matrix4d) && equals((Matrix4d) o)));
+	}
+
+	/**
+	 * Returns true if the L-infinite distance between this matrix and matrix m1
+	 * is less than or equal to the epsilon parameter, otherwise returns false.
+	 * The L-infinite distance is equal to MAX[i=0,1,2,3 ; j=0,1,2,3 ;
+	 * abs(this.m(i,j) - m1.m(i,j)]
+	 * 
+	 * @param mat2 The matrix to be compared to this matrix
+	 * @param epsilon the threshold value
+	 */
+	public boolean epsilonEquals(Matrix4d mat2, double epsilon) {
+		return (super.epsilonEquals(mat2, epsilon));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Matrix4d clone() {
+		return (new Matrix4d(this));
+	}
+
+	/**
+	 * Performs SVD on this matrix and gets scale and rotation. Rotation is
+	 * placed into rot.
+	 * 
+	 * @param rot3 the rotation factor(Matrix3d).
+	 * @param rot4 the rotation factor(Matrix4d) only upper 3x3 elements are
+	 *            changed.
+	 * @return scale factor
+	 */
+	private final double SVD(Matrix3d rot3, Matrix4d rot4) {
+		// this is a simple svd.
+		// Not complete but fast and reasonable.
+		// See comment in Matrix3d.
+
+		final double s = FastMathd.sqrt((get(0, 0) * get(0, 0) + get(1, 0) * get(1, 0) + get(2, 0) * get(2, 0) + get(0, 1) * get(0, 1) + get(1, 1) * get(1, 1) + get(2, 1) * get(2, 1) + get(0, 2)
+				* get(0, 2) + get(1, 2) * get(1, 2) + get(2, 2) * get(2, 2)) / 3.0d);
+
+		// zero-div may occur.
+		final double t = (s == 0.0d ? 0.0d : 1.0d / s);
+
+		if (rot3 != null) {
+			this.getRotationScale(rot3);
+			rot3.mul(t);
+		}
+
+		if (rot4 != null) {
+			if (rot4 != this)
+				rot4.setRotationScale(this); // private method
+			rot4.mulRotationScale(t); // private method
+		}
+
+		return (s);
+	}
+
+	/**
+	 * Performs SVD on this matrix and gets the scale and the pure rotation. The
+	 * pure rotation is placed into rot.
+	 * 
+	 * @param rot the rotation factor.
+	 * @return scale factor
+	 */
+	private final double SVD(Matrix3d rot) {
+		// this is a simple svd.
+		// Not complete but fast and reasonable.
+		// See comment in Matrix3d.
+
+		final double s = FastMathd.sqrt((get(0, 0) * get(0, 0) + get(1, 0) * get(1, 0) + get(2, 0) * get(2, 0) + get(0, 1) * get(0, 1) + get(1, 1) * get(1, 1) + get(2, 1) * get(2, 1) + get(0, 2)
+				* get(0, 2) + get(1, 2) * get(1, 2) + get(2, 2) * get(2, 2)) / 3.0d);
+
+		// zero-div may occur.
+		final double t = (s == 0.0d ? 0.0d : 1.0d / s);
+
+		if (rot != null) {
+			this.getRotationScale(rot);
+			rot.mul(t);
+		}
+
+		return (s);
+	}
+
+	/**
+	 * Multiplies 3x3 upper elements of this matrix by a scalar. The other
+	 * elements are unchanged.
+	 */
+	private final void mulRotationScale(double scale) {
+		set(0, 0, get(0, 0) * scale);
+		set(0, 1, get(0, 1) * scale);
+		set(0, 2, get(0, 2) * scale);
+		set(1, 0, get(1, 0) * scale);
+		set(1, 1, get(1, 1) * scale);
+		set(1, 2, get(1, 2) * scale);
+		set(2, 0, get(2, 0) * scale);
+		set(2, 1, get(2, 1) * scale);
+		set(2, 2, get(2, 2) * scale);
+	}
+
+	/**
+	 * Sets only 3x3 upper elements of this matrix to that of m1. The other
+	 * elements are unchanged.
+	 */
+	private final void setRotationScale(Matrix4d that) {
+		this.set(0, 0, that.get(0, 0));
+		this.set(0, 1, that.get(0, 1));
+		this.set(0, 2, that.get(0, 2));
+		this.set(1, 0, that.get(1, 0));
+		this.set(1, 1, that.get(1, 1));
+		this.set(1, 2, that.get(1, 2));
+		this.set(2, 0, that.get(2, 0));
+		this.set(2, 1, that.get(2, 1));
+		this.set(2, 2, that.get(2, 2));
+	}
+
+	private final void setFromQuat(double a, double b, double c, double d) {
+		final double n = a * a + b * b + c * c + d * d;
+		final double s = (n > 0.0d) ? (2.0d / n) : 0.0d;
+
+		final double xs = a * s, ys = b * s, zs = c * s;
+		final double wx = d * xs, wy = d * ys, wz = d * zs;
+		final double xx = a * xs, xy = a * ys, xz = a * zs;
+		final double yy = b * ys, yz = b * zs, zz = c * zs;
+
+		setIdentity();
+
+		set(0, 0, 1.0d - (yy + zz));
+		set(0, 1, xy - wz);
+		set(0, 2, xz + wy);
+		set(1, 0, xy + wz);
+		set(1, 1, 1.0d - (xx + zz));
+		set(1, 2, yz - wx);
+		set(2, 0, xz - wy);
+		set(2, 1, yz + wx);
+		set(2, 2, 1.0d - (xx + yy));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Matrix4d asReadOnly() {
+		return (new Matrix4d(true, this.dataBegin, this.colSkip, this.values, this.isDirty));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Matrix4d getReadOnly() {
+		if (readOnlyInstance == null)
+			readOnlyInstance = asReadOnly();
+
+		return (readOnlyInstance);
+	}
+
+	private final void setFromAxisAngle(double x, double y, double z, double angle) {
+		// Taken from Rick's which is taken from Wertz. pg. 412
+		// Bug Fixed and changed into right-handed by hiranabe
+		// zero-div may occur
+		final double n = 1.0d / FastMathd.sqrt(x * x + y * y + z * z);
+
+		x *= n;
+		y *= n;
+		z *= n;
+
+		final double c = Math.cos(angle);
+		final double s = Math.sin(angle);
+		final double omc = 1.0d - c;
+
+		this.set(0, 0, c + x * x * omc);
+		this.set(1, 1, c + y * y * omc);
+		this.set(2, 2, c + z * z * omc);
+
+		double tmp1 = x * y * omc;
+		double tmp2 = z * s;
+		this.set(0, 1, tmp1 - tmp2);
+		this.set(1, 0, tmp1 + tmp2);
+
+		tmp1 = x * z * omc;
+		tmp2 = y * s;
+		this.set(0, 2, tmp1 + tmp2);
+		this.set(2, 0, tmp1 - tmp2);
+
+		tmp1 = y * z * omc;
+		tmp2 = x * s;
+		this.set(1, 2, tmp1 - tmp2);
+		this.set(2, 1, tmp1 + tmp2);
+	}
+
+	/**
+	 * Constructs and initializes a Matrix4d to all zeros.
+	 * 
+	 * @param readOnly
+	 */
+	protected Matrix4d(boolean readOnly) {
+		super(readOnly, 4, 4);
+
+		Arrays.fill(this.values, 0.0d);
+	}
+
+	/**
+	 * Constructs and initializes a Matrix4d from the specified 16 values.
+	 * 
+	 * @param readOnly
+	 * @param m00 the [0][0] element
+	 * @param m01 the [0][1] element
+	 * @param m02 the [0][2] element
+	 * @param m03 the [0][3] element
+	 * @param m10 the [1][0] element
+	 * @param m11 the [1][1] element
+	 * @param m12 the [1][2] element
+	 * @param m13 the [1][3] element
+	 * @param m20 the [2][0] element
+	 * @param m21 the [2][1] element
+	 * @param m22 the [2][2] element
+	 * @param m23 the [2][3] element
+	 * @param m30 the [3][0] element
+	 * @param m31 the [3][1] element
+	 * @param m32 the [3][2] element
+	 * @param m33 the [3][3] element
+	 */
+	protected Matrix4d(boolean readOnly, double m00, double m01, double m02, double m03, double m10, double m11, double m12, double m13, double m20, double m21, double m22, double m23, double m30, double m31,
+			double m32, double m33) {
+		super(readOnly, 4, 4);
+
+		this.values[0 * getNumCols() + 0] = m00;
+		this.values[0 * getNumCols() + 1] = m01;
+		this.values[0 * getNumCols() + 2] = m02;
+		this.values[0 * getNumCols() + 3] = m03;
+		this.values[1 * getNumCols() + 0] = m10;
+		this.values[1 * getNumCols() + 1] = m11;
+		this.values[1 * getNumCols() + 2] = m12;
+		this.values[1 * getNumCols() + 3] = m13;
+		this.values[2 * getNumCols() + 0] = m20;
+		this.values[2 * getNumCols() + 1] = m21;
+		this.values[2 * getNumCols() + 2] = m22;
+		this.values[2 * getNumCols() + 3] = m23;
+		this.values[3 * getNumCols() + 0] = m30;
+		this.values[3 * getNumCols() + 1] = m31;
+		this.values[3 * getNumCols() + 2] = m32;
+		this.values[3 * getNumCols() + 3] = m33;
+	}
+
+	/**
+	 * Constructs and initializes a Matrix4d from the specified 16 element
+	 * array. this.m00 =v[0], this.m01=v[1], etc.
+	 * 
+	 * @param readOnly
+	 * @param values the array of length 16 containing in order
+	 */
+	protected Matrix4d(boolean readOnly, double[] values) {
+		super(readOnly, 4, 4);
+
+		final int size = getNumRows() * getNumCols();
+		System.arraycopy(values, 0, this.values, 0, size);
+	}
+
+	/**
+	 * Constructs and initializes a Matrix4d from the quaternion, translation,
+	 * and scale values; the scale is applied only to the rotational components
+	 * of the matrix (upper 3x3) and not to the translational components.
+	 * 
+	 * @param readOnly
+	 * @param rot The quaternion value representing the rotational component
+	 * @param pos The translational component of the matrix
+	 * @param scale The scale value applied to the rotational components
+	 */
+	protected Matrix4d(boolean readOnly, Quaternion4f rot, Tuple3d pos, double scale) {
+		super(readOnly, 4, 4);
+
+		setFromQuat(rot.getA(), rot.getB(), rot.getC(), rot.getD());
+
+		this.values[0 * getNumCols() + 0] *= scale;
+		this.values[0 * getNumCols() + 1] *= scale;
+		this.values[0 * getNumCols() + 2] *= scale;
+		this.values[1 * getNumCols() + 0] *= scale;
+		this.values[1 * getNumCols() + 1] *= scale;
+		this.values[1 * getNumCols() + 2] *= scale;
+		this.values[2 * getNumCols() + 0] *= scale;
+		this.values[2 * getNumCols() + 1] *= scale;
+		this.values[2 * getNumCols() + 2] *= scale;
+
+		this.values[0 * getNumCols() + 3] = pos.getX();
+		this.values[1 * getNumCols() + 3] = pos.getY();
+		this.values[2 * getNumCols() + 3] = pos.getZ();
+	}
+
+	/**
+	 * Constructs and initializes a Matrix4d from the rotation matrix,
+	 * translation, and scale values; the scale is applied only to the
+	 * rotational components of the matrix (upper 3x3) and not to the
+	 * translational components.
+	 * 
+	 * @param readOnly
+	 * @param pos The translational components of the matrix
+	 * @param rot The rotation matrix representing the rotational components
+	 * @param scale The scale value applied to the rotational components
+	 */
+	protected Matrix4d(boolean readOnly, Tuple3d pos, Matrix3d rot, double scale) {
+		super(readOnly, 4, 4);
+
+		this.values[0] = rot.m00();
+		this.values[1] = rot.m01();
+		this.values[2] = rot.m02();
+		this.values[getNumCols() + 0] = rot.m10();
+		this.values[getNumCols() + 1] = rot.m11();
+		this.values[getNumCols() + 2] = rot.m12();
+		this.values[2 * getNumCols() + 0] = rot.m20();
+		this.values[2 * getNumCols() + 1] = rot.m21();
+		this.values[2 * getNumCols() + 2] = rot.m22();
+		this.values[3 * getNumCols() + 0] = 0.0d;
+		this.values[3 * getNumCols() + 1] = 0.0d;
+		this.values[3 * getNumCols() + 2] = 0.0d;
+		this.values[3 * getNumCols() + 3] = 1.0d;
+
+		this.values[0 * getNumCols() + 0] *= scale;
+		this.values[0 * getNumCols() + 1] *= scale;
+		this.values[0 * getNumCols() + 2] *= scale;
+		this.values[1 * getNumCols() + 0] *= scale;
+		this.values[1 * getNumCols() + 1] *= scale;
+		this.values[1 * getNumCols() + 2] *= scale;
+		this.values[2 * getNumCols() + 0] *= scale;
+		this.values[2 * getNumCols() + 1] *= scale;
+		this.values[2 * getNumCols() + 2] *= scale;
+
+		this.values[0 * getNumCols() + 3] = pos.getX();
+		this.values[1 * getNumCols() + 3] = pos.getY();
+		this.values[2 * getNumCols() + 3] = pos.getZ();
+
+		this.values[3 * getNumCols() + 3] = 1.0d;
+	}
+
+	/**
+	 * Constructs a new matrix with the same values as the Matrix4d parameter.
+	 * 
+	 * @param readOnly
+	 * @param mat The source matrix.
+	 */
+	protected Matrix4d(boolean readOnly, Matrix4d mat) {
+		this(readOnly, mat.m00(), mat.m01(), mat.m02(), mat.m03(), mat.m10(), mat.m11(), mat.m12(), mat.m13(), mat.m20(), mat.m21(), mat.m22(), mat.m23(), mat.m30(), mat.m31(), mat.m32(), mat.m33());
+	}
+
+	/**
+	 * Constructs a new matrix with the same values as the Matrix3d parameter.
+	 * 
+	 * @param readOnly
+	 * @param mat The source matrix.
+	 */
+	protected Matrix4d(boolean readOnly, Matrix3d mat) {
+		this(readOnly, mat.m00(), mat.m01(), mat.m02(), 0d, mat.m10(), mat.m11(), mat.m12(), 0d, mat.m20(), mat.m21(), mat.m22(), 0d, 0d, 0d, 0d, 1d);
+	}
+
+	/**
+	 * Hidden constructor for #sharedSubMatrix3d(MatrixMxNd, int, int).
+	 * 
+	 * @param readOnly
+	 * @param dataBegin
+	 * @param colSkip
+	 * @param values
+	 * @param isDirty
+	 */
+	protected Matrix4d(boolean readOnly, int dataBegin, int colSkip, double[] values, boolean[] isDirty) {
+		super(readOnly, dataBegin, colSkip, 4, 4, values, isDirty);
+	}
+
+	/**
+	 * Constructs and initializes a Matrix4d to all zeros.
+	 */
+	public Matrix4d() {
+		this(false);
+	}
+
+	/**
+	 * Constructs and initializes a Matrix4d from the specified 16 values.
+	 * 
+	 * @param m00 the [0][0] element
+	 * @param m01 the [0][1] element
+	 * @param m02 the [0][2] element
+	 * @param m03 the [0][3] element
+	 * @param m10 the [1][0] element
+	 * @param m11 the [1][1] element
+	 * @param m12 the [1][2] element
+	 * @param m13 the [1][3] element
+	 * @param m20 the [2][0] element
+	 * @param m21 the [2][1] element
+	 * @param m22 the [2][2] element
+	 * @param m23 the [2][3] element
+	 * @param m30 the [3][0] element
+	 * @param m31 the [3][1] element
+	 * @param m32 the [3][2] element
+	 * @param m33 the [3][3] element
+	 */
+	public Matrix4d(double m00, double m01, double m02, double m03, double m10, double m11, double m12, double m13, double m20, double m21, double m22, double m23, double m30, double m31, double m32, double m33) {
+		this(false, m00, m01, m02, m03, m10, m11, m12, m13, m20, m21, m22, m23, m30, m31, m32, m33);
+	}
+
+	/**
+	 * Constructs and initializes a Matrix4d from the specified 16 element
+	 * array. this.m00 =v[0], this.m01=v[1], etc.
+	 * 
+	 * @param values the array of length 16 containing in order
+	 */
+	public Matrix4d(double[] values) {
+		this(false, values);
+	}
+
+	/**
+	 * Constructs and initializes a Matrix4d from the quaternion, translation,
+	 * and scale values; the scale is applied only to the rotational components
+	 * of the matrix (upper 3x3) and not to the translational components.
+	 * 
+	 * @param rot The quaternion value representing the rotational component
+	 * @param pos The translational component of the matrix
+	 * @param scale The scale value applied to the rotational components
+	 */
+	public Matrix4d(Quaternion4f rot, Tuple3d pos, double scale) {
+		this(false, rot, pos, scale);
+	}
+
+	/**
+	 * Constructs and initializes a Matrix4d from the rotation matrix,
+	 * translation, and scale values; the scale is applied only to the
+	 * rotational components of the matrix (upper 3x3) and not to the
+	 * translational components.
+	 * 
+	 * @param pos The translational components of the matrix
+	 * @param rot The rotation matrix representing the rotational components
+	 * @param scale The scale value applied to the rotational components
+	 */
+	public Matrix4d(Tuple3d pos, Matrix3d rot, double scale) {
+		this(false, pos, rot, scale);
+	}
+
+	/**
+	 * Constructs a new matrix with the same values as the Matrix4d parameter.
+	 * 
+	 * @param mat The source matrix.
+	 */
+	public Matrix4d(Matrix4d mat) {
+		this(false, mat);
+	}
+
+	/**
+	 * Constructs a new matrix with the same values as the Matrix3d parameter.
+	 * 
+	 * @param mat The source matrix.
+	 */
+	public Matrix4d(Matrix3d mat) {
+		this(false, mat);
+	}
+
+	/**
+	 * Hidden constructor for #sharedSubMatrix3d(MatrixMxNd, int, int).
+	 * 
+	 * @param dataBegin
+	 * @param colSkip
+	 * @param values
+	 * @param isDirty
+	 */
+	protected Matrix4d(int dataBegin, int colSkip, double[] values, boolean[] isDirty) {
+		this(false, dataBegin, colSkip, values, isDirty);
+	}
+
+	/**
+	 * Constructs and initializes a Matrix4d to all zeros.
+	 */
+	public static Matrix4d newReadOnly() {
+		return (new Matrix4d(true));
+	}
+
+	/**
+	 * Constructs and initializes a Matrix4d from the specified 16 values.
+	 * 
+	 * @param m00 the [0][0] element
+	 * @param m01 the [0][1] element
+	 * @param m02 the [0][2] element
+	 * @param m03 the [0][3] element
+	 * @param m10 the [1][0] element
+	 * @param m11 the [1][1] element
+	 * @param m12 the [1][2] element
+	 * @param m13 the [1][3] element
+	 * @param m20 the [2][0] element
+	 * @param m21 the [2][1] element
+	 * @param m22 the [2][2] element
+	 * @param m23 the [2][3] element
+	 * @param m30 the [3][0] element
+	 * @param m31 the [3][1] element
+	 * @param m32 the [3][2] element
+	 * @param m33 the [3][3] element
+	 */
+	public static Matrix4d newReadOnly(double m00, double m01, double m02, double m03, double m10, double m11, double m12, double m13, double m20, double m21, double m22, double m23, double m30, double m31,
+			double m32, double m33) {
+		return (new Matrix4d(true, m00, m01, m02, m03, m10, m11, m12, m13, m20, m21, m22, m23, m30, m31, m32, m33));
+	}
+
+	/**
+	 * Constructs and initializes a Matrix4d from the specified 16 element
+	 * array. this.m00 =v[0], this.m01=v[1], etc.
+	 * 
+	 * @param values the array of length 16 containing in order
+	 */
+	public static Matrix4d newReadOnly(double[] values) {
+		return (new Matrix4d(true, values));
+	}
+
+	/**
+	 * Constructs and initializes a Matrix4d from the quaternion, translation,
+	 * and scale values; the scale is applied only to the rotational components
+	 * of the matrix (upper 3x3) and not to the translational components.
+	 * 
+	 * @param rot The quaternion value representing the rotational component
+	 * @param pos The translational component of the matrix
+	 * @param scale The scale value applied to the rotational components
+	 */
+	public static Matrix4d newReadOnly(Quaternion4f rot, Tuple3d pos, double scale) {
+		return (new Matrix4d(true, rot, pos, scale));
+	}
+
+	/**
+	 * Constructs and initializes a Matrix4d from the rotation matrix,
+	 * translation, and scale values; the scale is applied only to the
+	 * rotational components of the matrix (upper 3x3) and not to the
+	 * translational components.
+	 * 
+	 * @param pos The translational components of the matrix
+	 * @param rot The rotation matrix representing the rotational components
+	 * @param scale The scale value applied to the rotational components
+	 */
+	public static Matrix4d newReadOnly(Tuple3d pos, Matrix3d rot, double scale) {
+		return (new Matrix4d(true, pos, rot, scale));
+	}
+
+	/**
+	 * Constructs a new matrix with the same values as the Matrix4d parameter.
+	 * 
+	 * @param mat The source matrix.
+	 */
+	public static Matrix4d newReadOnly(Matrix4d mat) {
+		return (new Matrix4d(true, mat));
+	}
+
+	/**
+	 * Constructs a new matrix with the same values as the Matrix3d parameter.
+	 * 
+	 * @param mat The source matrix.
+	 */
+	public static Matrix4d newReadOnly(Matrix3d mat) {
+		return (new Matrix4d(true, mat));
+	}
+
+	/**
+	 * Creates a Submatrix of mat, that begins in beginRow and beginCol.<br>
+	 * Example: let mat be a 4x4 matrix, and we want to have a 2x2 submatrix at position (1,2):<br>
+	 * <tt>
+	 * x x x x <br>
+	 * x x y y <br>
+	 * x x y y <br>
+	 * x x x x <br> </tt>
+	 * 
+	 * the y's mark the fetched Submatrix.
+	 * <br>
+	 * The produced submatrix works on the same data array as mat, so changes are seen on the other one respectively.
+	 * 
+	 * @param mat the parent matrix
+	 * @param beginRow the row to start this matrix at
+	 * @param beginCol the column to start this matrix at
+	 * 
+	 * @return the new shared submatrix
+	 * 
+	 * @see #Matrix4d(int, int, double[])
+	 */
+	public static Matrix4d sharedSubMatrix4d(MatrixMxNd mat, int beginRow, int beginCol) {
+		return (new Matrix4d(beginRow, beginCol, mat.values, null));
+	}
+
+	/**
+	 * Allocates an Matrix4d instance from the pool.
+	 */
+	public static Matrix4d fromPool() {
+		return (POOL.get().alloc());
+	}
+
+	/**
+	 * Stores the given Matrix3d instance in the pool.
+	 * 
+	 * @param o
+	 */
+	public static void toPool(Matrix4d o) {
+		POOL.get().free(o);
+	}
+}
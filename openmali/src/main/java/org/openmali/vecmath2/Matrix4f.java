@@ -34,10 +34,12 @@
 package org.openmali.vecmath2;
 
 import java.io.Externalizable;
+import java.nio.FloatBuffer;
 import java.util.Arrays;
 
 import org.openmali.FastMath;
 import org.openmali.vecmath2.pools.Matrix4fPool;
+import org.openmali.vecmath2.util.MatrixUtils;
 import org.openmali.vecmath2.util.VecMathUtils;
 
 /**
@@ -80,6 +82,12 @@ public class Matrix4f extends MatrixMxNf implements Externalizable {
 		}
 	};
 
+	/**
+	 * Maximum deviation of the dot products of the upper 3x3 rows from the
+	 * identity, below which {@link #invert()} treats the matrix as rigid.
+	 */
+	private static final float ORTHONORMAL_EPSILON = 1.0e-5f;
+
 	private Matrix4f readOnlyInstance = null;
 
 	protected static final int M = 4;
@@ -1003,10 +1011,170 @@ public class Matrix4f extends MatrixMxNf implements Externalizable {
 	}
 
 	/**
-	 * {@inheritDoc}
+	 * Checks, if the last row of this matrix is (0, 0, 0, 1), which is the case
+	 * for all affine transforms.
+	 * 
+	 * @return true, if this matrix is affine
+	 */
+	public final boolean isAffine() {
+		return ((m30() == 0.0f) && (m31() == 0.0f) && (m32() == 0.0f) && (m33() == 1.0f));
+	}
+
+	/**
+	 * Checks, if this matrix is affine and its upper 3x3 part is orthonormal,
+	 * i.e. the matrix only rotates (or mirrors) and translates.
+	 * 
+	 * @return true, if this matrix is a rigid transform
+	 */
+	public final boolean isRigid() {
+		return (isAffine() && isOrthonormal3x3());
+	}
+
+	private final boolean isOrthonormal3x3() {
+		final float m00 = m00(), m01 = m01(), m02 = m02();
+		final float m10 = m10(), m11 = m11(), m12 = m12();
+		final float m20 = m20(), m21 = m21(), m22 = m22();
+
+		if (Math.abs(m00 * m00 + m01 * m01 + m02 * m02 - 1.0f) > ORTHONORMAL_EPSILON)
+			return (false);
+		if (Math.abs(m10 * m10 + m11 * m11 + m12 * m12 - 1.0f) > ORTHONORMAL_EPSILON)
+			return (false);
+		if (Math.abs(m20 * m20 + m21 * m21 + m22 * m22 - 1.0f) > ORTHONORMAL_EPSILON)
+			return (false);
+		if (Math.abs(m00 * m10 + m01 * m11 + m02 * m12) > ORTHONORMAL_EPSILON)
+			return (false);
+		if (Math.abs(m00 * m20 + m01 * m21 + m02 * m22) > ORTHONORMAL_EPSILON)
+			return (false);
+		if (Math.abs(m10 * m20 + m11 * m21 + m12 * m22) > ORTHONORMAL_EPSILON)
+			return (false);
+
+		return (true);
+	}
+
+	/**
+	 * Sets the value of this matrix to its inverse, assuming that it is a rigid
+	 * transform (orthonormal upper 3x3 part and a last row of (0, 0, 0, 1)).
+	 * The rotation is transposed and the translation is rotated back and
+	 * negated. The result is undefined for any other matrix.
+	 * 
+	 * @see #isRigid()
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4f invertRigid() {
+		final float m00 = m00(), m01 = m01(), m02 = m02(), m03 = m03();
+		final float m10 = m10(), m11 = m11(), m12 = m12(), m13 = m13();
+		final float m20 = m20(), m21 = m21(), m22 = m22(), m23 = m23();
+
+		set(m00, m10, m20, -(m00 * m03 + m10 * m13 + m20 * m23), m01, m11, m21, -(m01 * m03 + m11 * m13 + m21 * m23), m02, m12, m22, -(m02 * m03 + m12 * m13 + m22 * m23), 0.0f, 0.0f, 0.0f, 1.0f);
+
+		return (this);
+	}
+
+	/**
+	 * Sets the value of this matrix to the inverse of the passed rigid
+	 * transform.
+	 * 
+	 * @see #invertRigid()
+	 * 
+	 * @param mat the matrix to be inverted
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4f invertRigid(Matrix4f mat) {
+		set(mat);
+		invertRigid();
+
+		return (this);
+	}
+
+	/**
+	 * Sets the value of this matrix to its inverse, assuming that it is an
+	 * affine transform (last row of (0, 0, 0, 1)). Only the upper 3x3 part is
+	 * inverted and the translation is transformed by it and negated. The last
+	 * row is not read. If the upper 3x3 part is singular, the matrix is left
+	 * untouched.
+	 * 
+	 * @see #isAffine()
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4f invertAffine() {
+		final float m00 = m00(), m01 = m01(), m02 = m02(), m03 = m03();
+		final float m10 = m10(), m11 = m11(), m12 = m12(), m13 = m13();
+		final float m20 = m20(), m21 = m21(), m22 = m22(), m23 = m23();
+
+		final float c00 = m11 * m22 - m12 * m21;
+		final float c01 = m12 * m20 - m10 * m22;
+		final float c02 = m10 * m21 - m11 * m20;
+
+		float d = m00 * c00 + m01 * c01 + m02 * c02;
+		if (d == 0.0f)
+			return (this);
+		d = 1.0f / d;
+
+		if (isReadOnly())
+			throw new Error("This is a read-only Matrix");
+
+		final float i00 = c00 * d;
+		final float i01 = (m02 * m21 - m01 * m22) * d;
+		final float i02 = (m01 * m12 - m02 * m11) * d;
+		final float i10 = c01 * d;
+		final float i11 = (m00 * m22 - m02 * m20) * d;
+		final float i12 = (m02 * m10 - m00 * m12) * d;
+		final float i20 = c02 * d;
+		final float i21 = (m01 * m20 - m00 * m21) * d;
+		final float i22 = (m00 * m11 - m01 * m10) * d;
+
+		set(i00, i01, i02, -(i00 * m03 + i01 * m13 + i02 * m23), i10, i11, i12, -(i10 * m03 + i11 * m13 + i12 * m23), i20, i21, i22, -(i20 * m03 + i21 * m13 + i22 * m23), 0.0f, 0.0f, 0.0f, 1.0f);
+
+		return (this);
+	}
+
+	/**
+	 * Sets the value of this matrix to the inverse of the passed affine
+	 * transform.
+	 * 
+	 * @see #invertAffine()
+	 * 
+	 * @param mat the matrix to be inverted
+	 * 
+	 * @return itself
+	 */
+	public final Matrix4f invertAffine(Matrix4f mat) {
+		set(mat);
+		invertAffine();
+
+		return (this);
+	}
+
+	/**
+	 * Sets the value of this matrix to its inverse.<br>
+	 * Rigid and affine transforms are detected and inverted by
+	 * {@link #invertRigid()} and {@link #invertAffine()}. All other matrices
+	 * are inverted by the full cofactor expansion.
+	 * 
+	 * @return itself
 	 */
 	@Override
 	public Matrix4f invert() {
+		if (isAffine()) {
+			if (isOrthonormal3x3())
+				return (invertRigid());
+
+			return (invertAffine());
+		}
+
+		return (invertGeneral());
+	}
+
+	/**
+	 * Sets the value of this matrix to its inverse by the full cofactor
+	 * expansion, regardless of its structure.
+	 * 
+	 * @return itself
+	 */
+	public Matrix4f invertGeneral() {
 		float d = determinant();
 		if (d == 0.0f)
 			return (this);
@@ -1479,6 +1647,98 @@ public class Matrix4f extends MatrixMxNf implements Externalizable {
 		transform(vec, vec);
 	}
 
+	/**
+	 * Transforms count points (with an implicit fourth element of one) by this matrix.
+	 * src and dst may be the same array at the same offset.
+	 * 
+	 * @param src
+	 * @param srcOffset
+	 * @param dst
+	 * @param dstOffset
+	 * @param count the number of tuples
+	 * @param stride the number of floats from one tuple to the next (at least 3)
+	 */
+	public final void transformPoints(float[] src, int srcOffset, float[] dst, int dstOffset, int count, int stride) {
+		MatrixUtils.transformAffine(m00(), m01(), m02(), m03(), m10(), m11(), m12(), m13(), m20(), m21(), m22(), m23(), src, srcOffset, dst, dstOffset, count, stride);
+	}
+
+	/**
+	 * Transforms count points (with an implicit fourth element of one) by this matrix.
+	 * The buffers are addressed absolutely, their positions are not changed.
+	 * 
+	 * @param src
+	 * @param srcOffset
+	 * @param dst
+	 * @param dstOffset
+	 * @param count the number of tuples
+	 * @param stride the number of floats from one tuple to the next (at least 3)
+	 */
+	public final void transformPoints(FloatBuffer src, int srcOffset, FloatBuffer dst, int dstOffset, int count, int stride) {
+		MatrixUtils.transformAffine(m00(), m01(), m02(), m03(), m10(), m11(), m12(), m13(), m20(), m21(), m22(), m23(), src, srcOffset, dst, dstOffset, count, stride);
+	}
+
+	/**
+	 * Transforms count directions (with an implicit fourth element of zero) by this matrix.
+	 * src and dst may be the same array at the same offset.
+	 * 
+	 * @param src
+	 * @param srcOffset
+	 * @param dst
+	 * @param dstOffset
+	 * @param count the number of tuples
+	 * @param stride the number of floats from one tuple to the next (at least 3)
+	 */
+	public final void transformDirections(float[] src, int srcOffset, float[] dst, int dstOffset, int count, int stride) {
+		MatrixUtils.transformAffine(m00(), m01(), m02(), 0f, m10(), m11(), m12(), 0f, m20(), m21(), m22(), 0f, src, srcOffset, dst, dstOffset, count, stride);
+	}
+
+	/**
+	 * Transforms count directions (with an implicit fourth element of zero) by this matrix.
+	 * The buffers are addressed absolutely, their positions are not changed.
+	 * 
+	 * @param src
+	 * @param srcOffset
+	 * @param dst
+	 * @param dstOffset
+	 * @param count the number of tuples
+	 * @param stride the number of floats from one tuple to the next (at least 3)
+	 */
+	public final void transformDirections(FloatBuffer src, int srcOffset, FloatBuffer dst, int dstOffset, int count, int stride) {
+		MatrixUtils.transformAffine(m00(), m01(), m02(), 0f, m10(), m11(), m12(), 0f, m20(), m21(), m22(), 0f, src, srcOffset, dst, dstOffset, count, stride);
+	}
+
+	/**
+	 * Transforms count normals by the inverse transpose of this matrix's upper 3x3 part.
+	 * The normals are not renormalized.
+	 * src and dst may be the same array at the same offset.
+	 * 
+	 * @param src
+	 * @param srcOffset
+	 * @param dst
+	 * @param dstOffset
+	 * @param count the number of tuples
+	 * @param stride the number of floats from one tuple to the next (at least 3)
+	 */
+	public final void transformNormals(float[] src, int srcOffset, float[] dst, int dstOffset, int count, int stride) {
+		MatrixUtils.transformNormals(m00(), m01(), m02(), m10(), m11(), m12(), m20(), m21(), m22(), src, srcOffset, dst, dstOffset, count, stride);
+	}
+
+	/**
+	 * Transforms count normals by the inverse transpose of this matrix's upper 3x3 part.
+	 * The normals are not renormalized.
+	 * The buffers are addressed absolutely, their positions are not changed.
+	 * 
+	 * @param src
+	 * @param srcOffset
+	 * @param dst
+	 * @param dstOffset
+	 * @param count the number of tuples
+	 * @param stride the number of floats from one tuple to the next (at least 3)
+	 */
+	public final void transformNormals(FloatBuffer src, int srcOffset, FloatBuffer dst, int dstOffset, int count, int stride) {
+		MatrixUtils.transformNormals(m00(), m01(), m02(), m10(), m11(), m12(), m20(), m21(), m22(), src, srcOffset, dst, dstOffset, count, stride);
+	}
+
 	/**
 	 * Sets the rotational component (upper 3x3) of this matrix to the matrix
 	 * values in the single precision Matrix3f argument; the other elements of
@@ -37,12 +37,16 @@ import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.openmali.FastMath;
 import org.openmali.decomposition.CholeskyDecomposition;
 import org.openmali.decomposition.LUDecomposition;
 import org.openmali.decomposition.QRDecomposition;
 import org.openmali.decomposition.SingularValueDecomposition;
+import org.openmali.vecmath2.util.MatrixUtils;
 import org.openmali.vecmath2.util.SerializationUtils;
 import org.openmali.vecmath2.util.VecMathUtils;
 
@@ -57,6 +61,12 @@ import org.openmali.vecmath2.util.VecMathUtils;
  * @author Arne Mueller
  */
 public class MatrixMxNf implements Cloneable {
+	/**
+	 * The minimum number of multiply-adds (rows * inner * cols), from which on
+	 * {@link #mul(MatrixMxNf, MatrixMxNf, ExecutorService)} splits the product into parallel bands.
+	 */
+	public static final long PARALLEL_MUL_THRESHOLD = 128L * 128L * 128L;
+
 	/**
 	 * The data of the Matrix.
 	 * (1D array. The (i, j) element is stored in elementData[ i * col + j ])
@@ -109,6 +119,7 @@ public class MatrixMxNf implements Cloneable {
 	private MatrixMxNf readOnlyInstance = null;
 
 	private MatrixMxNf TEMP_MAT = null;
+	private float[] mulBuffer = null;
 	private VectorNf TEMP_VEC1 = null;
 	private VectorNf TEMP_VEC2 = null;
 	private VectorNf TEMP_VEC3 = null;
@@ -1323,7 +1334,10 @@ public class MatrixMxNf implements Cloneable {
 
 	/**
 	 * Sets the value of this matrix to the result of multiplying the two
-	 * argument matrices together (this = m1 * m2).
+	 * argument matrices together (this = m1 * m2).<br>
+	 * The product is written directly into this matrix. Only if m1 or m2 share
+	 * their data with this matrix (the same matrix, a read-only instance or a
+	 * submatrix of it), a scratch buffer is used, that is kept for the next call.
 	 * 
 	 * @param m1 the first matrix
 	 * @param m2 the second matrix
@@ -1331,8 +1345,57 @@ public class MatrixMxNf implements Cloneable {
 	 * @return itself
 	 */
 	public MatrixMxNf mul(MatrixMxNf m1, MatrixMxNf m2) {
-		// for alias-safety, decided to new float[ cols* rows ].
-		// Is there any good way to avoid this big new ?
+		return (mul(m1, m2, null));
+	}
+
+	private static final void waitFor(Future<?>[] futures) {
+		// All tasks must have finished, before the result is used.
+		RuntimeException failure = null;
+		Error error = null;
+		for (int i = 0; i < futures.length; i++) {
+			try {
+				futures[i].get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+
+				if (failure == null)
+					failure = new RuntimeException(e);
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof Error) {
+					if (error == null)
+						error = (Error) e.getCause();
+				} else if (failure == null) {
+					if (e.getCause() instanceof RuntimeException)
+						failure = (RuntimeException) e.getCause();
+					else
+						failure = new RuntimeException(e.getCause());
+				}
+			}
+		}
+
+		if (error != null)
+			throw error;
+		if (failure != null)
+			throw failure;
+	}
+
+	/**
+	 * Sets the value of this matrix to the result of multiplying the two
+	 * argument matrices together (this = m1 * m2).<br>
+	 * If an executor is given and the product needs at least
+	 * {@link #PARALLEL_MUL_THRESHOLD} multiply-adds, bands of rows are computed
+	 * in parallel by the executor's threads. This method returns, when all bands
+	 * are done.
+	 * 
+	 * @see #mul(MatrixMxNf, MatrixMxNf)
+	 * 
+	 * @param m1 the first matrix
+	 * @param m2 the second matrix
+	 * @param executor the executor to run the bands in (may be <code>null</code>)
+	 * 
+	 * @return itself
+	 */
+	public MatrixMxNf mul(final MatrixMxNf m1, final MatrixMxNf m2, ExecutorService executor) {
 		if (rows != m1.rows)
 			throw new ArrayIndexOutOfBoundsException("rows:" + rows + " != m1.rows:" + m1.rows);
 		if (cols != m2.cols)
@@ -1340,17 +1403,49 @@ public class MatrixMxNf implements Cloneable {
 		if (m1.cols != m2.rows)
 			throw new ArrayIndexOutOfBoundsException("m1.cols:" + m1.cols + " != m2.rows:" + m2.rows);
 
-		float[] newData = new float[cols * rows];
-		for (int i = 0; i < rows; i++) {
-			for (int j = 0; j < cols; j++) {
-				float sum = 0.0f;
-				for (int k = 0; k < m1.cols; k++)
-					sum += m1.get(i, k) * m2.get(k, j);
-				newData[i * cols + j] = sum;
+		final boolean aliased = (this.values == m1.values) || (this.values == m2.values);
+
+		final float[] target;
+		final int targetOffset;
+		final int targetStride;
+		if (aliased) {
+			if ((mulBuffer == null) || (mulBuffer.length < rows * cols))
+				this.mulBuffer = new float[rows * cols];
+
+			target = mulBuffer;
+			targetOffset = 0;
+			targetStride = cols;
+		} else {
+			target = this.values;
+			targetOffset = roTrick + dataBegin;
+			targetStride = colSkip;
+		}
+
+		final int n = m1.cols;
+		final int p = cols;
+
+		if ((executor != null) && (rows > 1) && ((long) rows * n * p >= PARALLEL_MUL_THRESHOLD)) {
+			final int numBands = Math.min(rows, 4 * Runtime.getRuntime().availableProcessors());
+			final Future<?>[] futures = new Future<?>[numBands];
+
+			for (int b = 0; b < numBands; b++) {
+				final int rowBegin = (int) ((long) rows * b / numBands);
+				final int rowEnd = (int) ((long) rows * (b + 1) / numBands);
+
+				futures[b] = executor.submit(new Runnable() {
+					public void run() {
+						MatrixUtils.mulRowMajor(m1.values, m1.dataBegin, m1.colSkip, m2.values, m2.dataBegin, m2.colSkip, target, targetOffset, targetStride, rowBegin, rowEnd, n, p);
+					}
+				});
 			}
+
+			waitFor(futures);
+		} else {
+			MatrixUtils.mulRowMajor(m1.values, m1.dataBegin, m1.colSkip, m2.values, m2.dataBegin, m2.colSkip, target, targetOffset, targetStride, 0, rows, n, p);
 		}
 
-		setRowMajor(newData);
+		if (aliased)
+			setRowMajor(mulBuffer, 0);
 
 		this.isDirty[0] = true;
 
@@ -1374,6 +1469,26 @@ public class MatrixMxNf implements Cloneable {
 		return (this);
 	}
 
+	/**
+	 * Sets the value of this matrix to the result of multiplying itself with
+	 * matrix m1 (this = this * m1).
+	 * 
+	 * @see #mul(MatrixMxNf, MatrixMxNf, ExecutorService)
+	 * 
+	 * @param mat2 the other matrix
+	 * @param executor the executor to run the bands in (may be <code>null</code>)
+	 * 
+	 * @return itself
+	 */
+	public MatrixMxNf mul(MatrixMxNf mat2, ExecutorService executor) {
+		// alias-safe.
+		mul(this, mat2, executor);
+
+		this.isDirty[0] = true;
+
+		return (this);
+	}
+
 	/**
 	 * Sets the value of this matrix to the result of multiplying the two
 	 * argument matrices <strong>componentwisely</strong> (this = m1 x m2).
@@ -1517,7 +1632,7 @@ public class MatrixMxNf implements Cloneable {
 	 */
 	public final void solve(MatrixMxNf m2, MatrixMxNf result) {
 		if (this.isSquare())
-			result.set(new LUDecomposition(this).solve(m2));
+			new LUDecomposition(this).solve(m2, result);
 		else
 			new QRDecomposition(this).solve(m2, result);
 	}
@@ -2418,9 +2533,8 @@ public class MatrixMxNf implements Cloneable {
 		this.colSkip = cols;
 		this.values = new float[rows * cols];
 
-		set(matrix);
-		// System.arraycopy( matrix.values, 0, this.values, 0,
-		// this.values.length );
+		// set( matrix ) would touch isDirty before it is initialized.
+		matrix.getRowMajor(this.values, 0);
 
 		this.roTrick = readOnly ? -Integer.MAX_VALUE + values.length : 0;
 		this.isDirty = new boolean[] { false };
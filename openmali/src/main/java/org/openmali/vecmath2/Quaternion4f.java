@@ -38,6 +38,7 @@ import java.io.Externalizable;
 import org.openmali.FastMath;
 import org.openmali.vecmath2.pools.Quaternion4fPool;
 import org.openmali.vecmath2.util.VecMathUtils;
+import org.openmali.vecmath2.util.VecStack;
 
 /**
  * A 4 element quaternion represented by single precision floating point a,b,c,d
@@ -571,22 +572,24 @@ public class Quaternion4f extends TupleNf<Quaternion4f> implements Externalizabl
 	}
 
 	public final <T extends Tuple3f> T transform(Tuple3f vector, T result) {
-		Quaternion4f inv = Quaternion4f.fromPool();
+		final VecStack stack = VecStack.push();
+		try {
+			Quaternion4f inv = stack.quat4();
 
-		inv.set(-getA(), -getB(), -getC(), getD());
-		inv.normalize();
+			inv.set(-getA(), -getB(), -getC(), getD());
+			inv.normalize();
 
-		Quaternion4f tmp = Quaternion4f.fromPool();
+			Quaternion4f tmp = stack.quat4();
 
-		mul(vector, tmp);
-		tmp.mul(inv);
+			mul(vector, tmp);
+			tmp.mul(inv);
 
-		result.set(tmp.getA(), tmp.getB(), tmp.getC());
+			result.set(tmp.getA(), tmp.getB(), tmp.getC());
 
-		Quaternion4f.toPool(tmp);
-		Quaternion4f.toPool(inv);
-
-		return (result);
+			return (result);
+		} finally {
+			stack.pop();
+		}
 	}
 
 	public final <T extends Tuple3f> T transform(T vector) {
@@ -722,25 +725,28 @@ public class Quaternion4f extends TupleNf<Quaternion4f> implements Externalizabl
 		final float sin1minusTOmega = (float) FastMath.sin(omega * (1f - amount));
 
 		// LH component of formula
-		Vector4f tmp = Vector4f.fromPool();
-		tmp.set(q1);
-		tmp.scale(sin1minusTOmega / sinOmega);
-
-		// RH component of formula
-		result.set(q2);
-		result.scale(sinTOmega / sinOmega);
+		final VecStack stack = VecStack.push();
+		try {
+			Vector4f tmp = stack.vec4();
+			tmp.set(q1);
+			tmp.scale(sin1minusTOmega / sinOmega);
 
-		// add compionents together
-		result.addValue(0, tmp.getX());
-		result.addValue(1, tmp.getY());
-		result.addValue(2, tmp.getZ());
-		result.addValue(3, tmp.getW());
+			// RH component of formula
+			result.set(q2);
+			result.scale(sinTOmega / sinOmega);
 
-		Vector4f.toPool(tmp);
+			// add compionents together
+			result.addValue(0, tmp.getX());
+			result.addValue(1, tmp.getY());
+			result.addValue(2, tmp.getZ());
+			result.addValue(3, tmp.getW());
 
-		assert (omega < Math.PI && omega > -Math.PI);
+			assert (omega < Math.PI && omega > -Math.PI);
 
-		return (omega);
+			return (omega);
+		} finally {
+			stack.pop();
+		}
 	}
 
 	/**
@@ -779,210 +785,195 @@ public class Quaternion4f extends TupleNf<Quaternion4f> implements Externalizabl
 	 */
 	public static Quaternion4f weightedSLERP(Quaternion4f start, Quaternion4f target, Vector3f rotationAxis1, Vector3f rotationAxis2, Vector3f rotationAxis3, Vector3f weights, Vector3f anglePassback,
 			Quaternion4f result) {
-		Quaternion4f start_copy = Quaternion4f.fromPool();
-		start_copy.set(start);
+		final VecStack stack = VecStack.push();
+		try {
+			Quaternion4f start_copy = stack.quat4();
+			start_copy.set(start);
 
-		float dotProduct = VecMathUtils.dot(start_copy, target);
-		/*
-		 * if the dot product is 1 or -1 , then they are the same quaterion
-		 * degenerate case when the two quaternuions are the same just return
-		 * one of them
-		 */
+			float dotProduct = VecMathUtils.dot(start_copy, target);
+			/*
+			 * if the dot product is 1 or -1 , then they are the same quaterion
+			 * degenerate case when the two quaternuions are the same just return
+			 * one of them
+			 */
 
-		if (FastMath.epsilonEquals(dotProduct, 1, 0.00001f) || FastMath.epsilonEquals(dotProduct, -1, 0.00001f)) {
-			// set all elements to zero for the passback, as the target was the
-			// start_b
-			if (anglePassback != null)
-				anglePassback.setZero();
+			if (FastMath.epsilonEquals(dotProduct, 1, 0.00001f) || FastMath.epsilonEquals(dotProduct, -1, 0.00001f)) {
+				// set all elements to zero for the passback, as the target was the
+				// start_b
+				if (anglePassback != null)
+					anglePassback.setZero();
 
-			result.set(target);
-			return (result);
-		}
+				result.set(target);
+				return (result);
+			}
 
-		// q & -q represent the same thing, so lets make sure that we only deal
-		// with accute angle by inverting
-		// if necissary
-		if (dotProduct < 0f) {
-			dotProduct = -dotProduct;
-			start_copy.scale(-1);
-		}
+			// q & -q represent the same thing, so lets make sure that we only deal
+			// with accute angle by inverting
+			// if necissary
+			if (dotProduct < 0f) {
+				dotProduct = -dotProduct;
+				start_copy.scale(-1);
+			}
 
-		assert (FastMath.epsilonEquals(rotationAxis1.lengthSquared(), 1f, 0.0001f));
-		assert (FastMath.epsilonEquals(rotationAxis2.lengthSquared(), 1f, 0.0001f));
-		assert (FastMath.epsilonEquals(rotationAxis3.lengthSquared(), 1f, 0.0001f));
-
-		// to break the target rotation into its components, we need to find its
-		// coordinates w.r.t
-		// the rotational axis
-		// the traget is a 3D point on a 4D UNIT hypershphere (as is the start_b
-		// rotation)
-		// the three rotational axis provide three components to movements
-		// originating from the start_b location.
-		// in SLERP a line is drawn directly from the start_b to the target. We
-		// need to first break the same movement
-		// into the rotational components.
-		// to determine the magnitude of a rotational component, a great circle
-		// is drawn from the start_b point, in the direction
-		// of the component. Next an orthogonal(at the surface) great circle is
-		// drawn, that passes through the target point.
-		// great cirles can be represented by planes that pass through the
-		// orogin, thus planes without constant translations,
-		// which means just a normal is need to define the plane/great circle.
-
-		// so first we define the three planes which describe the valid
-		// components of each rotational component
-		Quaternion4f n1 = Quaternion4f.fromPool();
-		Quaternion4f n2 = Quaternion4f.fromPool();
-		Quaternion4f n3 = Quaternion4f.fromPool();
-
-		start_copy.getDirection(rotationAxis1, n1);
-		start_copy.getDirection(rotationAxis2, n2);
-		start_copy.getDirection(rotationAxis3, n3);
-
-		assert (FastMath.epsilonEquals(n1.getNorm(), 1f, 0.0001f));
-		assert (FastMath.epsilonEquals(n2.getNorm(), 1f, 0.0001f));
-		assert (FastMath.epsilonEquals(n3.getNorm(), 1f, 0.0001f));
-
-		// to find the actual values we need to work out a plane that passes
-		// through the
-		// target point, and that is right angles to the plane of that component
-		// the job is made easier by the fact that the right angled plane will
-		// pass through
-		// a point at the extremes of the unit circle to an orthogonal plane of
-		// the component plane,
-		// as all the planes we have calculated are orthogonal, and we have
-		// their normal, the point at which each other passes
-		// through IS the normalized vector. Thus to find the plane for
-		// component 1, we use the target point, and the two other
-		// target plane normals and the origin 0,0,0,0
-
-		Quaternion4f c1 = Quaternion4f.fromPool();
-		Quaternion4f c2 = Quaternion4f.fromPool();
-		Quaternion4f c3 = Quaternion4f.fromPool();
-
-		Vector4f.getLinearHyperPlaneNormal(n2, n3, target, c1);
-		Vector4f.getLinearHyperPlaneNormal(n1, n3, target, c2);
-		Vector4f.getLinearHyperPlaneNormal(n1, n2, target, c3);
-
-		assert (FastMath.epsilonEquals(c1.getNorm(), 1f, 0.0001f));
-		assert (FastMath.epsilonEquals(c2.getNorm(), 1f, 0.0001f));
-		assert (FastMath.epsilonEquals(c3.getNorm(), 1f, 0.0001f));
-
-		// at this point we have the base normals, and the target transformed
-		// normals all in their perpendicularity
-		// SLERP can be applid to the normals to work out new perpendicular
-		// planes representing
-		// first however, we must remeber that the result of finding the normals
-		// will
-		// not have the normals pointing in the same diriction
-
-		Quaternion4f r1 = Quaternion4f.fromPool();
-		Quaternion4f r2 = Quaternion4f.fromPool();
-		Quaternion4f r3 = Quaternion4f.fromPool();
-
-		// so we can just apply normal SLERP along the diferent directions
-		// rememebering that in one case, the caller of the function would like
-		// the returned angles
-		if (anglePassback != null) {
-			anglePassback.setX(interpolateSLERP(n1, c1, weights.getX(), r1) / 2f); // divide
-																					// by
-																					// two
-																					// to
-																					// give
-																					// real
-																					// angle
-																					// rotational
-																					// changes,
-																					// not
-																					// quaternion
-																					// angles
-			anglePassback.setY(interpolateSLERP(n2, c2, weights.getY(), r2) / 2f);
-			anglePassback.setZ(interpolateSLERP(n3, c3, weights.getZ(), r3) / 2f);
-
-			Quaternion4f.toPool(c3);
-			Quaternion4f.toPool(c2);
-			Quaternion4f.toPool(c1);
-
-			Quaternion4f.toPool(n3);
-			Quaternion4f.toPool(n2);
-			Quaternion4f.toPool(n1);
+			assert (FastMath.epsilonEquals(rotationAxis1.lengthSquared(), 1f, 0.0001f));
+			assert (FastMath.epsilonEquals(rotationAxis2.lengthSquared(), 1f, 0.0001f));
+			assert (FastMath.epsilonEquals(rotationAxis3.lengthSquared(), 1f, 0.0001f));
+
+			// to break the target rotation into its components, we need to find its
+			// coordinates w.r.t
+			// the rotational axis
+			// the traget is a 3D point on a 4D UNIT hypershphere (as is the start_b
+			// rotation)
+			// the three rotational axis provide three components to movements
+			// originating from the start_b location.
+			// in SLERP a line is drawn directly from the start_b to the target. We
+			// need to first break the same movement
+			// into the rotational components.
+			// to determine the magnitude of a rotational component, a great circle
+			// is drawn from the start_b point, in the direction
+			// of the component. Next an orthogonal(at the surface) great circle is
+			// drawn, that passes through the target point.
+			// great cirles can be represented by planes that pass through the
+			// orogin, thus planes without constant translations,
+			// which means just a normal is need to define the plane/great circle.
+
+			// so first we define the three planes which describe the valid
+			// components of each rotational component
+			Quaternion4f n1 = stack.quat4();
+			Quaternion4f n2 = stack.quat4();
+			Quaternion4f n3 = stack.quat4();
+
+			start_copy.getDirection(rotationAxis1, n1);
+			start_copy.getDirection(rotationAxis2, n2);
+			start_copy.getDirection(rotationAxis3, n3);
+
+			assert (FastMath.epsilonEquals(n1.getNorm(), 1f, 0.0001f));
+			assert (FastMath.epsilonEquals(n2.getNorm(), 1f, 0.0001f));
+			assert (FastMath.epsilonEquals(n3.getNorm(), 1f, 0.0001f));
+
+			// to find the actual values we need to work out a plane that passes
+			// through the
+			// target point, and that is right angles to the plane of that component
+			// the job is made easier by the fact that the right angled plane will
+			// pass through
+			// a point at the extremes of the unit circle to an orthogonal plane of
+			// the component plane,
+			// as all the planes we have calculated are orthogonal, and we have
+			// their normal, the point at which each other passes
+			// through IS the normalized vector. Thus to find the plane for
+			// component 1, we use the target point, and the two other
+			// target plane normals and the origin 0,0,0,0
+
+			Quaternion4f c1 = stack.quat4();
+			Quaternion4f c2 = stack.quat4();
+			Quaternion4f c3 = stack.quat4();
+
+			Vector4f.getLinearHyperPlaneNormal(n2, n3, target, c1);
+			Vector4f.getLinearHyperPlaneNormal(n1, n3, target, c2);
+			Vector4f.getLinearHyperPlaneNormal(n1, n2, target, c3);
+
+			assert (FastMath.epsilonEquals(c1.getNorm(), 1f, 0.0001f));
+			assert (FastMath.epsilonEquals(c2.getNorm(), 1f, 0.0001f));
+			assert (FastMath.epsilonEquals(c3.getNorm(), 1f, 0.0001f));
+
+			// at this point we have the base normals, and the target transformed
+			// normals all in their perpendicularity
+			// SLERP can be applid to the normals to work out new perpendicular
+			// planes representing
+			// first however, we must remeber that the result of finding the normals
+			// will
+			// not have the normals pointing in the same diriction
+
+			Quaternion4f r1 = stack.quat4();
+			Quaternion4f r2 = stack.quat4();
+			Quaternion4f r3 = stack.quat4();
+
+			// so we can just apply normal SLERP along the diferent directions
+			// rememebering that in one case, the caller of the function would like
+			// the returned angles
+			if (anglePassback != null) {
+				anglePassback.setX(interpolateSLERP(n1, c1, weights.getX(), r1) / 2f); // divide
+																						// by
+																						// two
+																						// to
+																						// give
+																						// real
+																						// angle
+																						// rotational
+																						// changes,
+																						// not
+																						// quaternion
+																						// angles
+				anglePassback.setY(interpolateSLERP(n2, c2, weights.getY(), r2) / 2f);
+				anglePassback.setZ(interpolateSLERP(n3, c3, weights.getZ(), r3) / 2f);
+
+				/*
+				 * the angles bassed back are always posative because they get
+				 * computed via a cos
+				 * 
+				 * the user of the function will need to know what sign the angles
+				 * are
+				 * 
+				 * to do this we differentiate the quaternion wrt each of the
+				 * rotational component we then check that whether the direction of
+				 * change for the rotation axis is in the same general direction of
+				 * the different betwen the start_b and end or in the opposite
+				 * direcion by doting the rate of change by the linear change
+				 */
+
+				// linear change
+				Quaternion4f tmp = stack.quat4();
+				tmp.set(target);
+				tmp.sub(start_copy);
+
+				/*
+				 * for ( int i = 0; i < 3;i++ ) { tmp.m[ i ] *= weights.m[ i ]; }
+				 */
+
+				// differentiate
+				Quaternion4f tx = stack.quat4();
+				Quaternion4f ty = stack.quat4();
+				Quaternion4f tz = stack.quat4();
+
+				tx.setDQDT(rotationAxis1, start_copy);
+				ty.setDQDT(rotationAxis2, start_copy);
+				tz.setDQDT(rotationAxis3, start_copy);
+
+				// check whether in same direciton or opposite
+				if (VecMathUtils.dot(tx, tmp) < 0f)
+					anglePassback.setX(-anglePassback.getX());
+				if (VecMathUtils.dot(ty, tmp) < 0f)
+					anglePassback.setY(-anglePassback.getY());
+				if (VecMathUtils.dot(tz, tmp) < 0f)
+					anglePassback.setZ(-anglePassback.getZ());
+			} else {
+				interpolateSLERP(n1, c1, weights.getX(), r1);
+				interpolateSLERP(n2, c2, weights.getY(), r2);
+				interpolateSLERP(n3, c3, weights.getZ(), r3);
+			}
 
 			/*
-			 * the angles bassed back are always posative because they get
-			 * computed via a cos
-			 * 
-			 * the user of the function will need to know what sign the angles
-			 * are
+			 * so the Rs contain the new plane normals where these planes intersect
+			 * is our new quaternion there are three hyperpanes, so the solution
+			 * will be an infinite line
 			 * 
-			 * to do this we differentiate the quaternion wrt each of the
-			 * rotational component we then check that whether the direction of
-			 * change for the rotation axis is in the same general direction of
-			 * the different betwen the start_b and end or in the opposite
-			 * direcion by doting the rate of change by the linear change
+			 * taking the hyperplane of the normals actually also will find a points
+			 * on it
 			 */
 
-			// linear change
-			Quaternion4f tmp = Quaternion4f.fromPool();
-			tmp.set(target);
-			tmp.sub(start_copy);
+			Vector4f.getLinearHyperPlaneNormal(r1, r2, r3, result);
 
-			/*
-			 * for ( int i = 0; i < 3;i++ ) { tmp.m[ i ] *= weights.m[ i ]; }
-			 */
-
-			// differentiate
-			Quaternion4f tx = Quaternion4f.fromPool();
-			Quaternion4f ty = Quaternion4f.fromPool();
-			Quaternion4f tz = Quaternion4f.fromPool();
-
-			tx.setDQDT(rotationAxis1, start_copy);
-			ty.setDQDT(rotationAxis2, start_copy);
-			tz.setDQDT(rotationAxis3, start_copy);
-
-			// check whether in same direciton or opposite
-			if (VecMathUtils.dot(tx, tmp) < 0f)
-				anglePassback.setX(-anglePassback.getX());
-			if (VecMathUtils.dot(ty, tmp) < 0f)
-				anglePassback.setY(-anglePassback.getY());
-			if (VecMathUtils.dot(tz, tmp) < 0f)
-				anglePassback.setZ(-anglePassback.getZ());
-		} else {
-			interpolateSLERP(n1, c1, weights.getX(), r1);
-			interpolateSLERP(n2, c2, weights.getY(), r2);
-			interpolateSLERP(n3, c3, weights.getZ(), r3);
+			// the result should lie on all the planes
+			assert (FastMath.epsilonEquals(VecMathUtils.dot(result, r1), 0f, 0.0001f));
+			assert (FastMath.epsilonEquals(VecMathUtils.dot(result, r2), 0f, 0.0001f));
+			assert (FastMath.epsilonEquals(VecMathUtils.dot(result, r3), 0f, 0.0001f));
 
-			Quaternion4f.toPool(c3);
-			Quaternion4f.toPool(c2);
-			Quaternion4f.toPool(c1);
+			result.normalize();
 
-			Quaternion4f.toPool(n3);
-			Quaternion4f.toPool(n2);
-			Quaternion4f.toPool(n1);
+			return (result);
+		} finally {
+			stack.pop();
 		}
-
-		/*
-		 * so the Rs contain the new plane normals where these planes intersect
-		 * is our new quaternion there are three hyperpanes, so the solution
-		 * will be an infinite line
-		 * 
-		 * taking the hyperplane of the normals actually also will find a points
-		 * on it
-		 */
-
-		Vector4f.getLinearHyperPlaneNormal(r1, r2, r3, result);
-
-		// the result should lie on all the planes
-		assert (FastMath.epsilonEquals(VecMathUtils.dot(result, r1), 0f, 0.0001f));
-		assert (FastMath.epsilonEquals(VecMathUtils.dot(result, r2), 0f, 0.0001f));
-		assert (FastMath.epsilonEquals(VecMathUtils.dot(result, r3), 0f, 0.0001f));
-
-		Quaternion4f.toPool(r3);
-		Quaternion4f.toPool(r2);
-		Quaternion4f.toPool(r1);
-
-		result.normalize();
-
-		return (result);
 	}
 
 	/**
@@ -992,22 +983,24 @@ public class Quaternion4f extends TupleNf<Quaternion4f> implements Externalizabl
 	 * (surely this would imply that it is equaly to dq_dt but this does not seem to be the case)
 	 */
 	public final void getDirection(Vector3f rotationAxis, TupleNf<?> passbackNormal) {
-		Vector3f tmpV = Vector3f.fromPool();
-		Vector3f tmpVa = Vector3f.fromPool();
-		// extract the vector component of this quaternion
-		getVectorComponent(tmpV);
-
-		passbackNormal.setValue(3, -tmpV.dot(rotationAxis));
+		final VecStack stack = VecStack.push();
+		try {
+			Vector3f tmpV = stack.vec3();
+			Vector3f tmpVa = stack.vec3();
+			// extract the vector component of this quaternion
+			getVectorComponent(tmpV);
+
+			passbackNormal.setValue(3, -tmpV.dot(rotationAxis));
+
+			tmpVa.cross(tmpV, rotationAxis);
+			for (int i = 0; i < 3; i++) {
+				passbackNormal.setValue(i, tmpVa.getValue(i) + this.getD() * rotationAxis.getValue(i));
+			}
 
-		tmpVa.cross(tmpV, rotationAxis);
-		for (int i = 0; i < 3; i++) {
-			passbackNormal.setValue(i, tmpVa.getValue(i) + this.getD() * rotationAxis.getValue(i));
+			VecMathUtils.normalize(passbackNormal);
+		} finally {
+			stack.pop();
 		}
-
-		VecMathUtils.normalize(passbackNormal);
-
-		Vector3f.toPool(tmpV);
-		Vector3f.toPool(tmpVa);
 	}
 
 	/**
@@ -1017,98 +1010,95 @@ public class Quaternion4f extends TupleNf<Quaternion4f> implements Externalizabl
 	 * in the order of the rotation axis
 	 */
 	public static void getAngles(Quaternion4f q1, Quaternion4f q2, Vector3f rotationAxis1, Vector3f rotationAxis2, Vector3f rotationAxis3, Vector3f passback) {
-		Vector4f d1 = Vector4f.fromPool();
-		Vector4f d2 = Vector4f.fromPool();
-		Vector4f d3 = Vector4f.fromPool();
+		final VecStack stack = VecStack.push();
+		try {
+			Vector4f d1 = stack.vec4();
+			Vector4f d2 = stack.vec4();
+			Vector4f d3 = stack.vec4();
 
-		Quaternion4f target = Quaternion4f.fromPool();
-		target.set(q2);
+			Quaternion4f target = stack.quat4();
+			target.set(q2);
 
-		if (VecMathUtils.dot(q1, q2) < 0f) {
-			target.scale(-1);
-		}
+			if (VecMathUtils.dot(q1, q2) < 0f) {
+				target.scale(-1);
+			}
 
-		// next first work out which direction each rotation axis takes us from
-		// the
-		// start quaternion
-		q1.getDirection(rotationAxis1, d1);
-		q1.getDirection(rotationAxis2, d2);
-		q1.getDirection(rotationAxis3, d3);
-
-		// the dirction plus the start quat defines a great circle
-		// round the quaternion hypersphere
-		// we need to determine where the end quaternion is defined
-		// in terms of these great circles
-		// each component will be the addition of two vectors:-
-		// the first vector is a distance along the start vector(q1)
-		// the second will be a distance along a direction vector
-
-		final float distCommon = VecMathUtils.dot(target, q1);
-		Vector3f common = Vector3f.fromPool();
-
-		// common.set(q1);
-		q1.getVectorComponent(common);
-		common.scale(distCommon);
-
-		Vector3f targetVec = Vector3f.fromPool();
-		target.getVectorComponent(targetVec);
-
-		float dist1 = VecMathUtils.dot(targetVec, d1);
-		float dist2 = VecMathUtils.dot(targetVec, d2);
-		float dist3 = VecMathUtils.dot(targetVec, d3);
-
-		Vector3f.toPool(targetVec);
-
-		d1.scale(dist1);
-		d2.scale(dist2);
-		d3.scale(dist3);
-
-		d1.add(common.getX(), common.getY(), common.getZ(), 0f);
-		d2.add(common.getX(), common.getY(), common.getZ(), 0f);
-		d3.add(common.getX(), common.getY(), common.getZ(), 0f);
-
-		d1.normalize();
-		d2.normalize();
-		d3.normalize();
-
-		float angle1 = VecMathUtils.epsilonEquals(q1, d1, 0.00001f) ? 0f : FastMath.acos(VecMathUtils.dot(q1, d1));
-		float angle2 = VecMathUtils.epsilonEquals(q1, d2, 0.00001f) ? 0f : FastMath.acos(VecMathUtils.dot(q1, d2));
-		float angle3 = VecMathUtils.epsilonEquals(q1, d3, 0.00001f) ? 0f : FastMath.acos(VecMathUtils.dot(q1, d3));
-
-		/*
-		 * degeneracies occur when d1 == q1 i.e. no rotation in that axis so
-		 * catch these degeneracies by setting NaN to 0 also invert angles when
-		 * neccisary by noticing whether a negative projection onto the
-		 * direction vector was uses
-		 */
-		if (Float.isNaN(angle1)) {
-			angle1 = 0f;
-		} else if (dist1 < 0f) {
-			angle1 = -angle1;
-		}
+			// next first work out which direction each rotation axis takes us from
+			// the
+			// start quaternion
+			q1.getDirection(rotationAxis1, d1);
+			q1.getDirection(rotationAxis2, d2);
+			q1.getDirection(rotationAxis3, d3);
 
-		if (Float.isNaN(angle2)) {
-			angle2 = 0f;
-		} else if (dist2 < 0f) {
-			angle2 = -angle2;
-		}
+			// the dirction plus the start quat defines a great circle
+			// round the quaternion hypersphere
+			// we need to determine where the end quaternion is defined
+			// in terms of these great circles
+			// each component will be the addition of two vectors:-
+			// the first vector is a distance along the start vector(q1)
+			// the second will be a distance along a direction vector
 
-		if (Float.isNaN(angle3)) {
-			angle3 = 0f;
-		} else if (dist3 < 0f) {
-			angle3 = -angle3;
-		}
+			final float distCommon = VecMathUtils.dot(target, q1);
+			Vector3f common = stack.vec3();
+
+			// common.set(q1);
+			q1.getVectorComponent(common);
+			common.scale(distCommon);
 
-		// times by two to get real angle as opposed to quaternion angles
-		// passback.set(angle1*2, angle2*2,angle3*2);
-		passback.set(angle1 / 2, angle2 / 2, angle3 / 2);
-		// passback.set( angle1, angle2, angle3 );
+			Vector3f targetVec = stack.vec3();
+			target.getVectorComponent(targetVec);
 
-		Quaternion4f.toPool(target);
-		Vector3f.toPool(common);
-		Vector4f.toPool(d1);
-		Vector4f.toPool(d2);
-		Vector4f.toPool(d3);
+			float dist1 = VecMathUtils.dot(targetVec, d1);
+			float dist2 = VecMathUtils.dot(targetVec, d2);
+			float dist3 = VecMathUtils.dot(targetVec, d3);
+
+			d1.scale(dist1);
+			d2.scale(dist2);
+			d3.scale(dist3);
+
+			d1.add(common.getX(), common.getY(), common.getZ(), 0f);
+			d2.add(common.getX(), common.getY(), common.getZ(), 0f);
+			d3.add(common.getX(), common.getY(), common.getZ(), 0f);
+
+			d1.normalize();
+			d2.normalize();
+			d3.normalize();
+
+			float angle1 = VecMathUtils.epsilonEquals(q1, d1, 0.00001f) ? 0f : FastMath.acos(VecMathUtils.dot(q1, d1));
+			float angle2 = VecMathUtils.epsilonEquals(q1, d2, 0.00001f) ? 0f : FastMath.acos(VecMathUtils.dot(q1, d2));
+			float angle3 = VecMathUtils.epsilonEquals(q1, d3, 0.00001f) ? 0f : FastMath.acos(VecMathUtils.dot(q1, d3));
+
+			/*
+			 * degeneracies occur when d1 == q1 i.e. no rotation in that axis so
+			 * catch these degeneracies by setting NaN to 0 also invert angles when
+			 * neccisary by noticing whether a negative projection onto the
+			 * direction vector was uses
+			 */
+			if (Float.isNaN(angle1)) {
+				angle1 = 0f;
+			} else if (dist1 < 0f) {
+				angle1 = -angle1;
+			}
+
+			if (Float.isNaN(angle2)) {
+				angle2 = 0f;
+			} else if (dist2 < 0f) {
+				angle2 = -angle2;
+			}
+
+			if (Float.isNaN(angle3)) {
+				angle3 = 0f;
+			} else if (dist3 < 0f) {
+				angle3 = -angle3;
+			}
+
+			// times by two to get real angle as opposed to quaternion angles
+			// passback.set(angle1*2, angle2*2,angle3*2);
+			passback.set(angle1 / 2, angle2 / 2, angle3 / 2);
+			// passback.set( angle1, angle2, angle3 );
+		} finally {
+			stack.pop();
+		}
 	}
 
 	// helper method
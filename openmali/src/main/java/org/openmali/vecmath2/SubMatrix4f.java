@@ -238,6 +238,16 @@ class SubMatrix4f extends Matrix4f {
 	 */
 	@Override
 	public SubMatrix4f invert() {
+		super.invert();
+
+		return (this);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public SubMatrix4f invertGeneral() {
 		float d = determinant();
 		if (d == 0.0f)
 			return (this);
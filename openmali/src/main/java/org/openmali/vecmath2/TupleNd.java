@@ -670,7 +670,7 @@ public abstract class TupleNd<T extends TupleNd<T>> {
 	public int serialize(int pos, final byte[] buffer) {
 		for (int i = 0; i < N; i++) {
 			SerializationUtils.writeToBuffer(values[i], pos, buffer);
-			pos += 4;
+			pos += 8;
 		}
 
 		SerializationUtils.writeToBuffer(isDirty, pos, buffer);
@@ -690,7 +690,7 @@ public abstract class TupleNd<T extends TupleNd<T>> {
 	public int deserialize(int pos, final byte[] buffer) {
 		for (int i = 0; i < N; i++) {
 			values[i] = SerializationUtils.readDoubleFromBuffer(pos, buffer);
-			pos += 4;
+			pos += 8;
 		}
 
 		isDirty[0] = SerializationUtils.readBoolFromBuffer(pos, buffer);
@@ -703,7 +703,7 @@ public abstract class TupleNd<T extends TupleNd<T>> {
 	 * @return the necessary size for a serialization byte array.
 	 */
 	protected int getSerializationBufferSize() {
-		return (4 * N + 1);
+		return (8 * N + 1);
 	}
 
 	public void writeExternal(ObjectOutput out) throws IOException {
@@ -38,6 +38,7 @@ import java.io.Externalizable;
 import org.openmali.FastMath;
 import org.openmali.vecmath2.pools.Vector4fPool;
 import org.openmali.vecmath2.util.VecMathUtils;
+import org.openmali.vecmath2.util.VecStack;
 
 /**
  * A simple 4-dimensional float-Vector implementation.
@@ -624,110 +625,110 @@ public class Vector4f extends VectorNf implements Externalizable, VectorInterfac
 		 * note: if the component of D should have been zero, we have a problem
 		 * in which case we should try assuming a different component is -1
 		 */
-		Matrix3f A = Matrix3f.fromPool();
-		Matrix3f Atmp = Matrix3f.fromPool();
-		Vector3f B = Vector3f.fromPool();
-		Vector3f tmp = Vector3f.fromPool();
-
-		A.set(0, 0, p1.getValue(0)); // put first three components (A,B & C) of
-										// p1 into equation matrix
-		A.set(0, 1, p1.getValue(1));
-		A.set(0, 2, p1.getValue(2));
-
-		A.set(1, 0, p2.getValue(0)); // put first three components of p2 into
-										// equation matrix
-		A.set(1, 1, p2.getValue(1));
-		A.set(1, 2, p2.getValue(2));
-
-		A.set(2, 0, p3.getValue(0)); // put first three components of p1 into
-										// equation matrix
-		A.set(2, 1, p3.getValue(1));
-		A.set(2, 2, p3.getValue(2));
-
-		B.setValue(0, p1.getValue(3)); // put last component of all points into
-										// the rhs of solution equation (the D
-										// component)
-		B.setValue(1, p2.getValue(3));
-		B.setValue(2, p3.getValue(3));
-
-		int minus1Assumption = 3; // meaning D is first assumed to have minus
-									// one component
-		for (int i = 0; i < 4; i++) // each iteration we try to solve the system
-		{
-			tmp.set(B); // copy RHS to tmp, we might need it later
-			Atmp.set(A); // copy A to tmp, we might need it later
-
-			if (A.solve(B, normal)) // this destroyes the old A and B!
+		final VecStack stack = VecStack.push();
+		try {
+			Matrix3f A = stack.mat3();
+			Matrix3f Atmp = stack.mat3();
+			Vector3f B = stack.vec3();
+			Vector3f tmp = stack.vec3();
+
+			A.set(0, 0, p1.getValue(0)); // put first three components (A,B & C) of
+											// p1 into equation matrix
+			A.set(0, 1, p1.getValue(1));
+			A.set(0, 2, p1.getValue(2));
+
+			A.set(1, 0, p2.getValue(0)); // put first three components of p2 into
+											// equation matrix
+			A.set(1, 1, p2.getValue(1));
+			A.set(1, 2, p2.getValue(2));
+
+			A.set(2, 0, p3.getValue(0)); // put first three components of p1 into
+											// equation matrix
+			A.set(2, 1, p3.getValue(1));
+			A.set(2, 2, p3.getValue(2));
+
+			B.setValue(0, p1.getValue(3)); // put last component of all points into
+											// the rhs of solution equation (the D
+											// component)
+			B.setValue(1, p2.getValue(3));
+			B.setValue(2, p3.getValue(3));
+
+			int minus1Assumption = 3; // meaning D is first assumed to have minus
+										// one component
+			for (int i = 0; i < 4; i++) // each iteration we try to solve the system
 			{
-				// we sucessfully solved the equation
-
-				// System.out.println( "A = " + A );
-				// System.out.println( "B = " + B );
-				// System.out.println( "normal = " + normal );
-
-				/*
-				 * However, raher than running with the solution, if the assumed
-				 * component is very small in compasison with the others, we
-				 * have some numerical issues. So we will only accept the
-				 * solution, if the other components have not been scaled to too
-				 * large a degree.
-				 */
-				/*
-				 * if ( ( normal.max() < 1.1f ) && ( normal.min() > -1.1f ) ) {
-				 * System.out.println( "accepted" ); break; // quit loop and use
-				 * the solution }// Didn't solve accuracy problems! // otherwise
-				 * we try a different component equal to one
-				 */
+				tmp.set(B); // copy RHS to tmp, we might need it later
+				Atmp.set(A); // copy A to tmp, we might need it later
+
+				if (A.solve(B, normal)) // this destroyes the old A and B!
+				{
+					// we sucessfully solved the equation
+
+					// System.out.println( "A = " + A );
+					// System.out.println( "B = " + B );
+					// System.out.println( "normal = " + normal );
+
+					/*
+					 * However, raher than running with the solution, if the assumed
+					 * component is very small in compasison with the others, we
+					 * have some numerical issues. So we will only accept the
+					 * solution, if the other components have not been scaled to too
+					 * large a degree.
+					 */
+					/*
+					 * if ( ( normal.max() < 1.1f ) && ( normal.min() > -1.1f ) ) {
+					 * System.out.println( "accepted" ); break; // quit loop and use
+					 * the solution }// Didn't solve accuracy problems! // otherwise
+					 * we try a different component equal to one
+					 */
+				}
+				// if we are here we failed to solve the system of equations
+				// so lets try assuming a different component has a non-negative
+				// value
+				minus1Assumption--;
+
+				if (minus1Assumption == -1)
+					break; // we have not solved the equation and have run out of
+							// possible options
+
+				A.set(Atmp);
+				A.getColumn(minus1Assumption, B); // copy the next column of A to B
+				A.setColumn(minus1Assumption, tmp); // put the previous B into
+													// equation matrix
+				// thus if D was on RHS then after one failed operation
+				// A will contain A,B,D and the RHS will contain C
 			}
-			// if we are here we failed to solve the system of equations
-			// so lets try assuming a different component has a non-negative
-			// value
-			minus1Assumption--;
-
-			if (minus1Assumption == -1)
-				break; // we have not solved the equation and have run out of
-						// possible options
-
-			A.set(Atmp);
-			A.getColumn(minus1Assumption, B); // copy the next column of A to B
-			A.setColumn(minus1Assumption, tmp); // put the previous B into
-												// equation matrix
-			// thus if D was on RHS then after one failed operation
-			// A will contain A,B,D and the RHS will contain C
-		}
-
-		/*
-		 * The found solution needs to be rearranged becuase of how we solved
-		 * it. If we solved it 1st iteration: A contains ABC and rhs contains D,
-		 * minusAssumption =3 2nd iteration: A contains ABD and rhs contains C,
-		 * minusAssumption =2 3rd iteration: A contains ACD and rhs contains B,
-		 * minusAssumption =1 4th iteration: A contains BCD and rhs contains A,
-		 * minusAssumption =0 5th iteration: no solution found, minusAssumption
-		 * =-1
-		 */
 
-		if (minus1Assumption == -1) {
-			normal.fill(Float.NaN);
-		} else {
-			// shift solved components up to their correct place
-
-			for (int i = 3; i > minus1Assumption; i--) {
-				normal.setValue(i, normal.getValue(i - 1)); // shift components
-															// over
+			/*
+			 * The found solution needs to be rearranged becuase of how we solved
+			 * it. If we solved it 1st iteration: A contains ABC and rhs contains D,
+			 * minusAssumption =3 2nd iteration: A contains ABD and rhs contains C,
+			 * minusAssumption =2 3rd iteration: A contains ACD and rhs contains B,
+			 * minusAssumption =1 4th iteration: A contains BCD and rhs contains A,
+			 * minusAssumption =0 5th iteration: no solution found, minusAssumption
+			 * =-1
+			 */
+
+			if (minus1Assumption == -1) {
+				normal.fill(Float.NaN);
+			} else {
+				// shift solved components up to their correct place
+
+				for (int i = 3; i > minus1Assumption; i--) {
+					normal.setValue(i, normal.getValue(i - 1)); // shift components
+																// over
+				}
+				// now put our assumption in the correct location
+				normal.setValue(minus1Assumption, -1);
+				normal.scale(-1); // this scaling should be unnecessary, unless we
+									// prefer 1 over -1
+				VecMathUtils.normalize(normal);
 			}
-			// now put our assumption in the correct location
-			normal.setValue(minus1Assumption, -1);
-			normal.scale(-1); // this scaling should be unnecessary, unless we
-								// prefer 1 over -1
-			VecMathUtils.normalize(normal);
-		}
 
-		Matrix3f.toPool(A);
-		Matrix3f.toPool(Atmp);
-		Vector3f.toPool(B);
-		Vector3f.toPool(tmp);
-
-		return (normal);
+			return (normal);
+		} finally {
+			stack.pop();
+		}
 	}
 
 	/**
@@ -0,0 +1,187 @@
+/**
+ * Copyright (c) 2007-2009, OpenMaLi Project Group all rights reserved.
+ * 
+ * Portions based on the Sun's javax.vecmath interface, Copyright by Sun
+ * Microsystems or Kenji Hiranabe's alternative GC-cheap implementation.
+ * Many thanks to the developers.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the 'OpenMaLi Project Group' nor the names of its
+ * contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) A
+ * RISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE
+ */
+package org.openmali.vecmath2.arrays;
+
+import java.nio.FloatBuffer;
+
+import org.openmali.vecmath2.Colorf;
+
+/**
+ * A packed container of colors with three (RGB) or four (RGBA) components.
+ */
+public class ColorfArray extends PackedFloatArray {
+	/**
+	 * @return true, if the colors have an alpha component.
+	 */
+	public final boolean hasAlpha() {
+		return (getElementSize() == 4);
+	}
+
+	/**
+	 * @param index
+	 * 
+	 * @return the red-element of the color at the given index.
+	 */
+	public final float getRed(int index) {
+		return (getValue(index, 0));
+	}
+
+	/**
+	 * @param index
+	 * 
+	 * @return the green-element of the color at the given index.
+	 */
+	public final float getGreen(int index) {
+		return (getValue(index, 1));
+	}
+
+	/**
+	 * @param index
+	 * 
+	 * @return the blue-element of the color at the given index.
+	 */
+	public final float getBlue(int index) {
+		return (getValue(index, 2));
+	}
+
+	/**
+	 * @param index
+	 * 
+	 * @return the alpha-element of the color at the given index (0, if the colors don't have alpha).
+	 */
+	public final float getAlpha(int index) {
+		if (!hasAlpha())
+			return (0f);
+
+		return (getValue(index, 3));
+	}
+
+	/**
+	 * Sets the color at the given index. The alpha value is ignored, if the colors don't have alpha.
+	 * 
+	 * @param index
+	 * @param r
+	 * @param g
+	 * @param b
+	 * @param a
+	 */
+	public final void set(int index, float r, float g, float b, float a) {
+		setValue(index, 0, r);
+		setValue(index, 1, g);
+		setValue(index, 2, b);
+
+		if (hasAlpha())
+			setValue(index, 3, a);
+	}
+
+	/**
+	 * Sets the color at the given index.
+	 * 
+	 * @param index
+	 * @param r
+	 * @param g
+	 * @param b
+	 */
+	public final void set(int index, float r, float g, float b) {
+		set(index, r, g, b, 0f);
+	}
+
+	/**
+	 * Sets the color at the given index.
+	 * 
+	 * @param index
+	 * @param color
+	 */
+	public final void set(int index, Colorf color) {
+		set(index, color.getRed(), color.getGreen(), color.getBlue(), color.getAlpha());
+	}
+
+	/**
+	 * Copies the color at the given index to the given (flyweight) instance.
+	 * 
+	 * @param index
+	 * @param color
+	 * 
+	 * @return the passed color
+	 */
+	public final Colorf get(int index, Colorf color) {
+		if (hasAlpha())
+			color.set(getRed(index), getGreen(index), getBlue(index), getAlpha(index));
+		else
+			color.set(getRed(index), getGreen(index), getBlue(index));
+
+		return (color);
+	}
+
+	/**
+	 * Creates a new container backed by a float[].
+	 * 
+	 * @param size the number of colors
+	 * @param alpha store an alpha component?
+	 */
+	public ColorfArray(int size, boolean alpha) {
+		super(alpha ? 4 : 3, size, false);
+	}
+
+	/**
+	 * Creates a new container.
+	 * 
+	 * @param size the number of colors
+	 * @param alpha store an alpha component?
+	 * @param direct store the colors in a direct FloatBuffer instead of a float[]?
+	 */
+	public ColorfArray(int size, boolean alpha, boolean direct) {
+		super(alpha ? 4 : 3, size, direct);
+	}
+
+	/**
+	 * Creates a new container backed by the given array (not copied).
+	 * 
+	 * @param array three or four floats per element
+	 * @param alpha are there four floats per element?
+	 */
+	public ColorfArray(float[] array, boolean alpha) {
+		super(alpha ? 4 : 3, array);
+	}
+
+	/**
+	 * Creates a new container backed by the given buffer (not copied).
+	 * 
+	 * @param buffer three or four floats per element
+	 * @param alpha are there four floats per element?
+	 */
+	public ColorfArray(FloatBuffer buffer, boolean alpha) {
+		super(alpha ? 4 : 3, buffer);
+	}
+}
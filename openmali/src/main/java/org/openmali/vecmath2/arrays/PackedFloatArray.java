@@ -0,0 +1,310 @@
+/**
+ * Copyright (c) 2007-2009, OpenMaLi Project Group all rights reserved.
+ * 
+ * Portions based on the Sun's javax.vecmath interface, Copyright by Sun
+ * Microsystems or Kenji Hiranabe's alternative GC-cheap implementation.
+ * Many thanks to the developers.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the 'OpenMaLi Project Group' nor the names of its
+ * contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) A
+ * RISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE
+ */
+package org.openmali.vecmath2.arrays;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+/**
+ * Base class of the packed (structure-of-arrays) containers.
+ * All elements are stored back to back in a single float[] or in a single (direct) FloatBuffer,
+ * instead of one object (plus its own arrays) per element.
+ * 
+ * Elements are read and written through the index based accessors or copied from and to
+ * a reusable flyweight instance (e.g. a Tuple3f).
+ */
+public abstract class PackedFloatArray {
+	private final int elementSize;
+	private final int size;
+
+	private final float[] array;
+	private final FloatBuffer buffer;
+
+	/**
+	 * @return the number of floats per element.
+	 */
+	public final int getElementSize() {
+		return (elementSize);
+	}
+
+	/**
+	 * @return the number of elements.
+	 */
+	public final int getSize() {
+		return (size);
+	}
+
+	/**
+	 * @return true, if the elements are stored in a FloatBuffer (and not in a float[]).
+	 */
+	public final boolean isBufferBacked() {
+		return (buffer != null);
+	}
+
+	/**
+	 * @return the backing array or null, if the elements are stored in a FloatBuffer.
+	 */
+	public final float[] getArray() {
+		return (array);
+	}
+
+	/**
+	 * @return the backing buffer. For array backed containers a new buffer wrapping the array is returned.
+	 * Element i starts at the absolute position i * {@link #getElementSize()}.
+	 */
+	public final FloatBuffer getBuffer() {
+		if (buffer != null)
+			return (buffer);
+
+		return (FloatBuffer.wrap(array));
+	}
+
+	/**
+	 * Gets one component of an element.
+	 * 
+	 * @param index
+	 * @param component
+	 * 
+	 * @return the value
+	 */
+	public final float getValue(int index, int component) {
+		if (array != null)
+			return (array[index * elementSize + component]);
+
+		return (buffer.get(index * elementSize + component));
+	}
+
+	/**
+	 * Sets one component of an element.
+	 * 
+	 * @param index
+	 * @param component
+	 * @param value
+	 */
+	public final void setValue(int index, int component, float value) {
+		if (array != null)
+			array[index * elementSize + component] = value;
+		else
+			buffer.put(index * elementSize + component, value);
+	}
+
+	/**
+	 * Copies an element to a float array.
+	 * 
+	 * @param index
+	 * @param values
+	 * @param offset
+	 */
+	public final void get(int index, float[] values, int offset) {
+		final int i = index * elementSize;
+
+		if (array != null) {
+			System.arraycopy(array, i, values, offset, elementSize);
+		} else {
+			for (int j = 0; j < elementSize; j++)
+				values[offset + j] = buffer.get(i + j);
+		}
+	}
+
+	/**
+	 * Copies an element from a float array.
+	 * 
+	 * @param index
+	 * @param values
+	 * @param offset
+	 */
+	public final void set(int index, float[] values, int offset) {
+		final int i = index * elementSize;
+
+		if (array != null) {
+			System.arraycopy(values, offset, array, i, elementSize);
+		} else {
+			for (int j = 0; j < elementSize; j++)
+				buffer.put(i + j, values[offset + j]);
+		}
+	}
+
+	/**
+	 * Copies one element over another one.
+	 * 
+	 * @param srcIndex
+	 * @param dstIndex
+	 */
+	public final void copy(int srcIndex, int dstIndex) {
+		final int src = srcIndex * elementSize;
+		final int dst = dstIndex * elementSize;
+
+		if (array != null) {
+			System.arraycopy(array, src, array, dst, elementSize);
+		} else {
+			for (int j = 0; j < elementSize; j++)
+				buffer.put(dst + j, buffer.get(src + j));
+		}
+	}
+
+	/**
+	 * Sets all components of all elements to the given value.
+	 * 
+	 * @param value
+	 */
+	public final void fill(float value) {
+		if (array != null) {
+			Arrays.fill(array, value);
+		} else {
+			final int n = size * elementSize;
+
+			for (int i = 0; i < n; i++)
+				buffer.put(i, value);
+		}
+	}
+
+	/**
+	 * Writes all elements to a FloatBuffer.
+	 * 
+	 * @param buffer
+	 * @param clear clear the buffer before writing data?
+	 * @param flip flip the buffer after writing data?
+	 * 
+	 * @return the buffer
+	 */
+	public final FloatBuffer writeToBuffer(FloatBuffer buffer, boolean clear, boolean flip) {
+		if (clear)
+			buffer.clear();
+
+		if (array != null) {
+			buffer.put(array, 0, size * elementSize);
+		} else {
+			final FloatBuffer src = this.buffer.duplicate();
+			src.clear();
+			src.limit(size * elementSize);
+
+			buffer.put(src);
+		}
+
+		if (flip)
+			buffer.flip();
+
+		return (buffer);
+	}
+
+	/**
+	 * Reads all elements from a FloatBuffer (starting at its current position).
+	 * 
+	 * @param buffer
+	 * 
+	 * @return the buffer
+	 */
+	public final FloatBuffer readFromBuffer(FloatBuffer buffer) {
+		if (array != null) {
+			buffer.get(array, 0, size * elementSize);
+		} else {
+			final FloatBuffer src = buffer.duplicate();
+			src.limit(src.position() + size * elementSize);
+
+			final FloatBuffer dst = this.buffer.duplicate();
+			dst.clear();
+			dst.put(src);
+
+			buffer.position(buffer.position() + size * elementSize);
+		}
+
+		return (buffer);
+	}
+
+	/**
+	 * Allocates a direct FloatBuffer in native byte order, that can be passed to native code (e.g. OpenGL) as is.
+	 * 
+	 * @param numFloats
+	 * 
+	 * @return the new buffer
+	 */
+	public static final FloatBuffer allocateDirectBuffer(int numFloats) {
+		return (ByteBuffer.allocateDirect(numFloats * 4).order(ByteOrder.nativeOrder()).asFloatBuffer());
+	}
+
+	/**
+	 * Creates a new container.
+	 * 
+	 * @param elementSize
+	 * @param size the number of elements
+	 * @param direct store the elements in a direct FloatBuffer instead of a float[]?
+	 */
+	protected PackedFloatArray(int elementSize, int size, boolean direct) {
+		if (size < 0)
+			throw new IllegalArgumentException("size must not be negative.");
+
+		this.elementSize = elementSize;
+		this.size = size;
+
+		if (direct) {
+			this.array = null;
+			this.buffer = allocateDirectBuffer(size * elementSize);
+		} else {
+			this.array = new float[size * elementSize];
+			this.buffer = null;
+		}
+	}
+
+	/**
+	 * Creates a new container backed by the given array (not copied).
+	 * 
+	 * @param elementSize
+	 * @param array
+	 */
+	protected PackedFloatArray(int elementSize, float[] array) {
+		if (array.length % elementSize != 0)
+			throw new IllegalArgumentException("The array's length must be a multiple of " + elementSize + ".");
+
+		this.elementSize = elementSize;
+		this.size = array.length / elementSize;
+		this.array = array;
+		this.buffer = null;
+	}
+
+	/**
+	 * Creates a new container backed by the given buffer (not copied).
+	 * The elements are addressed absolutely, starting at position 0. The buffer's position and limit are ignored.
+	 * 
+	 * @param elementSize
+	 * @param buffer
+	 */
+	protected PackedFloatArray(int elementSize, FloatBuffer buffer) {
+		this.elementSize = elementSize;
+		this.size = buffer.capacity() / elementSize;
+		this.array = null;
+		this.buffer = buffer;
+	}
+}
@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) 2007-2009, OpenMaLi Project Group all rights reserved.
+ * 
+ * Portions based on the Sun's javax.vecmath interface, Copyright by Sun
+ * Microsystems or Kenji Hiranabe's alternative GC-cheap implementation.
+ * Many thanks to the developers.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the 'OpenMaLi Project Group' nor the names of its
+ * contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) A
+ * RISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE
+ */
+package org.openmali.vecmath2.arrays;
+
+import java.nio.FloatBuffer;
+
+import org.openmali.spatial.VertexContainer;
+import org.openmali.vecmath2.Tuple3f;
+
+/**
+ * A packed container of points. It can directly be used as a {@link VertexContainer}.
+ */
+public class Point3fArray extends Tuple3fArray implements VertexContainer {
+	/**
+	 * {@inheritDoc}
+	 */
+	public final int getVertexCount() {
+		return (getSize());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public final boolean getVertex(int i, Tuple3f coord) {
+		get(i, coord);
+
+		return (true);
+	}
+
+	/**
+	 * @param index
+	 * @param x
+	 * @param y
+	 * @param z
+	 * 
+	 * @return the squared distance between the point at the given index and the given point.
+	 */
+	public final float distanceSquared(int index, float x, float y, float z) {
+		final float dx = getX(index) - x;
+		final float dy = getY(index) - y;
+		final float dz = getZ(index) - z;
+
+		return (dx * dx + dy * dy + dz * dz);
+	}
+
+	/**
+	 * Computes the axis aligned bounding box of all points.
+	 * 
+	 * @param lower
+	 * @param upper
+	 * 
+	 * @return false, if the container is empty
+	 */
+	public final boolean getBounds(Tuple3f lower, Tuple3f upper) {
+		if (getSize() == 0)
+			return (false);
+
+		float lowerX = Float.MAX_VALUE;
+		float lowerY = Float.MAX_VALUE;
+		float lowerZ = Float.MAX_VALUE;
+		float upperX = -Float.MAX_VALUE;
+		float upperY = -Float.MAX_VALUE;
+		float upperZ = -Float.MAX_VALUE;
+
+		for (int i = 0; i < getSize(); i++) {
+			final float x = getX(i);
+			final float y = getY(i);
+			final float z = getZ(i);
+
+			if (x < lowerX)
+				lowerX = x;
+			if (x > upperX)
+				upperX = x;
+			if (y < lowerY)
+				lowerY = y;
+			if (y > upperY)
+				upperY = y;
+			if (z < lowerZ)
+				lowerZ = z;
+			if (z > upperZ)
+				upperZ = z;
+		}
+
+		lower.set(lowerX, lowerY, lowerZ);
+		upper.set(upperX, upperY, upperZ);
+
+		return (true);
+	}
+
+	/**
+	 * Creates a new container backed by a float[].
+	 * 
+	 * @param size the number of points
+	 */
+	public Point3fArray(int size) {
+		super(size, false);
+	}
+
+	/**
+	 * Creates a new container.
+	 * 
+	 * @param size the number of points
+	 * @param direct store the points in a direct FloatBuffer instead of a float[]?
+	 */
+	public Point3fArray(int size, boolean direct) {
+		super(size, direct);
+	}
+
+	/**
+	 * Creates a new container backed by the given array (not copied).
+	 * 
+	 * @param array 3 floats per element
+	 */
+	public Point3fArray(float[] array) {
+		super(array);
+	}
+
+	/**
+	 * Creates a new container backed by the given buffer (not copied).
+	 * 
+	 * @param buffer 3 floats per element
+	 */
+	public Point3fArray(FloatBuffer buffer) {
+		super(buffer);
+	}
+}
@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2007-2009, OpenMaLi Project Group all rights reserved.
+ * 
+ * Portions based on the Sun's javax.vecmath interface, Copyright by Sun
+ * Microsystems or Kenji Hiranabe's alternative GC-cheap implementation.
+ * Many thanks to the developers.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the 'OpenMaLi Project Group' nor the names of its
+ * contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) A
+ * RISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE
+ */
+package org.openmali.vecmath2.arrays;
+
+import java.nio.FloatBuffer;
+
+import org.openmali.vecmath2.TexCoord2f;
+
+/**
+ * A packed container of two-dimensional texture coordinates.
+ */
+public class TexCoord2fArray extends PackedFloatArray {
+	/**
+	 * @param index
+	 * 
+	 * @return the s-element of the texture coordinate at the given index.
+	 */
+	public final float getS(int index) {
+		return (getValue(index, 0));
+	}
+
+	/**
+	 * @param index
+	 * 
+	 * @return the t-element of the texture coordinate at the given index.
+	 */
+	public final float getT(int index) {
+		return (getValue(index, 1));
+	}
+
+	/**
+	 * Sets the texture coordinate at the given index.
+	 * 
+	 * @param index
+	 * @param s
+	 * @param t
+	 */
+	public final void set(int index, float s, float t) {
+		setValue(index, 0, s);
+		setValue(index, 1, t);
+	}
+
+	/**
+	 * Sets the texture coordinate at the given index.
+	 * 
+	 * @param index
+	 * @param texCoord
+	 */
+	public final void set(int index, TexCoord2f texCoord) {
+		set(index, texCoord.getS(), texCoord.getT());
+	}
+
+	/**
+	 * Copies the texture coordinate at the given index to the given (flyweight) instance.
+	 * 
+	 * @param index
+	 * @param texCoord
+	 * 
+	 * @return the passed texture coordinate
+	 */
+	public final TexCoord2f get(int index, TexCoord2f texCoord) {
+		return (texCoord.set(getS(index), getT(index)));
+	}
+
+	/**
+	 * Creates a new container backed by a float[].
+	 * 
+	 * @param size the number of texture coordinates
+	 */
+	public TexCoord2fArray(int size) {
+		super(2, size, false);
+	}
+
+	/**
+	 * Creates a new container.
+	 * 
+	 * @param size the number of texture coordinates
+	 * @param direct store the texture coordinates in a direct FloatBuffer instead of a float[]?
+	 */
+	public TexCoord2fArray(int size, boolean direct) {
+		super(2, size, direct);
+	}
+
+	/**
+	 * Creates a new container backed by the given array (not copied).
+	 * 
+	 * @param array 2 floats per element
+	 */
+	public TexCoord2fArray(float[] array) {
+		super(2, array);
+	}
+
+	/**
+	 * Creates a new container backed by the given buffer (not copied).
+	 * 
+	 * @param buffer 2 floats per element
+	 */
+	public TexCoord2fArray(FloatBuffer buffer) {
+		super(2, buffer);
+	}
+}
@@ -0,0 +1,175 @@
+/**
+ * Copyright (c) 2007-2009, OpenMaLi Project Group all rights reserved.
+ * 
+ * Portions based on the Sun's javax.vecmath interface, Copyright by Sun
+ * Microsystems or Kenji Hiranabe's alternative GC-cheap implementation.
+ * Many thanks to the developers.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the 'OpenMaLi Project Group' nor the names of its
+ * contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) A
+ * RISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE
+ */
+package org.openmali.vecmath2.arrays;
+
+import java.nio.FloatBuffer;
+
+import org.openmali.vecmath2.Tuple3f;
+
+/**
+ * A packed container of three-dimensional tuples.
+ */
+public class Tuple3fArray extends PackedFloatArray {
+	/**
+	 * @param index
+	 * 
+	 * @return the x-element of the tuple at the given index.
+	 */
+	public final float getX(int index) {
+		return (getValue(index, 0));
+	}
+
+	/**
+	 * @param index
+	 * 
+	 * @return the y-element of the tuple at the given index.
+	 */
+	public final float getY(int index) {
+		return (getValue(index, 1));
+	}
+
+	/**
+	 * @param index
+	 * 
+	 * @return the z-element of the tuple at the given index.
+	 */
+	public final float getZ(int index) {
+		return (getValue(index, 2));
+	}
+
+	/**
+	 * Sets the tuple at the given index.
+	 * 
+	 * @param index
+	 * @param x
+	 * @param y
+	 * @param z
+	 */
+	public final void set(int index, float x, float y, float z) {
+		final float[] array = getArray();
+
+		if (array != null) {
+			final int i = index * 3;
+
+			array[i + 0] = x;
+			array[i + 1] = y;
+			array[i + 2] = z;
+		} else {
+			setValue(index, 0, x);
+			setValue(index, 1, y);
+			setValue(index, 2, z);
+		}
+	}
+
+	/**
+	 * Sets the tuple at the given index.
+	 * 
+	 * @param index
+	 * @param tuple
+	 */
+	public final void set(int index, Tuple3f tuple) {
+		set(index, tuple.getX(), tuple.getY(), tuple.getZ());
+	}
+
+	/**
+	 * Sets the tuples starting at the given index.
+	 * 
+	 * @param index
+	 * @param tuples
+	 */
+	public final void set(int index, Tuple3f[] tuples) {
+		for (int i = 0; i < tuples.length; i++)
+			set(index + i, tuples[i]);
+	}
+
+	/**
+	 * Copies the tuple at the given index to the given (flyweight) tuple.
+	 * 
+	 * @param <T>
+	 * @param index
+	 * @param tuple
+	 * 
+	 * @return the passed tuple
+	 */
+	public final <T extends Tuple3f> T get(int index, T tuple) {
+		final float[] array = getArray();
+
+		if (array != null) {
+			final int i = index * 3;
+
+			tuple.set(array[i + 0], array[i + 1], array[i + 2]);
+		} else {
+			tuple.set(getValue(index, 0), getValue(index, 1), getValue(index, 2));
+		}
+
+		return (tuple);
+	}
+
+	/**
+	 * Creates a new container backed by a float[].
+	 * 
+	 * @param size the number of tuples
+	 */
+	public Tuple3fArray(int size) {
+		super(3, size, false);
+	}
+
+	/**
+	 * Creates a new container.
+	 * 
+	 * @param size the number of tuples
+	 * @param direct store the tuples in a direct FloatBuffer instead of a float[]?
+	 */
+	public Tuple3fArray(int size, boolean direct) {
+		super(3, size, direct);
+	}
+
+	/**
+	 * Creates a new container backed by the given array (not copied).
+	 * 
+	 * @param array 3 floats per element
+	 */
+	public Tuple3fArray(float[] array) {
+		super(3, array);
+	}
+
+	/**
+	 * Creates a new container backed by the given buffer (not copied).
+	 * 
+	 * @param buffer 3 floats per element
+	 */
+	public Tuple3fArray(FloatBuffer buffer) {
+		super(3, buffer);
+	}
+}
@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) 2007-2009, OpenMaLi Project Group all rights reserved.
+ * 
+ * Portions based on the Sun's javax.vecmath interface, Copyright by Sun
+ * Microsystems or Kenji Hiranabe's alternative GC-cheap implementation.
+ * Many thanks to the developers.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the 'OpenMaLi Project Group' nor the names of its
+ * contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) A
+ * RISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE
+ */
+package org.openmali.vecmath2.arrays;
+
+import java.nio.FloatBuffer;
+
+/**
+ * A packed container of vectors (e.g. normals).
+ */
+public class Vector3fArray extends Tuple3fArray {
+	/**
+	 * @param index
+	 * 
+	 * @return the squared length of the vector at the given index.
+	 */
+	public final float lengthSquared(int index) {
+		final float x = getX(index);
+		final float y = getY(index);
+		final float z = getZ(index);
+
+		return (x * x + y * y + z * z);
+	}
+
+	/**
+	 * @param index
+	 * 
+	 * @return the length of the vector at the given index.
+	 */
+	public final float length(int index) {
+		return ((float) Math.sqrt(lengthSquared(index)));
+	}
+
+	/**
+	 * @param index1
+	 * @param index2
+	 * 
+	 * @return the dot product of the two vectors at the given indices.
+	 */
+	public final float dot(int index1, int index2) {
+		return (getX(index1) * getX(index2) + getY(index1) * getY(index2) + getZ(index1) * getZ(index2));
+	}
+
+	/**
+	 * Normalizes the vector at the given index. Zero vectors are left untouched.
+	 * 
+	 * @param index
+	 */
+	public final void normalize(int index) {
+		final float lengthSquared = lengthSquared(index);
+
+		if (lengthSquared == 0f)
+			return;
+
+		final float f = 1f / (float) Math.sqrt(lengthSquared);
+
+		set(index, getX(index) * f, getY(index) * f, getZ(index) * f);
+	}
+
+	/**
+	 * Normalizes all vectors. Zero vectors are left untouched.
+	 */
+	public final void normalize() {
+		for (int i = 0; i < getSize(); i++)
+			normalize(i);
+	}
+
+	/**
+	 * Creates a new container backed by a float[].
+	 * 
+	 * @param size the number of vectors
+	 */
+	public Vector3fArray(int size) {
+		super(size, false);
+	}
+
+	/**
+	 * Creates a new container.
+	 * 
+	 * @param size the number of vectors
+	 * @param direct store the vectors in a direct FloatBuffer instead of a float[]?
+	 */
+	public Vector3fArray(int size, boolean direct) {
+		super(size, direct);
+	}
+
+	/**
+	 * Creates a new container backed by the given array (not copied).
+	 * 
+	 * @param array 3 floats per element
+	 */
+	public Vector3fArray(float[] array) {
+		super(array);
+	}
+
+	/**
+	 * Creates a new container backed by the given buffer (not copied).
+	 * 
+	 * @param buffer 3 floats per element
+	 */
+	public Vector3fArray(FloatBuffer buffer) {
+		super(buffer);
+	}
+}
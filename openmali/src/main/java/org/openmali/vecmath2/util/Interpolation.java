@@ -33,7 +33,10 @@
  */
 package org.openmali.vecmath2.util;
 
+import java.nio.FloatBuffer;
+
 import org.openmali.FastMath;
+import org.openmali.vecmath2.Matrix4f;
 import org.openmali.vecmath2.Quaternion4f;
 import org.openmali.vecmath2.Tuple3f;
 import org.openmali.vecmath2.Vector3f;
@@ -165,16 +168,182 @@ public class Interpolation {
 	 *                The keyframe "after" now
 	 */
 	public static void interpolate(Tuple3f tupleOrigin, Tuple3f tupleDestiny, float delta, Tuple3f toInterpolate) {
-		final Vector3f deltaVec = Vector3f.fromPool();
+		final VecStack stack = VecStack.push();
+		try {
+			final Vector3f deltaVec = stack.vec3();
+
+			// space distance beetween both "keyframes"
+			deltaVec.sub(tupleDestiny, tupleOrigin);
+
+			// interpolate translation/scale with delta
+			deltaVec.scale(delta);
+			toInterpolate.set(tupleOrigin);
+			toInterpolate.add(deltaVec);
+		} finally {
+			stack.pop();
+		}
+	}
+
+	/**
+	 * Above this dot product of two keyframe quaternions the bone kernels use
+	 * NLERP, below it they fall back to SLERP. It corresponds to about 36
+	 * degrees of rotation between the keyframes, where NLERP deviates from
+	 * SLERP by less than a tenth of a degree.
+	 */
+	private static final float NLERP_MIN_DOT = 0.95f;
+
+	/**
+	 * Blends the rotation and translation of one bone and writes the local
+	 * transform as a row major 4x4 matrix to dst at offset d.
+	 */
+	private static final void interpolateBone(float[] quatsFrom, float[] quatsTo, float[] transFrom, float[] transTo, float alpha, int bone, float[] dst, int d) {
+		final int q = bone * 4;
+		final int t = bone * 3;
+
+		final float ax = quatsFrom[q + 0], ay = quatsFrom[q + 1], az = quatsFrom[q + 2], aw = quatsFrom[q + 3];
+		float bx = quatsTo[q + 0], by = quatsTo[q + 1], bz = quatsTo[q + 2], bw = quatsTo[q + 3];
+
+		float dot = ax * bx + ay * by + az * bz + aw * bw;
+		if (dot < 0.0f) {
+			// q and -q are the same rotation. Take the shorter arc.
+			dot = -dot;
+			bx = -bx;
+			by = -by;
+			bz = -bz;
+			bw = -bw;
+		}
+
+		final float w0, w1;
+		if (dot > NLERP_MIN_DOT) {
+			w0 = 1.0f - alpha;
+			w1 = alpha;
+		} else {
+			final float angle = FastMath.acos(dot);
+			final float invSin = 1.0f / FastMath.sin(angle);
+			w0 = FastMath.sin((1.0f - alpha) * angle) * invSin;
+			w1 = FastMath.sin(alpha * angle) * invSin;
+		}
+
+		final float x = w0 * ax + w1 * bx;
+		final float y = w0 * ay + w1 * by;
+		final float z = w0 * az + w1 * bz;
+		final float w = w0 * aw + w1 * bw;
+
+		// The rotation matrix is built with 2 / |q|^2, which normalizes the
+		// blended quaternion without a square root.
+		final float n = x * x + y * y + z * z + w * w;
+		final float s = (n > 0.0f) ? (2.0f / n) : 0.0f;
+
+		final float xs = x * s, ys = y * s, zs = z * s;
+		final float wx = w * xs, wy = w * ys, wz = w * zs;
+		final float xx = x * xs, xy = x * ys, xz = x * zs;
+		final float yy = y * ys, yz = y * zs, zz = z * zs;
+
+		dst[d + 0] = 1.0f - (yy + zz);
+		dst[d + 1] = xy - wz;
+		dst[d + 2] = xz + wy;
+		dst[d + 3] = transFrom[t + 0] + (transTo[t + 0] - transFrom[t + 0]) * alpha;
+		dst[d + 4] = xy + wz;
+		dst[d + 5] = 1.0f - (xx + zz);
+		dst[d + 6] = yz - wx;
+		dst[d + 7] = transFrom[t + 1] + (transTo[t + 1] - transFrom[t + 1]) * alpha;
+		dst[d + 8] = xz - wy;
+		dst[d + 9] = yz + wx;
+		dst[d + 10] = 1.0f - (xx + yy);
+		dst[d + 11] = transFrom[t + 2] + (transTo[t + 2] - transFrom[t + 2]) * alpha;
+		dst[d + 12] = 0.0f;
+		dst[d + 13] = 0.0f;
+		dst[d + 14] = 0.0f;
+		dst[d + 15] = 1.0f;
+	}
+
+	/**
+	 * Blends the keyframes of a range of bones and writes their local
+	 * transforms as packed row major 4x4 matrices.<br>
+	 * The rotations are interpolated by NLERP like
+	 * {@link #nlerp(Quaternion4f, Quaternion4f, float, Quaternion4f)}, or by
+	 * SLERP, if the keyframes are too far apart for NLERP. The translations
+	 * are interpolated linearly. No objects are touched or allocated.
+	 * 
+	 * @param quatsFrom the "before" rotations, four floats (a, b, c, d) per bone
+	 * @param quatsTo the "after" rotations, four floats (a, b, c, d) per bone
+	 * @param transFrom the "before" translations, three floats per bone
+	 * @param transTo the "after" translations, three floats per bone
+	 * @param alphas the interpolation amount per bone (0 for "before", 1 for "after")
+	 * @param firstBone the index of the first bone to blend
+	 * @param boneCount the number of bones to blend
+	 * @param dst the matrices. The matrix of bone i is written to dstOffset + 16 * i.
+	 * @param dstOffset
+	 */
+	public static final void interpolateBones(float[] quatsFrom, float[] quatsTo, float[] transFrom, float[] transTo, float[] alphas, int firstBone, int boneCount, float[] dst, int dstOffset) {
+		final int end = firstBone + boneCount;
 
-		// space distance beetween both "keyframes"
-		deltaVec.sub(tupleDestiny, tupleOrigin);
+		for (int i = firstBone; i < end; i++) {
+			interpolateBone(quatsFrom, quatsTo, transFrom, transTo, alphas[i], i, dst, dstOffset + i * 16);
+		}
+	}
+
+	/**
+	 * Blends the keyframes of a range of bones and writes their local
+	 * transforms as packed row major 4x4 matrices.
+	 * The buffer is addressed absolutely, its position is not changed.
+	 * Heap buffers are written through their backing arrays.
+	 * 
+	 * @see #interpolateBones(float[], float[], float[], float[], float[], int, int, float[], int)
+	 * 
+	 * @param quatsFrom the "before" rotations, four floats (a, b, c, d) per bone
+	 * @param quatsTo the "after" rotations, four floats (a, b, c, d) per bone
+	 * @param transFrom the "before" translations, three floats per bone
+	 * @param transTo the "after" translations, three floats per bone
+	 * @param alphas the interpolation amount per bone (0 for "before", 1 for "after")
+	 * @param firstBone the index of the first bone to blend
+	 * @param boneCount the number of bones to blend
+	 * @param dst the matrices. The matrix of bone i is written to dstOffset + 16 * i.
+	 * @param dstOffset
+	 */
+	public static final void interpolateBones(float[] quatsFrom, float[] quatsTo, float[] transFrom, float[] transTo, float[] alphas, int firstBone, int boneCount, FloatBuffer dst, int dstOffset) {
+		if (dst.hasArray() && !dst.isReadOnly()) {
+			interpolateBones(quatsFrom, quatsTo, transFrom, transTo, alphas, firstBone, boneCount, dst.array(), dst.arrayOffset() + dstOffset);
+
+			return;
+		}
 
-		// interpolate translation/scale with delta
-		deltaVec.scale(delta);
-		toInterpolate.set(tupleOrigin);
-		toInterpolate.add(deltaVec);
+		final float[] tmp = new float[16];
+		final int end = firstBone + boneCount;
 
-		Vector3f.toPool(deltaVec);
+		for (int i = firstBone; i < end; i++) {
+			interpolateBone(quatsFrom, quatsTo, transFrom, transTo, alphas[i], i, tmp, 0);
+
+			final int d = dstOffset + i * 16;
+			for (int j = 0; j < 16; j++) {
+				dst.put(d + j, tmp[j]);
+			}
+		}
+	}
+
+	/**
+	 * Blends the keyframes of a range of bones and writes their local
+	 * transforms to the given matrices.
+	 * 
+	 * @see #interpolateBones(float[], float[], float[], float[], float[], int, int, float[], int)
+	 * 
+	 * @param quatsFrom the "before" rotations, four floats (a, b, c, d) per bone
+	 * @param quatsTo the "after" rotations, four floats (a, b, c, d) per bone
+	 * @param transFrom the "before" translations, three floats per bone
+	 * @param transTo the "after" translations, three floats per bone
+	 * @param alphas the interpolation amount per bone (0 for "before", 1 for "after")
+	 * @param firstBone the index of the first bone to blend
+	 * @param boneCount the number of bones to blend
+	 * @param dst the matrices, indexed by bone
+	 */
+	public static final void interpolateBones(float[] quatsFrom, float[] quatsTo, float[] transFrom, float[] transTo, float[] alphas, int firstBone, int boneCount, Matrix4f[] dst) {
+		final float[] tmp = new float[16];
+		final int end = firstBone + boneCount;
+
+		for (int i = firstBone; i < end; i++) {
+			interpolateBone(quatsFrom, quatsTo, transFrom, transTo, alphas[i], i, tmp, 0);
+
+			dst[i].set(tmp[0], tmp[1], tmp[2], tmp[3], tmp[4], tmp[5], tmp[6], tmp[7], tmp[8], tmp[9], tmp[10], tmp[11], tmp[12], tmp[13], tmp[14], tmp[15]);
+		}
 	}
 }
@@ -33,10 +33,16 @@
  */
 package org.openmali.vecmath2.util;
 
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+
 import org.openmali.FastMath;
 import org.openmali.vecmath2.AxisAngle3f;
+import org.openmali.vecmath2.Matrix3d;
 import org.openmali.vecmath2.Matrix3f;
+import org.openmali.vecmath2.Matrix4d;
 import org.openmali.vecmath2.Matrix4f;
+import org.openmali.vecmath2.Tuple3d;
 import org.openmali.vecmath2.Tuple3f;
 
 /**
@@ -321,6 +327,70 @@ public class MatrixUtils {
 		return (result);
 	}
 
+	/**
+	 * Creates a 3x3 rotation matrix by a specified vector.
+	 * 
+	 * @param axisX the x-component of the vector (axis) to rotate about
+	 * @param axisY the y-component of the vector (axis) to rotate about
+	 * @param axisZ the z-component of the vector (axis) to rotate about
+	 * @param angle the angle to rotate by
+	 * @param out the Matrix3d to write the result to
+	 */
+	public static final void getRotationMatrix(double axisX, double axisY, double axisZ, double angle, Matrix3d out) {
+		final double length = Math.sqrt(axisX * axisX + axisY * axisY + axisZ * axisZ);
+		final double v1 = (axisX / length);
+		final double v2 = (axisY / length);
+		final double v3 = (axisZ / length);
+
+		final double v1q = v1 * v1;
+		final double v2q = v2 * v2;
+		final double v3q = v3 * v3;
+
+		final double a = angle;
+		final double sin_a = Math.sin(a);
+		final double cos_a = Math.cos(a);
+
+		final double m11 = (cos_a + (v1q * (1 - cos_a)));
+		final double m12 = ((v1 * v2 * (1 - cos_a)) - (v3 * sin_a));
+		final double m13 = ((v1 * v3 * (1 - cos_a)) + (v2 * sin_a));
+		final double m21 = ((v2 * v1 * (1 - cos_a)) + (v3 * sin_a));
+		final double m22 = (cos_a + (v2q * (1 - cos_a)));
+		final double m23 = ((v2 * v3 * (1 - cos_a)) - (v1 * sin_a));
+		final double m31 = ((v3 * v1 * (1 - cos_a)) - (v2 * sin_a));
+		final double m32 = ((v3 * v2 * (1 - cos_a)) + (v1 * sin_a));
+		final double m33 = (cos_a + (v3q * (1 - cos_a)));
+
+		/*
+		 * out.set( m11, m12, m13, m21, m22, m23, m31, m32, m33 );
+		 */
+		out.m00(m11);
+		out.m01(m12);
+		out.m02(m13);
+		out.m10(m21);
+		out.m11(m22);
+		out.m12(m23);
+		out.m20(m31);
+		out.m21(m32);
+		out.m22(m33);
+	}
+
+	/**
+	 * Creates a 3x3 rotation matrix by a specified vector.
+	 * 
+	 * @param axisX the vector (axis) to rotate around
+	 * @param axisY the vector (axis) to rotate around
+	 * @param axisZ the vector (axis) to rotate around
+	 * @param angle the angle to rotate by
+	 * @return the created 3x3 rotation matrix
+	 */
+	public static final Matrix3d getRotationMatrix(double axisX, double axisY, double axisZ, double angle) {
+		final Matrix3d result = new Matrix3d();
+
+		getRotationMatrix(axisX, axisY, axisZ, angle, result);
+
+		return (result);
+	}
+
 	/**
 	 * Creates a 3x3 rotation matrix by the x-axis.
 	 * 
@@ -373,6 +443,28 @@ public class MatrixUtils {
 		return (getRotationMatrix(axis.getX(), axis.getY(), axis.getZ(), angle));
 	}
 
+	/**
+	 * Creates a 3x3 rotation matrix by a specified vector.
+	 * 
+	 * @param axis Rotation axis
+	 * @param angle the angle to rotate by
+	 * @param out the Matrix3d to write the result to
+	 */
+	public static void getRotationMatrix(Tuple3d axis, double angle, Matrix3d out) {
+		getRotationMatrix(axis.getX(), axis.getY(), axis.getZ(), angle, out);
+	}
+
+	/**
+	 * Creates a 3x3 rotation matrix by a specified vector.
+	 * 
+	 * @param axis Rotation axis
+	 * @param angle the angle to rotate by
+	 * @return the created 3x3 rotation matrix
+	 */
+	public static Matrix3d getRotationMatrix(Tuple3d axis, double angle) {
+		return (getRotationMatrix(axis.getX(), axis.getY(), axis.getZ(), angle));
+	}
+
 	/**
 	 * Computes the rotation between the vectors v1 ans v2.
 	 * 
@@ -420,4 +512,486 @@ public class MatrixUtils {
 
 		return (result);
 	}
+
+	private static final void checkStride(int stride) {
+		if (stride < 3)
+			throw new IllegalArgumentException("stride must be at least 3.");
+	}
+
+	/**
+	 * Transforms count tuples by the affine 3x4 matrix (the upper three rows of a 4x4 matrix).
+	 * This is the kernel behind the bulk transform methods of {@link Matrix4f} and {@link Matrix3f}.
+	 * The coefficients are passed as locals, so the loop doesn't touch any matrix or tuple object.
+	 * src and dst may be the same array at the same offset.
+	 * 
+	 * @param m00
+	 * @param m01
+	 * @param m02
+	 * @param m03
+	 * @param m10
+	 * @param m11
+	 * @param m12
+	 * @param m13
+	 * @param m20
+	 * @param m21
+	 * @param m22
+	 * @param m23
+	 * @param src
+	 * @param srcOffset
+	 * @param dst
+	 * @param dstOffset
+	 * @param count the number of tuples
+	 * @param stride the number of floats from one tuple to the next (at least 3)
+	 */
+	public static final void transformAffine(float m00, float m01, float m02, float m03, float m10, float m11, float m12, float m13, float m20, float m21, float m22, float m23, float[] src,
+			int srcOffset, float[] dst, int dstOffset, int count, int stride) {
+		checkStride(stride);
+
+		int s = srcOffset;
+		int d = dstOffset;
+
+		for (int i = 0; i < count; i++) {
+			final float x = src[s + 0];
+			final float y = src[s + 1];
+			final float z = src[s + 2];
+
+			dst[d + 0] = m00 * x + m01 * y + m02 * z + m03;
+			dst[d + 1] = m10 * x + m11 * y + m12 * z + m13;
+			dst[d + 2] = m20 * x + m21 * y + m22 * z + m23;
+
+			s += stride;
+			d += stride;
+		}
+	}
+
+	/**
+	 * Transforms count tuples by the affine 3x4 matrix (the upper three rows of a 4x4 matrix).
+	 * The buffers are addressed absolutely, their positions are not changed.
+	 * Heap buffers are processed through their backing arrays.
+	 * 
+	 * @see #transformAffine(float, float, float, float, float, float, float, float, float, float, float, float, float[], int, float[], int, int, int)
+	 * 
+	 * @param m00
+	 * @param m01
+	 * @param m02
+	 * @param m03
+	 * @param m10
+	 * @param m11
+	 * @param m12
+	 * @param m13
+	 * @param m20
+	 * @param m21
+	 * @param m22
+	 * @param m23
+	 * @param src
+	 * @param srcOffset
+	 * @param dst
+	 * @param dstOffset
+	 * @param count the number of tuples
+	 * @param stride the number of floats from one tuple to the next (at least 3)
+	 */
+	public static final void transformAffine(float m00, float m01, float m02, float m03, float m10, float m11, float m12, float m13, float m20, float m21, float m22, float m23, FloatBuffer src,
+			int srcOffset, FloatBuffer dst, int dstOffset, int count, int stride) {
+		if (src.hasArray() && dst.hasArray() && !dst.isReadOnly()) {
+			transformAffine(m00, m01, m02, m03, m10, m11, m12, m13, m20, m21, m22, m23, src.array(), src.arrayOffset() + srcOffset, dst.array(), dst.arrayOffset() + dstOffset, count, stride);
+
+			return;
+		}
+
+		checkStride(stride);
+
+		int s = srcOffset;
+		int d = dstOffset;
+
+		for (int i = 0; i < count; i++) {
+			final float x = src.get(s + 0);
+			final float y = src.get(s + 1);
+			final float z = src.get(s + 2);
+
+			dst.put(d + 0, m00 * x + m01 * y + m02 * z + m03);
+			dst.put(d + 1, m10 * x + m11 * y + m12 * z + m13);
+			dst.put(d + 2, m20 * x + m21 * y + m22 * z + m23);
+
+			s += stride;
+			d += stride;
+		}
+	}
+
+	/**
+	 * Transforms count normals by the inverse transpose of the given 3x3 matrix,
+	 * so that they stay perpendicular to transformed surfaces under non-uniform scaling.
+	 * The normals are not renormalized. For a singular matrix the cofactor matrix is used.
+	 * 
+	 * @param m00
+	 * @param m01
+	 * @param m02
+	 * @param m10
+	 * @param m11
+	 * @param m12
+	 * @param m20
+	 * @param m21
+	 * @param m22
+	 * @param src
+	 * @param srcOffset
+	 * @param dst
+	 * @param dstOffset
+	 * @param count the number of normals
+	 * @param stride the number of floats from one normal to the next (at least 3)
+	 */
+	public static final void transformNormals(float m00, float m01, float m02, float m10, float m11, float m12, float m20, float m21, float m22, float[] src, int srcOffset, float[] dst,
+			int dstOffset, int count, int stride) {
+		// The inverse transpose is the cofactor matrix divided by the determinant.
+		final float c00 = m11 * m22 - m12 * m21;
+		final float c01 = m12 * m20 - m10 * m22;
+		final float c02 = m10 * m21 - m11 * m20;
+		final float c10 = m02 * m21 - m01 * m22;
+		final float c11 = m00 * m22 - m02 * m20;
+		final float c12 = m01 * m20 - m00 * m21;
+		final float c20 = m01 * m12 - m02 * m11;
+		final float c21 = m02 * m10 - m00 * m12;
+		final float c22 = m00 * m11 - m01 * m10;
+
+		final float det = m00 * c00 + m01 * c01 + m02 * c02;
+		final float f = (det == 0f) ? 1f : 1f / det;
+
+		transformAffine(c00 * f, c01 * f, c02 * f, 0f, c10 * f, c11 * f, c12 * f, 0f, c20 * f, c21 * f, c22 * f, 0f, src, srcOffset, dst, dstOffset, count, stride);
+	}
+
+	/**
+	 * Transforms count normals by the inverse transpose of the given 3x3 matrix.
+	 * The buffers are addressed absolutely, their positions are not changed.
+	 * 
+	 * @see #transformNormals(float, float, float, float, float, float, float, float, float, float[], int, float[], int, int, int)
+	 * 
+	 * @param m00
+	 * @param m01
+	 * @param m02
+	 * @param m10
+	 * @param m11
+	 * @param m12
+	 * @param m20
+	 * @param m21
+	 * @param m22
+	 * @param src
+	 * @param srcOffset
+	 * @param dst
+	 * @param dstOffset
+	 * @param count the number of normals
+	 * @param stride the number of floats from one normal to the next (at least 3)
+	 */
+	public static final void transformNormals(float m00, float m01, float m02, float m10, float m11, float m12, float m20, float m21, float m22, FloatBuffer src, int srcOffset, FloatBuffer dst,
+			int dstOffset, int count, int stride) {
+		final float c00 = m11 * m22 - m12 * m21;
+		final float c01 = m12 * m20 - m10 * m22;
+		final float c02 = m10 * m21 - m11 * m20;
+		final float c10 = m02 * m21 - m01 * m22;
+		final float c11 = m00 * m22 - m02 * m20;
+		final float c12 = m01 * m20 - m00 * m21;
+		final float c20 = m01 * m12 - m02 * m11;
+		final float c21 = m02 * m10 - m00 * m12;
+		final float c22 = m00 * m11 - m01 * m10;
+
+		final float det = m00 * c00 + m01 * c01 + m02 * c02;
+		final float f = (det == 0f) ? 1f : 1f / det;
+
+		transformAffine(c00 * f, c01 * f, c02 * f, 0f, c10 * f, c11 * f, c12 * f, 0f, c20 * f, c21 * f, c22 * f, 0f, src, srcOffset, dst, dstOffset, count, stride);
+	}
+
+	/**
+	 * Transforms count tuples by the affine 3x4 matrix (the upper three rows of a 4x4 matrix).
+	 * This is the double precision kernel behind the bulk transform methods of {@link Matrix4d} and {@link Matrix3d}.
+	 * src and dst may be the same array at the same offset.
+	 * 
+	 * @param m00
+	 * @param m01
+	 * @param m02
+	 * @param m03
+	 * @param m10
+	 * @param m11
+	 * @param m12
+	 * @param m13
+	 * @param m20
+	 * @param m21
+	 * @param m22
+	 * @param m23
+	 * @param src
+	 * @param srcOffset
+	 * @param dst
+	 * @param dstOffset
+	 * @param count the number of tuples
+	 * @param stride the number of doubles from one tuple to the next (at least 3)
+	 */
+	public static final void transformAffine(double m00, double m01, double m02, double m03, double m10, double m11, double m12, double m13, double m20, double m21, double m22, double m23, double[] src,
+			int srcOffset, double[] dst, int dstOffset, int count, int stride) {
+		checkStride(stride);
+
+		int s = srcOffset;
+		int d = dstOffset;
+
+		for (int i = 0; i < count; i++) {
+			final double x = src[s + 0];
+			final double y = src[s + 1];
+			final double z = src[s + 2];
+
+			dst[d + 0] = m00 * x + m01 * y + m02 * z + m03;
+			dst[d + 1] = m10 * x + m11 * y + m12 * z + m13;
+			dst[d + 2] = m20 * x + m21 * y + m22 * z + m23;
+
+			s += stride;
+			d += stride;
+		}
+	}
+
+	/**
+	 * Transforms count tuples by the affine 3x4 matrix (the upper three rows of a 4x4 matrix).
+	 * The buffers are addressed absolutely, their positions are not changed.
+	 * Heap buffers are processed through their backing arrays.
+	 * 
+	 * @see #transformAffine(double, double, double, double, double, double, double, double, double, double, double, double, double[], int, double[], int, int, int)
+	 * 
+	 * @param m00
+	 * @param m01
+	 * @param m02
+	 * @param m03
+	 * @param m10
+	 * @param m11
+	 * @param m12
+	 * @param m13
+	 * @param m20
+	 * @param m21
+	 * @param m22
+	 * @param m23
+	 * @param src
+	 * @param srcOffset
+	 * @param dst
+	 * @param dstOffset
+	 * @param count the number of tuples
+	 * @param stride the number of doubles from one tuple to the next (at least 3)
+	 */
+	public static final void transformAffine(double m00, double m01, double m02, double m03, double m10, double m11, double m12, double m13, double m20, double m21, double m22, double m23, DoubleBuffer src,
+			int srcOffset, DoubleBuffer dst, int dstOffset, int count, int stride) {
+		if (src.hasArray() && dst.hasArray() && !dst.isReadOnly()) {
+			transformAffine(m00, m01, m02, m03, m10, m11, m12, m13, m20, m21, m22, m23, src.array(), src.arrayOffset() + srcOffset, dst.array(), dst.arrayOffset() + dstOffset, count, stride);
+
+			return;
+		}
+
+		checkStride(stride);
+
+		int s = srcOffset;
+		int d = dstOffset;
+
+		for (int i = 0; i < count; i++) {
+			final double x = src.get(s + 0);
+			final double y = src.get(s + 1);
+			final double z = src.get(s + 2);
+
+			dst.put(d + 0, m00 * x + m01 * y + m02 * z + m03);
+			dst.put(d + 1, m10 * x + m11 * y + m12 * z + m13);
+			dst.put(d + 2, m20 * x + m21 * y + m22 * z + m23);
+
+			s += stride;
+			d += stride;
+		}
+	}
+
+	/**
+	 * Transforms count normals by the inverse transpose of the given 3x3 matrix,
+	 * so that they stay perpendicular to transformed surfaces under non-uniform scaling.
+	 * The normals are not renormalized. For a singular matrix the cofactor matrix is used.
+	 * 
+	 * @param m00
+	 * @param m01
+	 * @param m02
+	 * @param m10
+	 * @param m11
+	 * @param m12
+	 * @param m20
+	 * @param m21
+	 * @param m22
+	 * @param src
+	 * @param srcOffset
+	 * @param dst
+	 * @param dstOffset
+	 * @param count the number of normals
+	 * @param stride the number of doubles from one normal to the next (at least 3)
+	 */
+	public static final void transformNormals(double m00, double m01, double m02, double m10, double m11, double m12, double m20, double m21, double m22, double[] src, int srcOffset, double[] dst,
+			int dstOffset, int count, int stride) {
+		// The inverse transpose is the cofactor matrix divided by the determinant.
+		final double c00 = m11 * m22 - m12 * m21;
+		final double c01 = m12 * m20 - m10 * m22;
+		final double c02 = m10 * m21 - m11 * m20;
+		final double c10 = m02 * m21 - m01 * m22;
+		final double c11 = m00 * m22 - m02 * m20;
+		final double c12 = m01 * m20 - m00 * m21;
+		final double c20 = m01 * m12 - m02 * m11;
+		final double c21 = m02 * m10 - m00 * m12;
+		final double c22 = m00 * m11 - m01 * m10;
+
+		final double det = m00 * c00 + m01 * c01 + m02 * c02;
+		final double f = (det == 0d) ? 1d : 1d / det;
+
+		transformAffine(c00 * f, c01 * f, c02 * f, 0d, c10 * f, c11 * f, c12 * f, 0d, c20 * f, c21 * f, c22 * f, 0d, src, srcOffset, dst, dstOffset, count, stride);
+	}
+
+	/**
+	 * Transforms count normals by the inverse transpose of the given 3x3 matrix.
+	 * The buffers are addressed absolutely, their positions are not changed.
+	 * 
+	 * @see #transformNormals(double, double, double, double, double, double, double, double, double, double[], int, double[], int, int, int)
+	 * 
+	 * @param m00
+	 * @param m01
+	 * @param m02
+	 * @param m10
+	 * @param m11
+	 * @param m12
+	 * @param m20
+	 * @param m21
+	 * @param m22
+	 * @param src
+	 * @param srcOffset
+	 * @param dst
+	 * @param dstOffset
+	 * @param count the number of normals
+	 * @param stride the number of doubles from one normal to the next (at least 3)
+	 */
+	public static final void transformNormals(double m00, double m01, double m02, double m10, double m11, double m12, double m20, double m21, double m22, DoubleBuffer src, int srcOffset, DoubleBuffer dst,
+			int dstOffset, int count, int stride) {
+		final double c00 = m11 * m22 - m12 * m21;
+		final double c01 = m12 * m20 - m10 * m22;
+		final double c02 = m10 * m21 - m11 * m20;
+		final double c10 = m02 * m21 - m01 * m22;
+		final double c11 = m00 * m22 - m02 * m20;
+		final double c12 = m01 * m20 - m00 * m21;
+		final double c20 = m01 * m12 - m02 * m11;
+		final double c21 = m02 * m10 - m00 * m12;
+		final double c22 = m00 * m11 - m01 * m10;
+
+		final double det = m00 * c00 + m01 * c01 + m02 * c02;
+		final double f = (det == 0d) ? 1d : 1d / det;
+
+		transformAffine(c00 * f, c01 * f, c02 * f, 0d, c10 * f, c11 * f, c12 * f, 0d, c20 * f, c21 * f, c22 * f, 0d, src, srcOffset, dst, dstOffset, count, stride);
+	}
+
+	/**
+	 * The number of rows of the right hand matrix processed per block by
+	 * {@link #mulRowMajor(float[], int, int, float[], int, int, float[], int, int, int, int, int, int)}.
+	 */
+	private static final int MUL_BLOCK_K = 64;
+
+	/**
+	 * The number of columns of the right hand matrix processed per block by
+	 * {@link #mulRowMajor(float[], int, int, float[], int, int, float[], int, int, int, int, int, int)}.
+	 */
+	private static final int MUL_BLOCK_J = 256;
+
+	/**
+	 * Computes the rows rowBegin to rowEnd - 1 of the row major matrix product c = a * b,
+	 * where a is an m x n and b an n x p matrix. The matrices are addressed by offset
+	 * and row stride (the number of floats from one row to the next), so submatrices
+	 * can be passed directly.<br>
+	 * The loops run in i-k-j order over blocks of b, that fit into the cache. So b
+	 * and c are walked row by row and the innermost loop has no stride.
+	 * c must not overlap a or b.
+	 * 
+	 * @param a
+	 * @param aOffset
+	 * @param aStride
+	 * @param b
+	 * @param bOffset
+	 * @param bStride
+	 * @param c
+	 * @param cOffset
+	 * @param cStride
+	 * @param rowBegin the first row of c to compute
+	 * @param rowEnd the row after the last row of c to compute
+	 * @param n the number of columns of a (rows of b)
+	 * @param p the number of columns of b and c
+	 */
+	public static final void mulRowMajor(float[] a, int aOffset, int aStride, float[] b, int bOffset, int bStride, float[] c, int cOffset, int cStride, int rowBegin, int rowEnd,
+			int n, int p) {
+		for (int i = rowBegin; i < rowEnd; i++) {
+			final int cRow = cOffset + i * cStride;
+
+			for (int j = 0; j < p; j++)
+				c[cRow + j] = 0f;
+		}
+
+		for (int kk = 0; kk < n; kk += MUL_BLOCK_K) {
+			final int kEnd = Math.min(kk + MUL_BLOCK_K, n);
+
+			for (int jj = 0; jj < p; jj += MUL_BLOCK_J) {
+				final int jEnd = Math.min(jj + MUL_BLOCK_J, p);
+
+				for (int i = rowBegin; i < rowEnd; i++) {
+					final int aRow = aOffset + i * aStride;
+					final int cRow = cOffset + i * cStride;
+
+					for (int k = kk; k < kEnd; k++) {
+						final float aik = a[aRow + k];
+						final int bRow = bOffset + k * bStride;
+
+						for (int j = jj; j < jEnd; j++)
+							c[cRow + j] += aik * b[bRow + j];
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Computes the rows rowBegin to rowEnd - 1 of the row major matrix product c = a * b,
+	 * where a is an m x n and b an n x p matrix. The matrices are addressed by offset
+	 * and row stride (the number of doubles from one row to the next), so submatrices
+	 * can be passed directly.<br>
+	 * This is the double precision version of
+	 * {@link #mulRowMajor(float[], int, int, float[], int, int, float[], int, int, int, int, int, int)}.
+	 * c must not overlap a or b.
+	 * 
+	 * @param a
+	 * @param aOffset
+	 * @param aStride
+	 * @param b
+	 * @param bOffset
+	 * @param bStride
+	 * @param c
+	 * @param cOffset
+	 * @param cStride
+	 * @param rowBegin the first row of c to compute
+	 * @param rowEnd the row after the last row of c to compute
+	 * @param n the number of columns of a (rows of b)
+	 * @param p the number of columns of b and c
+	 */
+	public static final void mulRowMajor(double[] a, int aOffset, int aStride, double[] b, int bOffset, int bStride, double[] c, int cOffset, int cStride, int rowBegin, int rowEnd,
+			int n, int p) {
+		for (int i = rowBegin; i < rowEnd; i++) {
+			final int cRow = cOffset + i * cStride;
+
+			for (int j = 0; j < p; j++)
+				c[cRow + j] = 0d;
+		}
+
+		for (int kk = 0; kk < n; kk += MUL_BLOCK_K) {
+			final int kEnd = Math.min(kk + MUL_BLOCK_K, n);
+
+			for (int jj = 0; jj < p; jj += MUL_BLOCK_J) {
+				final int jEnd = Math.min(jj + MUL_BLOCK_J, p);
+
+				for (int i = rowBegin; i < rowEnd; i++) {
+					final int aRow = aOffset + i * aStride;
+					final int cRow = cOffset + i * cStride;
+
+					for (int k = kk; k < kEnd; k++) {
+						final double aik = a[aRow + k];
+						final int bRow = bOffset + k * bStride;
+
+						for (int j = jj; j < jEnd; j++)
+							c[cRow + j] += aik * b[bRow + j];
+					}
+				}
+			}
+		}
+	}
 }
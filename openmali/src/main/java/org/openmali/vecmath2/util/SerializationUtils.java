@@ -93,6 +93,24 @@ public class SerializationUtils {
 		writeToBuffer(ints, 0, ints.length, pos, buffer);
 	}
 
+	/**
+	 * Writes a long as eight bytes to the specified position of the byte array.
+	 * 
+	 * @param l the long to write
+	 * @param pos the position to write to (and the succeeding seven bytes)
+	 * @param buffer the byte array to write to
+	 */
+	public static final void writeToBuffer(final long l, final int pos, final byte[] buffer) {
+		buffer[pos + 0] = (byte) (l >> 56);
+		buffer[pos + 1] = (byte) (l >> 48);
+		buffer[pos + 2] = (byte) (l >> 40);
+		buffer[pos + 3] = (byte) (l >> 32);
+		buffer[pos + 4] = (byte) (l >> 24);
+		buffer[pos + 5] = (byte) (l >> 16);
+		buffer[pos + 6] = (byte) (l >> 8);
+		buffer[pos + 7] = (byte) (l >> 0);
+	}
+
 	/**
 	 * Writes a float as four bytes to the specified position of the byte array.
 	 * 
@@ -125,7 +143,7 @@ public class SerializationUtils {
 	 * Writes a double as eight bytes to the specified position of the byte array.
 	 * 
 	 * @param d the double to write
-	 * @param pos the position to write to (and the succeeding three bytes)
+	 * @param pos the position to write to (and the succeeding seven bytes)
 	 * @param buffer the byte array to write to
 	 */
 	public static final void writeToBuffer(final double d, final int pos, final byte[] buffer) {
@@ -133,7 +151,7 @@ public class SerializationUtils {
 	}
 
 	/**
-	 * Writes a double-array as four bytes each to the specified position of the byte array.
+	 * Writes a double-array as eight bytes each to the specified position of the byte array.
 	 * 
 	 * @param doubles the double-array to write
 	 * @param start the index of the first double to write
@@ -145,7 +163,7 @@ public class SerializationUtils {
 		final int end = start + length;
 		for (int i = start; i < end; i++) {
 			writeToBuffer(doubles[i], pos, buffer);
-			pos += 4;
+			pos += 8;
 		}
 	}
 
@@ -253,14 +271,14 @@ public class SerializationUtils {
 	 * @return the read long
 	 */
 	public static final long readLongFromBuffer(int pos, final byte[] buffer) {
-		final int byte7 = (buffer[pos + 0] & 0x00000000000000FF) << 64;
-		final int byte6 = (buffer[pos + 1] & 0x00000000000000FF) << 48;
-		final int byte5 = (buffer[pos + 2] & 0x00000000000000FF) << 40;
-		final int byte4 = (buffer[pos + 3] & 0x00000000000000FF) << 32;
-		final int byte3 = (buffer[pos + 4] & 0x00000000000000FF) << 24;
-		final int byte2 = (buffer[pos + 5] & 0x00000000000000FF) << 16;
-		final int byte1 = (buffer[pos + 6] & 0x00000000000000FF) << 8;
-		final int byte0 = (buffer[pos + 7] & 0x00000000000000FF) << 0;
+		final long byte7 = (buffer[pos + 0] & 0x00000000000000FFL) << 56;
+		final long byte6 = (buffer[pos + 1] & 0x00000000000000FFL) << 48;
+		final long byte5 = (buffer[pos + 2] & 0x00000000000000FFL) << 40;
+		final long byte4 = (buffer[pos + 3] & 0x00000000000000FFL) << 32;
+		final long byte3 = (buffer[pos + 4] & 0x00000000000000FFL) << 24;
+		final long byte2 = (buffer[pos + 5] & 0x00000000000000FFL) << 16;
+		final long byte1 = (buffer[pos + 6] & 0x00000000000000FFL) << 8;
+		final long byte0 = (buffer[pos + 7] & 0x00000000000000FFL) << 0;
 
 		return (byte7 + byte6 + byte5 + byte4 + byte3 + byte2 + byte1 + byte0);
 	}
@@ -358,7 +376,7 @@ public class SerializationUtils {
 		final int end = start + length;
 		for (int i = start; i < end; i++) {
 			out[i] = readDoubleFromBuffer(pos, buffer);
-			pos += 4;
+			pos += 8;
 		}
 	}
 
@@ -0,0 +1,356 @@
+/**
+ * Copyright (c) 2007-2009, OpenMaLi Project Group all rights reserved.
+ * 
+ * Portions based on the Sun's javax.vecmath interface, Copyright by Sun
+ * Microsystems or Kenji Hiranabe's alternative GC-cheap implementation.
+ * Many thanks to the developers.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * Neither the name of the 'OpenMaLi Project Group' nor the names of its
+ * contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) A
+ * RISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE
+ */
+package org.openmali.vecmath2.util;
+
+import org.openmali.vecmath2.Matrix3f;
+import org.openmali.vecmath2.Matrix4f;
+import org.openmali.vecmath2.Point3f;
+import org.openmali.vecmath2.Quaternion4f;
+import org.openmali.vecmath2.Vector3f;
+import org.openmali.vecmath2.Vector4f;
+
+/**
+ * A per-thread stack allocator for temporary vecmath instances.<br>
+ * A frame is opened by {@link #push()} and all instances handed out by it
+ * are released at once by {@link #pop()}, which only resets a few indices.
+ * The instances are kept and reused by the next frames, so there's no
+ * garbage and only one ThreadLocal lookup per frame.<br>
+ * <br>
+ * Usage:
+ * 
+ * <pre>
+ * final VecStack stack = VecStack.push();
+ * try {
+ * 	Vector3f v = stack.vec3();
+ * 	...
+ * } finally {
+ * 	stack.pop();
+ * }
+ * </pre>
+ * 
+ * Frames may be nested. Popping a frame also pops all frames pushed after
+ * it, so a missed {@link #pop()} of an inner frame is repaired by the outer
+ * one. A popped frame refuses further allocations, until a new frame is
+ * pushed at the same depth. That frame reuses the popped frame's object, so a
+ * reference kept from before can't be told apart from it. A frame must only
+ * be used by the thread, that pushed it, and neither the frame nor its
+ * instances must be used after it has been popped.
+ */
+public final class VecStack {
+	private static final class Store {
+		VecStack[] frames = new VecStack[8];
+		int depth = 0;
+
+		Vector3f[] vec3 = new Vector3f[16];
+		int numVec3 = 0;
+		Point3f[] point3 = new Point3f[16];
+		int numPoint3 = 0;
+		Vector4f[] vec4 = new Vector4f[4];
+		int numVec4 = 0;
+		Matrix3f[] mat3 = new Matrix3f[4];
+		int numMat3 = 0;
+		Matrix4f[] mat4 = new Matrix4f[4];
+		int numMat4 = 0;
+		Quaternion4f[] quat4 = new Quaternion4f[4];
+		int numQuat4 = 0;
+	}
+
+	private static final ThreadLocal<Store> STORE = new ThreadLocal<Store>() {
+		@Override
+		protected Store initialValue() {
+			return (new Store());
+		}
+	};
+
+	private final Store store;
+	private final int level;
+
+	private int markVec3;
+	private int markPoint3;
+	private int markVec4;
+	private int markMat3;
+	private int markMat4;
+	private int markQuat4;
+
+	/**
+	 * Opens a new frame on the current thread's stack.
+	 * 
+	 * @return the new frame
+	 */
+	public static VecStack push() {
+		final Store store = STORE.get();
+
+		if (store.depth == store.frames.length) {
+			final VecStack[] frames = new VecStack[store.frames.length * 2];
+			System.arraycopy(store.frames, 0, frames, 0, store.frames.length);
+			store.frames = frames;
+		}
+
+		VecStack frame = store.frames[store.depth];
+		if (frame == null) {
+			frame = new VecStack(store, store.depth);
+			store.frames[store.depth] = frame;
+		}
+
+		frame.markVec3 = store.numVec3;
+		frame.markPoint3 = store.numPoint3;
+		frame.markVec4 = store.numVec4;
+		frame.markMat3 = store.numMat3;
+		frame.markMat4 = store.numMat4;
+		frame.markQuat4 = store.numQuat4;
+
+		store.depth++;
+
+		return (frame);
+	}
+
+	/**
+	 * Closes this frame (and all frames pushed after it) and releases all
+	 * instances handed out since it was pushed.
+	 */
+	public final void pop() {
+		final Store store = this.store;
+
+		if (store.depth <= level)
+			throw new IllegalStateException("This frame has already been popped.");
+
+		store.numVec3 = markVec3;
+		store.numPoint3 = markPoint3;
+		store.numVec4 = markVec4;
+		store.numMat3 = markMat3;
+		store.numMat4 = markMat4;
+		store.numQuat4 = markQuat4;
+
+		store.depth = level;
+	}
+
+	/**
+	 * @return the number of open frames on the current thread
+	 */
+	public static int getDepth() {
+		return (STORE.get().depth);
+	}
+
+	private final Store checkOpen() {
+		if (store.depth <= level)
+			throw new IllegalStateException("This frame has already been popped.");
+
+		return (store);
+	}
+
+	/**
+	 * @return a zero Vector3f, that is valid until this frame is popped
+	 */
+	public final Vector3f vec3() {
+		final Store store = checkOpen();
+
+		if (store.numVec3 == store.vec3.length) {
+			final Vector3f[] vec3 = new Vector3f[store.vec3.length * 2];
+			System.arraycopy(store.vec3, 0, vec3, 0, store.vec3.length);
+			store.vec3 = vec3;
+		}
+
+		Vector3f v = store.vec3[store.numVec3];
+		if (v == null) {
+			v = new Vector3f();
+			store.vec3[store.numVec3] = v;
+		} else {
+			v.setZero();
+		}
+
+		store.numVec3++;
+
+		return (v);
+	}
+
+	/**
+	 * @return a Vector3f, that is valid until this frame is popped
+	 * 
+	 * @param x
+	 * @param y
+	 * @param z
+	 */
+	public final Vector3f vec3(float x, float y, float z) {
+		final Vector3f v = vec3();
+
+		v.set(x, y, z);
+
+		return (v);
+	}
+
+	/**
+	 * @return a zero Point3f, that is valid until this frame is popped
+	 */
+	public final Point3f point3() {
+		final Store store = checkOpen();
+
+		if (store.numPoint3 == store.point3.length) {
+			final Point3f[] point3 = new Point3f[store.point3.length * 2];
+			System.arraycopy(store.point3, 0, point3, 0, store.point3.length);
+			store.point3 = point3;
+		}
+
+		Point3f p = store.point3[store.numPoint3];
+		if (p == null) {
+			p = new Point3f();
+			store.point3[store.numPoint3] = p;
+		} else {
+			p.setZero();
+		}
+
+		store.numPoint3++;
+
+		return (p);
+	}
+
+	/**
+	 * @return a Point3f, that is valid until this frame is popped
+	 * 
+	 * @param x
+	 * @param y
+	 * @param z
+	 */
+	public final Point3f point3(float x, float y, float z) {
+		final Point3f p = point3();
+
+		p.set(x, y, z);
+
+		return (p);
+	}
+
+	/**
+	 * @return a zero Vector4f, that is valid until this frame is popped
+	 */
+	public final Vector4f vec4() {
+		final Store store = checkOpen();
+
+		if (store.numVec4 == store.vec4.length) {
+			final Vector4f[] vec4 = new Vector4f[store.vec4.length * 2];
+			System.arraycopy(store.vec4, 0, vec4, 0, store.vec4.length);
+			store.vec4 = vec4;
+		}
+
+		Vector4f v = store.vec4[store.numVec4];
+		if (v == null) {
+			v = new Vector4f();
+			store.vec4[store.numVec4] = v;
+		} else {
+			v.setZero();
+		}
+
+		store.numVec4++;
+
+		return (v);
+	}
+
+	/**
+	 * @return a zero Matrix3f, that is valid until this frame is popped
+	 */
+	public final Matrix3f mat3() {
+		final Store store = checkOpen();
+
+		if (store.numMat3 == store.mat3.length) {
+			final Matrix3f[] mat3 = new Matrix3f[store.mat3.length * 2];
+			System.arraycopy(store.mat3, 0, mat3, 0, store.mat3.length);
+			store.mat3 = mat3;
+		}
+
+		Matrix3f m = store.mat3[store.numMat3];
+		if (m == null) {
+			m = new Matrix3f();
+			store.mat3[store.numMat3] = m;
+		} else {
+			m.setZero();
+		}
+
+		store.numMat3++;
+
+		return (m);
+	}
+
+	/**
+	 * @return a zero Matrix4f, that is valid until this frame is popped
+	 */
+	public final Matrix4f mat4() {
+		final Store store = checkOpen();
+
+		if (store.numMat4 == store.mat4.length) {
+			final Matrix4f[] mat4 = new Matrix4f[store.mat4.length * 2];
+			System.arraycopy(store.mat4, 0, mat4, 0, store.mat4.length);
+			store.mat4 = mat4;
+		}
+
+		Matrix4f m = store.mat4[store.numMat4];
+		if (m == null) {
+			m = new Matrix4f();
+			store.mat4[store.numMat4] = m;
+		} else {
+			m.setZero();
+		}
+
+		store.numMat4++;
+
+		return (m);
+	}
+
+	/**
+	 * @return a zero Quaternion4f, that is valid until this frame is popped
+	 */
+	public final Quaternion4f quat4() {
+		final Store store = checkOpen();
+
+		if (store.numQuat4 == store.quat4.length) {
+			final Quaternion4f[] quat4 = new Quaternion4f[store.quat4.length * 2];
+			System.arraycopy(store.quat4, 0, quat4, 0, store.quat4.length);
+			store.quat4 = quat4;
+		}
+
+		Quaternion4f q = store.quat4[store.numQuat4];
+		if (q == null) {
+			q = new Quaternion4f();
+			store.quat4[store.numQuat4] = q;
+		} else {
+			q.setZero();
+		}
+
+		store.numQuat4++;
+
+		return (q);
+	}
+
+	private VecStack(Store store, int level) {
+		this.store = store;
+		this.level = level;
+	}
+}